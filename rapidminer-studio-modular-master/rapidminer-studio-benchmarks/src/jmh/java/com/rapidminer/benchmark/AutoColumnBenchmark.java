@@ -0,0 +1,147 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.table.AttributeFactory;
+import com.rapidminer.example.table.DataRow;
+import com.rapidminer.example.table.internal.ColumnarExampleTable;
+import com.rapidminer.example.utils.ExampleSetBuilder.DataManagement;
+import com.rapidminer.tools.Ontology;
+
+
+/**
+ * Benchmarks the auto columns of the {@link ColumnarExampleTable} for different densities. The
+ * densities are chosen such that the columns end up with dense, medium sparse and highly sparse
+ * chunks. The {@link #setRandom()} benchmark writes non-default values to random rows and thereby
+ * measures the switching of sparse chunks to denser representations.
+ *
+ * @since 9.11
+ */
+@State(Scope.Benchmark)
+public class AutoColumnBenchmark {
+
+	private static final int ROWS = 500_000;
+
+	private static final int COLUMNS = 4;
+
+	private static final long SEED = 1_337L;
+
+	/** the fraction of non-zero values */
+	@Param({ "1.0", "0.3", "0.005" })
+	private double density;
+
+	@Param({ "AUTO", "MEMORY_OPTIMIZED" })
+	private DataManagement management;
+
+	private List<Attribute> attributes;
+
+	private double[][] rows;
+
+	private int[] randomRows;
+
+	private ColumnarExampleTable table;
+
+	@Setup(Level.Trial)
+	public void createData() {
+		attributes = new ArrayList<>();
+		for (int i = 0; i < COLUMNS; i++) {
+			// alternate between double and integer auto columns
+			attributes.add(AttributeFactory.createAttribute("att_" + i, i % 2 == 0 ? Ontology.REAL : Ontology.INTEGER));
+		}
+		Random random = new Random(SEED);
+		rows = new double[ROWS][COLUMNS];
+		for (double[] row : rows) {
+			for (int i = 0; i < COLUMNS; i++) {
+				row[i] = random.nextDouble() < density ? random.nextInt(1000) : 0;
+			}
+		}
+		randomRows = new int[ROWS / 10];
+		for (int i = 0; i < randomRows.length; i++) {
+			randomRows[i] = random.nextInt(ROWS);
+		}
+	}
+
+	/**
+	 * Creates a new table for every iteration since {@link #setRandom()} changes the chunks.
+	 */
+	@Setup(Level.Iteration)
+	public void createTable() {
+		table = build();
+	}
+
+	@Benchmark
+	public ColumnarExampleTable build() {
+		ColumnarExampleTable newTable = new ColumnarExampleTable(attributes, management, true);
+		newTable.setExpectedSize(ROWS);
+		for (double[] row : rows) {
+			newTable.addRow(row);
+		}
+		newTable.complete();
+		return newTable;
+	}
+
+	@Benchmark
+	public double readSequential() {
+		double sum = 0;
+		for (int i = 0; i < ROWS; i++) {
+			DataRow row = table.getDataRow(i);
+			for (Attribute attribute : attributes) {
+				sum += row.get(attribute);
+			}
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public double readRandom() {
+		double sum = 0;
+		for (int index : randomRows) {
+			DataRow row = table.getDataRow(index);
+			for (Attribute attribute : attributes) {
+				sum += row.get(attribute);
+			}
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public ColumnarExampleTable setRandom() {
+		int value = 1;
+		for (int index : randomRows) {
+			DataRow row = table.getDataRow(index);
+			for (Attribute attribute : attributes) {
+				row.set(attribute, value++);
+			}
+		}
+		return table;
+	}
+
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.rapidminer.adaption.belt.IOTable;
+import com.rapidminer.benchmark.SyntheticData.Shape;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.utils.ExampleSetBuilder.DataManagement;
+import com.rapidminer.studio.concurrency.internal.SequentialConcurrencyContext;
+import com.rapidminer.tools.belt.BeltConversionTools;
+
+
+/**
+ * Benchmarks the conversion between example sets and belt tables via {@link BeltConversionTools}
+ * in both directions. The conversion to example sets only wraps the table, so
+ * {@link #toExampleSetAndRead()} additionally reads all values of the result.
+ *
+ * @since 9.11
+ */
+@State(Scope.Benchmark)
+public class BeltConversionBenchmark {
+
+	@Param({ "DENSE", "SPARSE", "NOMINAL", "WIDE", "TALL" })
+	private Shape shape;
+
+	private ExampleSet exampleSet;
+
+	private IOTable table;
+
+	private double[] buffer;
+
+	@Setup
+	public void setup() {
+		BenchmarkEnvironment.init();
+		BenchmarkEnvironment.useLegacyDataManagement(false);
+		exampleSet = SyntheticData.create(shape, DataManagement.AUTO);
+		table = BeltConversionTools.asIOTableOrNull(exampleSet, new SequentialConcurrencyContext());
+		buffer = new double[exampleSet.size()];
+	}
+
+	@Benchmark
+	public IOTable toTable() {
+		return BeltConversionTools.asIOTableOrNull(exampleSet, new SequentialConcurrencyContext());
+	}
+
+	@Benchmark
+	public double toExampleSetAndRead() {
+		ExampleSet converted = BeltConversionTools.asExampleSetOrNull(table);
+		double sum = 0;
+		for (Attribute attribute : converted.getAttributes()) {
+			converted.getValues(attribute, 0, buffer.length, buffer, 0);
+			for (double value : buffer) {
+				sum += value;
+			}
+		}
+		return sum;
+	}
+
+}
@@ -0,0 +1,96 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.benchmark;
+
+import com.rapidminer.RapidMiner;
+import com.rapidminer.RapidMiner.ExecutionMode;
+import com.rapidminer.operator.IOObject;
+import com.rapidminer.operator.Operator;
+import com.rapidminer.operator.OperatorCreationException;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.tools.OperatorService;
+import com.rapidminer.tools.ParameterService;
+
+
+/**
+ * Initializes RapidMiner once per benchmark JVM and provides helpers to run single operators
+ * without a process.
+ *
+ * @since 9.11
+ */
+public final class BenchmarkEnvironment {
+
+	private static boolean initialized;
+
+	private BenchmarkEnvironment() {
+		throw new AssertionError("utility class");
+	}
+
+	/**
+	 * Initializes RapidMiner headless if that did not happen yet.
+	 */
+	public static synchronized void init() {
+		if (!initialized) {
+			RapidMiner.setExecutionMode(ExecutionMode.EMBEDDED_WITHOUT_UI);
+			RapidMiner.init();
+			initialized = true;
+		}
+	}
+
+	/**
+	 * Selects the example table implementation used by newly built example sets.
+	 *
+	 * @param legacy
+	 *            {@code true} for the row based {@link com.rapidminer.example.table.MemoryExampleTable},
+	 *            {@code false} for the {@link com.rapidminer.example.table.internal.ColumnarExampleTable}
+	 */
+	public static void useLegacyDataManagement(boolean legacy) {
+		ParameterService.setParameterValue(RapidMiner.PROPERTY_RAPIDMINER_SYSTEM_LEGACY_DATA_MGMT,
+				String.valueOf(legacy));
+	}
+
+	/**
+	 * Creates an operator of the given class.
+	 */
+	public static <T extends Operator> T createOperator(Class<T> operatorClass) throws OperatorCreationException {
+		init();
+		return OperatorService.createOperator(operatorClass);
+	}
+
+	/**
+	 * Delivers the inputs to the input ports with the given names, executes the operator and
+	 * returns the data of its first output port.
+	 *
+	 * @param operator
+	 *            the operator to execute
+	 * @param portNames
+	 *            the names of the input ports
+	 * @param inputs
+	 *            the input for every port
+	 * @return the first output
+	 */
+	public static IOObject run(Operator operator, String[] portNames, IOObject... inputs) throws OperatorException {
+		for (int i = 0; i < inputs.length; i++) {
+			operator.getInputPorts().getPortByName(portNames[i]).receive(inputs[i]);
+		}
+		operator.doWork();
+		return operator.getOutputPorts().getPortByIndex(0).getAnyDataOrNull();
+	}
+
+}
@@ -0,0 +1,108 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.rapidminer.benchmark.SyntheticData.Shape;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Example;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.utils.ExampleSetBuilder.DataManagement;
+
+
+/**
+ * Benchmarks building and reading example sets backed by the row based
+ * {@link com.rapidminer.example.table.MemoryExampleTable} and the
+ * {@link com.rapidminer.example.table.internal.ColumnarExampleTable}.
+ *
+ * @since 9.11
+ */
+@State(Scope.Benchmark)
+public class ExampleTableBenchmark {
+
+	@Param({ "DENSE", "SPARSE", "NOMINAL", "WIDE", "TALL" })
+	private Shape shape;
+
+	/** {@code true} for the memory example table */
+	@Param({ "false", "true" })
+	private boolean legacy;
+
+	private ExampleSet exampleSet;
+
+	private double[] buffer;
+
+	@Setup
+	public void setup() {
+		BenchmarkEnvironment.init();
+		BenchmarkEnvironment.useLegacyDataManagement(legacy);
+		exampleSet = SyntheticData.create(shape, DataManagement.AUTO);
+		buffer = new double[exampleSet.size()];
+	}
+
+	@Benchmark
+	public ExampleSet build() {
+		return SyntheticData.create(shape, DataManagement.AUTO);
+	}
+
+	@Benchmark
+	public double readByExample() {
+		Attribute[] attributes = exampleSet.getAttributes().createRegularAttributeArray();
+		double sum = 0;
+		for (Example example : exampleSet) {
+			for (Attribute attribute : attributes) {
+				sum += example.getValue(attribute);
+			}
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public double readByColumn() {
+		Attribute[] attributes = exampleSet.getAttributes().createRegularAttributeArray();
+		double sum = 0;
+		for (Attribute attribute : attributes) {
+			exampleSet.getValues(attribute, 0, buffer.length, buffer, 0);
+			for (double value : buffer) {
+				sum += value;
+			}
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public void write(Blackhole blackhole) {
+		Attribute[] attributes = exampleSet.getAttributes().createRegularAttributeArray();
+		int row = 0;
+		for (Example example : exampleSet) {
+			// every nominal attribute has at least two values
+			double value = row++ & 1;
+			for (Attribute attribute : attributes) {
+				example.setValue(attribute, value);
+			}
+		}
+		blackhole.consume(exampleSet);
+	}
+
+}
@@ -0,0 +1,138 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.benchmark;
+
+import java.util.Collections;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.rapidminer.benchmark.SyntheticData.Shape;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.set.SortedExampleSet;
+import com.rapidminer.example.utils.ExampleSetBuilder.DataManagement;
+import com.rapidminer.operator.IOObject;
+import com.rapidminer.operator.Model;
+import com.rapidminer.operator.OperatorCreationException;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.learner.tree.DecisionTreeLearner;
+import com.rapidminer.operator.preprocessing.filter.Sorting;
+import com.rapidminer.operator.preprocessing.join.ExampleSetJoin;
+import com.rapidminer.operator.preprocessing.transformation.aggregation.AggregationOperator;
+import com.rapidminer.operator.preprocessing.transformation.aggregation.MeanAggregationFunction;
+import com.rapidminer.parameter.ParameterTypeList;
+
+
+/**
+ * Benchmarks frequently used operators on the synthetic data. The operators are executed without a
+ * process, so the numbers contain neither meta data transformation nor port handling overhead.
+ *
+ * @since 9.11
+ */
+@State(Scope.Benchmark)
+public class OperatorBenchmark {
+
+	@Param({ "DENSE", "NOMINAL", "WIDE", "TALL" })
+	private Shape shape;
+
+	/** {@code true} for the memory example table */
+	@Param({ "false", "true" })
+	private boolean legacy;
+
+	private ExampleSet exampleSet;
+
+	private ExampleSet joinPartner;
+
+	private Sorting sorting;
+
+	private AggregationOperator aggregateByNominal;
+
+	private AggregationOperator aggregateByKey;
+
+	private ExampleSetJoin join;
+
+	private DecisionTreeLearner decisionTree;
+
+	@Setup
+	public void setup() throws OperatorCreationException {
+		BenchmarkEnvironment.init();
+		BenchmarkEnvironment.useLegacyDataManagement(legacy);
+		exampleSet = SyntheticData.create(shape, DataManagement.AUTO);
+		joinPartner = SyntheticData.createJoinPartner(shape);
+
+		sorting = BenchmarkEnvironment.createOperator(Sorting.class);
+		sorting.setParameter(Sorting.PARAMETER_ATTRIBUTE_NAME, "num_0");
+		sorting.setParameter(Sorting.PARAMETER_SORTING_DIRECTION,
+				SortedExampleSet.SORTING_DIRECTIONS[SortedExampleSet.INCREASING]);
+
+		// group by a low and a high cardinality attribute, the first attribute is nominal only for
+		// the nominal shape
+		aggregateByNominal = createAggregation(shape == Shape.NOMINAL ? "nom_2" : SyntheticData.LABEL);
+		aggregateByKey = createAggregation(SyntheticData.KEY);
+
+		join = BenchmarkEnvironment.createOperator(ExampleSetJoin.class);
+		join.setParameter(ExampleSetJoin.PARAMETER_USE_ID, "false");
+		join.setParameter(ExampleSetJoin.PARAMETER_JOIN_TYPE, ExampleSetJoin.JOIN_TYPES[0]);
+		join.setParameter(ExampleSetJoin.PARAMETER_JOIN_ATTRIBUTES, ParameterTypeList.transformList2String(
+				Collections.singletonList(new String[] { SyntheticData.KEY, SyntheticData.KEY })));
+
+		decisionTree = BenchmarkEnvironment.createOperator(DecisionTreeLearner.class);
+	}
+
+	@Benchmark
+	public ExampleSet sort() throws OperatorException {
+		return sorting.apply(exampleSet);
+	}
+
+	@Benchmark
+	public ExampleSet aggregateLowCardinality() throws OperatorException {
+		return aggregateByNominal.apply(exampleSet);
+	}
+
+	@Benchmark
+	public ExampleSet aggregateHighCardinality() throws OperatorException {
+		return aggregateByKey.apply(exampleSet);
+	}
+
+	@Benchmark
+	public IOObject join() throws OperatorException {
+		return BenchmarkEnvironment.run(join, new String[] { "left", "right" }, exampleSet, joinPartner);
+	}
+
+	@Benchmark
+	public Model decisionTree() throws OperatorException {
+		return decisionTree.learn(exampleSet);
+	}
+
+	/**
+	 * Creates an aggregation that averages all numerical attributes grouped by the given attribute.
+	 */
+	private static AggregationOperator createAggregation(String groupBy) throws OperatorCreationException {
+		AggregationOperator aggregation = BenchmarkEnvironment.createOperator(AggregationOperator.class);
+		aggregation.setParameter(AggregationOperator.PARAMETER_USE_DEFAULT_AGGREGATION, "true");
+		aggregation.setParameter(AggregationOperator.PARAMETER_DEFAULT_AGGREGATION_FUNCTION,
+				MeanAggregationFunction.FUNCTION_AVERAGE);
+		aggregation.setParameter(AggregationOperator.PARAMETER_GROUP_BY_ATTRIBUTES, groupBy);
+		return aggregation;
+	}
+
+}
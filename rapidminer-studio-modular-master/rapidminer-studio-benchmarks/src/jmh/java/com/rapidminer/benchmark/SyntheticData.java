@@ -0,0 +1,216 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntToDoubleFunction;
+
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Attributes;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.table.AttributeFactory;
+import com.rapidminer.example.utils.ExampleSetBuilder;
+import com.rapidminer.example.utils.ExampleSetBuilder.DataManagement;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.tools.Ontology;
+
+
+/**
+ * Generates reproducible example sets of different shapes for the benchmarks. Every column uses
+ * its own random generator with a fixed seed, so the data only depends on the shape.
+ * <p>
+ * Every example set contains an integer {@value #ID} attribute with the id role, an integer
+ * {@value #KEY} attribute with about four examples per value, numerical attributes
+ * {@code num_0, num_1, ...}, nominal attributes {@code nom_0, nom_1, ...} and a binominal
+ * {@value #LABEL} attribute with the label role that depends on the first numerical or nominal
+ * attribute.
+ *
+ * @since 9.11
+ */
+public final class SyntheticData {
+
+	/** The shapes of the generated data. */
+	public enum Shape {
+
+		/** many rows, mostly numerical */
+		DENSE(100_000, 20, 2, 0),
+
+		/** many rows, numerical with 95% zeros */
+		SPARSE(100_000, 50, 0, 0.95),
+
+		/** many rows, mostly nominal with 2 to 100 values */
+		NOMINAL(100_000, 2, 20, 0),
+
+		/** few rows, many numerical columns */
+		WIDE(1_000, 2_000, 0, 0),
+
+		/** very many rows, few columns */
+		TALL(2_000_000, 4, 1, 0);
+
+		private final int rows;
+		private final int numericalColumns;
+		private final int nominalColumns;
+		private final double sparsity;
+
+		Shape(int rows, int numericalColumns, int nominalColumns, double sparsity) {
+			this.rows = rows;
+			this.numericalColumns = numericalColumns;
+			this.nominalColumns = nominalColumns;
+			this.sparsity = sparsity;
+		}
+
+		public int getRows() {
+			return rows;
+		}
+	}
+
+	public static final String ID = "id";
+	public static final String KEY = "key";
+	public static final String LABEL = "label";
+
+	private static final long SEED = 1_337L;
+
+	/** the number of values of the nominal attributes, used in turn */
+	private static final int[] NOMINAL_VALUES = { 2, 10, 100 };
+
+	/** the fraction of labels that are flipped */
+	private static final double LABEL_NOISE = 0.1;
+
+	private SyntheticData() {
+		throw new AssertionError("utility class");
+	}
+
+	/**
+	 * Creates the example set for the given shape with the table implementation currently
+	 * selected by {@link BenchmarkEnvironment#useLegacyDataManagement(boolean)}.
+	 *
+	 * @param shape
+	 *            the shape of the data
+	 * @param management
+	 *            the optimization hint for the columnar table
+	 * @return a new example set
+	 */
+	public static ExampleSet create(Shape shape, DataManagement management) {
+		List<Attribute> attributes = new ArrayList<>();
+		Attribute id = AttributeFactory.createAttribute(ID, Ontology.INTEGER);
+		Attribute key = AttributeFactory.createAttribute(KEY, Ontology.INTEGER);
+		Attribute label = AttributeFactory.createAttribute(LABEL, Ontology.BINOMINAL);
+		label.getMapping().mapString("no");
+		label.getMapping().mapString("yes");
+		attributes.add(id);
+		attributes.add(key);
+		Attribute[] numerical = new Attribute[shape.numericalColumns];
+		for (int i = 0; i < numerical.length; i++) {
+			numerical[i] = AttributeFactory.createAttribute("num_" + i, Ontology.REAL);
+			attributes.add(numerical[i]);
+		}
+		Attribute[] nominal = new Attribute[shape.nominalColumns];
+		for (int i = 0; i < nominal.length; i++) {
+			nominal[i] = AttributeFactory.createAttribute("nom_" + i, Ontology.POLYNOMINAL);
+			int values = NOMINAL_VALUES[i % NOMINAL_VALUES.length];
+			for (int v = 0; v < values; v++) {
+				nominal[i].getMapping().mapString("v" + v);
+			}
+			attributes.add(nominal[i]);
+		}
+		attributes.add(label);
+
+		int rows = shape.rows;
+		ExampleSetBuilder builder = ExampleSets.from(attributes).withBlankSize(rows).withOptimizationHint(management)
+				.withRole(id, Attributes.ID_NAME).withRole(label, Attributes.LABEL_NAME);
+		// the builders do not guarantee an order of the column fillers, so all values are
+		// generated upfront
+		builder.withColumnFiller(id, i -> i);
+		Random keyRandom = new Random(SEED);
+		int keys = Math.max(1, rows / 4);
+		builder.withColumnFiller(key, column(rows, i -> keyRandom.nextInt(keys)));
+
+		double[] signal = null;
+		for (int column = 0; column < numerical.length; column++) {
+			Random random = new Random(SEED + 1 + column);
+			double[] values = generate(rows,
+					i -> shape.sparsity > 0 && random.nextDouble() < shape.sparsity ? 0 : random.nextGaussian());
+			builder.withColumnFiller(numerical[column], i -> values[i]);
+			if (column == 0) {
+				signal = values;
+			}
+		}
+		for (int column = 0; column < nominal.length; column++) {
+			Random random = new Random(SEED + 1 + numerical.length + column);
+			int numberOfValues = NOMINAL_VALUES[column % NOMINAL_VALUES.length];
+			double[] values = generate(rows, i -> random.nextInt(numberOfValues));
+			builder.withColumnFiller(nominal[column], i -> values[i]);
+			if (signal == null) {
+				signal = generate(rows, i -> values[i] - numberOfValues / 2.0);
+			}
+		}
+		double[] labelSignal = signal == null ? new double[rows] : signal;
+		Random labelRandom = new Random(SEED - 1);
+		builder.withColumnFiller(label,
+				column(rows, i -> labelSignal[i] > 0 ^ labelRandom.nextDouble() < LABEL_NOISE ? 1 : 0));
+		return builder.build();
+	}
+
+	/**
+	 * Creates an example set that can be joined with the example set of the given shape on the
+	 * {@value #KEY} attribute. It contains every key once and three numerical attributes.
+	 *
+	 * @param shape
+	 *            the shape of the data to join with
+	 * @return a new example set
+	 */
+	public static ExampleSet createJoinPartner(Shape shape) {
+		int rows = Math.max(1, shape.rows / 4);
+		List<Attribute> attributes = new ArrayList<>();
+		Attribute key = AttributeFactory.createAttribute(KEY, Ontology.INTEGER);
+		attributes.add(key);
+		for (int i = 0; i < 3; i++) {
+			attributes.add(AttributeFactory.createAttribute("right_" + i, Ontology.REAL));
+		}
+		ExampleSetBuilder builder = ExampleSets.from(attributes).withBlankSize(rows);
+		builder.withColumnFiller(key, i -> i);
+		for (int i = 1; i < attributes.size(); i++) {
+			Random random = new Random(SEED + 100 + i);
+			builder.withColumnFiller(attributes.get(i), column(rows, row -> random.nextGaussian()));
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Generates the values of a column in row order.
+	 */
+	private static double[] generate(int rows, IntToDoubleFunction generator) {
+		double[] values = new double[rows];
+		for (int i = 0; i < rows; i++) {
+			values[i] = generator.applyAsDouble(i);
+		}
+		return values;
+	}
+
+	/**
+	 * Generates the values of a column in row order and returns a filler for them.
+	 */
+	private static IntToDoubleFunction column(int rows, IntToDoubleFunction generator) {
+		double[] values = generate(rows, generator);
+		return i -> values[i];
+	}
+
+}
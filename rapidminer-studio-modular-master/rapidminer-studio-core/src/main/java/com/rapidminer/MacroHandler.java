@@ -140,6 +140,9 @@ public class MacroHandler extends Observable {
 
 	private final Object LOCK = new Object();
 
+	/** the number of changes of the macros, used to detect outdated meta data */
+	private volatile long modificationCount;
+
 	public MacroHandler(Process process) {
 		this.process = process;
 	}
@@ -148,10 +151,22 @@ public class MacroHandler extends Observable {
 		setChanged();
 		synchronized (LOCK) {
 			macroMap.clear();
+			modificationCount++;
 		}
 		notifyObservers(this);
 	}
 
+	/**
+	 * Returns the number of changes of the macros. The count changes whenever a macro is added,
+	 * changed or removed.
+	 *
+	 * @return the modification count
+	 * @since 9.11
+	 */
+	public long getModificationCount() {
+		return modificationCount;
+	}
+
 	public Iterator<String> getDefinedMacroNames() {
 		synchronized (LOCK) {
 			return new HashMap<>(macroMap).keySet().iterator();
@@ -187,6 +202,7 @@ public class MacroHandler extends Observable {
 			setChanged();
 			synchronized (LOCK) {
 				macroMap.put(macro, value);
+				modificationCount++;
 			}
 			notifyObservers(this);
 		}
@@ -196,6 +212,7 @@ public class MacroHandler extends Observable {
 		setChanged();
 		synchronized (LOCK) {
 			macroMap.remove(macro);
+			modificationCount++;
 		}
 		notifyObservers(this);
 	}
@@ -36,6 +36,7 @@ import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
 import java.util.logging.FileHandler;
@@ -83,6 +84,9 @@ import com.rapidminer.operator.nio.file.RepositoryBlobObject;
 import com.rapidminer.operator.ports.InputPort;
 import com.rapidminer.operator.ports.OutputPort;
 import com.rapidminer.operator.ports.Port;
+import com.rapidminer.operator.tools.ProcessProfile;
+import com.rapidminer.operator.tools.ProcessProfiler;
+import com.rapidminer.operator.tools.ProvideProcessProfileOperator;
 import com.rapidminer.parameter.UndefinedParameterError;
 import com.rapidminer.report.ReportStream;
 import com.rapidminer.repository.BinaryEntry;
@@ -158,7 +162,7 @@ public class Process extends AbstractObservable<Process> implements Cloneable {
 	private ProcessRootOperator rootOperator = null;
 
 	/** This is the operator which is currently applied. */
-	private Operator currentOperator;
+	private volatile Operator currentOperator;
 
 	/**
 	 * The process might be connected to this file or repository location which is then used to
@@ -212,7 +216,10 @@ public class Process extends AbstractObservable<Process> implements Cloneable {
 	 * Maps names of ProcessLog operators to Objects, that these Operators use for collecting
 	 * statistics (objects of type {@link DataTable}).
 	 */
-	private final Map<String, DataTable> dataTableMap = new HashMap<>();
+	private final Map<String, DataTable> dataTableMap = new ConcurrentHashMap<>();
+
+	/** The profiler of the current or last run, {@code null} if profiling was disabled. */
+	private ProcessProfiler profiler;
 
 	/**
 	 * Maps names of report streams to reportStream objects
@@ -729,6 +736,19 @@ public class Process extends AbstractObservable<Process> implements Cloneable {
 		return currentOperator;
 	}
 
+	/**
+	 * Returns the resource consumption of all operators of the current or last run. Profiling is
+	 * enabled by the setting {@link RapidMiner#PROPERTY_RAPIDMINER_SYSTEM_OPERATOR_PROFILING} or by
+	 * a {@link ProvideProcessProfileOperator} in the process.
+	 *
+	 * @return the profile or {@code null} if the process was not profiled
+	 * @since 9.11
+	 */
+	public ProcessProfile getProfile() {
+		ProcessProfiler current = profiler;
+		return current == null ? null : current.getProfile();
+	}
+
 	/** Returns a Collection view of all operators. */
 	public Collection<Operator> getAllOperators() {
 		List<Operator> result = rootOperator.getAllInnerOperators();
@@ -1334,6 +1354,7 @@ public class Process extends AbstractObservable<Process> implements Cloneable {
 
 			long start = System.currentTimeMillis();
 
+			startProfiling();
 			rootOperator.processStarts();
 
 			final int firstInput = input != null ? input.getIOObjects().length : 0;
@@ -1513,6 +1534,7 @@ public class Process extends AbstractObservable<Process> implements Cloneable {
 	private void finishProcess(Handler logHandler) {
 		stop();
 		tearDown();
+		finishProfiling();
 		if (logHandler != null) {
 			getLogger().removeHandler(logHandler);
 			logHandler.close();
@@ -1520,6 +1542,37 @@ public class Process extends AbstractObservable<Process> implements Cloneable {
 		ActionStatisticsCollector.getInstance().logExecutionFinished(this);
 	}
 
+	/**
+	 * Registers a new {@link ProcessProfiler} if profiling is enabled by the settings or by an
+	 * operator of the process.
+	 */
+	private void startProfiling() {
+		profiler = null;
+		boolean enabled = Boolean.parseBoolean(
+				ParameterService.getParameterValue(RapidMiner.PROPERTY_RAPIDMINER_SYSTEM_OPERATOR_PROFILING));
+		if (!enabled) {
+			for (Operator op : rootOperator.getAllInnerOperators()) {
+				if (op instanceof ProvideProcessProfileOperator && op.isEnabled()) {
+					enabled = true;
+					break;
+				}
+			}
+		}
+		if (enabled) {
+			profiler = new ProcessProfiler();
+			rootOperator.addProcessListener(profiler);
+		}
+	}
+
+	/** Unregisters the profiler of the finished run and logs the profile. */
+	private void finishProfiling() {
+		ProcessProfiler current = profiler;
+		if (current != null) {
+			rootOperator.removeProcessListener(current);
+			getLogger().log(Level.INFO, () -> "Operator profile:" + Tools.getLineSeparator() + current.getProfile());
+		}
+	}
+
 	/** This method is invoked after a process has finished. */
 	private void tearDown() {
 		try {
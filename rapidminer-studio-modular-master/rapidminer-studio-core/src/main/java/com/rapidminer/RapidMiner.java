@@ -76,6 +76,7 @@ import com.rapidminer.tools.I18N;
 import com.rapidminer.tools.I18N.SettingsType;
 import com.rapidminer.tools.I18NUtils;
 import com.rapidminer.tools.LogService;
+import com.rapidminer.tools.OperatorClassIndex;
 import com.rapidminer.tools.OperatorService;
 import com.rapidminer.tools.ParameterService;
 import com.rapidminer.tools.PlatformUtilities;
@@ -417,6 +418,21 @@ public class RapidMiner {
 	 */
 	public static final String PROPERTY_RAPIDMINER_GENERAL_NUMBER_OF_PROCESSES = "rapidminer.general.number_of_processes";
 
+	/**
+	 * The name of the property indicating whether independent operators of a subprocess may be executed concurrently.
+	 *
+	 * @since 9.11
+	 */
+	public static final String PROPERTY_RAPIDMINER_GENERAL_PARALLEL_SUBPROCESS_EXECUTION = "rapidminer.general.parallel_subprocess_execution";
+
+	/**
+	 * The name of the property indicating whether example sets should be stored column by column in the local
+	 * repository.
+	 *
+	 * @since 9.11
+	 */
+	public static final String PROPERTY_RAPIDMINER_GENERAL_COLUMNAR_EXAMPLE_SET_SERIALIZATION = "rapidminer.general.columnar_example_set_serialization";
+
 	/**
 	 * The name of the property indicating whether beta features should be activated. Increase the version number if
 	 * the beta features should be set to disabled again for everyone. The settings.xml and Settings.properties
@@ -446,6 +462,53 @@ public class RapidMiner {
 	 */
 	public static final String PROPERTY_RAPIDMINER_SYSTEM_LEGACY_DATA_MGMT = "rapidminer.system.legacy_data_mgmt";
 
+	/**
+	 * The name of the property indicating whether columns of retrieved hdf5 example sets should be read on first access.
+	 *
+	 * @since 9.11
+	 */
+	public static final String PROPERTY_RAPIDMINER_SYSTEM_LAZY_DATA_LOADING = "rapidminer.system.lazy_data_loading";
+
+	/**
+	 * The name of the property defining the size in MB of the kernel row cache that is shared by all SVM trainings.
+	 *
+	 * @since 9.11
+	 */
+	public static final String PROPERTY_RAPIDMINER_SYSTEM_SHARED_KERNEL_CACHE_SIZE = "rapidminer.system.shared_kernel_cache_size";
+
+	/**
+	 * The name of the property indicating whether numerical and boolean expressions should be compiled into block-wise
+	 * evaluated kernels instead of being interpreted row by row.
+	 *
+	 * @since 9.11
+	 */
+	public static final String PROPERTY_RAPIDMINER_SYSTEM_EXPRESSION_COMPILATION = "rapidminer.system.expression_compilation";
+
+	/**
+	 * The name of the property defining the size in MB of the operator result cache on the local disk that is shared by
+	 * all process runs.
+	 *
+	 * @since 9.11
+	 */
+	public static final String PROPERTY_RAPIDMINER_SYSTEM_OPERATOR_RESULT_CACHE_SIZE = "rapidminer.system.operator_result_cache_size";
+
+	/**
+	 * The name of the property indicating whether the resource consumption of all operators should be recorded and
+	 * logged at the end of every process run.
+	 *
+	 * @since 9.11
+	 */
+	public static final String PROPERTY_RAPIDMINER_SYSTEM_OPERATOR_PROFILING = "rapidminer.system.operator_profiling";
+
+	/**
+	 * The name of the property indicating whether the operator classes of unchanged jars should be loaded in the
+	 * background on startup, based on an index written on the previous start. The operators themselves are still
+	 * registered eagerly. Disabled by default.
+	 *
+	 * @since 9.11
+	 */
+	public static final String PROPERTY_RAPIDMINER_SYSTEM_OPERATOR_INDEX = "rapidminer.system.operator_index";
+
 	public static final String PROPERTY_RAPIDMINER_PROXY_MODE = "rapidminer.proxy.mode";
 	public static final String PROPERTY_RAPIDMINER_PROXY_EXCLUDE = "rapidminer.proxy.exclude";
 
@@ -548,6 +611,8 @@ public class RapidMiner {
 		registerParameter(new ParameterTypeInt(PROPERTY_RAPIDMINER_GENERAL_NUMBER_OF_THREADS_BACKGROUND, "", 0, Integer.MAX_VALUE, 0));
 		registerParameter(
 				new ParameterTypeInt(PROPERTY_RAPIDMINER_GENERAL_NUMBER_OF_PROCESSES, "", 0, Integer.MAX_VALUE, 0));
+		registerParameter(new ParameterTypeBoolean(PROPERTY_RAPIDMINER_GENERAL_PARALLEL_SUBPROCESS_EXECUTION, "", false));
+		registerParameter(new ParameterTypeBoolean(PROPERTY_RAPIDMINER_GENERAL_COLUMNAR_EXAMPLE_SET_SERIALIZATION, "", false));
 		registerParameter(new ParameterTypeString(PROPERTY_RAPIDMINER_TOOLS_EDITOR, "", true));
 		registerParameter(new ParameterTypeCategory(PROPERTY_RAPIDMINER_TOOLS_MAIL_METHOD, "",
 				PROPERTY_RAPIDMINER_TOOLS_MAIL_METHOD_VALUES, PROPERTY_RAPIDMINER_TOOLS_MAIL_METHOD_SMTP));
@@ -587,6 +652,20 @@ public class RapidMiner {
 
 		registerParameter(new ParameterTypeBoolean(PROPERTY_RAPIDMINER_SYSTEM_LEGACY_DATA_MGMT, "", false), "system");
 
+		registerParameter(new ParameterTypeBoolean(PROPERTY_RAPIDMINER_SYSTEM_LAZY_DATA_LOADING, "", false), "system");
+
+		registerParameter(new ParameterTypeInt(PROPERTY_RAPIDMINER_SYSTEM_SHARED_KERNEL_CACHE_SIZE, "", 0, Integer.MAX_VALUE, 0),
+				"system");
+
+		registerParameter(new ParameterTypeBoolean(PROPERTY_RAPIDMINER_SYSTEM_EXPRESSION_COMPILATION, "", true), "system");
+
+		registerParameter(new ParameterTypeInt(PROPERTY_RAPIDMINER_SYSTEM_OPERATOR_RESULT_CACHE_SIZE, "", 0, Integer.MAX_VALUE, 0),
+				"system");
+
+		registerParameter(new ParameterTypeBoolean(PROPERTY_RAPIDMINER_SYSTEM_OPERATOR_PROFILING, "", false), "system");
+
+		registerParameter(new ParameterTypeBoolean(PROPERTY_RAPIDMINER_SYSTEM_OPERATOR_INDEX, "", false), "system");
+
 		registerParameter(new ParameterTypeInt(WebServiceTools.WEB_SERVICE_TIMEOUT, "", 1, Integer.MAX_VALUE, 20000),
 				"system");
 
@@ -728,6 +807,9 @@ public class RapidMiner {
 			ConnectionInformationFileUtils.initSettings();
 		}
 
+		// load the indexed operator classes in the background while the remaining phases run
+		OperatorClassIndex.preloadCore();
+
 		// init encryption
 		EncryptionProvider.initialize();
 
@@ -771,6 +853,7 @@ public class RapidMiner {
 		RapidMiner.splashMessage("register_plugins");
 		Plugin.initAll();
 		Plugin.initPluginSplashTexts(RapidMiner.splashScreen);
+		OperatorClassIndex.preloadPlugins();
 
 		// initialize renderers
 		RapidMiner.splashMessage("init_renderers");
@@ -23,6 +23,7 @@ import java.io.IOException;
 import java.nio.charset.Charset;
 
 import com.rapidminer.adaption.belt.IODataTable;
+import com.rapidminer.core.concurrency.ConcurrencyContext;
 import com.rapidminer.example.table.ExampleTable;
 import com.rapidminer.operator.ResultObject;
 
@@ -157,6 +158,19 @@ public interface ExampleSet extends ResultObject, Cloneable, Iterable<Example>,
 	/** Recalculate all attribute statistics. */
 	public void recalculateAllAttributeStatistics();
 
+	/**
+	 * Recalculate all attribute statistics. Implementations can use the given context to count
+	 * several attributes in parallel, by default this is the same as
+	 * {@link #recalculateAllAttributeStatistics()}.
+	 *
+	 * @param context
+	 *            the context for parallel calculations, can be {@code null}
+	 * @since 9.11
+	 */
+	public default void recalculateAllAttributeStatistics(ConcurrencyContext context) {
+		recalculateAllAttributeStatistics();
+	}
+
 	/** Recalculate the attribute statistics of the given attribute. */
 	public void recalculateAttributeStatistics(Attribute attribute);
 
@@ -176,4 +190,65 @@ public interface ExampleSet extends ResultObject, Cloneable, Iterable<Example>,
 	 */
 	public double getStatistics(Attribute attribute, String statisticsName, String statisticsParameter);
 
+	/**
+	 * Copies the values of the given attribute for the examples {@code from} (inclusive) to
+	 * {@code to} (exclusive) into the target array, starting at the offset. The result is the same
+	 * as calling {@link Example#getValue(Attribute)} for every example, but implementations can
+	 * read the values without creating an {@link Example} and a data row per value, so this
+	 * should be preferred in loops over all examples.
+	 *
+	 * @param attribute
+	 *            the attribute to read
+	 * @param from
+	 *            the index of the first example
+	 * @param to
+	 *            the index after the last example
+	 * @param target
+	 *            the array to copy the values into
+	 * @param offset
+	 *            the position in the target array for the first value
+	 * @since 9.11
+	 */
+	public default void getValues(Attribute attribute, int from, int to, double[] target, int offset) {
+		for (int i = from; i < to; i++) {
+			target[offset++] = getExample(i).getValue(attribute);
+		}
+	}
+
+	/**
+	 * Copies the values of the given attribute for the examples with the given indices into the
+	 * target array, starting at the offset.
+	 *
+	 * @param attribute
+	 *            the attribute to read
+	 * @param indices
+	 *            the indices of the examples
+	 * @param target
+	 *            the array to copy the values into
+	 * @param offset
+	 *            the position in the target array for the first value
+	 * @see #getValues(Attribute, int, int, double[], int)
+	 * @since 9.11
+	 */
+	public default void getValues(Attribute attribute, int[] indices, double[] target, int offset) {
+		for (int index : indices) {
+			target[offset++] = getExample(index).getValue(attribute);
+		}
+	}
+
+	/**
+	 * Returns the values of the given attribute for all examples.
+	 *
+	 * @param attribute
+	 *            the attribute to read
+	 * @return a new array containing the value of every example
+	 * @see #getValues(Attribute, int, int, double[], int)
+	 * @since 9.11
+	 */
+	public default double[] getValues(Attribute attribute) {
+		double[] values = new double[size()];
+		getValues(attribute, 0, values.length, values, 0);
+		return values;
+	}
+
 }
@@ -39,6 +39,7 @@ import javax.xml.parsers.ParserConfigurationException;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 
+import com.rapidminer.core.concurrency.ConcurrencyContext;
 import com.rapidminer.datatable.DataTable;
 import com.rapidminer.datatable.DataTableExampleSetAdapter;
 import com.rapidminer.example.Attribute;
@@ -53,7 +54,9 @@ import com.rapidminer.io.process.XMLTools;
 import com.rapidminer.operator.IOContainer;
 import com.rapidminer.operator.IOObject;
 import com.rapidminer.operator.MissingIOObjectException;
+import com.rapidminer.operator.OperatorException;
 import com.rapidminer.operator.ResultObjectAdapter;
+import com.rapidminer.operator.WrapperOperatorRuntimeException;
 import com.rapidminer.tools.Ontology;
 import com.rapidminer.tools.Tools;
 import com.rapidminer.tools.XMLException;
@@ -419,12 +422,26 @@ public abstract class AbstractExampleSet extends ResultObjectAdapter implements
 	 */
 	@Override
 	public void recalculateAllAttributeStatistics() {
+		recalculateAllAttributeStatistics(null);
+	}
+
+	/**
+	 * Recalculates the attribute statistics for all attributes like
+	 * {@link #recalculateAllAttributeStatistics()}. If a context is given and the example set can be
+	 * read concurrently, groups of attributes are counted in parallel.
+	 * <p>
+	 * The statistics calculation is stopped by {@link Thread#interrupt()} or by stopping the context.
+	 *
+	 * @since 9.11
+	 */
+	@Override
+	public void recalculateAllAttributeStatistics(ConcurrencyContext context) {
 		List<Attribute> allAttributes = new ArrayList<Attribute>();
 		Iterator<Attribute> a = getAttributes().allAttributes();
 		while (a.hasNext()) {
 			allAttributes.add(a.next());
 		}
-		recalculateAttributeStatistics(allAttributes);
+		recalculateAttributeStatistics(allAttributes, context);
 	}
 
 	/**
@@ -436,16 +453,16 @@ public abstract class AbstractExampleSet extends ResultObjectAdapter implements
 	public void recalculateAttributeStatistics(Attribute attribute) {
 		List<Attribute> allAttributes = new ArrayList<Attribute>();
 		allAttributes.add(attribute);
-		recalculateAttributeStatistics(allAttributes);
+		recalculateAttributeStatistics(allAttributes, null);
 	}
 
 	/**
 	 * Here the Example Set is parsed only once, all the information is retained for each example
 	 * set.
 	 * <p>
-	 * The statistics calculation is stopped by {@link Thread#interrupt()}.
+	 * The statistics calculation is stopped by {@link Thread#interrupt()} or by stopping the context.
 	 */
-	private synchronized void recalculateAttributeStatistics(List<Attribute> attributeList) {
+	private synchronized void recalculateAttributeStatistics(List<Attribute> attributeList, ConcurrencyContext context) {
 		// do nothing if not desired
 		if (attributeList.size() == 0) {
 			return;
@@ -459,25 +476,20 @@ public abstract class AbstractExampleSet extends ResultObjectAdapter implements
 				weightAttribute = null;
 			}
 
-			for (Attribute attribute : attributeList) {
-				if (weightAttribute == null) {
-					for (Example example : this) {
-						double value = example.getValue(attribute);
-						attribute.getAllStatistics().forEachRemaining(s -> s.count(value, 1.0d));
-					}
-				} else {
-					for (Example example : this) {
-						double value = example.getValue(attribute);
-						double weight = example.getValue(weightAttribute);
-						attribute.getAllStatistics().forEachRemaining(s -> s.count(value, weight));
-					}
-				}
-				if (Thread.currentThread().isInterrupted()) {
-					// statistics is only partly calculated
+			boolean complete = false;
+			try {
+				complete = AttributeStatisticsCalculator.count(this, attributeList, weightAttribute, context);
+			} catch (OperatorException e) {
+				throw new WrapperOperatorRuntimeException(e);
+			} finally {
+				if (!complete) {
+					// statistics is only partly calculated, also if the context was stopped
 					resetAttributeStatistics(attributeList);
-					return;
 				}
 			}
+			if (!complete) {
+				return;
+			}
 
 			// store cloned statistics
 			for (Attribute attribute : attributeList) {
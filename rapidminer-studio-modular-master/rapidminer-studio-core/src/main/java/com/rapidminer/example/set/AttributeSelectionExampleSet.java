@@ -172,6 +172,16 @@ public class AttributeSelectionExampleSet extends AbstractExampleSet {
 		return parent.getExampleTable();
 	}
 
+	@Override
+	public void getValues(Attribute attribute, int from, int to, double[] target, int offset) {
+		parent.getValues(attribute, from, to, target, offset);
+	}
+
+	@Override
+	public void getValues(Attribute attribute, int[] indices, double[] target, int offset) {
+		parent.getValues(attribute, indices, target, offset);
+	}
+
 	@Override
 	public int size() {
 		return parent.size();
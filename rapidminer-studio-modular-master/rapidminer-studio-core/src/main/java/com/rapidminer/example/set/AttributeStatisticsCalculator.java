@@ -0,0 +1,149 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.example.set;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.core.concurrency.ExecutionStoppedException;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.Statistics;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.studio.concurrency.internal.ExecutionExceptionHandling;
+
+
+/**
+ * Counts the values of several attributes into their registered {@link Statistics} in a single
+ * pass over blocks of examples. The values of a block are read with
+ * {@link ExampleSet#getValues(Attribute, int, int, double[], int)} and passed to all statistics of
+ * the attribute. If a {@link ConcurrencyContext} is given and the example set can be read
+ * concurrently, groups of attributes are counted in parallel.
+ * <p>
+ * Every attribute is still counted in the order of the examples, so the statistics are exactly the
+ * same as when counting example by example. Splitting the examples instead would change the
+ * rounding of the sums and the mode of nominal attributes in case of ties.
+ *
+ * @since 9.11
+ */
+final class AttributeStatisticsCalculator {
+
+	/** the number of examples read at once */
+	static final int BLOCK_SIZE = 4096;
+
+	/** the minimal number of attributes counted by one task */
+	private static final int MIN_GROUP_SIZE = 4;
+
+	/** the number of tasks per thread to balance attributes with different costs */
+	private static final int TASKS_PER_THREAD = 4;
+
+	private AttributeStatisticsCalculator() {
+		throw new AssertionError("Utility class must not be instantiated");
+	}
+
+	/**
+	 * Counts all values of the given attributes into the statistics registered at the attributes.
+	 * The statistics must have been started before.
+	 *
+	 * @param exampleSet
+	 *            the example set to count
+	 * @param attributes
+	 *            the attributes to count
+	 * @param weightAttribute
+	 *            the numerical weight attribute or {@code null} to count every value with weight 1
+	 * @param context
+	 *            the context to count in parallel, can be {@code null}
+	 * @return {@code false} if the calculating thread was interrupted and the statistics are
+	 *         incomplete
+	 * @throws ExecutionStoppedException
+	 *             if the computations of the context were stopped
+	 * @throws OperatorException
+	 *             if a parallel computation failed with a checked exception
+	 */
+	static boolean count(ExampleSet exampleSet, List<Attribute> attributes, Attribute weightAttribute,
+			ConcurrencyContext context) throws OperatorException {
+		Statistics[][] statistics = new Statistics[attributes.size()][];
+		for (int a = 0; a < statistics.length; a++) {
+			List<Statistics> attributeStatistics = new ArrayList<>();
+			for (Iterator<Statistics> stats = attributes.get(a).getAllStatistics(); stats.hasNext();) {
+				attributeStatistics.add(stats.next());
+			}
+			statistics[a] = attributeStatistics.toArray(new Statistics[0]);
+		}
+		double[] weights = weightAttribute == null ? null : exampleSet.getValues(weightAttribute);
+
+		int parallelism = context == null ? 1 : context.getParallelism();
+		int groups = Math.min(parallelism * TASKS_PER_THREAD, attributes.size() / MIN_GROUP_SIZE);
+		if (parallelism <= 1 || groups <= 1 || !ExampleSets.isThreadSafe(exampleSet)) {
+			return count(exampleSet, attributes, statistics, weights, 0, attributes.size(), null);
+		}
+
+		List<Callable<Boolean>> tasks = new ArrayList<>(groups);
+		for (int group = 0; group < groups; group++) {
+			int from = (int) ((long) attributes.size() * group / groups);
+			int to = (int) ((long) attributes.size() * (group + 1) / groups);
+			tasks.add(() -> count(exampleSet, attributes, statistics, weights, from, to, context));
+		}
+		try {
+			for (boolean complete : context.call(tasks)) {
+				if (!complete) {
+					return false;
+				}
+			}
+			return !Thread.currentThread().isInterrupted();
+		} catch (ExecutionException e) {
+			throw ExecutionExceptionHandling.INSTANCE.processExecutionException(e, null);
+		}
+	}
+
+	/**
+	 * Counts the attributes from (inclusive) to (exclusive) block by block.
+	 */
+	private static boolean count(ExampleSet exampleSet, List<Attribute> attributes, Statistics[][] statistics,
+			double[] weights, int from, int to, ConcurrencyContext context) {
+		int size = exampleSet.size();
+		double[] values = new double[Math.min(BLOCK_SIZE, size)];
+		for (int start = 0; start < size; start += BLOCK_SIZE) {
+			int end = Math.min(size, start + BLOCK_SIZE);
+			for (int a = from; a < to; a++) {
+				exampleSet.getValues(attributes.get(a), start, end, values, 0);
+				Statistics[] attributeStatistics = statistics[a];
+				for (int i = 0; i < end - start; i++) {
+					double value = values[i];
+					double weight = weights == null ? 1.0d : weights[start + i];
+					for (Statistics s : attributeStatistics) {
+						s.count(value, weight);
+					}
+				}
+			}
+			if (context != null) {
+				context.checkStatus();
+			} else if (Thread.currentThread().isInterrupted()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
@@ -25,6 +25,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 
+import com.rapidminer.example.Attribute;
 import com.rapidminer.example.Attributes;
 import com.rapidminer.example.Example;
 import com.rapidminer.example.ExampleSet;
@@ -220,6 +221,16 @@ public class ConditionedExampleSet extends AbstractExampleSet implements Mapping
 		}
 	}
 
+	@Override
+	public void getValues(Attribute attribute, int from, int to, double[] target, int offset) {
+		ExampleSetUtilities.getMappedValues(parent, mapping, attribute, from, to, target, offset);
+	}
+
+	@Override
+	public void getValues(Attribute attribute, int[] indices, double[] target, int offset) {
+		ExampleSetUtilities.getMappedValues(parent, mapping, attribute, indices, target, offset);
+	}
+
 	/** Counts the number of examples which fulfills the condition. */
 	@Override
 	public int size() {
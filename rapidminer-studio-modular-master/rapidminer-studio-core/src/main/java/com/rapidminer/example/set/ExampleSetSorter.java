@@ -0,0 +1,347 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.example.set;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.table.NominalMapping;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.OperatorProgress;
+import com.rapidminer.operator.ProcessStoppedException;
+import com.rapidminer.studio.concurrency.internal.ExecutionExceptionHandling;
+import com.rapidminer.tools.Ontology;
+
+
+/**
+ * Sorts the examples of an example set by one or several attributes. The values of every attribute
+ * are converted into primitive {@code long} keys that have the same order as the values: dates are
+ * sorted by their milliseconds, numerical values like {@link Double#compareTo(Double)} and nominal
+ * values by the rank of their string in the sorted {@link NominalMapping}. The index permutation is
+ * then sorted with a stable least significant digit radix sort, one key after the other starting
+ * with the last one, so that several keys are handled in one sort. Every pass of the radix sort is
+ * distributed over the threads of a {@link ConcurrencyContext} if one is given.
+ * <p>
+ * The order is the same as the one of a stable comparison sort of the date, numerical or nominal
+ * values as done by {@link SortedExampleSet} before. Missing numerical values are sorted after all
+ * others and missing nominal values like the string {@value Attribute#MISSING_NOMINAL_VALUE}.
+ * Missing dates are sorted like the 1st of January 1970. This differs from the comparison sort
+ * before, which failed with a {@link NullPointerException} when comparing a date with a missing
+ * date.
+ *
+ * @since 9.11
+ */
+public final class ExampleSetSorter {
+
+	/** the number of bits sorted in one pass */
+	private static final int RADIX_BITS = 8;
+
+	private static final int BUCKETS = 1 << RADIX_BITS;
+
+	private static final int BUCKET_MASK = BUCKETS - 1;
+
+	/** the number of examples read at once */
+	private static final int BLOCK_SIZE = 4096;
+
+	/** the minimal number of examples for every thread of a pass */
+	private static final int MIN_CHUNK_SIZE = 1 << 16;
+
+	/** the share of the progress used to extract the keys */
+	private static final int EXTRACTION_PROGRESS = 40;
+
+	private static final int TOTAL_PROGRESS = 100;
+
+	private ExampleSetSorter() {
+		throw new AssertionError("Utility class must not be instantiated");
+	}
+
+	/**
+	 * Sorts the example set by the given attributes. The first attribute is the most significant
+	 * one, examples with the same values for all attributes keep their order.
+	 *
+	 * @param exampleSet
+	 *            the example set to sort
+	 * @param attributes
+	 *            the attributes to sort by
+	 * @param directions
+	 *            the direction for every attribute, {@link SortedExampleSet#INCREASING} or
+	 *            {@link SortedExampleSet#DECREASING}
+	 * @param context
+	 *            the context to sort in parallel, can be {@code null}
+	 * @param progress
+	 *            the progress to update, can be {@code null}
+	 * @return the mapping from the sorted position to the index in the example set
+	 * @throws ProcessStoppedException
+	 *             if the process was stopped while updating the progress
+	 * @throws OperatorException
+	 *             if a parallel pass failed with a checked exception
+	 */
+	public static int[] createSortedMapping(ExampleSet exampleSet, List<Attribute> attributes, int[] directions,
+			ConcurrencyContext context, OperatorProgress progress) throws OperatorException {
+		if (attributes.size() != directions.length) {
+			throw new IllegalArgumentException("Every attribute needs a direction");
+		}
+		int size = exampleSet.size();
+		int[] mapping = new int[size];
+		for (int i = 0; i < size; i++) {
+			mapping[i] = i;
+		}
+		if (progress != null) {
+			progress.setTotal(TOTAL_PROGRESS);
+		}
+		if (size < 2 || attributes.isEmpty()) {
+			if (progress != null) {
+				progress.setCompleted(TOTAL_PROGRESS);
+			}
+			return mapping;
+		}
+
+		int parallelism = context == null ? 1 : context.getParallelism();
+		int chunks = Math.max(1, Math.min(parallelism, size / MIN_CHUNK_SIZE));
+		Sorter sorter = new Sorter(size, chunks, context);
+		sorter.permutation = mapping;
+
+		int keyCount = attributes.size();
+		for (int k = keyCount - 1; k >= 0; k--) {
+			long[] keys = extractKeys(exampleSet, attributes.get(k), directions[k] != SortedExampleSet.INCREASING);
+			if (progress != null) {
+				progress.setCompleted(EXTRACTION_PROGRESS * (keyCount - k) / keyCount);
+			}
+			sorter.sort(keys);
+			if (progress != null) {
+				progress.setCompleted(EXTRACTION_PROGRESS
+						+ (TOTAL_PROGRESS - EXTRACTION_PROGRESS) * (keyCount - k) / keyCount);
+			}
+		}
+		return sorter.permutation;
+	}
+
+	/**
+	 * Reads the values of the attribute and converts them into keys whose signed order is the order
+	 * of the values.
+	 */
+	private static long[] extractKeys(ExampleSet exampleSet, Attribute attribute, boolean decreasing) {
+		int size = exampleSet.size();
+		long[] keys = new long[size];
+		double[] values = new double[Math.min(BLOCK_SIZE, size)];
+		boolean date = Ontology.ATTRIBUTE_VALUE_TYPE.isA(attribute.getValueType(), Ontology.DATE_TIME);
+		boolean numerical = attribute.isNumerical();
+		long[] ranks = date || numerical ? null : rankNominalValues(attribute.getMapping());
+		for (int start = 0; start < size; start += BLOCK_SIZE) {
+			int end = Math.min(size, start + BLOCK_SIZE);
+			exampleSet.getValues(attribute, start, end, values, 0);
+			for (int i = start; i < end; i++) {
+				double value = values[i - start];
+				long key;
+				if (date) {
+					// like new Date((long) value), missing values become 0
+					key = (long) value;
+				} else if (numerical) {
+					long bits = Double.doubleToLongBits(value);
+					// flip all but the sign bit for negative values, this is the order of Double#compareTo
+					key = bits ^ ((bits >> 63) & Long.MAX_VALUE);
+				} else if (Double.isNaN(value)) {
+					key = ranks[ranks.length - 1];
+				} else {
+					int index = (int) value;
+					if (index < 0 || index >= ranks.length - 1) {
+						// fails like Example#getNominalValue(Attribute)
+						attribute.getMapping().mapIndex(index);
+						key = ranks[ranks.length - 1];
+					} else {
+						key = ranks[index];
+					}
+				}
+				keys[i] = decreasing ? ~key : key;
+			}
+		}
+		return keys;
+	}
+
+	/**
+	 * Ranks the values of the mapping by their natural order. The last entry is the rank of the
+	 * missing value.
+	 */
+	private static long[] rankNominalValues(NominalMapping mapping) {
+		int size = mapping.size();
+		String[] strings = new String[size + 1];
+		for (int i = 0; i < size; i++) {
+			strings[i] = mapping.mapIndex(i);
+		}
+		strings[size] = Attribute.MISSING_NOMINAL_VALUE;
+		Integer[] order = new Integer[size + 1];
+		for (int i = 0; i <= size; i++) {
+			order[i] = i;
+		}
+		Arrays.sort(order, Comparator.comparing(i -> strings[i], Comparator.nullsFirst(Comparator.naturalOrder())));
+		long[] ranks = new long[size + 1];
+		long rank = 0;
+		for (int i = 0; i <= size; i++) {
+			if (i > 0 && !Objects.equals(strings[order[i]], strings[order[i - 1]])) {
+				rank++;
+			}
+			ranks[order[i]] = rank;
+		}
+		return ranks;
+	}
+
+	/**
+	 * Stable radix sort of the permutation by keys given in the original order of the examples.
+	 */
+	private static final class Sorter {
+
+		private final int size;
+
+		private final int chunks;
+
+		private final ConcurrencyContext context;
+
+		private int[] permutation;
+
+		private int[] permutationBuffer;
+
+		private long[] sortKeys;
+
+		private long[] keyBuffer;
+
+		private Sorter(int size, int chunks, ConcurrencyContext context) {
+			this.size = size;
+			this.chunks = chunks;
+			this.context = context;
+		}
+
+		/**
+		 * Sorts the current permutation by the keys, keeping the current order for equal keys.
+		 */
+		private void sort(long[] keys) throws OperatorException {
+			if (sortKeys == null) {
+				sortKeys = new long[size];
+				keyBuffer = new long[size];
+				permutationBuffer = new int[size];
+			}
+			// flip the sign bit so that the unsigned order of the digits is the signed order
+			forEachChunk((from, to) -> {
+				for (int i = from; i < to; i++) {
+					sortKeys[i] = keys[permutation[i]] ^ Long.MIN_VALUE;
+				}
+			});
+			for (int shift = 0; shift < Long.SIZE; shift += RADIX_BITS) {
+				pass(shift);
+				if (context != null) {
+					context.checkStatus();
+				}
+			}
+		}
+
+		/**
+		 * Stable counting sort by the digit at the given shift. Every chunk counts its digits, the
+		 * positions are assigned bucket by bucket and within a bucket chunk by chunk.
+		 */
+		private void pass(int shift) throws OperatorException {
+			int[][] counts = new int[chunks][BUCKETS];
+			forEachChunk((chunk, from, to) -> {
+				int[] chunkCounts = counts[chunk];
+				for (int i = from; i < to; i++) {
+					chunkCounts[(int) (sortKeys[i] >>> shift) & BUCKET_MASK]++;
+				}
+			});
+
+			int position = 0;
+			for (int bucket = 0; bucket < BUCKETS; bucket++) {
+				int total = 0;
+				for (int chunk = 0; chunk < chunks; chunk++) {
+					total += counts[chunk][bucket];
+				}
+				if (total == size) {
+					// all keys have the same digit, the pass would not change anything
+					return;
+				}
+				for (int chunk = 0; chunk < chunks; chunk++) {
+					int count = counts[chunk][bucket];
+					counts[chunk][bucket] = position;
+					position += count;
+				}
+			}
+
+			forEachChunk((chunk, from, to) -> {
+				int[] positions = counts[chunk];
+				for (int i = from; i < to; i++) {
+					long key = sortKeys[i];
+					int target = positions[(int) (key >>> shift) & BUCKET_MASK]++;
+					keyBuffer[target] = key;
+					permutationBuffer[target] = permutation[i];
+				}
+			});
+
+			long[] keys = sortKeys;
+			sortKeys = keyBuffer;
+			keyBuffer = keys;
+			int[] indices = permutation;
+			permutation = permutationBuffer;
+			permutationBuffer = indices;
+		}
+
+		private void forEachChunk(RangeTask task) throws OperatorException {
+			forEachChunk((chunk, from, to) -> task.run(from, to));
+		}
+
+		private void forEachChunk(ChunkTask task) throws OperatorException {
+			if (chunks == 1) {
+				task.run(0, 0, size);
+				return;
+			}
+			List<Callable<Void>> tasks = new ArrayList<>(chunks);
+			for (int chunk = 0; chunk < chunks; chunk++) {
+				int index = chunk;
+				int from = (int) ((long) size * chunk / chunks);
+				int to = (int) ((long) size * (chunk + 1) / chunks);
+				tasks.add(() -> {
+					task.run(index, from, to);
+					return null;
+				});
+			}
+			try {
+				context.call(tasks);
+			} catch (ExecutionException e) {
+				throw ExecutionExceptionHandling.INSTANCE.processExecutionException(e, null);
+			}
+		}
+	}
+
+	/** Processes the positions from (inclusive) to (exclusive). */
+	private interface RangeTask {
+
+		void run(int from, int to);
+	}
+
+	/** Processes the positions from (inclusive) to (exclusive) of a chunk. */
+	private interface ChunkTask {
+
+		void run(int chunk, int from, int to);
+	}
+
+}
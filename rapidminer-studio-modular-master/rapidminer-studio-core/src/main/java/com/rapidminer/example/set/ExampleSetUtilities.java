@@ -185,4 +185,59 @@ public class ExampleSetUtilities {
 		}
 
 	}
+
+	/**
+	 * Implements {@link ExampleSet#getValues(Attribute, int, int, double[], int)} for example sets
+	 * that map their indices to the indices of a parent example set.
+	 *
+	 * @param parent
+	 *            the parent example set
+	 * @param mapping
+	 *            the parent index of every example
+	 * @param attribute
+	 *            the attribute to read
+	 * @param from
+	 *            the index of the first example
+	 * @param to
+	 *            the index after the last example
+	 * @param target
+	 *            the array to copy the values into
+	 * @param offset
+	 *            the position in the target array for the first value
+	 * @since 9.11
+	 */
+	public static void getMappedValues(ExampleSet parent, int[] mapping, Attribute attribute, int from, int to,
+			double[] target, int offset) {
+		if (from < 0 || from > to || to > mapping.length) {
+			throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") does not fit the mapped ExampleSet!");
+		}
+		parent.getValues(attribute, Arrays.copyOfRange(mapping, from, to), target, offset);
+	}
+
+	/**
+	 * Implements {@link ExampleSet#getValues(Attribute, int[], double[], int)} for example sets that
+	 * map their indices to the indices of a parent example set.
+	 *
+	 * @param parent
+	 *            the parent example set
+	 * @param mapping
+	 *            the parent index of every example
+	 * @param attribute
+	 *            the attribute to read
+	 * @param indices
+	 *            the indices of the examples
+	 * @param target
+	 *            the array to copy the values into
+	 * @param offset
+	 *            the position in the target array for the first value
+	 * @since 9.11
+	 */
+	public static void getMappedValues(ExampleSet parent, int[] mapping, Attribute attribute, int[] indices,
+			double[] target, int offset) {
+		int[] parentIndices = new int[indices.length];
+		for (int i = 0; i < indices.length; i++) {
+			parentIndices[i] = mapping[indices[i]];
+		}
+		parent.getValues(attribute, parentIndices, target, offset);
+	}
 }
@@ -176,6 +176,16 @@ public class MappedExampleSet extends AbstractExampleSet implements MappingBased
 		}
 	}
 
+	@Override
+	public void getValues(Attribute attribute, int from, int to, double[] target, int offset) {
+		ExampleSetUtilities.getMappedValues(parent, mapping, attribute, from, to, target, offset);
+	}
+
+	@Override
+	public void getValues(Attribute attribute, int[] indices, double[] target, int offset) {
+		ExampleSetUtilities.getMappedValues(parent, mapping, attribute, indices, target, offset);
+	}
+
 	/** Counts the number of examples. */
 	@Override
 	public int size() {
@@ -21,6 +21,7 @@ package com.rapidminer.example.set;
 import java.util.Iterator;
 import java.util.Map;
 
+import com.rapidminer.example.Attribute;
 import com.rapidminer.example.AttributeRole;
 import com.rapidminer.example.Attributes;
 import com.rapidminer.example.Example;
@@ -128,6 +129,16 @@ public class NonSpecialAttributesExampleSet extends AbstractExampleSet {
 		return this.parent.getExample(index);
 	}
 
+	@Override
+	public void getValues(Attribute attribute, int from, int to, double[] target, int offset) {
+		parent.getValues(attribute, from, to, target, offset);
+	}
+
+	@Override
+	public void getValues(Attribute attribute, int[] indices, double[] target, int offset) {
+		parent.getValues(attribute, indices, target, offset);
+	}
+
 	@Override
 	public int size() {
 		return parent.size();
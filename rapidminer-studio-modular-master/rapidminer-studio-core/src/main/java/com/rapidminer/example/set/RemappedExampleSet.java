@@ -264,6 +264,16 @@ public class RemappedExampleSet extends AbstractExampleSet {
 		return this.parent.getExample(index);
 	}
 
+	@Override
+	public void getValues(Attribute attribute, int from, int to, double[] target, int offset) {
+		parent.getValues(attribute, from, to, target, offset);
+	}
+
+	@Override
+	public void getValues(Attribute attribute, int[] indices, double[] target, int offset) {
+		parent.getValues(attribute, indices, target, offset);
+	}
+
 	@Override
 	public Annotations getAnnotations() {
 		return parent.getAnnotations();
@@ -31,7 +31,9 @@ import com.rapidminer.example.SimpleAttributes;
 import com.rapidminer.example.table.DataRow;
 import com.rapidminer.example.table.ExampleTable;
 import com.rapidminer.example.table.MemoryExampleTable;
+import com.rapidminer.example.table.ViewAttribute;
 import com.rapidminer.example.table.internal.CleanableExampleTable;
+import com.rapidminer.example.table.internal.ColumnarExampleTable;
 
 
 /**
@@ -160,6 +162,37 @@ public class SimpleExampleSet extends AbstractExampleSet {
 		return exampleTable;
 	}
 
+	@Override
+	public void getValues(Attribute attribute, int from, int to, double[] target, int offset) {
+		ExampleTable table = getExampleTable();
+		if (table instanceof ColumnarExampleTable && isPlain(attribute)) {
+			((ColumnarExampleTable) table).getValues(attribute.getTableIndex(), from, to, target, offset);
+		} else {
+			for (int i = from; i < to; i++) {
+				target[offset++] = attribute.getValue(table.getDataRow(i));
+			}
+		}
+	}
+
+	@Override
+	public void getValues(Attribute attribute, int[] indices, double[] target, int offset) {
+		ExampleTable table = getExampleTable();
+		if (table instanceof ColumnarExampleTable && isPlain(attribute)) {
+			((ColumnarExampleTable) table).getValues(attribute.getTableIndex(), indices, target, offset);
+		} else {
+			for (int index : indices) {
+				target[offset++] = attribute.getValue(table.getDataRow(index));
+			}
+		}
+	}
+
+	/**
+	 * Checks whether the values of the attribute are the plain values stored in the table.
+	 */
+	private static boolean isPlain(Attribute attribute) {
+		return attribute.getLastTransformation() == null && !(attribute instanceof ViewAttribute);
+	}
+
 	@Override
 	public int size() {
 		return exampleTable.size();
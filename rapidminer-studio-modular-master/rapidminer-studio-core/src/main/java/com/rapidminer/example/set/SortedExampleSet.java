@@ -18,13 +18,9 @@
  */
 package com.rapidminer.example.set;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.Comparator;
-import java.util.Date;
 import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
 
 import com.rapidminer.example.Attribute;
@@ -33,9 +29,10 @@ import com.rapidminer.example.Example;
 import com.rapidminer.example.ExampleSet;
 import com.rapidminer.example.table.ExampleTable;
 import com.rapidminer.operator.Annotations;
+import com.rapidminer.operator.OperatorException;
 import com.rapidminer.operator.OperatorProgress;
 import com.rapidminer.operator.ProcessStoppedException;
-import com.rapidminer.tools.Ontology;
+import com.rapidminer.operator.WrapperOperatorRuntimeException;
 
 
 /**
@@ -60,39 +57,6 @@ public class SortedExampleSet extends AbstractExampleSet implements MappingBased
 	public static final int INCREASING = 0;
 	public static final int DECREASING = 1;
 
-	private static class SortingIndex {
-
-		final private Object key;
-		final private int index;
-
-		public SortingIndex(Object key, int index) {
-			this.key = key;
-			this.index = index;
-		}
-
-		public int getIndex() {
-			return index;
-		}
-
-		public Date getKeyAsDate() {
-			return (Date) key;
-		}
-
-		public String getKeyAsString() {
-			return (String) key;
-		}
-
-		public Double getKeyAsDouble() {
-			return (Double) key;
-		}
-
-		@Override
-		public String toString() {
-			return key + " --> " + index;
-		}
-
-	}
-
 	/** The parent example set. */
 	private ExampleSet parent;
 
@@ -118,97 +82,15 @@ public class SortedExampleSet extends AbstractExampleSet implements MappingBased
 	private void createSortedExampleSet(ExampleSet parent, final Attribute sortingAttribute, int sortingDirection,
 			OperatorProgress progress) throws ProcessStoppedException {
 		this.parent = (ExampleSet) parent.clone();
-		List<SortingIndex> sortingIndex = new ArrayList<SortingIndex>(parent.size());
-		if (progress != null) {
-			progress.setTotal(100);
-		}
-
-		// create sort index
-		int exampleCounter = 0;
-		int progressTriggerCounter = 0;
-		Iterator<Example> i = parent.iterator();
-		while (i.hasNext()) {
-			Example example = i.next();
-			if (Ontology.ATTRIBUTE_VALUE_TYPE.isA(sortingAttribute.getValueType(), Ontology.DATE_TIME)) {
-				sortingIndex.add(new SortingIndex(example.getDateValue(sortingAttribute), exampleCounter));
-			} else if (sortingAttribute.isNumerical()) {
-				sortingIndex.add(new SortingIndex(example.getNumericalValue(sortingAttribute), exampleCounter));
-
-			} else {
-				sortingIndex.add(new SortingIndex(example.getNominalValue(sortingAttribute), exampleCounter));
-
-			}
-			exampleCounter++;
-			progressTriggerCounter++;
-			if (progress != null && progressTriggerCounter > 2_000_000) {
-				progressTriggerCounter = 0;
-				progress.setCompleted((int) ((long) exampleCounter * 40 / parent.size()));
-			}
-		}
-		if (progress != null) {
-			progress.setCompleted(40);
-		}
-
-		// create comparator
-		Comparator<SortingIndex> sortComparator = new Comparator<SortingIndex>() {
-
-			@Override
-			public int compare(SortingIndex o1, SortingIndex o2) {
-				if (Ontology.ATTRIBUTE_VALUE_TYPE.isA(sortingAttribute.getValueType(), Ontology.DATE_TIME)) {
-					Date firstDate = o1.getKeyAsDate();
-					Date secondDate = o2.getKeyAsDate();
-					if (firstDate == secondDate || firstDate == null) {
-						return 0;
-					} else {
-						return firstDate.compareTo(secondDate);
-					}
-				} else if (sortingAttribute.isNumerical()) {
-					Double firstDouble = o1.getKeyAsDouble();
-					Double secondDouble = o2.getKeyAsDouble();
-					if (firstDouble == null || firstDouble.equals(secondDouble)) {
-						return 0;
-					} else {
-						return firstDouble.compareTo(secondDouble);
-					}
-				} else if (sortingAttribute.isNominal()) {
-					String firstString = o1.getKeyAsString();
-					String secondString = o2.getKeyAsString();
-					if (firstString == null || firstString.equals(secondString)) {
-						return 0;
-					} else {
-						return firstString.compareTo(secondString);
-					}
-				}
-				return 0;
-			}
-		};
-
-		// sort
-		if (sortingDirection == INCREASING) {
-			Collections.sort(sortingIndex, sortComparator);
-		} else {
-			Collections.sort(sortingIndex, Collections.reverseOrder(sortComparator));
-		}
-		if (progress != null) {
-			progress.setCompleted(60);
-		}
-
-		// change mapping
-		int[] mapping = new int[parent.size()];
-		exampleCounter = 0;
-		progressTriggerCounter = 0;
-		Iterator<SortingIndex> k = sortingIndex.iterator();
-		while (k.hasNext()) {
-			Integer index = k.next().getIndex();
-			mapping[exampleCounter++] = index;
-			progressTriggerCounter++;
-			if (progress != null && progressTriggerCounter > 2_000_000) {
-				progressTriggerCounter = 0;
-				progress.setCompleted((int) (60 + (long) exampleCounter * 40 / sortingIndex.size()));
-			}
+		try {
+			this.mapping = ExampleSetSorter.createSortedMapping(parent, Collections.singletonList(sortingAttribute),
+					new int[] { sortingDirection }, null, progress);
+		} catch (ProcessStoppedException e) {
+			throw e;
+		} catch (OperatorException e) {
+			// cannot happen, the sorting is not parallel without a context
+			throw new WrapperOperatorRuntimeException(e);
 		}
-
-		this.mapping = mapping;
 	}
 
 	/** Constructs an example set based on the given sort mapping. */
@@ -286,6 +168,16 @@ public class SortedExampleSet extends AbstractExampleSet implements MappingBased
 		}
 	}
 
+	@Override
+	public void getValues(Attribute attribute, int from, int to, double[] target, int offset) {
+		ExampleSetUtilities.getMappedValues(parent, mapping, attribute, from, to, target, offset);
+	}
+
+	@Override
+	public void getValues(Attribute attribute, int[] indices, double[] target, int offset) {
+		ExampleSetUtilities.getMappedValues(parent, mapping, attribute, indices, target, offset);
+	}
+
 	/** Counts the number of examples. */
 	@Override
 	public int size() {
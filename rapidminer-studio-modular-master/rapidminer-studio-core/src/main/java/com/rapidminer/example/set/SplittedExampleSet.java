@@ -338,6 +338,24 @@ public class SplittedExampleSet extends AbstractExampleSet implements MappingBas
 		return new IndexBasedExampleSetReader(this);
 	}
 
+	@Override
+	public void getValues(Attribute attribute, int from, int to, double[] target, int offset) {
+		int[] parentIndices = new int[to - from];
+		for (int i = from; i < to; i++) {
+			parentIndices[i - from] = partition.mapIndex(i);
+		}
+		parent.getValues(attribute, parentIndices, target, offset);
+	}
+
+	@Override
+	public void getValues(Attribute attribute, int[] indices, double[] target, int offset) {
+		int[] parentIndices = new int[indices.length];
+		for (int i = 0; i < indices.length; i++) {
+			parentIndices[i] = partition.mapIndex(indices[i]);
+		}
+		parent.getValues(attribute, parentIndices, target, offset);
+	}
+
 	@Override
 	public int size() {
 		return partition.getSelectionSize();
@@ -429,6 +447,12 @@ public class SplittedExampleSet extends AbstractExampleSet implements MappingBas
 		parent.cleanup();
 	}
 
+	@Override
+	public boolean isThreadSafeView() {
+		// the partition is copied by clone()
+		return parent instanceof AbstractExampleSet && ((AbstractExampleSet) parent).isThreadSafeView();
+	}
+
 	@Override
 	public int[] getMappingCopy() {
 		return partition.getTableIndexMapCopy();
@@ -79,4 +79,41 @@ interface Column extends Serializable {
 	 */
 	default void complete() {};
 
+	/**
+	 * Copies the values of the rows {@code from} (inclusive) to {@code to} (exclusive) into the
+	 * target array, starting at the offset.
+	 *
+	 * @param from
+	 *            the first row to copy
+	 * @param to
+	 *            the row after the last row to copy
+	 * @param target
+	 *            the array to copy the values into
+	 * @param offset
+	 *            the position in the target array for the first value
+	 * @since 9.11
+	 */
+	default void get(int from, int to, double[] target, int offset) {
+		for (int row = from; row < to; row++) {
+			target[offset++] = get(row);
+		}
+	}
+
+	/**
+	 * Copies the values of the given rows into the target array, starting at the offset.
+	 *
+	 * @param rows
+	 *            the rows to copy
+	 * @param target
+	 *            the array to copy the values into
+	 * @param offset
+	 *            the position in the target array for the first value
+	 * @since 9.11
+	 */
+	default void get(int[] rows, double[] target, int offset) {
+		for (int row : rows) {
+			target[offset++] = get(row);
+		}
+	}
+
 }
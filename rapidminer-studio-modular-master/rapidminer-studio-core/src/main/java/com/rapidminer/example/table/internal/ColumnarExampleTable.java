@@ -18,9 +18,11 @@
  */
 package com.rapidminer.example.table.internal;
 
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.function.IntToDoubleFunction;
 
 import com.rapidminer.example.Attribute;
@@ -130,6 +132,27 @@ public class ColumnarExampleTable extends AbstractExampleTable implements Growin
 
 	}
 
+	/**
+	 * Loads the values of a column on first access, see {@link #setLazyColumn}.
+	 *
+	 * @since 9.11
+	 */
+	@FunctionalInterface
+	public interface ColumnLoader {
+
+		/**
+		 * Passes a function providing the values of all rows to the filler. Resources required to
+		 * compute the values can be released after the filler returns.
+		 *
+		 * @param filler
+		 *            the consumer reading the values from the function in row order
+		 * @throws IOException
+		 *             if the values cannot be read
+		 */
+		void load(Consumer<IntToDoubleFunction> filler) throws IOException;
+
+	}
+
 	private Column[] columns;
 
 	private int size;
@@ -226,6 +249,45 @@ public class ColumnarExampleTable extends AbstractExampleTable implements Growin
 		return new RowView(index);
 	}
 
+	/**
+	 * Copies the values of the column with the given table index for the rows {@code from}
+	 * (inclusive) to {@code to} (exclusive) into the target array without creating data rows.
+	 * Attribute transformations are not applied.
+	 *
+	 * @param tableIndex
+	 *            the table index of the column
+	 * @param from
+	 *            the first row to copy
+	 * @param to
+	 *            the row after the last row to copy
+	 * @param target
+	 *            the array to copy the values into
+	 * @param offset
+	 *            the position in the target array for the first value
+	 * @since 9.11
+	 */
+	public void getValues(int tableIndex, int from, int to, double[] target, int offset) {
+		columns[tableIndex].get(from, to, target, offset);
+	}
+
+	/**
+	 * Copies the values of the column with the given table index for the given rows into the
+	 * target array without creating data rows. Attribute transformations are not applied.
+	 *
+	 * @param tableIndex
+	 *            the table index of the column
+	 * @param rows
+	 *            the rows to copy
+	 * @param target
+	 *            the array to copy the values into
+	 * @param offset
+	 *            the position in the target array for the first value
+	 * @since 9.11
+	 */
+	public void getValues(int tableIndex, int[] rows, double[] target, int offset) {
+		columns[tableIndex].get(rows, target, offset);
+	}
+
 	/**
 	 * Adds a copy of the given data row to the example table. Will throw an
 	 * {@link ArrayIndexOutOfBoundsException} if the data row does not fit the attributes of this
@@ -295,6 +357,30 @@ public class ColumnarExampleTable extends AbstractExampleTable implements Growin
 		}
 	}
 
+	/**
+	 * Replaces the column associated with the attribute by a column that is filled by the loader on
+	 * first access. Use this if the values are available from an external source and might not be
+	 * needed at all, e.g. because the attribute is removed before the values are read. The column
+	 * is loaded with the current number of rows, so this method must only be called after all rows
+	 * were added.
+	 *
+	 * @param attribute
+	 *            the attribute whose column should be loaded lazily
+	 * @param loader
+	 *            the loader providing the values
+	 * @return an action that loads the column if it is not loaded yet, e.g. before the external
+	 *         source is changed; it throws an {@link java.io.UncheckedIOException} if loading fails
+	 * @since 9.11
+	 */
+	public Runnable setLazyColumn(Attribute attribute, ColumnLoader loader) {
+		int valueType = attribute.getValueType();
+		DataManagement columnManagement = management;
+		LazyColumn column = new LazyColumn(() -> createColumn(valueType, 0, true, columnManagement), loader,
+				size);
+		columns[attribute.getTableIndex()] = column;
+		return column::ensureLoaded;
+	}
+
 	/**
 	 * Resets the column associated with the attribute. The reset is necessary if there were already
 	 * rows added in case auto columns are used because this overwrites the values, so the automatic
@@ -428,27 +514,41 @@ public class ColumnarExampleTable extends AbstractExampleTable implements Growin
 			columns[column] = NAN_COLUMN;
 			return;
 		}
-		switch (attribute.getValueType()) {
+		columns[column] = createColumn(attribute.getValueType(), sizeLimit, completable, management);
+	}
+
+	/**
+	 * Creates a new column for the given value type.
+	 *
+	 * @param valueType
+	 *            the value type of the associated attribute
+	 * @param height
+	 *            the initial capacity of the column
+	 * @param completable
+	 *            whether {@link Column#complete()} will be called on the column
+	 * @param management
+	 *            the data management optimization type to use
+	 * @return the new column
+	 */
+	private static Column createColumn(int valueType, int height, boolean completable, DataManagement management) {
+		switch (valueType) {
 			case Ontology.BINOMINAL:
-				columns[column] = new ByteArrayColumn(sizeLimit);
-				break;
+				return new ByteArrayColumn(height);
 			case Ontology.NOMINAL:
 			case Ontology.POLYNOMINAL:
 				if (management == DataManagement.SPEED_OPTIMIZED) {
-					columns[column] = new IntegerArrayColumn(sizeLimit);
+					return new IntegerArrayColumn(height);
 				} else {
-					columns[column] = completable ? new IntegerAutoColumn(sizeLimit, management)
-							: new IntegerIncompleteAutoColumn(sizeLimit, management);
+					return completable ? new IntegerAutoColumn(height, management)
+							: new IntegerIncompleteAutoColumn(height, management);
 				}
-				break;
 			default:
 				if (management == DataManagement.SPEED_OPTIMIZED) {
-					columns[column] = new DoubleArrayColumn(sizeLimit);
+					return new DoubleArrayColumn(height);
 				} else {
-					columns[column] = completable ? new DoubleAutoColumn(sizeLimit, management)
-							: new DoubleIncompleteAutoColumn(sizeLimit, management);
+					return completable ? new DoubleAutoColumn(height, management)
+							: new DoubleIncompleteAutoColumn(height, management);
 				}
-				break;
 		}
 	}
 
@@ -50,6 +50,18 @@ class DoubleArrayColumn implements Column {
 		return data[row];
 	}
 
+	@Override
+	public void get(int from, int to, double[] target, int offset) {
+		System.arraycopy(data, from, target, offset, to - from);
+	}
+
+	@Override
+	public void get(int[] rows, double[] target, int offset) {
+		for (int row : rows) {
+			target[offset++] = data[row];
+		}
+	}
+
 	@Override
 	public void set(int row, double value) {
 		data[row] = value;
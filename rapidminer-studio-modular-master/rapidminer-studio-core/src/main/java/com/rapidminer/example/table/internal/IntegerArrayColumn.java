@@ -51,6 +51,22 @@ class IntegerArrayColumn implements Column {
 		return value == Integer.MIN_VALUE ? Double.NaN : value;
 	}
 
+	@Override
+	public void get(int from, int to, double[] target, int offset) {
+		for (int row = from; row < to; row++) {
+			int value = data[row];
+			target[offset++] = value == Integer.MIN_VALUE ? Double.NaN : value;
+		}
+	}
+
+	@Override
+	public void get(int[] rows, double[] target, int offset) {
+		for (int row : rows) {
+			int value = data[row];
+			target[offset++] = value == Integer.MIN_VALUE ? Double.NaN : value;
+		}
+	}
+
 	@Override
 	public void set(int row, double value) {
 		data[row] = Double.isNaN(value) ? Integer.MIN_VALUE : (int) value;
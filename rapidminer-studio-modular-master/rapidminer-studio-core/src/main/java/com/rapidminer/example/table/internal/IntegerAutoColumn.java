@@ -140,6 +140,24 @@ final class IntegerAutoColumn implements Column {
 		return chunks[row >> AutoColumnUtils.CHUNK_SIZE_EXP].get(row & AutoColumnUtils.CHUNK_MODULO_MASK);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Must not be called before {@link #complete()} was called.
+	 */
+	@Override
+	public void get(int from, int to, double[] target, int offset) {
+		int row = from;
+		while (row < to) {
+			int chunkIndex = row >> AutoColumnUtils.CHUNK_SIZE_EXP;
+			IntegerAutoChunk chunk = chunks[chunkIndex];
+			int end = Math.min(to, (chunkIndex + 1) << AutoColumnUtils.CHUNK_SIZE_EXP);
+			for (; row < end; row++) {
+				target[offset++] = chunk.get(row & AutoColumnUtils.CHUNK_MODULO_MASK);
+			}
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
 	 *
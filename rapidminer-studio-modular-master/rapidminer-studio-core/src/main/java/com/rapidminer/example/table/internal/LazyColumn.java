@@ -0,0 +1,148 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.example.table.internal;
+
+import java.io.IOException;
+import java.io.ObjectStreamException;
+import java.io.UncheckedIOException;
+import java.util.function.Supplier;
+
+import com.rapidminer.example.table.internal.ColumnarExampleTable.ColumnLoader;
+
+
+/**
+ * A {@link Column} whose values are loaded by a {@link ColumnLoader} on first access. Until then,
+ * only the loader is held in memory. Any access, including writes, loads the values into a column
+ * created by the column factory. The loaded column is serialized instead of this column.
+ *
+ * @see ColumnarExampleTable#setLazyColumn
+ * @since 9.11
+ */
+class LazyColumn implements Column {
+
+	private static final long serialVersionUID = 1L;
+
+	private transient Supplier<Column> columnFactory;
+	private transient ColumnLoader loader;
+	private final int size;
+
+	private volatile Column column;
+
+	/**
+	 * Creates a new lazy column.
+	 *
+	 * @param columnFactory
+	 *            creates the empty column to load the values into
+	 * @param loader
+	 *            the loader for the values
+	 * @param size
+	 *            the number of values to load
+	 */
+	LazyColumn(Supplier<Column> columnFactory, ColumnLoader loader, int size) {
+		this.columnFactory = columnFactory;
+		this.loader = loader;
+		this.size = size;
+	}
+
+	@Override
+	public double get(int row) {
+		return getColumn().get(row);
+	}
+
+	@Override
+	public void get(int from, int to, double[] target, int offset) {
+		getColumn().get(from, to, target, offset);
+	}
+
+	@Override
+	public void get(int[] rows, double[] target, int offset) {
+		getColumn().get(rows, target, offset);
+	}
+
+	@Override
+	public void setLast(int row, double value) {
+		getColumn().setLast(row, value);
+	}
+
+	@Override
+	public void set(int row, double value) {
+		getColumn().set(row, value);
+	}
+
+	@Override
+	public void ensure(int size) {
+		getColumn().ensure(size);
+	}
+
+	/**
+	 * Loads the values if they are not loaded yet.
+	 *
+	 * @throws UncheckedIOException
+	 *             if loading the values fails
+	 */
+	void ensureLoaded() {
+		getColumn();
+	}
+
+	/**
+	 * Returns the loaded column, loading it first if necessary.
+	 *
+	 * @throws UncheckedIOException
+	 *             if loading the values fails
+	 */
+	private Column getColumn() {
+		Column loaded = column;
+		if (loaded == null) {
+			synchronized (this) {
+				loaded = column;
+				if (loaded == null) {
+					loaded = load();
+					column = loaded;
+					columnFactory = null;
+					loader = null;
+				}
+			}
+		}
+		return loaded;
+	}
+
+	private Column load() {
+		Column loaded = columnFactory.get();
+		loaded.ensure(size);
+		try {
+			loader.load(function -> {
+				for (int i = 0; i < size; i++) {
+					loaded.setLast(i, function.applyAsDouble(i));
+				}
+			});
+		} catch (IOException e) {
+			throw new UncheckedIOException("Cannot load column data", e);
+		}
+		loaded.complete();
+		return loaded;
+	}
+
+	/**
+	 * Serializes the loaded column instead.
+	 */
+	private Object writeReplace() throws ObjectStreamException {
+		return getColumn();
+	}
+
+}
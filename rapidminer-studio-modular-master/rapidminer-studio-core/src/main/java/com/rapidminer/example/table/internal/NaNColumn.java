@@ -18,6 +18,9 @@
  */
 package com.rapidminer.example.table.internal;
 
+import java.util.Arrays;
+
+
 /**
  * This implementation of {@link Column} is used to represent {@code null} attributes, i.e.
  * attributes that were removed and are not set in a {@link ColumnarExampleTable}. This makes
@@ -38,6 +41,16 @@ class NaNColumn implements Column {
 		return Double.NaN;
 	}
 
+	@Override
+	public void get(int from, int to, double[] target, int offset) {
+		Arrays.fill(target, offset, offset + to - from, Double.NaN);
+	}
+
+	@Override
+	public void get(int[] rows, double[] target, int offset) {
+		Arrays.fill(target, offset, offset + rows.length, Double.NaN);
+	}
+
 	@Override
 	public void set(int row, double value) {
 		// do nothing
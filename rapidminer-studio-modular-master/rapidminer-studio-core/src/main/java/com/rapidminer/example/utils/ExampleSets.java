@@ -146,6 +146,30 @@ public final class ExampleSets {
 			throw new IllegalArgumentException("Example set must not be null");
 		}
 
+		if (isThreadSafe(set)) {
+			return (ExampleSet) set.clone();
+		} else {
+			return MaterializeDataInMemory.materializeExampleSet(set);
+		}
+		
+	}
+
+	/**
+	 * Checks whether the example set can be read concurrently without creating a copy. This is the
+	 * case if {@link #createThreadSafeCopy(ExampleSet)} would only create a shallow copy.
+	 *
+	 * @param set
+	 *            the example set to check
+	 * @return {@code true} if the example set can be read by several threads at once
+	 * @throws IllegalArgumentException
+	 *             if the input example set is {@code null}
+	 * @since 9.11
+	 */
+	public static boolean isThreadSafe(ExampleSet set) {
+		if (set == null) {
+			throw new IllegalArgumentException("Example set must not be null");
+		}
+
 		// search for unsafe components
 		boolean foundUnsafeComponent;
 		
@@ -176,12 +200,7 @@ public final class ExampleSets {
 			}
 		}
 		
-		if (foundUnsafeComponent) {
-			return MaterializeDataInMemory.materializeExampleSet(set);
-		} else {
-			return (ExampleSet) set.clone();
-		}
-		
+		return !foundUnsafeComponent;
 	}
 
 }
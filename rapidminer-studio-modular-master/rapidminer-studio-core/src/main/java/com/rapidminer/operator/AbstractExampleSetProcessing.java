@@ -160,6 +160,16 @@ public abstract class AbstractExampleSetProcessing extends Operator {
 		return false;
 	}
 
+	/**
+	 * The meta data of example set processing operators only depends on the parameters and the input meta data.
+	 *
+	 * @since 9.11
+	 */
+	@Override
+	protected boolean isMetaDataMemoizable() {
+		return true;
+	}
+
 	@Override
 	public boolean shouldAutoConnect(OutputPort port) {
 		if (port == originalOutput) {
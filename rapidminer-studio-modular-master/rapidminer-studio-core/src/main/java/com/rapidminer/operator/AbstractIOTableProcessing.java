@@ -121,6 +121,16 @@ public abstract class AbstractIOTableProcessing extends Operator {
 	 */
 	public abstract IOTable apply(IOTable ioTable) throws OperatorException;
 
+	/**
+	 * The meta data of table processing operators only depends on the parameters and the input meta data.
+	 *
+	 * @since 9.11
+	 */
+	@Override
+	protected boolean isMetaDataMemoizable() {
+		return true;
+	}
+
 	@Override
 	public boolean shouldAutoConnect(OutputPort port) {
 		if (port == originalOutput) {
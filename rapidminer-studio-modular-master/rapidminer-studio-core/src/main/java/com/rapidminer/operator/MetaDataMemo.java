@@ -0,0 +1,138 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.operator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.rapidminer.Process;
+import com.rapidminer.operator.ports.InputPort;
+import com.rapidminer.operator.ports.OutputPort;
+import com.rapidminer.operator.ports.metadata.MetaData;
+import com.rapidminer.operator.ports.metadata.MetaDataError;
+
+
+/**
+ * The result of the last meta data transformation of an operator. As long as the operator does not
+ * change and receives the same input meta data, the transformation is not repeated but the
+ * memorized output meta data and errors are delivered again. Input meta data is the same if it is
+ * either the identical object or has the {@link MetaData#hasSameContent(MetaData) same content}.
+ * Since unchanged operators deliver unchanged meta data, the propagation stops at the first
+ * operator whose output did not change.
+ *
+ * @since 9.11
+ */
+final class MetaDataMemo {
+
+	private final List<InputPort> inputPorts;
+	private final List<OutputPort> outputPorts;
+	private final MetaData[] inputs;
+	private final MetaData[] inputCopies;
+	private final long macroModificationCount;
+	private MetaData[] outputs;
+	private List<List<MetaDataError>> inputErrors;
+	private List<List<MetaDataError>> outputErrors;
+	private List<ProcessSetupError> operatorErrors;
+
+	/**
+	 * Captures the current input meta data of the operator. Must be called before the
+	 * transformation since the transformation might modify the input meta data, so that copies are
+	 * kept for the comparison.
+	 */
+	MetaDataMemo(Operator operator) {
+		inputPorts = operator.getInputPorts().getAllPorts();
+		outputPorts = operator.getOutputPorts().getAllPorts();
+		inputs = new MetaData[inputPorts.size()];
+		inputCopies = new MetaData[inputs.length];
+		for (int i = 0; i < inputs.length; i++) {
+			inputs[i] = inputPorts.get(i).getRawMetaData();
+			inputCopies[i] = inputs[i] == null ? null : inputs[i].clone();
+		}
+		macroModificationCount = getMacroModificationCount(operator);
+	}
+
+	/**
+	 * Captures the result of the transformation.
+	 *
+	 * @param operator
+	 *            the transformed operator
+	 * @param addedOperatorErrors
+	 *            the errors added to the operator during the transformation
+	 */
+	void complete(Operator operator, List<ProcessSetupError> addedOperatorErrors) {
+		outputs = new MetaData[outputPorts.size()];
+		outputErrors = new ArrayList<>(outputs.length);
+		for (int i = 0; i < outputs.length; i++) {
+			MetaData output = outputPorts.get(i).getRawMetaData();
+			outputs[i] = output == null ? null : output.clone();
+			outputErrors.add(new ArrayList<>(outputPorts.get(i).getErrors()));
+		}
+		inputErrors = new ArrayList<>(inputs.length);
+		for (InputPort port : inputPorts) {
+			inputErrors.add(new ArrayList<>(port.getErrors()));
+		}
+		operatorErrors = new ArrayList<>(addedOperatorErrors);
+	}
+
+	/**
+	 * Delivers the memorized result if the operator still has the same ports, the macros did not
+	 * change and all inputs are the same.
+	 *
+	 * @return {@code true} if the memorized result was delivered
+	 */
+	boolean replay(Operator operator) {
+		if (outputs == null || macroModificationCount != getMacroModificationCount(operator)
+				|| !inputPorts.equals(operator.getInputPorts().getAllPorts())
+				|| !outputPorts.equals(operator.getOutputPorts().getAllPorts())) {
+			return false;
+		}
+		for (int i = 0; i < inputs.length; i++) {
+			MetaData current = inputPorts.get(i).getRawMetaData();
+			if (current != inputs[i] && (inputCopies[i] == null || !inputCopies[i].hasSameContent(current))) {
+				return false;
+			}
+		}
+		for (int i = 0; i < outputs.length; i++) {
+			OutputPort port = outputPorts.get(i);
+			port.deliverMD(outputs[i] == null ? null : outputs[i].clone());
+			outputErrors.get(i).forEach(port::addError);
+		}
+		for (int i = 0; i < inputs.length; i++) {
+			inputErrors.get(i).forEach(inputPorts.get(i)::addError);
+		}
+		operatorErrors.forEach(operator::addError);
+		return true;
+	}
+
+	/**
+	 * Checks whether the results of the operator can be memorized. This is not the case if real
+	 * meta data is collected after the execution since it replaces the transformed meta data at
+	 * the ports.
+	 */
+	static boolean isApplicable(Operator operator) {
+		Process process = operator.getProcess();
+		return operator.isMetaDataMemoizable()
+				&& (process == null || process.getDebugMode() != DebugMode.COLLECT_METADATA_AFTER_EXECUTION);
+	}
+
+	private static long getMacroModificationCount(Operator operator) {
+		Process process = operator.getProcess();
+		return process == null ? 0 : process.getMacroHandler().getModificationCount();
+	}
+}
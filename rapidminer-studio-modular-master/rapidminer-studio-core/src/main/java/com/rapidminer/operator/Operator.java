@@ -31,6 +31,7 @@ import java.lang.management.ManagementFactory;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -85,6 +86,7 @@ import com.rapidminer.operator.ports.metadata.Precondition;
 import com.rapidminer.operator.ports.quickfix.QuickFix;
 import com.rapidminer.operator.ports.quickfix.RelativizeRepositoryLocationQuickfix;
 import com.rapidminer.operator.preprocessing.filter.AbstractDateDataProcessing;
+import com.rapidminer.operator.tools.OperatorResultCache;
 import com.rapidminer.parameter.CombinedParameterType;
 import com.rapidminer.parameter.ParameterHandler;
 import com.rapidminer.parameter.ParameterType;
@@ -114,6 +116,7 @@ import com.rapidminer.tools.Observable;
 import com.rapidminer.tools.Observer;
 import com.rapidminer.tools.ParameterService;
 import com.rapidminer.tools.ProgressListener;
+import com.rapidminer.tools.RandomGenerator;
 import com.rapidminer.tools.Tools;
 import com.rapidminer.tools.WebServiceTools;
 import com.rapidminer.tools.WrapperLoggingHandler;
@@ -298,6 +301,9 @@ public abstract class Operator extends AbstractObservable<Operator>
 	/** Signals whether the output must be re-generated. */
 	private boolean dirty = true;
 
+	/** The result of the last meta data transformation, {@code null} if outdated. */
+	private transient MetaDataMemo metaDataMemo;
+
 	/**
 	 * Indicates whether {@link #propagateDirtyness()} was called after the last call to
 	 * {@link #makeDirty()}.
@@ -653,6 +659,35 @@ public abstract class Operator extends AbstractObservable<Operator>
 		return false;
 	}
 
+	/**
+	 * Returns whether executing this operator has no effects besides delivering its outputs. Such an
+	 * operator does not modify its inputs or the example tables behind them (e.g. by adding
+	 * attributes), does not read or define macros, does not access files,
+	 * repositories or the process log and does not draw numbers from the random generator of the
+	 * process. It can therefore be executed concurrently with other operators of its subprocess by
+	 * the {@link com.rapidminer.operator.execution.DataflowUnitExecutor DataflowUnitExecutor}.
+	 * Operators have to opt in explicitly, the default is {@code false}.
+	 *
+	 * @return whether this operator is free of side effects
+	 * @since 9.11
+	 */
+	public boolean isFreeOfSideEffects() {
+		return false;
+	}
+
+	/**
+	 * Returns whether the results of this operator only depend on its parameters and inputs, so that
+	 * they can be reused from the {@link OperatorResultCache} instead of executing the operator
+	 * again. Operators with side effects, subprocesses or randomness that is not controlled by a
+	 * local random seed must return {@code false}, which is the default.
+	 *
+	 * @return whether the results of this operator can be cached
+	 * @since 9.11
+	 */
+	public boolean isResultCacheable() {
+		return false;
+	}
+
 	/** Returns the number of times this operator was already applied. */
 	public int getApplyCount() {
 		return applyCountAtLastExecution;
@@ -1017,10 +1052,19 @@ public abstract class Operator extends AbstractObservable<Operator>
 			getProgress().setTotal(OperatorProgress.NO_PROGRESS);
 
 			getOutputPorts().clear(Port.CLEAR_DATA);
+			OperatorResultCache resultCache = OperatorResultCache.getInstance();
+			String resultKey = resultCache.createKey(this);
 			try {
 				isRunning = true;
 				fireUpdate();
-				doWork();
+				if (resultKey == null || !resultCache.replay(this, resultKey)) {
+					long globalDraws = RandomGenerator.getGlobalDraws();
+					doWork();
+					// results depending on the global random generator cannot be reproduced
+					if (resultKey != null && RandomGenerator.getGlobalDraws() == globalDraws) {
+						resultCache.store(this, resultKey);
+					}
+				}
 				getLogger().fine("Completed application " + applyCount.get() + " of operator " + getName());
 			} catch (ProcessStoppedRuntimeException | ExecutionAbortedException e) {
 				// Convert unchecked exception to checked exception (unchecked exception might be
@@ -2258,8 +2302,41 @@ public abstract class Operator extends AbstractObservable<Operator>
 		if (!isEnabled()) {
 			return;
 		}
+		if (!MetaDataMemo.isApplicable(this)) {
+			metaDataMemo = null;
+			getInputPorts().checkPreconditions();
+			getTransformer().transformMetaData();
+			return;
+		}
+		MetaDataMemo lastMemo = metaDataMemo;
+		if (lastMemo != null && lastMemo.replay(this)) {
+			return;
+		}
+		MetaDataMemo memo = new MetaDataMemo(this);
+		int errorCount = errorList.size();
 		getInputPorts().checkPreconditions();
 		getTransformer().transformMetaData();
+		List<ProcessSetupError> addedErrors;
+		synchronized (errorList) {
+			addedErrors = errorCount <= errorList.size() ? new ArrayList<>(errorList.subList(errorCount, errorList.size()))
+					: new ArrayList<>(errorList);
+		}
+		memo.complete(this, addedErrors);
+		metaDataMemo = memo;
+	}
+
+	/**
+	 * Returns whether the meta data transformation of this operator only depends on its parameters,
+	 * its port connections and the input meta data. In this case the transformation is only
+	 * repeated if one of them changes, see {@link #transformMetaData()}. Operators whose meta data
+	 * depends on anything else, e.g. on files or repository entries, must return {@code false},
+	 * which is the default.
+	 *
+	 * @return whether the result of the meta data transformation can be reused
+	 * @since 9.11
+	 */
+	protected boolean isMetaDataMemoizable() {
+		return false;
 	}
 
 	/**
@@ -2326,6 +2403,8 @@ public abstract class Operator extends AbstractObservable<Operator>
 
 	@Override
 	protected void fireUpdate(Operator operator) {
+		// parameters, ports or the operator itself changed
+		metaDataMemo = null;
 		super.fireUpdate(operator);
 		if (getProcess() != null) {
 			getProcess().fireOperatorChanged(this);
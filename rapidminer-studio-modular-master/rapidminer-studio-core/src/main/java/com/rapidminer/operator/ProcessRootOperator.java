@@ -118,6 +118,9 @@ public final class ProcessRootOperator extends OperatorChain implements Connecti
 	/** The list of listeners for process events. */
 	private final List<ProcessListener> listenerList = new LinkedList<>();
 
+	/** serializes the notifications about started and finished operators */
+	private final Object operatorEventLock = new Object();
+
 	/** The process which is connected to this process operator. */
 	private Process process;
 
@@ -271,19 +274,25 @@ public final class ProcessRootOperator extends OperatorChain implements Connecti
 
 	/** Adds an process listener to the list of listeners. */
 	public void addProcessListener(ProcessListener l) {
-		listenerList.add(l);
+		synchronized (listenerList) {
+			listenerList.add(l);
+		}
 	}
 
 	/** Removes an process listener from the list of listeners. */
 	public void removeProcessListener(ProcessListener l) {
-		listenerList.remove(l);
+		synchronized (listenerList) {
+			listenerList.remove(l);
+		}
 	}
 
 	private List<ProcessListener> getListenerListCopy() {
-		if (listenerList.isEmpty()) {
-			return Collections.emptyList();
-		} else {
-			return new LinkedList<>(listenerList);
+		synchronized (listenerList) {
+			if (listenerList.isEmpty()) {
+				return Collections.emptyList();
+			} else {
+				return new LinkedList<>(listenerList);
+			}
 		}
 	}
 
@@ -296,14 +305,24 @@ public final class ProcessRootOperator extends OperatorChain implements Connecti
 		ListenerTools.informAllAndThrow(x -> super.processStarts(), getListenerListCopy(), l -> l.processStarts(process));
 	}
 
-	/** Counts the step and notifies all process listeners. */
+	/**
+	 * Counts the step and notifies all process listeners. Operators of the same subprocess can be
+	 * executed concurrently, but the listeners are never notified concurrently.
+	 */
 	public void processStartedOperator(Operator op) {
-		ListenerTools.informAllAndThrow(getListenerListCopy(), (Consumer<ProcessListener>) l -> l.processStartedOperator(process, op));
+		synchronized (operatorEventLock) {
+			ListenerTools.informAllAndThrow(getListenerListCopy(), (Consumer<ProcessListener>) l -> l.processStartedOperator(process, op));
+		}
 	}
 
-	/** Counts the step and notifies all process listeners. */
+	/**
+	 * Counts the step and notifies all process listeners. Operators of the same subprocess can be
+	 * executed concurrently, but the listeners are never notified concurrently.
+	 */
 	public void processFinishedOperator(Operator op) {
-		ListenerTools.informAllAndThrow(getListenerListCopy(), (Consumer<ProcessListener>) l -> l.processFinishedOperator(process, op));
+		synchronized (operatorEventLock) {
+			ListenerTools.informAllAndThrow(getListenerListCopy(), (Consumer<ProcessListener>) l -> l.processFinishedOperator(process, op));
+		}
 	}
 
 	/**
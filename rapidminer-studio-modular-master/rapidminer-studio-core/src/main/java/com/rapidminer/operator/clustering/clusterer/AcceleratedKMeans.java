@@ -0,0 +1,531 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.operator.clustering.clusterer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Example;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.operator.Operator;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.studio.concurrency.internal.ExecutionExceptionHandling;
+import com.rapidminer.tools.RandomGenerator;
+
+
+/**
+ * Euclidean k-means on a dense row-major copy of the data using the bounds of G. Hamerly (Making
+ * k-means even faster, SDM 2010) to skip most distance computations. Every example keeps an upper
+ * bound for the distance to its centroid and a lower bound for the distance to all other
+ * centroids. Only if the bounds overlap after the centroids moved, the distances are computed.
+ * Unlike the bounds of Elkan, which are used by the {@link FastKMeans}, this needs only constant
+ * memory per example and therefore scales to large numbers of clusters.
+ * <p>
+ * The examples are processed in blocks of fixed size that can be assigned in parallel. The partial
+ * centroid sums of the blocks are always added up in the same order, so the result only depends on
+ * the random seed and not on the number of threads.
+ * <p>
+ * Since the squared Euclidean distance has the same nearest centroids, this can also be used for
+ * it.
+ *
+ * @since 9.11
+ */
+class AcceleratedKMeans {
+
+	/** the number of examples per block */
+	private static final int BLOCK_SIZE = 1 << 16;
+
+	private static final int CHECK_FOR_STOP_INTERVAL = 1_000;
+
+	/**
+	 * The result of a single k-means run.
+	 */
+	static final class Run {
+
+		private final double[] centroids;
+		private final int[] assignments;
+		private double squaredDistanceSum;
+
+		private Run(double[] centroids, int[] assignments) {
+			this.centroids = centroids;
+			this.assignments = assignments;
+		}
+
+		/**
+		 * @return the centroid coordinates, row-major with one row per cluster
+		 */
+		double[] getCentroids() {
+			return centroids;
+		}
+
+		/**
+		 * @return the cluster index for every example
+		 */
+		int[] getAssignments() {
+			return assignments;
+		}
+
+		/**
+		 * @return the sum of the squared distances between the examples and their centroids
+		 */
+		double getSquaredDistanceSum() {
+			return squaredDistanceSum;
+		}
+	}
+
+	/**
+	 * The state of a single run.
+	 */
+	private final class State {
+
+		private final double[] centroids;
+		private final int[] assignments;
+		private final double[] upperBounds;
+		private final double[] lowerBounds;
+
+		/** the partial sums of the examples per block and cluster, row-major */
+		private final double[][] blockSums;
+		private final int[][] blockCounts;
+
+		/** half of the distance to the nearest other centroid for every centroid */
+		private final double[] halfMinimalDistances = new double[k];
+
+		/** how far the centroids moved in the last step */
+		private final double[] movements = new double[k];
+
+		/** the context to check for stops, {@code null} if the operator should be used */
+		private final ConcurrencyContext context;
+
+		/** whether the blocks are processed in parallel */
+		private final boolean parallel;
+
+		private State(double[] centroids, ConcurrencyContext context, boolean parallel) {
+			this.centroids = centroids;
+			this.context = context;
+			this.parallel = parallel;
+			this.assignments = new int[size];
+			this.upperBounds = new double[size];
+			this.lowerBounds = new double[size];
+			this.blockSums = new double[numberOfBlocks][k * dimensions];
+			this.blockCounts = new int[numberOfBlocks][k];
+		}
+	}
+
+	/** an operation on the examples of a block */
+	@FunctionalInterface
+	private interface BlockTask {
+
+		void process(int block, int start, int end) throws OperatorException;
+	}
+
+	private final Operator operator;
+	private final double[] data;
+	private final int size;
+	private final int dimensions;
+	private final int k;
+	private final int numberOfBlocks;
+
+	/**
+	 * Creates a new k-means engine for the given data.
+	 *
+	 * @param operator
+	 *            the operator used for stop checks
+	 * @param data
+	 *            the values of the examples, row-major
+	 * @param dimensions
+	 *            the number of values per example
+	 * @param k
+	 *            the number of clusters
+	 */
+	AcceleratedKMeans(Operator operator, double[] data, int dimensions, int k) {
+		this.operator = operator;
+		this.data = data;
+		this.dimensions = dimensions;
+		this.size = dimensions == 0 ? 0 : data.length / dimensions;
+		this.k = k;
+		this.numberOfBlocks = Math.max(1, (size + BLOCK_SIZE - 1) / BLOCK_SIZE);
+	}
+
+	/**
+	 * Copies the values of the given attributes into a row-major array.
+	 *
+	 * @return the values or {@code null} if the data is too large for a single array
+	 */
+	static double[] toRowMajor(ExampleSet exampleSet, Attribute[] attributes) {
+		long length = (long) exampleSet.size() * attributes.length;
+		if (length > Integer.MAX_VALUE - 8) {
+			return null;
+		}
+		double[] data = new double[(int) length];
+		int offset = 0;
+		for (Example example : exampleSet) {
+			for (Attribute attribute : attributes) {
+				data[offset++] = example.getValue(attribute);
+			}
+		}
+		return data;
+	}
+
+	/**
+	 * Performs a single k-means run.
+	 *
+	 * @param random
+	 *            the random generator for the initial centroids
+	 * @param useKpp
+	 *            whether the initial centroids are chosen by k-means++ instead of uniformly at
+	 *            random
+	 * @param maxOptimizationSteps
+	 *            the maximal number of assignment steps
+	 * @param context
+	 *            the context to process the blocks in parallel or to check for stops if the run is
+	 *            executed within a task of the context, {@code null} if the run is executed by the
+	 *            operator thread without parallelism
+	 * @param parallel
+	 *            whether the blocks are processed in parallel, requires a context
+	 * @return the result of the run
+	 * @throws OperatorException
+	 *             if the execution is stopped
+	 */
+	Run run(RandomGenerator random, boolean useKpp, int maxOptimizationSteps, ConcurrencyContext context,
+			boolean parallel) throws OperatorException {
+		boolean parallelBlocks = parallel && context != null && numberOfBlocks > 1;
+		// if parallel execution was requested, the run is executed by the operator thread
+		State state = new State(new double[k * dimensions], parallel && !parallelBlocks ? null : context,
+				parallelBlocks);
+		if (useKpp) {
+			chooseKppCentroids(state, random);
+		} else {
+			chooseRandomCentroids(state, random);
+		}
+		forEachBlock(state, (block, start, end) -> assignAll(state, block, start, end));
+		for (int step = 1; moveCentroids(state) && step < maxOptimizationSteps; step++) {
+			computeHalfMinimalDistances(state);
+			forEachBlock(state, (block, start, end) -> assignWithBounds(state, block, start, end));
+		}
+
+		Run run = new Run(state.centroids, state.assignments);
+		double[] blockDistances = new double[numberOfBlocks];
+		forEachBlock(state, (block, start, end) -> {
+			double sum = 0;
+			for (int row = start; row < end; row++) {
+				sum += squaredDistance(row * dimensions, state.centroids, state.assignments[row] * dimensions);
+			}
+			blockDistances[block] = sum;
+		});
+		for (double blockDistance : blockDistances) {
+			run.squaredDistanceSum += blockDistance;
+		}
+		return run;
+	}
+
+	/**
+	 * Picks k distinct examples uniformly at random as initial centroids.
+	 */
+	private void chooseRandomCentroids(State state, RandomGenerator random) {
+		int cluster = 0;
+		for (int row : random.nextIntSetWithRange(0, size, k)) {
+			System.arraycopy(data, row * dimensions, state.centroids, cluster * dimensions, dimensions);
+			cluster++;
+		}
+	}
+
+	/**
+	 * Picks the initial centroids by k-means++: every further centroid is sampled with a probability
+	 * proportional to the squared distance to the nearest centroid chosen so far.
+	 */
+	private void chooseKppCentroids(State state, RandomGenerator random) throws OperatorException {
+		double[] centroids = state.centroids;
+		double[] minimalDistances = new double[size];
+		Arrays.fill(minimalDistances, Double.POSITIVE_INFINITY);
+		double[] blockTotals = new double[numberOfBlocks];
+		int row = random.nextInt(size);
+		for (int cluster = 0; cluster < k; cluster++) {
+			int centroidOffset = cluster * dimensions;
+			System.arraycopy(data, row * dimensions, centroids, centroidOffset, dimensions);
+			if (cluster == k - 1) {
+				break;
+			}
+			forEachBlock(state, (block, start, end) -> {
+				checkForStop(state);
+				double total = 0;
+				for (int i = start; i < end; i++) {
+					double distance = squaredDistance(i * dimensions, centroids, centroidOffset);
+					if (distance < minimalDistances[i]) {
+						minimalDistances[i] = distance;
+					}
+					total += minimalDistances[i];
+				}
+				blockTotals[block] = total;
+			});
+			double total = 0;
+			for (double blockTotal : blockTotals) {
+				total += blockTotal;
+			}
+			row = sample(minimalDistances, blockTotals, random.nextDouble() * total);
+		}
+	}
+
+	/**
+	 * Finds the example where the cumulative sum of the weights exceeds the target.
+	 */
+	private int sample(double[] weights, double[] blockTotals, double target) {
+		int block = 0;
+		while (block < numberOfBlocks - 1 && target >= blockTotals[block]) {
+			target -= blockTotals[block];
+			block++;
+		}
+		int end = Math.min(size, (block + 1) * BLOCK_SIZE);
+		int lastPositive = -1;
+		for (int row = block * BLOCK_SIZE; row < end; row++) {
+			if (weights[row] > 0) {
+				lastPositive = row;
+				target -= weights[row];
+				if (target < 0) {
+					return row;
+				}
+			}
+		}
+		// rounding errors or only duplicates left
+		return lastPositive >= 0 ? lastPositive : block * BLOCK_SIZE;
+	}
+
+	/**
+	 * Assigns the examples of a block by computing the distances to all centroids and initializes
+	 * the bounds.
+	 */
+	private void assignAll(State state, int block, int start, int end) throws OperatorException {
+		clearBlockSums(state, block);
+		for (int row = start; row < end; row++) {
+			if ((row - start) % CHECK_FOR_STOP_INTERVAL == 0) {
+				checkForStop(state);
+			}
+			assignToNearest(state, row);
+			addToBlockSums(state, block, row);
+		}
+	}
+
+	/**
+	 * Updates the bounds of the examples of a block after the centroids moved and reassigns the
+	 * examples whose bounds overlap.
+	 */
+	private void assignWithBounds(State state, int block, int start, int end) throws OperatorException {
+		double largestMovement = 0;
+		double secondLargestMovement = 0;
+		int mostMovedCluster = -1;
+		for (int cluster = 0; cluster < k; cluster++) {
+			double movement = state.movements[cluster];
+			if (movement > largestMovement) {
+				secondLargestMovement = largestMovement;
+				largestMovement = movement;
+				mostMovedCluster = cluster;
+			} else if (movement > secondLargestMovement) {
+				secondLargestMovement = movement;
+			}
+		}
+
+		clearBlockSums(state, block);
+		for (int row = start; row < end; row++) {
+			if ((row - start) % CHECK_FOR_STOP_INTERVAL == 0) {
+				checkForStop(state);
+			}
+			int cluster = state.assignments[row];
+			state.upperBounds[row] += state.movements[cluster];
+			state.lowerBounds[row] -= cluster == mostMovedCluster ? secondLargestMovement : largestMovement;
+
+			double bound = Math.max(state.halfMinimalDistances[cluster], state.lowerBounds[row]);
+			if (state.upperBounds[row] > bound) {
+				// tighten the upper bound
+				state.upperBounds[row] = Math
+						.sqrt(squaredDistance(row * dimensions, state.centroids, cluster * dimensions));
+				if (state.upperBounds[row] > bound) {
+					assignToNearest(state, row);
+				}
+			}
+			addToBlockSums(state, block, row);
+		}
+	}
+
+	/**
+	 * Assigns the example to the nearest centroid and sets its bounds to the distances to the
+	 * nearest and the second nearest centroid.
+	 */
+	private void assignToNearest(State state, int row) {
+		int offset = row * dimensions;
+		double nearest = Double.POSITIVE_INFINITY;
+		double secondNearest = Double.POSITIVE_INFINITY;
+		int nearestCluster = 0;
+		for (int cluster = 0; cluster < k; cluster++) {
+			double distance = squaredDistance(offset, state.centroids, cluster * dimensions);
+			if (distance < nearest) {
+				secondNearest = nearest;
+				nearest = distance;
+				nearestCluster = cluster;
+			} else if (distance < secondNearest) {
+				secondNearest = distance;
+			}
+		}
+		state.assignments[row] = nearestCluster;
+		state.upperBounds[row] = Math.sqrt(nearest);
+		state.lowerBounds[row] = Math.sqrt(secondNearest);
+	}
+
+	private void clearBlockSums(State state, int block) {
+		Arrays.fill(state.blockSums[block], 0);
+		Arrays.fill(state.blockCounts[block], 0);
+	}
+
+	private void addToBlockSums(State state, int block, int row) {
+		int cluster = state.assignments[row];
+		double[] sums = state.blockSums[block];
+		int sumOffset = cluster * dimensions;
+		int offset = row * dimensions;
+		for (int i = 0; i < dimensions; i++) {
+			sums[sumOffset + i] += data[offset + i];
+		}
+		state.blockCounts[block][cluster]++;
+	}
+
+	/**
+	 * Moves every centroid to the mean of its examples. Centroids without examples stay where they
+	 * are.
+	 *
+	 * @return whether any centroid moved
+	 */
+	private boolean moveCentroids(State state) {
+		boolean moved = false;
+		double[] mean = new double[dimensions];
+		for (int cluster = 0; cluster < k; cluster++) {
+			int offset = cluster * dimensions;
+			Arrays.fill(mean, 0);
+			long count = 0;
+			for (int block = 0; block < numberOfBlocks; block++) {
+				double[] sums = state.blockSums[block];
+				for (int i = 0; i < dimensions; i++) {
+					mean[i] += sums[offset + i];
+				}
+				count += state.blockCounts[block][cluster];
+			}
+			if (count == 0) {
+				state.movements[cluster] = 0;
+				continue;
+			}
+			double squaredMovement = 0;
+			for (int i = 0; i < dimensions; i++) {
+				double value = mean[i] / count;
+				double difference = value - state.centroids[offset + i];
+				squaredMovement += difference * difference;
+				state.centroids[offset + i] = value;
+			}
+			state.movements[cluster] = Math.sqrt(squaredMovement);
+			moved |= squaredMovement > 0;
+		}
+		return moved;
+	}
+
+	private void computeHalfMinimalDistances(State state) {
+		Arrays.fill(state.halfMinimalDistances, Double.POSITIVE_INFINITY);
+		for (int i = 0; i < k; i++) {
+			for (int j = i + 1; j < k; j++) {
+				double distance = Math.sqrt(squaredDistance(state.centroids, i * dimensions, state.centroids,
+						j * dimensions));
+				state.halfMinimalDistances[i] = Math.min(state.halfMinimalDistances[i], distance);
+				state.halfMinimalDistances[j] = Math.min(state.halfMinimalDistances[j], distance);
+			}
+		}
+		for (int i = 0; i < k; i++) {
+			state.halfMinimalDistances[i] *= 0.5;
+		}
+	}
+
+	private double squaredDistance(int offset, double[] centroids, int centroidOffset) {
+		return squaredDistance(data, offset, centroids, centroidOffset);
+	}
+
+	private double squaredDistance(double[] values, int offset, double[] otherValues, int otherOffset) {
+		double sum = 0;
+		for (int i = 0; i < dimensions; i++) {
+			double difference = values[offset + i] - otherValues[otherOffset + i];
+			sum += difference * difference;
+		}
+		return sum;
+	}
+
+	/**
+	 * Checks for stop via the operator if no context is given, otherwise via the context. The
+	 * latter must be used within tasks executed by the context.
+	 */
+	private void checkForStop(State state) throws OperatorException {
+		if (state.context == null) {
+			operator.checkForStop();
+		} else {
+			state.context.checkStatus();
+		}
+	}
+
+	/**
+	 * Executes the task for every block, in parallel if the state says so.
+	 */
+	private void forEachBlock(State state, BlockTask task) throws OperatorException {
+		if (!state.parallel || numberOfBlocks == 1) {
+			for (int block = 0; block < numberOfBlocks; block++) {
+				task.process(block, block * BLOCK_SIZE, Math.min(size, (block + 1) * BLOCK_SIZE));
+			}
+			return;
+		}
+		List<Callable<Void>> tasks = new ArrayList<>(numberOfBlocks);
+		for (int block = 0; block < numberOfBlocks; block++) {
+			final int index = block;
+			tasks.add(() -> {
+				task.process(index, index * BLOCK_SIZE, Math.min(size, (index + 1) * BLOCK_SIZE));
+				return null;
+			});
+		}
+		call(state.context, tasks);
+	}
+
+	/**
+	 * Executes the tasks and unpacks the execution exceptions.
+	 */
+	<T> List<T> call(ConcurrencyContext context, List<Callable<T>> tasks) throws OperatorException {
+		try {
+			return context.call(tasks);
+		} catch (ExecutionException e) {
+			throw ExecutionExceptionHandling.INSTANCE.processExecutionException(e, operator.getProcess());
+		}
+	}
+
+	/**
+	 * Waits for the result of a submitted task and unpacks the execution exceptions.
+	 */
+	<T> T collect(ConcurrencyContext context, Future<T> future) throws OperatorException {
+		try {
+			return context.collectResults(Collections.singletonList(future)).get(0);
+		} catch (ExecutionException e) {
+			throw ExecutionExceptionHandling.INSTANCE.processExecutionException(e, operator.getProcess());
+		}
+	}
+
+}
@@ -19,6 +19,7 @@
 package com.rapidminer.operator.clustering.clusterer;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Queue;
@@ -32,6 +33,7 @@ import com.rapidminer.operator.OperatorDescription;
 import com.rapidminer.operator.OperatorException;
 import com.rapidminer.operator.clustering.ClusterModel;
 import com.rapidminer.parameter.ParameterType;
+import com.rapidminer.parameter.ParameterTypeBoolean;
 import com.rapidminer.parameter.ParameterTypeDouble;
 import com.rapidminer.parameter.ParameterTypeInt;
 import com.rapidminer.tools.math.similarity.DistanceMeasure;
@@ -40,6 +42,10 @@ import com.rapidminer.tools.math.similarity.DistanceMeasure;
 /**
  * This operator provides the DBScan cluster algorithm. If no id attribute is present, the operator
  * will create one.
+ * <p>
+ * Unless disabled, the neighbourhoods are searched on an in-memory copy of the data with the help
+ * of {@link DBScanNeighbourhoods}, which uses a grid index for suitable measures and answers the
+ * queries of the next examples in parallel. The resulting clusters are the same.
  *
  * @author Sebastian Land
  */
@@ -49,6 +55,9 @@ public class DBScan extends RMAbstractClusterer {
 
 	private static final String PARAMETER_MIN_POINTS = "min_points";
 
+	/** @since 9.11 */
+	private static final String PARAMETER_USE_INDEX = "use_index";
+
 	public DBScan(OperatorDescription description) {
 		super(description);
 	}
@@ -79,6 +88,34 @@ public class DBScan extends RMAbstractClusterer {
 		boolean[] noised = new boolean[exampleSet.size()];
 		int[] clusterAssignments = new int[exampleSet.size()];
 
+		int clusterIndex;
+		if (getParameterAsBoolean(PARAMETER_USE_INDEX)
+				&& (long) exampleSet.size() * attributes.size() <= DBScanNeighbourhoods.MAX_VALUES) {
+			DBScanNeighbourhoods neighbourhoods = new DBScanNeighbourhoods(exampleSet, measure, epsilon, this);
+			clusterIndex = assignClusters(neighbourhoods, minPoints, visited, noised, clusterAssignments);
+		} else {
+			clusterIndex = assignClusters(exampleSet, measure, epsilon, minPoints, visited, noised, clusterAssignments);
+		}
+
+		ClusterModel model = new ClusterModel(exampleSet, Math.max(clusterIndex, 1), addsLabelAttribute(),
+				getParameterAsBoolean(RMAbstractClusterer.PARAMETER_REMOVE_UNLABELED));
+		model.setClusterAssignments(clusterAssignments, exampleSet);
+
+		if (addsClusterAttribute()) {
+			addClusterAssignments(exampleSet, clusterAssignments);
+		}
+		getProgress().complete();
+
+		return model;
+	}
+
+	/**
+	 * Assigns the clusters by comparing the examples with each other.
+	 *
+	 * @return the index of the next cluster
+	 */
+	private int assignClusters(ExampleSet exampleSet, DistanceMeasure measure, double epsilon, int minPoints,
+			boolean[] visited, boolean[] noised, int[] clusterAssignments) {
 		int i = 0;
 		int clusterIndex = 1;
 		for (Example example : exampleSet) {
@@ -122,17 +159,97 @@ public class DBScan extends RMAbstractClusterer {
 			i++;
 			getProgress().step();
 		}
+		return clusterIndex;
+	}
 
-		ClusterModel model = new ClusterModel(exampleSet, Math.max(clusterIndex, 1), addsLabelAttribute(),
-				getParameterAsBoolean(RMAbstractClusterer.PARAMETER_REMOVE_UNLABELED));
-		model.setClusterAssignments(clusterAssignments, exampleSet);
+	/**
+	 * Assigns the clusters exactly like {@link #assignClusters(ExampleSet, DistanceMeasure, double,
+	 * int, boolean[], boolean[], int[])}, but searches the neighbourhoods of the next unvisited
+	 * examples and of the next queued examples together. Neighbourhoods only depend on the data, so
+	 * searching them ahead does not change the result. An example that is queued again within the
+	 * same cluster is skipped since all its neighbours are already visited.
+	 *
+	 * @return the index of the next cluster
+	 */
+	private int assignClusters(DBScanNeighbourhoods neighbourhoods, int minPoints, boolean[] visited,
+			boolean[] noised, int[] clusterAssignments) throws OperatorException {
+		int size = visited.length;
+		int waveSize = neighbourhoods.getWaveSize();
+		int[] candidates = new int[waveSize];
+		// the cluster in which an example was last expanded
+		int[] expanded = new int[size];
+		int[] queue = new int[Math.min(size, 1024)];
 
-		if (addsClusterAttribute()) {
-			addClusterAssignments(exampleSet, clusterAssignments);
-		}
-		getProgress().complete();
+		int clusterIndex = 1;
+		int next = 0;
+		while (next < size) {
+			int count = 0;
+			while (next < size && count < waveSize) {
+				if (!visited[next]) {
+					candidates[count++] = next;
+				}
+				next++;
+			}
+			int[][] centerNeighbourhoods = neighbourhoods.getNeighbourhoods(candidates, 0, count);
+			for (int c = 0; c < count; c++) {
+				int center = candidates[c];
+				if (visited[center]) {
+					// became part of a cluster expanded before
+					continue;
+				}
+				int[] centerNeighbourhood = centerNeighbourhoods[c];
+				if (centerNeighbourhood.length < minPoints) {
+					noised[center] = true;
+					continue;
+				}
+				// then its center point of a cluster. Assign example to new cluster
+				clusterAssignments[center] = clusterIndex;
+				if (queue.length < centerNeighbourhood.length) {
+					queue = new int[centerNeighbourhood.length];
+				}
+				System.arraycopy(centerNeighbourhood, 0, queue, 0, centerNeighbourhood.length);
+				int head = 0;
+				int tail = centerNeighbourhood.length;
+				// expanding cluster within density borders
+				while (head < tail) {
+					int waveEnd = Math.min(tail, head + waveSize);
+					int[][] queueNeighbourhoods = neighbourhoods.getNeighbourhoods(queue, head, waveEnd);
+					for (int q = head; q < waveEnd; q++) {
+						int currentIndex = queue[q];
+						if (expanded[currentIndex] == clusterIndex) {
+							continue;
+						}
+						expanded[currentIndex] = clusterIndex;
+						// assigning example to current cluster
+						clusterAssignments[currentIndex] = clusterIndex;
+						visited[currentIndex] = true;
 
-		return model;
+						int[] neighbourhood = queueNeighbourhoods[q - head];
+						if (neighbourhood.length >= minPoints) {
+							// then this neighbor of center is also a center of the cluster
+							for (int neighbourIndex : neighbourhood) {
+								if (!visited[neighbourIndex]) {
+									if (!noised[neighbourIndex]) {
+										if (tail == queue.length) {
+											queue = Arrays.copyOf(queue, Math.max(16, tail * 2));
+										}
+										queue[tail++] = neighbourIndex;
+									}
+									clusterAssignments[neighbourIndex] = clusterIndex;
+									visited[neighbourIndex] = true;
+								}
+							}
+						}
+					}
+					head = waveEnd;
+					checkForStop();
+				}
+				// step to next cluster
+				clusterIndex++;
+			}
+			getProgress().setCompleted(next);
+		}
+		return clusterIndex;
 	}
 
 	private LinkedList<Integer> getNeighbourhood(Example centerExample, ExampleSet exampleSet, DistanceMeasure measure,
@@ -176,6 +293,9 @@ public class DBScan extends RMAbstractClusterer {
 				Double.POSITIVE_INFINITY, 1, false));
 		types.add(new ParameterTypeInt(PARAMETER_MIN_POINTS, "The minimal number of points forming a cluster.", 1,
 				Integer.MAX_VALUE, 5, false));
+		types.add(new ParameterTypeBoolean(PARAMETER_USE_INDEX,
+				"Searches the neighbourhoods on an in-memory copy of the data in parallel, using a grid index for the Euclidean, Manhattan and Chebychev distance. The clusters are the same, but the copy needs additional memory.",
+				true, true));
 
 		types.addAll(super.getParameterTypes());
 
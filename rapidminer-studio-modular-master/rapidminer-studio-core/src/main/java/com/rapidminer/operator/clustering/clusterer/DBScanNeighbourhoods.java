@@ -0,0 +1,183 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.operator.clustering.clusterer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.operator.Operator;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.studio.concurrency.internal.ExecutionExceptionHandling;
+import com.rapidminer.studio.internal.Resources;
+import com.rapidminer.tools.math.container.GridIndex;
+import com.rapidminer.tools.math.similarity.DistanceMeasure;
+
+
+/**
+ * Answers the region queries of {@link DBScan} on a flattened copy of the attribute values. The
+ * neighbourhoods are searched with a {@link GridIndex} if the measure supports it and by a scan of
+ * all examples otherwise. Several queries are answered in parallel batches if an operator is
+ * available. The results are the same as comparing every pair of examples with
+ * {@link DistanceMeasure#calculateDistance(com.rapidminer.example.Example, com.rapidminer.example.Example)}.
+ *
+ * @since 9.11
+ */
+final class DBScanNeighbourhoods {
+
+	/** the number of queries answered together by one task */
+	static final int BATCH_SIZE = 64;
+
+	/** the maximal number of values that can be stored in the flattened copy */
+	static final long MAX_VALUES = Integer.MAX_VALUE - 8;
+
+	private final double[] values;
+
+	private final int dimensions;
+
+	private final int size;
+
+	private final DistanceMeasure measure;
+
+	private final double epsilon;
+
+	/** the index or {@code null} if all examples are scanned */
+	private final GridIndex index;
+
+	private final Operator operator;
+
+	private final ConcurrencyContext context;
+
+	private final int parallelism;
+
+	/**
+	 * Copies the values of the regular attributes and creates the index if possible.
+	 *
+	 * @param exampleSet
+	 *            the example set without missing values, at most {@link #MAX_VALUES} values
+	 * @param measure
+	 *            the measure initialized for the example set
+	 * @param epsilon
+	 *            the size of the neighbourhoods
+	 * @param operator
+	 *            the operator providing the concurrency context, can be {@code null}
+	 */
+	DBScanNeighbourhoods(ExampleSet exampleSet, DistanceMeasure measure, double epsilon, Operator operator) {
+		this.size = exampleSet.size();
+		this.dimensions = exampleSet.getAttributes().size();
+		this.measure = measure;
+		this.epsilon = epsilon;
+		this.values = new double[size * dimensions];
+		double[] column = new double[size];
+		int d = 0;
+		for (Attribute attribute : exampleSet.getAttributes()) {
+			exampleSet.getValues(attribute, 0, size, column, 0);
+			for (int i = 0; i < size; i++) {
+				values[i * dimensions + d] = column[i];
+			}
+			d++;
+		}
+		this.index = GridIndex.create(values, dimensions, measure, epsilon);
+		this.operator = operator;
+		this.context = operator == null ? null : Resources.getConcurrencyContext(operator);
+		this.parallelism = context == null ? 1 : Math.max(1, context.getParallelism());
+	}
+
+	/**
+	 * @return the number of queries that should be passed to {@link #getNeighbourhoods} at once to
+	 *         keep all threads busy
+	 */
+	int getWaveSize() {
+		return parallelism * BATCH_SIZE;
+	}
+
+	/**
+	 * Searches the neighbourhoods of the examples with the given indices.
+	 *
+	 * @param examples
+	 *            the indices of the examples
+	 * @param from
+	 *            the first position in examples to search for (inclusive)
+	 * @param to
+	 *            the last position in examples to search for (exclusive)
+	 * @return the indices of the examples in the neighbourhood in ascending order, one array per
+	 *         position
+	 */
+	int[][] getNeighbourhoods(int[] examples, int from, int to) throws OperatorException {
+		int[][] result = new int[to - from][];
+		if (parallelism > 1 && to - from > BATCH_SIZE) {
+			List<Callable<Void>> tasks = new ArrayList<>();
+			for (int start = from; start < to; start += BATCH_SIZE) {
+				int batchStart = start;
+				int batchEnd = Math.min(to, start + BATCH_SIZE);
+				tasks.add(() -> {
+					context.checkStatus();
+					search(examples, batchStart, batchEnd, result, batchStart - from);
+					return null;
+				});
+			}
+			call(tasks);
+		} else {
+			search(examples, from, to, result, 0);
+		}
+		return result;
+	}
+
+	private void search(int[] examples, int from, int to, int[][] result, int offset) {
+		double[] query = new double[dimensions];
+		double[] buffer = new double[dimensions];
+		for (int position = from; position < to; position++) {
+			System.arraycopy(values, examples[position] * dimensions, query, 0, dimensions);
+			result[offset + position - from] = index != null ? index.getNeighbours(query, buffer) : scan(query, buffer);
+		}
+	}
+
+	/**
+	 * Compares the query with all examples, keeping the argument order of the original distance
+	 * calculation since the measure might not be symmetric.
+	 */
+	private int[] scan(double[] query, double[] buffer) {
+		int[] neighbourhood = new int[16];
+		int count = 0;
+		for (int i = 0; i < size; i++) {
+			System.arraycopy(values, i * dimensions, buffer, 0, dimensions);
+			if (measure.calculateDistance(query, buffer) < epsilon) {
+				if (count == neighbourhood.length) {
+					neighbourhood = Arrays.copyOf(neighbourhood, count * 2);
+				}
+				neighbourhood[count++] = i;
+			}
+		}
+		return Arrays.copyOf(neighbourhood, count);
+	}
+
+	private void call(List<Callable<Void>> tasks) throws OperatorException {
+		try {
+			context.call(tasks);
+		} catch (ExecutionException e) {
+			throw ExecutionExceptionHandling.INSTANCE.processExecutionException(e, operator.getProcess());
+		}
+	}
+
+}
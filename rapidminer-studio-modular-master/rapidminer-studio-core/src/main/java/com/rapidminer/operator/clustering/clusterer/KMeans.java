@@ -19,10 +19,14 @@
 package com.rapidminer.operator.clustering.clusterer;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
 
+import com.rapidminer.core.concurrency.ConcurrencyContext;
 import com.rapidminer.example.Attribute;
 import com.rapidminer.example.Attributes;
 import com.rapidminer.example.Example;
@@ -36,9 +40,12 @@ import com.rapidminer.operator.clustering.ClusterModel;
 import com.rapidminer.parameter.ParameterType;
 import com.rapidminer.parameter.ParameterTypeBoolean;
 import com.rapidminer.parameter.ParameterTypeInt;
+import com.rapidminer.studio.internal.Resources;
 import com.rapidminer.tools.RandomGenerator;
 import com.rapidminer.tools.math.similarity.DistanceMeasure;
 import com.rapidminer.tools.math.similarity.DistanceMeasures;
+import com.rapidminer.tools.math.similarity.divergences.SquaredEuclideanDistance;
+import com.rapidminer.tools.math.similarity.numerical.EuclideanDistance;
 
 import de.dfki.madm.operator.KMeanspp;
 
@@ -68,6 +75,14 @@ public class KMeans extends RMAbstractClusterer {
 	 */
 	public static final String PARAMETER_MAX_OPTIMIZATION_STEPS = "max_optimization_steps";
 
+	/**
+	 * The parameter name for &quot;Indicates if the accelerated implementation for Euclidean
+	 * distances should be used&quot;
+	 *
+	 * @since 9.11
+	 */
+	public static final String PARAMETER_USE_ACCELERATED_MODE = "use_accelerated_mode";
+
 	private static final int SQUARED_EUCLIDEAN_INDEX = 6;
 
 	public KMeans(OperatorDescription description) {
@@ -114,6 +129,18 @@ public class KMeans extends RMAbstractClusterer {
 		}
 
 		RandomGenerator generator = RandomGenerator.getRandomGenerator(this);
+		if (getParameterAsBoolean(PARAMETER_USE_ACCELERATED_MODE)) {
+			if (measure instanceof EuclideanDistance || measure instanceof SquaredEuclideanDistance) {
+				double[] data = AcceleratedKMeans.toRowMajor(exampleSet, attributes.createRegularAttributeArray());
+				if (data != null) {
+					return generateAcceleratedClusterModel(exampleSet, data, attributeNames, measure, generator);
+				}
+				logNote("Data too large for the accelerated mode, using the standard implementation.");
+			} else {
+				logNote("The accelerated mode requires the (squared) Euclidean distance, using the standard implementation.");
+			}
+		}
+
 		double minimalIntraClusterDistance = Double.POSITIVE_INFINITY;
 		CentroidClusterModel bestModel = null;
 		int[] bestAssignments = null;
@@ -197,6 +224,106 @@ public class KMeans extends RMAbstractClusterer {
 		return bestModel;
 	}
 
+	/**
+	 * Performs all runs with the {@link AcceleratedKMeans}. If there are at least as many runs as
+	 * threads, the runs are executed in parallel and the progress advances whenever a run is
+	 * collected. Otherwise, the runs are executed one after another
+	 * and the examples are assigned in parallel.
+	 */
+	private ClusterModel generateAcceleratedClusterModel(ExampleSet exampleSet, double[] data,
+			List<String> attributeNames, DistanceMeasure measure, RandomGenerator generator) throws OperatorException {
+		int k = getParameterAsInt(PARAMETER_K);
+		int maxOptimizationSteps = getParameterAsInt(PARAMETER_MAX_OPTIMIZATION_STEPS);
+		int maxRuns = getParameterAsInt(PARAMETER_MAX_RUNS);
+		boolean kpp = getParameterAsBoolean(KMeanspp.PARAMETER_USE_KPP);
+		AcceleratedKMeans kMeans = new AcceleratedKMeans(this, data, attributeNames.size(), k);
+
+		// every run gets its own generator so that the result does not depend on the execution order
+		long[] seeds = new long[maxRuns];
+		for (int run = 0; run < maxRuns; run++) {
+			seeds[run] = generator.nextLong();
+		}
+
+		ConcurrencyContext context = Resources.getConcurrencyContext(this);
+		List<AcceleratedKMeans.Run> runs;
+		if (maxRuns > 1 && maxRuns >= context.getParallelism()) {
+			List<Callable<AcceleratedKMeans.Run>> tasks = new ArrayList<>(maxRuns);
+			for (long seed : seeds) {
+				tasks.add(() -> kMeans.run(new RandomGenerator(seed), kpp, maxOptimizationSteps, context, false));
+			}
+			// collect the runs one by one to advance the progress while the others are still running
+			List<Future<AcceleratedKMeans.Run>> futures = context.submit(tasks);
+			runs = new ArrayList<>(maxRuns);
+			try {
+				for (Future<AcceleratedKMeans.Run> future : futures) {
+					runs.add(kMeans.collect(context, future));
+					getProgress().setCompleted(runs.size() * maxOptimizationSteps);
+				}
+			} finally {
+				if (runs.size() < maxRuns) {
+					for (Future<AcceleratedKMeans.Run> future : futures) {
+						future.cancel(true);
+					}
+				}
+			}
+		} else {
+			runs = new ArrayList<>(maxRuns);
+			for (long seed : seeds) {
+				runs.add(kMeans.run(new RandomGenerator(seed), kpp, maxOptimizationSteps,
+						context.getParallelism() > 1 ? context : null, true));
+				getProgress().setCompleted(runs.size() * maxOptimizationSteps);
+			}
+		}
+
+		// same quality criterion as above: the sum of the squared distances of the measure
+		boolean squared = measure instanceof SquaredEuclideanDistance;
+		AcceleratedKMeans.Run bestRun = null;
+		double minimalIntraClusterDistance = Double.POSITIVE_INFINITY;
+		for (AcceleratedKMeans.Run run : runs) {
+			double distanceSum = squared ? squaredDistanceSum(run, data, attributeNames.size())
+					: run.getSquaredDistanceSum();
+			if (distanceSum < minimalIntraClusterDistance || bestRun == null) {
+				bestRun = run;
+				minimalIntraClusterDistance = distanceSum;
+			}
+		}
+
+		CentroidClusterModel model = new CentroidClusterModel(exampleSet, k, attributeNames, measure,
+				addsLabelAttribute(), getParameterAsBoolean(RMAbstractClusterer.PARAMETER_REMOVE_UNLABELED));
+		int dimensions = attributeNames.size();
+		for (int cluster = 0; cluster < k; cluster++) {
+			model.getCentroid(cluster).setCentroid(Arrays.copyOfRange(bestRun.getCentroids(), cluster * dimensions,
+					(cluster + 1) * dimensions));
+		}
+		model.setClusterAssignments(bestRun.getAssignments(), exampleSet);
+		if (addsClusterAttribute()) {
+			addClusterAssignments(exampleSet, bestRun.getAssignments());
+		}
+		getProgress().complete();
+		return model;
+	}
+
+	/**
+	 * Computes the sum of the squares of the squared Euclidean distances between the examples and
+	 * their centroids.
+	 */
+	private static double squaredDistanceSum(AcceleratedKMeans.Run run, double[] data, int dimensions) {
+		double[] centroids = run.getCentroids();
+		int[] assignments = run.getAssignments();
+		double distanceSum = 0;
+		for (int row = 0; row < assignments.length; row++) {
+			int offset = row * dimensions;
+			int centroidOffset = assignments[row] * dimensions;
+			double distance = 0;
+			for (int i = 0; i < dimensions; i++) {
+				double difference = data[offset + i] - centroids[centroidOffset + i];
+				distance += difference * difference;
+			}
+			distanceSum += distance * distance;
+		}
+		return distanceSum;
+	}
+
 	private double[] getAsDoubleArray(Example example, Attributes attributes, double[] values) {
 		int i = 0;
 		for (Attribute attribute : attributes) {
@@ -243,6 +370,9 @@ public class KMeans extends RMAbstractClusterer {
 
 		types.add(new ParameterTypeInt(PARAMETER_MAX_OPTIMIZATION_STEPS,
 				"The maximal number of iterations performed for one run of k-Means.", 1, Integer.MAX_VALUE, 100, false));
+		types.add(new ParameterTypeBoolean(PARAMETER_USE_ACCELERATED_MODE,
+				"Indicates if the accelerated implementation for (squared) Euclidean distances should be used. It skips most distance computations, works in parallel and uses k-means++ sampling if good start values should be determined.",
+				false, true));
 		types.addAll(RandomGenerator.getRandomGeneratorParameters(this));
 		return types;
 	}
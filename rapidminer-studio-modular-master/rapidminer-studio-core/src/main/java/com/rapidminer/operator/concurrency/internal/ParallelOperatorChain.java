@@ -21,6 +21,8 @@ package com.rapidminer.operator.concurrency.internal;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 
 import com.rapidminer.example.ExampleSet;
 import com.rapidminer.example.utils.ExampleSets;
@@ -29,10 +31,14 @@ import com.rapidminer.operator.IOObject;
 import com.rapidminer.operator.Operator;
 import com.rapidminer.operator.OperatorChain;
 import com.rapidminer.operator.OperatorDescription;
+import com.rapidminer.operator.OperatorException;
 import com.rapidminer.operator.OperatorVersion;
 import com.rapidminer.parameter.ParameterType;
 import com.rapidminer.parameter.ParameterTypeBoolean;
 import com.rapidminer.parameter.UndefinedParameterError;
+import com.rapidminer.studio.concurrency.internal.ConcurrencyExecutionService;
+import com.rapidminer.studio.concurrency.internal.ConcurrencyExecutionServiceProvider;
+import com.rapidminer.studio.concurrency.internal.ExecutionExceptionHandling;
 import com.rapidminer.studio.internal.Resources;
 
 
@@ -46,6 +52,33 @@ import com.rapidminer.studio.internal.Resources;
  */
 public abstract class ParallelOperatorChain extends OperatorChain {
 
+	/**
+	 * A task that is executed on a clone of the operator chain by
+	 * {@link ParallelOperatorChain#executeOnClones(int, long, CloneTask)}.
+	 *
+	 * @param <C>
+	 *            the class of the operator chain
+	 * @param <T>
+	 *            the result of the task
+	 * @since 9.11
+	 */
+	@FunctionalInterface
+	protected interface CloneTask<C extends ParallelOperatorChain, T> {
+
+		/**
+		 * Executes the task with the given index on the clone.
+		 *
+		 * @param clone
+		 *            a clone of the operator chain that is used only for this task
+		 * @param index
+		 *            the index of the task
+		 * @return the result of the task
+		 * @throws OperatorException
+		 *             if the execution of the subprocesses fails
+		 */
+		T execute(C clone, int index) throws OperatorException;
+	}
+
 	/** Last version which synchronized remembered data only in special iterations (in most cases the last iteration). */
 	public static final OperatorVersion DOES_NOT_ALWAYS_SYNCHRONIZE_REMEMBERED_DATA = new OperatorVersion(8, 2, 0);
 
@@ -63,7 +96,7 @@ public abstract class ParallelOperatorChain extends OperatorChain {
 	 * @return
 	 */
 	protected boolean checkParallelizability() {
-		if(Resources.getConcurrencyContext(this).getParallelism() == 1) {
+		if (!isParallelExecutionSupported() || Resources.getConcurrencyContext(this).getParallelism() == 1) {
 			return false;
 		}
 
@@ -81,6 +114,30 @@ public abstract class ParallelOperatorChain extends OperatorChain {
 		return executeParallely;
 	}
 
+	/**
+	 * Returns whether this operator executes its subprocesses in parallel at all. Subclasses that
+	 * always iterate sequentially return {@code false}. Then neither the parallel execution
+	 * parameter nor the related version change is offered.
+	 *
+	 * @return {@code true} by default
+	 * @since 9.11
+	 */
+	protected boolean isParallelExecutionSupported() {
+		return true;
+	}
+
+	/**
+	 * Returns the default of the parallel execution parameter. Subclasses that became parallel after
+	 * existing processes were built with them return {@code false}, so that parallel execution stays
+	 * an explicit choice for them.
+	 *
+	 * @return {@code true} by default
+	 * @since 9.11
+	 */
+	protected boolean isParallelExecutionEnabledByDefault() {
+		return true;
+	}
+
 	/**
 	 * This method returns a List of the copies or clones of each IOObject. Copies are simply
 	 * references on the same objects if the object is immutable. ExampleSets are provided by cloned
@@ -128,12 +185,117 @@ public abstract class ParallelOperatorChain extends OperatorChain {
 		}
 	}
 
+	/**
+	 * Executes the given task for every index between 0 and numberOfTasks, each on its own clone of
+	 * this operator. The tasks are executed in batches of at most the parallelism of the
+	 * {@link com.rapidminer.core.concurrency.ConcurrencyContext}. If the memory needed per task is
+	 * known, the batches are further reduced such that the tasks of a batch fit into the currently
+	 * available memory. The progress is advanced by one step per finished task.
+	 * <p>
+	 * Should only be called if {@link #checkParallelizability()} returned {@code true}.
+	 *
+	 * @param numberOfTasks
+	 *            the number of tasks
+	 * @param memoryPerTask
+	 *            the estimated number of bytes needed by a single task or 0 if unknown
+	 * @param task
+	 *            the task to execute
+	 * @return the results of the tasks ordered by their index, independent of the order in which
+	 *         they finished
+	 * @throws OperatorException
+	 *             if one of the tasks fails
+	 * @since 9.11
+	 */
+	protected <C extends ParallelOperatorChain, T> List<T> executeOnClones(int numberOfTasks, long memoryPerTask,
+			CloneTask<C, T> task) throws OperatorException {
+		return executeOnClones(numberOfTasks, memoryPerTask, true, task);
+	}
+
+	/**
+	 * Same as {@link #executeOnClones(int, long, CloneTask)} but allows operators with their own
+	 * progress handling to keep the progress untouched.
+	 *
+	 * @param numberOfTasks
+	 *            the number of tasks
+	 * @param memoryPerTask
+	 *            the estimated number of bytes needed by a single task or 0 if unknown
+	 * @param stepProgress
+	 *            whether the progress is advanced by one step per finished task
+	 * @param task
+	 *            the task to execute
+	 * @return the results of the tasks ordered by their index
+	 * @throws OperatorException
+	 *             if one of the tasks fails
+	 * @since 9.11
+	 */
+	@SuppressWarnings("unchecked")
+	protected <C extends ParallelOperatorChain, T> List<T> executeOnClones(int numberOfTasks, long memoryPerTask,
+			boolean stepProgress, CloneTask<C, T> task) throws OperatorException {
+		ConcurrencyExecutionService service = ConcurrencyExecutionServiceProvider.INSTANCE.getService();
+		boolean alwaysSynchronize = !getCompatibilityLevel().isAtMost(DOES_NOT_ALWAYS_SYNCHRONIZE_REMEMBERED_DATA);
+		int batchSize = getBatchSize(numberOfTasks, memoryPerTask);
+		List<T> results = new ArrayList<>(numberOfTasks);
+		for (int start = 0; start < numberOfTasks; start += batchSize) {
+			int end = Math.min(numberOfTasks, start + batchSize);
+			List<Callable<T>> tasks = new ArrayList<>(end - start);
+			for (int i = start; i < end; i++) {
+				int index = i;
+				C clone = (C) cloneOperator(getName(), true);
+				Callable<T> callable = () -> task.execute(clone, index);
+				if (service != null) {
+					// captures the side effects of the clone in a background process
+					tasks.add(service.prepareOperatorTask(getProcess(), clone, getApplyCount(),
+							alwaysSynchronize || index == numberOfTasks - 1, callable));
+				} else {
+					clone.setEnclosingProcess(getExecutionUnit());
+					tasks.add(callable);
+				}
+			}
+			if (service != null) {
+				results.addAll(service.executeOperatorTasks(this, tasks));
+			} else {
+				try {
+					results.addAll(Resources.getConcurrencyContext(this).call(tasks));
+				} catch (ExecutionException e) {
+					throw ExecutionExceptionHandling.INSTANCE.processExecutionException(e, getProcess());
+				}
+			}
+			if (stepProgress) {
+				getProgress().step(end - start);
+			} else {
+				checkForStop();
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Calculates how many tasks can be executed at the same time.
+	 */
+	private int getBatchSize(int numberOfTasks, long memoryPerTask) {
+		int batchSize = Math.max(1, Math.min(numberOfTasks, Resources.getConcurrencyContext(this).getParallelism()));
+		if (memoryPerTask > 0) {
+			Runtime runtime = Runtime.getRuntime();
+			long availableMemory = runtime.maxMemory() - runtime.totalMemory() + runtime.freeMemory();
+			int memoryLimit = (int) Math.max(1, Math.min(Integer.MAX_VALUE, availableMemory / memoryPerTask));
+			if (memoryLimit < batchSize) {
+				getLogger().fine("Executing only " + memoryLimit + " tasks at a time due to memory limits");
+				batchSize = memoryLimit;
+			}
+		}
+		return batchSize;
+	}
+
 	@Override
 	public List<ParameterType> getParameterTypes() {
 		List<ParameterType> types = super.getParameterTypes();
+		if (!isParallelExecutionSupported()) {
+			return types;
+		}
 		types.add(new ParameterTypeBoolean(PARAMETER_ENABLE_PARALLEL_EXECUTION,
-				"This parameter enables the parallel execution of this operator. Please disable the parallel execution if you run into memory problems.",
-				true, true));
+				"This parameter enables the parallel execution of this operator. Please disable the parallel execution if you run into memory problems. "
+						+ "In parallel mode, operators drawing from the global random generator may receive different random numbers.",
+				isParallelExecutionEnabledByDefault(), true));
 
 		return types;
 	}
@@ -141,6 +303,9 @@ public abstract class ParallelOperatorChain extends OperatorChain {
 	@Override
 	public OperatorVersion[] getIncompatibleVersionChanges() {
 		OperatorVersion[] incompatibleVersions = super.getIncompatibleVersionChanges();
+		if (!isParallelExecutionSupported()) {
+			return incompatibleVersions;
+		}
 		OperatorVersion[] extendedIncompatibleVersions = Arrays.copyOf(incompatibleVersions,
 				incompatibleVersions.length + 1);
 		extendedIncompatibleVersions[incompatibleVersions.length] = DOES_NOT_ALWAYS_SYNCHRONIZE_REMEMBERED_DATA;
@@ -0,0 +1,228 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.operator.execution;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.rapidminer.Process;
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.operator.ExecutionUnit;
+import com.rapidminer.operator.Operator;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.ports.InputPort;
+import com.rapidminer.operator.ports.OutputPort;
+import com.rapidminer.studio.concurrency.internal.ExecutionExceptionHandling;
+import com.rapidminer.studio.internal.Resources;
+
+
+/**
+ * Executes an {@link ExecutionUnit} by running operators that do not depend on each other
+ * concurrently on the {@link ConcurrencyContext} of the process.
+ * <p>
+ * The operators are grouped into stages. An operator is placed into the first stage after all
+ * operators delivering to one of its input ports. Only operators that are
+ * {@link Operator#isFreeOfSideEffects() free of side effects} can share a stage. All other operators
+ * might have side effects that are not visible as port connections (e.g. defining macros, writing
+ * files or drawing from the random generator of the process) and act as barriers: they are
+ * executed after all operators preceding them in the execution order and before all operators
+ * following them. The stages are executed one after another, the operators within a stage in
+ * parallel.
+ * <p>
+ * The process flow events are fired for every operator as if the operators were executed one after
+ * another in the stage order. The events and the notifications of the
+ * {@link com.rapidminer.ProcessListener ProcessListeners} are never fired concurrently, so they do
+ * not need to be thread-safe.
+ * <p>
+ * Falls back to the {@link SimpleUnitExecutor} if there is nothing to parallelize, only a single
+ * thread is available, or an operator of the unit has a breakpoint. Instances of this class can be
+ * shared.
+ *
+ * @since 9.11
+ */
+public class DataflowUnitExecutor implements UnitExecutor {
+
+	private final SimpleUnitExecutor fallback = new SimpleUnitExecutor();
+
+	@Override
+	public void execute(ExecutionUnit unit) throws OperatorException {
+		Operator enclosingOperator = unit.getEnclosingOperator();
+		Process process = enclosingOperator.getProcess();
+		List<Operator> operators = unit.getOperators();
+		if (process == null || operators.size() < 2 || hasBreakpoint(operators)) {
+			fallback.execute(unit);
+			return;
+		}
+		ConcurrencyContext context = Resources.getConcurrencyContext(enclosingOperator);
+		if (context.getParallelism() < 2) {
+			fallback.execute(unit);
+			return;
+		}
+		List<List<Operator>> stages = createStages(operators);
+		if (stages == null || stages.size() == operators.size()) {
+			// either not sorted topologically or no independent operators
+			fallback.execute(unit);
+			return;
+		}
+
+		Logger logger = enclosingOperator.getLogger();
+		if (logger.isLoggable(Level.FINE)) {
+			logger.fine("Executing subprocess " + enclosingOperator.getName() + "." + unit.getName()
+					+ " in parallel. Execution stages are: " + stages);
+		}
+
+		List<Operator> executionOrder = new ArrayList<>(operators.size());
+		for (List<Operator> stage : stages) {
+			executionOrder.addAll(stage);
+		}
+		FlowEventFirer firer = new FlowEventFirer(process, executionOrder);
+
+		for (List<Operator> stage : stages) {
+			if (stage.size() == 1) {
+				execute(stage.get(0), firer);
+				continue;
+			}
+			List<Callable<Void>> tasks = new ArrayList<>(stage.size());
+			for (Operator operator : stage) {
+				tasks.add(() -> {
+					execute(operator, firer);
+					return null;
+				});
+			}
+			try {
+				context.call(tasks);
+			} catch (ExecutionException e) {
+				throw ExecutionExceptionHandling.INSTANCE.processExecutionException(e, process);
+			}
+		}
+	}
+
+	/**
+	 * Executes the given operator, firing the process flow events and freeing the memory afterwards.
+	 */
+	private static void execute(Operator operator, FlowEventFirer firer) throws OperatorException {
+		firer.fireBefore(operator);
+		operator.execute();
+		firer.fireAfter(operator);
+		operator.freeMemory();
+	}
+
+	/**
+	 * Groups the operators into stages of operators that can be executed concurrently.
+	 *
+	 * @param operators
+	 *            the operators in execution order
+	 * @return the stages, or {@code null} if the execution order does not respect the port
+	 *         connections
+	 */
+	static List<List<Operator>> createStages(List<Operator> operators) {
+		Map<Operator, Integer> stageIndices = new HashMap<>();
+		List<List<Operator>> stages = new ArrayList<>();
+		// every operator must be executed after this stage because of a preceding barrier
+		int minimumStage = 0;
+		int lastStage = -1;
+		for (Operator operator : operators) {
+			int stage = minimumStage;
+			for (InputPort inputPort : operator.getInputPorts().getAllPorts()) {
+				OutputPort source = inputPort.getSource();
+				if (source == null) {
+					continue;
+				}
+				Operator sourceOperator = source.getPorts().getOwner().getOperator();
+				if (sourceOperator == operator.getExecutionUnit().getEnclosingOperator()) {
+					// inner source of the enclosing operator, available from the start
+					continue;
+				}
+				Integer sourceStage = stageIndices.get(sourceOperator);
+				if (sourceStage == null) {
+					return null;
+				}
+				stage = Math.max(stage, sourceStage + 1);
+			}
+			if (isBarrier(operator)) {
+				stage = Math.max(stage, lastStage + 1);
+				minimumStage = stage + 1;
+			}
+			while (stages.size() <= stage) {
+				stages.add(new ArrayList<>());
+			}
+			stages.get(stage).add(operator);
+			stageIndices.put(operator, stage);
+			lastStage = Math.max(lastStage, stage);
+		}
+		return stages;
+	}
+
+	/**
+	 * Checks whether the operator might have side effects which require exclusive execution. This
+	 * is the case for all operators that are not known to be {@link Operator#isFreeOfSideEffects()
+	 * free of side effects}.
+	 */
+	private static boolean isBarrier(Operator operator) {
+		return !operator.isFreeOfSideEffects();
+	}
+
+	/**
+	 * Checks whether one of the operators has a breakpoint. Breakpoints pause the process which is
+	 * only well-defined for a single executing operator.
+	 */
+	private static boolean hasBreakpoint(List<Operator> operators) {
+		for (Operator operator : operators) {
+			if (operator.hasBreakpoint()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Fires the process flow events in a serialized way. The previous and next operators reported to
+	 * the filters are taken from the flattened stage order.
+	 */
+	private static final class FlowEventFirer {
+
+		private final Process process;
+		private final List<Operator> executionOrder;
+
+		private Operator lastStarted;
+
+		private FlowEventFirer(Process process, List<Operator> executionOrder) {
+			this.process = process;
+			this.executionOrder = executionOrder;
+		}
+
+		private synchronized void fireBefore(Operator operator) throws OperatorException {
+			process.fireProcessFlowBeforeOperator(lastStarted, operator, SimpleUnitExecutor.gatherInput(operator));
+			lastStarted = operator;
+		}
+
+		private synchronized void fireAfter(Operator operator) throws OperatorException {
+			int index = executionOrder.indexOf(operator);
+			Operator next = index + 1 < executionOrder.size() ? executionOrder.get(index + 1) : null;
+			process.fireProcessFlowAfterOperator(operator, next, SimpleUnitExecutor.gatherOutput(operator));
+		}
+	}
+
+}
@@ -57,20 +57,7 @@ public class SimpleUnitExecutor implements UnitExecutor {
 
 			// fire event that we are about to start the next operator
 			if (process != null) {
-				// gather input data for connected ports
-				List<FlowData> input = new LinkedList<>();
-				if (operator.getInputPorts() != null) {
-					for (InputPort inputPort : operator.getInputPorts().getAllPorts()) {
-						if (inputPort.isConnected()) {
-							IOObject data = inputPort.getRawData();
-							if (data != null) {
-								data = FlowCleaner.INSTANCE.checkCleanup(data, inputPort);
-								input.add(new FlowData(data, inputPort));
-							}
-						}
-					}
-				}
-				process.fireProcessFlowBeforeOperator(lastOperator, operator, input);
+				process.fireProcessFlowBeforeOperator(lastOperator, operator, gatherInput(operator));
 			}
 
 			// execute the operator
@@ -81,23 +68,59 @@ public class SimpleUnitExecutor implements UnitExecutor {
 
 			// fire event that we finished last operator
 			if (process != null) {
-				// gather output data for connected ports
-				List<FlowData> output = new LinkedList<>();
-				if (lastOperator.getOutputPorts() != null) {
-					for (OutputPort outputPort : lastOperator.getOutputPorts().getAllPorts()) {
-						if (outputPort.isConnected()) {
-							IOObject data = outputPort.getRawData();
-							if (data != null) {
-								output.add(new FlowData(data, outputPort));
-							}
-						}
+				process.fireProcessFlowAfterOperator(lastOperator, operator, gatherOutput(lastOperator));
+			}
+			lastOperator.freeMemory();
+		}
+
+	}
+
+	/**
+	 * Gathers the input data of all connected input ports of the given operator. The data is
+	 * cleaned up via the {@link FlowCleaner} if possible.
+	 *
+	 * @param operator
+	 *            the operator which is about to be executed
+	 * @return the input data, can be empty but never {@code null}
+	 * @since 9.11
+	 */
+	static List<FlowData> gatherInput(Operator operator) {
+		List<FlowData> input = new LinkedList<>();
+		if (operator.getInputPorts() != null) {
+			for (InputPort inputPort : operator.getInputPorts().getAllPorts()) {
+				if (inputPort.isConnected()) {
+					IOObject data = inputPort.getRawData();
+					if (data != null) {
+						data = FlowCleaner.INSTANCE.checkCleanup(data, inputPort);
+						input.add(new FlowData(data, inputPort));
 					}
 				}
-				process.fireProcessFlowAfterOperator(lastOperator, operator, output);
 			}
-			lastOperator.freeMemory();
 		}
+		return input;
+	}
 
+	/**
+	 * Gathers the output data of all connected output ports of the given operator.
+	 *
+	 * @param operator
+	 *            the operator which has just been executed
+	 * @return the output data, can be empty but never {@code null}
+	 * @since 9.11
+	 */
+	static List<FlowData> gatherOutput(Operator operator) {
+		List<FlowData> output = new LinkedList<>();
+		if (operator.getOutputPorts() != null) {
+			for (OutputPort outputPort : operator.getOutputPorts().getAllPorts()) {
+				if (outputPort.isConnected()) {
+					IOObject data = outputPort.getRawData();
+					if (data != null) {
+						output.add(new FlowData(data, outputPort));
+					}
+				}
+			}
+		}
+		return output;
 	}
 
 }
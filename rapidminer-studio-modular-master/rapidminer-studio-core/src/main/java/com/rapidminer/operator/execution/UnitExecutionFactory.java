@@ -18,11 +18,15 @@
  */
 package com.rapidminer.operator.execution;
 
+import com.rapidminer.RapidMiner;
 import com.rapidminer.operator.ExecutionUnit;
+import com.rapidminer.tools.ParameterService;
 
 
 /**
- * Creates instances of {@link UnitExecutor}s for {@link ExecutionUnit}s.
+ * Creates instances of {@link UnitExecutor}s for {@link ExecutionUnit}s. If
+ * {@link RapidMiner#PROPERTY_RAPIDMINER_GENERAL_PARALLEL_SUBPROCESS_EXECUTION} is enabled, the
+ * {@link DataflowUnitExecutionFactory} is used, otherwise the {@link SimpleUnitExecutionFactory}.
  *
  * @author Simon Fischer
  *
@@ -31,7 +35,13 @@ public abstract class UnitExecutionFactory {
 
 	private static UnitExecutionFactory instance = new SimpleUnitExecutionFactory();
 
+	private static final UnitExecutionFactory DATAFLOW_INSTANCE = new DataflowUnitExecutionFactory();
+
 	public static UnitExecutionFactory getInstance() {
+		if (Boolean.parseBoolean(
+				ParameterService.getParameterValue(RapidMiner.PROPERTY_RAPIDMINER_GENERAL_PARALLEL_SUBPROCESS_EXECUTION))) {
+			return DATAFLOW_INSTANCE;
+		}
 		return instance;
 	}
 
@@ -317,6 +317,27 @@ public class AttributeConstruction extends AbstractFeatureConstruction {
 		return exampleSet;
 	}
 
+	/**
+	 * The generated attributes can be cached unless one of the functions reads macros, parameters,
+	 * the current time or random numbers.
+	 *
+	 * @since 9.11
+	 */
+	@Override
+	public boolean isResultCacheable() {
+		try {
+			for (String[] nameFunctionPair : getParameterList(PARAMETER_FUNCTIONS)) {
+				if (com.rapidminer.tools.belt.expression.internal.ExpressionParserUtils
+						.isContextDependent(nameFunctionPair[1])) {
+					return false;
+				}
+			}
+			return true;
+		} catch (UndefinedParameterError e) {
+			return false;
+		}
+	}
+
 	@Override
 	public OperatorVersion[] getIncompatibleVersionChanges() {
 		// add expression parser version change to allow usage of old functions
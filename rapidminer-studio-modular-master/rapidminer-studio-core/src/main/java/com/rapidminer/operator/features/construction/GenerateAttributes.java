@@ -18,13 +18,28 @@
  */
 package com.rapidminer.operator.features.construction;
 
+import java.time.Instant;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.regex.Pattern;
 
 import com.rapidminer.adaption.belt.IOTable;
 import com.rapidminer.belt.column.Column;
+import com.rapidminer.belt.column.type.StringList;
+import com.rapidminer.belt.column.type.StringSet;
 import com.rapidminer.belt.table.Builders;
 import com.rapidminer.belt.table.Table;
 import com.rapidminer.belt.table.TableBuilder;
+import com.rapidminer.core.concurrency.ConcurrencyContext;
 import com.rapidminer.operator.Operator;
 import com.rapidminer.operator.OperatorDescription;
 import com.rapidminer.operator.OperatorException;
@@ -40,12 +55,16 @@ import com.rapidminer.parameter.ParameterTypeBoolean;
 import com.rapidminer.parameter.ParameterTypeList;
 import com.rapidminer.parameter.ParameterTypeString;
 import com.rapidminer.parameter.ParameterTypeTableExpression;
+import com.rapidminer.studio.concurrency.internal.ExecutionExceptionHandling;
+import com.rapidminer.studio.internal.Resources;
 import com.rapidminer.tools.belt.BeltTools;
 import com.rapidminer.tools.belt.expression.DynamicResolver;
 import com.rapidminer.tools.belt.expression.ExpressionException;
 import com.rapidminer.tools.belt.expression.ExpressionParser;
 import com.rapidminer.tools.belt.expression.ExpressionParserBuilder;
 import com.rapidminer.tools.belt.expression.ExpressionRegistry;
+import com.rapidminer.tools.belt.expression.ExpressionType;
+import com.rapidminer.tools.belt.expression.FunctionInput;
 import com.rapidminer.tools.belt.expression.MacroResolver;
 import com.rapidminer.tools.belt.expression.TableResolver;
 import com.rapidminer.tools.belt.expression.internal.ExpressionParserUtils;
@@ -70,6 +89,69 @@ public class GenerateAttributes extends Operator {
 	 */
 	public static final String PARAMETER_KEEP_ALL = "keep_all";
 
+	/**
+	 * Matches calls of the attribute function. With a non-constant argument, the referenced columns are only known
+	 * during the evaluation.
+	 */
+	private static final Pattern RUNTIME_REFERENCES = Pattern.compile("\\battribute\\s*\\(");
+
+	/**
+	 * Resolves the types of the table's columns and of the columns generated so far without providing any values. It
+	 * is used to parse the expressions before they are evaluated and records all referenced variables.
+	 */
+	private static final class ReferenceRecorder implements DynamicResolver {
+
+		private final TableResolver tableResolver;
+		private final Map<String, ExpressionType> generatedTypes = new HashMap<>();
+		private final Set<String> references = new HashSet<>();
+
+		private ReferenceRecorder(Table table) {
+			this.tableResolver = new TableResolver(table);
+		}
+
+		@Override
+		public Collection<FunctionInput> getAllVariables() {
+			return tableResolver.getAllVariables();
+		}
+
+		@Override
+		public ExpressionType getVariableType(String variableName) {
+			references.add(variableName);
+			ExpressionType type = generatedTypes.get(variableName);
+			return type != null ? type : tableResolver.getVariableType(variableName);
+		}
+
+		@Override
+		public String getStringValue(String variableName, int index) {
+			return null;
+		}
+
+		@Override
+		public double getDoubleValue(String variableName, int index) {
+			return Double.NaN;
+		}
+
+		@Override
+		public Instant getInstantValue(String variableName, int index) {
+			return null;
+		}
+
+		@Override
+		public LocalTime getLocalTimeValue(String variableName, int index) {
+			return null;
+		}
+
+		@Override
+		public StringSet getStringSetValue(String variableName, int index) {
+			return null;
+		}
+
+		@Override
+		public StringList getStringListValue(String variableName, int index) {
+			return null;
+		}
+	}
+
 	private final InputPort tableInput = getInputPorts().createPort("example set input");
 	private final OutputPort tableOutput = getOutputPorts().createPort("example set output");
 	private final OutputPort originalOutput = getOutputPorts().createPort("original");
@@ -156,36 +238,180 @@ public class GenerateAttributes extends Operator {
 	}
 
 	private Table apply(Table table) throws OperatorException {
-		// create resolver and parser
-		TableResolver tableResolver = new TableResolver(table);
-		ExpressionParser expParser = createExpressionParser(tableResolver);
+		// generate the columns, independent ones concurrently
+		List<String[]> functions = getParameterList(PARAMETER_FUNCTIONS);
+		Column[] newColumns = generateColumns(table, functions, Resources.getConcurrencyContext(this));
 
 		// initialize table builder
 		boolean keepAll = getParameterAsBoolean(PARAMETER_KEEP_ALL);
 		TableBuilder builder = keepAll ? Builders.newTableBuilder(table) : Builders.newTableBuilder(table.height());
 
-		// generate the columns one by one
-		for (String[] nameExpressionPair : getParameterList(PARAMETER_FUNCTIONS)) {
+		// add the columns one by one
+		int index = 0;
+		for (String[] nameExpressionPair : functions) {
 			String name = nameExpressionPair[0];
-			String expression = nameExpressionPair[1];
-			try {
-				Column newColumn = ExpressionParserUtils.createColumn(table.height(), expression, expParser);
-				// TODO: Do we want to keep the metadata if the new column has the same name as the old one?
-				// (Does not really make sense since it is a newly generated column I would say but looks like
-				// that is what used to happen (see ExpressionParserUtils#239))
-				if (builder.contains(name)) {
-					builder.remove(name);
+			Column newColumn = newColumns[index++];
+			// TODO: Do we want to keep the metadata if the new column has the same name as the old one?
+			// (Does not really make sense since it is a newly generated column I would say but looks like
+			// that is what used to happen (see ExpressionParserUtils#239))
+			if (builder.contains(name)) {
+				builder.remove(name);
+			}
+			builder.add(name, newColumn);
+		}
+
+		return builder.build(BeltTools.getContext(this));
+	}
+
+	/**
+	 * Generates the columns of all functions. Every expression is evaluated as soon as the columns it references are
+	 * generated, so that independent expressions are evaluated concurrently. The rows of a single expression are
+	 * evaluated in parallel as well. The results are the same as for generating the columns one by one in the order of
+	 * the functions.
+	 *
+	 * @param table
+	 * 		the input table
+	 * @param functions
+	 * 		the name expression pairs
+	 * @param context
+	 * 		the concurrency context used for the evaluation
+	 * @return the generated columns in the order of the functions
+	 * @throws OperatorException
+	 * 		if an expression cannot be parsed or evaluated
+	 */
+	Column[] generateColumns(Table table, List<String[]> functions, ConcurrencyContext context)
+			throws OperatorException {
+		int[][] dependencies = findDependencies(table, functions);
+		// every expression is evaluated in the first round after the rounds of all its dependencies
+		int[] rounds = new int[functions.size()];
+		int numberOfRounds = 0;
+		for (int i = 0; i < rounds.length; i++) {
+			for (int dependency : dependencies[i]) {
+				rounds[i] = Math.max(rounds[i], rounds[dependency] + 1);
+			}
+			numberOfRounds = Math.max(numberOfRounds, rounds[i] + 1);
+		}
+
+		int parallelism = context.getParallelism();
+		Column[] newColumns = new Column[functions.size()];
+		List<Integer> batch = new ArrayList<>(parallelism);
+		for (int round = 0; round < numberOfRounds; round++) {
+			for (int i = 0; i < rounds.length; i++) {
+				if (rounds[i] == round) {
+					batch.add(i);
 				}
-				builder.add(name, newColumn);
-				// adding the newly generated column to the resolver on the fly
-				tableResolver.addColumn(name, newColumn);
+				if (batch.size() == parallelism || !batch.isEmpty() && i == rounds.length - 1) {
+					generateColumns(table, functions, dependencies, batch, newColumns, context);
+					batch.clear();
+					checkForStop();
+				}
+			}
+		}
+		return newColumns;
+	}
+
+	/**
+	 * Generates the columns of the given batch of expressions concurrently and stores them in the new columns array.
+	 * The dependencies of all expressions in the batch must be generated already.
+	 */
+	private void generateColumns(Table table, List<String[]> functions, int[][] dependencies, List<Integer> batch,
+			Column[] newColumns, ConcurrencyContext context) throws OperatorException {
+		if (batch.size() == 1) {
+			int index = batch.get(0);
+			newColumns[index] = generateColumn(table, functions, dependencies, index, newColumns, context);
+			return;
+		}
+		List<Callable<Column>> tasks = new ArrayList<>(batch.size());
+		for (int index : batch) {
+			tasks.add(() -> generateColumn(table, functions, dependencies, index, newColumns, context));
+		}
+		try {
+			List<Column> results = context.call(tasks);
+			for (int i = 0; i < batch.size(); i++) {
+				newColumns[batch.get(i)] = results.get(i);
+			}
+		} catch (ExecutionException e) {
+			throw ExecutionExceptionHandling.INSTANCE.processExecutionException(e, getProcess());
+		}
+	}
+
+	/**
+	 * Generates the column of the expression with the given index. Every thread evaluating the expression resolves
+	 * the variables with its own resolver that knows the table and the generated columns the expression depends on.
+	 */
+	private Column generateColumn(Table table, List<String[]> functions, int[][] dependencies, int index,
+			Column[] newColumns, ConcurrencyContext context) throws OperatorException {
+		String expression = functions.get(index)[1];
+		try {
+			return ExpressionParserUtils.createColumn(table.height(), expression, () -> {
+				TableResolver tableResolver = new TableResolver(table);
+				for (int dependency : dependencies[index]) {
+					tableResolver.addColumn(functions.get(dependency)[0], newColumns[dependency]);
+				}
+				return createExpressionParser(tableResolver);
+			}, context);
+		} catch (ExpressionException e) {
+			throw ExpressionParserUtils.convertToUserError(this, expression, e);
+		}
+	}
+
+	/**
+	 * Parses all expressions and finds for every expression the earlier expressions whose generated columns it
+	 * references. If a name is generated more than once, only the latest generation before the expression is
+	 * referenced. Expressions that resolve columns during the evaluation depend on all earlier expressions. If any
+	 * expression is {@link ExpressionParserUtils#isOrderDependent(String) order dependent}, every expression depends
+	 * on its predecessor, so that all expressions are evaluated one by one.
+	 *
+	 * @param table
+	 * 		the input table
+	 * @param functions
+	 * 		the name expression pairs
+	 * @return the indices of the dependencies of every expression in ascending order
+	 * @throws OperatorException
+	 * 		if an expression cannot be parsed
+	 */
+	int[][] findDependencies(Table table, List<String[]> functions) throws OperatorException {
+		ReferenceRecorder recorder = new ReferenceRecorder(table);
+		ExpressionParser parser = createExpressionParser(recorder);
+		boolean orderDependent = false;
+		for (String[] nameExpressionPair : functions) {
+			orderDependent |= ExpressionParserUtils.isOrderDependent(nameExpressionPair[1]);
+		}
+
+		int[][] dependencies = new int[functions.size()][];
+		Map<String, Integer> latestGenerations = new HashMap<>();
+		for (int i = 0; i < functions.size(); i++) {
+			String name = functions.get(i)[0];
+			String expression = functions.get(i)[1];
+			recorder.references.clear();
+			ExpressionType type;
+			try {
+				type = parser.parse(expression).getExpressionType();
 			} catch (ExpressionException e) {
 				throw ExpressionParserUtils.convertToUserError(this, expression, e);
 			}
-			checkForStop();
-		}
 
-		return builder.build(BeltTools.getContext(this));
+			Set<Integer> expressionDependencies = new TreeSet<>();
+			if (orderDependent && i > 0) {
+				expressionDependencies.add(i - 1);
+			}
+			if (RUNTIME_REFERENCES.matcher(expression).find()) {
+				expressionDependencies.addAll(latestGenerations.values());
+			} else {
+				for (String reference : recorder.references) {
+					Integer generation = latestGenerations.get(reference);
+					if (generation != null) {
+						expressionDependencies.add(generation);
+					}
+				}
+			}
+			dependencies[i] = expressionDependencies.stream().mapToInt(Integer::intValue).toArray();
+
+			latestGenerations.put(name, i);
+			// boolean expressions result in nominal columns
+			recorder.generatedTypes.put(name, type == ExpressionType.BOOLEAN ? ExpressionType.STRING : type);
+		}
+		return dependencies;
 	}
 
 	@Override
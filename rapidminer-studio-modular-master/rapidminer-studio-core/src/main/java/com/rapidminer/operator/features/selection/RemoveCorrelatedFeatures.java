@@ -320,4 +320,15 @@ public class RemoveCorrelatedFeatures extends AbstractFeatureSelection {
 		newIncompatibleVersionChanges[newIncompatibleVersionChanges.length - 1] = VERSION_DETERMINISTIC_RANDOM_NUMBERS;
 		return newIncompatibleVersionChanges;
 	}
+
+	/**
+	 * Old versions use {@link Math#random()} for the random attribute order and can therefore not be
+	 * cached. Draws from the random generator of the process are detected by the cache itself.
+	 *
+	 * @since 9.11
+	 */
+	@Override
+	public boolean isResultCacheable() {
+		return !getCompatibilityLevel().isAtMost(VERSION_DETERMINISTIC_RANDOM_NUMBERS);
+	}
 }
@@ -94,6 +94,16 @@ public abstract class AbstractLearner extends Operator implements Learner {
 		getTransformer().addRule(new PassThroughRule(exampleSetInput, exampleSetOutput, false));
 	}
 
+	/**
+	 * The meta data of learners only depends on the parameters and the input meta data.
+	 *
+	 * @since 9.11
+	 */
+	@Override
+	protected boolean isMetaDataMemoizable() {
+		return true;
+	}
+
 	@Override
 	public boolean shouldAutoConnect(OutputPort outputPort) {
 		if (outputPort == performanceOutput) {
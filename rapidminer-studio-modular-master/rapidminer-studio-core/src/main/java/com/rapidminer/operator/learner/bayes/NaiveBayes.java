@@ -73,6 +73,26 @@ public class NaiveBayes extends AbstractLearner {
 		}
 	}
 
+	/**
+	 * Naive Bayes only reads the training data and its parameters.
+	 *
+	 * @since 9.11
+	 */
+	@Override
+	public boolean isFreeOfSideEffects() {
+		return true;
+	}
+
+	/**
+	 * The model only depends on the training data and the parameters.
+	 *
+	 * @since 9.11
+	 */
+	@Override
+	public boolean isResultCacheable() {
+		return true;
+	}
+
 	@Override
 	public List<ParameterType> getParameterTypes() {
 		List<ParameterType> types = super.getParameterTypes();
@@ -19,6 +19,7 @@
 package com.rapidminer.operator.learner.bayes;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 
 import com.rapidminer.example.Attribute;
@@ -69,6 +70,9 @@ public class SimpleDistributionModel extends DistributionModel {
 
 	private static final int OPERATOR_PROGRESS_STEPS = 200;
 
+	/** the number of examples whose values are read at once when updating the model */
+	private static final int UPDATE_BLOCK_SIZE = 1000;
+
 	/** The number of classes. */
 	private int numberOfClasses;
 
@@ -312,21 +316,42 @@ public class SimpleDistributionModel extends DistributionModel {
 	 */
 	public void update(ExampleSet exampleSet, OperatorProgress opProg) throws ProcessStoppedException {
 		Attribute weightAttribute = exampleSet.getAttributes().getWeight();
+		Attribute labelAttribute = exampleSet.getAttributes().getLabel();
+		int size = exampleSet.size();
 		if (opProg != null) {
-			opProg.setTotal(exampleSet.size());
+			opProg.setTotal(size);
 		}
 		Attribute[] regularAttributes = exampleSet.getAttributes().createRegularAttributeArray();
-		int progressCounter = 0;
-		for (Example example : exampleSet) {
-			double weight = weightAttribute == null ? 1.0d : example.getWeight();
-			totalWeight += weight;
-			double labelValue = example.getLabel();
-			if (!Double.isNaN(labelValue)) {
-				int classIndex = (int) example.getLabel();
-				classWeights[classIndex] += weight;
-				int attributeIndex = 0;
-				for (Attribute attribute : regularAttributes) {
-					double attributeValue = example.getValue(attribute);
+		int blockSize = Math.min(UPDATE_BLOCK_SIZE, size);
+		double[] weights = new double[blockSize];
+		double[] labels = new double[blockSize];
+		double[] values = new double[blockSize];
+		for (int start = 0; start < size; start += UPDATE_BLOCK_SIZE) {
+			int end = Math.min(start + UPDATE_BLOCK_SIZE, size);
+			int length = end - start;
+			if (weightAttribute == null) {
+				Arrays.fill(weights, 1.0d);
+			} else {
+				exampleSet.getValues(weightAttribute, start, end, weights, 0);
+			}
+			exampleSet.getValues(labelAttribute, start, end, labels, 0);
+			for (int row = 0; row < length; row++) {
+				totalWeight += weights[row];
+				if (!Double.isNaN(labels[row])) {
+					classWeights[(int) labels[row]] += weights[row];
+				}
+			}
+			int attributeIndex = 0;
+			for (Attribute attribute : regularAttributes) {
+				exampleSet.getValues(attribute, start, end, values, 0);
+				for (int row = 0; row < length; row++) {
+					double labelValue = labels[row];
+					if (Double.isNaN(labelValue)) {
+						continue;
+					}
+					int classIndex = (int) labelValue;
+					double weight = weights[row];
+					double attributeValue = values[row];
 					if (nominal[attributeIndex]) {
 						// the check of the value is needed because the mapping returns -1 for
 						// missing values:
@@ -370,11 +395,11 @@ public class SimpleDistributionModel extends DistributionModel {
 							weightSums[attributeIndex][classIndex][INDEX_MISSING_WEIGHTS] += weight;
 						}
 					}
-					attributeIndex++;
 				}
+				attributeIndex++;
 			}
-			if (opProg != null && ++progressCounter % 100 == 0) {
-				opProg.setCompleted(progressCounter);
+			if (opProg != null) {
+				opProg.setCompleted(end);
 			}
 		}
 		modelRecentlyUpdated = true;
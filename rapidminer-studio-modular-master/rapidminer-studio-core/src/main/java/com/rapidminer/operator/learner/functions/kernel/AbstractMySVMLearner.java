@@ -42,6 +42,7 @@ import com.rapidminer.operator.learner.functions.kernel.jmysvm.kernel.KernelNeur
 import com.rapidminer.operator.learner.functions.kernel.jmysvm.kernel.KernelPolynomial;
 import com.rapidminer.operator.learner.functions.kernel.jmysvm.kernel.KernelRadial;
 import com.rapidminer.operator.learner.functions.kernel.jmysvm.svm.SVMInterface;
+import com.rapidminer.operator.learner.functions.kernel.jmysvm.util.SharedKernelCache;
 import com.rapidminer.operator.performance.EstimatedPerformance;
 import com.rapidminer.operator.performance.PerformanceVector;
 import com.rapidminer.operator.ports.OutputPort;
@@ -288,11 +289,16 @@ public abstract class AbstractMySVMLearner extends AbstractKernelBasedLearner {
 					getParameterAsDouble(PARAMETER_KERNEL_SHIFT));
 		}
 		kernel.init(svmExamples, cacheSize);
+		SharedKernelCache sharedCache = SharedKernelCache.getInstance(this);
+		kernel.init_shared_cache(sharedCache);
 
 		// SVM
 		svm = createSVM(label, kernel, svmExamples, exampleSet);
 		svm.init(kernel, svmExamples);
 		svm.train();
+		if (sharedCache != null) {
+			getLogger().fine(sharedCache.toString());
+		}
 
 		return createSVMModel(exampleSet, svmExamples, kernel, kernelType);
 	}
@@ -36,6 +36,7 @@ import com.rapidminer.operator.OperatorException;
 import com.rapidminer.operator.ProcessSetupError.Severity;
 import com.rapidminer.operator.UserError;
 import com.rapidminer.operator.annotation.ResourceConsumptionEstimator;
+import com.rapidminer.operator.learner.functions.kernel.jmysvm.util.SharedKernelCache;
 import com.rapidminer.operator.ports.metadata.AttributeMetaData;
 import com.rapidminer.operator.ports.metadata.ExampleSetMetaData;
 import com.rapidminer.operator.ports.metadata.MetaData;
@@ -395,6 +396,10 @@ public class LibSVMLearner extends AbstractKernelBasedLearner {
 		log("Training LibSVM.");
 
 		svm_model model = Svm.svm_train(problem, params, this);
+		SharedKernelCache sharedCache = SharedKernelCache.getInstance(this);
+		if (sharedCache != null) {
+			getLogger().fine(sharedCache.toString());
+		}
 
 		return new LibSVMModel(exampleSet, model, exampleSet.getAttributes().size(),
 				getParameterAsBoolean(PARAMETER_CONFIDENCE_FOR_MULTICLASS));
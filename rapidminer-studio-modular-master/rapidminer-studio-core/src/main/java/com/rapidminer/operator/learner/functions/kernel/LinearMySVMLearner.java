@@ -32,6 +32,7 @@ import com.rapidminer.operator.learner.functions.kernel.jmysvm.kernel.KernelDot;
 import com.rapidminer.operator.learner.functions.kernel.jmysvm.svm.SVMInterface;
 import com.rapidminer.operator.learner.functions.kernel.jmysvm.svm.SVMpattern;
 import com.rapidminer.operator.learner.functions.kernel.jmysvm.svm.SVMregression;
+import com.rapidminer.operator.learner.functions.kernel.jmysvm.util.SharedKernelCache;
 import com.rapidminer.parameter.ParameterType;
 import com.rapidminer.parameter.ParameterTypeBoolean;
 import com.rapidminer.parameter.ParameterTypeDouble;
@@ -135,6 +136,7 @@ public class LinearMySVMLearner extends AbstractKernelBasedLearner {
 		int cacheSize = getParameterAsInt(PARAMETER_KERNEL_CACHE);
 		Kernel kernel = new KernelDot();
 		kernel.init(svmExamples, cacheSize);
+		kernel.init_shared_cache(SharedKernelCache.getInstance(this));
 
 		// SVM
 		SVMInterface svm = createSVM(label, kernel, svmExamples, exampleSet);
@@ -21,6 +21,7 @@ package com.rapidminer.operator.learner.functions.kernel.jmysvm.kernel;
 import com.rapidminer.operator.learner.functions.kernel.jmysvm.examples.SVMExample;
 import com.rapidminer.operator.learner.functions.kernel.jmysvm.examples.SVMExamples;
 import com.rapidminer.operator.learner.functions.kernel.jmysvm.util.Cache;
+import com.rapidminer.operator.learner.functions.kernel.jmysvm.util.SharedKernelCache;
 
 import java.io.Serializable;
 
@@ -64,6 +65,26 @@ public abstract class Kernel implements Serializable {
 	 */
 	protected int examples_total;
 
+	/**
+	 * Cache shared with other kernels, <code>null</code> if disabled
+	 */
+	protected transient SharedKernelCache shared_cache;
+
+	/**
+	 * Original position of the example at each position, the examples are swapped while shrinking
+	 */
+	protected transient int[] original_positions;
+
+	/**
+	 * Key of the examples for the shared cache
+	 */
+	protected transient SharedKernelCache.DataKey shared_data;
+
+	/**
+	 * Kernel type and parameters for the shared cache
+	 */
+	protected transient String shared_cache_key;
+
 	/**
 	 * Class constructor
 	 */
@@ -88,8 +109,31 @@ public abstract class Kernel implements Serializable {
 		examples_total = the_examples.count_examples();
 		dim = the_examples.get_dim();
 		init_kernel_cache(cacheSizeMB);
+		shared_cache = null;
+		original_positions = null;
 	};
 
+	/**
+	 * Connects the kernel to the given shared kernel cache. Must be called after {@link #init} and
+	 * after all kernel parameters are set.
+	 *
+	 * @param cache
+	 *            the shared cache, {@code null} to disable it
+	 */
+	public void init_shared_cache(SharedKernelCache cache) {
+		shared_cache = cache;
+		if (cache == null) {
+			original_positions = null;
+			return;
+		}
+		original_positions = new int[examples_total];
+		for (int i = 0; i < examples_total; i++) {
+			original_positions[i] = i;
+		}
+		shared_data = cache.getDataKey(the_examples.index, the_examples.atts, examples_total);
+		shared_cache_key = getClass().getName() + ":" + toString();
+	}
+
 	/**
 	 * Calculates kernel value of vectors x and y
 	 */
@@ -178,7 +222,17 @@ public abstract class Kernel implements Serializable {
 				result = new double[examples_total];
 			}
 			;
-			calculate_K_row(result, i);
+			if (shared_cache == null) {
+				calculate_K_row(result, i);
+			} else if (!shared_cache.get(shared_data, shared_cache_key, original_positions[i],
+					original_positions, result, 0, examples_total)) {
+				calculate_K_row(result, i);
+				// only complete rows can be shared
+				if (examples_total == original_positions.length) {
+					shared_cache.put(shared_data, shared_cache_key, original_positions[i], original_positions,
+							result, examples_total);
+				}
+			}
 			kernel_cache.put_element(i, result);
 		}
 		;
@@ -284,5 +338,10 @@ public abstract class Kernel implements Serializable {
 	public void swap(int pos1, int pos2) {
 		// called after container swap
 		kernel_cache.swap(pos1, pos2);
+		if (original_positions != null) {
+			int dummy = original_positions[pos1];
+			original_positions[pos1] = original_positions[pos2];
+			original_positions[pos2] = dummy;
+		}
 	}
 }
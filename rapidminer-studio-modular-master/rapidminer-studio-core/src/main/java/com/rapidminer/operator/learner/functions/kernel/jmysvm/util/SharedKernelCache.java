@@ -0,0 +1,464 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.operator.learner.functions.kernel.jmysvm.util;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+import java.util.function.BiPredicate;
+
+import com.rapidminer.Process;
+import com.rapidminer.ProcessStoppedListener;
+import com.rapidminer.RapidMiner;
+import com.rapidminer.operator.Operator;
+import com.rapidminer.tools.ParameterService;
+
+import libsvm.svm_node;
+
+
+/**
+ * A least recently used cache for kernel rows that is shared by all SVM trainings of one process
+ * run. In contrast to the {@link Cache} of a single kernel, rows are stored off-heap and survive
+ * the training that computed them. They are keyed by the training data, the kernel type including
+ * its parameters and the original position of the example, so that for example several trainings
+ * with different values for C on the same data can reuse the kernel rows of each other. Rows are
+ * always stored in the original example order.
+ * <p>
+ * The training data is identified by a fingerprint first and then compared value by value with a
+ * snapshot of the data of the cached rows, so rows are never shared between different data. The
+ * snapshot only references the example rows and is dropped with the last cached row of the data.
+ * <p>
+ * The size of the cache is defined by the setting
+ * {@link RapidMiner#PROPERTY_RAPIDMINER_SYSTEM_SHARED_KERNEL_CACHE_SIZE} in MB, a size of 0
+ * disables the cache. It is bounded by a quarter of the maximum heap size, which is also the
+ * default limit for direct buffers. The cache is dropped when the process stops.
+ *
+ * @since 9.11
+ */
+public final class SharedKernelCache {
+
+	/** The training data of cached kernel rows, compared by identity in the row keys. */
+	public static final class DataKey {
+
+		private final long fingerprint;
+		private final Object[] rows;
+		private final BiPredicate<Object, Object> sameRow;
+		private int cachedRows;
+
+		private DataKey(long fingerprint, Object[] rows, BiPredicate<Object, Object> sameRow) {
+			this.fingerprint = fingerprint;
+			this.rows = rows;
+			this.sameRow = sameRow;
+		}
+
+		/**
+		 * Checks whether the other data has the same fingerprint and equal rows.
+		 */
+		private boolean matches(DataKey other) {
+			if (fingerprint != other.fingerprint || rows.length != other.rows.length) {
+				return false;
+			}
+			for (int i = 0; i < rows.length; i++) {
+				if (rows[i] != other.rows[i] && !sameRow.test(rows[i], other.rows[i])) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	/** The key of a single kernel row. */
+	private static final class RowKey {
+
+		private final DataKey data;
+		private final String kernel;
+		private final int row;
+
+		private RowKey(DataKey data, String kernel, int row) {
+			this.data = data;
+			this.kernel = kernel;
+			this.row = row;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof RowKey)) {
+				return false;
+			}
+			RowKey other = (RowKey) o;
+			return data == other.data && row == other.row && kernel.equals(other.kernel);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(System.identityHashCode(data), kernel, row);
+		}
+	}
+
+	private static final long MEGABYTE = 1L << 20;
+
+	/** the caches of the running processes */
+	private static final Map<Process, SharedKernelCache> CACHES = new WeakHashMap<>();
+
+	private static final ProcessStoppedListener CLEAR_ON_STOP = SharedKernelCache::removeCache;
+
+	/** the maximal number of bytes to store */
+	private final long capacity;
+
+	/** the rows in access order, the eldest entry is the least recently used one */
+	private final LinkedHashMap<RowKey, ByteBuffer> rows = new LinkedHashMap<>(16, 0.75f, true);
+
+	/** the training data with at least one cached row */
+	private final List<DataKey> data = new ArrayList<>();
+
+	/** the number of bytes currently stored */
+	private long usedBytes;
+
+	private long hits;
+
+	private long misses;
+
+	/**
+	 * Creates a new cache with the given capacity in bytes.
+	 */
+	SharedKernelCache(long capacity) {
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Returns the cache of the current run of the process of the given operator. The cache is
+	 * created on first access and dropped when the process stops.
+	 *
+	 * @param operator
+	 *            the operator training the SVM, can be {@code null}
+	 * @return the cache or {@code null} if the cache is disabled by the settings or the operator
+	 *         is not part of a process
+	 */
+	public static synchronized SharedKernelCache getInstance(Operator operator) {
+		long capacity = getCapacity();
+		Process process = operator == null ? null : operator.getProcess();
+		if (capacity == 0 || process == null) {
+			return null;
+		}
+		return CACHES.computeIfAbsent(process, p -> {
+			p.addProcessStateListener(CLEAR_ON_STOP);
+			return new SharedKernelCache(capacity);
+		});
+	}
+
+	/**
+	 * Drops the cache of the given process.
+	 *
+	 * @param process
+	 *            the stopped process
+	 */
+	private static synchronized void removeCache(Process process) {
+		SharedKernelCache cache = CACHES.remove(process);
+		if (cache != null) {
+			cache.clear();
+		}
+		process.removeProcessStateListener(CLEAR_ON_STOP);
+	}
+
+	/**
+	 * Calculates a fingerprint of the given sparse examples.
+	 *
+	 * @param index
+	 *            the attribute indices of the examples
+	 * @param atts
+	 *            the attribute values of the examples
+	 * @param size
+	 *            the number of examples
+	 * @return the fingerprint
+	 */
+	public static long fingerprint(int[][] index, double[][] atts, int size) {
+		long hash = size;
+		for (int i = 0; i < size; i++) {
+			int[] rowIndex = index[i];
+			double[] rowAtts = atts[i];
+			hash = mix(hash, rowIndex.length);
+			for (int j = 0; j < rowIndex.length; j++) {
+				hash = mix(hash, rowIndex[j]);
+				hash = mix(hash, Double.doubleToLongBits(rowAtts[j]));
+			}
+		}
+		return hash;
+	}
+
+	/**
+	 * Calculates a fingerprint of the given libsvm examples.
+	 *
+	 * @param x
+	 *            the examples
+	 * @param size
+	 *            the number of examples
+	 * @return the fingerprint
+	 */
+	public static long fingerprint(svm_node[][] x, int size) {
+		long hash = size;
+		for (int i = 0; i < size; i++) {
+			svm_node[] row = x[i];
+			hash = mix(hash, row.length);
+			for (svm_node node : row) {
+				hash = mix(hash, node.index);
+				hash = mix(hash, Double.doubleToLongBits(node.value));
+			}
+		}
+		return hash;
+	}
+
+	/**
+	 * Returns the key of the given sparse examples. The key equals the key of cached rows if
+	 * their data is equal. The arrays of the single examples must not be changed afterwards,
+	 * while the outer arrays may be reordered.
+	 *
+	 * @param index
+	 *            the attribute indices of the examples
+	 * @param atts
+	 *            the attribute values of the examples
+	 * @param size
+	 *            the number of examples
+	 * @return the key of the data
+	 */
+	public DataKey getDataKey(int[][] index, double[][] atts, int size) {
+		Object[] snapshot = new Object[2 * size];
+		for (int i = 0; i < size; i++) {
+			snapshot[2 * i] = index[i];
+			snapshot[2 * i + 1] = atts[i];
+		}
+		return getDataKey(new DataKey(fingerprint(index, atts, size), snapshot, Objects::deepEquals));
+	}
+
+	/**
+	 * Returns the key of the given libsvm examples. The key equals the key of cached rows if
+	 * their data is equal. The arrays of the single examples must not be changed afterwards,
+	 * while the outer array may be reordered.
+	 *
+	 * @param x
+	 *            the examples
+	 * @param size
+	 *            the number of examples
+	 * @return the key of the data
+	 */
+	public DataKey getDataKey(svm_node[][] x, int size) {
+		return getDataKey(new DataKey(fingerprint(x, size), Arrays.copyOf(x, size, Object[].class),
+				(a, b) -> sameNodes((svm_node[]) a, (svm_node[]) b)));
+	}
+
+	/**
+	 * Returns the key of cached data matching the given one or the given key.
+	 */
+	private synchronized DataKey getDataKey(DataKey key) {
+		for (DataKey cached : data) {
+			if (cached.matches(key)) {
+				return cached;
+			}
+		}
+		return key;
+	}
+
+	/**
+	 * Copies the cached row for the given example into the result, reordered to the current
+	 * positions of the examples.
+	 *
+	 * @param data
+	 *            the key of the training data
+	 * @param kernel
+	 *            the kernel type including all parameters
+	 * @param row
+	 *            the original position of the example
+	 * @param positions
+	 *            the original position of every current position
+	 * @param result
+	 *            the array to fill, its length can be smaller than the cached row after shrinking
+	 * @param from
+	 *            the first current position to fill
+	 * @param to
+	 *            the current position after the last one to fill
+	 * @return {@code true} if the row was cached and copied
+	 */
+	public synchronized boolean get(DataKey data, String kernel, int row, int[] positions, double[] result,
+			int from, int to) {
+		ByteBuffer buffer = rows.get(new RowKey(data, kernel, row));
+		if (buffer == null) {
+			misses++;
+			return false;
+		}
+		hits++;
+		for (int k = from; k < to; k++) {
+			result[k] = buffer.getDouble(positions[k] << 3);
+		}
+		return true;
+	}
+
+	/**
+	 * Stores a complete kernel row. The least recently used rows are evicted if the cache is full.
+	 * Rows larger than the complete cache are not stored.
+	 *
+	 * @param data
+	 *            the key of the training data
+	 * @param kernel
+	 *            the kernel type including all parameters
+	 * @param row
+	 *            the original position of the example
+	 * @param positions
+	 *            the original position of every current position
+	 * @param values
+	 *            the kernel values at the current positions
+	 * @param length
+	 *            the total number of examples
+	 */
+	public synchronized void put(DataKey data, String kernel, int row, int[] positions, double[] values, int length) {
+		long bytes = (long) length << 3;
+		if (bytes > capacity) {
+			return;
+		}
+		RowKey key = new RowKey(data, kernel, row);
+		if (rows.containsKey(key)) {
+			return;
+		}
+		ByteBuffer reusable = null;
+		Iterator<Map.Entry<RowKey, ByteBuffer>> eldest = rows.entrySet().iterator();
+		while (usedBytes + bytes > capacity && eldest.hasNext()) {
+			Map.Entry<RowKey, ByteBuffer> entry = eldest.next();
+			ByteBuffer evicted = entry.getValue();
+			eldest.remove();
+			usedBytes -= evicted.capacity();
+			release(entry.getKey().data);
+			if (evicted.capacity() == bytes) {
+				reusable = evicted;
+			}
+		}
+		ByteBuffer buffer = reusable != null ? reusable : ByteBuffer.allocateDirect((int) bytes);
+		for (int k = 0; k < length; k++) {
+			buffer.putDouble(positions[k] << 3, values[k]);
+		}
+		rows.put(key, buffer);
+		usedBytes += bytes;
+		if (data.cachedRows++ == 0) {
+			this.data.add(data);
+		}
+	}
+
+	/**
+	 * Removes all rows and resets the statistics.
+	 */
+	public synchronized void clear() {
+		rows.clear();
+		for (DataKey key : data) {
+			key.cachedRows = 0;
+		}
+		data.clear();
+		usedBytes = 0;
+		hits = 0;
+		misses = 0;
+	}
+
+	/**
+	 * @return the number of successful lookups
+	 */
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	/**
+	 * @return the number of failed lookups
+	 */
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * @return the fraction of successful lookups or 0 if there were none yet
+	 */
+	public synchronized double getHitRate() {
+		long total = hits + misses;
+		return total == 0 ? 0 : (double) hits / total;
+	}
+
+	/**
+	 * @return the number of bytes currently used for cached rows
+	 */
+	public synchronized long getUsedBytes() {
+		return usedBytes;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "shared kernel cache: " + rows.size() + " rows, " + usedBytes / MEGABYTE + " MB, hit rate "
+				+ Math.round(getHitRate() * 100) + "%";
+	}
+
+	/**
+	 * Drops the snapshot of the data after its last row was evicted.
+	 */
+	private void release(DataKey key) {
+		if (--key.cachedRows == 0) {
+			data.remove(key);
+		}
+	}
+
+	/**
+	 * Compares the indices and values of the nodes.
+	 */
+	private static boolean sameNodes(svm_node[] a, svm_node[] b) {
+		if (a.length != b.length) {
+			return false;
+		}
+		for (int i = 0; i < a.length; i++) {
+			if (a[i].index != b[i].index
+					|| Double.doubleToLongBits(a[i].value) != Double.doubleToLongBits(b[i].value)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Reads the configured size in bytes, bounded by a quarter of the maximum heap size.
+	 */
+	private static long getCapacity() {
+		try {
+			long megabytes = Math.max(0, Long.parseLong(
+					ParameterService.getParameterValue(RapidMiner.PROPERTY_RAPIDMINER_SYSTEM_SHARED_KERNEL_CACHE_SIZE)));
+			return Math.min(megabytes, Runtime.getRuntime().maxMemory() / 4 / MEGABYTE) * MEGABYTE;
+		} catch (NumberFormatException e) {
+			return 0;
+		}
+	}
+
+	/**
+	 * Mixes the value into the hash, see the finalizer of MurmurHash3.
+	 */
+	private static long mix(long hash, long value) {
+		long h = (hash ^ value) * 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		return h ^ (h >>> 33);
+	}
+}
@@ -60,8 +60,7 @@ import com.rapidminer.tools.Ontology;
 import com.rapidminer.tools.OperatorResourceConsumptionHandler;
 import com.rapidminer.tools.Tools;
 import com.rapidminer.tools.math.MathFunctions;
-
-import Jama.Matrix;
+import com.rapidminer.tools.math.matrix.GramMatrix;
 
 
 /**
@@ -354,34 +353,37 @@ public class LinearRegression extends AbstractLearner {
 
 		// only calculate further if there are selected attributes or intercept
 		if (degreeOfFreedom > 0) {
-			double[][] data = new double[exampleSet.size()][degreeOfFreedom];
-
-			if (useBias) {
-				// add an additional column of 1s to the design matrix for the intercept
-				for (int i = 0; i < exampleSet.size(); i++) {
-					data[i][0] = 1;
-				}
-			}
-
+			Attribute[] finalAttributes = new Attribute[finalNumberOfAttributes];
 			int attributeIndex = 0;
-			int dataColumnCounter = interceptShift;
+			int finalAttributeIndex = 0;
 			for (Attribute a : exampleSet.getAttributes()) {
 				if (result.isUsedAttribute[attributeIndex]) {
-					int exampleIndex = 0;
-					for (Example e : exampleSet) {
-						data[exampleIndex][dataColumnCounter] = e.getValue(a);
-						exampleIndex++;
-					}
-					dataColumnCounter++;
+					finalAttributes[finalAttributeIndex++] = a;
 				}
 				attributeIndex++;
 			}
 
+			// the cross products of the design matrix, with an additional column of 1s for the
+			// intercept
+			RealMatrix productMatrix = MatrixUtils.createRealMatrix(degreeOfFreedom, degreeOfFreedom);
+			double[][] products = GramMatrix.getCrossProducts(exampleSet, finalAttributes, null, null, this);
+			for (int i = 0; i < finalNumberOfAttributes; i++) {
+				for (int j = 0; j < finalNumberOfAttributes; j++) {
+					productMatrix.setEntry(i + interceptShift, j + interceptShift, products[i][j]);
+				}
+			}
+			if (useBias) {
+				productMatrix.setEntry(0, 0, exampleSet.size());
+				double[] finalMeans = GramMatrix.getMeans(exampleSet, finalAttributes, this);
+				for (int i = 0; i < finalNumberOfAttributes; i++) {
+					double sum = finalMeans[i] * exampleSet.size();
+					productMatrix.setEntry(0, i + 1, sum);
+					productMatrix.setEntry(i + 1, 0, sum);
+				}
+			}
+
 			getProgress().step();
 
-			RealMatrix matrix = MatrixUtils.createRealMatrix(data);
-			RealMatrix matrixT = matrix.transpose();
-			RealMatrix productMatrix = matrixT.multiply(matrix);
 			RealMatrix invertedMatrix = null;
 			try {
 				// try to invert matrix
@@ -681,59 +683,32 @@ public class LinearRegression extends AbstractLearner {
 	double[] performRegression(ExampleSet exampleSet, Attribute[] usedAttributes, Attribute label, double[] means,
 			double labelMean, double ridge, boolean useBias) throws UndefinedParameterError, ProcessStoppedException {
 
-		Matrix independent = null;
-		Matrix dependent = null;
-		double[] weights = null;
+		double[] coefficients = new double[usedAttributes.length + 1];
 		if (usedAttributes.length > 0) {
-			weights = new double[exampleSet.size()];
-			Attribute weightAttribute = exampleSet.getAttributes().getWeight();
-			if (weightAttribute == null) {
-				Arrays.fill(weights, 1.0);
-			} else {
-				int exampleIndex = 0;
-				for (Example example : exampleSet) {
-					weights[exampleIndex] = example.getValue(weightAttribute);
-					exampleIndex++;
-				}
-			}
-
-			dependent = new Matrix(exampleSet.size(), 1);
-			int exampleIndex = 0;
-			for (Example example : exampleSet) {
-				dependent.set(exampleIndex, 0, example.getLabel());
-				exampleIndex++;
+			/*
+			 * Calculate the cross products of the used attributes and the label in one pass over
+			 * the data. Shift all values by the mean such that the regression line goes through the
+			 * origin. Note that the label values do not need to be shifted because any shift is
+			 * cancelled out in the calculation of xTy in the regression calculation.
+			 */
+			int numberOfColumns = usedAttributes.length;
+			Attribute[] columns = Arrays.copyOf(usedAttributes, numberOfColumns + 1);
+			columns[numberOfColumns] = exampleSet.getAttributes().getLabel();
+			double[] shifts = new double[numberOfColumns + 1];
+			if (useBias) {
+				System.arraycopy(means, 0, shifts, 0, numberOfColumns);
 			}
-
-			independent = new Matrix(exampleSet.size(), usedAttributes.length);
-
-			int attributeIndex = 0;
-			for (Attribute attribute : usedAttributes) {
-				checkForStop();
-				exampleIndex = 0;
-				for (Example example : exampleSet) {
-					double value = example.getValue(attribute);
-					if (useBias) {
-						/**
-						 * Shift all values by the mean such that the regression line goes through
-						 * the origin. Note that the label values do not need to be shifted because
-						 * any shift is cancelled out in the calculation of xTy in the regression
-						 * calculation.
-						 */
-						value -= means[attributeIndex];
-					}
-					independent.set(exampleIndex, attributeIndex, value);
-					exampleIndex++;
-				}
-				attributeIndex++;
-
+			double[][] products = GramMatrix.getCrossProducts(exampleSet, columns, shifts,
+					exampleSet.getAttributes().getWeight(), this);
+			double[][] xTx = new double[numberOfColumns][];
+			double[] xTy = new double[numberOfColumns];
+			for (int i = 0; i < numberOfColumns; i++) {
+				xTx[i] = Arrays.copyOf(products[i], numberOfColumns);
+				xTy[i] = products[i][numberOfColumns];
 			}
-		}
-
-		double[] coefficients = new double[usedAttributes.length + 1];
-		if (usedAttributes.length > 0) {
-			double[] coefficientsWithoutIntercept = com.rapidminer.tools.math.LinearRegression.performRegression(independent,
-					dependent, weights, ridge);
-			System.arraycopy(coefficientsWithoutIntercept, 0, coefficients, 0, usedAttributes.length);
+			double[] coefficientsWithoutIntercept = com.rapidminer.tools.math.LinearRegression.performRegression(xTx,
+					xTy, ridge);
+			System.arraycopy(coefficientsWithoutIntercept, 0, coefficients, 0, numberOfColumns);
 		}
 
 		if (useBias) {
@@ -770,6 +745,26 @@ public class LinearRegression extends AbstractLearner {
 		return false;
 	}
 
+	/**
+	 * The regression only reads the training data and its parameters, none of the feature selection methods is randomized.
+	 *
+	 * @since 9.11
+	 */
+	@Override
+	public boolean isFreeOfSideEffects() {
+		return true;
+	}
+
+	/**
+	 * The coefficients are fully determined by the training data and the parameters.
+	 *
+	 * @since 9.11
+	 */
+	@Override
+	public boolean isResultCacheable() {
+		return true;
+	}
+
 	@Override
 	public List<ParameterType> getParameterTypes() {
 		List<ParameterType> types = super.getParameterTypes();
@@ -0,0 +1,204 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.operator.learner.lazy;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Example;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.operator.Operator;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.studio.concurrency.internal.ExecutionExceptionHandling;
+import com.rapidminer.studio.internal.Resources;
+import com.rapidminer.tools.container.Tupel;
+import com.rapidminer.tools.math.container.BoundedPriorityQueue;
+import com.rapidminer.tools.math.container.LinearList;
+
+
+/**
+ * Searches the neighbours of all examples of an example set in the order of the examples. The
+ * examples are read ahead in waves and the neighbours of the batches of a wave are searched with
+ * {@link LinearList#getNearestValueDistances(List, List)}, in parallel if an operator is available.
+ * Every batch of a wave has its own set of queues that is reused for the following waves, so
+ * there is one set of queues per thread. The results are consumed by the calling thread, since
+ * example sets cannot be written concurrently.
+ *
+ * @since 9.11
+ */
+final class KNNBatchSearch<T extends Serializable> {
+
+	/** the number of examples whose neighbours are searched together */
+	static final int BATCH_SIZE = 64;
+
+	private final Iterator<Example> iterator;
+	private final List<Attribute> sampleAttributes;
+	private final LinearList<T> samples;
+	private final Operator operator;
+	private final ConcurrencyContext context;
+
+	/** the query values of a wave, reused for every wave */
+	private final double[][] queries;
+
+	/** the queues for every batch of a wave, reused for every wave */
+	private final List<List<BoundedPriorityQueue<Tupel<Double, T>>>> queues;
+
+	private final List<Collection<Tupel<Double, T>>> neighbours = new ArrayList<>();
+	private int position;
+
+	/**
+	 * Creates a search for the neighbours of the examples of the example set.
+	 *
+	 * @param exampleSet
+	 *            the example set whose examples are looked up
+	 * @param sampleAttributes
+	 *            the attributes in the order of the stored samples
+	 * @param samples
+	 *            the stored samples
+	 * @param k
+	 *            the number of neighbours
+	 * @param operator
+	 *            the operator applying the model, can be {@code null}
+	 */
+	KNNBatchSearch(ExampleSet exampleSet, List<Attribute> sampleAttributes, LinearList<T> samples, int k,
+			Operator operator) {
+		this.iterator = exampleSet.iterator();
+		this.sampleAttributes = sampleAttributes;
+		this.samples = samples;
+		this.operator = operator;
+		ConcurrencyContext operatorContext = operator == null ? null : Resources.getConcurrencyContext(operator);
+		this.context = operatorContext != null && operatorContext.getParallelism() > 1 ? operatorContext : null;
+
+		int numberOfBatches = context == null ? 1 : context.getParallelism();
+		this.queries = new double[numberOfBatches * BATCH_SIZE][sampleAttributes.size()];
+		this.queues = new ArrayList<>(numberOfBatches);
+		for (int batch = 0; batch < numberOfBatches; batch++) {
+			List<BoundedPriorityQueue<Tupel<Double, T>>> batchQueues = new ArrayList<>(BATCH_SIZE);
+			for (int i = 0; i < BATCH_SIZE; i++) {
+				batchQueues.add(new BoundedPriorityQueue<Tupel<Double, T>>(k));
+			}
+			queues.add(batchQueues);
+		}
+	}
+
+	/**
+	 * Returns the neighbours of the next example, same as
+	 * {@link LinearList#getNearestValues(int, double[])}.
+	 *
+	 * @return the stored values of the neighbours
+	 * @throws OperatorException
+	 *             if the execution is stopped
+	 */
+	Collection<T> nextNearestValues() throws OperatorException {
+		Collection<Tupel<Double, T>> tupels = nextNearestValueDistances();
+		Collection<T> result = new ArrayList<>(tupels.size());
+		for (Tupel<Double, T> tupel : tupels) {
+			result.add(tupel.getSecond());
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the neighbours of the next example and their distances, same as
+	 * {@link LinearList#getNearestValueDistances(int, double[])}.
+	 *
+	 * @return the neighbours and their distances
+	 * @throws OperatorException
+	 *             if the execution is stopped
+	 */
+	Collection<Tupel<Double, T>> nextNearestValueDistances() throws OperatorException {
+		if (position == neighbours.size()) {
+			searchWave();
+		}
+		return neighbours.get(position++);
+	}
+
+	/**
+	 * Reads the next wave of examples and searches their neighbours.
+	 */
+	private void searchWave() throws OperatorException {
+		if (operator != null) {
+			operator.checkForStop();
+		}
+		neighbours.clear();
+		position = 0;
+		int size = 0;
+		while (size < queries.length && iterator.hasNext()) {
+			Example example = iterator.next();
+			double[] values = queries[size];
+			int i = 0;
+			for (Attribute attribute : sampleAttributes) {
+				values[i] = example.getValue(attribute);
+				i++;
+			}
+			size++;
+		}
+
+		if (context != null && size > BATCH_SIZE) {
+			List<Callable<List<Collection<Tupel<Double, T>>>>> tasks = new ArrayList<>();
+			for (int start = 0; start < size; start += BATCH_SIZE) {
+				final int batch = start / BATCH_SIZE;
+				final int end = Math.min(size, start + BATCH_SIZE);
+				final int batchStart = start;
+				tasks.add(() -> {
+					context.checkStatus();
+					return searchBatch(batchStart, end, queues.get(batch));
+				});
+			}
+			try {
+				for (List<Collection<Tupel<Double, T>>> batchNeighbours : context.call(tasks)) {
+					neighbours.addAll(batchNeighbours);
+				}
+			} catch (ExecutionException e) {
+				throw ExecutionExceptionHandling.INSTANCE.processExecutionException(e, operator.getProcess());
+			}
+		} else {
+			for (int start = 0; start < size; start += BATCH_SIZE) {
+				neighbours.addAll(searchBatch(start, Math.min(size, start + BATCH_SIZE), queues.get(0)));
+			}
+		}
+	}
+
+	/**
+	 * Searches the neighbours of the queries between start (inclusive) and end (exclusive) with the
+	 * given queues and copies them, so that the queues can be reused.
+	 */
+	private List<Collection<Tupel<Double, T>>> searchBatch(int start, int end,
+			List<BoundedPriorityQueue<Tupel<Double, T>>> batchQueues) {
+		List<double[]> batch = new ArrayList<>(end - start);
+		for (int i = start; i < end; i++) {
+			batch.add(queries[i]);
+		}
+		List<BoundedPriorityQueue<Tupel<Double, T>>> usedQueues = batchQueues.subList(0, batch.size());
+		samples.getNearestValueDistances(batch, usedQueues);
+		List<Collection<Tupel<Double, T>>> result = new ArrayList<>(batch.size());
+		for (BoundedPriorityQueue<Tupel<Double, T>> queue : usedQueues) {
+			result.add(new ArrayList<>(queue));
+		}
+		return result;
+	}
+
+}
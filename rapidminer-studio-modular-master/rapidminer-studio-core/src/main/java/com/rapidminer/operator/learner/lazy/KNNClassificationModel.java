@@ -33,6 +33,7 @@ import com.rapidminer.operator.learner.UpdateablePredictionModel;
 import com.rapidminer.tools.Tools;
 import com.rapidminer.tools.container.Tupel;
 import com.rapidminer.tools.math.container.GeometricDataCollection;
+import com.rapidminer.tools.math.container.LinearList;
 
 
 /**
@@ -88,6 +89,10 @@ public class KNNClassificationModel extends UpdateablePredictionModel {
 			progress.setTotal(exampleSet.size());
 		}
 		int progressCounter = 0;
+		// linear lists search the neighbours of batches of examples at once
+		KNNBatchSearch<Integer> batchSearch = samples instanceof LinearList
+				? new KNNBatchSearch<>(exampleSet, sampleAttributes, (LinearList<Integer>) samples, k, getOperator())
+				: null;
 
 		double[] values = new double[sampleAttributes.size()];
 		for (Example example : exampleSet) {
@@ -103,7 +108,8 @@ public class KNNClassificationModel extends UpdateablePredictionModel {
 			double totalDistance = 0;
 			if (!weightByDistance || k == 1) {
 				// finding next k neighbours
-				Collection<Integer> neighbourLabels = samples.getNearestValues(k, values);
+				Collection<Integer> neighbourLabels = batchSearch != null ? batchSearch.nextNearestValues()
+						: samples.getNearestValues(k, values);
 				// distance is 1 for complete neighbourhood
 				totalDistance = k;
 
@@ -113,7 +119,8 @@ public class KNNClassificationModel extends UpdateablePredictionModel {
 				}
 			} else {
 				// finding next k neighbours and their distances
-				Collection<Tupel<Double, Integer>> neighbours = samples.getNearestValueDistances(k, values);
+				Collection<Tupel<Double, Integer>> neighbours = batchSearch != null ? batchSearch.nextNearestValueDistances()
+						: samples.getNearestValueDistances(k, values);
 				for (Tupel<Double, Integer> tupel : neighbours) {
 					totalDistance += tupel.getFirst();
 				}
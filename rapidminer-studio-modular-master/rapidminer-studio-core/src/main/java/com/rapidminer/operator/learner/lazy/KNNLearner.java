@@ -144,6 +144,26 @@ public class KNNLearner extends AbstractLearner {
 		}
 	}
 
+	/**
+	 * The k-NN learner only reads the training data and its parameters.
+	 *
+	 * @since 9.11
+	 */
+	@Override
+	public boolean isFreeOfSideEffects() {
+		return true;
+	}
+
+	/**
+	 * The k-NN model only stores the training data, so it can be reused for the same data and parameters.
+	 *
+	 * @since 9.11
+	 */
+	@Override
+	public boolean isResultCacheable() {
+		return true;
+	}
+
 	@Override
 	public List<ParameterType> getParameterTypes() {
 		List<ParameterType> types = super.getParameterTypes();
@@ -33,6 +33,7 @@ import com.rapidminer.operator.learner.UpdateablePredictionModel;
 import com.rapidminer.tools.Tools;
 import com.rapidminer.tools.container.Tupel;
 import com.rapidminer.tools.math.container.GeometricDataCollection;
+import com.rapidminer.tools.math.container.LinearList;
 
 
 /**
@@ -89,6 +90,10 @@ public class KNNRegressionModel extends UpdateablePredictionModel {
 			progress.setTotal(exampleSet.size());
 		}
 		int progressCounter = 0;
+		// linear lists search the neighbours of batches of examples at once
+		KNNBatchSearch<Double> batchSearch = samples instanceof LinearList
+				? new KNNBatchSearch<>(exampleSet, sampleAttributes, (LinearList<Double>) samples, k, getOperator())
+				: null;
 
 		double[] values = new double[sampleAttributes.size()];
 		for (Example example : exampleSet) {
@@ -102,7 +107,8 @@ public class KNNRegressionModel extends UpdateablePredictionModel {
 			double result = 0;
 			if (!weightByDistance) {
 				// finding next k neighbours
-				Collection<Double> neighbourLabels = samples.getNearestValues(k, values);
+				Collection<Double> neighbourLabels = batchSearch != null ? batchSearch.nextNearestValues()
+						: samples.getNearestValues(k, values);
 
 				// building mean
 				for (double label : neighbourLabels) {
@@ -111,7 +117,8 @@ public class KNNRegressionModel extends UpdateablePredictionModel {
 				result /= k;
 			} else {
 				// finding next k neighbours and their distances
-				Collection<Tupel<Double, Double>> neighbourTupels = samples.getNearestValueDistances(k, values);
+				Collection<Tupel<Double, Double>> neighbourTupels = batchSearch != null ? batchSearch.nextNearestValueDistances()
+						: samples.getNearestValueDistances(k, values);
 				// finding total distance
 				double totalDistance = 0;
 				for (Tupel<Double, Double> tupel : neighbourTupels) {
@@ -25,7 +25,6 @@ import java.util.concurrent.ExecutionException;
 
 import com.rapidminer.core.concurrency.ConcurrencyContext;
 import com.rapidminer.example.Attribute;
-import com.rapidminer.example.Example;
 import com.rapidminer.example.ExampleSet;
 import com.rapidminer.example.Statistics;
 import com.rapidminer.example.table.NominalMapping;
@@ -177,13 +176,12 @@ public class ColumnExampleTable {
 	 * @param operator
 	 */
 	private void populate(ExampleSet exampleSet, Operator operator) {
-		int row = 0;
-		for (Example example : exampleSet) {
-			if (row % CHECK_FOR_STOP_INTERVAL == 0 && operator != null) {
+		double[] buffer = new double[Math.min(CHECK_FOR_STOP_INTERVAL, numberOfExamples)];
+		for (int row = 0; row < numberOfExamples; row += CHECK_FOR_STOP_INTERVAL) {
+			if (operator != null) {
 				Resources.getConcurrencyContext(operator).checkStatus();
 			}
-			fillInRow(example, row);
-			row++;
+			fillInRows(exampleSet, row, Math.min(row + CHECK_FOR_STOP_INTERVAL, numberOfExamples), buffer);
 		}
 
 	}
@@ -218,13 +216,10 @@ public class ColumnExampleTable {
 
 				@Override
 				public Void call() {
-					Example example;
-					for (int row = startRow; row < endRow; row++) {
-						if ((row - startRow) % CHECK_FOR_STOP_INTERVAL == 0) {
-							context.checkStatus();
-						}
-						example = exampleSet.getExample(row);
-						fillInRow(example, row);
+					double[] buffer = new double[Math.min(CHECK_FOR_STOP_INTERVAL, endRow - startRow)];
+					for (int row = startRow; row < endRow; row += CHECK_FOR_STOP_INTERVAL) {
+						context.checkStatus();
+						fillInRows(exampleSet, row, Math.min(row + CHECK_FOR_STOP_INTERVAL, endRow), buffer);
 					}
 					return null;
 				}
@@ -247,35 +242,45 @@ public class ColumnExampleTable {
 	}
 
 	/**
-	 * Fills the example in specified row of all attribute columns.
+	 * Fills the rows from startRow (inclusive) to endRow (exclusive) of all attribute columns
+	 * using the bulk access of the example set.
 	 *
-	 * @param example
-	 * @param row
+	 * @param exampleSet
+	 * @param startRow
+	 * @param endRow
+	 * @param buffer
+	 *            a buffer with space for at least endRow - startRow values
 	 */
-	private void fillInRow(Example example, int row) {
+	private void fillInRows(ExampleSet exampleSet, int startRow, int endRow, double[] buffer) {
+		int length = endRow - startRow;
 		int column = 0;
 		for (Attribute attribute : regularNominalAttributes) {
-			double value = example.getValue(attribute);
-			if (Double.isNaN(value)) {
-				value = attribute.getMapping().size();
+			exampleSet.getValues(attribute, startRow, endRow, buffer, 0);
+			byte missing = (byte) attribute.getMapping().size();
+			byte[] nominalColumn = nominalColumnTable[column];
+			for (int i = 0; i < length; i++) {
+				double value = buffer[i];
+				nominalColumn[startRow + i] = Double.isNaN(value) ? missing : (byte) value;
 			}
-			nominalColumnTable[column][row] = (byte) value;
 			column++;
 		}
 		if (label.isNominal()) {
-			labelColumn[row] = (int) example.getValue(label);
+			exampleSet.getValues(label, startRow, endRow, buffer, 0);
+			for (int i = 0; i < length; i++) {
+				labelColumn[startRow + i] = (int) buffer[i];
+			}
 		} else {
-			numericalLabelColumn[row] = example.getValue(label);
+			exampleSet.getValues(label, startRow, endRow, numericalLabelColumn, startRow);
 		}
 
 		column = 0;
 		for (Attribute attribute : regularNumericalAttributes) {
-			numericalColumnTable[column][row] = example.getValue(attribute);
+			exampleSet.getValues(attribute, startRow, endRow, numericalColumnTable[column], startRow);
 			column++;
 		}
 
 		if (weight != null) {
-			weightColumn[row] = example.getValue(weight);
+			exampleSet.getValues(weight, startRow, endRow, weightColumn, startRow);
 		}
 	}
 
@@ -18,22 +18,40 @@
  */
 package com.rapidminer.operator.learner.tree;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Attributes;
 import com.rapidminer.example.Example;
 import com.rapidminer.example.ExampleSet;
 import com.rapidminer.example.set.ExampleSetUtilities;
 import com.rapidminer.operator.Model;
 import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.OperatorProgress;
 import com.rapidminer.operator.learner.SimplePredictionModel;
 import com.rapidminer.operator.learner.meta.ConfidenceVoteModel;
 import com.rapidminer.operator.learner.meta.MetaModel;
 import com.rapidminer.operator.learner.meta.SimpleVoteModel;
+import com.rapidminer.studio.concurrency.internal.ExecutionExceptionHandling;
+import com.rapidminer.studio.internal.Resources;
+import com.rapidminer.tools.RandomGenerator;
 
 
 /**
  * Random forest that can be configured to either use majority voting or confidence based voting for
  * its prediction.
+ * <p>
+ * For the prediction of whole example sets, the trees are compiled into flat arrays (see
+ * {@link FlatForest}) and the examples are scored in blocks, in parallel if possible. The
+ * predictions and confidences are the same as for the prediction of single examples, including
+ * the random choice between classes with the same votes.
  *
  * @author Michael Knopf
  * @since 7.0.0
@@ -57,9 +75,22 @@ public class ConfigurableRandomForestModel extends SimplePredictionModel impleme
 
 	private static final long serialVersionUID = 1L;
 
+	/** The number of examples that are read and scored together. */
+	private static final int BLOCK_SIZE = 1 << 16;
+
+	/** The number of examples scored by a single task. */
+	private static final int CHUNK_SIZE = 1 << 12;
+
+	private static final int OPERATOR_PROGRESS_STEPS = 1000;
+
 	/** The wrapped voting meta model. */
 	private final SimplePredictionModel model;
 
+	/** The compiled trees, {@code null} if not compiled yet or not possible. */
+	private transient FlatForest flatForest;
+
+	private transient boolean flatForestCompiled;
+
 	public ConfigurableRandomForestModel(ExampleSet exampleSet, List<? extends TreePredictionModel> models,
 			VotingStrategy strategy) {
 		super(exampleSet, ExampleSetUtilities.SetsCompareOption.EQUAL,
@@ -93,9 +124,224 @@ public class ConfigurableRandomForestModel extends SimplePredictionModel impleme
 		return model.predict(example);
 	}
 
+	@Override
+	public ExampleSet performPrediction(ExampleSet exampleSet, Attribute predictedLabel) throws OperatorException {
+		ConcurrencyContext context = getOperator() != null ? Resources.getConcurrencyContext(getOperator()) : null;
+		return performPrediction(exampleSet, predictedLabel, context);
+	}
+
+	/**
+	 * Same as {@link #performPrediction(ExampleSet, Attribute)} but scores the examples with the
+	 * given context.
+	 *
+	 * @param context
+	 *            the context for scoring the examples in parallel, can be {@code null}
+	 */
+	ExampleSet performPrediction(ExampleSet exampleSet, Attribute predictedLabel, ConcurrencyContext context)
+			throws OperatorException {
+		FlatForest forest = getFlatForest();
+		if (forest == null) {
+			return super.performPrediction(exampleSet, predictedLabel);
+		}
+		String[] attributeNames = forest.getAttributeNames();
+		Attribute[] attributes = new Attribute[attributeNames.length];
+		for (int i = 0; i < attributes.length; i++) {
+			attributes[i] = exampleSet.getAttributes().get(attributeNames[i]);
+			if (attributes[i] == null) {
+				return super.performPrediction(exampleSet, predictedLabel);
+			}
+		}
+		List<String> classNames = getLabel().getMapping().getValues();
+		int numberOfClasses = classNames.size();
+		Attribute[] confidenceAttributes = new Attribute[numberOfClasses];
+		double[] labelIndices = new double[numberOfClasses];
+		Map<String, Integer> classPositions = new HashMap<>();
+		for (int i = 0; i < numberOfClasses; i++) {
+			confidenceAttributes[i] = exampleSet.getAttributes()
+					.getSpecial(Attributes.CONFIDENCE_NAME + "_" + classNames.get(i));
+			if (confidenceAttributes[i] == null) {
+				return super.performPrediction(exampleSet, predictedLabel);
+			}
+			labelIndices[i] = getLabel().getMapping().getIndex(classNames.get(i));
+			classPositions.put(classNames.get(i), i);
+		}
+		// the confidence vote iterates over the classes in the order of a hash map
+		int[] hashOrder = classPositions.values().stream().mapToInt(Integer::intValue).toArray();
+		boolean majorityVote = model instanceof SimpleVoteModel;
+
+		OperatorProgress progress = null;
+		if (getShowProgress() && getOperator() != null && getOperator().getProgress() != null) {
+			progress = getOperator().getProgress();
+			progress.setTotal(exampleSet.size());
+		}
+		int size = exampleSet.size();
+		int blockSize = Math.min(BLOCK_SIZE, size);
+		double[][] columns = new double[attributes.length][blockSize];
+		double[] aggregates = new double[blockSize * numberOfClasses];
+		int[] bestClasses = new int[numberOfClasses + 1];
+		Iterator<Example> iterator = exampleSet.iterator();
+		for (int start = 0; start < size; start += BLOCK_SIZE) {
+			int length = Math.min(BLOCK_SIZE, size - start);
+			for (int i = 0; i < attributes.length; i++) {
+				exampleSet.getValues(attributes[i], start, start + length, columns[i], 0);
+			}
+			aggregate(forest, columns, length, numberOfClasses, majorityVote, aggregates, context);
+			for (int row = 0; row < length; row++) {
+				Example example = iterator.next();
+				int offset = row * numberOfClasses;
+				int bestClass;
+				if (majorityVote) {
+					bestClass = voteByMajority(example, aggregates, offset, forest.getNumberOfTrees(),
+							confidenceAttributes, bestClasses);
+				} else {
+					bestClass = voteByConfidence(example, aggregates, offset, forest.getNumberOfTrees(),
+							confidenceAttributes, hashOrder, bestClasses);
+				}
+				example.setValue(predictedLabel, labelIndices[bestClass]);
+				if (progress != null && (start + row + 1) % OPERATOR_PROGRESS_STEPS == 0) {
+					progress.setCompleted(start + row + 1);
+				}
+			}
+		}
+		return exampleSet;
+	}
+
 	@Override
 	public String toString() {
 		return model.toString();
 	}
 
+	/**
+	 * Compiles the trees on first use.
+	 */
+	private synchronized FlatForest getFlatForest() {
+		if (!flatForestCompiled) {
+			if (getLabel().isNominal()) {
+				flatForest = FlatForest.compile(getModels(), getLabel().getMapping());
+			}
+			flatForestCompiled = true;
+		}
+		return flatForest;
+	}
+
+	/**
+	 * Sums up the votes or the confidences of all trees for the first rows of the columns. The
+	 * rows are split into chunks that are scored in parallel if the context allows it.
+	 */
+	private void aggregate(FlatForest forest, double[][] columns, int length, int numberOfClasses,
+			boolean majorityVote, double[] aggregates, ConcurrencyContext context) throws OperatorException {
+		if (context == null || context.getParallelism() <= 1 || length <= CHUNK_SIZE) {
+			aggregate(forest, columns, 0, length, numberOfClasses, majorityVote, aggregates);
+			return;
+		}
+		List<Callable<Void>> tasks = new ArrayList<>();
+		for (int from = 0; from < length; from += CHUNK_SIZE) {
+			int start = from;
+			int end = Math.min(length, from + CHUNK_SIZE);
+			tasks.add(() -> {
+				aggregate(forest, columns, start, end, numberOfClasses, majorityVote, aggregates);
+				return null;
+			});
+		}
+		try {
+			context.call(tasks);
+		} catch (ExecutionException e) {
+			throw ExecutionExceptionHandling.INSTANCE.processExecutionException(e,
+					getOperator() != null ? getOperator().getProcess() : null);
+		}
+	}
+
+	/**
+	 * Sums up the votes or the confidences of all trees for the given rows, in the order of the
+	 * trees.
+	 */
+	private static void aggregate(FlatForest forest, double[][] columns, int from, int to, int numberOfClasses,
+			boolean majorityVote, double[] aggregates) {
+		int numberOfTrees = forest.getNumberOfTrees();
+		for (int row = from; row < to; row++) {
+			int offset = row * numberOfClasses;
+			for (int c = 0; c < numberOfClasses; c++) {
+				aggregates[offset + c] = 0;
+			}
+			for (int tree = 0; tree < numberOfTrees; tree++) {
+				int node = forest.findNode(tree, columns, row);
+				if (majorityVote) {
+					int vote = forest.getVote(node);
+					if (vote >= 0) {
+						aggregates[offset + vote]++;
+					}
+				} else {
+					for (int c = 0; c < numberOfClasses; c++) {
+						aggregates[offset + c] += forest.getConfidence(node, c);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Sets the confidences and chooses the class like {@link SimpleVoteModel#predict(Example)}.
+	 *
+	 * @return the position of the predicted class
+	 */
+	private static int voteByMajority(Example example, double[] aggregates, int offset, int numberOfTrees,
+			Attribute[] confidenceAttributes, int[] bestClasses) {
+		int numberOfBestClasses = 0;
+		int bestClassesVotes = -1;
+		for (int c = 0; c < confidenceAttributes.length; c++) {
+			int currentVotes = (int) aggregates[offset + c];
+			if (currentVotes > 0) {
+				// the vote model adds a new best class twice, so a random choice is always made
+				if (currentVotes > bestClassesVotes) {
+					numberOfBestClasses = 0;
+					bestClasses[numberOfBestClasses++] = c;
+					bestClassesVotes = currentVotes;
+				}
+				if (currentVotes == bestClassesVotes) {
+					bestClasses[numberOfBestClasses++] = c;
+				}
+				example.setValue(confidenceAttributes[c], (double) currentVotes / numberOfTrees);
+			} else {
+				example.setValue(confidenceAttributes[c], 0.00);
+			}
+		}
+		int bestClassIndex = 0;
+		if (numberOfBestClasses != 1) {
+			bestClassIndex = RandomGenerator.getGlobalRandomGenerator().nextInt(numberOfBestClasses);
+		}
+		return bestClasses[bestClassIndex];
+	}
+
+	/**
+	 * Sets the confidences and chooses the class like {@link ConfidenceVoteModel#predict(Example)}.
+	 *
+	 * @return the position of the predicted class
+	 */
+	private static int voteByConfidence(Example example, double[] aggregates, int offset, int numberOfTrees,
+			Attribute[] confidenceAttributes, int[] hashOrder, int[] bestClasses) throws OperatorException {
+		for (int c = 0; c < confidenceAttributes.length; c++) {
+			if (Double.isNaN(aggregates[offset + c])) {
+				throw new OperatorException("Child model failed to compute confidence value.");
+			}
+		}
+		int numberOfBestClasses = 0;
+		double maxConfidence = -1;
+		for (int c : hashOrder) {
+			double confidence = aggregates[offset + c] / numberOfTrees;
+			if (confidence > maxConfidence) {
+				maxConfidence = confidence;
+				numberOfBestClasses = 0;
+			}
+			if (confidence == maxConfidence) {
+				bestClasses[numberOfBestClasses++] = c;
+			}
+			example.setValue(confidenceAttributes[c], confidence);
+		}
+		int bestClassIndex = 0;
+		if (numberOfBestClasses != 1) {
+			bestClassIndex = RandomGenerator.getGlobalRandomGenerator().nextInt(numberOfBestClasses);
+		}
+		return bestClasses[bestClassIndex];
+	}
+
 }
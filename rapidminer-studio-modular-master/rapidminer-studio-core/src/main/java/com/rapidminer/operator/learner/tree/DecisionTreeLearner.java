@@ -111,8 +111,26 @@ public class DecisionTreeLearner extends AbstractTreeLearner {
 
 	@Override
 	protected TreeBuilder getTreeBuilder(ExampleSet exampleSet) throws OperatorException {
+		return getTreeBuilder(exampleSet, getSplitPreprocessing());
+	}
+
+	/**
+	 * Creates a tree builder that uses the given split preprocessing instead of
+	 * {@link #getSplitPreprocessing()}.
+	 *
+	 * @param exampleSet
+	 *            the training data
+	 * @param splitPreprocessing
+	 *            the preprocessing before each split, can be {@code null}
+	 * @return the tree builder
+	 * @throws OperatorException
+	 *             if a parameter is not defined
+	 * @since 9.11
+	 */
+	protected TreeBuilder getTreeBuilder(ExampleSet exampleSet, SplitPreprocessing splitPreprocessing)
+			throws OperatorException {
 		return new TreeBuilder(createCriterion(getParameterAsDouble(PARAMETER_MINIMAL_GAIN)),
-				getTerminationCriteria(exampleSet), getPruner(), getSplitPreprocessing(), new DecisionTreeLeafCreator(),
+				getTerminationCriteria(exampleSet), getPruner(), splitPreprocessing, new DecisionTreeLeafCreator(),
 				getParameterAsBoolean(PARAMETER_NO_PRE_PRUNING),
 				getParameterAsInt(PARAMETER_NUMBER_OF_PREPRUNING_ALTERNATIVES),
 				getParameterAsInt(PARAMETER_MINIMAL_SIZE_FOR_SPLIT), getParameterAsInt(PARAMETER_MINIMAL_LEAF_SIZE));
@@ -0,0 +1,342 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.operator.learner.tree;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import com.rapidminer.example.table.NominalMapping;
+import com.rapidminer.operator.Model;
+import com.rapidminer.tools.Tools;
+
+
+/**
+ * A forest of {@link TreeModel}s compiled into flat primitive arrays. The nodes of all trees are
+ * numbered in pre-order, the outgoing edges of a node are stored consecutively in the order in
+ * which the {@link TreeModel} tests them. Finding the node that predicts an example neither
+ * creates objects nor looks up attributes by name.
+ * <p>
+ * The terminal node is either a leaf or an inner node without a matching edge. In both cases, the
+ * prediction and the confidences of the node are the ones {@link TreeModel#predict} would set.
+ *
+ * @since 9.11
+ */
+final class FlatForest {
+
+	/** edge type of {@link GreaterSplitCondition} */
+	private static final byte GREATER = 0;
+
+	/** edge type of {@link LessEqualsSplitCondition} */
+	private static final byte LESS_EQUALS = 1;
+
+	/** edge type of {@link NominalSplitCondition} */
+	private static final byte EQUALS = 2;
+
+	/** edge type of {@link NumericalMissingSplitCondition} */
+	private static final byte MISSING = 3;
+
+	private final String[] attributeNames;
+	private final int numberOfClasses;
+	private final int[] roots;
+
+	private final int[] firstEdge;
+	private final int[] numberOfEdges;
+	private final double[] prediction;
+	/** the position of the predicted class among the class names or -1 */
+	private final int[] vote;
+	/** the confidences of every node in the order of the class names */
+	private final double[] confidences;
+
+	private final byte[] edgeType;
+	private final int[] edgeAttribute;
+	private final double[] edgeValue;
+	private final int[] edgeChild;
+
+	private FlatForest(Builder builder) {
+		attributeNames = builder.attributes.keySet().toArray(new String[0]);
+		numberOfClasses = builder.classNames.size();
+		roots = builder.roots.stream().mapToInt(Integer::intValue).toArray();
+		int nodes = builder.firstEdge.size();
+		firstEdge = new int[nodes];
+		numberOfEdges = new int[nodes];
+		prediction = new double[nodes];
+		vote = new int[nodes];
+		for (int i = 0; i < nodes; i++) {
+			firstEdge[i] = builder.firstEdge.get(i);
+			numberOfEdges[i] = builder.numberOfEdges.get(i);
+			prediction[i] = builder.prediction.get(i);
+			vote[i] = -1;
+			for (int j = 0; j < numberOfClasses; j++) {
+				if (builder.labelMapping.getIndex(builder.classNames.get(j)) == prediction[i]) {
+					vote[i] = j;
+					break;
+				}
+			}
+		}
+		confidences = new double[nodes * numberOfClasses];
+		for (int i = 0; i < nodes; i++) {
+			System.arraycopy(builder.confidences.get(i), 0, confidences, i * numberOfClasses, numberOfClasses);
+		}
+		int edges = builder.edgeType.size();
+		edgeType = new byte[edges];
+		edgeAttribute = new int[edges];
+		edgeValue = new double[edges];
+		edgeChild = new int[edges];
+		for (int i = 0; i < edges; i++) {
+			edgeType[i] = builder.edgeType.get(i);
+			edgeAttribute[i] = builder.edgeAttribute.get(i);
+			edgeValue[i] = builder.edgeValue.get(i);
+			edgeChild[i] = builder.edgeChild.get(i);
+		}
+	}
+
+	/**
+	 * Compiles the given models.
+	 *
+	 * @param models
+	 *            the models of the forest
+	 * @param labelMapping
+	 *            the mapping of the forest label, the confidences are in the order of its values
+	 * @return the compiled forest or {@code null} if one of the models is not a {@link TreeModel},
+	 *         uses a split condition that cannot be compiled, or has a label with other classes
+	 */
+	static FlatForest compile(List<? extends Model> models, NominalMapping labelMapping) {
+		Builder builder = new Builder(labelMapping);
+		List<String> classNames = builder.classNames;
+		for (Model model : models) {
+			if (!(model instanceof TreeModel)) {
+				return null;
+			}
+			TreeModel treeModel = (TreeModel) model;
+			NominalMapping mapping = treeModel.getLabel().getMapping();
+			if (mapping.size() != classNames.size() || !mapping.getValues().containsAll(classNames)) {
+				return null;
+			}
+			builder.roots.add(builder.firstEdge.size());
+			if (!builder.add(treeModel.getRoot(), mapping)) {
+				return null;
+			}
+		}
+		return new FlatForest(builder);
+	}
+
+	/**
+	 * @return the names of the attributes used by the splits, their position is the column index
+	 *         for {@link #findNode}
+	 */
+	String[] getAttributeNames() {
+		return attributeNames;
+	}
+
+	/**
+	 * @return the number of trees
+	 */
+	int getNumberOfTrees() {
+		return roots.length;
+	}
+
+	/**
+	 * Finds the terminal node of the given tree for a row.
+	 *
+	 * @param tree
+	 *            the index of the tree
+	 * @param columns
+	 *            the values of the attributes in the order of {@link #getAttributeNames()}
+	 * @param row
+	 *            the row inside of the columns
+	 * @return the index of the terminal node
+	 */
+	int findNode(int tree, double[][] columns, int row) {
+		int node = roots[tree];
+		edges: while (numberOfEdges[node] > 0) {
+			int end = firstEdge[node] + numberOfEdges[node];
+			for (int edge = firstEdge[node]; edge < end; edge++) {
+				if (test(edge, columns[edgeAttribute[edge]][row])) {
+					node = edgeChild[edge];
+					continue edges;
+				}
+			}
+			break;
+		}
+		return node;
+	}
+
+	/**
+	 * @return the value that the tree model predicts at the given node
+	 */
+	double getPrediction(int node) {
+		return prediction[node];
+	}
+
+	/**
+	 * @return the position of the class predicted at the given node among the values of the forest
+	 *         label or -1 if the prediction is no index of the forest label
+	 */
+	int getVote(int node) {
+		return vote[node];
+	}
+
+	/**
+	 * @return the confidence of the class with the given position at the given node
+	 */
+	double getConfidence(int node, int classIndex) {
+		return confidences[node * numberOfClasses + classIndex];
+	}
+
+	/**
+	 * Tests the edge the same way as the corresponding {@link SplitCondition}.
+	 */
+	private boolean test(int edge, double value) {
+		switch (edgeType[edge]) {
+			case GREATER:
+				return value > edgeValue[edge];
+			case LESS_EQUALS:
+				return value <= edgeValue[edge];
+			case EQUALS:
+				return Tools.isEqual(value, edgeValue[edge]);
+			default:
+				return Double.isNaN(value);
+		}
+	}
+
+	/**
+	 * Collects the nodes and edges of all trees.
+	 */
+	private static final class Builder {
+
+		private final NominalMapping labelMapping;
+		private final List<String> classNames;
+		private final Map<String, Integer> attributes = new LinkedHashMap<>();
+		private final List<Integer> roots = new ArrayList<>();
+
+		private final List<Integer> firstEdge = new ArrayList<>();
+		private final List<Integer> numberOfEdges = new ArrayList<>();
+		private final List<Double> prediction = new ArrayList<>();
+		private final List<double[]> confidences = new ArrayList<>();
+
+		private final List<Byte> edgeType = new ArrayList<>();
+		private final List<Integer> edgeAttribute = new ArrayList<>();
+		private final List<Double> edgeValue = new ArrayList<>();
+		private final List<Integer> edgeChild = new ArrayList<>();
+
+		private Builder(NominalMapping labelMapping) {
+			this.labelMapping = labelMapping;
+			this.classNames = labelMapping.getValues();
+		}
+
+		/**
+		 * Adds the node and its subtree in pre-order.
+		 *
+		 * @return {@code false} if the subtree cannot be compiled
+		 */
+		private boolean add(Tree node, NominalMapping mapping) {
+			int index = firstEdge.size();
+			firstEdge.add(0);
+			numberOfEdges.add(0);
+			if (node.isLeaf()) {
+				int[] counts = new int[mapping.size()];
+				for (Entry<String, Integer> entry : node.getCounterMap().entrySet()) {
+					int classIndex = mapping.getIndex(entry.getKey());
+					if (classIndex < 0) {
+						return false;
+					}
+					counts[classIndex] = entry.getValue();
+				}
+				prediction.add((double) mapping.getIndex(node.getLabel()));
+				confidences.add(toConfidences(counts, mapping));
+				return true;
+			}
+
+			// nothing known from training --> use majority class in this node
+			String majorityClass = null;
+			int majorityCounter = -1;
+			int[] counts = new int[mapping.size()];
+			for (Entry<String, Integer> entry : node.getSubtreeCounterMap().entrySet()) {
+				int classIndex = mapping.getIndex(entry.getKey());
+				if (classIndex < 0) {
+					return false;
+				}
+				int count = entry.getValue();
+				counts[classIndex] = count;
+				if (count > majorityCounter) {
+					majorityCounter = count;
+					majorityClass = entry.getKey();
+				}
+			}
+			prediction.add(majorityClass != null ? mapping.getIndex(majorityClass) : 0d);
+			confidences.add(toConfidences(counts, mapping));
+
+			// the edges are stored before the children so that they are consecutive
+			List<Tree> children = new ArrayList<>();
+			int first = edgeType.size();
+			Iterator<Edge> childIterator = node.childIterator();
+			while (childIterator.hasNext()) {
+				Edge edge = childIterator.next();
+				SplitCondition condition = edge.getCondition();
+				if (condition instanceof GreaterSplitCondition) {
+					edgeType.add(GREATER);
+					edgeValue.add(((GreaterSplitCondition) condition).getValue());
+				} else if (condition instanceof LessEqualsSplitCondition) {
+					edgeType.add(LESS_EQUALS);
+					edgeValue.add(((LessEqualsSplitCondition) condition).getValue());
+				} else if (condition instanceof NominalSplitCondition) {
+					edgeType.add(EQUALS);
+					edgeValue.add(((NominalSplitCondition) condition).getValue());
+				} else if (condition instanceof NumericalMissingSplitCondition) {
+					edgeType.add(MISSING);
+					edgeValue.add(Double.NaN);
+				} else {
+					return false;
+				}
+				edgeAttribute.add(attributes.computeIfAbsent(condition.getAttributeName(), name -> attributes.size()));
+				edgeChild.add(-1);
+				children.add(edge.getChild());
+			}
+			firstEdge.set(index, first);
+			numberOfEdges.set(index, children.size());
+			for (int i = 0; i < children.size(); i++) {
+				edgeChild.set(first + i, firstEdge.size());
+				if (!add(children.get(i), mapping)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Converts the counts in the order of the tree label to confidences in the order of the
+		 * forest classes.
+		 */
+		private double[] toConfidences(int[] counts, NominalMapping mapping) {
+			int sum = 0;
+			for (int count : counts) {
+				sum += count;
+			}
+			double[] result = new double[classNames.size()];
+			for (int i = 0; i < result.length; i++) {
+				result[i] = (double) counts[mapping.getIndex(classNames.get(i))] / sum;
+			}
+			return result;
+		}
+	}
+}
@@ -53,6 +53,15 @@ public class NominalSplitCondition extends AbstractSplitCondition {
 		return Tools.isEqual(currentValue, value);
 	}
 
+	/**
+	 * @return the index of the value in the mapping of the training data, {@link Double#NaN} for
+	 *         missing values
+	 * @since 9.11
+	 */
+	public double getValue() {
+		return value;
+	}
+
 	@Override
 	public String getRelation() {
 		return "=";
@@ -18,20 +18,35 @@
  */
 package com.rapidminer.operator.learner.tree;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.example.Attribute;
 import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.Statistics;
+import com.rapidminer.example.Tools;
+import com.rapidminer.example.set.MappedExampleSet;
+import com.rapidminer.example.utils.ExampleSets;
 import com.rapidminer.operator.Model;
 import com.rapidminer.operator.OperatorCapability;
 import com.rapidminer.operator.OperatorCreationException;
 import com.rapidminer.operator.OperatorDescription;
 import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.OperatorVersion;
+import com.rapidminer.operator.UserError;
 import com.rapidminer.operator.learner.PredictionModel;
 import com.rapidminer.operator.learner.tree.ConfigurableRandomForestModel.VotingStrategy;
+import com.rapidminer.operator.preprocessing.MaterializeDataInMemory;
 import com.rapidminer.operator.preprocessing.sampling.BootstrappingOperator;
 import com.rapidminer.parameter.ParameterType;
 import com.rapidminer.parameter.ParameterTypeInt;
+import com.rapidminer.studio.concurrency.internal.ExecutionExceptionHandling;
+import com.rapidminer.studio.internal.Resources;
 import com.rapidminer.tools.OperatorService;
 import com.rapidminer.tools.RandomGenerator;
 
@@ -39,6 +54,10 @@ import com.rapidminer.tools.RandomGenerator;
 /**
  * This operators learns a random forest. The resulting forest model contains several single random
  * tree models.
+ * <p>
+ * The trees are learned in parallel. Every tree draws its bootstrap sample and its attribute
+ * subsets from its own random generator whose seed is drawn upfront, so the forest does not depend
+ * on the order in which the trees are finished.
  *
  * @author Ingo Mierswa, Sebastian Land
  *
@@ -50,6 +69,14 @@ public class RandomForestLearner extends RandomTreeLearner {
 	/** The parameter name for the number of trees. */
 	public static final String PARAMETER_NUMBER_OF_TREES = "number_of_trees";
 
+	/**
+	 * The last version where all trees were learned one after the other with a shared random
+	 * generator.
+	 *
+	 * @since 9.11
+	 */
+	public static final OperatorVersion VERSION_SEQUENTIAL_TREES = new OperatorVersion(9, 10, 0);
+
 	public RandomForestLearner(OperatorDescription description) {
 		super(description);
 	}
@@ -61,6 +88,56 @@ public class RandomForestLearner extends RandomTreeLearner {
 
 	@Override
 	public Model learn(ExampleSet exampleSet) throws OperatorException {
+		if (getCompatibilityLevel().isAtMost(VERSION_SEQUENTIAL_TREES)) {
+			return learnSequentially(exampleSet);
+		}
+
+		// check if the label attribute contains any missing values, the bootstrap samples cannot
+		// contain any then either
+		Attribute label = exampleSet.getAttributes().getLabel();
+		exampleSet.recalculateAttributeStatistics(label);
+		if (exampleSet.getStatistics(label, Statistics.UNKNOWN) > 0) {
+			throw new UserError(this, 162, label.getName());
+		}
+		Tools.isNonEmpty(exampleSet);
+
+		// the seeds are drawn upfront so that every tree is reproducible
+		int numberOfTrees = getParameterAsInt(PARAMETER_NUMBER_OF_TREES);
+		RandomGenerator random = RandomGenerator.getRandomGenerator(this);
+		ConcurrencyContext context = Resources.getConcurrencyContext(this);
+		ExampleSet data = context.getParallelism() > 1 ? ExampleSets.createThreadSafeCopy(exampleSet) : exampleSet;
+		List<Callable<TreeModel>> tasks = new ArrayList<>(numberOfTrees);
+		for (int i = 0; i < numberOfTrees; i++) {
+			RandomGenerator treeRandom = new RandomGenerator(random.nextInt(Integer.MAX_VALUE));
+			// the builders are created here since they read parameters, the samples have the size
+			// of the data
+			TreeBuilder builder = getTreeBuilder(data, getSplitPreprocessing(treeRandom));
+			tasks.add(() -> {
+				context.checkStatus();
+				int[] mapping = MappedExampleSet.createBootstrappingMapping(data, data.size(), treeRandom);
+				ExampleSet sample = MaterializeDataInMemory.materializeExampleSet(new MappedExampleSet(data, mapping, true));
+				TreeModel model = new TreeModel(sample, builder.learnTree(sample));
+				model.setSource(getName());
+				return model;
+			});
+		}
+
+		List<TreeModel> baseModels;
+		try {
+			baseModels = context.call(tasks);
+		} catch (ExecutionException e) {
+			throw ExecutionExceptionHandling.INSTANCE.processExecutionException(e, getProcess());
+		}
+
+		// create and return model
+		return new ConfigurableRandomForestModel(exampleSet, new LinkedList<>(baseModels), VotingStrategy.MAJORITY_VOTE);
+	}
+
+	/**
+	 * Learns the trees one after the other, all bootstrap samples and attribute subsets are drawn
+	 * from the same random generator.
+	 */
+	private Model learnSequentially(ExampleSet exampleSet) throws OperatorException {
 		BootstrappingOperator bootstrapping = null;
 		try {
 			bootstrapping = OperatorService.createEmbeddedOperator(BootstrappingOperator.class, this);
@@ -112,6 +189,14 @@ public class RandomForestLearner extends RandomTreeLearner {
 		return false;
 	}
 
+	@Override
+	public OperatorVersion[] getIncompatibleVersionChanges() {
+		OperatorVersion[] changes = super.getIncompatibleVersionChanges();
+		changes = Arrays.copyOf(changes, changes.length + 1);
+		changes[changes.length - 1] = VERSION_SEQUENTIAL_TREES;
+		return changes;
+	}
+
 	@Override
 	public List<ParameterType> getParameterTypes() {
 
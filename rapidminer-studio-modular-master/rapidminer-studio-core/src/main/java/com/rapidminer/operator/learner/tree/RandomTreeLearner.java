@@ -57,16 +57,30 @@ public class RandomTreeLearner extends DecisionTreeLearner {
 	public SplitPreprocessing getSplitPreprocessing() {
 		SplitPreprocessing preprocessing = null;
 		try {
-			preprocessing = new RandomSubsetPreprocessing(getParameterAsBoolean(PARAMETER_USE_HEURISTIC_SUBSET_RATION),
-					getParameterAsDouble(PARAMETER_SUBSET_RATIO), RandomGenerator.getRandomGenerator(
-							getParameterAsBoolean(RandomGenerator.PARAMETER_USE_LOCAL_RANDOM_SEED),
-							getParameterAsInt(RandomGenerator.PARAMETER_LOCAL_RANDOM_SEED)));
+			preprocessing = getSplitPreprocessing(RandomGenerator.getRandomGenerator(
+					getParameterAsBoolean(RandomGenerator.PARAMETER_USE_LOCAL_RANDOM_SEED),
+					getParameterAsInt(RandomGenerator.PARAMETER_LOCAL_RANDOM_SEED)));
 		} catch (UndefinedParameterError e) {
 			// cannot happen
 		}
 		return preprocessing;
 	}
 
+	/**
+	 * Returns a random feature subset sampling that uses the given random generator.
+	 *
+	 * @param random
+	 *            the random generator for the subsets
+	 * @return the split preprocessing
+	 * @throws UndefinedParameterError
+	 *             if the subset parameters are not defined
+	 * @since 9.11
+	 */
+	protected SplitPreprocessing getSplitPreprocessing(RandomGenerator random) throws UndefinedParameterError {
+		return new RandomSubsetPreprocessing(getParameterAsBoolean(PARAMETER_USE_HEURISTIC_SUBSET_RATION),
+				getParameterAsDouble(PARAMETER_SUBSET_RATIO), random);
+	}
+
 	@Override
 	public List<ParameterType> getParameterTypes() {
 		List<ParameterType> types = super.getParameterTypes();
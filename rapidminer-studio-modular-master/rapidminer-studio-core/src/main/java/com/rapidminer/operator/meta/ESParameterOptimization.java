@@ -18,16 +18,22 @@
  */
 package com.rapidminer.operator.meta;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.meta.ParameterIteratingOperatorChain.Trial;
 import com.rapidminer.operator.performance.PerformanceVector;
 import com.rapidminer.tools.LoggingHandler;
 import com.rapidminer.tools.RandomGenerator;
 import com.rapidminer.tools.math.optimization.ec.es.ESOptimization;
 import com.rapidminer.tools.math.optimization.ec.es.Individual;
+import com.rapidminer.tools.math.optimization.ec.es.Population;
 
 
 /**
- * Evolutionary Strategy approach for an evolutionary parameter optimization.
+ * Evolutionary Strategy approach for an evolutionary parameter optimization. If possible, all new
+ * individuals of a generation are evaluated in parallel.
  * 
  * @author Ingo Mierswa
  */
@@ -58,6 +64,38 @@ public class ESParameterOptimization extends ESOptimization {
 		return operator.setParametersAndEvaluate(individual);
 	}
 
+	/**
+	 * Evaluates all individuals without fitness at the same time if parallel execution is possible.
+	 * The fitness values are assigned in the same order as in the sequential evaluation.
+	 */
+	@Override
+	protected void evaluateAll(Population population) throws OperatorException {
+		if (!operator.isParallelEvaluation()) {
+			super.evaluateAll(population);
+			return;
+		}
+		List<ParameterSet> parameterSets = new ArrayList<>();
+		for (int i = population.getNumberOfIndividuals() - 1; i >= 0; i--) {
+			Individual current = population.get(i);
+			if (current.getFitness() == null) {
+				parameterSets.add(operator.createParameterSet(current));
+			}
+		}
+		List<Trial> trials = operator.evaluateInParallel(parameterSets, false);
+		int trialIndex = 0;
+		for (int i = population.getNumberOfIndividuals() - 1; i >= 0; i--) {
+			Individual current = population.get(i);
+			if (current.getFitness() == null) {
+				Trial trial = trials.get(trialIndex++);
+				if (assignFitness(current, population, trial.getPerformance())) {
+					// only the last call matters, so it will be the best run
+					operator.passResultsThrough(trial);
+				}
+			}
+			increaseTotalEvaluationCounter();
+		}
+	}
+
 	@Override
 	public void nextIteration() throws OperatorException {
 		this.operator.inApplyLoop();
@@ -230,18 +230,46 @@ public class EvolutionaryParameterOptimizationOperator extends ParameterOptimiza
 	}
 
 	public PerformanceVector setParametersAndEvaluate(Individual individual) throws OperatorException {
+		String[] values = getParameterValues(individual);
+		for (int j = 0; j < values.length; j++) {
+			operators[j].getParameters().setParameter(parameters[j], values[j]);
+			getLogger().fine(operators[j] + "." + parameters[j] + " = " + values[j]);
+		}
+		return getPerformanceVector();
+	}
+
+	/**
+	 * Checks whether the individuals of a generation can be evaluated in parallel.
+	 *
+	 * @since 9.11
+	 */
+	boolean isParallelEvaluation() {
+		return isParallelEvaluation(operators);
+	}
+
+	/**
+	 * Creates the parameter set that {@link #setParametersAndEvaluate(Individual)} would apply.
+	 *
+	 * @since 9.11
+	 */
+	ParameterSet createParameterSet(Individual individual) {
+		return new ParameterSet(operators, parameters, getParameterValues(individual), null);
+	}
+
+	/**
+	 * Converts the values of the individual to parameter values.
+	 */
+	private String[] getParameterValues(Individual individual) {
 		double[] currentValues = individual.getValues();
+		String[] values = new String[currentValues.length];
 		for (int j = 0; j < currentValues.length; j++) {
-			String value;
 			if (types[j].equals(OptimizationValueType.VALUE_TYPE_DOUBLE)) {
-				value = currentValues[j] + "";
+				values[j] = currentValues[j] + "";
 			} else {
-				value = (int) Math.round(currentValues[j]) + "";
+				values[j] = (int) Math.round(currentValues[j]) + "";
 			}
-			operators[j].getParameters().setParameter(parameters[j], value);
-			getLogger().fine(operators[j] + "." + parameters[j] + " = " + value);
 		}
-		return getPerformanceVector();
+		return values;
 	}
 
 	@Override
@@ -18,6 +18,7 @@
  */
 package com.rapidminer.operator.meta;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 
@@ -26,8 +27,14 @@ import com.rapidminer.operator.OperatorDescription;
 import com.rapidminer.operator.OperatorException;
 import com.rapidminer.operator.UserError;
 import com.rapidminer.operator.performance.PerformanceVector;
+import com.rapidminer.parameter.ParameterType;
+import com.rapidminer.parameter.ParameterTypeBoolean;
+import com.rapidminer.parameter.ParameterTypeDouble;
+import com.rapidminer.parameter.ParameterTypeInt;
+import com.rapidminer.parameter.conditions.BooleanParameterCondition;
 import com.rapidminer.parameter.value.ParameterValueRange;
 import com.rapidminer.parameter.value.ParameterValues;
+import com.rapidminer.tools.RandomGenerator;
 
 
 /**
@@ -62,10 +69,38 @@ import com.rapidminer.parameter.value.ParameterValues;
  * especially useful for plotting purposes.
  * </p>
  *
+ * <p>
+ * If parallel execution is enabled, several parameter combinations are evaluated at the same time
+ * on copies of the inner process. With successive halving, all combinations are first evaluated on
+ * a small random part of the examples. Only the best of them are evaluated again on a larger part,
+ * until the remaining combinations are evaluated on the complete data.
+ * </p>
+ *
  * @author Simon Fischer, Helge Homburg, Ingo Mierswa, Tobias Malbrecht 15:35:49 ingomierswa Exp $
  */
 public class GridSearchParameterOptimizationOperator extends ParameterOptimizationOperator {
 
+	/**
+	 * Indicates if the combinations are evaluated on growing parts of the data
+	 *
+	 * @since 9.11
+	 */
+	public static final String PARAMETER_SUCCESSIVE_HALVING = "use_successive_halving";
+
+	/**
+	 * The factor by which the number of combinations shrinks and the data grows with every round
+	 *
+	 * @since 9.11
+	 */
+	public static final String PARAMETER_REDUCTION_FACTOR = "reduction_factor";
+
+	/**
+	 * The fraction of the examples used in the first round
+	 *
+	 * @since 9.11
+	 */
+	public static final String PARAMETER_MINIMAL_BUDGET = "minimal_budget";
+
 	protected Operator[] operators;
 
 	protected String[] parameters;
@@ -171,8 +206,20 @@ public class GridSearchParameterOptimizationOperator extends ParameterOptimizati
 			throw new UserError(this, 922);
 		}
 
-		int counter = 1;
 		best = null;
+		if (isSuccessiveHalvingSupported() && getParameterAsBoolean(PARAMETER_SUCCESSIVE_HALVING)) {
+			optimizeBySuccessiveHalving();
+			deliver(best);
+			getProgress().complete();
+			return;
+		} else if (isParallelEvaluation(operators)) {
+			evaluate(operators, createAllParameterSets(), this::updateBest);
+			deliver(best);
+			getProgress().complete();
+			return;
+		}
+
+		int counter = 1;
 		while (true) {
 			getLogger().fine("Using parameter set " + counter + " / " + numberOfCombinations + ":");
 			PerformanceVector performance = computeCurrentPerformance();
@@ -210,4 +257,124 @@ public class GridSearchParameterOptimizationOperator extends ParameterOptimizati
 		deliver(best);
 		getProgress().complete();
 	}
+
+	/**
+	 * Evaluates all combinations on a growing fraction of the examples. After every round, only
+	 * the best combinations are kept, the last round uses all examples.
+	 */
+	private void optimizeBySuccessiveHalving() throws OperatorException {
+		int reductionFactor = getParameterAsInt(PARAMETER_REDUCTION_FACTOR);
+		double minimalBudget = getParameterAsDouble(PARAMETER_MINIMAL_BUDGET);
+
+		// every round has its own progress steps
+		int total = 0;
+		int remaining = numberOfCombinations;
+		for (double budget = minimalBudget; budget < 1 && remaining > 1; budget *= reductionFactor) {
+			total += remaining;
+			remaining = (remaining + reductionFactor - 1) / reductionFactor;
+		}
+		getProgress().setTotal(total + remaining);
+
+		List<ParameterSet> candidates = createAllParameterSets();
+		resetBudgets(RandomGenerator.getRandomGenerator(this));
+		try {
+			for (double budget = minimalBudget; budget < 1 && candidates.size() > 1; budget *= reductionFactor) {
+				log("Evaluating " + candidates.size() + " combinations on " + Math.round(budget * 100)
+						+ "% of the examples");
+				setBudget(budget);
+				List<ParameterSet> evaluated = new ArrayList<>(candidates.size());
+				evaluate(operators, candidates,
+						trial -> evaluated.add(new ParameterSet(trial.getParameterSet(), trial.getPerformance())));
+				// stable sort, so ties keep the order of the grid
+				evaluated.sort((first, second) -> {
+					if (first.getPerformance() == null || second.getPerformance() == null) {
+						return Boolean.compare(first.getPerformance() == null, second.getPerformance() == null);
+					}
+					return second.getPerformance().compareTo(first.getPerformance());
+				});
+				int keep = (candidates.size() + reductionFactor - 1) / reductionFactor;
+				candidates = new ArrayList<>(evaluated.subList(0, keep));
+			}
+		} finally {
+			setBudget(1);
+			resetBudgets(null);
+		}
+		log("Evaluating " + candidates.size() + " combinations on all examples");
+		evaluate(operators, candidates, this::updateBest);
+	}
+
+	/**
+	 * Remembers the trial as best parameter set if it is better than the current best one and
+	 * passes its results through.
+	 */
+	private void updateBest(Trial trial) {
+		PerformanceVector performance = trial.getPerformance();
+		// without a performance we can not say that this is the optimal set
+		if (performance != null && (best == null || performance.compareTo(best.getPerformance()) > 0)) {
+			best = new ParameterSet(trial.getParameterSet(), performance);
+			passResultsThrough(trial);
+		}
+	}
+
+	/**
+	 * Creates the parameter sets for all combinations in the same order as the sequential search.
+	 */
+	private List<ParameterSet> createAllParameterSets() {
+		List<ParameterSet> parameterSets = new ArrayList<>(numberOfCombinations);
+		int[] index = new int[numberOfParameters];
+		while (true) {
+			String[] combination = new String[parameters.length];
+			for (int j = 0; j < parameters.length; j++) {
+				combination[j] = values[j][index[j]];
+			}
+			parameterSets.add(new ParameterSet(operators, parameters, combination, null));
+
+			int k = 0;
+			while (!(++index[k] < values[k].length)) {
+				index[k] = 0;
+				k++;
+				if (k >= index.length) {
+					return parameterSets;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Whether this operator offers successive halving. Subclasses that do not evaluate the complete
+	 * grid can switch it off.
+	 *
+	 * @return {@code true} by default
+	 * @since 9.11
+	 */
+	protected boolean isSuccessiveHalvingSupported() {
+		return true;
+	}
+
+	@Override
+	public List<ParameterType> getParameterTypes() {
+		List<ParameterType> types = super.getParameterTypes();
+		if (!isSuccessiveHalvingSupported()) {
+			return types;
+		}
+		types.add(new ParameterTypeBoolean(PARAMETER_SUCCESSIVE_HALVING,
+				"If checked, all combinations are first evaluated on a small part of the examples and only the best are evaluated on more examples.",
+				false));
+		ParameterType type = new ParameterTypeInt(PARAMETER_REDUCTION_FACTOR,
+				"Only one out of this many combinations is kept after each round, the number of examples grows by this factor.",
+				2, Integer.MAX_VALUE, 3);
+		type.registerDependencyCondition(new BooleanParameterCondition(this, PARAMETER_SUCCESSIVE_HALVING, true, true));
+		types.add(type);
+		type = new ParameterTypeDouble(PARAMETER_MINIMAL_BUDGET,
+				"The fraction of the examples that is used to evaluate all combinations in the first round.", 0.0001, 1,
+				0.1);
+		type.registerDependencyCondition(new BooleanParameterCondition(this, PARAMETER_SUCCESSIVE_HALVING, true, true));
+		types.add(type);
+		for (ParameterType randomType : RandomGenerator.getRandomGeneratorParameters(this)) {
+			randomType.registerDependencyCondition(
+					new BooleanParameterCondition(this, PARAMETER_SUCCESSIVE_HALVING, true, true));
+			types.add(randomType);
+		}
+		return types;
+	}
 }
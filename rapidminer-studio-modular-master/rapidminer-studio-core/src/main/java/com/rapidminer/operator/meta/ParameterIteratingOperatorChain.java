@@ -18,25 +18,33 @@
  */
 package com.rapidminer.operator.meta;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 import com.rapidminer.RapidMiner;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.set.MappedExampleSet;
 import com.rapidminer.gui.properties.ConfigureParameterOptimizationDialogCreator;
 import com.rapidminer.operator.IOObject;
 import com.rapidminer.operator.Operator;
-import com.rapidminer.operator.OperatorChain;
 import com.rapidminer.operator.OperatorDescription;
 import com.rapidminer.operator.OperatorException;
 import com.rapidminer.operator.OperatorVersion;
 import com.rapidminer.operator.ProcessSetupError.Severity;
 import com.rapidminer.operator.SimpleProcessSetupError;
 import com.rapidminer.operator.UserError;
+import com.rapidminer.operator.concurrency.internal.ParallelOperatorChain;
 import com.rapidminer.operator.performance.PerformanceVector;
 import com.rapidminer.operator.ports.InputPort;
 import com.rapidminer.operator.ports.PortPairExtender;
+import com.rapidminer.operator.ports.PortPairExtender.PortPair;
 import com.rapidminer.operator.ports.metadata.MetaData;
 import com.rapidminer.operator.ports.metadata.SimplePrecondition;
 import com.rapidminer.operator.ports.metadata.SubprocessTransformRule;
@@ -55,6 +63,8 @@ import com.rapidminer.parameter.value.ParameterValueList;
 import com.rapidminer.parameter.value.ParameterValueRange;
 import com.rapidminer.parameter.value.ParameterValues;
 import com.rapidminer.tools.ParameterService;
+import com.rapidminer.studio.internal.Resources;
+import com.rapidminer.tools.RandomGenerator;
 
 
 /**
@@ -63,7 +73,74 @@ import com.rapidminer.tools.ParameterService;
  * 
  * @author Tobias Malbrecht
  */
-public abstract class ParameterIteratingOperatorChain extends OperatorChain implements ParameterConfigurator {
+public abstract class ParameterIteratingOperatorChain extends ParallelOperatorChain implements ParameterConfigurator {
+
+	/**
+	 * The outcome of evaluating a single {@link ParameterSet} on a clone of the subprocess.
+	 *
+	 * @since 9.11
+	 */
+	protected static final class Trial {
+
+		private final ParameterSet parameterSet;
+		private final PerformanceVector performance;
+		private final List<IOObject> results;
+
+		private Trial(ParameterSet parameterSet, PerformanceVector performance, List<IOObject> results) {
+			this.parameterSet = parameterSet;
+			this.performance = performance;
+			this.results = results;
+		}
+
+		/**
+		 * @return the evaluated parameter set
+		 */
+		public ParameterSet getParameterSet() {
+			return parameterSet;
+		}
+
+		/**
+		 * @return the performance or {@code null} if the subprocess failed and errors are ignored
+		 */
+		public PerformanceVector getPerformance() {
+			return performance;
+		}
+
+		/**
+		 * @return the data at the inner result ports, one entry per port pair, can contain
+		 *         {@code null}s
+		 */
+		public List<IOObject> getResults() {
+			return results;
+		}
+	}
+
+	/**
+	 * Thread-safe views on the input of this chain, reduced to the current budget, that are shared
+	 * by all clones evaluating trials in parallel.
+	 */
+	private final class SharedInputs {
+
+		private final List<IOObject> inputs = new ArrayList<>();
+		private final long memoryPerTrial;
+
+		private SharedInputs() throws UndefinedParameterError {
+			long memory = 0;
+			for (PortPair pair : inputExtender.getManagedPairs()) {
+				IOObject input = getDataCopy(pair.getInputPort().getRawData(), true);
+				if (input instanceof ExampleSet) {
+					ExampleSet exampleSet = (ExampleSet) input;
+					if (budget < 1) {
+						input = new MappedExampleSet(exampleSet, getBudgetMapping(exampleSet.size(), budget), true,
+								false);
+					}
+					memory += (long) exampleSet.size() * exampleSet.getAttributes().allSize() * Double.BYTES;
+				}
+				inputs.add(input);
+			}
+			memoryPerTrial = (long) (memory * budget);
+		}
+	}
 
 	/** Last version where errors in the inner process were not handled properly. */
 	public static final OperatorVersion CHANGE_6_0_3_ERROR_HANDLING = new OperatorVersion(6, 0, 3);
@@ -102,6 +179,15 @@ public abstract class ParameterIteratingOperatorChain extends OperatorChain impl
 	private final InputPort performanceInnerSink = getSubprocess(0).getInnerSinks().createPort("performance");
 	private final PortPairExtender innerSinkExtender;
 
+	/** the random order of the examples by data size, see {@link #getBudgetMapping(int, double)} */
+	private final Map<Integer, int[]> budgetPermutations = new HashMap<>();
+
+	/** the fraction of the examples passed to the subprocess, see {@link #setBudget(double)} */
+	private double budget = 1;
+
+	/** the random generator for the example orders, see {@link #resetBudgets(RandomGenerator)} */
+	private RandomGenerator budgetRandom;
+
 	public ParameterIteratingOperatorChain(OperatorDescription description) {
 		this(description, "Subprocess");
 	}
@@ -263,7 +349,7 @@ public abstract class ParameterIteratingOperatorChain extends OperatorChain impl
 	 */
 	protected PerformanceVector getPerformanceVector() throws OperatorException {
 		try {
-			inputExtender.passDataThrough();
+			passInputThrough();
 			executeSubprocess();
 			if (isPerformanceRequired()) {
 				return getPerformanceInnerSink().getData(PerformanceVector.class);
@@ -280,6 +366,227 @@ public abstract class ParameterIteratingOperatorChain extends OperatorChain impl
 		}
 	}
 
+	/**
+	 * Checks whether parameter sets for the given operators can be evaluated by
+	 * {@link #evaluateInParallel(List)}. This is the case if parallel execution is
+	 * enabled, there are no breakpoints, and all operators are inside of this chain.
+	 *
+	 * @param operators
+	 *            the operators whose parameters are changed
+	 * @return whether the parameter sets can be evaluated in parallel
+	 * @since 9.11
+	 */
+	protected boolean isParallelEvaluation(Operator[] operators) {
+		return checkParallelizability() && getAllInnerOperators().containsAll(Arrays.asList(operators));
+	}
+
+	/**
+	 * Evaluates the given parameter sets concurrently, each on its own clone of the subprocess.
+	 * The parameter sets must only contain operators for which
+	 * {@link #isParallelEvaluation(Operator[])} returned {@code true}. The current budget is
+	 * respected, see {@link #setBudget(double)}.
+	 *
+	 * @param parameterSets
+	 *            the parameter sets to evaluate
+	 * @return the trials in the order of the parameter sets
+	 * @throws OperatorException
+	 *             if the subprocess fails and errors are not ignored
+	 * @since 9.11
+	 */
+	protected List<Trial> evaluateInParallel(List<ParameterSet> parameterSets) throws OperatorException {
+		return evaluateInParallel(parameterSets, true);
+	}
+
+	/**
+	 * Same as {@link #evaluateInParallel(List)} but allows to keep the progress untouched for
+	 * operators that track their progress differently, e.g. by generations.
+	 *
+	 * @param parameterSets
+	 *            the parameter sets to evaluate
+	 * @param stepProgress
+	 *            whether the progress is advanced by one step per evaluated parameter set
+	 * @return the trials in the order of the parameter sets
+	 * @throws OperatorException
+	 *             if the subprocess fails and errors are not ignored
+	 * @since 9.11
+	 */
+	protected List<Trial> evaluateInParallel(List<ParameterSet> parameterSets, boolean stepProgress)
+			throws OperatorException {
+		return evaluateInParallel(parameterSets, new SharedInputs(), stepProgress);
+	}
+
+	/**
+	 * Evaluates the given parameter sets concurrently on the given inputs.
+	 */
+	private List<Trial> evaluateInParallel(List<ParameterSet> parameterSets, SharedInputs sharedInputs,
+			boolean stepProgress) throws OperatorException {
+		List<IOObject> inputs = sharedInputs.inputs;
+		return executeOnClones(parameterSets.size(), sharedInputs.memoryPerTrial, stepProgress,
+				(ParameterIteratingOperatorChain clone, int index) -> {
+					ParameterSet parameterSet = parameterSets.get(index);
+					clone.apply(clone.getAllInnerOperators(), parameterSet);
+					List<PortPair> pairs = clone.inputExtender.getManagedPairs();
+					for (int i = 0; i < pairs.size() && i < inputs.size(); i++) {
+						IOObject input = inputs.get(i);
+						pairs.get(i).getInputPort().receive(input == null ? null : input.copy());
+					}
+					PerformanceVector performance = clone.getPerformanceVector();
+					List<IOObject> results = new ArrayList<>();
+					for (PortPair pair : clone.innerSinkExtender.getManagedPairs()) {
+						results.add(pair.getInputPort().getRawData());
+					}
+					return new Trial(parameterSet, performance, results);
+				});
+	}
+
+	/**
+	 * Evaluates the given parameter sets and hands the trials over to the consumer in the order of
+	 * the parameter sets. The parameter sets are evaluated in parallel if
+	 * {@link #isParallelEvaluation(Operator[])} is {@code true} for the given operators, otherwise
+	 * they are applied to the process and evaluated one after the other. Only a few trials are kept
+	 * in memory at the same time.
+	 *
+	 * @param operators
+	 *            the operators whose parameters are changed
+	 * @param parameterSets
+	 *            the parameter sets to evaluate
+	 * @param consumer
+	 *            receives every trial
+	 * @throws OperatorException
+	 *             if the subprocess fails and errors are not ignored
+	 * @since 9.11
+	 */
+	protected void evaluate(Operator[] operators, List<ParameterSet> parameterSets, Consumer<Trial> consumer)
+			throws OperatorException {
+		if (isParallelEvaluation(operators)) {
+			// the input is prepared once and only cheap views are copied for every trial
+			SharedInputs inputs = new SharedInputs();
+			int chunkSize = Math.max(1, Resources.getConcurrencyContext(this).getParallelism());
+			for (int start = 0; start < parameterSets.size(); start += chunkSize) {
+				List<ParameterSet> chunk = parameterSets.subList(start,
+						Math.min(parameterSets.size(), start + chunkSize));
+				evaluateInParallel(chunk, inputs, true).forEach(consumer);
+			}
+		} else {
+			for (ParameterSet parameterSet : parameterSets) {
+				apply(Arrays.asList(operators), parameterSet);
+				PerformanceVector performance = getPerformanceVector();
+				List<IOObject> results = new ArrayList<>();
+				for (PortPair pair : innerSinkExtender.getManagedPairs()) {
+					results.add(pair.getInputPort().getRawData());
+				}
+				consumer.accept(new Trial(parameterSet, performance, results));
+				getProgress().step();
+				inApplyLoop();
+			}
+		}
+	}
+
+	/**
+	 * Delivers the inner results of the trial at the output ports, same as
+	 * {@link #passResultsThrough()} for the sequential execution.
+	 *
+	 * @param trial
+	 *            the trial whose results to deliver
+	 * @since 9.11
+	 */
+	protected void passResultsThrough(Trial trial) {
+		List<PortPair> pairs = innerSinkExtender.getManagedPairs();
+		for (int i = 0; i < pairs.size() && i < trial.getResults().size(); i++) {
+			pairs.get(i).getOutputPort().deliver(trial.getResults().get(i));
+		}
+	}
+
+	/**
+	 * Forgets the example orders used for budgets. Should be called at the start of every
+	 * execution that uses budgets.
+	 *
+	 * @param random
+	 *            the random generator for the new example orders, usually a local one of the
+	 *            operator, or {@code null} to release the current one
+	 * @since 9.11
+	 */
+	protected void resetBudgets(RandomGenerator random) {
+		budgetPermutations.clear();
+		budgetRandom = random;
+	}
+
+	/**
+	 * Sets the budget for the following evaluations of the subprocess, e.g. for successive
+	 * halving. All example sets that are passed to the subprocess are reduced to the given fraction
+	 * of their examples. The examples are taken from a random permutation that is fixed until
+	 * {@link #resetBudgets(RandomGenerator)} is called, so the examples used for a smaller budget are always
+	 * contained in the examples used for a larger budget.
+	 *
+	 * @param budget
+	 *            the fraction of the examples to use, 1 for all
+	 * @since 9.11
+	 */
+	protected void setBudget(double budget) {
+		this.budget = Math.min(1, budget);
+	}
+
+	/**
+	 * Passes the input to the subprocess, reduced to the current budget.
+	 */
+	private void passInputThrough() {
+		if (budget >= 1) {
+			inputExtender.passDataThrough();
+			return;
+		}
+		for (PortPair pair : inputExtender.getManagedPairs()) {
+			IOObject input = pair.getInputPort().getRawData();
+			if (input instanceof ExampleSet) {
+				ExampleSet exampleSet = (ExampleSet) input;
+				input = new MappedExampleSet(exampleSet, getBudgetMapping(exampleSet.size(), budget), true, false);
+			}
+			pair.getOutputPort().deliver(input);
+		}
+	}
+
+	/**
+	 * Sets the parameters of the given set at the operators with the same names.
+	 */
+	private void apply(Collection<Operator> candidates, ParameterSet parameterSet) {
+		Map<String, Operator> operators = new HashMap<>();
+		for (Operator operator : candidates) {
+			operators.put(operator.getName(), operator);
+		}
+		for (ParameterValue value : parameterSet) {
+			Operator operator = operators.get(value.getOperator());
+			if (operator != null) {
+				operator.getParameters().setParameter(value.getParameterKey(), value.getParameterValue());
+			}
+		}
+	}
+
+	/**
+	 * Returns the sorted first examples of a random permutation of the given size. The
+	 * permutations are kept until {@link #resetBudgets(RandomGenerator)} is called.
+	 */
+	int[] getBudgetMapping(int size, double budget) {
+		int[] permutation = budgetPermutations.get(size);
+		if (permutation == null) {
+			permutation = new int[size];
+			for (int i = 0; i < size; i++) {
+				permutation[i] = i;
+			}
+			if (budgetRandom == null) {
+				budgetRandom = new RandomGenerator(RandomGenerator.DEFAULT_SEED);
+			}
+			for (int i = size - 1; i > 0; i--) {
+				int j = budgetRandom.nextInt(i + 1);
+				int swap = permutation[i];
+				permutation[i] = permutation[j];
+				permutation[j] = swap;
+			}
+			budgetPermutations.put(size, permutation);
+		}
+		int[] mapping = Arrays.copyOf(permutation, Math.max(1, (int) Math.round(size * budget)));
+		Arrays.sort(mapping);
+		return mapping;
+	}
+
 	/**
 	 * Returns the results at the inner sink port extender. Does not include a possible performance
 	 * vector at the respective input. {@link #executeSubprocess()} or
@@ -296,6 +603,15 @@ public abstract class ParameterIteratingOperatorChain extends OperatorChain impl
 		innerSinkExtender.passDataThrough();
 	}
 
+	/**
+	 * Returns {@code false}, since existing optimization processes must keep their sequential
+	 * behavior unless parallel execution is chosen explicitly.
+	 */
+	@Override
+	protected boolean isParallelExecutionEnabledByDefault() {
+		return false;
+	}
+
 	@Override
 	public List<ParameterType> getParameterTypes() {
 		List<ParameterType> types = super.getParameterTypes();
@@ -255,6 +255,14 @@ public class ParameterIteration extends ParameterIteratingOperatorChain {
 		}
 	}
 
+	/**
+	 * Returns {@code false}, since the combinations are always iterated sequentially.
+	 */
+	@Override
+	protected boolean isParallelExecutionSupported() {
+		return false;
+	}
+
 	@Override
 	public List<ParameterType> getParameterTypes() {
 		List<ParameterType> types = super.getParameterTypes();
@@ -74,6 +74,12 @@ public class QuadraticParameterOptimizationOperator extends GridSearchParameterO
 		}
 	}
 
+	/** The quadratic fit needs the performance of all grid points on the complete data. */
+	@Override
+	protected boolean isSuccessiveHalvingSupported() {
+		return false;
+	}
+
 	// start
 	@Override
 	public void doWork() throws OperatorException {
@@ -18,20 +18,27 @@
  */
 package com.rapidminer.operator.meta;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
 
 import com.rapidminer.operator.IOObject;
 import com.rapidminer.operator.OperatorDescription;
 import com.rapidminer.operator.OperatorException;
-import com.rapidminer.operator.SimpleOperatorChain;
 import com.rapidminer.operator.ValueDouble;
+import com.rapidminer.operator.concurrency.internal.ParallelOperatorChain;
 import com.rapidminer.operator.performance.PerformanceVector;
 import com.rapidminer.operator.ports.InputPort;
 import com.rapidminer.operator.ports.OutputPort;
+import com.rapidminer.operator.ports.PortPairExtender;
+import com.rapidminer.operator.ports.PortPairExtender.PortPair;
+import com.rapidminer.operator.ports.metadata.SubprocessTransformRule;
 import com.rapidminer.parameter.ParameterType;
 import com.rapidminer.parameter.ParameterTypeBoolean;
 import com.rapidminer.parameter.ParameterTypeInt;
 import com.rapidminer.parameter.conditions.BooleanParameterCondition;
+import com.rapidminer.studio.internal.Resources;
 
 
 /**
@@ -40,10 +47,25 @@ import com.rapidminer.parameter.conditions.BooleanParameterCondition;
  * cycle are then returned. The target of this operator are methods that involve some
  * non-deterministic elements such that the performance in each cycle may vary. An example is
  * k-means with random initialization.
+ * <p>
+ * If parallel execution is enabled, several iterations are executed at the same time on copies of
+ * the inner process. Their results are still taken into account in the order of the iterations.
  *
  * @author Michael Wurst, Ingo Mierswa, Sebastian Land
  */
-public class RandomOptimizationChain extends SimpleOperatorChain {
+public class RandomOptimizationChain extends ParallelOperatorChain {
+
+	/** The performance and the results of a single iteration. */
+	private static final class IterationResult {
+
+		private final PerformanceVector performance;
+		private final List<IOObject> results;
+
+		private IterationResult(PerformanceVector performance, List<IOObject> results) {
+			this.performance = performance;
+			this.results = results;
+		}
+	}
 
 	/** The parameter name for &quot;The number of iterations to perform&quot; */
 	public static final String PARAMETER_ITERATIONS = "iterations";
@@ -61,8 +83,18 @@ public class RandomOptimizationChain extends SimpleOperatorChain {
 			PerformanceVector.class);
 	private final OutputPort performanceOutput = getOutputPorts().createPort("performance");
 
+	protected PortPairExtender inputExtender = new PortPairExtender("in", getInputPorts(),
+			getSubprocess(0).getInnerSources());
+	protected PortPairExtender outputExtender = new PortPairExtender("out", getSubprocess(0).getInnerSinks(),
+			getOutputPorts());
+
 	public RandomOptimizationChain(OperatorDescription description) {
 		super(description, "Optimizing");
+		inputExtender.start();
+		outputExtender.start();
+		getTransformer().addRule(inputExtender.makePassThroughRule());
+		getTransformer().addRule(new SubprocessTransformRule(getSubprocess(0)));
+		getTransformer().addRule(outputExtender.makePassThroughRule());
 
 		getTransformer().addGenerationRule(performanceOutput, PerformanceVector.class);
 
@@ -110,19 +142,27 @@ public class RandomOptimizationChain extends SimpleOperatorChain {
 		double perfSum = 0.0;
 		List<IOObject> bestResult = null;
 		PerformanceVector bestPerformance = null;
+		// in parallel mode the iterations are executed in batches and taken in their original order
+		List<IOObject> parallelInputs = checkParallelizability() ? getParallelInputs() : null;
+		Deque<IterationResult> executed = new ArrayDeque<>();
 		for (iterationValue = 0; iterationValue < maxIterations; iterationValue++) {
 
 			// executing sub process
-			super.doWork();
+			if (parallelInputs == null) {
+				executed.add(executeIteration());
+			} else if (executed.isEmpty()) {
+				executed.addAll(executeBatch(parallelInputs, maxIterations - iterationValue));
+			}
+			IterationResult result = executed.poll();
 
-			PerformanceVector performanceVector = innerPerformanceSink.getData(PerformanceVector.class);
+			PerformanceVector performanceVector = result.performance;
 			if (bestPerformance == null) {
 				bestPerformance = performanceVector;
-				bestResult = outputExtender.getData(IOObject.class);
+				bestResult = result.results;
 			} else {
 				if (performanceVector.getMainCriterion().compareTo(bestPerformance.getMainCriterion()) == 1) {
 					bestPerformance = performanceVector;
-					bestResult = outputExtender.getData(IOObject.class);
+					bestResult = result.results;
 				}
 			}
 			this.bestPerformanceValue = bestPerformance.getMainCriterion().getFitness();
@@ -144,6 +184,67 @@ public class RandomOptimizationChain extends SimpleOperatorChain {
 		getProgress().complete();
 	}
 
+	/**
+	 * Copies the input once so that every iteration executed in parallel can work on its own copy.
+	 */
+	private List<IOObject> getParallelInputs() throws OperatorException {
+		List<IOObject> inputs = new ArrayList<>();
+		for (PortPair pair : inputExtender.getManagedPairs()) {
+			inputs.add(getDataCopy(pair.getInputPort().getRawData(), true));
+		}
+		return inputs;
+	}
+
+	/**
+	 * Executes the next batch of at most the given number of iterations on clones of this operator.
+	 * The results are returned in the order of the iterations.
+	 */
+	private List<IterationResult> executeBatch(List<IOObject> inputs, int remaining) throws OperatorException {
+		int batch = Math.min(Math.max(1, Resources.getConcurrencyContext(this).getParallelism()), remaining);
+		return executeOnClones(batch, 0, false, (RandomOptimizationChain clone, int index) -> {
+			List<PortPair> pairs = clone.inputExtender.getManagedPairs();
+			for (int i = 0; i < pairs.size() && i < inputs.size(); i++) {
+				IOObject input = inputs.get(i);
+				pairs.get(i).getInputPort().receive(input == null ? null : input.copy());
+			}
+			return clone.executeIteration();
+		});
+	}
+
+	/**
+	 * Executes the subprocess once and returns its performance and results.
+	 */
+	private IterationResult executeIteration() throws OperatorException {
+		clearAllInnerSinks();
+		inputExtender.passDataThrough();
+		getSubprocess(0).execute();
+		return new IterationResult(innerPerformanceSink.getData(PerformanceVector.class),
+				outputExtender.getData(IOObject.class));
+	}
+
+	/**
+	 * @return the input extender
+	 */
+	public PortPairExtender getInputExtender() {
+		return inputExtender;
+	}
+
+	/**
+	 * @return the output extender
+	 */
+	public PortPairExtender getOutputExtender() {
+		return outputExtender;
+	}
+
+	/**
+	 * Returns {@code false}, since existing processes must keep their sequential behavior unless
+	 * parallel execution is chosen explicitly.
+	 */
+	@Override
+	protected boolean isParallelExecutionEnabledByDefault() {
+		return false;
+	}
+
 	@Override
 	public List<ParameterType> getParameterTypes() {
 		List<ParameterType> types = super.getParameterTypes();
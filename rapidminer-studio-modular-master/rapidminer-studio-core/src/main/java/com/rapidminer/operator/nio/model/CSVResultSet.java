@@ -36,12 +36,14 @@ import java.util.logging.Level;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import com.rapidminer.core.concurrency.ConcurrencyContext;
 import com.rapidminer.gui.tools.dialogs.wizards.dataimport.csv.LineReader;
 import com.rapidminer.operator.Operator;
 import com.rapidminer.operator.OperatorException;
 import com.rapidminer.operator.ProcessStoppedException;
 import com.rapidminer.operator.UserError;
 import com.rapidminer.operator.nio.model.ParsingError.ErrorCode;
+import com.rapidminer.studio.internal.Resources;
 import com.rapidminer.tools.CSVParseException;
 import com.rapidminer.tools.LineParser;
 import com.rapidminer.tools.LogService;
@@ -175,8 +177,8 @@ public class CSVResultSet implements DataResultSet {
 
 		in = cleanInputStream(in);
 
-		reader = new LineReader(in, configuration.getEncoding());
 		parser = new LineParser(configuration);
+		reader = createLineReader(in);
 
 		try {
 			if (operator != null && reader.getSize() > 0L) {
@@ -292,6 +294,33 @@ public class CSVResultSet implements DataResultSet {
 		return in;
 	}
 
+	/**
+	 * Creates the reader for the lines of the stream. Large local files are split and parsed in parallel by a {@link
+	 * ParallelCSVReader} if the operator allows it.
+	 *
+	 * @param in
+	 * 		the {@link InputStream} positioned behind the byte order mark
+	 * @return the reader
+	 * @throws UserError
+	 * 		in case there was a problem reading the {@link InputStream}
+	 * @since 9.11
+	 */
+	private LineReader createLineReader(InputStream in) throws UserError {
+		ConcurrencyContext context = operator == null ? null : Resources.getConcurrencyContext(operator);
+		if (!ParallelCSVReader.isApplicable(in, configuration.getEncoding(), context)) {
+			return new LineReader(in, configuration.getEncoding());
+		}
+		try {
+			return new ParallelCSVReader((FileInputStream) in, configuration.getEncoding(), parser, context);
+		} catch (IOException e) {
+			try {
+				in.close();
+			} catch (IOException e1) {
+			}
+			throw new UserError(operator, e, 321, configuration.getCsvFile(), e.toString());
+		}
+	}
+
 	/**
 	 * Guesses the column separator of the csv file by counting which {@link ColumnSplitter} appears
 	 * the most in the first rows.
@@ -510,7 +539,8 @@ public class CSVResultSet implements DataResultSet {
 				return;
 			}
 			try {
-				next = parser.parse(line);
+				next = reader instanceof ParallelCSVReader ? ((ParallelCSVReader) reader).getValues()
+						: parser.parse(line);
 				if (operator != null && ++lineCounter % 1000 == 0) {
 					long position = reader == null ? -1L : reader.getPosition();
 					if (position > 0) {
@@ -0,0 +1,355 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.operator.nio.model;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.gui.tools.dialogs.wizards.dataimport.csv.LineReader;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.studio.concurrency.internal.ExecutionExceptionHandling;
+import com.rapidminer.tools.CSVParseException;
+import com.rapidminer.tools.LineParser;
+
+
+/**
+ * A {@link LineReader} for local csv files that reads the file in chunks of bytes and splits and parses the lines of
+ * several chunks in parallel. Chunks always end behind a line feed or a carriage return, so that every chunk can be
+ * decoded and split on its own. This requires an encoding in which line feeds and carriage returns are single bytes
+ * that never occur inside other characters, see {@link #isSupported(Charset)}. Since the {@link CSVResultSet} treats
+ * every line as a record, quotes never span chunks.
+ * <p>
+ * The lines are handed out in file order with the same results as reading them with a {@link LineReader}. The parsed
+ * values of the current line are the same as parsing it with the {@link LineParser}, which is shared by all threads
+ * since parsing does not change its state.
+ *
+ * @see CSVResultSet
+ * @since 9.11
+ */
+final class ParallelCSVReader extends LineReader {
+
+	/** the minimal number of bytes split by a single task */
+	static final int CHUNK_SIZE = 1 << 22;
+
+	/** the maximal size of a chunk, the maximal size of an array */
+	private static final int MAX_CHUNK_SIZE = Integer.MAX_VALUE - 8;
+
+	/**
+	 * A chunk of complete lines and, after splitting, the lines and their parsed values. The parsed values of a line
+	 * are a {@code String[]}, {@code null} for comments and empty lines or the {@link CSVParseException} of a line
+	 * that could not be parsed.
+	 */
+	private static final class Chunk {
+
+		private byte[] bytes;
+		private final int length;
+		private final long end;
+		private List<String> lines;
+		private List<Object> values;
+
+		private Chunk(byte[] bytes, int length, long end) {
+			this.bytes = bytes;
+			this.length = length;
+			this.end = end;
+		}
+	}
+
+	private final FileChannel channel;
+	private final Charset encoding;
+	private final LineParser parser;
+	private final ConcurrencyContext context;
+	private final int chunkSize;
+
+	/** the bytes read from the channel that do not belong to a chunk yet */
+	private byte[] pending;
+	private int pendingLength;
+	private long position;
+	private boolean endOfFile;
+
+	private final List<Chunk> wave = new ArrayList<>();
+	private int chunkIndex;
+	private int lineIndex = -1;
+	private Object current;
+
+	/**
+	 * Creates a new reader for the rest of the file behind the stream. Like for a {@link LineReader}, a byte order
+	 * mark has to be skipped before.
+	 *
+	 * @param in
+	 * 		the stream of a local file
+	 * @param encoding
+	 * 		the encoding of the file, must be {@link #isSupported(Charset) supported}
+	 * @param parser
+	 * 		the parser used to split the lines
+	 * @param context
+	 * 		the context used to split the chunks in parallel
+	 * @throws IOException
+	 * 		if reading the file fails
+	 */
+	ParallelCSVReader(FileInputStream in, Charset encoding, LineParser parser, ConcurrencyContext context)
+			throws IOException {
+		this(in, encoding, parser, context, CHUNK_SIZE);
+	}
+
+	/**
+	 * Creates a new reader like {@link #ParallelCSVReader(FileInputStream, Charset, LineParser, ConcurrencyContext)}
+	 * that splits chunks of the given minimal size.
+	 */
+	ParallelCSVReader(FileInputStream in, Charset encoding, LineParser parser, ConcurrencyContext context,
+			int chunkSize) throws IOException {
+		super(in, encoding);
+		this.channel = in.getChannel();
+		this.encoding = encoding;
+		this.parser = parser;
+		this.context = context;
+		this.chunkSize = chunkSize;
+		this.pending = new byte[chunkSize];
+		this.position = channel.position();
+	}
+
+	/**
+	 * Checks whether the lines of the stream should be read by a {@link ParallelCSVReader}. This is the case for local
+	 * files of at least two chunks in a supported encoding if the context allows parallel execution.
+	 *
+	 * @param in
+	 * 		the stream to read
+	 * @param encoding
+	 * 		the encoding of the stream
+	 * @param context
+	 * 		the context for the parallel execution, can be {@code null}
+	 * @return whether to use a parallel reader
+	 */
+	static boolean isApplicable(InputStream in, Charset encoding, ConcurrencyContext context) {
+		if (context == null || context.getParallelism() < 2 || !(in instanceof FileInputStream)
+				|| !isSupported(encoding)) {
+			return false;
+		}
+		try {
+			return ((FileInputStream) in).getChannel().size() >= 2L * CHUNK_SIZE;
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Checks whether line feeds and carriage returns can be found on byte level, i.e. whether the encoding is UTF-8 or
+	 * a single byte encoding that encodes them like ASCII.
+	 *
+	 * @param encoding
+	 * 		the encoding to check
+	 * @return whether chunks can be cut at line feed and carriage return bytes
+	 */
+	static boolean isSupported(Charset encoding) {
+		if (StandardCharsets.UTF_8.equals(encoding)) {
+			return true;
+		}
+		return encoding.canEncode() && encoding.newEncoder().maxBytesPerChar() == 1
+				&& Arrays.equals("\r\n".getBytes(encoding), new byte[]{'\r', '\n'});
+	}
+
+	/**
+	 * Moves to the next line.
+	 *
+	 * @return the next line or {@code null} if there are no more lines
+	 * @throws IOException
+	 * 		if reading the file fails
+	 */
+	@Override
+	public String readLine() throws IOException {
+		while (true) {
+			if (chunkIndex < wave.size()) {
+				Chunk chunk = wave.get(chunkIndex);
+				if (++lineIndex < chunk.lines.size()) {
+					current = chunk.values.get(lineIndex);
+					return chunk.lines.get(lineIndex);
+				}
+				// release the chunk as soon as all of its lines are handed out
+				wave.set(chunkIndex, null);
+				chunkIndex++;
+				lineIndex = -1;
+			} else if (!readWave()) {
+				current = null;
+				return null;
+			}
+		}
+	}
+
+	/**
+	 * Returns the parsed values of the line returned by the last call of {@link #readLine()}.
+	 *
+	 * @return the values of the line or {@code null} if it is a comment or empty
+	 * @throws CSVParseException
+	 * 		if the line could not be parsed
+	 */
+	String[] getValues() throws CSVParseException {
+		if (current instanceof CSVParseException) {
+			throw (CSVParseException) current;
+		}
+		return (String[]) current;
+	}
+
+	/**
+	 * @return the position in the file behind the chunk of the current line
+	 */
+	@Override
+	public long getPosition() {
+		return chunkIndex < wave.size() ? wave.get(chunkIndex).end : position;
+	}
+
+	/**
+	 * Reads one chunk per thread and splits them in parallel.
+	 */
+	private boolean readWave() throws IOException {
+		wave.clear();
+		chunkIndex = 0;
+		lineIndex = -1;
+		int parallelism = context.getParallelism();
+		Chunk chunk;
+		while (wave.size() < parallelism && (chunk = readChunk()) != null) {
+			wave.add(chunk);
+		}
+		if (wave.isEmpty()) {
+			return false;
+		}
+		List<Callable<Void>> tasks = new ArrayList<>(wave.size());
+		for (Chunk waveChunk : wave) {
+			tasks.add(() -> {
+				split(waveChunk);
+				return null;
+			});
+		}
+		try {
+			context.call(tasks);
+		} catch (ExecutionException e) {
+			try {
+				throw ExecutionExceptionHandling.INSTANCE.processExecutionException(e, null);
+			} catch (OperatorException operatorException) {
+				// readers can only report I/O problems
+				throw new IOException(operatorException.getMessage(), operatorException);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Reads the next chunk of complete lines.
+	 *
+	 * @return the chunk or {@code null} at the end of the file
+	 */
+	private Chunk readChunk() throws IOException {
+		int searchFrom = 0;
+		while (true) {
+			fill();
+			if (endOfFile) {
+				if (pendingLength == 0) {
+					return null;
+				}
+				return cut(pendingLength);
+			}
+			// a carriage return at the end of the buffer might be followed by a line feed, so it cannot end the chunk
+			for (int i = pendingLength - 1; i >= searchFrom; i--) {
+				if (pending[i] == '\n' || pending[i] == '\r' && i < pendingLength - 1) {
+					return cut(i + 1);
+				}
+			}
+			// a single line longer than the buffer
+			if (pending.length >= MAX_CHUNK_SIZE) {
+				throw new IOException("Line longer than " + MAX_CHUNK_SIZE + " bytes at position " + position);
+			}
+			searchFrom = Math.max(0, pendingLength - 1);
+			pending = Arrays.copyOf(pending, (int) Math.min(2L * pending.length, MAX_CHUNK_SIZE));
+		}
+	}
+
+	/**
+	 * Reads from the channel until the pending buffer is full or the file ends.
+	 */
+	private void fill() throws IOException {
+		ByteBuffer buffer = ByteBuffer.wrap(pending, pendingLength, pending.length - pendingLength);
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer) < 0) {
+				endOfFile = true;
+				break;
+			}
+		}
+		pendingLength = buffer.position();
+	}
+
+	/**
+	 * Turns the first bytes of the pending buffer into a chunk and keeps the rest.
+	 */
+	private Chunk cut(int length) {
+		position += length;
+		Chunk chunk = new Chunk(pending, length, position);
+		pending = new byte[Math.max(chunkSize, pendingLength - length)];
+		System.arraycopy(chunk.bytes, length, pending, 0, pendingLength - length);
+		pendingLength -= length;
+		return chunk;
+	}
+
+	/**
+	 * Decodes the chunk and parses its lines. Lines end at line feeds, carriage returns or both like for a {@link
+	 * java.io.BufferedReader}.
+	 */
+	private void split(Chunk chunk) {
+		String text = new String(chunk.bytes, 0, chunk.length, encoding);
+		chunk.bytes = null;
+		List<String> lines = new ArrayList<>();
+		List<Object> values = new ArrayList<>();
+		int start = 0;
+		int length = text.length();
+		for (int i = 0; i < length; i++) {
+			char c = text.charAt(i);
+			if (c == '\n' || c == '\r') {
+				lines.add(text.substring(start, i));
+				if (c == '\r' && i + 1 < length && text.charAt(i + 1) == '\n') {
+					i++;
+				}
+				start = i + 1;
+			}
+		}
+		if (start < length) {
+			lines.add(text.substring(start));
+		}
+		for (String line : lines) {
+			values.add(parse(line));
+		}
+		chunk.values = values;
+		chunk.lines = lines;
+	}
+
+	private Object parse(String line) {
+		try {
+			return parser.parse(line);
+		} catch (CSVParseException e) {
+			return e;
+		}
+	}
+}
@@ -24,6 +24,7 @@ import java.io.Serializable;
 import java.util.AbstractCollection;
 import java.util.Date;
 import java.util.Iterator;
+import java.util.Objects;
 import java.util.Set;
 import java.util.TreeSet;
 
@@ -743,6 +744,22 @@ public class AttributeMetaData implements Serializable {
 		}
 	}
 
+	/**
+	 * Checks whether the other attribute meta data has the same content as this one, without the
+	 * owner. Used by {@link ExampleSetMetaData#hasSameContent(MetaData)}.
+	 *
+	 * @since 9.11
+	 */
+	boolean hasSameContent(AttributeMetaData other) {
+		return getClass() == AttributeMetaData.class && other.getClass() == AttributeMetaData.class
+				&& Objects.equals(name, other.name) && type == other.type && Objects.equals(role, other.role)
+				&& numberOfMissingValues.hasSameContent(other.numberOfMissingValues)
+				&& valueSetRelation == other.valueSetRelation && Objects.equals(valueRange, other.valueRange)
+				&& Objects.equals(valueSet, other.valueSet) && Objects.equals(mode, other.mode)
+				&& mean.hasSameContent(other.mean) && Objects.equals(annotations, other.annotations)
+				&& shrinkedValueSet == other.shrinkedValueSet;
+	}
+
 	/**
 	 * @deprecated since 9.8; attribute annotations might not be available in the future
 	 */
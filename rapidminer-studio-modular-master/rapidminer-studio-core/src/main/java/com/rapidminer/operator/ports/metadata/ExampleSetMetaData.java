@@ -677,6 +677,33 @@ public class ExampleSetMetaData extends MetaData {
 		return regular;
 	}
 
+	/**
+	 * Additionally compares the number of examples and all attributes in their order.
+	 *
+	 * @since 9.11
+	 */
+	@Override
+	public boolean hasSameContent(MetaData other) {
+		if (!super.hasSameContent(other)) {
+			return false;
+		}
+		ExampleSetMetaData otherMD = (ExampleSetMetaData) other;
+		if (attributesRelation != otherMD.attributesRelation || nominalDataWasShrinked != otherMD.nominalDataWasShrinked
+				|| !numberOfExamples.hasSameContent(otherMD.numberOfExamples) || attributeMetaData == null
+				|| otherMD.attributeMetaData == null || attributeMetaData.size() != otherMD.attributeMetaData.size()) {
+			return false;
+		}
+		Iterator<Map.Entry<String, AttributeMetaData>> otherAttributes = otherMD.attributeMetaData.entrySet().iterator();
+		for (Map.Entry<String, AttributeMetaData> attribute : attributeMetaData.entrySet()) {
+			Map.Entry<String, AttributeMetaData> otherAttribute = otherAttributes.next();
+			if (!attribute.getKey().equals(otherAttribute.getKey())
+					|| !attribute.getValue().hasSameContent(otherAttribute.getValue())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	/** Checks if the attribute sets are equal. */
 	public MetaDataInfo equalHeader(ExampleSetMetaData other) {
 		if (other == this) {
@@ -20,6 +20,7 @@ package com.rapidminer.operator.ports.metadata;
 
 import java.io.Serializable;
 import java.util.Arrays;
+import java.util.Objects;
 
 import com.rapidminer.tools.Tools;
 
@@ -222,6 +223,15 @@ public abstract class MDNumber<T extends Number> implements Serializable, Compar
 
 	public abstract MDNumber<T> multiply(double factor);
 
+	/**
+	 * Checks whether the other number has the same relation and the same number.
+	 *
+	 * @since 9.11
+	 */
+	boolean hasSameContent(MDNumber<?> other) {
+		return relation == other.relation && Objects.equals(number, other.number);
+	}
+
 	@Override
 	public int compareTo(MDNumber<T> other) {
 		return (int) Math.signum(this.number.doubleValue() - other.number.doubleValue());
@@ -299,6 +299,28 @@ public class MetaData implements DataSummary, Serializable {
 		return RendererService.getName(dataClass);
 	}
 
+	/**
+	 * Checks whether the other meta data has the same content as this one, without the generation
+	 * history. Two meta data objects with the same content describe the same data, which is used to
+	 * stop the meta data propagation if an operator delivers unchanged meta data. Only plain
+	 * {@link MetaData} and {@link ExampleSetMetaData} are supported, subclasses might have further
+	 * content and are never considered the same.
+	 *
+	 * @param other
+	 *            the meta data to compare to
+	 * @return {@code true} if both have the same content, {@code false} if not or if the content
+	 *         cannot be compared
+	 * @since 9.11
+	 */
+	public boolean hasSameContent(MetaData other) {
+		if (getClass() != MetaData.class && getClass() != ExampleSetMetaData.class || other == null
+				|| other.getClass() != getClass()) {
+			return false;
+		}
+		return dataClass == other.dataClass && Objects.equals(annotations, other.annotations)
+				&& Objects.equals(keyValueMap, other.keyValueMap);
+	}
+
 	/**
 	 * Returns true if isData is compatible with this meta data, where <code>this</code> represents
 	 * desired meta data and isData represents meta data that was actually delivered.
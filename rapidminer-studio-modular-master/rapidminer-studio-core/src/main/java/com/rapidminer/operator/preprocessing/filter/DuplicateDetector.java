@@ -0,0 +1,495 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.operator.preprocessing.filter;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.operator.Operator;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.studio.concurrency.internal.ExecutionExceptionHandling;
+import com.rapidminer.studio.internal.Resources;
+import com.rapidminer.tools.TempFileTools;
+import com.rapidminer.tools.math.container.CompositeKeyTable;
+
+
+/**
+ * Finds the examples that are equal to a previous example in all compare attributes. Every example
+ * is reduced to a 128 bit fingerprint of the bits of its values. The fingerprints are distributed to
+ * partitions, and the partitions are deduplicated independently with a {@link CompositeKeyTable}.
+ * Examples are only compared value by value with the first example that has the same fingerprint.
+ * <p>
+ * If more fingerprints than the memory budget allows are collected, the partitions are written to
+ * temporary files and read back one by one. Partitions and blocks of examples are processed in
+ * parallel if the example set can be read concurrently.
+ * <p>
+ * Values are equal if they have the same bits according to {@link Double#doubleToLongBits(double)}.
+ * Examples with missing values are never duplicates unless missing values are treated as equal.
+ *
+ * @since 9.11
+ */
+final class DuplicateDetector {
+
+	/** the number of examples read at once */
+	private static final int BLOCK_SIZE = 4096;
+
+	/** the number of partitions per thread to balance partitions of different size */
+	private static final int PARTITIONS_PER_THREAD = 4;
+
+	/** the number of bytes of one spilled entry: example index and fingerprint */
+	private static final int ENTRY_BYTES = Integer.BYTES + 2 * Long.BYTES;
+
+	private static final String TEMP_FILE_PREFIX = "rm_duplicates_";
+
+	private static final String TEMP_FILE_SUFFIX = ".tmp";
+
+	/** marks an example without a previous example with the same fingerprint */
+	private static final int NONE = -1;
+
+	/** The fingerprints of one partition in the order of the examples. */
+	private static final class Partition {
+
+		private int[] examples = new int[16];
+		private long[] fingerprints = new long[32];
+		private int size;
+
+		/** the file containing the entries added before the current ones or {@code null} */
+		private Path file;
+
+		private void add(int example, long first, long second) {
+			if (size == examples.length) {
+				examples = Arrays.copyOf(examples, size * 2);
+				fingerprints = Arrays.copyOf(fingerprints, size * 4);
+			}
+			examples[size] = example;
+			fingerprints[2 * size] = first;
+			fingerprints[2 * size + 1] = second;
+			size++;
+		}
+
+		private void spill() throws IOException {
+			if (size == 0) {
+				return;
+			}
+			if (file == null) {
+				file = TempFileTools.createTempFile(TEMP_FILE_PREFIX, TEMP_FILE_SUFFIX);
+			}
+			try (DataOutputStream out = new DataOutputStream(
+					new BufferedOutputStream(Files.newOutputStream(file, StandardOpenOption.APPEND)))) {
+				for (int i = 0; i < size; i++) {
+					out.writeInt(examples[i]);
+					out.writeLong(fingerprints[2 * i]);
+					out.writeLong(fingerprints[2 * i + 1]);
+				}
+			}
+			examples = new int[16];
+			fingerprints = new long[32];
+			size = 0;
+		}
+
+		/**
+		 * Reads back the spilled entries in front of the current ones.
+		 */
+		private void load() throws IOException {
+			if (file == null) {
+				return;
+			}
+			int spilled = (int) (Files.size(file) / ENTRY_BYTES);
+			int[] allExamples = new int[spilled + size];
+			long[] allFingerprints = new long[2 * (spilled + size)];
+			try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+				for (int i = 0; i < spilled; i++) {
+					allExamples[i] = in.readInt();
+					allFingerprints[2 * i] = in.readLong();
+					allFingerprints[2 * i + 1] = in.readLong();
+				}
+			} catch (EOFException e) {
+				throw new IOException("Incomplete temporary file " + file, e);
+			}
+			System.arraycopy(examples, 0, allExamples, spilled, size);
+			System.arraycopy(fingerprints, 0, allFingerprints, 2 * spilled, 2 * size);
+			examples = allExamples;
+			fingerprints = allFingerprints;
+			size += spilled;
+			delete();
+		}
+
+		private void delete() throws IOException {
+			if (file != null) {
+				Files.deleteIfExists(file);
+				file = null;
+			}
+		}
+	}
+
+	private final ExampleSet exampleSet;
+
+	private final Attribute[] attributes;
+
+	private final boolean missingsAsDuplicates;
+
+	private final int maxEntriesInMemory;
+
+	private final Operator operator;
+
+	private final ConcurrencyContext context;
+
+	private final int parallelism;
+
+	/**
+	 * Creates a detector for the given example set.
+	 *
+	 * @param exampleSet
+	 *            the example set to search
+	 * @param attributes
+	 *            the attributes to compare
+	 * @param missingsAsDuplicates
+	 *            whether missing values are equal to each other
+	 * @param maxEntriesInMemory
+	 *            the number of fingerprints kept in memory before the partitions are written to disk
+	 * @param operator
+	 *            the operator to check for stop and to provide the concurrency context
+	 */
+	DuplicateDetector(ExampleSet exampleSet, List<Attribute> attributes, boolean missingsAsDuplicates,
+			int maxEntriesInMemory, Operator operator) {
+		this(exampleSet, attributes, missingsAsDuplicates, maxEntriesInMemory, operator,
+				Resources.getConcurrencyContext(operator));
+	}
+
+	/**
+	 * Creates a detector that runs its tasks in the given context.
+	 *
+	 * @param context
+	 *            the context to run the tasks in, only used for a single thread if the example set
+	 *            cannot be read concurrently
+	 * @see #DuplicateDetector(ExampleSet, List, boolean, int, Operator)
+	 */
+	DuplicateDetector(ExampleSet exampleSet, List<Attribute> attributes, boolean missingsAsDuplicates,
+			int maxEntriesInMemory, Operator operator, ConcurrencyContext context) {
+		this.exampleSet = exampleSet;
+		this.attributes = attributes.toArray(new Attribute[0]);
+		this.missingsAsDuplicates = missingsAsDuplicates;
+		this.maxEntriesInMemory = Math.max(1, maxEntriesInMemory);
+		this.operator = operator;
+		this.context = context;
+		int threads = ExampleSets.isThreadSafe(exampleSet) ? context.getParallelism() : 1;
+		this.parallelism = Math.max(1, threads);
+	}
+
+	/**
+	 * Marks every example that is equal to a previous example.
+	 *
+	 * @return {@code true} for every duplicate example
+	 */
+	boolean[] findDuplicates() throws OperatorException {
+		int size = exampleSet.size();
+		long partitionCount = Math.max((long) parallelism * PARTITIONS_PER_THREAD,
+				((long) size * parallelism + maxEntriesInMemory - 1) / maxEntriesInMemory);
+		Partition[] partitions = new Partition[(int) Math.min(partitionCount, 1 << 16)];
+		for (int p = 0; p < partitions.length; p++) {
+			partitions[p] = new Partition();
+		}
+		try {
+			collectFingerprints(partitions);
+
+			// the first example with the same fingerprint for every example
+			int[] candidates = new int[size];
+			Arrays.fill(candidates, NONE);
+			List<Callable<Void>> tasks = new ArrayList<>();
+			for (Partition partition : partitions) {
+				tasks.add(() -> {
+					context.checkStatus();
+					try {
+						findCandidates(partition, candidates);
+					} catch (IOException e) {
+						throw createWriteError(e);
+					}
+					return null;
+				});
+			}
+			call(tasks);
+
+			return verify(candidates);
+		} catch (IOException e) {
+			throw createWriteError(e);
+		} finally {
+			for (Partition partition : partitions) {
+				try {
+					partition.delete();
+				} catch (IOException e) {
+					// the files are removed on shutdown otherwise
+				}
+			}
+		}
+	}
+
+	/**
+	 * Calculates the fingerprints block by block and distributes them to the partitions in the
+	 * order of the examples. Examples that cannot be duplicates are left out.
+	 */
+	private void collectFingerprints(Partition[] partitions) throws OperatorException, IOException {
+		int size = exampleSet.size();
+		int waveSize = parallelism * BLOCK_SIZE;
+		long inMemory = 0;
+		for (int waveStart = 0; waveStart < size; waveStart += waveSize) {
+			int waveEnd = Math.min(size, waveStart + waveSize);
+			List<Callable<long[]>> tasks = new ArrayList<>();
+			for (int start = waveStart; start < waveEnd; start += BLOCK_SIZE) {
+				int from = start;
+				int to = Math.min(waveEnd, start + BLOCK_SIZE);
+				tasks.add(() -> {
+					context.checkStatus();
+					return fingerprint(from, to);
+				});
+			}
+			int start = waveStart;
+			for (long[] fingerprints : call(tasks)) {
+				for (int i = 0; i < fingerprints.length / 2; i++) {
+					long first = fingerprints[2 * i];
+					long second = fingerprints[2 * i + 1];
+					if (first != 0 || second != 0) {
+						partitions[getPartition(first, partitions.length)].add(start + i, first, second);
+						inMemory++;
+					}
+				}
+				start += fingerprints.length / 2;
+			}
+			if (inMemory > maxEntriesInMemory) {
+				for (Partition partition : partitions) {
+					partition.spill();
+				}
+				inMemory = 0;
+			}
+			operator.checkForStop();
+		}
+	}
+
+	/**
+	 * Calculates the fingerprints of the examples from (inclusive) to (exclusive), two longs per
+	 * example. Examples that cannot be duplicates get the fingerprint 0.
+	 */
+	private long[] fingerprint(int from, int to) {
+		int length = to - from;
+		long[] fingerprints = new long[2 * length];
+		boolean[] excluded = new boolean[length];
+		Arrays.fill(fingerprints, 1);
+		double[] values = new double[length];
+		for (Attribute attribute : attributes) {
+			exampleSet.getValues(attribute, from, to, values, 0);
+			for (int i = 0; i < length; i++) {
+				double value = values[i];
+				if (!missingsAsDuplicates && Double.isNaN(value)) {
+					excluded[i] = true;
+				}
+				long bits = Double.doubleToLongBits(value);
+				fingerprints[2 * i] = mix(fingerprints[2 * i] ^ bits, 0xff51afd7ed558ccdL);
+				fingerprints[2 * i + 1] = mix(fingerprints[2 * i + 1] + bits, 0x9e3779b97f4a7c15L);
+			}
+		}
+		for (int i = 0; i < length; i++) {
+			if (excluded[i] || fingerprints[2 * i] == 0 && fingerprints[2 * i + 1] == 0) {
+				// the fingerprint 0 is reserved, an example without it is simply never a candidate
+				fingerprints[2 * i] = 0;
+				fingerprints[2 * i + 1] = 0;
+			}
+		}
+		return fingerprints;
+	}
+
+	/**
+	 * Finds the first example with the same fingerprint for every example of the partition.
+	 */
+	private void findCandidates(Partition partition, int[] candidates) throws IOException {
+		partition.load();
+		CompositeKeyTable table = new CompositeKeyTable(2);
+		int[] firstExamples = new int[16];
+		for (int i = 0; i < partition.size; i++) {
+			int groups = table.size();
+			int group = table.getOrAdd(partition.fingerprints, 2 * i);
+			if (group == groups) {
+				if (group == firstExamples.length) {
+					firstExamples = Arrays.copyOf(firstExamples, group * 2);
+				}
+				firstExamples[group] = partition.examples[i];
+			} else {
+				candidates[partition.examples[i]] = firstExamples[group];
+			}
+		}
+		partition.examples = null;
+		partition.fingerprints = null;
+		partition.size = 0;
+	}
+
+	/**
+	 * Compares the candidates value by value with their first example. Candidates that differ
+	 * despite the equal fingerprint are resolved by comparing them with all previous examples of
+	 * the same fingerprint.
+	 */
+	private boolean[] verify(int[] candidates) throws OperatorException {
+		int size = exampleSet.size();
+		boolean[] duplicates = new boolean[size];
+		boolean[] collisions = new boolean[size];
+		int waveSize = parallelism * BLOCK_SIZE;
+		for (int waveStart = 0; waveStart < size; waveStart += waveSize) {
+			int waveEnd = Math.min(size, waveStart + waveSize);
+			List<Callable<Void>> tasks = new ArrayList<>();
+			for (int start = waveStart; start < waveEnd; start += BLOCK_SIZE) {
+				int from = start;
+				int to = Math.min(waveEnd, start + BLOCK_SIZE);
+				tasks.add(() -> {
+					context.checkStatus();
+					verify(candidates, from, to, duplicates, collisions);
+					return null;
+				});
+			}
+			call(tasks);
+			operator.checkForStop();
+		}
+		resolveCollisions(candidates, duplicates, collisions);
+		return duplicates;
+	}
+
+	private void verify(int[] candidates, int from, int to, boolean[] duplicates, boolean[] collisions) {
+		int count = 0;
+		int[] rows = new int[to - from];
+		int[] firstRows = new int[to - from];
+		for (int i = from; i < to; i++) {
+			if (candidates[i] != NONE) {
+				rows[count] = i;
+				firstRows[count] = candidates[i];
+				count++;
+			}
+		}
+		if (count == 0) {
+			return;
+		}
+		rows = Arrays.copyOf(rows, count);
+		firstRows = Arrays.copyOf(firstRows, count);
+		boolean[] different = new boolean[count];
+		double[] values = new double[count];
+		double[] firstValues = new double[count];
+		for (Attribute attribute : attributes) {
+			exampleSet.getValues(attribute, rows, values, 0);
+			exampleSet.getValues(attribute, firstRows, firstValues, 0);
+			for (int c = 0; c < count; c++) {
+				if (Double.doubleToLongBits(values[c]) != Double.doubleToLongBits(firstValues[c])) {
+					different[c] = true;
+				}
+			}
+		}
+		for (int c = 0; c < count; c++) {
+			if (different[c]) {
+				collisions[rows[c]] = true;
+			} else {
+				duplicates[rows[c]] = true;
+			}
+		}
+	}
+
+	/**
+	 * Handles the examples whose fingerprint equals the one of a different example. This is
+	 * practically never the case, so they are compared one by one in the order of the examples.
+	 */
+	private void resolveCollisions(int[] candidates, boolean[] duplicates, boolean[] collisions) {
+		// the examples that were kept in spite of a colliding fingerprint, by first example
+		Map<Integer, List<Integer>> kept = new HashMap<>();
+		double[] values = new double[attributes.length];
+		for (int i = 0; i < collisions.length; i++) {
+			if (!collisions[i]) {
+				continue;
+			}
+			for (int a = 0; a < attributes.length; a++) {
+				values[a] = exampleSet.getExample(i).getValue(attributes[a]);
+			}
+			List<Integer> previous = kept.computeIfAbsent(candidates[i], key -> new ArrayList<>());
+			for (int other : previous) {
+				boolean equal = true;
+				for (int a = 0; a < attributes.length && equal; a++) {
+					equal = Double.doubleToLongBits(values[a]) == Double
+							.doubleToLongBits(exampleSet.getExample(other).getValue(attributes[a]));
+				}
+				if (equal) {
+					duplicates[i] = true;
+					break;
+				}
+			}
+			if (!duplicates[i]) {
+				previous.add(i);
+			}
+		}
+	}
+
+	private <T> List<T> call(List<Callable<T>> tasks) throws OperatorException {
+		if (parallelism == 1) {
+			List<T> results = new ArrayList<>(tasks.size());
+			for (Callable<T> task : tasks) {
+				try {
+					results.add(task.call());
+				} catch (OperatorException | RuntimeException e) {
+					throw e;
+				} catch (Exception e) {
+					throw new OperatorException(e.getMessage(), e);
+				}
+			}
+			return results;
+		}
+		try {
+			return context.call(tasks);
+		} catch (ExecutionException e) {
+			throw ExecutionExceptionHandling.INSTANCE.processExecutionException(e, operator.getProcess());
+		}
+	}
+
+	private static OperatorException createWriteError(IOException e) {
+		return new OperatorException("303", e, TEMP_FILE_PREFIX + "*" + TEMP_FILE_SUFFIX, e.getMessage());
+	}
+
+	private static int getPartition(long fingerprint, int partitions) {
+		return (int) ((fingerprint >>> 1) % partitions);
+	}
+
+	/**
+	 * Mixes the value, see the finalizer of MurmurHash3.
+	 */
+	private static long mix(long value, long multiplier) {
+		long h = value * multiplier;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		return h ^ (h >>> 33);
+	}
+
+}
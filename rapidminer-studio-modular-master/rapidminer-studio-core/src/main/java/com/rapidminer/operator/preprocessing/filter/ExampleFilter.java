@@ -245,6 +245,27 @@ public class ExampleFilter extends AbstractDataProcessing {
 		}
 	}
 
+	/**
+	 * Only the known conditions are cached. Expression conditions are excluded if the expression
+	 * reads macros, parameters, the current time or random numbers.
+	 *
+	 * @since 9.11
+	 */
+	@Override
+	public boolean isResultCacheable() {
+		try {
+			String className = getParameterAsString(PARAMETER_CONDITION_CLASS);
+			if (className.equals(ConditionedExampleSet.KNOWN_CONDITION_NAMES[ConditionedExampleSet.CONDITION_EXPRESSION])) {
+				String expression = getParameterAsString(PARAMETER_PARAMETER_EXPRESSION);
+				return expression != null && !com.rapidminer.tools.belt.expression.internal.ExpressionParserUtils
+						.isContextDependent(expression);
+			}
+			return Arrays.asList(ConditionedExampleSet.KNOWN_CONDITION_NAMES).contains(className);
+		} catch (UndefinedParameterError e) {
+			return false;
+		}
+	}
+
 	@Override
 	public List<ParameterType> getParameterTypes() {
 		List<ParameterType> types = super.getParameterTypes();
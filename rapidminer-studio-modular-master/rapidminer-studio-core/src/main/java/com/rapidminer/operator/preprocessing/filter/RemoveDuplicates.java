@@ -19,14 +19,10 @@
 package com.rapidminer.operator.preprocessing.filter;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 
 import com.rapidminer.example.Attribute;
-import com.rapidminer.example.Example;
 import com.rapidminer.example.ExampleSet;
 import com.rapidminer.example.set.Partition;
 import com.rapidminer.example.set.SplittedExampleSet;
@@ -42,6 +38,7 @@ import com.rapidminer.operator.preprocessing.AbstractDataProcessing;
 import com.rapidminer.operator.tools.AttributeSubsetSelector;
 import com.rapidminer.parameter.ParameterType;
 import com.rapidminer.parameter.ParameterTypeBoolean;
+import com.rapidminer.parameter.ParameterTypeInt;
 import com.rapidminer.parameter.UndefinedParameterError;
 import com.rapidminer.tools.OperatorResourceConsumptionHandler;
 import com.rapidminer.tools.ProcessTools;
@@ -49,7 +46,7 @@ import com.rapidminer.tools.ProcessTools;
 
 /**
  * This operator removed duplicate examples from an example set by comparing all examples with each
- * other on basis of the specified attributes.
+ * other on basis of the specified attributes. The comparison is done by the {@link DuplicateDetector}.
  * 
  * @author Ingo Mierswa, Sebastian Land, Zoltan Prekopcsak
  */
@@ -58,6 +55,13 @@ public class RemoveDuplicates extends AbstractDataProcessing {
 	/** parameter to define the handling of missing values */
 	private static final String PARAMETER_TREAT_MISSING_VALUES_AS_DUPLICATES = "treat_missing_values_as_duplicates";
 
+	/**
+	 * parameter to define the number of examples whose fingerprints are kept in memory
+	 *
+	 * @since 9.11
+	 */
+	private static final String PARAMETER_MAX_EXAMPLES_IN_MEMORY = "max_examples_in_memory";
+
 	/** The first of their kind */
 	private static final int NO_DUPLICATE = 0;
 
@@ -106,54 +110,13 @@ public class RemoveDuplicates extends AbstractDataProcessing {
 			throw new UserError(this, 153, 1, 0);
 		}
 
-		// Creating hash buckets and check in case of collision if the example is equal to any other
-		// in the bucket
-		HashMap<Integer, List<Integer>> buckets = new HashMap<>();
 		boolean missingsAsDuplicates = getParameterAsBoolean(PARAMETER_TREAT_MISSING_VALUES_AS_DUPLICATES);
-		Iterator<Example> iterator = exampleSet.iterator();
-		for (int i = 0; i < exampleSet.size(); i++) {
-			this.checkForStop();
-			Example example = iterator.next();
-			int hash = 0;
-			for (Attribute attribute : compareAttributes) {
-				long bits = Double.doubleToLongBits(example.getValue(attribute));
-				hash = hash * 31 + (int) (bits ^ bits >>> 32);
-			}
-			if (!buckets.containsKey(hash)) {
-				buckets.put(hash, Collections.singletonList(Integer.valueOf(i)));
-			} else {
-				List<Integer> bucketExampleIndicesList = buckets.get(hash);
-				for (Integer exampleIndex : bucketExampleIndicesList) {
-					boolean equal = true;
-					Example compExample = exampleSet.getExample(exampleIndex);
-					for (Attribute attribute : compareAttributes) {
-						if (missingsAsDuplicates) {
-							if (Double.isNaN(example.getValue(attribute)) && Double.isNaN(compExample.getValue(attribute))) {
-								continue;
-							}
-						}
-						if (example.getValue(attribute) != compExample.getValue(attribute)) {
-							equal = false;
-							break;
-						}
-					}
-					if (equal) {
-						partition[i] = DUPLICATE;
-					}
-				}
-				if (partition[i] == 0) { // then it is unequal with same hash value
-					if (bucketExampleIndicesList.size() == 1) {
-						// in case of a collision we have to replace the singeltonList by an
-						// extendible collection.
-						List<Integer> newList = new ArrayList<>(bucketExampleIndicesList);
-						newList.add(Integer.valueOf(i));
-						buckets.put(hash, newList);
-					} else {
-						// in this case we already have put in an ArrayList, because we had to store
-						// a second example on a previous collision
-						bucketExampleIndicesList.add(i);
-					}
-				}
+		DuplicateDetector detector = new DuplicateDetector(exampleSet, new ArrayList<>(compareAttributes),
+				missingsAsDuplicates, getParameterAsInt(PARAMETER_MAX_EXAMPLES_IN_MEMORY), this);
+		boolean[] isDuplicate = detector.findDuplicates();
+		for (int i = 0; i < partition.length; i++) {
+			if (isDuplicate[i]) {
+				partition[i] = DUPLICATE;
 			}
 		}
 
@@ -171,6 +134,26 @@ public class RemoveDuplicates extends AbstractDataProcessing {
 		return result;
 	}
 
+	/**
+	 * The duplicate detection only reads the input data and its parameters.
+	 *
+	 * @since 9.11
+	 */
+	@Override
+	public boolean isFreeOfSideEffects() {
+		return true;
+	}
+
+	/**
+	 * The remaining examples only depend on the input data and the compared attributes.
+	 *
+	 * @since 9.11
+	 */
+	@Override
+	public boolean isResultCacheable() {
+		return true;
+	}
+
 	@Override
 	public List<ParameterType> getParameterTypes() {
 		List<ParameterType> types = super.getParameterTypes();
@@ -181,6 +164,10 @@ public class RemoveDuplicates extends AbstractDataProcessing {
 		type.setExpert(false);
 		types.add(type);
 
+		types.add(new ParameterTypeInt(PARAMETER_MAX_EXAMPLES_IN_MEMORY,
+				"The number of examples whose fingerprints are kept in memory. If there are more examples, the fingerprints are written to temporary files.",
+				1000, Integer.MAX_VALUE, 10_000_000, true));
+
 		return types;
 	}
 
@@ -18,13 +18,17 @@
  */
 package com.rapidminer.operator.preprocessing.filter;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import com.rapidminer.example.Attribute;
 import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.set.ExampleSetSorter;
 import com.rapidminer.example.set.SortedExampleSet;
 import com.rapidminer.operator.OperatorDescription;
 import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.UserError;
 import com.rapidminer.operator.annotation.ResourceConsumptionEstimator;
 import com.rapidminer.operator.error.AttributeNotFoundError;
 import com.rapidminer.operator.ports.metadata.AttributeSetPrecondition;
@@ -32,6 +36,9 @@ import com.rapidminer.operator.preprocessing.AbstractDataProcessing;
 import com.rapidminer.parameter.ParameterType;
 import com.rapidminer.parameter.ParameterTypeAttribute;
 import com.rapidminer.parameter.ParameterTypeCategory;
+import com.rapidminer.parameter.ParameterTypeList;
+import com.rapidminer.parameter.ParameterTypeStringCategory;
+import com.rapidminer.studio.internal.Resources;
 import com.rapidminer.tools.OperatorResourceConsumptionHandler;
 
 
@@ -39,7 +46,12 @@ import com.rapidminer.tools.OperatorResourceConsumptionHandler;
  * <p>
  * This operator sorts the given example set according to a single attribute. The example set is
  * sorted according to the natural order of the values of this attribute either in increasing or in
- * decreasing direction.
+ * decreasing direction. Examples with the same value can be sorted further by additional
+ * attributes.
+ * </p>
+ * <p>
+ * Missing numerical values are sorted after all other values. Missing dates are sorted like the
+ * 1st of January 1970, before version 9.11 sorting by a date attribute with missing values failed.
  * </p>
  *
  * @author Ingo Mierswa
@@ -57,11 +69,20 @@ public class Sorting extends AbstractDataProcessing {
 	/** The parameter name for &quot;Indicates the direction of the sorting.&quot; */
 	public static final String PARAMETER_SORTING_DIRECTION = "sorting_direction";
 
+	/**
+	 * The parameter name for &quot;Additional attributes to sort examples with equal values.&quot;
+	 *
+	 * @since 9.11
+	 */
+	public static final String PARAMETER_ADDITIONAL_SORTING = "additional_sorting";
+
 	public Sorting(OperatorDescription description) {
 		super(description);
 
 		getExampleSetInputPort().addPrecondition(new AttributeSetPrecondition(getExampleSetInputPort(),
 				AttributeSetPrecondition.getAttributesByParameter(this, PARAMETER_ATTRIBUTE_NAME)));
+		getExampleSetInputPort().addPrecondition(new AttributeSetPrecondition(getExampleSetInputPort(),
+				AttributeSetPrecondition.getAttributesByParameterListEntry(this, PARAMETER_ADDITIONAL_SORTING, 0)));
 	}
 
 	@Override
@@ -73,11 +94,57 @@ public class Sorting extends AbstractDataProcessing {
 			throw new AttributeNotFoundError(this, PARAMETER_ATTRIBUTE_NAME, getParameterAsString(PARAMETER_ATTRIBUTE_NAME));
 		}
 
-		ExampleSet result = new SortedExampleSet(exampleSet, sortingAttribute, sortingDirection, getProgress());
+		List<Attribute> sortingAttributes = new ArrayList<>();
+		List<Integer> sortingDirections = new ArrayList<>();
+		sortingAttributes.add(sortingAttribute);
+		sortingDirections.add(sortingDirection);
+		if (isParameterSet(PARAMETER_ADDITIONAL_SORTING)) {
+			for (String[] pair : getParameterList(PARAMETER_ADDITIONAL_SORTING)) {
+				Attribute attribute = exampleSet.getAttributes().get(pair[0]);
+				if (attribute == null) {
+					throw new AttributeNotFoundError(this, PARAMETER_ADDITIONAL_SORTING, pair[0]);
+				}
+				int direction = Arrays.asList(SortedExampleSet.SORTING_DIRECTIONS).indexOf(pair[1]);
+				if (direction < 0) {
+					throw new UserError(this, 207, pair[1], PARAMETER_ADDITIONAL_SORTING,
+							"the direction must be one of " + Arrays.toString(SortedExampleSet.SORTING_DIRECTIONS));
+				}
+				sortingAttributes.add(attribute);
+				sortingDirections.add(direction);
+			}
+		}
+		int[] directions = new int[sortingDirections.size()];
+		for (int i = 0; i < directions.length; i++) {
+			directions[i] = sortingDirections.get(i);
+		}
+
+		int[] mapping = ExampleSetSorter.createSortedMapping(exampleSet, sortingAttributes, directions,
+				Resources.getConcurrencyContext(this), getProgress());
+		ExampleSet result = new SortedExampleSet(exampleSet, mapping);
 
 		return result;
 	}
 
+	/**
+	 * Sorting only reads the input data and its parameters.
+	 *
+	 * @since 9.11
+	 */
+	@Override
+	public boolean isFreeOfSideEffects() {
+		return true;
+	}
+
+	/**
+	 * The sort order only depends on the input data and the parameters.
+	 *
+	 * @since 9.11
+	 */
+	@Override
+	public boolean isResultCacheable() {
+		return true;
+	}
+
 	@Override
 	public List<ParameterType> getParameterTypes() {
 		List<ParameterType> types = super.getParameterTypes();
@@ -86,6 +153,14 @@ public class Sorting extends AbstractDataProcessing {
 				false));
 		types.add(new ParameterTypeCategory(PARAMETER_SORTING_DIRECTION, "Indicates the direction of the sorting.",
 				SortedExampleSet.SORTING_DIRECTIONS, SortedExampleSet.INCREASING, false));
+		types.add(new ParameterTypeList(PARAMETER_ADDITIONAL_SORTING,
+				"Additional attributes to sort examples with equal values, in the order of their importance.",
+				new ParameterTypeAttribute(PARAMETER_ATTRIBUTE_NAME, "The attribute to sort by.",
+						getExampleSetInputPort(), false, false),
+				new ParameterTypeStringCategory(PARAMETER_SORTING_DIRECTION, "The direction of the sorting.",
+						SortedExampleSet.SORTING_DIRECTIONS, SortedExampleSet.SORTING_DIRECTIONS[SortedExampleSet.INCREASING],
+						false),
+				true));
 		return types;
 	}
 
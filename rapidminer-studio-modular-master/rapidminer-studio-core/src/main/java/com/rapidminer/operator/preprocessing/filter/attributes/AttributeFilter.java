@@ -99,6 +99,26 @@ public class AttributeFilter extends AbstractFeatureSelection {
 		return exampleSet;
 	}
 
+	/**
+	 * The attribute selection only reads the input data and its parameters.
+	 *
+	 * @since 9.11
+	 */
+	@Override
+	public boolean isFreeOfSideEffects() {
+		return true;
+	}
+
+	/**
+	 * The selected attributes only depend on the input data and the filter parameters.
+	 *
+	 * @since 9.11
+	 */
+	@Override
+	public boolean isResultCacheable() {
+		return true;
+	}
+
 	@Override
 	public List<ParameterType> getParameterTypes() {
 		List<ParameterType> types = super.getParameterTypes();
@@ -20,18 +20,15 @@ package com.rapidminer.operator.preprocessing.join;
 
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
+import java.util.function.IntToDoubleFunction;
 
 import com.rapidminer.example.Attribute;
 import com.rapidminer.example.AttributeRole;
 import com.rapidminer.example.Attributes;
-import com.rapidminer.example.Example;
 import com.rapidminer.example.ExampleSet;
 import com.rapidminer.example.table.NominalMapping;
 import com.rapidminer.example.utils.ExampleSetBuilder;
@@ -39,7 +36,6 @@ import com.rapidminer.example.utils.ExampleSets;
 import com.rapidminer.operator.OperatorDescription;
 import com.rapidminer.operator.OperatorException;
 import com.rapidminer.operator.ProcessSetupError.Severity;
-import com.rapidminer.operator.ProcessStoppedException;
 import com.rapidminer.operator.SimpleProcessSetupError;
 import com.rapidminer.operator.UserError;
 import com.rapidminer.operator.annotation.ResourceConsumptionEstimator;
@@ -206,67 +202,136 @@ public class ExampleSetJoin extends AbstractExampleSetJoin {
 	protected ExampleSetBuilder joinData(ExampleSet leftExampleSet, ExampleSet rightExampleSet,
 			List<AttributeSource> originalAttributeSources, List<Attribute> unionAttributeList) throws OperatorException {
 		int joinType = getParameterAsInt(PARAMETER_JOIN_TYPE);
-		leftExampleSet.remapIds();
-		rightExampleSet.remapIds();
 
 		// the attributes that are used in the left and the right table as key attributes:
 
 		Pair<Attribute[], Attribute[]> keyAttributes = getKeyAttributes(leftExampleSet, rightExampleSet);
-		copyMappings(joinType, keyAttributes, unionAttributeList);
+		if (joinType == JOIN_TYPE_RIGHT || joinType == JOIN_TYPE_OUTER) {
+			// values of right only occurrences might be added to the mappings of the union attributes
+			copyUnionMappings(keyAttributes, unionAttributeList);
+		}
 
+		getProgress().setTotal(2);
+		int[] leftRows;
+		int[] rightRows;
 		switch (joinType) {
 			case JOIN_TYPE_INNER:
-				getProgress().setTotal(leftExampleSet.size());
-				return performInnerJoin(leftExampleSet, rightExampleSet, originalAttributeSources, unionAttributeList,
-						keyAttributes);
 			case JOIN_TYPE_LEFT:
-				getProgress().setTotal(leftExampleSet.size());
-				return performLeftJoin(leftExampleSet, rightExampleSet, originalAttributeSources, unionAttributeList,
-						keyAttributes, null);
-			case JOIN_TYPE_RIGHT:
-				getProgress().setTotal(rightExampleSet.size());
-				return performRightJoin(leftExampleSet, rightExampleSet, originalAttributeSources, unionAttributeList,
-						keyAttributes);
 			case JOIN_TYPE_OUTER:
-				getProgress().setTotal(leftExampleSet.size() + rightExampleSet.size());
-				return performOuterJoin(leftExampleSet, rightExampleSet, originalAttributeSources, unionAttributeList,
-						keyAttributes);
+				HashJoinEngine.JoinResult result = new HashJoinEngine(this, leftExampleSet, keyAttributes.getFirst(),
+						rightExampleSet, keyAttributes.getSecond()).join(joinType != JOIN_TYPE_INNER,
+								joinType == JOIN_TYPE_OUTER);
+				leftRows = result.getProbeRows();
+				rightRows = result.getBuildRows();
+				break;
+			case JOIN_TYPE_RIGHT:
+				result = new HashJoinEngine(this, rightExampleSet, keyAttributes.getSecond(), leftExampleSet,
+						keyAttributes.getFirst()).join(true, false);
+				leftRows = result.getBuildRows();
+				rightRows = result.getProbeRows();
+				break;
 			default:
 				assert false;	// illegal join type
 				return null;
 		}
+		getProgress().setCompleted(1);
+
+		return createUnionBuilder(leftExampleSet, rightExampleSet, originalAttributeSources, unionAttributeList,
+				keyAttributes, leftRows, rightRows);
 	}
 
 	/**
-	 * Checks if the mappings of the keyAttributes or their corresponding unionAttributes need to be copied depending on
-	 * the joinType.
+	 * Creates the builder for the joined example set. The values are written column by column from
+	 * the matching rows.
 	 *
-	 * @param joinType
-	 *            the type of the join
-	 * @param keyAttributes
-	 *            the attributes to copy
-	 * @param unionAttributes
-	 *            the final attributes of the joined set
+	 * @param leftRows
+	 *            the left row for every result row or {@link HashJoinEngine#NO_MATCH} for right only
+	 *            occurrences
+	 * @param rightRows
+	 *            the right row for every result row or {@link HashJoinEngine#NO_MATCH} for left only
+	 *            occurrences
 	 */
-	private void copyMappings(int joinType, Pair<Attribute[], Attribute[]> keyAttributes,
-			List<Attribute> unionAttributes) {
-		// for right and outer the method addRightOnlyOccurences is called which might change the mappings of the union
-		// attribute corresponding to the left keyAttribute
-		if (joinType == JOIN_TYPE_RIGHT || joinType == JOIN_TYPE_OUTER) {
-			copyUnionMappings(keyAttributes, unionAttributes);
-		}
+	private ExampleSetBuilder createUnionBuilder(ExampleSet leftExampleSet, ExampleSet rightExampleSet,
+			List<AttributeSource> originalAttributeSources, List<Attribute> unionAttributeList,
+			Pair<Attribute[], Attribute[]> keyAttributes, int[] leftRows, int[] rightRows) throws OperatorException {
+		ExampleSetBuilder builder = ExampleSets.from(unionAttributeList).withBlankSize(leftRows.length);
+		boolean keepBoth = getParameterAsBoolean(PARAMETER_KEEP_BOTH_JOIN_ATTRIBUTES);
+		boolean removeDoubleAttributes = getParameterAsBoolean(PARAMETER_REMOVE_DOUBLE_ATTRIBUTES);
+		Attribute[] leftKeyAttributes = keyAttributes.getFirst();
+		Attribute[] rightKeyAttributes = keyAttributes.getSecond();
 
-		// no id is used and inner or left then createKeyMapping(right,left) is called and left keyAttribute mappings
-		// changed, outer calls left
-		boolean useId = getParameterAsBoolean(PARAMETER_USE_ID);
-		if (!useId && (joinType == JOIN_TYPE_INNER || joinType == JOIN_TYPE_LEFT || joinType == JOIN_TYPE_OUTER)) {
-			copyMappings(keyAttributes, true);
+		Iterator<Attribute> unionIterator = unionAttributeList.iterator();
+		for (AttributeSource attributeSource : originalAttributeSources) {
+			Attribute unionAttribute = unionIterator.next();
+			Attribute sourceAttribute = attributeSource.getAttribute();
+			if (attributeSource.getSource() == AttributeSource.SECOND_SOURCE) {
+				builder.withColumnFiller(unionAttribute, createColumnFiller(rightExampleSet, sourceAttribute, rightRows));
+				continue;
+			}
+			IntToDoubleFunction leftValues = createColumnFiller(leftExampleSet, sourceAttribute, leftRows);
+
+			// since keys attributes are always taken from left example set, the value of right only
+			// occurrences must be fetched from right example set explicitly
+			int id = -1;
+			for (int i = 0; i < leftKeyAttributes.length; ++i) {
+				if (sourceAttribute == leftKeyAttributes[i]) {
+					id = i;
+					break;
+				}
+			}
+			boolean sameName = id >= 0 && leftKeyAttributes[id].getName().equals(rightKeyAttributes[id].getName());
+			if (id < 0 || keepBoth && !(removeDoubleAttributes && sameName)) {
+				builder.withColumnFiller(unionAttribute, leftValues);
+				continue;
+			}
+			IntToDoubleFunction rightValues = createColumnFiller(rightExampleSet, rightKeyAttributes[id], rightRows);
+			if (leftKeyAttributes[id].isNominal()) {
+				// consider different mapping in left and right attribute
+				rightValues = createRemappingFiller(rightValues, rightKeyAttributes[id].getMapping(), unionAttribute);
+			}
+			IntToDoubleFunction rightOnlyValues = rightValues;
+			builder.withColumnFiller(unionAttribute,
+					row -> leftRows[row] == HashJoinEngine.NO_MATCH ? rightOnlyValues.applyAsDouble(row)
+							: leftValues.applyAsDouble(row));
 		}
+		return builder;
+	}
 
-		// no id is used and right then createKeyMapping(left,right) is called and right keyAttribute mappings changed
-		if (!useId && joinType == JOIN_TYPE_RIGHT) {
-			copyMappings(keyAttributes, false);
-		}
+	/**
+	 * Creates a function reading the values of the attribute from the given rows of the example set.
+	 * Missing rows result in missing values.
+	 */
+	private static IntToDoubleFunction createColumnFiller(ExampleSet exampleSet, Attribute attribute, int[] rows) {
+		return row -> {
+			int sourceRow = rows[row];
+			return sourceRow == HashJoinEngine.NO_MATCH ? Double.NaN
+					: exampleSet.getExample(sourceRow).getValue(attribute);
+		};
+	}
+
+	/**
+	 * Wraps the function so that the nominal indices of the source mapping are translated to the
+	 * mapping of the target attribute. Unknown values are added to the target mapping in the order
+	 * they appear.
+	 */
+	private static IntToDoubleFunction createRemappingFiller(IntToDoubleFunction values, NominalMapping sourceMapping,
+			Attribute targetAttribute) {
+		int[] targetIndices = new int[sourceMapping.size()];
+		Arrays.fill(targetIndices, -1);
+		return row -> {
+			double value = values.applyAsDouble(row);
+			if (Double.isNaN(value)) {
+				return value;
+			}
+			int sourceIndex = (int) value;
+			if (sourceIndex >= targetIndices.length) {
+				return targetAttribute.getMapping().mapString(sourceMapping.mapIndex(sourceIndex));
+			}
+			if (targetIndices[sourceIndex] < 0) {
+				targetIndices[sourceIndex] = targetAttribute.getMapping().mapString(sourceMapping.mapIndex(sourceIndex));
+			}
+			return targetIndices[sourceIndex];
+		};
 	}
 
 	/**
@@ -308,25 +373,6 @@ public class ExampleSetJoin extends AbstractExampleSetJoin {
 		return null;
 	}
 
-	/**
-	 * Copies the mappings of either the left or the right key attributes.
-	 *
-	 * @param keyAttributes
-	 *            the key-attributes to copy
-	 * @param left
-	 *            if true the left key attributes are copied, otherwise the right
-	 */
-	private void copyMappings(Pair<Attribute[], Attribute[]> keyAttributes, boolean left) {
-		Attribute[] copyAttributes = left ? keyAttributes.getFirst() : keyAttributes.getSecond();
-		for (Attribute attribute : copyAttributes) {
-			if (attribute.isNominal()) {
-				NominalMapping newMapping = (NominalMapping) attribute.getMapping().clone();
-				attribute.setMapping(newMapping);
-			}
-		}
-
-	}
-
 	/**
 	 * Returns a Pair that contains two arrays of attributes of equals lenghts. Attributes in these arrays with the same
 	 * index resemble attributes which must be equal during the join operation to match an example. Only if all key
@@ -397,425 +443,6 @@ public class ExampleSetJoin extends AbstractExampleSetJoin {
 		return false;
 	}
 
-	/**
-	 * Performs an inner join, i.e. the result table contains all examples from the source example
-	 * sets whose key attributes match.
-	 *
-	 */
-	private ExampleSetBuilder performInnerJoin(ExampleSet leftExampleSet, ExampleSet rightExampleSet,
-			List<AttributeSource> originalAttributeSources, List<Attribute> unionAttributeList,
-			Pair<Attribute[], Attribute[]> keyAttributes) throws ProcessStoppedException {
-		ExampleSetBuilder builder = ExampleSets.from(unionAttributeList);
-
-		Attribute[] leftKeyAttributes = null;
-		Attribute[] rightKeyAttributes = null;
-		Map<DoubleArrayWrapper, List<Example>> rightKeyMapping = null;
-		boolean useId = getParameterAsBoolean(PARAMETER_USE_ID);
-
-		if (!useId) {
-			// create key mapping for right example set
-			leftKeyAttributes = keyAttributes.getFirst();
-			rightKeyAttributes = keyAttributes.getSecond();
-			rightKeyMapping = createKeyMapping(rightExampleSet, rightKeyAttributes, leftKeyAttributes);
-		}
-
-		int progressCounter = 0;
-		// iterate over all example from left table and search for matching examples in right table:
-		for (Example leftExample : leftExampleSet) {
-
-			List<Example> matchingRightExamples = getMatchingExamples(leftExampleSet, rightExampleSet, leftKeyAttributes,
-					rightKeyMapping, useId, leftExample);
-
-			if (matchingRightExamples != null) {
-				for (Example rightExample : matchingRightExamples) {
-					addCombinedOccurence(originalAttributeSources, unionAttributeList, builder, leftExample, rightExample);
-				}
-			}
-
-			// trigger operator progress every 100 examples
-			++progressCounter;
-			if (progressCounter % 100 == 0) {
-				getProgress().step(100);
-				progressCounter = 0;
-			}
-		}
-		return builder;
-	}
-
-	/**
-	 * Performs a left join.
-	 *
-	 */
-	private ExampleSetBuilder performLeftJoin(ExampleSet leftExampleSet, ExampleSet rightExampleSet,
-			List<AttributeSource> originalAttributeSources, List<Attribute> unionAttributeList,
-			Pair<Attribute[], Attribute[]> keyAttributes, Set<DoubleArrayWrapper> matchedExamplesInRightTable)
-					throws ProcessStoppedException {
-		ExampleSetBuilder builder = ExampleSets.from(unionAttributeList);
-
-		Attribute[] leftKeyAttributes = null;
-		Attribute[] rightKeyAttributes = null;
-		Map<DoubleArrayWrapper, List<Example>> rightKeyMapping = null;
-		boolean useId = getParameterAsBoolean(PARAMETER_USE_ID);
-
-		leftKeyAttributes = keyAttributes.getFirst();
-		rightKeyAttributes = keyAttributes.getSecond();
-		if (!useId) {
-			// create key mapping for right example set
-			rightKeyMapping = createKeyMapping(rightExampleSet, rightKeyAttributes, leftKeyAttributes);
-		}
-
-		int progressCounter = 0;
-		// iterate over all example from left table and search for matching examples in right table:
-		for (Example leftExample : leftExampleSet) {
-			List<Example> matchingRightExamples = getMatchingExamples(leftExampleSet, rightExampleSet, leftKeyAttributes,
-					rightKeyMapping, useId, leftExample);
-
-			if (matchingRightExamples != null) {
-				// add combination of left example and all matching right examples
-				for (Example rightExample : matchingRightExamples) {
-					addCombinedOccurence(originalAttributeSources, unionAttributeList, builder, leftExample, rightExample);
-					if (matchedExamplesInRightTable != null) {
-						matchedExamplesInRightTable
-						.add(new DoubleArrayWrapper(getKeyValues(rightExample, rightKeyAttributes)));
-					}
-				}
-			} else { // no rows with this key in right table
-				// insert this row with null values for the right table
-				addLeftOnlyOccurence(originalAttributeSources, unionAttributeList, builder, leftExample);
-			}
-			// trigger operator progress every 100 examples
-			++progressCounter;
-			if (progressCounter % 100 == 0) {
-				getProgress().step(100);
-				progressCounter = 0;
-			}
-		}
-		return builder;
-	}
-
-	/**
-	 * Performs a right join.
-	 *
-	 */
-	private ExampleSetBuilder performRightJoin(ExampleSet leftExampleSet, ExampleSet rightExampleSet,
-			List<AttributeSource> originalAttributeSources, List<Attribute> unionAttributeList,
-			Pair<Attribute[], Attribute[]> keyAttributes) throws ProcessStoppedException {
-		ExampleSetBuilder builder = ExampleSets.from(unionAttributeList);
-
-		Attribute[] leftKeyAttributes = null;
-		Attribute[] rightKeyAttributes = null;
-		Map<DoubleArrayWrapper, List<Example>> leftKeyMapping = null;
-		boolean useId = getParameterAsBoolean(PARAMETER_USE_ID);
-
-		Attribute leftIdAttribute = null;
-		Attribute rightIdAttribute = null;
-		if (useId) {
-			// needed for getting the right id when adding examples which occur only in right table
-			leftIdAttribute = leftExampleSet.getAttributes().getId();
-			rightIdAttribute = rightExampleSet.getAttributes().getId();
-			leftKeyAttributes = new Attribute[] { leftIdAttribute };
-			rightKeyAttributes = new Attribute[] { rightIdAttribute };
-		} else {
-			// create key mapping for right example set
-			leftKeyAttributes = keyAttributes.getFirst();
-			rightKeyAttributes = keyAttributes.getSecond();
-			leftKeyMapping = createKeyMapping(leftExampleSet, leftKeyAttributes, rightKeyAttributes);
-		}
-
-		boolean keepBoth = getParameterAsBoolean(PARAMETER_KEEP_BOTH_JOIN_ATTRIBUTES);
-		boolean removeDoubleAttributes = getParameterAsBoolean(PARAMETER_REMOVE_DOUBLE_ATTRIBUTES);
-
-		int progressCounter = 0;
-		// iterate over all example from left table and search for matching examples in right table:
-		for (Example rightExample : rightExampleSet) {
-			List<Example> matchingLeftExamples = getMatchingExamples(rightExampleSet, leftExampleSet, rightKeyAttributes,
-					leftKeyMapping, useId, rightExample);
-
-			if (matchingLeftExamples != null) {
-				// add combination of left example and all matching right examples
-				for (Example leftExample : matchingLeftExamples) {
-					addCombinedOccurence(originalAttributeSources, unionAttributeList, builder, leftExample, rightExample);
-				}
-			} else {
-				addRightOnlyOccurence(originalAttributeSources, unionAttributeList, builder, rightExample, leftKeyAttributes,
-						rightKeyAttributes, keepBoth, removeDoubleAttributes);
-			}
-			// trigger operator progress every 100 examples
-			++progressCounter;
-			if (progressCounter % 100 == 0) {
-				getProgress().step(100);
-				progressCounter = 0;
-			}
-		}
-		return builder;
-	}
-
-	/**
-	 * Performs an outer join (not to be confused with a full outer join).
-	 *
-	 */
-	private ExampleSetBuilder performOuterJoin(ExampleSet leftExampleSet, ExampleSet rightExampleSet,
-			List<AttributeSource> originalAttributeSources, List<Attribute> unionAttributeList,
-			Pair<Attribute[], Attribute[]> keyAttributes) throws ProcessStoppedException {
-		ExampleSetBuilder builder;
-
-		Attribute[] leftKeyAttributes = keyAttributes.getFirst();
-		Attribute[] rightKeyAttributes = keyAttributes.getSecond();
-
-		// perform left join (an outer join is the union of a left join and a right join on the same
-		// tables)
-		Set<DoubleArrayWrapper> mappedRightExamples = new HashSet<>();
-		builder = performLeftJoin(leftExampleSet, rightExampleSet, originalAttributeSources, unionAttributeList,
-				keyAttributes, mappedRightExamples);
-
-		boolean keepBoth = getParameterAsBoolean(PARAMETER_KEEP_BOTH_JOIN_ATTRIBUTES);
-		boolean removeDoubleAttributes = getParameterAsBoolean(PARAMETER_REMOVE_DOUBLE_ATTRIBUTES);
-		int progressCounter = 0;
-		for (Example rightExample : rightExampleSet) {
-			// perform right join, but add example only if it has not been matched during left join
-			// above
-			if (!mappedRightExamples.contains(new DoubleArrayWrapper(getKeyValues(rightExample, rightKeyAttributes)))) {
-				addRightOnlyOccurence(originalAttributeSources, unionAttributeList, builder, rightExample, leftKeyAttributes,
-						rightKeyAttributes, keepBoth, removeDoubleAttributes);
-			}
-			// trigger operator progress every 100 examples
-			++progressCounter;
-			if (progressCounter % 100 == 0) {
-				getProgress().step(100);
-				progressCounter = 0;
-			}
-		}
-		return builder;
-	}
-
-	/**
-	 * Creates an example which consists of the combination of leftExample an rightExample. Only
-	 * those attributes are added, which are present in originalAttributeSources. The newly
-	 * constructed example is added to unionTable.
-	 */
-	private void addCombinedOccurence(List<AttributeSource> originalAttributeSources, List<Attribute> unionAttributeList,
-			ExampleSetBuilder builder, Example leftExample, Example rightExample) {
-		double[] unionDataRow = new double[unionAttributeList.size()];
-		int attributeIndex = 0;
-		for (AttributeSource attributeSource : originalAttributeSources) {
-			if (attributeSource.getSource() == AttributeSource.FIRST_SOURCE) {
-				unionDataRow[attributeIndex] = leftExample.getValue(attributeSource.getAttribute());
-			} else if (attributeSource.getSource() == AttributeSource.SECOND_SOURCE) {
-				unionDataRow[attributeIndex] = rightExample.getValue(attributeSource.getAttribute());
-			}
-			attributeIndex++;
-		}
-		builder.addRow(unionDataRow);
-	}
-
-	/**
-	 * Creates an example and adds it to unionTable. The example contains all attributes from
-	 * leftExample, which are also in originalAttributeSources, and NaN for all attributes which
-	 * should normally be taken from a right example.
-	 */
-	private void addLeftOnlyOccurence(List<AttributeSource> originalAttributeSources, List<Attribute> unionAttributeList,
-			ExampleSetBuilder builder, Example leftExample) {
-		double[] unionDataRow = new double[unionAttributeList.size()];
-		int attributeIndex = 0;
-		for (AttributeSource attributeSource : originalAttributeSources) {
-			if (attributeSource.getSource() == AttributeSource.FIRST_SOURCE) {
-				unionDataRow[attributeIndex] = leftExample.getValue(attributeSource.getAttribute());
-			} else if (attributeSource.getSource() == AttributeSource.SECOND_SOURCE) {
-				unionDataRow[attributeIndex] = Double.NaN;
-			}
-			attributeIndex++;
-		}
-		builder.addRow(unionDataRow);
-	}
-
-	/**
-	 * Creates an example and adds it to unionTable. The example contains all attributes from
-	 * rightExample, which are also in originalAttributeSources, and NaN for all attributes which
-	 * should normally be taken from a left example. Exception: if key attributes would be taken
-	 * from left example and only one id attribute is kept, instead of NaN the value of the
-	 * corresponding attribute in rightExample is taken.
-	 */
-	private void addRightOnlyOccurence(List<AttributeSource> originalAttributeSources, List<Attribute> unionAttributeList,
-			ExampleSetBuilder builder, Example rightExample, Attribute[] leftKeyAttributes, Attribute[] rightKeyAttributes,
-			boolean keepBoth, boolean removeDoubleAttributes) {
-		double[] unionDataRow = new double[unionAttributeList.size()];
-		int attributeIndex = 0;
-		Iterator<Attribute> unionIterator = unionAttributeList.iterator();
-		for (AttributeSource attributeSource : originalAttributeSources) {
-			Attribute unionAttribute = unionIterator.next();
-			if (attributeSource.getSource() == AttributeSource.FIRST_SOURCE) {
-				// since keys attributes are always taken from left example set, ID value must be
-				// fetched
-				// from right example set explicitly
-
-				// find key id
-				int id = -1;
-				for (int i = 0; i < leftKeyAttributes.length; ++i) {
-					if (attributeSource.getAttribute() == leftKeyAttributes[i]) {
-						id = i;
-						break;
-					}
-				}
-
-				// now use correct key attribute
-				if (id >= 0) {
-					boolean sameName = leftKeyAttributes[id].getName().equals(rightKeyAttributes[id].getName());
-					if (keepBoth && !(removeDoubleAttributes && sameName)) {
-						unionDataRow[attributeIndex] = Double.NaN;
-					} else {
-						if (leftKeyAttributes[id].isNominal()) {
-							// consider different mapping in left and right attribute
-							Attribute rightAttribute = rightKeyAttributes[id];
-							int rightIndex = (int) rightExample.getValue(rightAttribute);
-							String valueAsString = rightAttribute.getMapping().mapIndex(rightIndex);
-							int leftIndex = unionAttribute.getMapping().mapString(valueAsString);
-							unionDataRow[attributeIndex] = leftIndex;
-						} else {
-							unionDataRow[attributeIndex] = rightExample.getValue(rightKeyAttributes[id]);
-						}
-					}
-				} else {
-					unionDataRow[attributeIndex] = Double.NaN;
-				}
-			} else if (attributeSource.getSource() == AttributeSource.SECOND_SOURCE) {
-				unionDataRow[attributeIndex] = rightExample.getValue(attributeSource.getAttribute());
-			}
-			attributeIndex++;
-		}
-		builder.addRow(unionDataRow);
-	}
-
-	/**
-	 * Maps all values of the keyAttributes which occur in exampleSet to a list of matching
-	 * examples.
-	 *
-	 * @param exampleSet
-	 *            The example set for whose key attributes the mapping is created
-	 * @param keyAttributes
-	 *            the attributes which resemble the key attributes
-	 * @param matchKeyAttributes
-	 *            if not null, the values of nominal keyAttributes are mapped to match the mapping
-	 *            of these attributes prior to adding them to the map
-	 * @return
-	 */
-	private Map<DoubleArrayWrapper, List<Example>> createKeyMapping(ExampleSet exampleSet, Attribute[] keyAttributes,
-			Attribute[] matchKeyAttributes) {
-		Map<DoubleArrayWrapper, List<Example>> keyMapping = new HashMap<>();
-
-		assert keyAttributes.length == matchKeyAttributes.length;
-
-		// create mapping from nominal values of keyAttributes to matchKeyAttributes
-		Map<Attribute, Map<Double, Double>> valueMapping = null;
-		if (matchKeyAttributes != null) {
-			valueMapping = new HashMap<>();
-			for (int attributeNumber = 0; attributeNumber < keyAttributes.length; ++attributeNumber) {
-				if (keyAttributes[attributeNumber].isNominal()) {
-					Map<Double, Double> valueMap = new HashMap<>();
-					// TODO: iterate over getMappint().values() rather than relying on the
-					// assumption that values appear in increasing order
-					for (int valueNumber = 0; valueNumber < keyAttributes[attributeNumber].getMapping()
-							.size(); ++valueNumber) {
-						String valueString = keyAttributes[attributeNumber].getMapping().mapIndex(valueNumber);
-						valueMap.put((double) valueNumber,
-								(double) matchKeyAttributes[attributeNumber].getMapping().mapString(valueString));
-					}
-					valueMapping.put(keyAttributes[attributeNumber], valueMap);
-				}
-			}
-		}
-
-		double[] keyValues;
-
-		for (Example example : exampleSet) {
-			boolean continueIteration = false;
-			// fetch key values from example
-			keyValues = getKeyValues(example, keyAttributes);
-			if (valueMapping != null) {
-				// remap keyValues to match values of other attributes:
-				for (int i = 0; i < keyValues.length; ++i) {
-					if (Double.isNaN(keyValues[i])) {
-						continueIteration = true;
-						break;
-					}
-					if (keyAttributes[i].isNominal()) {
-						keyValues[i] = valueMapping.get(keyAttributes[i]).get(keyValues[i]);
-					}
-				}
-				if (continueIteration) {
-					continue;
-				}
-
-			}
-
-			// check if this key is in keyMapping. If not, add:
-			List<Example> keyExamples = keyMapping.get(new DoubleArrayWrapper(keyValues));
-			if (keyExamples != null) {
-				// add current example:
-				keyExamples.add(example);
-			} else {
-				// create set and add to keyMapping:
-				keyExamples = new LinkedList<>();
-				keyExamples.add(example);
-				keyMapping.put(new DoubleArrayWrapper(keyValues), keyExamples);
-			}
-		}
-		return keyMapping;
-	}
-
-	/**
-	 * Gets examples from secondExampleSet which match the values of the keyAttributes from
-	 * firstExample. If PARAMETER_USE_ID_FOR_JOIN is true, the standard id-mapping of example sets
-	 * is used. If not, secondKeyMapping is used (@see createKeyMapping())
-	 *
-	 */
-	private List<Example> getMatchingExamples(ExampleSet firstExampleSet, ExampleSet secondExampleSet,
-			Attribute[] firstKeyAttributes, Map<DoubleArrayWrapper, List<Example>> secondKeyMapping, boolean useId,
-			Example referenceExample) {
-		// find right examples matching current left example:
-		List<Example> matchingExamples = null;
-		if (useId) {
-			// use existent id mapping of right example set
-			Attribute firstIdAttribute = firstExampleSet.getAttributes().getId();
-			Attribute secondIdAttribute = secondExampleSet.getAttributes().getId();
-			double firstIdValue = referenceExample.getValue(firstIdAttribute);
-			// firstIdValue is NaN if the first value in the id column is a missing value
-			if (Double.isNaN(firstIdValue)) {
-				return null;
-			}
-			int[] matchingExampleIndices = null;
-			if (firstIdAttribute.isNominal()) {
-				matchingExampleIndices = secondExampleSet.getExampleIndicesFromId(
-						secondIdAttribute.getMapping().getIndex(firstIdAttribute.getMapping().mapIndex((int) firstIdValue)));
-			} else {
-				matchingExampleIndices = secondExampleSet.getExampleIndicesFromId(firstIdValue);
-			}
-			if (matchingExampleIndices != null) {
-				matchingExamples = new LinkedList<>();
-				for (int secondExampleIndex : matchingExampleIndices) {
-					Example matchingExample = secondExampleSet.getExample(secondExampleIndex);
-					matchingExamples.add(matchingExample);
-				}
-			}
-		} else {
-			// use previously created mapping
-			double[] leftKeyValues = getKeyValues(referenceExample, firstKeyAttributes);
-			matchingExamples = secondKeyMapping.get(new DoubleArrayWrapper(leftKeyValues));
-		}
-		return matchingExamples;
-	}
-
-	/**
-	 * Returns an array of doubles, which contains the values of the keyAttributes of example.
-	 */
-	private double[] getKeyValues(Example example, Attribute[] keyAttributes) {
-		int numKeys = keyAttributes.length;
-		double[] keyValues = new double[numKeys];
-		for (int i = 0; i < numKeys; ++i) {
-			keyValues[i] = example.getValue(keyAttributes[i]);
-		}
-		return keyValues;
-	}
-
 	/**
 	 * Returns all attributes from the right example which are key attributes.
 	 *
@@ -866,6 +493,26 @@ public class ExampleSetJoin extends AbstractExampleSetJoin {
 		return getParameterAsBoolean(PARAMETER_USE_ID);
 	}
 
+	/**
+	 * The join only reads the input data and its parameters.
+	 *
+	 * @since 9.11
+	 */
+	@Override
+	public boolean isFreeOfSideEffects() {
+		return true;
+	}
+
+	/**
+	 * The joined set only depends on both inputs and the join parameters.
+	 *
+	 * @since 9.11
+	 */
+	@Override
+	public boolean isResultCacheable() {
+		return true;
+	}
+
 	@Override
 	public List<ParameterType> getParameterTypes() {
 		List<ParameterType> types = super.getParameterTypes();
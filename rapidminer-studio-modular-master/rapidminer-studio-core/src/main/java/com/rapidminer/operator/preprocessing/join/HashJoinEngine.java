@@ -0,0 +1,598 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.operator.preprocessing.join;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Example;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.table.NominalMapping;
+import com.rapidminer.operator.Operator;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.studio.concurrency.internal.ExecutionExceptionHandling;
+import com.rapidminer.studio.internal.Resources;
+import com.rapidminer.tools.math.container.CompositeKeyTable;
+
+
+/**
+ * Computes the matching rows of two {@link ExampleSet}s for the {@link ExampleSetJoin}. Instead of
+ * mapping boxed keys to lists of {@link Example}s, the key values of both sides are encoded into
+ * primitive {@code long} arrays and the build side is indexed by {@link CompositeKeyTable}s with
+ * the matching rows chained in an {@code int} array.
+ * <p>
+ * The build side is partitioned by the highest bits of the key hash and the partitions are indexed
+ * in parallel. The probe side is then matched in parallel on row ranges whose results are
+ * concatenated, so the order of the result is the same as for a sequential join: for every probe
+ * row all matching build rows in their original order. If all keys are numerical and both sides
+ * are already sorted by their keys, a sort-merge join is used instead which needs no index at all.
+ * <p>
+ * Nominal key values are compared by their string representation. Missing key values never match.
+ *
+ * @since 9.11
+ */
+class HashJoinEngine {
+
+	/** the minimal number of rows of both sides together to use multiple threads */
+	private static final int THRESHOLD_PARALLEL = 100_000;
+
+	private static final int CHECK_FOR_STOP_INTERVAL = 10_000;
+
+	/** marks a row that has no partner in the other example set */
+	static final int NO_MATCH = -1;
+
+	/**
+	 * The matching rows of the probe and the build side. The row pairs are stored in two arrays of
+	 * the same length where {@link HashJoinEngine#NO_MATCH} marks a row without a partner.
+	 */
+	static final class JoinResult {
+
+		private final int[] probeRows;
+		private final int[] buildRows;
+
+		private JoinResult(int[] probeRows, int[] buildRows) {
+			this.probeRows = probeRows;
+			this.buildRows = buildRows;
+		}
+
+		/**
+		 * @return the number of result rows
+		 */
+		int size() {
+			return probeRows.length;
+		}
+
+		/**
+		 * @return the probe rows for every result row
+		 */
+		int[] getProbeRows() {
+			return probeRows;
+		}
+
+		/**
+		 * @return the build rows for every result row
+		 */
+		int[] getBuildRows() {
+			return buildRows;
+		}
+	}
+
+	/**
+	 * The encoded key values of one side of the join.
+	 */
+	private static final class EncodedKeys {
+
+		/** the key of row {@code i} starts at {@code i * width} */
+		private final long[] keys;
+
+		/** rows with keys that cannot match, i.e. missing or unknown nominal values */
+		private final boolean[] invalid;
+
+		private boolean hasInvalid;
+
+		private EncodedKeys(int size, int width) {
+			keys = new long[size * width];
+			invalid = new boolean[size];
+		}
+	}
+
+	/** a growable list of row pairs */
+	private static final class RowPairs {
+
+		private int[] first = new int[16];
+		private int[] second = new int[16];
+		private int size;
+
+		private void add(int firstRow, int secondRow) {
+			if (size == first.length) {
+				int newLength = Math.max(16, first.length + (first.length >> 1));
+				first = Arrays.copyOf(first, newLength);
+				second = Arrays.copyOf(second, newLength);
+			}
+			first[size] = firstRow;
+			second[size] = secondRow;
+			size++;
+		}
+	}
+
+	private final Operator operator;
+	private final ExampleSet probeSet;
+	private final Attribute[] probeKeyAttributes;
+	private final ExampleSet buildSet;
+	private final Attribute[] buildKeyAttributes;
+	private final int width;
+
+	/**
+	 * Creates a new engine.
+	 *
+	 * @param operator
+	 *            the operator used for the concurrency context and stop checks
+	 * @param probeSet
+	 *            the example set whose rows are looked up, every probe row is part of the result at
+	 *            most once per matching build row
+	 * @param probeKeyAttributes
+	 *            the key attributes of the probe side
+	 * @param buildSet
+	 *            the example set that is indexed
+	 * @param buildKeyAttributes
+	 *            the key attributes of the build side, same length and compatible types as the probe
+	 *            key attributes
+	 */
+	HashJoinEngine(Operator operator, ExampleSet probeSet, Attribute[] probeKeyAttributes, ExampleSet buildSet,
+			Attribute[] buildKeyAttributes) {
+		this.operator = operator;
+		this.probeSet = probeSet;
+		this.probeKeyAttributes = probeKeyAttributes;
+		this.buildSet = buildSet;
+		this.buildKeyAttributes = buildKeyAttributes;
+		// without key attributes every row matches every other row, this is the same as a constant key
+		this.width = Math.max(1, probeKeyAttributes.length);
+	}
+
+	/**
+	 * Joins the example sets.
+	 *
+	 * @param keepUnmatchedProbeRows
+	 *            whether probe rows without matching build row are part of the result
+	 * @param appendUnmatchedBuildRows
+	 *            whether build rows without matching probe row are added to the end of the result
+	 * @return the matching rows in probe row order
+	 * @throws OperatorException
+	 *             if the execution is stopped
+	 */
+	JoinResult join(boolean keepUnmatchedProbeRows, boolean appendUnmatchedBuildRows) throws OperatorException {
+		ConcurrencyContext context = Resources.getConcurrencyContext(operator);
+		boolean parallel = context.getParallelism() > 1
+				&& (long) probeSet.size() + buildSet.size() > THRESHOLD_PARALLEL;
+		return join(keepUnmatchedProbeRows, appendUnmatchedBuildRows, parallel ? context : null);
+	}
+
+	/**
+	 * Joins the example sets, in parallel if a context is given.
+	 *
+	 * @param keepUnmatchedProbeRows
+	 *            whether probe rows without matching build row are part of the result
+	 * @param appendUnmatchedBuildRows
+	 *            whether build rows without matching probe row are added to the end of the result
+	 * @param context
+	 *            the context used for the parallel execution, {@code null} for a sequential join
+	 * @return the matching rows in probe row order
+	 * @throws OperatorException
+	 *             if the execution is stopped
+	 */
+	JoinResult join(boolean keepUnmatchedProbeRows, boolean appendUnmatchedBuildRows, ConcurrencyContext context)
+			throws OperatorException {
+		EncodedKeys probeKeys = encode(probeSet, probeKeyAttributes, null, context);
+		EncodedKeys buildKeys = encode(buildSet, buildKeyAttributes, createNominalRemapping(), context);
+		boolean[] matchedBuildRows = appendUnmatchedBuildRows ? new boolean[buildSet.size()] : null;
+
+		RowPairs pairs;
+		if (isSortedNumerical(probeKeys, probeSet.size()) && isSortedNumerical(buildKeys, buildSet.size())) {
+			pairs = mergeJoin(probeKeys, buildKeys, keepUnmatchedProbeRows, matchedBuildRows);
+		} else {
+			pairs = hashJoin(probeKeys, buildKeys, keepUnmatchedProbeRows, matchedBuildRows, context);
+		}
+
+		if (appendUnmatchedBuildRows) {
+			for (int row = 0; row < matchedBuildRows.length; row++) {
+				if (!matchedBuildRows[row]) {
+					pairs.add(NO_MATCH, row);
+				}
+			}
+		}
+		if (pairs.first.length == pairs.size) {
+			return new JoinResult(pairs.first, pairs.second);
+		}
+		return new JoinResult(Arrays.copyOf(pairs.first, pairs.size), Arrays.copyOf(pairs.second, pairs.size));
+	}
+
+	/**
+	 * Creates for every nominal build key attribute the mapping from its indices to the indices of
+	 * the corresponding probe key attribute, so that the encoded keys of both sides are comparable.
+	 */
+	private int[][] createNominalRemapping() {
+		int[][] remapping = new int[buildKeyAttributes.length][];
+		for (int i = 0; i < buildKeyAttributes.length; i++) {
+			if (buildKeyAttributes[i].isNominal()) {
+				NominalMapping buildMapping = buildKeyAttributes[i].getMapping();
+				NominalMapping probeMapping = probeKeyAttributes[i].getMapping();
+				int[] indices = new int[buildMapping.size()];
+				for (int index = 0; index < indices.length; index++) {
+					String value = buildMapping.mapIndex(index);
+					indices[index] = value == null ? NO_MATCH : probeMapping.getIndex(value);
+				}
+				remapping[i] = indices;
+			}
+		}
+		return remapping;
+	}
+
+	/**
+	 * Encodes the key values of all rows, in parallel if a context is given.
+	 *
+	 * @param remapping
+	 *            the remapping of nominal indices per key attribute, {@code null} to use the indices
+	 *            as they are
+	 */
+	private EncodedKeys encode(ExampleSet exampleSet, Attribute[] keyAttributes, int[][] remapping,
+			ConcurrencyContext context) throws OperatorException {
+		int size = exampleSet.size();
+		EncodedKeys encoded = new EncodedKeys(size, width);
+		if (context == null) {
+			encoded.hasInvalid = encode(exampleSet, keyAttributes, remapping, encoded, 0, size, null);
+			return encoded;
+		}
+		int[] starts = split(size, context.getParallelism());
+		List<Callable<Boolean>> tasks = new ArrayList<>(starts.length - 1);
+		for (int i = 0; i < starts.length - 1; i++) {
+			final int start = starts[i];
+			final int end = starts[i + 1];
+			tasks.add(() -> encode(exampleSet, keyAttributes, remapping, encoded, start, end, context));
+		}
+		for (boolean hasInvalid : call(context, tasks)) {
+			encoded.hasInvalid |= hasInvalid;
+		}
+		return encoded;
+	}
+
+	/**
+	 * Encodes the key values of the rows between start (inclusive) and end (exclusive).
+	 *
+	 * @return whether one of the rows has an invalid key
+	 */
+	private boolean encode(ExampleSet exampleSet, Attribute[] keyAttributes, int[][] remapping, EncodedKeys encoded,
+			int start, int end, ConcurrencyContext context) throws OperatorException {
+		boolean hasInvalid = false;
+		long[] keys = encoded.keys;
+		for (int row = start; row < end; row++) {
+			if ((row - start) % CHECK_FOR_STOP_INTERVAL == 0) {
+				checkForStop(context);
+			}
+			Example example = exampleSet.getExample(row);
+			int offset = row * width;
+			for (int i = 0; i < keyAttributes.length; i++) {
+				double value = example.getValue(keyAttributes[i]);
+				if (Double.isNaN(value)) {
+					encoded.invalid[row] = true;
+					hasInvalid = true;
+					break;
+				}
+				if (keyAttributes[i].isNominal()) {
+					int index = (int) value;
+					if (remapping != null) {
+						index = index < remapping[i].length ? remapping[i][index] : NO_MATCH;
+						if (index == NO_MATCH) {
+							encoded.invalid[row] = true;
+							hasInvalid = true;
+							break;
+						}
+					}
+					keys[offset + i] = index;
+				} else {
+					keys[offset + i] = Double.doubleToLongBits(value);
+				}
+			}
+		}
+		return hasInvalid;
+	}
+
+	/**
+	 * Checks whether all keys are numerical and valid and whether the rows are sorted ascendingly by
+	 * their keys.
+	 */
+	private boolean isSortedNumerical(EncodedKeys encoded, int size) {
+		if (encoded.hasInvalid) {
+			return false;
+		}
+		for (Attribute attribute : probeKeyAttributes) {
+			if (attribute.isNominal()) {
+				return false;
+			}
+		}
+		for (int row = 1; row < size; row++) {
+			if (compare(encoded.keys, (row - 1) * width, encoded.keys, row * width) > 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Compares two encoded numerical keys lexicographically.
+	 */
+	private int compare(long[] keys, int offset, long[] otherKeys, int otherOffset) {
+		for (int i = 0; i < width; i++) {
+			int result = Double.compare(Double.longBitsToDouble(keys[offset + i]),
+					Double.longBitsToDouble(otherKeys[otherOffset + i]));
+			if (result != 0) {
+				return result;
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Joins two example sets that are sorted by their numerical keys.
+	 */
+	private RowPairs mergeJoin(EncodedKeys probeKeys, EncodedKeys buildKeys, boolean keepUnmatchedProbeRows,
+			boolean[] matchedBuildRows) throws OperatorException {
+		int probeSize = probeSet.size();
+		int buildSize = buildSet.size();
+		RowPairs pairs = new RowPairs();
+		int runStart = 0;
+		for (int probeRow = 0; probeRow < probeSize; probeRow++) {
+			if (probeRow % CHECK_FOR_STOP_INTERVAL == 0) {
+				operator.checkForStop();
+			}
+			int probeOffset = probeRow * width;
+			while (runStart < buildSize && compare(buildKeys.keys, runStart * width, probeKeys.keys, probeOffset) < 0) {
+				runStart++;
+			}
+			int buildRow = runStart;
+			while (buildRow < buildSize && compare(buildKeys.keys, buildRow * width, probeKeys.keys, probeOffset) == 0) {
+				pairs.add(probeRow, buildRow);
+				if (matchedBuildRows != null) {
+					matchedBuildRows[buildRow] = true;
+				}
+				buildRow++;
+			}
+			if (buildRow == runStart && keepUnmatchedProbeRows) {
+				pairs.add(probeRow, NO_MATCH);
+			}
+		}
+		return pairs;
+	}
+
+	/**
+	 * Joins the example sets by indexing the build side, in parallel if a context is given.
+	 */
+	private RowPairs hashJoin(EncodedKeys probeKeys, EncodedKeys buildKeys, boolean keepUnmatchedProbeRows,
+			boolean[] matchedBuildRows, ConcurrencyContext context) throws OperatorException {
+		int partitionBits = 0;
+		if (context != null) {
+			while (1 << partitionBits < context.getParallelism()) {
+				partitionBits++;
+			}
+		}
+		int[] next = new int[buildSet.size()];
+		CompositeKeyTable[] tables = new CompositeKeyTable[1 << partitionBits];
+		int[][] heads = new int[tables.length][];
+		index(buildKeys, partitionBits, next, tables, heads, context);
+
+		if (context == null) {
+			return probe(probeKeys, 0, probeSet.size(), partitionBits, next, tables, heads, keepUnmatchedProbeRows,
+					matchedBuildRows, null);
+		}
+		int[] starts = split(probeSet.size(), context.getParallelism());
+		List<Callable<RowPairs>> tasks = new ArrayList<>(starts.length - 1);
+		for (int i = 0; i < starts.length - 1; i++) {
+			final int start = starts[i];
+			final int end = starts[i + 1];
+			tasks.add(() -> probe(probeKeys, start, end, partitionBits, next, tables, heads, keepUnmatchedProbeRows,
+					matchedBuildRows, context));
+		}
+		List<RowPairs> partialPairs = call(context, tasks);
+		RowPairs pairs = new RowPairs();
+		int size = 0;
+		for (RowPairs partial : partialPairs) {
+			size += partial.size;
+		}
+		pairs.first = new int[size];
+		pairs.second = new int[pairs.first.length];
+		for (RowPairs partial : partialPairs) {
+			System.arraycopy(partial.first, 0, pairs.first, pairs.size, partial.size);
+			System.arraycopy(partial.second, 0, pairs.second, pairs.size, partial.size);
+			pairs.size += partial.size;
+		}
+		return pairs;
+	}
+
+	/**
+	 * Indexes the build rows. The rows are distributed to the partitions by the highest bits of
+	 * their key hash. For every partition, a key table assigns a group to every distinct key and
+	 * {@code heads} contains the first row of every group. The following rows of the group are
+	 * chained via {@code next} in ascending order.
+	 */
+	private void index(EncodedKeys buildKeys, int partitionBits, int[] next, CompositeKeyTable[] tables, int[][] heads,
+			ConcurrencyContext context) throws OperatorException {
+		int size = next.length;
+		int numberOfPartitions = tables.length;
+		int[] partitionStarts = new int[numberOfPartitions + 1];
+		int[] partitionOf = new int[size];
+		for (int row = 0; row < size; row++) {
+			if (buildKeys.invalid[row]) {
+				partitionOf[row] = NO_MATCH;
+				continue;
+			}
+			int partition = partition(CompositeKeyTable.hash(buildKeys.keys, row * width, width), partitionBits);
+			partitionOf[row] = partition;
+			partitionStarts[partition + 1]++;
+		}
+		for (int partition = 0; partition < numberOfPartitions; partition++) {
+			partitionStarts[partition + 1] += partitionStarts[partition];
+		}
+		// stable counting sort keeps the rows of every partition in ascending order
+		int[] positions = Arrays.copyOf(partitionStarts, numberOfPartitions);
+		int[] sortedRows = new int[partitionStarts[numberOfPartitions]];
+		for (int row = 0; row < size; row++) {
+			int partition = partitionOf[row];
+			if (partition != NO_MATCH) {
+				sortedRows[positions[partition]++] = row;
+			}
+		}
+
+		if (context == null || numberOfPartitions == 1) {
+			for (int partition = 0; partition < numberOfPartitions; partition++) {
+				index(buildKeys, sortedRows, partitionStarts[partition], partitionStarts[partition + 1], next, tables,
+						heads, partition, null);
+			}
+			return;
+		}
+		List<Callable<Void>> tasks = new ArrayList<>(numberOfPartitions);
+		for (int partition = 0; partition < numberOfPartitions; partition++) {
+			final int index = partition;
+			tasks.add(() -> {
+				index(buildKeys, sortedRows, partitionStarts[index], partitionStarts[index + 1], next, tables, heads,
+						index, context);
+				return null;
+			});
+		}
+		call(context, tasks);
+	}
+
+	/**
+	 * Indexes the rows of a single partition.
+	 */
+	private void index(EncodedKeys buildKeys, int[] sortedRows, int start, int end, int[] next,
+			CompositeKeyTable[] tables, int[][] heads, int partition, ConcurrencyContext context)
+			throws OperatorException {
+		CompositeKeyTable table = new CompositeKeyTable(width);
+		int[] partitionHeads = new int[16];
+		int[] tails = new int[16];
+		for (int i = start; i < end; i++) {
+			if ((i - start) % CHECK_FOR_STOP_INTERVAL == 0) {
+				checkForStop(context);
+			}
+			int row = sortedRows[i];
+			next[row] = NO_MATCH;
+			int numberOfGroups = table.size();
+			int group = table.getOrAdd(buildKeys.keys, row * width);
+			if (group == numberOfGroups) {
+				if (group == partitionHeads.length) {
+					partitionHeads = Arrays.copyOf(partitionHeads, group * 2);
+					tails = Arrays.copyOf(tails, group * 2);
+				}
+				partitionHeads[group] = row;
+			} else {
+				next[tails[group]] = row;
+			}
+			tails[group] = row;
+		}
+		tables[partition] = table;
+		heads[partition] = partitionHeads;
+	}
+
+	/**
+	 * Looks up the probe rows between start (inclusive) and end (exclusive) in the index.
+	 */
+	private RowPairs probe(EncodedKeys probeKeys, int start, int end, int partitionBits, int[] next,
+			CompositeKeyTable[] tables, int[][] heads, boolean keepUnmatchedProbeRows, boolean[] matchedBuildRows,
+			ConcurrencyContext context) throws OperatorException {
+		RowPairs pairs = new RowPairs();
+		long[] keys = probeKeys.keys;
+		for (int probeRow = start; probeRow < end; probeRow++) {
+			if ((probeRow - start) % CHECK_FOR_STOP_INTERVAL == 0) {
+				checkForStop(context);
+			}
+			int buildRow = NO_MATCH;
+			if (!probeKeys.invalid[probeRow]) {
+				int offset = probeRow * width;
+				int partition = partition(CompositeKeyTable.hash(keys, offset, width), partitionBits);
+				int group = tables[partition].get(keys, offset);
+				if (group != NO_MATCH) {
+					buildRow = heads[partition][group];
+				}
+			}
+			if (buildRow == NO_MATCH) {
+				if (keepUnmatchedProbeRows) {
+					pairs.add(probeRow, NO_MATCH);
+				}
+				continue;
+			}
+			while (buildRow != NO_MATCH) {
+				pairs.add(probeRow, buildRow);
+				if (matchedBuildRows != null) {
+					matchedBuildRows[buildRow] = true;
+				}
+				buildRow = next[buildRow];
+			}
+		}
+		return pairs;
+	}
+
+	private static int partition(int hash, int partitionBits) {
+		return partitionBits == 0 ? 0 : hash >>> (Integer.SIZE - partitionBits);
+	}
+
+	/**
+	 * Splits the rows into at most parallelism ranges of at least {@link #CHECK_FOR_STOP_INTERVAL}
+	 * rows.
+	 *
+	 * @return the start of every range followed by the size
+	 */
+	private static int[] split(int size, int parallelism) {
+		int numberOfBatches = Math.min(parallelism, Math.max(1, size / CHECK_FOR_STOP_INTERVAL));
+		int batchSize = size / numberOfBatches;
+		int rest = size % numberOfBatches;
+		int[] starts = new int[numberOfBatches + 1];
+		for (int i = 0; i < numberOfBatches; i++) {
+			starts[i + 1] = starts[i] + batchSize + (i < rest ? 1 : 0);
+		}
+		return starts;
+	}
+
+	/**
+	 * Checks for stop via the operator if no context is given, otherwise via the context. The
+	 * latter must be used within tasks executed by the context.
+	 */
+	private void checkForStop(ConcurrencyContext context) throws OperatorException {
+		if (context == null) {
+			operator.checkForStop();
+		} else {
+			context.checkStatus();
+		}
+	}
+
+	/**
+	 * Executes the tasks and unpacks the execution exceptions.
+	 */
+	private <T> List<T> call(ConcurrencyContext context, List<Callable<T>> tasks) throws OperatorException {
+		try {
+			return context.call(tasks);
+		} catch (ExecutionException e) {
+			throw ExecutionExceptionHandling.INSTANCE.processExecutionException(e, operator.getProcess());
+		}
+	}
+
+}
@@ -113,8 +113,10 @@ public abstract class AbstractNormalizationModel extends PreprocessingModel {
 			Attribute oldAttribute = oldAttributes[i];
 			if (oldAttribute.isNumerical()) {
 				Attribute newAttribute = newAttributes[i];
+				double[] oldValues = exampleSet.getValues(oldAttribute);
+				int row = 0;
 				for (Example example : exampleSet) {
-					example.setValue(newAttribute, computeValue(oldAttribute, example.getValue(oldAttribute)));
+					example.setValue(newAttribute, computeValue(oldAttribute, oldValues[row++]));
 					if (progress != null && ++progressCounter % OPERATOR_PROGRESS_STEPS == 0) {
 						progress.setCompleted((int) (1000.0d * progressCounter / progressTotal));
 					}
@@ -19,7 +19,6 @@
 package com.rapidminer.operator.preprocessing.normalization;
 
 import com.rapidminer.example.Attribute;
-import com.rapidminer.example.Example;
 import com.rapidminer.example.ExampleSet;
 import com.rapidminer.operator.Operator;
 import com.rapidminer.operator.UserError;
@@ -70,11 +69,7 @@ public class IQRNormalizationMethod extends AbstractNormalizationMethod {
 
 		for (Attribute attribute : exampleSet.getAttributes()) {
 			if (attribute.isNumerical()) {
-				double values[] = new double[exampleSet.size()];
-				int i = 0;
-				for (Example example : exampleSet) {
-					values[i++] = example.getValue(attribute);
-				}
+				double values[] = exampleSet.getValues(attribute);
 
 				Arrays.sort(values);
 
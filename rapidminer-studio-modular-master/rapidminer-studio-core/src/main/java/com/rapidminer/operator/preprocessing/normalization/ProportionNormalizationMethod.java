@@ -24,7 +24,6 @@ import java.util.HashMap;
 import java.util.List;
 
 import com.rapidminer.example.Attribute;
-import com.rapidminer.example.Example;
 import com.rapidminer.example.ExampleSet;
 import com.rapidminer.operator.Operator;
 import com.rapidminer.operator.ProcessSetupError.Severity;
@@ -94,8 +93,7 @@ public class ProportionNormalizationMethod extends AbstractNormalizationMethod {
 			if (attribute.isNumerical()) {
 				double sum = 0;
 				boolean negValError = false;
-				for (Example example : exampleSet) {
-					double value = example.getValue(attribute);
+				for (double value : exampleSet.getValues(attribute)) {
 					if (versionChecksForNonFinite && !Double.isFinite(value)) {
 						// ignore nonsensical values
 						continue;
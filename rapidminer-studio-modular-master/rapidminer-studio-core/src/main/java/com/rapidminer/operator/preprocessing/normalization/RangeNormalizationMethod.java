@@ -32,6 +32,7 @@ import com.rapidminer.parameter.ParameterHandler;
 import com.rapidminer.parameter.ParameterType;
 import com.rapidminer.parameter.ParameterTypeDouble;
 import com.rapidminer.parameter.UndefinedParameterError;
+import com.rapidminer.studio.internal.Resources;
 import com.rapidminer.tools.container.Tupel;
 import com.rapidminer.tools.math.container.Range;
 
@@ -76,7 +77,7 @@ public class RangeNormalizationMethod extends AbstractNormalizationMethod {
 
 		// calculating attribute ranges
 		HashMap<String, Tupel<Double, Double>> attributeRanges = new HashMap<String, Tupel<Double, Double>>();
-		exampleSet.recalculateAllAttributeStatistics();
+		exampleSet.recalculateAllAttributeStatistics(Resources.getConcurrencyContext(operator));
 		for (Attribute attribute : exampleSet.getAttributes()) {
 			if (attribute.isNumerical()) {
 				double minA = exampleSet.getStatistics(attribute, Statistics.MINIMUM);
@@ -30,6 +30,7 @@ import com.rapidminer.operator.ports.metadata.MDReal;
 import com.rapidminer.operator.ports.metadata.SetRelation;
 import com.rapidminer.parameter.ParameterHandler;
 import com.rapidminer.parameter.UndefinedParameterError;
+import com.rapidminer.studio.internal.Resources;
 import com.rapidminer.tools.container.Tupel;
 import com.rapidminer.tools.math.container.Range;
 
@@ -56,7 +57,7 @@ public class ZTransformationNormalizationMethod extends AbstractNormalizationMet
 	@Override
 	public AbstractNormalizationModel getNormalizationModel(ExampleSet exampleSet, Operator operator) throws UserError {
 		// Z-Transformation
-		exampleSet.recalculateAllAttributeStatistics();
+		exampleSet.recalculateAllAttributeStatistics(Resources.getConcurrencyContext(operator));
 		HashMap<String, Tupel<Double, Double>> attributeMeanVarianceMap = new HashMap<String, Tupel<Double, Double>>();
 		for (Attribute attribute : exampleSet.getAttributes()) {
 			if (attribute.isNumerical()) {
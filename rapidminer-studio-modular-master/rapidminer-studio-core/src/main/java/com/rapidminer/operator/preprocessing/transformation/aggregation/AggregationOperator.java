@@ -410,6 +410,16 @@ public class AggregationOperator extends AbstractDataProcessing {
 
 		Attribute weightAttribute = exampleSet.getAttributes().getWeight();
 		boolean useWeights = weightAttribute != null;
+		boolean isCountingAllCombinations = getParameterAsBoolean(PARAMETER_ALL_COMBINATIONS);
+
+		// the hash based grouping only creates existing combinations, all others are built from the
+		// aggregation tree
+		boolean useHashEngine = groupAttributes.length > 0 && !isCountingAllCombinations;
+		if (useHashEngine) {
+			for (Attribute groupAttribute : groupAttributes) {
+				checkGroupAttributeType(groupAttribute);
+			}
+		}
 
 		// running over exampleSet and aggregate data of each example
 		AggregationTreeNode rootNode = new AggregationTreeNode();
@@ -418,7 +428,9 @@ public class AggregationOperator extends AbstractDataProcessing {
 			// if no grouping, we will directly insert into leaf node
 			leafNode = new LeafAggregationTreeNode(aggregationFunctions);
 		}
-		for (Example example : exampleSet) {
+		// the hash engine groups the examples on its own, the tree is only fed if it is not used
+		Iterable<Example> treeExamples = useHashEngine ? Collections.<Example> emptyList() : exampleSet;
+		for (Example example : treeExamples) {
 			if (groupAttributes.length > 0) {
 				AggregationTreeNode currentNode = rootNode;
 				// now traversing aggregation tree for m-1 group attributes
@@ -453,8 +465,6 @@ public class AggregationOperator extends AbstractDataProcessing {
 		}
 
 		// now derive new example set from aggregated values
-		boolean isCountingAllCombinations = getParameterAsBoolean(PARAMETER_ALL_COMBINATIONS);
-
 		// building new attributes from grouping attributes and aggregation functions
 		Attribute[] newAttributes = new Attribute[groupAttributes.length + aggregationFunctions.size()];
 		for (int i = 0; i < groupAttributes.length; i++) {
@@ -490,7 +500,10 @@ public class AggregationOperator extends AbstractDataProcessing {
 
 		ArrayList<double[]> allGroupCombinations = new ArrayList<>();
 
-		if (groupAttributes.length > 0) {
+		if (useHashEngine) {
+			new HashAggregationEngine(this, exampleSet, groupAttributes, aggregationFunctions).aggregate(newAttributes,
+					allGroupCombinations, allAggregators);
+		} else if (groupAttributes.length > 0) {
 			// going through all possible groups recursively
 			parseTree(rootNode, groupAttributes, dataOfUpperLevels, 0, allGroupCombinations, allAggregators, factory,
 					newAttributes, isCountingAllCombinations, aggregationFunctions);
@@ -636,8 +649,8 @@ public class AggregationOperator extends AbstractDataProcessing {
 				}
 
 			}
-		} else if (currentAttribute.isNumerical()
-				|| Ontology.ATTRIBUTE_VALUE_TYPE.isA(currentAttribute.getValueType(), Ontology.DATE_TIME)) {
+		} else {
+			checkGroupAttributeType(currentAttribute);
 			for (Object numericalValue : node.getValues()) {
 				dataOfUpperLevels[groupLevel] = (Double) numericalValue;
 				if (groupLevel + 1 < groupAttributes.length) {
@@ -650,9 +663,20 @@ public class AggregationOperator extends AbstractDataProcessing {
 							newAttributes, aggregationFunctions);
 				}
 			}
-		} else {
-			throw new UserError(this, "aggregation_operator.unsupported_value_type", currentAttribute.getName(),
-					Ontology.ATTRIBUTE_VALUE_TYPE.getNames()[currentAttribute.getValueType()]);
+		}
+	}
+
+	/**
+	 * Checks that the attribute is nominal, numerical or a date attribute and can be used for grouping.
+	 *
+	 * @throws UserError
+	 *             if the value type of the attribute is not supported
+	 */
+	private void checkGroupAttributeType(Attribute attribute) throws UserError {
+		if (!attribute.isNominal() && !attribute.isNumerical()
+				&& !Ontology.ATTRIBUTE_VALUE_TYPE.isA(attribute.getValueType(), Ontology.DATE_TIME)) {
+			throw new UserError(this, "aggregation_operator.unsupported_value_type", attribute.getName(),
+					Ontology.ATTRIBUTE_VALUE_TYPE.getNames()[attribute.getValueType()]);
 		}
 	}
 
@@ -729,6 +753,26 @@ public class AggregationOperator extends AbstractDataProcessing {
 		return aggregationFunctions;
 	}
 
+	/**
+	 * The aggregation only reads the input data and its parameters.
+	 *
+	 * @since 9.11
+	 */
+	@Override
+	public boolean isFreeOfSideEffects() {
+		return true;
+	}
+
+	/**
+	 * The aggregates only depend on the input data and the grouping and aggregation parameters.
+	 *
+	 * @since 9.11
+	 */
+	@Override
+	public boolean isResultCacheable() {
+		return true;
+	}
+
 	@Override
 	public List<ParameterType> getParameterTypes() {
 		List<ParameterType> types = super.getParameterTypes();
@@ -0,0 +1,385 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.operator.preprocessing.transformation.aggregation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Example;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.table.NominalMapping;
+import com.rapidminer.operator.Operator;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.studio.concurrency.internal.ExecutionExceptionHandling;
+import com.rapidminer.studio.internal.Resources;
+import com.rapidminer.tools.math.container.CompositeKeyTable;
+
+
+/**
+ * Groups the examples of an {@link ExampleSet} with the help of a {@link CompositeKeyTable} and
+ * feeds them into the {@link Aggregator}s of the given {@link AggregationFunction}s.
+ * <p>
+ * Every group key is encoded into one {@code long} per group attribute: the mapping index for
+ * nominal attributes and the raw bits of the value for numerical and date attributes. Thus, no
+ * objects are created per example. Afterwards, the groups are sorted in the same way as the
+ * {@link AggregationOperator.AggregationTreeNode}s would order them, so that the result does not
+ * depend on the engine.
+ * <p>
+ * If the {@link ConcurrencyContext} of the operator allows it and the data is large enough, the
+ * grouping is done in parallel on row ranges with partial key tables which are merged afterwards,
+ * and the aggregation is split by aggregation functions. Every {@link Aggregator} is only fed by a
+ * single thread and sees the examples of its group in the original order, so the results are the
+ * same as for the sequential computation.
+ *
+ * @since 9.11
+ */
+class HashAggregationEngine {
+
+	/** the minimal number of examples times the number of columns to use multiple threads */
+	private static final long THRESHOLD_PARALLEL = 1_000_000;
+
+	private static final int CHECK_FOR_STOP_INTERVAL = 10_000;
+
+	private final Operator operator;
+	private final ExampleSet exampleSet;
+	private final Attribute[] groupAttributes;
+	private final List<AggregationFunction> aggregationFunctions;
+	private final Attribute weightAttribute;
+
+	/** the key for missing values of the nominal group attributes */
+	private final long[] missingCodes;
+
+	/**
+	 * Creates a new engine.
+	 *
+	 * @param operator
+	 *            the operator used for the concurrency context and stop checks
+	 * @param exampleSet
+	 *            the example set to aggregate
+	 * @param groupAttributes
+	 *            the group attributes, must be nominal, numerical or date attributes
+	 * @param aggregationFunctions
+	 *            the aggregation functions
+	 */
+	HashAggregationEngine(Operator operator, ExampleSet exampleSet, Attribute[] groupAttributes,
+			List<AggregationFunction> aggregationFunctions) {
+		this.operator = operator;
+		this.exampleSet = exampleSet;
+		this.groupAttributes = groupAttributes;
+		this.aggregationFunctions = new ArrayList<>(aggregationFunctions);
+		this.weightAttribute = exampleSet.getAttributes().getWeight();
+		this.missingCodes = new long[groupAttributes.length];
+		for (int i = 0; i < groupAttributes.length; i++) {
+			if (groupAttributes[i].isNominal()) {
+				// the tree based grouping uses the string representation, so missings end up in the
+				// same group as a nominal value that equals the missing value string
+				int index = groupAttributes[i].getMapping().getIndex(Attribute.MISSING_NOMINAL_VALUE);
+				missingCodes[i] = index;
+			}
+		}
+	}
+
+	/**
+	 * Aggregates the example set and adds the group values and aggregators to the given lists in
+	 * the order of the groups.
+	 *
+	 * @param newAttributes
+	 *            the attributes of the result, starting with the group attributes
+	 * @param allGroupCombinations
+	 *            the list to which the values of the group attributes are added for every group
+	 * @param allAggregators
+	 *            the lists, one for each aggregation function, to which the aggregators are added
+	 *            for every group
+	 * @throws OperatorException
+	 *             if the execution is stopped
+	 */
+	void aggregate(Attribute[] newAttributes, List<double[]> allGroupCombinations, List<List<Aggregator>> allAggregators)
+			throws OperatorException {
+		int size = exampleSet.size();
+		ConcurrencyContext context = Resources.getConcurrencyContext(operator);
+		boolean parallel = context.getParallelism() > 1
+				&& (long) size * (groupAttributes.length + aggregationFunctions.size()) > THRESHOLD_PARALLEL;
+
+		int[] groupIndices = new int[size];
+		CompositeKeyTable table = parallel ? groupParallel(context, groupIndices)
+				: group(0, size, groupIndices, null);
+		operator.getProgress().setCompleted(size / 2);
+
+		Aggregator[][] aggregators = createAggregators(table.size());
+		if (parallel && aggregationFunctions.size() > 1) {
+			countParallel(context, groupIndices, aggregators);
+		} else {
+			count(groupIndices, aggregators, 0, aggregators.length, null);
+		}
+		operator.getProgress().setCompleted(size);
+
+		Integer[] order = sortGroups(table);
+		for (int group : order) {
+			double[] groupValues = new double[groupAttributes.length];
+			for (int i = 0; i < groupAttributes.length; i++) {
+				long code = table.getKeyComponent(group, i);
+				if (groupAttributes[i].isNominal()) {
+					groupValues[i] = newAttributes[i].getMapping().mapString(toNominalValue(i, code));
+				} else {
+					groupValues[i] = Double.longBitsToDouble(code);
+				}
+			}
+			allGroupCombinations.add(groupValues);
+			for (int f = 0; f < aggregators.length; f++) {
+				allAggregators.get(f).add(aggregators[f][group]);
+			}
+		}
+	}
+
+	/**
+	 * Computes the group index for every example between start (inclusive) and end (exclusive).
+	 *
+	 * @param context
+	 *            the context to check for stops, can be {@code null} if the operator should be used
+	 * @return the table containing the keys of the groups
+	 */
+	private CompositeKeyTable group(int start, int end, int[] groupIndices, ConcurrencyContext context)
+			throws OperatorException {
+		CompositeKeyTable table = new CompositeKeyTable(Math.max(1, groupAttributes.length));
+		long[] key = new long[table.getWidth()];
+		for (int row = start; row < end; row++) {
+			if ((row - start) % CHECK_FOR_STOP_INTERVAL == 0) {
+				checkForStop(context);
+			}
+			Example example = exampleSet.getExample(row);
+			fillKey(example, key);
+			groupIndices[row] = table.getOrAdd(key);
+		}
+		return table;
+	}
+
+	/**
+	 * Computes the group indices in parallel on row ranges and merges the partial tables. The group
+	 * indices are adjusted to the merged table.
+	 */
+	private CompositeKeyTable groupParallel(ConcurrencyContext context, int[] groupIndices) throws OperatorException {
+		int size = groupIndices.length;
+		int numberOfBatches = Math.min(context.getParallelism(), Math.max(1, size / CHECK_FOR_STOP_INTERVAL));
+		int batchSize = size / numberOfBatches;
+		int rest = size % numberOfBatches;
+		int[] starts = new int[numberOfBatches + 1];
+		List<Callable<CompositeKeyTable>> tasks = new ArrayList<>(numberOfBatches);
+		for (int i = 0; i < numberOfBatches; i++) {
+			starts[i + 1] = starts[i] + batchSize + (i < rest ? 1 : 0);
+			final int start = starts[i];
+			final int end = starts[i + 1];
+			tasks.add(() -> group(start, end, groupIndices, context));
+		}
+		List<CompositeKeyTable> partialTables = call(context, tasks);
+
+		CompositeKeyTable merged = new CompositeKeyTable(partialTables.get(0).getWidth());
+		for (int i = 0; i < numberOfBatches; i++) {
+			CompositeKeyTable partial = partialTables.get(i);
+			int[] mapping = new int[partial.size()];
+			long[] keys = partial.getKeys();
+			for (int group = 0; group < mapping.length; group++) {
+				mapping[group] = merged.getOrAdd(keys, group * partial.getWidth());
+			}
+			for (int row = starts[i]; row < starts[i + 1]; row++) {
+				groupIndices[row] = mapping[groupIndices[row]];
+			}
+		}
+		return merged;
+	}
+
+	/**
+	 * Feeds the examples into the aggregators of the functions between start (inclusive) and end
+	 * (exclusive).
+	 *
+	 * @param context
+	 *            the context to check for stops, can be {@code null} if the operator should be used
+	 */
+	private void count(int[] groupIndices, Aggregator[][] aggregators, int start, int end, ConcurrencyContext context)
+			throws OperatorException {
+		boolean useWeights = weightAttribute != null;
+		for (int row = 0; row < groupIndices.length; row++) {
+			if (row % CHECK_FOR_STOP_INTERVAL == 0) {
+				checkForStop(context);
+			}
+			Example example = exampleSet.getExample(row);
+			int group = groupIndices[row];
+			if (useWeights) {
+				double weight = example.getValue(weightAttribute);
+				for (int f = start; f < end; f++) {
+					aggregators[f][group].count(example, weight);
+				}
+			} else {
+				for (int f = start; f < end; f++) {
+					aggregators[f][group].count(example);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Feeds the examples into the aggregators in parallel, every task handles a range of
+	 * aggregation functions.
+	 */
+	private void countParallel(ConcurrencyContext context, int[] groupIndices, Aggregator[][] aggregators)
+			throws OperatorException {
+		int numberOfBatches = Math.min(context.getParallelism(), aggregators.length);
+		int batchSize = aggregators.length / numberOfBatches;
+		int rest = aggregators.length % numberOfBatches;
+		List<Callable<Void>> tasks = new ArrayList<>(numberOfBatches);
+		int end = 0;
+		for (int i = 0; i < numberOfBatches; i++) {
+			final int start = end;
+			end = start + batchSize + (i < rest ? 1 : 0);
+			final int batchEnd = end;
+			tasks.add(() -> {
+				count(groupIndices, aggregators, start, batchEnd, context);
+				return null;
+			});
+		}
+		call(context, tasks);
+	}
+
+	/**
+	 * Creates one aggregator for every function and group.
+	 */
+	private Aggregator[][] createAggregators(int numberOfGroups) {
+		Aggregator[][] aggregators = new Aggregator[aggregationFunctions.size()][numberOfGroups];
+		for (int f = 0; f < aggregators.length; f++) {
+			AggregationFunction function = aggregationFunctions.get(f);
+			for (int group = 0; group < numberOfGroups; group++) {
+				aggregators[f][group] = function.createAggregator();
+			}
+		}
+		return aggregators;
+	}
+
+	/**
+	 * Writes the key of the example into the given array.
+	 */
+	private void fillKey(Example example, long[] key) {
+		for (int i = 0; i < groupAttributes.length; i++) {
+			double value = example.getValue(groupAttributes[i]);
+			if (groupAttributes[i].isNominal()) {
+				key[i] = Double.isNaN(value) ? missingCodes[i] : (long) value;
+			} else {
+				key[i] = Double.doubleToLongBits(value);
+			}
+		}
+	}
+
+	/**
+	 * Returns the nominal value for the given key component.
+	 */
+	private String toNominalValue(int attributeIndex, long code) {
+		if (code < 0) {
+			return Attribute.MISSING_NOMINAL_VALUE;
+		}
+		return groupAttributes[attributeIndex].getMapping().mapIndex((int) code);
+	}
+
+	/**
+	 * Sorts the groups lexicographically by their group attributes. Nominal values are compared as
+	 * strings, numerical values as doubles.
+	 */
+	private Integer[] sortGroups(CompositeKeyTable table) {
+		int[][] ranks = new int[groupAttributes.length][];
+		for (int i = 0; i < groupAttributes.length; i++) {
+			if (groupAttributes[i].isNominal()) {
+				ranks[i] = rankNominalValues(groupAttributes[i].getMapping());
+			}
+		}
+		Integer[] order = new Integer[table.size()];
+		for (int group = 0; group < order.length; group++) {
+			order[group] = group;
+		}
+		Comparator<Integer> comparator = (a, b) -> {
+			for (int i = 0; i < groupAttributes.length; i++) {
+				long codeA = table.getKeyComponent(a, i);
+				long codeB = table.getKeyComponent(b, i);
+				if (codeA == codeB) {
+					continue;
+				}
+				if (ranks[i] != null) {
+					// position 0 is reserved for the missing value
+					return Integer.compare(ranks[i][(int) codeA + 1], ranks[i][(int) codeB + 1]);
+				}
+				int result = Double.compare(Double.longBitsToDouble(codeA), Double.longBitsToDouble(codeB));
+				if (result != 0) {
+					return result;
+				}
+			}
+			return 0;
+		};
+		Arrays.sort(order, comparator);
+		return order;
+	}
+
+	/**
+	 * Ranks the values of the mapping by their natural string order. The rank of mapping index
+	 * {@code i} is stored at position {@code i + 1}, the rank of the missing value at position 0.
+	 */
+	private static int[] rankNominalValues(NominalMapping mapping) {
+		int size = mapping.size();
+		String[] values = new String[size + 1];
+		values[0] = Attribute.MISSING_NOMINAL_VALUE;
+		for (int i = 0; i < size; i++) {
+			values[i + 1] = mapping.mapIndex(i);
+		}
+		Integer[] sorted = new Integer[size + 1];
+		for (int i = 0; i < sorted.length; i++) {
+			sorted[i] = i;
+		}
+		Arrays.sort(sorted, Comparator.comparing(i -> values[i]));
+		int[] ranks = new int[size + 1];
+		for (int rank = 0; rank < sorted.length; rank++) {
+			ranks[sorted[rank]] = rank;
+		}
+		return ranks;
+	}
+
+	/**
+	 * Checks for stop via the operator if no context is given, otherwise via the context. The
+	 * latter must be used within tasks executed by the context.
+	 */
+	private void checkForStop(ConcurrencyContext context) throws OperatorException {
+		if (context == null) {
+			operator.checkForStop();
+		} else {
+			context.checkStatus();
+		}
+	}
+
+	/**
+	 * Executes the tasks and unpacks the execution exceptions.
+	 */
+	private <T> List<T> call(ConcurrencyContext context, List<Callable<T>> tasks) throws OperatorException {
+		try {
+			return context.call(tasks);
+		} catch (ExecutionException e) {
+			throw ExecutionExceptionHandling.INSTANCE.processExecutionException(e, operator.getProcess());
+		}
+	}
+
+}
@@ -0,0 +1,73 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.operator.tools;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+
+import com.rapidminer.example.ExampleSet;
+
+
+/**
+ * Serializes example sets with {@link ExampleSetToColumns}. Reading from a {@link FileInputStream}
+ * uses its file channel directly.
+ *
+ * @since 9.11
+ */
+public class ColumnarExampleSetBodySerializer implements BodySerializer {
+
+	private final boolean compressed;
+
+	protected ColumnarExampleSetBodySerializer(boolean compressed) {
+		this.compressed = compressed;
+	}
+
+	@Override
+	public Object deserialize(InputStream in) throws IOException {
+		if (in instanceof FileInputStream) {
+			return deserialize(((FileInputStream) in).getChannel());
+		}
+		return deserialize(Channels.newChannel(in));
+	}
+
+	/**
+	 * Deserializes the body from the channel. The channel is not closed.
+	 */
+	public Object deserialize(ReadableByteChannel channel) throws IOException {
+		return new ExampleSetToColumns(compressed).read(channel);
+	}
+
+	@Override
+	public void serialize(Object object, OutputStream out) throws IOException {
+		if (object instanceof ExampleSet) {
+			new ExampleSetToColumns(compressed).write((ExampleSet) object, out);
+		} else {
+			throw new IOException("Serialization type " + SerializationType.COLUMNAR_EXAMPLE_SET
+					+ " only available for ExampleSets.");
+		}
+	}
+
+	public boolean isCompressed() {
+		return compressed;
+	}
+}
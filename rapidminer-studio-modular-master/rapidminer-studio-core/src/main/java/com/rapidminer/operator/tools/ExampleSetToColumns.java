@@ -0,0 +1,380 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.operator.tools;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.AttributeRole;
+import com.rapidminer.example.Example;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.utils.ExampleSetBuilder;
+import com.rapidminer.example.utils.ExampleSets;
+
+
+/**
+ * Writes and reads example sets column by column. In contrast to {@link ExampleSetToStream}, the
+ * values are not written row by row but in chunks of consecutive values of one attribute, which can
+ * be read with a few bulk operations. The format is
+ * <ul>
+ * <li>the length of the header followed by the header as written by
+ * {@link ExampleSetToStream#writeHeader} in {@link ExampleSetToStream#VERSION_3}, containing the
+ * attributes, their roles, the dictionaries of the nominal attributes and the annotations</li>
+ * <li>the format version, the number of rows, the number of rows per row group and whether chunks
+ * are compressed</li>
+ * <li>for each row group and each attribute a chunk consisting of the encoding, the length of the
+ * encoded values, the length of the stored bytes and the stored bytes</li>
+ * </ul>
+ * The encoding of a chunk is the smallest integer type that can hold all values of the chunk, or
+ * double if there are non-integer values. Nominal values are therefore stored as byte or short
+ * indices of the dictionary in most cases. Missing values are encoded as the minimal value of the
+ * integer type. Compressed chunks are stored deflated if this is smaller.
+ *
+ * @since 9.11
+ */
+public class ExampleSetToColumns {
+
+	/** The first version of the columnar format. */
+	public static final int VERSION_1 = 1;
+
+	/** The number of values a row group should contain at most. */
+	private static final int VALUES_PER_ROW_GROUP = 1 << 22;
+
+	private static final int MAX_ROWS_PER_ROW_GROUP = 1 << 16;
+
+	private static final int MIN_ROWS_PER_ROW_GROUP = 1 << 10;
+
+	private static final byte ENCODING_DOUBLE = 0;
+	private static final byte ENCODING_INTEGER = 1;
+	private static final byte ENCODING_SHORT = 2;
+	private static final byte ENCODING_BYTE = 3;
+
+	/** the size of chunk header consisting of encoding, encoded length and stored length */
+	private static final int CHUNK_HEADER_SIZE = 9;
+
+	private final boolean compressed;
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param compressed
+	 *            whether chunks should be compressed when writing
+	 */
+	public ExampleSetToColumns(boolean compressed) {
+		this.compressed = compressed;
+	}
+
+	/** Writes header and data of the example set to the stream. */
+	public void write(ExampleSet exampleSet, OutputStream outputStream) throws IOException {
+		DataOutputStream out = new DataOutputStream(outputStream);
+		List<AttributeRole> allRoles = new ArrayList<>();
+		Iterator<AttributeRole> i = exampleSet.getAttributes().allAttributeRoles();
+		while (i.hasNext()) {
+			allRoles.add(i.next());
+		}
+
+		ByteArrayOutputStream headerBytes = new ByteArrayOutputStream();
+		DataOutputStream headerOut = new DataOutputStream(headerBytes);
+		new ExampleSetToStream(ExampleSetToStream.VERSION_3).writeHeader(exampleSet.getAnnotations(), allRoles,
+				headerOut, false);
+		headerOut.flush();
+		out.writeInt(headerBytes.size());
+		headerBytes.writeTo(out);
+
+		int size = exampleSet.size();
+		int rowsPerGroup = getRowsPerGroup(allRoles.size());
+		out.writeInt(VERSION_1);
+		out.writeInt(size);
+		out.writeInt(rowsPerGroup);
+		out.writeBoolean(compressed);
+
+		Attribute[] attributes = new Attribute[allRoles.size()];
+		for (int a = 0; a < attributes.length; a++) {
+			attributes[a] = allRoles.get(a).getAttribute();
+		}
+		double[][] group = new double[attributes.length][Math.min(rowsPerGroup, size)];
+		ByteBuffer buffer = ByteBuffer.allocate(8 * Math.min(rowsPerGroup, size));
+		Deflater deflater = compressed ? new Deflater(Deflater.BEST_SPEED, true) : null;
+		try {
+			byte[] deflated = compressed ? new byte[buffer.capacity() + 64] : null;
+			Iterator<Example> examples = exampleSet.iterator();
+			for (int start = 0; start < size; start += rowsPerGroup) {
+				int length = Math.min(rowsPerGroup, size - start);
+				for (int row = 0; row < length; row++) {
+					Example example = examples.next();
+					for (int a = 0; a < attributes.length; a++) {
+						group[a][row] = example.getValue(attributes[a]);
+					}
+				}
+				for (int a = 0; a < attributes.length; a++) {
+					buffer.clear();
+					byte encoding = encode(group[a], length, buffer);
+					int encodedLength = buffer.position();
+					out.writeByte(encoding);
+					out.writeInt(encodedLength);
+					if (deflater != null) {
+						deflater.reset();
+						deflater.setInput(buffer.array(), 0, encodedLength);
+						deflater.finish();
+						int deflatedLength = deflater.deflate(deflated);
+						if (deflater.finished() && deflatedLength < encodedLength) {
+							out.writeInt(deflatedLength);
+							out.write(deflated, 0, deflatedLength);
+							continue;
+						}
+					}
+					out.writeInt(encodedLength);
+					out.write(buffer.array(), 0, encodedLength);
+				}
+			}
+		} finally {
+			if (deflater != null) {
+				deflater.end();
+			}
+		}
+		out.flush();
+	}
+
+	/** Reads an example set as written by {@link #write(ExampleSet, OutputStream)}. */
+	public ExampleSet read(ReadableByteChannel channel) throws IOException {
+		ByteBuffer intBuffer = ByteBuffer.allocate(CHUNK_HEADER_SIZE);
+		byte[] headerBytes = readFully(channel, ByteBuffer.allocate(readInt(channel, intBuffer))).array();
+		ExampleSetToStream.Header header = new ExampleSetToStream(ExampleSetToStream.VERSION_3)
+				.readHeader(new DataInputStream(new ByteArrayInputStream(headerBytes)));
+		List<AttributeRole> allRoles = header.getAllRoles();
+		List<Attribute> allAttributes = new ArrayList<>(allRoles.size());
+		for (AttributeRole role : allRoles) {
+			allAttributes.add(role.getAttribute());
+		}
+
+		ByteBuffer settings = readFully(channel, ByteBuffer.allocate(13));
+		int version = settings.getInt();
+		if (version != VERSION_1) {
+			throw new IOException("Unknown columnar example set version: " + version);
+		}
+		int size = settings.getInt();
+		int rowsPerGroup = settings.getInt();
+		boolean isCompressed = settings.get() != 0;
+		if (size < 0 || rowsPerGroup <= 0) {
+			throw new IOException("Illegal columnar example set size: " + size);
+		}
+
+		double[][] columns = new double[allAttributes.size()][size];
+		ByteBuffer stored = ByteBuffer.allocate(0);
+		ByteBuffer encoded = ByteBuffer.allocate(0);
+		Inflater inflater = isCompressed ? new Inflater(true) : null;
+		try {
+			for (int start = 0; start < size; start += rowsPerGroup) {
+				int length = Math.min(rowsPerGroup, size - start);
+				for (double[] column : columns) {
+					intBuffer.clear();
+					readFully(channel, intBuffer);
+					byte encoding = intBuffer.get();
+					int encodedLength = intBuffer.getInt();
+					int storedLength = intBuffer.getInt();
+					if (stored.capacity() < storedLength) {
+						stored = ByteBuffer.allocate(storedLength);
+					}
+					stored.clear().limit(storedLength);
+					readFully(channel, stored);
+					ByteBuffer values = stored;
+					if (storedLength != encodedLength) {
+						if (inflater == null) {
+							throw new IOException("Compressed chunk in uncompressed columnar example set");
+						}
+						if (encoded.capacity() < encodedLength) {
+							encoded = ByteBuffer.allocate(encodedLength);
+						}
+						inflate(inflater, stored, encoded, encodedLength);
+						values = encoded;
+					}
+					decode(encoding, values, column, start, length);
+				}
+			}
+		} finally {
+			if (inflater != null) {
+				inflater.end();
+			}
+		}
+
+		ExampleSetBuilder builder = ExampleSets.from(allAttributes).withBlankSize(size);
+		for (int a = 0; a < columns.length; a++) {
+			double[] column = columns[a];
+			builder.withColumnFiller(allAttributes.get(a), row -> column[row]);
+		}
+		ExampleSet exampleSet = builder.build();
+		for (AttributeRole role : allRoles) {
+			if (role.isSpecial()) {
+				Attribute att = exampleSet.getAttributes().get(role.getAttribute().getName());
+				exampleSet.getAttributes().getRole(att).setSpecial(role.getSpecialName());
+			}
+		}
+		exampleSet.getAnnotations().putAll(header.getAnnotations());
+		return exampleSet;
+	}
+
+	/**
+	 * Returns the number of rows per row group such that a row group contains at most
+	 * {@link #VALUES_PER_ROW_GROUP} values, but not less than {@link #MIN_ROWS_PER_ROW_GROUP} rows.
+	 */
+	private static int getRowsPerGroup(int numberOfAttributes) {
+		int rows = VALUES_PER_ROW_GROUP / Math.max(1, numberOfAttributes);
+		return Math.max(MIN_ROWS_PER_ROW_GROUP, Math.min(MAX_ROWS_PER_ROW_GROUP, rows));
+	}
+
+	/**
+	 * Writes the first length values into the buffer using the smallest possible encoding and
+	 * returns the encoding.
+	 */
+	private static byte encode(double[] values, int length, ByteBuffer buffer) {
+		boolean integral = true;
+		int min = Integer.MAX_VALUE;
+		int max = Integer.MIN_VALUE + 1;
+		for (int i = 0; i < length && integral; i++) {
+			double value = values[i];
+			if (Double.isNaN(value)) {
+				continue;
+			}
+			int intValue = (int) value;
+			if (intValue == Integer.MIN_VALUE
+					|| Double.doubleToRawLongBits(intValue) != Double.doubleToRawLongBits(value)) {
+				integral = false;
+			} else {
+				min = Math.min(min, intValue);
+				max = Math.max(max, intValue);
+			}
+		}
+		if (!integral) {
+			for (int i = 0; i < length; i++) {
+				buffer.putDouble(values[i]);
+			}
+			return ENCODING_DOUBLE;
+		} else if (min > Byte.MIN_VALUE && max <= Byte.MAX_VALUE) {
+			for (int i = 0; i < length; i++) {
+				buffer.put(Double.isNaN(values[i]) ? Byte.MIN_VALUE : (byte) values[i]);
+			}
+			return ENCODING_BYTE;
+		} else if (min > Short.MIN_VALUE && max <= Short.MAX_VALUE) {
+			for (int i = 0; i < length; i++) {
+				buffer.putShort(Double.isNaN(values[i]) ? Short.MIN_VALUE : (short) values[i]);
+			}
+			return ENCODING_SHORT;
+		} else {
+			for (int i = 0; i < length; i++) {
+				buffer.putInt(Double.isNaN(values[i]) ? Integer.MIN_VALUE : (int) values[i]);
+			}
+			return ENCODING_INTEGER;
+		}
+	}
+
+	/**
+	 * Reads length values with the given encoding from the buffer into the column starting at the
+	 * given offset.
+	 */
+	private static void decode(byte encoding, ByteBuffer buffer, double[] column, int offset, int length)
+			throws IOException {
+		switch (encoding) {
+			case ENCODING_DOUBLE:
+				checkLength(buffer, 8L * length);
+				buffer.asDoubleBuffer().get(column, offset, length);
+				break;
+			case ENCODING_INTEGER:
+				checkLength(buffer, 4L * length);
+				for (int i = 0; i < length; i++) {
+					int value = buffer.getInt();
+					column[offset + i] = value == Integer.MIN_VALUE ? Double.NaN : value;
+				}
+				break;
+			case ENCODING_SHORT:
+				checkLength(buffer, 2L * length);
+				for (int i = 0; i < length; i++) {
+					short value = buffer.getShort();
+					column[offset + i] = value == Short.MIN_VALUE ? Double.NaN : value;
+				}
+				break;
+			case ENCODING_BYTE:
+				checkLength(buffer, length);
+				for (int i = 0; i < length; i++) {
+					byte value = buffer.get();
+					column[offset + i] = value == Byte.MIN_VALUE ? Double.NaN : value;
+				}
+				break;
+			default:
+				throw new IOException("Illegal chunk encoding: " + encoding);
+		}
+	}
+
+	private static void checkLength(ByteBuffer buffer, long expected) throws IOException {
+		if (buffer.remaining() != expected) {
+			throw new IOException("Illegal chunk length: " + buffer.remaining() + ", expected " + expected);
+		}
+	}
+
+	/** Inflates the stored buffer into the target buffer and prepares the latter for reading. */
+	private static void inflate(Inflater inflater, ByteBuffer stored, ByteBuffer target, int length) throws IOException {
+		inflater.reset();
+		inflater.setInput(stored.array(), stored.position(), stored.remaining());
+		try {
+			int inflated = 0;
+			while (inflated < length) {
+				int count = inflater.inflate(target.array(), inflated, length - inflated);
+				if (count == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+					break;
+				}
+				inflated += count;
+			}
+			if (inflated != length) {
+				throw new IOException("Corrupt compressed chunk");
+			}
+		} catch (DataFormatException e) {
+			throw new IOException("Corrupt compressed chunk", e);
+		}
+		target.clear().limit(length);
+	}
+
+	private static int readInt(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+		buffer.clear().limit(4);
+		return readFully(channel, buffer).getInt();
+	}
+
+	/** Fills the remaining buffer from the channel and flips it for reading. */
+	private static ByteBuffer readFully(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer) < 0) {
+				throw new EOFException("EOF while reading columnar example set");
+			}
+		}
+		buffer.flip();
+		return buffer;
+	}
+}
@@ -18,10 +18,12 @@
  */
 package com.rapidminer.operator.tools;
 
+import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InvalidObjectException;
@@ -111,6 +113,23 @@ public class IOObjectSerializer {
 		return type.getBodySerializer().deserialize(in);
 	}
 
+	/**
+	 * Deserializes an object serialized by
+	 * {@link #serialize(OutputStream, Object, SerializationType)} from a file. Example sets
+	 * serialized column by column are read from the file channel, all other types from a buffered
+	 * stream. The stream is not closed.
+	 *
+	 * @since 9.11
+	 */
+	public Object deserializeFromFile(FileInputStream in) throws IOException {
+		SerializationType type = deserializeHeader(in);
+		BodySerializer bodySerializer = type.getBodySerializer();
+		if (bodySerializer instanceof ColumnarExampleSetBodySerializer) {
+			return ((ColumnarExampleSetBodySerializer) bodySerializer).deserialize(in.getChannel());
+		}
+		return bodySerializer.deserialize(new BufferedInputStream(in));
+	}
+
 	/** Serializes the object into a byte buffer. */
 	public byte[] serializeToBuffer(Object o) throws IOException {
 		ByteArrayOutputStream bufOut = new ByteArrayOutputStream();
@@ -0,0 +1,615 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.operator.tools;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.stream.Stream;
+
+import com.rapidminer.RapidMiner;
+import com.rapidminer.adaption.belt.ContextAdapter;
+import com.rapidminer.adaption.belt.IOTable;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.operator.IOObject;
+import com.rapidminer.operator.Operator;
+import com.rapidminer.operator.ports.InputPort;
+import com.rapidminer.operator.ports.OutputPort;
+import com.rapidminer.parameter.ParameterType;
+import com.rapidminer.parameter.UndefinedParameterError;
+import com.rapidminer.storage.hdf5.Hdf5TableReader;
+import com.rapidminer.storage.hdf5.IOTableHdf5Writer;
+import com.rapidminer.studio.internal.Resources;
+import com.rapidminer.tools.FileSystemService;
+import com.rapidminer.tools.ParameterService;
+import com.rapidminer.tools.RandomGenerator;
+import com.rapidminer.tools.plugin.Plugin;
+
+
+/**
+ * A least recently used cache for the results of operator executions that is stored on the local
+ * disk and therefore survives process runs and restarts of the application. An execution is keyed
+ * by a hash of the operator class, its version and compatibility level, all parameter values and
+ * fingerprints of all input objects. Example sets are stored column by column, {@link IOTable}s as
+ * HDF5 files and all other objects with the default {@link IOObjectSerializer}.
+ * <p>
+ * Only operators that return {@code true} for {@link Operator#isResultCacheable()} are cached. The
+ * fingerprint of an input is the hash of its serialized form, or the key of the cached execution
+ * that delivered it, so that chains of cacheable operators do not need to serialize their
+ * intermediate results again. Inputs that cannot be serialized disable the cache for the execution.
+ * Executions that draw from the global random generator are not stored, see
+ * {@link RandomGenerator#getGlobalDraws()}. Please note that results of operators that modify their
+ * inputs in place or that use other sources of randomness cannot be reproduced and must not be
+ * marked as cacheable.
+ * <p>
+ * The size of the cache is defined by the setting
+ * {@link RapidMiner#PROPERTY_RAPIDMINER_SYSTEM_OPERATOR_RESULT_CACHE_SIZE} in MB, a size of 0
+ * disables the cache.
+ *
+ * @since 9.11
+ */
+public final class OperatorResultCache {
+
+	/** A weak reference to an object that was delivered by a cached execution. */
+	private static final class LineageReference extends WeakReference<IOObject> {
+
+		private final int hash;
+
+		private LineageReference(IOObject referent, ReferenceQueue<IOObject> queue) {
+			super(referent, queue);
+			this.hash = System.identityHashCode(referent);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof LineageReference)) {
+				return false;
+			}
+			IOObject referent = get();
+			return referent != null && referent == ((LineageReference) o).get();
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+
+	/** An output stream that discards everything, used to digest serialized objects. */
+	private static final class NullOutputStream extends OutputStream {
+
+		@Override
+		public void write(int b) {
+			// discard
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			// discard
+		}
+	}
+
+	private static final OperatorResultCache INSTANCE = new OperatorResultCache(null);
+
+	private static final long MEGABYTE = 1L << 20;
+
+	private static final String CACHE_FOLDER = "operator_results";
+
+	private static final String MANIFEST = "ports.properties";
+
+	private static final String EXAMPLE_SET_SUFFIX = ".ioo";
+
+	private static final String TABLE_SUFFIX = ".h5";
+
+	private static final String OBJECT_SUFFIX = ".bin";
+
+	private static final String DIGEST = "SHA-256";
+
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+	/** the size in bytes of every stored entry in access order, initialized lazily from the disk */
+	private LinkedHashMap<String, Long> entries;
+
+	/** the number of bytes currently stored */
+	private long usedBytes;
+
+	private long hits;
+
+	private long misses;
+
+	/** the fingerprints of objects delivered by cached executions */
+	private final Map<LineageReference, String> lineage = new HashMap<>();
+
+	private final ReferenceQueue<IOObject> lineageQueue = new ReferenceQueue<>();
+
+	/** the folder holding the entries or {@code null} for the default folder in the user directory */
+	private final Path cacheFolder;
+
+	/**
+	 * Creates a cache in the given folder.
+	 *
+	 * @param cacheFolder
+	 *            the folder holding the entries or {@code null} for the default folder
+	 */
+	OperatorResultCache(Path cacheFolder) {
+		this.cacheFolder = cacheFolder;
+	}
+
+	/**
+	 * @return the cache shared by all operators
+	 */
+	public static OperatorResultCache getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * @return whether the cache is enabled by the settings
+	 */
+	public static boolean isEnabled() {
+		return getCapacity() > 0;
+	}
+
+	/**
+	 * Creates the key of the current execution of the given operator.
+	 *
+	 * @param operator
+	 *            the operator about to be executed
+	 * @return the key or {@code null} if the cache is disabled, the operator is not cacheable or one
+	 *         of its inputs cannot be fingerprinted
+	 */
+	public String createKey(Operator operator) {
+		if (!isEnabled() || !operator.isResultCacheable() || usesGlobalRandom(operator)) {
+			return null;
+		}
+		try {
+			MessageDigest digest = MessageDigest.getInstance(DIGEST);
+			update(digest, operator.getClass().getName());
+			update(digest, operator.getOperatorDescription().getKey());
+			update(digest, operator.getCompatibilityLevel().toString());
+			Plugin provider = operator.getOperatorDescription().getProvider();
+			update(digest, provider == null ? RapidMiner.getLongVersion() : provider.getVersion());
+			for (ParameterType type : operator.getParameterTypes()) {
+				update(digest, type.getKey());
+				String value;
+				try {
+					value = operator.getParameter(type.getKey());
+				} catch (UndefinedParameterError e) {
+					value = null;
+				}
+				update(digest, value);
+			}
+			for (InputPort port : operator.getInputPorts().getAllPorts()) {
+				update(digest, port.getName());
+				IOObject input = port.getRawData();
+				if (input == null) {
+					update(digest, null);
+					continue;
+				}
+				String fingerprint = fingerprint(input);
+				if (fingerprint == null) {
+					return null;
+				}
+				update(digest, fingerprint);
+			}
+			return toHex(digest.digest());
+		} catch (NoSuchAlgorithmException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Delivers the results of a cached execution to the output ports of the operator. Entries that
+	 * cannot be read are removed from the cache.
+	 *
+	 * @param operator
+	 *            the operator whose execution should be replaced
+	 * @param key
+	 *            the key created by {@link #createKey(Operator)}
+	 * @return {@code true} if the results were cached and delivered
+	 */
+	public boolean replay(Operator operator, String key) {
+		Path folder;
+		synchronized (this) {
+			ensureInitialized();
+			if (entries.get(key) == null) {
+				misses++;
+				return false;
+			}
+			folder = getCacheFolder().resolve(key);
+		}
+		Map<OutputPort, IOObject> results = new LinkedHashMap<>();
+		try {
+			Properties manifest = new Properties();
+			try (InputStream in = Files.newInputStream(folder.resolve(MANIFEST))) {
+				manifest.load(in);
+			}
+			for (String portName : manifest.stringPropertyNames()) {
+				OutputPort port = operator.getOutputPorts().getPortByName(portName);
+				if (port == null) {
+					throw new IOException("Unknown output port " + portName);
+				}
+				results.put(port, read(operator, folder.resolve(manifest.getProperty(portName))));
+			}
+			Files.setLastModifiedTime(folder, FileTime.fromMillis(System.currentTimeMillis()));
+		} catch (IOException | RuntimeException e) {
+			operator.getLogger().log(Level.WARNING, "Cannot read cached results of " + operator.getName(), e);
+			synchronized (this) {
+				remove(key);
+				misses++;
+			}
+			return false;
+		}
+		for (Map.Entry<OutputPort, IOObject> result : results.entrySet()) {
+			result.getKey().deliver(result.getValue());
+			remember(result.getValue(), key, result.getKey().getName());
+		}
+		synchronized (this) {
+			hits++;
+		}
+		return true;
+	}
+
+	/**
+	 * Stores the results of the execution that just finished. The least recently used entries are
+	 * evicted if the cache is full, results larger than the complete cache are not stored. Failures
+	 * are logged but never thrown since the cache must not break the execution.
+	 *
+	 * @param operator
+	 *            the operator that was executed
+	 * @param key
+	 *            the key created by {@link #createKey(Operator)} before the execution
+	 */
+	public void store(Operator operator, String key) {
+		Path cacheFolder = getCacheFolder();
+		Path temp = cacheFolder.resolve("tmp_" + UUID.randomUUID().toString());
+		try {
+			Files.createDirectories(temp);
+			Properties manifest = new Properties();
+			int index = 0;
+			for (OutputPort port : operator.getOutputPorts().getAllPorts()) {
+				IOObject result = port.getRawData();
+				if (result == null) {
+					continue;
+				}
+				String fileName = (index++) + suffix(result);
+				write(result, temp.resolve(fileName));
+				manifest.setProperty(port.getName(), fileName);
+				remember(result, key, port.getName());
+			}
+			try (OutputStream out = Files.newOutputStream(temp.resolve(MANIFEST))) {
+				manifest.store(out, null);
+			}
+			long bytes = size(temp);
+			synchronized (this) {
+				ensureInitialized();
+				long capacity = getCapacity() * MEGABYTE;
+				if (bytes > capacity || entries.containsKey(key)) {
+					delete(temp);
+					return;
+				}
+				Iterator<Map.Entry<String, Long>> eldest = entries.entrySet().iterator();
+				while (usedBytes + bytes > capacity && eldest.hasNext()) {
+					Map.Entry<String, Long> evicted = eldest.next();
+					eldest.remove();
+					usedBytes -= evicted.getValue();
+					delete(cacheFolder.resolve(evicted.getKey()));
+				}
+				Files.move(temp, cacheFolder.resolve(key), StandardCopyOption.ATOMIC_MOVE);
+				entries.put(key, bytes);
+				usedBytes += bytes;
+			}
+		} catch (IOException | RuntimeException e) {
+			operator.getLogger().log(Level.WARNING, "Cannot cache results of " + operator.getName(), e);
+			delete(temp);
+		}
+	}
+
+	/**
+	 * Removes all entries from the disk and resets the statistics.
+	 */
+	public synchronized void clear() {
+		ensureInitialized();
+		for (String key : new ArrayList<>(entries.keySet())) {
+			remove(key);
+		}
+		lineage.clear();
+		hits = 0;
+		misses = 0;
+	}
+
+	/**
+	 * @return the number of successful lookups
+	 */
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	/**
+	 * @return the number of failed lookups
+	 */
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * @return the fraction of successful lookups or 0 if there were none yet
+	 */
+	public synchronized double getHitRate() {
+		long total = hits + misses;
+		return total == 0 ? 0 : (double) hits / total;
+	}
+
+	/**
+	 * @return the number of bytes currently used on the disk
+	 */
+	public synchronized long getUsedBytes() {
+		ensureInitialized();
+		return usedBytes;
+	}
+
+	@Override
+	public synchronized String toString() {
+		ensureInitialized();
+		return "operator result cache: " + entries.size() + " entries, " + usedBytes / MEGABYTE + " MB, hit rate "
+				+ Math.round(getHitRate() * 100) + "%";
+	}
+
+	/**
+	 * Returns the fingerprint of the input, either from the execution that delivered it or from
+	 * its serialized form.
+	 */
+	private String fingerprint(IOObject input) {
+		synchronized (this) {
+			expungeLineage();
+			String known = lineage.get(new LineageReference(input, null));
+			if (known != null) {
+				return known;
+			}
+		}
+		try {
+			MessageDigest digest = MessageDigest.getInstance(DIGEST);
+			try (OutputStream out = new DigestOutputStream(new NullOutputStream(), digest)) {
+				IOObjectSerializer.getInstance().serialize(out, input);
+			}
+			return toHex(digest.digest());
+		} catch (IOException | NoSuchAlgorithmException | RuntimeException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Remembers that the object was delivered to the given port by the cached execution.
+	 */
+	private synchronized void remember(IOObject result, String key, String portName) {
+		expungeLineage();
+		try {
+			MessageDigest digest = MessageDigest.getInstance(DIGEST);
+			update(digest, key);
+			update(digest, portName);
+			lineage.put(new LineageReference(result, lineageQueue), toHex(digest.digest()));
+		} catch (NoSuchAlgorithmException e) {
+			// the object will be fingerprinted by its content instead
+		}
+	}
+
+	/**
+	 * Removes the lineage of objects that were garbage collected.
+	 */
+	private void expungeLineage() {
+		Reference<? extends IOObject> collected;
+		while ((collected = lineageQueue.poll()) != null) {
+			lineage.remove(collected);
+		}
+	}
+
+	/**
+	 * Reads the existing entries from the disk, the least recently used first.
+	 */
+	private void ensureInitialized() {
+		if (entries != null) {
+			return;
+		}
+		entries = new LinkedHashMap<>(16, 0.75f, true);
+		usedBytes = 0;
+		Path cacheFolder = getCacheFolder();
+		if (!Files.isDirectory(cacheFolder)) {
+			return;
+		}
+		File[] folders = cacheFolder.toFile().listFiles(File::isDirectory);
+		if (folders == null) {
+			return;
+		}
+		Arrays.sort(folders, Comparator.comparingLong(File::lastModified));
+		for (File folder : folders) {
+			Path path = folder.toPath();
+			if (folder.getName().startsWith("tmp_") || !Files.exists(path.resolve(MANIFEST))) {
+				delete(path);
+				continue;
+			}
+			try {
+				long bytes = size(path);
+				entries.put(folder.getName(), bytes);
+				usedBytes += bytes;
+			} catch (IOException e) {
+				delete(path);
+			}
+		}
+	}
+
+	/**
+	 * Removes the entry from the index and the disk.
+	 */
+	private void remove(String key) {
+		Long bytes = entries.remove(key);
+		if (bytes != null) {
+			usedBytes -= bytes;
+		}
+		delete(getCacheFolder().resolve(key));
+	}
+
+	/**
+	 * Writes the result in the format matching its type.
+	 */
+	private static void write(IOObject result, Path file) throws IOException {
+		if (result instanceof IOTable) {
+			new IOTableHdf5Writer((IOTable) result).write(file);
+		} else {
+			try (OutputStream out = Files.newOutputStream(file)) {
+				if (result instanceof ExampleSet) {
+					IOObjectSerializer.getInstance().serialize(out, result, SerializationType.COLUMNAR_EXAMPLE_SET);
+				} else {
+					IOObjectSerializer.getInstance().serialize(out, result);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Reads a result written by {@link #write(IOObject, Path)}.
+	 */
+	private static IOObject read(Operator operator, Path file) throws IOException {
+		if (file.getFileName().toString().endsWith(TABLE_SUFFIX)) {
+			return Hdf5TableReader.read(file, ContextAdapter.adapt(Resources.getConcurrencyContext(operator)));
+		}
+		try (FileInputStream in = new FileInputStream(file.toFile())) {
+			Object result = IOObjectSerializer.getInstance().deserializeFromFile(in);
+			if (!(result instanceof IOObject)) {
+				throw new IOException("Cached result is no IOObject");
+			}
+			return (IOObject) result;
+		}
+	}
+
+	private static String suffix(IOObject result) {
+		if (result instanceof IOTable) {
+			return TABLE_SUFFIX;
+		}
+		return result instanceof ExampleSet ? EXAMPLE_SET_SUFFIX : OBJECT_SUFFIX;
+	}
+
+	/**
+	 * Operators using a random generator without a local seed cannot be reproduced. Operators
+	 * drawing from the global random generator without offering a local seed are detected after
+	 * their execution instead.
+	 */
+	private static boolean usesGlobalRandom(Operator operator) {
+		for (ParameterType type : operator.getParameterTypes()) {
+			if (RandomGenerator.PARAMETER_USE_LOCAL_RANDOM_SEED.equals(type.getKey())) {
+				return !operator.getParameterAsBoolean(RandomGenerator.PARAMETER_USE_LOCAL_RANDOM_SEED);
+			}
+		}
+		return false;
+	}
+
+	private static void update(MessageDigest digest, String value) {
+		if (value == null) {
+			digest.update((byte) 0);
+			return;
+		}
+		digest.update((byte) 1);
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		digest.update((byte) (bytes.length >>> 24));
+		digest.update((byte) (bytes.length >>> 16));
+		digest.update((byte) (bytes.length >>> 8));
+		digest.update((byte) bytes.length);
+		digest.update(bytes);
+	}
+
+	private static String toHex(byte[] bytes) {
+		char[] chars = new char[bytes.length * 2];
+		for (int i = 0; i < bytes.length; i++) {
+			chars[2 * i] = HEX[(bytes[i] >>> 4) & 0xF];
+			chars[2 * i + 1] = HEX[bytes[i] & 0xF];
+		}
+		return new String(chars);
+	}
+
+	private static long size(Path folder) throws IOException {
+		long bytes = 0;
+		try (Stream<Path> files = Files.list(folder)) {
+			for (Iterator<Path> it = files.iterator(); it.hasNext();) {
+				bytes += Files.size(it.next());
+			}
+		}
+		return bytes;
+	}
+
+	private static void delete(Path folder) {
+		try {
+			if (Files.isDirectory(folder)) {
+				List<Path> files = new ArrayList<>();
+				try (Stream<Path> stream = Files.list(folder)) {
+					stream.forEach(files::add);
+				}
+				for (Path file : files) {
+					Files.deleteIfExists(file);
+				}
+			}
+			Files.deleteIfExists(folder);
+		} catch (IOException e) {
+			// left behind, removed on the next initialization if it was a temporary folder
+		}
+	}
+
+	private Path getCacheFolder() {
+		if (cacheFolder != null) {
+			return cacheFolder;
+		}
+		return FileSystemService.getUserRapidMinerDir().toPath().resolve(CACHE_FOLDER);
+	}
+
+	/**
+	 * Reads the configured size in MB.
+	 */
+	private static long getCapacity() {
+		try {
+			return Math.max(0, Long.parseLong(
+					ParameterService.getParameterValue(RapidMiner.PROPERTY_RAPIDMINER_SYSTEM_OPERATOR_RESULT_CACHE_SIZE)));
+		} catch (NumberFormatException e) {
+			return 0;
+		}
+	}
+}
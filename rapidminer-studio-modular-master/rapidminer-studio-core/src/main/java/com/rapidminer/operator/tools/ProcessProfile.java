@@ -0,0 +1,275 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.operator.tools;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.rapidminer.operator.ResultObjectAdapter;
+import com.rapidminer.tools.Tools;
+
+
+/**
+ * The resource consumption of all operators of a process run as recorded by the
+ * {@link ProcessProfiler}. All applications of an operator, e.g. in different loop iterations, are
+ * aggregated into one {@link OperatorProfile}. Times, allocations and heap deltas are inclusive,
+ * i.e. they contain the consumption of inner operators executed in the same thread.
+ *
+ * @since 9.11
+ */
+public class ProcessProfile extends ResultObjectAdapter {
+
+	private static final long serialVersionUID = 2630170342418352561L;
+
+	/**
+	 * The aggregated resource consumption of all applications of a single operator.
+	 *
+	 * @since 9.11
+	 */
+	public static final class OperatorProfile implements Serializable {
+
+		private static final long serialVersionUID = -1958066946806722478L;
+
+		private final String name;
+		private final String operatorKey;
+		private int applications;
+		private long wallTime;
+		private long maxWallTime;
+		private long cpuTime;
+		private long allocatedBytes;
+		private long maxHeapDelta;
+		private long subprocessTime;
+		private long inputRows;
+		private long inputColumns;
+		private long outputRows;
+		private long outputColumns;
+
+		private OperatorProfile(String name, String operatorKey) {
+			this.name = name;
+			this.operatorKey = operatorKey;
+		}
+
+		private OperatorProfile(OperatorProfile other) {
+			this(other.name, other.operatorKey);
+			applications = other.applications;
+			wallTime = other.wallTime;
+			maxWallTime = other.maxWallTime;
+			cpuTime = other.cpuTime;
+			allocatedBytes = other.allocatedBytes;
+			maxHeapDelta = other.maxHeapDelta;
+			subprocessTime = other.subprocessTime;
+			inputRows = other.inputRows;
+			inputColumns = other.inputColumns;
+			outputRows = other.outputRows;
+			outputColumns = other.outputColumns;
+		}
+
+		/**
+		 * @return the name of the operator
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * @return the key of the operator description
+		 */
+		public String getOperatorKey() {
+			return operatorKey;
+		}
+
+		/**
+		 * @return how often the operator was applied
+		 */
+		public int getApplications() {
+			return applications;
+		}
+
+		/**
+		 * @return the total wall time of all applications in nanoseconds
+		 */
+		public long getWallTime() {
+			return wallTime;
+		}
+
+		/**
+		 * @return the wall time of the longest application in nanoseconds
+		 */
+		public long getMaxWallTime() {
+			return maxWallTime;
+		}
+
+		/**
+		 * @return the total wall time of all applications without the time spent in the inner
+		 *         operators in nanoseconds
+		 */
+		public long getSelfTime() {
+			return Math.max(0, wallTime - subprocessTime);
+		}
+
+		/**
+		 * @return the total CPU time of the executing threads in nanoseconds or {@code -1} if not
+		 *         supported by the JVM
+		 */
+		public long getCpuTime() {
+			return cpuTime;
+		}
+
+		/**
+		 * @return the total number of bytes allocated by the executing threads or {@code -1} if not
+		 *         supported by the JVM
+		 */
+		public long getAllocatedBytes() {
+			return allocatedBytes;
+		}
+
+		/**
+		 * @return the largest growth of the used heap during a single application in bytes
+		 */
+		public long getMaxHeapDelta() {
+			return maxHeapDelta;
+		}
+
+		/**
+		 * @return the total wall time of the directly inner operators in nanoseconds, inner
+		 *         operators executed in parallel are summed up
+		 */
+		public long getSubprocessTime() {
+			return subprocessTime;
+		}
+
+		/**
+		 * @return the total number of rows of all data tables received
+		 */
+		public long getInputRows() {
+			return inputRows;
+		}
+
+		/**
+		 * @return the total number of columns of all data tables received
+		 */
+		public long getInputColumns() {
+			return inputColumns;
+		}
+
+		/**
+		 * @return the total number of rows of all data tables delivered
+		 */
+		public long getOutputRows() {
+			return outputRows;
+		}
+
+		/**
+		 * @return the total number of columns of all data tables delivered
+		 */
+		public long getOutputColumns() {
+			return outputColumns;
+		}
+	}
+
+	/** the profiles by operator name in the order of the first application */
+	private final Map<String, OperatorProfile> profiles = new LinkedHashMap<>();
+
+	/**
+	 * Adds a single application of an operator to its profile.
+	 */
+	synchronized void record(String name, String operatorKey, long wallTime, long cpuTime, long allocatedBytes,
+			long heapDelta, long subprocessTime, long[] input, long[] output) {
+		OperatorProfile profile = profiles.computeIfAbsent(name, n -> new OperatorProfile(n, operatorKey));
+		profile.applications++;
+		profile.wallTime += wallTime;
+		profile.maxWallTime = Math.max(profile.maxWallTime, wallTime);
+		profile.cpuTime = cpuTime < 0 || profile.cpuTime < 0 ? -1 : profile.cpuTime + cpuTime;
+		profile.allocatedBytes = allocatedBytes < 0 || profile.allocatedBytes < 0 ? -1
+				: profile.allocatedBytes + allocatedBytes;
+		profile.maxHeapDelta = Math.max(profile.maxHeapDelta, heapDelta);
+		profile.subprocessTime += subprocessTime;
+		profile.inputRows += input[0];
+		profile.inputColumns += input[1];
+		profile.outputRows += output[0];
+		profile.outputColumns += output[1];
+	}
+
+	/**
+	 * @param name
+	 *            the name of the operator
+	 * @return the profile of the operator or {@code null} if it was not applied
+	 */
+	public synchronized OperatorProfile getOperatorProfile(String name) {
+		OperatorProfile profile = profiles.get(name);
+		return profile == null ? null : new OperatorProfile(profile);
+	}
+
+	/**
+	 * @return copies of all operator profiles, the largest CPU consumers first
+	 */
+	public synchronized List<OperatorProfile> getOperatorProfiles() {
+		List<OperatorProfile> result = new ArrayList<>(profiles.size());
+		for (OperatorProfile profile : profiles.values()) {
+			result.add(new OperatorProfile(profile));
+		}
+		result.sort(Comparator.comparingLong(OperatorProfile::getCpuTime).thenComparingLong(OperatorProfile::getWallTime)
+				.reversed());
+		return result;
+	}
+
+	/**
+	 * @return a snapshot of this profile that is not changed by further applications
+	 */
+	public synchronized ProcessProfile copy() {
+		ProcessProfile copy = new ProcessProfile();
+		for (Map.Entry<String, OperatorProfile> entry : profiles.entrySet()) {
+			copy.profiles.put(entry.getKey(), new OperatorProfile(entry.getValue()));
+		}
+		return copy;
+	}
+
+	@Override
+	public String getName() {
+		return "Process Profile";
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("operator\tapplications\twall time\tself time\tCPU time\tallocated\tmax heap delta\trows in\trows out");
+		for (OperatorProfile profile : getOperatorProfiles()) {
+			builder.append(Tools.getLineSeparator());
+			builder.append(profile.getName()).append('\t');
+			builder.append(profile.getApplications()).append('\t');
+			builder.append(formatNanos(profile.getWallTime())).append('\t');
+			builder.append(formatNanos(profile.getSelfTime())).append('\t');
+			builder.append(profile.getCpuTime() < 0 ? "?" : formatNanos(profile.getCpuTime())).append('\t');
+			builder.append(profile.getAllocatedBytes() < 0 ? "?" : Tools.formatBytes(profile.getAllocatedBytes()))
+					.append('\t');
+			builder.append(Tools.formatBytes(profile.getMaxHeapDelta())).append('\t');
+			builder.append(profile.getInputRows()).append('\t');
+			builder.append(profile.getOutputRows());
+		}
+		return builder.toString();
+	}
+
+	private static String formatNanos(long nanos) {
+		return Tools.formatDuration(nanos / 1_000_000);
+	}
+}
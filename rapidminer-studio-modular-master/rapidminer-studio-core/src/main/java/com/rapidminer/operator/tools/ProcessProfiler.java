@@ -0,0 +1,173 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.operator.tools;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.rapidminer.Process;
+import com.rapidminer.ProcessListener;
+import com.rapidminer.adaption.belt.IOTable;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.operator.IOObject;
+import com.rapidminer.operator.Operator;
+import com.rapidminer.operator.ports.Port;
+import com.rapidminer.operator.ports.Ports;
+
+
+/**
+ * A {@link ProcessListener} that records the wall time, thread CPU time, allocated bytes, heap
+ * growth, the size of the received and delivered data tables and the time spent in inner operators
+ * of every operator application into a {@link ProcessProfile}. Applications are tracked per thread,
+ * so that operators executed in parallel are measured correctly. Applications that fail are not
+ * recorded.
+ *
+ * @since 9.11
+ */
+public final class ProcessProfiler implements ProcessListener {
+
+	/** A running operator application. */
+	private static final class Frame {
+
+		private final Operator operator;
+		private final long startTime;
+		private final long startCpuTime;
+		private final long startAllocatedBytes;
+		private final long startHeap;
+		private final long[] input;
+		private final AtomicLong subprocessTime = new AtomicLong();
+
+		private Frame(Operator operator) {
+			this.operator = operator;
+			this.input = countData(operator.getInputPorts());
+			this.startHeap = MEMORY.getHeapMemoryUsage().getUsed();
+			this.startAllocatedBytes = getAllocatedBytes();
+			this.startCpuTime = getCpuTime();
+			this.startTime = System.nanoTime();
+		}
+	}
+
+	private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+	private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+	private static final boolean CPU_TIME_SUPPORTED = THREADS.isThreadCpuTimeSupported();
+
+	private static final boolean ALLOCATION_SUPPORTED = THREADS instanceof com.sun.management.ThreadMXBean
+			&& ((com.sun.management.ThreadMXBean) THREADS).isThreadAllocatedMemorySupported();
+
+	private volatile ProcessProfile profile = new ProcessProfile();
+
+	/** the running applications of the current thread, the innermost last */
+	private final ThreadLocal<Deque<Frame>> frames = ThreadLocal.withInitial(ArrayDeque::new);
+
+	/** the running applications of all threads */
+	private final Map<Operator, Frame> running = new ConcurrentHashMap<>();
+
+	/**
+	 * @return the profile of the current or last process run
+	 */
+	public ProcessProfile getProfile() {
+		return profile;
+	}
+
+	@Override
+	public void processStarts(Process process) {
+		profile = new ProcessProfile();
+		running.clear();
+	}
+
+	@Override
+	public void processStartedOperator(Process process, Operator op) {
+		Frame frame = new Frame(op);
+		frames.get().addLast(frame);
+		running.put(op, frame);
+	}
+
+	@Override
+	public void processFinishedOperator(Process process, Operator op) {
+		long endTime = System.nanoTime();
+		long cpuTime = getCpuTime();
+		long allocatedBytes = getAllocatedBytes();
+		Deque<Frame> stack = frames.get();
+		Frame frame = null;
+		// drop applications that failed without finishing
+		while (!stack.isEmpty() && frame == null) {
+			Frame last = stack.removeLast();
+			running.remove(last.operator, last);
+			if (last.operator == op) {
+				frame = last;
+			}
+		}
+		if (frame == null) {
+			return;
+		}
+		long wallTime = endTime - frame.startTime;
+		Operator parent = op.getParent();
+		Frame parentFrame = parent == null ? null : running.get(parent);
+		if (parentFrame != null) {
+			parentFrame.subprocessTime.addAndGet(wallTime);
+		}
+		long heapDelta = Math.max(0, MEMORY.getHeapMemoryUsage().getUsed() - frame.startHeap);
+		profile.record(op.getName(), op.getOperatorDescription().getKey(), wallTime,
+				CPU_TIME_SUPPORTED ? cpuTime - frame.startCpuTime : -1,
+				ALLOCATION_SUPPORTED ? allocatedBytes - frame.startAllocatedBytes : -1, heapDelta,
+				frame.subprocessTime.get(), frame.input, countData(op.getOutputPorts()));
+	}
+
+	@Override
+	public void processEnded(Process process) {
+		running.clear();
+		frames.remove();
+	}
+
+	/**
+	 * Sums up the rows and columns of all data tables at the ports.
+	 */
+	private static long[] countData(Ports<? extends Port> ports) {
+		long[] counts = new long[2];
+		for (Port port : ports.getAllPorts()) {
+			IOObject data = port.getRawData();
+			if (data instanceof ExampleSet) {
+				counts[0] += ((ExampleSet) data).size();
+				counts[1] += ((ExampleSet) data).getAttributes().allSize();
+			} else if (data instanceof IOTable) {
+				counts[0] += ((IOTable) data).getTable().height();
+				counts[1] += ((IOTable) data).getTable().width();
+			}
+		}
+		return counts;
+	}
+
+	private static long getCpuTime() {
+		return CPU_TIME_SUPPORTED ? THREADS.getCurrentThreadCpuTime() : -1;
+	}
+
+	private static long getAllocatedBytes() {
+		return ALLOCATION_SUPPORTED
+				? ((com.sun.management.ThreadMXBean) THREADS).getThreadAllocatedBytes(Thread.currentThread().getId())
+				: -1;
+	}
+}
@@ -0,0 +1,57 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.operator.tools;
+
+import com.rapidminer.Process;
+import com.rapidminer.operator.Operator;
+import com.rapidminer.operator.OperatorDescription;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.ports.DummyPortPairExtender;
+import com.rapidminer.operator.ports.OutputPort;
+import com.rapidminer.operator.ports.PortPairExtender;
+
+
+/**
+ * Delivers the {@link ProcessProfile} of the running process, containing all operator applications
+ * finished before this operator. Profiling is enabled for every process containing this operator,
+ * independent of the setting {@link com.rapidminer.RapidMiner#PROPERTY_RAPIDMINER_SYSTEM_OPERATOR_PROFILING}.
+ *
+ * @since 9.11
+ */
+public class ProvideProcessProfileOperator extends Operator {
+
+	private final PortPairExtender dummyPorts = new DummyPortPairExtender("through", getInputPorts(), getOutputPorts());
+
+	private final OutputPort profileOutput = getOutputPorts().createPort("profile");
+
+	public ProvideProcessProfileOperator(OperatorDescription description) {
+		super(description);
+		dummyPorts.start();
+		getTransformer().addRule(dummyPorts.makePassThroughRule());
+		getTransformer().addGenerationRule(profileOutput, ProcessProfile.class);
+	}
+
+	@Override
+	public void doWork() throws OperatorException {
+		Process process = getProcess();
+		ProcessProfile profile = process == null ? null : process.getProfile();
+		profileOutput.deliver(profile == null ? new ProcessProfile() : profile.copy());
+		dummyPorts.passDataThrough();
+	}
+}
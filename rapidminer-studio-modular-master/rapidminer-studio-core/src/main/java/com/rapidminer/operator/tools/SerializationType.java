@@ -115,7 +115,22 @@ public enum SerializationType {
 
 	STREAMED_EXAMPLE_SET_DENSE_2(new StreamedExampleSetBodySerializer(ExampleSetToStream.VERSION_2)),
 
-	STREAMED_EXAMPLE_SET_DENSE_3(new StreamedExampleSetBodySerializer(ExampleSetToStream.VERSION_3));
+	STREAMED_EXAMPLE_SET_DENSE_3(new StreamedExampleSetBodySerializer(ExampleSetToStream.VERSION_3)),
+
+	/**
+	 * Example sets written column by column using {@link ExampleSetToColumns}.
+	 *
+	 * @since 9.11
+	 */
+	COLUMNAR_EXAMPLE_SET(new ColumnarExampleSetBodySerializer(false)),
+
+	/**
+	 * Example sets written column by column using {@link ExampleSetToColumns} with compressed
+	 * chunks.
+	 *
+	 * @since 9.11
+	 */
+	COLUMNAR_EXAMPLE_SET_COMPRESSED(new ColumnarExampleSetBodySerializer(true));
 
 	public static SerializationType STREAMED_EXAMPLE_SET_DENSE_CURRENT_VERSION = STREAMED_EXAMPLE_SET_DENSE_3;
 
@@ -83,6 +83,18 @@ public abstract class AbstractBootstrappingValidation extends ValidationChain {
 
 		// start bootstrapping loop
 		RandomGenerator random = RandomGenerator.getRandomGenerator(this);
+		if (isParallelExecution(number)) {
+			// the mappings are created upfront so that they do not depend on the execution order
+			ExampleSet data = getDataCopy(inputSet, true);
+			int[][] mappings = new int[number][];
+			for (int i = 0; i < number; i++) {
+				mappings[i] = createMapping(data, (int) Math.round(data.size() * sampleRatio), random);
+			}
+			executeIterationsInParallel(number, data,
+					(sample, training) -> new MappedExampleSet(data, mappings[sample], training));
+			iteration = number;
+			return;
+		}
 		for (iteration = 0; iteration < number; iteration++) {
 			int[] mapping = createMapping(inputSet, (int) Math.round(inputSet.size() * sampleRatio), random);
 			MappedExampleSet trainingSet = new MappedExampleSet(inputSet, mapping, true);
@@ -109,6 +109,12 @@ public class BatchXValidation extends ValidationChain {
 			throw new UserError(this, 113, Attributes.BATCH_NAME);
 		}
 		SplittedExampleSet splittedES = SplittedExampleSet.splitByAttribute(inputSet, batchAttribute);
+		boolean parallel = isParallelExecution(splittedES.getNumberOfSubsets());
+		ExampleSet data = inputSet;
+		if (parallel) {
+			data = getDataCopy(inputSet, true);
+			splittedES = SplittedExampleSet.splitByAttribute(data, data.getAttributes().getSpecial(Attributes.BATCH_NAME));
+		}
 
 		// start crossvalidation
 		if (modelOutput.isConnected()) {
@@ -118,6 +124,20 @@ public class BatchXValidation extends ValidationChain {
 		}
 		getProgress().setCheckForStop(false);
 
+		if (parallel) {
+			SplittedExampleSet batches = splittedES;
+			executeIterationsInParallel(batches.getNumberOfSubsets(), data, (batch, training) -> {
+				SplittedExampleSet batchSet = new SplittedExampleSet(batches);
+				if (training) {
+					batchSet.selectAllSubsetsBut(batch);
+				} else {
+					batchSet.selectSingleSubset(batch);
+				}
+				return batchSet;
+			});
+			iteration = batches.getNumberOfSubsets();
+			return;
+		}
 		for (iteration = 0; iteration < splittedES.getNumberOfSubsets(); iteration++) {
 			splittedES.selectAllSubsetsBut(iteration);
 			learn(splittedES);
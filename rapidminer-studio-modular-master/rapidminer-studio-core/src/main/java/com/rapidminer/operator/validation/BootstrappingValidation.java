@@ -108,6 +108,22 @@ public class BootstrappingValidation extends ValidationChain {
 		}
 		getProgress().setCheckForStop(false);
 
+		if (isParallelExecution(number)) {
+			// the mappings are created upfront so that they do not depend on the execution order
+			ExampleSet data = getDataCopy(inputSet, true);
+			int[][] mappings = new int[number][];
+			for (int i = 0; i < number; i++) {
+				if (useWeights && data.getAttributes().getWeight() != null) {
+					mappings[i] = MappedExampleSet.createWeightedBootstrappingMapping(data, size, random);
+				} else {
+					mappings[i] = MappedExampleSet.createBootstrappingMapping(data, size, random);
+				}
+			}
+			executeIterationsInParallel(number, data,
+					(sample, training) -> new MappedExampleSet(data, mappings[sample], training));
+			iteration = number;
+			return;
+		}
 		for (iteration = 0; iteration < number; iteration++) {
 			int[] mapping = null;
 			if (useWeights && inputSet.getAttributes().getWeight() != null) {
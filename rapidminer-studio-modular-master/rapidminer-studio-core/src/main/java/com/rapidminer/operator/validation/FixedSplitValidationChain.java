@@ -131,11 +131,17 @@ public class FixedSplitValidationChain extends ValidationChain {
 				+ " examples are not used.");
 		double[] ratios = new double[] { (double) trainingSetSize / (double) inputSetSize,
 				(double) testSetSize / (double) inputSetSize, (double) rest / (double) inputSetSize };
-		SplittedExampleSet eSet = new SplittedExampleSet(inputSet, ratios, getParameterAsInt(PARAMETER_SAMPLING_TYPE),
+		boolean parallel = isParallelExecution(1);
+		ExampleSet data = parallel ? getDataCopy(inputSet, true) : inputSet;
+		SplittedExampleSet eSet = new SplittedExampleSet(data, ratios, getParameterAsInt(PARAMETER_SAMPLING_TYPE),
 				getParameterAsBoolean(RandomGenerator.PARAMETER_USE_LOCAL_RANDOM_SEED),
 				getParameterAsInt(RandomGenerator.PARAMETER_LOCAL_RANDOM_SEED), getCompatibilityLevel().isAtMost(
 						SplittedExampleSet.VERSION_SAMPLING_CHANGED));
 
+		if (parallel) {
+			executeSplitInParallel(data, eSet);
+			return;
+		}
 		eSet.selectSingleSubset(0);
 		learn(eSet);
 		eSet.selectSingleSubset(1);
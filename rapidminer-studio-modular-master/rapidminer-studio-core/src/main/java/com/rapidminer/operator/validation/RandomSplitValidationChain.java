@@ -94,12 +94,18 @@ public class RandomSplitValidationChain extends ValidationChain {
 
 	@Override
 	public void estimatePerformance(ExampleSet inputSet) throws OperatorException {
+		boolean parallel = isParallelExecution(1);
+		ExampleSet data = parallel ? getDataCopy(inputSet, true) : inputSet;
 		double splitRatio = getParameterAsDouble(PARAMETER_SPLIT_RATIO);
-		SplittedExampleSet eSet = new SplittedExampleSet(inputSet, splitRatio, getParameterAsInt(PARAMETER_SAMPLING_TYPE),
+		SplittedExampleSet eSet = new SplittedExampleSet(data, splitRatio, getParameterAsInt(PARAMETER_SAMPLING_TYPE),
 				getParameterAsBoolean(RandomGenerator.PARAMETER_USE_LOCAL_RANDOM_SEED),
 				getParameterAsInt(RandomGenerator.PARAMETER_LOCAL_RANDOM_SEED), getCompatibilityLevel().isAtMost(
 						SplittedExampleSet.VERSION_SAMPLING_CHANGED));
 
+		if (parallel) {
+			executeSplitInParallel(data, eSet);
+			return;
+		}
 		eSet.selectSingleSubset(0);
 		learn(eSet);
 		eSet.selectSingleSubset(1);
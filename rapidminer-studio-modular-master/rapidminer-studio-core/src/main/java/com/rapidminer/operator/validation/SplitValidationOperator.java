@@ -121,11 +121,13 @@ public class SplitValidationOperator extends ValidationChain {
 	@Override
 	public void estimatePerformance(ExampleSet inputSet) throws OperatorException {
 		SplittedExampleSet eSet = null;
+		boolean parallel = isParallelExecution(1);
+		ExampleSet data = parallel ? getDataCopy(inputSet, true) : inputSet;
 
 		switch (getParameterAsInt(PARAMETER_SPLIT)) {
 			case SPLIT_RELATIVE:
 				double splitRatio = getParameterAsDouble(PARAMETER_SPLIT_RATIO);
-				eSet = new SplittedExampleSet(inputSet, splitRatio, getParameterAsInt(PARAMETER_SAMPLING_TYPE),
+				eSet = new SplittedExampleSet(data, splitRatio, getParameterAsInt(PARAMETER_SAMPLING_TYPE),
 						getParameterAsBoolean(RandomGenerator.PARAMETER_USE_LOCAL_RANDOM_SEED),
 						getParameterAsInt(RandomGenerator.PARAMETER_LOCAL_RANDOM_SEED),
 						getCompatibilityLevel().isAtMost(SplittedExampleSet.VERSION_SAMPLING_CHANGED));
@@ -154,7 +156,7 @@ public class SplitValidationOperator extends ValidationChain {
 						+ rest + " examples are not used.");
 				double[] ratios = new double[] { (double) trainingSetSize / (double) inputSetSize,
 						(double) testSetSize / (double) inputSetSize, (double) rest / (double) inputSetSize };
-				eSet = new SplittedExampleSet(inputSet, ratios, getParameterAsInt(PARAMETER_SAMPLING_TYPE),
+				eSet = new SplittedExampleSet(data, ratios, getParameterAsInt(PARAMETER_SAMPLING_TYPE),
 						getParameterAsBoolean(RandomGenerator.PARAMETER_USE_LOCAL_RANDOM_SEED),
 						getParameterAsInt(RandomGenerator.PARAMETER_LOCAL_RANDOM_SEED),
 						getCompatibilityLevel().isAtMost(SplittedExampleSet.VERSION_SAMPLING_CHANGED));
@@ -162,6 +164,10 @@ public class SplitValidationOperator extends ValidationChain {
 			}
 		}
 
+		if (parallel) {
+			executeSplitInParallel(data, eSet);
+			return;
+		}
 		eSet.selectSingleSubset(0);
 		learn(eSet);
 		eSet.selectSingleSubset(1);
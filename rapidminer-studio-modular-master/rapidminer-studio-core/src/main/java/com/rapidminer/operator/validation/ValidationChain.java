@@ -18,16 +18,18 @@
  */
 package com.rapidminer.operator.validation;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import com.rapidminer.example.Attribute;
 import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.set.SplittedExampleSet;
 import com.rapidminer.operator.IOObject;
 import com.rapidminer.operator.Model;
-import com.rapidminer.operator.OperatorChain;
 import com.rapidminer.operator.OperatorDescription;
 import com.rapidminer.operator.OperatorException;
 import com.rapidminer.operator.ValueDouble;
+import com.rapidminer.operator.concurrency.internal.ParallelOperatorChain;
 import com.rapidminer.operator.learner.CapabilityProvider;
 import com.rapidminer.operator.learner.PredictionModel;
 import com.rapidminer.operator.performance.PerformanceCriterion;
@@ -35,6 +37,7 @@ import com.rapidminer.operator.performance.PerformanceVector;
 import com.rapidminer.operator.ports.InputPort;
 import com.rapidminer.operator.ports.OutputPort;
 import com.rapidminer.operator.ports.PortPairExtender;
+import com.rapidminer.operator.ports.PortPairExtender.PortPair;
 import com.rapidminer.operator.ports.metadata.CapabilityPrecondition;
 import com.rapidminer.operator.ports.metadata.ExampleSetMetaData;
 import com.rapidminer.operator.ports.metadata.ExampleSetPassThroughRule;
@@ -60,7 +63,43 @@ import com.rapidminer.tools.math.AverageVector;
  *
  * @author Ingo Mierswa, Simon Fischer
  */
-public abstract class ValidationChain extends OperatorChain implements CapabilityProvider {
+public abstract class ValidationChain extends ParallelOperatorChain implements CapabilityProvider {
+
+	/**
+	 * Creates the training or test set of a single validation iteration for the parallel
+	 * execution. Sets of different iterations are created concurrently, so the sets must be
+	 * independent views on thread-safe data.
+	 *
+	 * @since 9.11
+	 */
+	@FunctionalInterface
+	protected interface IterationSet {
+
+		/**
+		 * Creates the training or test set for the iteration.
+		 *
+		 * @param iteration
+		 *            the iteration
+		 * @param training
+		 *            {@code true} for the training set, {@code false} for the test set
+		 * @return a new example set
+		 * @throws OperatorException
+		 *             if the set cannot be created
+		 */
+		ExampleSet create(int iteration, boolean training) throws OperatorException;
+	}
+
+	/** The result of a single task of the parallel execution. */
+	private static final class IterationResult {
+
+		private final List<AverageVector> averages;
+		private final IOObject model;
+
+		private IterationResult(List<AverageVector> averages, IOObject model) {
+			this.averages = averages;
+			this.model = model;
+		}
+	}
 
 	/**
 	 * The parameter name for &quot;Indicates if a model of the complete data set should be
@@ -97,6 +136,9 @@ public abstract class ValidationChain extends OperatorChain implements Capabilit
 	private double lastSecondPerformance = Double.NaN;
 	private double lastThirdPerformance = Double.NaN;
 
+	/** the model on the complete data if it was learned during a parallel execution */
+	private IOObject parallelModel;
+
 	public ValidationChain(OperatorDescription description) {
 		super(description, "Training", "Testing");
 		throughExtender.start();
@@ -282,13 +324,19 @@ public abstract class ValidationChain extends OperatorChain implements Capabilit
 	@Override
 	public void doWork() throws OperatorException {
 		ExampleSet eSet = trainingSetInput.getData(ExampleSet.class);
+		parallelModel = null;
 		estimatePerformance(eSet);
 
 		// Generate complete model, if desired
 		if (modelOutput.isConnected()) {
-			learnFinalModel(eSet);
+			IOObject model = parallelModel;
+			if (model == null) {
+				learnFinalModel(eSet);
+				model = trainingProcessModelInput.getData(IOObject.class);
+			}
+			parallelModel = null;
 			getProgress().complete();
-			modelOutput.deliver(trainingProcessModelInput.getData(IOObject.class));
+			modelOutput.deliver(model);
 		}
 		exampleSetOutput.deliver(eSet);
 
@@ -307,6 +355,101 @@ public abstract class ValidationChain extends OperatorChain implements Capabilit
 		}
 	}
 
+	/**
+	 * Checks whether the iterations should be executed by
+	 * {@link #executeIterationsInParallel(int, ExampleSet, IterationSet)}. This is the case if the
+	 * parallel execution is enabled, there are no breakpoints and there is more than one task,
+	 * counting the final model as a task.
+	 *
+	 * @param numberOfIterations
+	 *            the number of validation iterations
+	 * @return whether the iterations should be executed in parallel
+	 * @since 9.11
+	 */
+	protected boolean isParallelExecution(int numberOfIterations) {
+		int numberOfTasks = numberOfIterations + (modelOutput.isConnected() ? 1 : 0);
+		return numberOfTasks > 1 && checkParallelizability();
+	}
+
+	/**
+	 * Executes the validation iterations concurrently, each on its own clone of this operator. If
+	 * the model output is connected, the final model is learned on the input set concurrently to
+	 * the iterations. The averagable results are averaged in the order of the iterations, so the
+	 * result is the same as for the sequential execution as long as the inner operators use local
+	 * random seeds. Draws from the global random generator happen in a different order.
+	 *
+	 * @param numberOfIterations
+	 *            the number of validation iterations
+	 * @param inputSet
+	 *            the thread-safe input set, see
+	 *            {@link #getDataCopy(IOObject, boolean)}
+	 * @param sets
+	 *            creates the training and test sets of the iterations
+	 * @throws OperatorException
+	 *             if the execution of an iteration fails
+	 * @since 9.11
+	 */
+	protected final void executeIterationsInParallel(int numberOfIterations, ExampleSet inputSet, IterationSet sets)
+			throws OperatorException {
+		boolean learnModel = modelOutput.isConnected();
+		int numberOfTasks = numberOfIterations + (learnModel ? 1 : 0);
+		List<IterationResult> results = executeOnClones(numberOfTasks, estimateMemoryPerIteration(inputSet),
+				(ValidationChain clone, int index) -> {
+					if (index == numberOfIterations) {
+						clone.learnFinalModel((ExampleSet) inputSet.clone());
+						return new IterationResult(null, clone.trainingProcessModelInput.getData(IOObject.class));
+					}
+					clone.learn(sets.create(index, true));
+					clone.evaluate(sets.create(index, false));
+					List<AverageVector> averages = new ArrayList<>();
+					for (PortPair pair : clone.applyProcessPerformancePortExtender.getManagedPairs()) {
+						averages.add(pair.getOutputPort().getDataOrNull(AverageVector.class));
+					}
+					return new IterationResult(averages, null);
+				});
+
+		List<PortPair> pairs = applyProcessPerformancePortExtender.getManagedPairs();
+		for (IterationResult result : results) {
+			if (result.model != null) {
+				parallelModel = result.model;
+				continue;
+			}
+			for (int i = 0; i < pairs.size() && i < result.averages.size(); i++) {
+				Tools.buildAverages(result.averages.get(i), pairs.get(i).getOutputPort());
+			}
+		}
+	}
+
+	/**
+	 * Executes a single validation with the first subset of the split set as training set and the
+	 * second subset as test set in parallel to learning the final model.
+	 *
+	 * @param inputSet
+	 *            the thread-safe input set
+	 * @param splittedSet
+	 *            the split of the input set
+	 * @throws OperatorException
+	 *             if the execution fails
+	 * @since 9.11
+	 */
+	protected final void executeSplitInParallel(ExampleSet inputSet, SplittedExampleSet splittedSet)
+			throws OperatorException {
+		executeIterationsInParallel(1, inputSet, (iteration, training) -> {
+			SplittedExampleSet set = new SplittedExampleSet(splittedSet);
+			set.selectSingleSubset(training ? 0 : 1);
+			return set;
+		});
+	}
+
+	/**
+	 * Estimates the memory needed by a single iteration as the size of the input data. This is a
+	 * rough guess, since the views of the iterations share the data but learners usually need
+	 * memory in the order of the data.
+	 */
+	private static long estimateMemoryPerIteration(ExampleSet inputSet) {
+		return (long) inputSet.size() * inputSet.getAttributes().allSize() * Double.BYTES;
+	}
+
 	/** Applies the learner (= first encapsulated inner operator). for building the final model. */
 	protected void learnFinalModel(ExampleSet trainingSet) throws OperatorException {
 		learn(trainingSet);
@@ -345,6 +488,15 @@ public abstract class ValidationChain extends OperatorChain implements Capabilit
 		}
 	}
 
+	/**
+	 * Returns {@code false}, since existing validation processes must keep their sequential
+	 * behavior unless parallel execution is chosen explicitly.
+	 */
+	@Override
+	protected boolean isParallelExecutionEnabledByDefault() {
+		return false;
+	}
+
 	@Override
 	public List<ParameterType> getParameterTypes() {
 		List<ParameterType> types = super.getParameterTypes();
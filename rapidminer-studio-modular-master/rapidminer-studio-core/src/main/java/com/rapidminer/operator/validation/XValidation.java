@@ -153,8 +153,10 @@ public class XValidation extends ValidationChain {
 		getLogger().fine("Starting " + number + "-fold cross validation");
 
 		// Split training / test set
+		boolean parallel = isParallelExecution(number);
+		ExampleSet data = parallel ? getDataCopy(inputSet, true) : inputSet;
 		int samplingType = getParameterAsInt(PARAMETER_SAMPLING_TYPE);
-		SplittedExampleSet splittedES = new SplittedExampleSet(inputSet, number, samplingType,
+		SplittedExampleSet splittedES = new SplittedExampleSet(data, number, samplingType,
 				getParameterAsBoolean(RandomGenerator.PARAMETER_USE_LOCAL_RANDOM_SEED),
 				getParameterAsInt(RandomGenerator.PARAMETER_LOCAL_RANDOM_SEED),
 				getCompatibilityLevel().isAtMost(SplittedExampleSet.VERSION_SAMPLING_CHANGED));
@@ -167,6 +169,19 @@ public class XValidation extends ValidationChain {
 		}
 		getProgress().setCheckForStop(false);
 
+		if (parallel) {
+			executeIterationsInParallel(number, data, (fold, training) -> {
+				SplittedExampleSet foldSet = new SplittedExampleSet(splittedES);
+				if (training) {
+					foldSet.selectAllSubsetsBut(fold);
+				} else {
+					foldSet.selectSingleSubset(fold);
+				}
+				return foldSet;
+			});
+			iteration = number;
+			return;
+		}
 		for (iteration = 0; iteration < number; iteration++) {
 			performIteration(splittedES, iteration);
 		}
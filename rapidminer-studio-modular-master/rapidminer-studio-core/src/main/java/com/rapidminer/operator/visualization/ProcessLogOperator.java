@@ -249,9 +249,11 @@ public class ProcessLogOperator extends Operator {
 
 	@Override
 	public void doWork() throws OperatorException {
-		SimpleDataTable dataTable = (SimpleDataTable) getProcess().getDataTable(getName());
-		if (dataTable == null) {
-			createDataTable();
+		// clones of this operator may log concurrently during parallel execution
+		synchronized (getProcess()) {
+			if (getProcess().getDataTable(getName()) == null) {
+				createDataTable();
+			}
 		}
 
 		DataTableRow row = fetchAllValues();
@@ -319,55 +321,57 @@ public class ProcessLogOperator extends Operator {
 		SimpleDataTable dataTable = (SimpleDataTable) getProcess().getDataTable(getName());
 
 		int sortingType = getParameterAsInt(PARAMETER_SORTING_TYPE);
-		if (sortingType == SORTING_TYPE_NONE || dataTable.getNumberOfRows() < getParameterAsInt(PARAMETER_SORTING_K)) {
-			dataTable.add(dataRow);
-			return dataRow;
-		}
-		// sorting
-		String sortingDimension = getParameterAsString(PARAMETER_SORTING_DIMENSION);
-		int sortingDimensionIndex = dataTable.getColumnIndex(sortingDimension);
-
-		if (dataTable.isNominal(sortingDimensionIndex)) {
-			String currentWorst = null;
-			int currentWorstIndex = -1;
-			for (int r = 0; r < dataTable.getNumberOfRows(); r++) {
-				double currentValue = dataTable.getRow(r).getValue(sortingDimensionIndex);
-				String currentNominalValue = dataTable.mapIndex(sortingDimensionIndex, (int) currentValue);
-				if (currentWorst == null || sortingType == SORTING_TYPE_TOP_K
-						&& currentNominalValue.compareTo(currentWorst) < 0 || sortingType == SORTING_TYPE_BOTTOM_K
-						&& currentNominalValue.compareTo(currentWorst) > 0) {
-					currentWorst = currentNominalValue;
-					currentWorstIndex = r;
-				}
-			}
-
-			double candidateValue = dataRow.getValue(sortingDimensionIndex);
-			String candidateNominalValue = dataTable.mapIndex(sortingDimensionIndex, (int) candidateValue);
-			if (currentWorstIndex >= 0 && sortingType == SORTING_TYPE_TOP_K
-					&& candidateNominalValue.compareTo(currentWorst) > 0 || sortingType == SORTING_TYPE_BOTTOM_K
-					&& candidateNominalValue.compareTo(currentWorst) < 0) {
-				dataTable.remove(dataTable.getRow(currentWorstIndex));
+		synchronized (dataTable) {
+			if (sortingType == SORTING_TYPE_NONE || dataTable.getNumberOfRows() < getParameterAsInt(PARAMETER_SORTING_K)) {
 				dataTable.add(dataRow);
-				dataTable.cleanMappingTables();
+				return dataRow;
 			}
-		} else {
-			double currentWorst = Double.NaN;
-			int currentWorstIndex = -1;
-			for (int r = 0; r < dataTable.getNumberOfRows(); r++) {
-				double currentValue = dataTable.getRow(r).getValue(sortingDimensionIndex);
-				if (Double.isNaN(currentWorst) || sortingType == SORTING_TYPE_TOP_K && currentValue < currentWorst
-						|| sortingType == SORTING_TYPE_BOTTOM_K && currentValue > currentWorst) {
-					currentWorst = currentValue;
-					currentWorstIndex = r;
+			// sorting
+			String sortingDimension = getParameterAsString(PARAMETER_SORTING_DIMENSION);
+			int sortingDimensionIndex = dataTable.getColumnIndex(sortingDimension);
+
+			if (dataTable.isNominal(sortingDimensionIndex)) {
+				String currentWorst = null;
+				int currentWorstIndex = -1;
+				for (int r = 0; r < dataTable.getNumberOfRows(); r++) {
+					double currentValue = dataTable.getRow(r).getValue(sortingDimensionIndex);
+					String currentNominalValue = dataTable.mapIndex(sortingDimensionIndex, (int) currentValue);
+					if (currentWorst == null || sortingType == SORTING_TYPE_TOP_K
+							&& currentNominalValue.compareTo(currentWorst) < 0 || sortingType == SORTING_TYPE_BOTTOM_K
+							&& currentNominalValue.compareTo(currentWorst) > 0) {
+						currentWorst = currentNominalValue;
+						currentWorstIndex = r;
+					}
 				}
-			}
 
-			double candidateValue = dataRow.getValue(sortingDimensionIndex);
-			if (currentWorstIndex >= 0 && sortingType == SORTING_TYPE_TOP_K && candidateValue > currentWorst
-					|| sortingType == SORTING_TYPE_BOTTOM_K && candidateValue < currentWorst) {
-				dataTable.remove(dataTable.getRow(currentWorstIndex));
-				dataTable.add(dataRow);
-				dataTable.cleanMappingTables();
+				double candidateValue = dataRow.getValue(sortingDimensionIndex);
+				String candidateNominalValue = dataTable.mapIndex(sortingDimensionIndex, (int) candidateValue);
+				if (currentWorstIndex >= 0 && sortingType == SORTING_TYPE_TOP_K
+						&& candidateNominalValue.compareTo(currentWorst) > 0 || sortingType == SORTING_TYPE_BOTTOM_K
+						&& candidateNominalValue.compareTo(currentWorst) < 0) {
+					dataTable.remove(dataTable.getRow(currentWorstIndex));
+					dataTable.add(dataRow);
+					dataTable.cleanMappingTables();
+				}
+			} else {
+				double currentWorst = Double.NaN;
+				int currentWorstIndex = -1;
+				for (int r = 0; r < dataTable.getNumberOfRows(); r++) {
+					double currentValue = dataTable.getRow(r).getValue(sortingDimensionIndex);
+					if (Double.isNaN(currentWorst) || sortingType == SORTING_TYPE_TOP_K && currentValue < currentWorst
+							|| sortingType == SORTING_TYPE_BOTTOM_K && currentValue > currentWorst) {
+						currentWorst = currentValue;
+						currentWorstIndex = r;
+					}
+				}
+
+				double candidateValue = dataRow.getValue(sortingDimensionIndex);
+				if (currentWorstIndex >= 0 && sortingType == SORTING_TYPE_TOP_K && candidateValue > currentWorst
+						|| sortingType == SORTING_TYPE_BOTTOM_K && candidateValue < currentWorst) {
+					dataTable.remove(dataTable.getRow(currentWorstIndex));
+					dataTable.add(dataRow);
+					dataTable.cleanMappingTables();
+				}
 			}
 		}
 		return dataRow;
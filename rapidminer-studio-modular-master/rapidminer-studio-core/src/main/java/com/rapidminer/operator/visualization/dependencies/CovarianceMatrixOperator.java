@@ -99,4 +99,24 @@ public class CovarianceMatrixOperator extends Operator {
 		exampleSetOutput.deliver(exampleSet);
 		covarianceOutput.deliver(new NumericalMatrix("Covariance", columnNames, covarianceMatrix, true));
 	}
+
+	/**
+	 * The covariance matrix only depends on the input data.
+	 *
+	 * @since 9.11
+	 */
+	@Override
+	public boolean isFreeOfSideEffects() {
+		return true;
+	}
+
+	/**
+	 * The matrix can be reused whenever the input data is the same.
+	 *
+	 * @since 9.11
+	 */
+	@Override
+	public boolean isResultCacheable() {
+		return true;
+	}
 }
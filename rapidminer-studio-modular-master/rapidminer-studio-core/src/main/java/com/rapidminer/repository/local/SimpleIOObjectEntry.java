@@ -18,7 +18,6 @@
  */
 package com.rapidminer.repository.local;
 
-import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
@@ -31,16 +30,20 @@ import java.lang.ref.WeakReference;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 
+import com.rapidminer.RapidMiner;
 import com.rapidminer.adaption.belt.TableViewingTools;
+import com.rapidminer.belt.table.BeltConverter;
 import com.rapidminer.operator.IOObject;
 import com.rapidminer.operator.Operator;
 import com.rapidminer.operator.ports.metadata.MetaData;
 import com.rapidminer.operator.tools.IOObjectSerializer;
 import com.rapidminer.operator.tools.RMObjectInputStream;
+import com.rapidminer.operator.tools.SerializationType;
 import com.rapidminer.repository.Folder;
 import com.rapidminer.repository.IOObjectEntry;
 import com.rapidminer.repository.RepositoryException;
 import com.rapidminer.repository.versioned.IOObjectClassDetector;
+import com.rapidminer.tools.ParameterService;
 import com.rapidminer.tools.ProgressListener;
 import com.rapidminer.tools.plugin.Plugin;
 
@@ -114,9 +117,7 @@ public class SimpleIOObjectEntry extends SimpleDataEntry implements IOObjectEntr
 	 * @since 9.3
 	 */
 	protected IOObject readDataFromFile(FileInputStream fis) throws IOException {
-		try (BufferedInputStream in = new BufferedInputStream(fis)) {
-			return (IOObject) IOObjectSerializer.getInstance().deserialize(in);
-		}
+		return (IOObject) IOObjectSerializer.getInstance().deserializeFromFile(fis);
 	}
 
 	@Override
@@ -221,12 +222,27 @@ public class SimpleIOObjectEntry extends SimpleDataEntry implements IOObjectEntr
 	}
 
 	/**
-	 * Takes care of the actual storing of the {@link IOObject} in a file.
+	 * Takes care of the actual storing of the {@link IOObject} in a file. Data tables are written
+	 * column by column if {@link RapidMiner#PROPERTY_RAPIDMINER_GENERAL_COLUMNAR_EXAMPLE_SET_SERIALIZATION}
+	 * is enabled.
 	 * @since 9.3
 	 */
 	protected void writeDataToFile(IOObject data, FileOutputStream fos) throws IOException, RepositoryException {
 		try (OutputStream out = new BufferedOutputStream(fos)) {
-			IOObjectSerializer.getInstance().serialize(out, data);
+			if (TableViewingTools.isDataTable(data) && Boolean.parseBoolean(ParameterService
+					.getParameterValue(RapidMiner.PROPERTY_RAPIDMINER_GENERAL_COLUMNAR_EXAMPLE_SET_SERIALIZATION))) {
+				Object table;
+				try {
+					table = TableViewingTools.replaceTableObject(data);
+				} catch (BeltConverter.ConversionException e) {
+					// the default serialization reports tables that cannot be converted
+					IOObjectSerializer.getInstance().serialize(out, data);
+					return;
+				}
+				IOObjectSerializer.getInstance().serialize(out, table, SerializationType.COLUMNAR_EXAMPLE_SET);
+			} else {
+				IOObjectSerializer.getInstance().serialize(out, data);
+			}
 		}
 	}
 
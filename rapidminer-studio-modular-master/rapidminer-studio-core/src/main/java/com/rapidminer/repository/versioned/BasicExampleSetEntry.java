@@ -23,6 +23,7 @@ import java.io.InputStream;
 import java.nio.file.AccessMode;
 import java.nio.file.Path;
 
+import com.rapidminer.RapidMiner;
 import com.rapidminer.adaption.belt.TableViewingTools;
 import com.rapidminer.example.ExampleSet;
 import com.rapidminer.operator.IOObject;
@@ -32,6 +33,7 @@ import com.rapidminer.operator.ports.metadata.MetaData;
 import com.rapidminer.repository.RepositoryException;
 import com.rapidminer.storage.hdf5.ExampleSetHdf5Writer;
 import com.rapidminer.storage.hdf5.Hdf5ExampleSetReader;
+import com.rapidminer.tools.ParameterService;
 import com.rapidminer.tools.ProgressListener;
 import com.rapidminer.versioning.repository.DataSummary;
 import com.rapidminer.versioning.repository.exceptions.RepositoryFileException;
@@ -66,12 +68,15 @@ public class BasicExampleSetEntry extends AbstractIOObjectEntry<ExampleSet> {
     @Override
     protected ExampleSet read(InputStream load) throws IOException {
         Path filePath = getRepositoryAdapter().getRealPath(this, AccessMode.READ);
-        return Hdf5ExampleSetReader.read(filePath);
+        return Hdf5ExampleSetReader.read(filePath, Boolean.parseBoolean(
+                ParameterService.getParameterValue(RapidMiner.PROPERTY_RAPIDMINER_SYSTEM_LAZY_DATA_LOADING)));
     }
 
     @Override
     protected void write(ExampleSet exampleSet) throws IOException, RepositoryImmutableException {
         Path filePath = getRepositoryAdapter().getRealPath(this, AccessMode.WRITE);
+        // example sets read from the file before might still load columns from it
+        Hdf5ExampleSetReader.loadLazyColumns(filePath);
         exampleSet.recalculateAllAttributeStatistics();
         new ExampleSetHdf5Writer(exampleSet).write(filePath);
     }
@@ -34,6 +34,7 @@ import com.rapidminer.operator.ports.metadata.MetaData;
 import com.rapidminer.operator.ports.metadata.table.TableMetaData;
 import com.rapidminer.repository.RepositoryException;
 import com.rapidminer.storage.hdf5.ExampleSetHdf5Writer;
+import com.rapidminer.storage.hdf5.Hdf5ExampleSetReader;
 import com.rapidminer.storage.hdf5.Hdf5TableReader;
 import com.rapidminer.storage.hdf5.IOTableHdf5Writer;
 import com.rapidminer.tools.ProgressListener;
@@ -74,6 +75,8 @@ public class BasicIODataTableEntry extends AbstractIOObjectEntry<IODataTable> {
 	@Override
 	protected void write(IODataTable data) throws IOException, RepositoryImmutableException {
 		Path filePath = getRepositoryAdapter().getRealPath(this, AccessMode.WRITE);
+		// example sets read from the file before might still load columns from it
+		Hdf5ExampleSetReader.loadLazyColumns(filePath);
 		if (data instanceof IOTable) {
 			IOTable table = (IOTable) data;
 			new IOTableHdf5Writer(table).write(filePath);
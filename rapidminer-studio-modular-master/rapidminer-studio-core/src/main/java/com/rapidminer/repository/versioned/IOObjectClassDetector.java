@@ -134,6 +134,8 @@ public enum IOObjectClassDetector {
 				case STREAMED_EXAMPLE_SET_DENSE:
 				case STREAMED_EXAMPLE_SET_DENSE_2:
 				case STREAMED_EXAMPLE_SET_DENSE_3:
+				case COLUMNAR_EXAMPLE_SET:
+				case COLUMNAR_EXAMPLE_SET_COMPRESSED:
 					return ExampleSet.class;
 				case JAVA_BINARY:
 					return ClassFromSerializationReader.readClass(in, IOObject.class);
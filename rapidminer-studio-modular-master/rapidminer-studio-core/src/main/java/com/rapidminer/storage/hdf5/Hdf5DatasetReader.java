@@ -19,12 +19,25 @@
 package com.rapidminer.storage.hdf5;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntToDoubleFunction;
 
 import com.rapidminer.example.Attribute;
 import com.rapidminer.example.table.internal.ColumnarExampleTable;
 import com.rapidminer.hdf5.BufferedInChannel;
+import com.rapidminer.hdf5.CustomDataInput;
 import com.rapidminer.hdf5.file.ColumnDescriptor;
 import com.rapidminer.hdf5.file.TableWriter;
 
@@ -50,16 +63,35 @@ import io.jhdf.object.message.DataSpaceMessage;
  */
 class Hdf5DatasetReader {
 
+	/** the files with lazy columns that are not loaded yet, weak so that unused tables release their file */
+	private static final Set<LazyFile> LAZY_FILES =
+			Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
 	private final ColumnarExampleTable table;
 	private final HdfFile hdfFile;
 	private final BufferedInChannel inChannel;
 	private final Map<Long, GlobalHeap> heaps;
+	private final Path lazyPath;
 
 	Hdf5DatasetReader(ColumnarExampleTable table, HdfFile hdfFile, BufferedInChannel inChannel, Map<Long, GlobalHeap> heaps) {
+		this(table, hdfFile, inChannel, heaps, null);
+	}
+
+	/**
+	 * Creates a reader that loads columns lazily from the file at the given path if possible.
+	 *
+	 * @param lazyPath
+	 * 		the path of the hdf5 file to load columns from on first access, or {@code null} to read all columns
+	 * 		immediately
+	 * @since 9.11
+	 */
+	Hdf5DatasetReader(ColumnarExampleTable table, HdfFile hdfFile, BufferedInChannel inChannel,
+					  Map<Long, GlobalHeap> heaps, Path lazyPath) {
 		this.table = table;
 		this.hdfFile = hdfFile;
 		this.inChannel = inChannel;
 		this.heaps = heaps;
+		this.lazyPath = lazyPath;
 	}
 
 	/**
@@ -75,13 +107,40 @@ class Hdf5DatasetReader {
 	 * 		if the format is wrong, e.g. the dataset is not contiguous or information is missing or of a wrong type
 	 */
 	void fillTable(List<Attribute> attributes, List<Dataset> datasets) throws IOException {
+		LazyFile lazyFile = lazyPath == null ? null : new LazyFile(lazyPath);
+		try {
+			fillTable(attributes, datasets, lazyFile);
+		} catch (IOException | RuntimeException e) {
+			if (lazyFile != null) {
+				lazyFile.close();
+			}
+			throw e;
+		}
+		if (lazyFile != null) {
+			lazyFile.register();
+		}
+		table.complete();
+	}
+
+	/**
+	 * Fills the data from the datasets into the {@link #table}, setting up lazy columns in the lazy file if it is not
+	 * {@code null}.
+	 */
+	private void fillTable(List<Attribute> attributes, List<Dataset> datasets, LazyFile lazyFile) throws IOException {
 		int index = 0;
 		for (Dataset dataset : datasets) {
 			Attribute attribute = attributes.get(index++);
-			table.resetColumn(attribute);
 			if (dataset instanceof ContiguousDataset) {
 				ContiguousDataset contiguousDataset = (ContiguousDataset) dataset;
 				long dataAddress = toDataAddress(hdfFile, contiguousDataset.getDataAddress());
+				Function<CustomDataInput, IntToDoubleFunction> lazyFiller =
+						lazyFile == null ? null : getLazyFiller(attribute, contiguousDataset);
+				if (lazyFiller != null) {
+					lazyFile.addColumn(dataAddress, table.setLazyColumn(attribute,
+							filler -> lazyFile.load(dataAddress, lazyFiller, filler)));
+					continue;
+				}
+				table.resetColumn(attribute);
 				if (inChannel.position(dataAddress).position() != dataAddress) {
 					throw new IOException("Cannot move to position " + dataAddress);
 				}
@@ -92,7 +151,174 @@ class Hdf5DatasetReader {
 						"non-contigous dataset " + dataset.getPath());
 			}
 		}
-		table.complete();
+	}
+
+	/**
+	 * Returns the function creating the column filler for the given dataset if the column can be loaded lazily,
+	 * {@code null} otherwise. Lazy loading is supported for numeric columns, nominal columns stored as category
+	 * indices and date-time columns without additional nanoseconds. Nominal columns stored as {@code String}s
+	 * build the mapping while reading and nanoseconds are read in a second pass, so these are read immediately.
+	 */
+	private static Function<CustomDataInput, IntToDoubleFunction> getLazyFiller(Attribute attribute,
+																				 ContiguousDataset dataset) {
+		Class<?> javaType = dataset.getJavaType();
+		if (attribute.isNumerical()) {
+			if (javaType.equals(double.class)) {
+				return ColumnFillers::getDoubleColumnFiller;
+			} else if (javaType.equals(float.class)) {
+				return ColumnFillers::getFloatColumnFiller;
+			} else if (javaType.equals(int.class)) {
+				return ColumnFillers::getIntegerColumnFiller;
+			} else if (javaType.equals(long.class)) {
+				return ColumnFillers::getLongColumnFiller;
+			}
+		} else if (attribute.isDateTime()) {
+			if (javaType.equals(long.class) && dataset.getAttribute(TableWriter.ATTRIBUTE_ADDITIONAL) == null) {
+				io.jhdf.api.Attribute type = dataset.getAttribute(TableWriter.ATTRIBUTE_TYPE);
+				if (type.getData().equals(ColumnDescriptor.Hdf5ColumnType.TIME.toString())) {
+					return ColumnFillers::getLongTimeColumnFiller;
+				}
+				return ColumnFillers::getLongDateColumnFiller;
+			}
+		} else if (javaType.equals(byte.class)) {
+			return ColumnFillers::getByteIndexColumnFiller;
+		} else if (javaType.equals(short.class)) {
+			return ColumnFillers::getShortIndexColumnFiller;
+		} else if (javaType.equals(int.class)) {
+			return ColumnFillers::getIntIndexColumnFiller;
+		}
+		return null;
+	}
+
+	/**
+	 * Loads all lazy columns that are still read from the file at the given path, so that the file can be
+	 * overwritten without affecting example sets read from it before.
+	 *
+	 * @param path
+	 * 		the path of the file
+	 * @throws IOException
+	 * 		if loading a column fails
+	 * @since 9.11
+	 */
+	static void loadLazyColumns(Path path) throws IOException {
+		Path normalized = path.toAbsolutePath().normalize();
+		List<LazyFile> files;
+		synchronized (LAZY_FILES) {
+			files = new ArrayList<>(LAZY_FILES);
+		}
+		for (LazyFile file : files) {
+			if (file.path.equals(normalized)) {
+				file.loadAll();
+			}
+		}
+	}
+
+	/**
+	 * A hdf5 file with columns that are loaded on first access. The file is opened once when the columns are set up
+	 * and stays open until the last column is loaded, so that loading is not affected if the file is moved,
+	 * deleted or replaced by a new file in the meantime. Before the repository overwrites the file in place, it
+	 * loads the remaining columns via {@link #loadLazyColumns(Path)}.
+	 */
+	private static final class LazyFile {
+
+		private final Path path;
+		private final long size;
+		/** the actions loading the columns that are not loaded yet, by their data address */
+		private final Map<Long, Runnable> pendingColumns = new HashMap<>();
+		private FileChannel channel;
+
+		private LazyFile(Path path) throws IOException {
+			this.path = path.toAbsolutePath().normalize();
+			this.channel = FileChannel.open(path, StandardOpenOption.READ);
+			this.size = channel.size();
+		}
+
+		/**
+		 * Adds the action that loads the column stored at the data address.
+		 */
+		private synchronized void addColumn(long dataAddress, Runnable loadAction) {
+			pendingColumns.put(dataAddress, loadAction);
+		}
+
+		/**
+		 * Registers the file so that its columns are loaded before it is overwritten, or closes it if no column is
+		 * read lazily.
+		 */
+		private synchronized void register() {
+			if (pendingColumns.isEmpty()) {
+				close();
+			} else {
+				LAZY_FILES.add(this);
+			}
+		}
+
+		/**
+		 * Moves to the data address and passes the column filler created by the lazy filler to the filler
+		 * consumer. Closes the file after the last column was loaded.
+		 */
+		private synchronized void load(long dataAddress, Function<CustomDataInput, IntToDoubleFunction> lazyFiller,
+									   Consumer<IntToDoubleFunction> filler) throws IOException {
+			if (channel == null) {
+				throw new IOException("File " + path + " is already closed");
+			}
+			// the channel is shared by all columns, so the buffered channel is not closed
+			BufferedInChannel lazyChannel = new BufferedInChannel(channel, 1 << 16);
+			try {
+				if (channel.size() != size) {
+					throw new IOException("File " + path + " was modified in place after the data was retrieved");
+				}
+				if (lazyChannel.position(dataAddress).position() != dataAddress) {
+					throw new IOException("Cannot move to position " + dataAddress);
+				}
+				filler.accept(lazyFiller.apply(lazyChannel));
+			} catch (ColumnFillers.IORuntimeException e) {
+				throw (IOException) e.getCause();
+			}
+			pendingColumns.remove(dataAddress);
+			if (pendingColumns.isEmpty()) {
+				close();
+			}
+		}
+
+		/**
+		 * Loads all columns that are not loaded yet. The columns are loaded outside of the lock of this file since
+		 * loading locks the column first.
+		 */
+		private void loadAll() throws IOException {
+			List<Runnable> actions;
+			synchronized (this) {
+				actions = new ArrayList<>(pendingColumns.values());
+			}
+			try {
+				for (Runnable action : actions) {
+					action.run();
+				}
+			} catch (UncheckedIOException e) {
+				throw e.getCause();
+			}
+		}
+
+		/**
+		 * Closes the file quietly and removes it from the registered files.
+		 */
+		private synchronized void close() {
+			LAZY_FILES.remove(this);
+			pendingColumns.clear();
+			if (channel != null) {
+				try {
+					channel.close();
+				} catch (IOException e) {
+					// ignore, nothing is read anymore
+				}
+				channel = null;
+			}
+		}
+
+		@Override
+		protected void finalize() throws Throwable {
+			close();
+			super.finalize();
+		}
 	}
 
 	/**
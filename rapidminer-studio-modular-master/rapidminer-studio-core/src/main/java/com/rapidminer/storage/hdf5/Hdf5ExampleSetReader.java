@@ -112,6 +112,30 @@ public enum Hdf5ExampleSetReader {
 	 * 		in case the content of the hdf5 file does not match the admissible format
 	 */
 	public static ExampleSet read(Path path) throws IOException {
+		return read(path, false);
+	}
+
+	/**
+	 * Reads an {@link ExampleSet} from the hdf5 file at the given path. See the class javadoc for the admissible
+	 * formats. If lazy is {@code true}, numeric, date-time and category index columns are only read from the file
+	 * when their values are accessed for the first time. Columns of attributes that are removed before, e.g. by
+	 * the cleanup between operators, are never read. The file stays open until all lazy columns are loaded, so
+	 * moving, deleting or replacing the file does not affect them. Before overwriting the file in place, call
+	 * {@link #loadLazyColumns(Path)}; accessing the values of a lazy column fails if the file was changed in place
+	 * otherwise.
+	 *
+	 * @param path
+	 * 		the path to read from
+	 * @param lazy
+	 * 		whether columns should be read on first access
+	 * @return the example set read from the path
+	 * @throws IOException
+	 * 		if reading fails
+	 * @throws HdfReaderException
+	 * 		in case the content of the hdf5 file does not match the admissible format
+	 * @since 9.11
+	 */
+	public static ExampleSet read(Path path, boolean lazy) throws IOException {
 		try (HdfFile hdfFile = new HdfFile(path)) {
 			if (isMetadata(hdfFile)) {
 				throw new HdfReaderException(Reason.IS_META_DATA, "File only contains meta data");
@@ -140,7 +164,8 @@ public enum Hdf5ExampleSetReader {
 				addAnnotations(hdfFile, set.getAnnotations());
 				if (numberOfRows > 0) {
 					ColumnarExampleTable table = (ColumnarExampleTable) set.getExampleTable();
-					new Hdf5DatasetReader(table, hdfFile, inChannel, heaps).fillTable(attributes, sets);
+					new Hdf5DatasetReader(table, hdfFile, inChannel, heaps, lazy ? path : null).fillTable(attributes,
+							sets);
 				}
 				return set;
 			}
@@ -149,6 +174,20 @@ public enum Hdf5ExampleSetReader {
 		}
 	}
 
+	/**
+	 * Loads the lazy columns of all example sets read by {@link #read(Path, boolean)} from the file at the given
+	 * path that are not loaded yet. Call this before overwriting the file in place.
+	 *
+	 * @param path
+	 * 		the path of the file that is about to be overwritten
+	 * @throws IOException
+	 * 		if loading a column fails
+	 * @since 9.11
+	 */
+	public static void loadLazyColumns(Path path) throws IOException {
+		Hdf5DatasetReader.loadLazyColumns(path);
+	}
+
 	/**
 	 * Reads an {@link ExampleSetMetaData} from the hdf5 file at the given path. See the class javadoc for the
 	 * admissible formats. Ignores missing hdf5 statistics attributes or their wrong formats but fails on violations
@@ -0,0 +1,346 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.tools;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+
+import com.rapidminer.RapidMiner;
+import com.rapidminer.tools.plugin.Plugin;
+
+
+/**
+ * Versioned binary index of the operator and {@link com.rapidminer.operator.IOObject IOObject} classes registered by the
+ * core and by every extension. The index is written to the internal cache of the user directory after the
+ * {@link OperatorService} has been initialized. On the next start, the classes of every provider whose jar is unchanged
+ * are loaded by background threads while the remaining initialization phases run, so that the sequential registration
+ * of the operator descriptions finds them already loaded.
+ * <p>
+ * A provider is identified by its name and fingerprinted by its version and the path, size and modification time of
+ * its jar. Entries of changed providers are ignored and rebuilt. Classes are only loaded, not initialized, so that
+ * static initializers keep running in registration order on the initializing thread.
+ * <p>
+ * The index only speeds up class loading. The operators are still registered eagerly from the operator documents, so
+ * the preloading is disabled by default, see {@link RapidMiner#PROPERTY_RAPIDMINER_SYSTEM_OPERATOR_INDEX}.
+ *
+ * @since 9.11
+ */
+public final class OperatorClassIndex {
+
+	/** magic number at the start of the index file */
+	private static final int MAGIC = 0x524d4f49;
+
+	/** the version of the binary format, increase on incompatible changes */
+	private static final int FORMAT_VERSION = 1;
+
+	private static final String INDEX_FILE_NAME = "operator_classes.idx";
+
+	/** the index used during startup */
+	private static final OperatorClassIndex INSTANCE = new OperatorClassIndex();
+
+	private static volatile boolean enabled;
+
+	private static ExecutorService executor;
+
+	/** The class names registered by one provider together with the fingerprint of the provider */
+	private static final class ProviderEntry {
+
+		private final String fingerprint;
+		private final Set<String> classNames = ConcurrentHashMap.newKeySet();
+
+		private ProviderEntry(String fingerprint) {
+			this.fingerprint = fingerprint;
+		}
+	}
+
+	/** the class names of all providers as read from the index file */
+	private final Map<String, ProviderEntry> stored = new ConcurrentHashMap<>();
+
+	/** the class names of all providers registered in this run */
+	private final Map<String, ProviderEntry> current = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates an empty index. Use the static methods for the index of the running instance.
+	 */
+	OperatorClassIndex() {
+		// package-private for tests
+	}
+
+	/**
+	 * Reads the index and starts loading the classes of the core in the background if the core jar did not change since
+	 * the index was written. Does nothing if {@link RapidMiner#PROPERTY_RAPIDMINER_SYSTEM_OPERATOR_INDEX} is disabled
+	 * or the execution mode does not permit file system access.
+	 */
+	public static synchronized void preloadCore() {
+		enabled = RapidMiner.getExecutionMode().canAccessFilesystem()
+				&& Boolean.parseBoolean(ParameterService.getParameterValue(RapidMiner.PROPERTY_RAPIDMINER_SYSTEM_OPERATOR_INDEX));
+		if (!enabled) {
+			return;
+		}
+		INSTANCE.read(getIndexFile());
+		List<String> classNames = INSTANCE.startProvider(OperatorService.RAPID_MINER_CORE_PREFIX,
+				fingerprint(RapidMiner.getLongVersion(), getLocation(OperatorService.class)));
+		if (classNames.isEmpty()) {
+			return;
+		}
+		// the application class loader is parallel capable, so split the core classes between all threads
+		ClassLoader classLoader = OperatorService.class.getClassLoader();
+		int threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+		int chunkSize = (classNames.size() + threads - 1) / threads;
+		for (int start = 0; start < classNames.size(); start += chunkSize) {
+			List<String> chunk = classNames.subList(start, Math.min(classNames.size(), start + chunkSize));
+			getExecutor().execute(() -> load(chunk, classLoader));
+		}
+	}
+
+	/**
+	 * Starts loading the classes of all unchanged extensions in the background. Has to be called after
+	 * {@link Plugin#initAll()} and before {@link OperatorService#init()}.
+	 */
+	public static synchronized void preloadPlugins() {
+		if (!enabled) {
+			return;
+		}
+		for (Plugin plugin : Plugin.getAllPlugins()) {
+			List<String> classNames = INSTANCE.startProvider(plugin.getName(),
+					fingerprint(plugin.getVersion(), plugin.getFile()));
+			if (!classNames.isEmpty()) {
+				// plugin class loaders are not parallel capable, use one thread per extension
+				ClassLoader classLoader = plugin.getClassLoader();
+				getExecutor().execute(() -> load(classNames, classLoader));
+			}
+		}
+	}
+
+	/**
+	 * Remembers that the given class was registered by the given provider. Classes of providers that have not been
+	 * {@link #preloadCore() preloaded} are ignored.
+	 *
+	 * @param provider
+	 * 		the name of the core or of the extension
+	 * @param className
+	 * 		the fully qualified name of the operator or IOObject class
+	 */
+	public static void record(String provider, String className) {
+		if (enabled) {
+			INSTANCE.add(provider, className);
+		}
+	}
+
+	/**
+	 * Writes the index in the background if any provider changed since it was read. Has to be called at the end of
+	 * {@link OperatorService#init()}.
+	 */
+	public static synchronized void store() {
+		if (!enabled) {
+			return;
+		}
+		if (INSTANCE.isChanged()) {
+			Path indexFile = getIndexFile();
+			Map<String, ProviderEntry> snapshot = new HashMap<>(INSTANCE.current);
+			getExecutor().execute(() -> write(indexFile, snapshot));
+		}
+		if (executor != null) {
+			// running preload tasks and the write are still completed
+			executor.shutdown();
+			executor = null;
+		}
+	}
+
+	/**
+	 * Registers the provider for this run and returns the indexed class names if the fingerprint is unchanged.
+	 */
+	List<String> startProvider(String provider, String fingerprint) {
+		current.put(provider, new ProviderEntry(fingerprint));
+		ProviderEntry entry = stored.get(provider);
+		if (entry == null || !entry.fingerprint.equals(fingerprint)) {
+			return new ArrayList<>();
+		}
+		return new ArrayList<>(entry.classNames);
+	}
+
+	/**
+	 * Adds the class to the provider if it was {@link #startProvider(String, String) started} in this run.
+	 */
+	void add(String provider, String className) {
+		if (provider == null || className == null) {
+			return;
+		}
+		ProviderEntry entry = current.get(provider);
+		if (entry != null) {
+			entry.classNames.add(className);
+		}
+	}
+
+	/**
+	 * @return whether the providers of this run or their classes differ from the ones read from the index file
+	 */
+	boolean isChanged() {
+		if (current.isEmpty()) {
+			return false;
+		}
+		boolean changed = stored.size() != current.size();
+		for (Map.Entry<String, ProviderEntry> entry : current.entrySet()) {
+			ProviderEntry storedEntry = stored.get(entry.getKey());
+			changed |= storedEntry == null || !storedEntry.fingerprint.equals(entry.getValue().fingerprint)
+					|| !storedEntry.classNames.equals(entry.getValue().classNames);
+		}
+		return changed;
+	}
+
+	/**
+	 * Writes the providers of this run to the given file.
+	 */
+	void write(Path indexFile) {
+		write(indexFile, new HashMap<>(current));
+	}
+
+	/**
+	 * Loads, but does not initialize, the given classes. Classes that cannot be loaded anymore are skipped, they will
+	 * be missing from the index written at the end of this run.
+	 *
+	 * @return the number of loaded classes
+	 */
+	static int load(List<String> classNames, ClassLoader classLoader) {
+		int loaded = 0;
+		for (String className : classNames) {
+			try {
+				Class.forName(className, false, classLoader);
+				loaded++;
+			} catch (ClassNotFoundException | LinkageError e) {
+				// ignore, will be reported during registration
+			}
+		}
+		return loaded;
+	}
+
+	private static synchronized ExecutorService getExecutor() {
+		if (executor == null) {
+			executor = Executors.newFixedThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1), r -> {
+				Thread thread = new Thread(r, "OperatorClassPreloader");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		return executor;
+	}
+
+	private static Path getIndexFile() {
+		return FileSystemService.getUserRapidMinerDir().toPath()
+				.resolve(Paths.get(FileSystemService.RAPIDMINER_INTERNAL_CACHE_SIGNATURE_FULL).resolveSibling(INDEX_FILE_NAME));
+	}
+
+	/**
+	 * Replaces the stored providers by the ones in the given file. Missing or unreadable files result in an empty index.
+	 */
+	void read(Path indexFile) {
+		stored.clear();
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+			if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+				return;
+			}
+			int providers = in.readInt();
+			for (int i = 0; i < providers; i++) {
+				String provider = in.readUTF();
+				ProviderEntry entry = new ProviderEntry(in.readUTF());
+				int classes = in.readInt();
+				for (int j = 0; j < classes; j++) {
+					entry.classNames.add(in.readUTF());
+				}
+				stored.put(provider, entry);
+			}
+		} catch (NoSuchFileException e) {
+			// first start, nothing to preload
+		} catch (IOException e) {
+			stored.clear();
+			LogService.getRoot().log(Level.FINE, "Could not read operator class index, rebuilding it", e);
+		}
+	}
+
+	private static void write(Path indexFile, Map<String, ProviderEntry> providers) {
+		try {
+			Files.createDirectories(indexFile.getParent());
+			Path tempFile = Files.createTempFile(indexFile.getParent(), INDEX_FILE_NAME, null);
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+				out.writeInt(MAGIC);
+				out.writeInt(FORMAT_VERSION);
+				out.writeInt(providers.size());
+				for (Map.Entry<String, ProviderEntry> provider : providers.entrySet()) {
+					out.writeUTF(provider.getKey());
+					out.writeUTF(provider.getValue().fingerprint);
+					List<String> classNames = new ArrayList<>(provider.getValue().classNames);
+					out.writeInt(classNames.size());
+					for (String className : classNames) {
+						out.writeUTF(className);
+					}
+				}
+			}
+			Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			LogService.getRoot().log(Level.FINE, "Could not write operator class index", e);
+		}
+	}
+
+	/**
+	 * Returns the jar or directory the given class was loaded from or {@code null} if it is unknown.
+	 */
+	private static File getLocation(Class<?> clazz) {
+		CodeSource codeSource = clazz.getProtectionDomain().getCodeSource();
+		URL location = codeSource == null ? null : codeSource.getLocation();
+		if (location == null) {
+			return null;
+		}
+		try {
+			return new File(location.toURI());
+		} catch (URISyntaxException | IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Creates a fingerprint from the version and the path, size and modification time of the given file.
+	 */
+	static String fingerprint(String version, File file) {
+		if (file == null) {
+			return version + '|';
+		}
+		return version + '|' + file.getAbsolutePath() + '|' + file.length() + '|' + file.lastModified();
+	}
+}
@@ -234,6 +234,7 @@ public class OperatorService {
 
 		OperatorSignatureRegistry.registerAllIOObjects();
 		OperatorSignatureRegistry.finalizeLoading();
+		OperatorClassIndex.store();
 
 		updateBlacklist();
 		ParameterService.removeParameterChangeListener(UPDATE_BLACKLIST_LISTENER);
@@ -293,6 +294,7 @@ public class OperatorService {
 						Class<?> objectClass = classLoader.loadClass(className);
 						if (IOObject.class.isAssignableFrom(objectClass)) {
 							classesToRegister.add((Class<? extends IOObject>) objectClass);
+							OperatorClassIndex.record(name, className);
 						}
 					} catch (ClassNotFoundException e) {
 						// ignore
@@ -668,6 +670,8 @@ public class OperatorService {
 		// register in maps
 		KEYS_TO_DESCRIPTIONS.put(description.getKey(), description);
 		REGISTERED_OPERATOR_CLASSES.add(description.getOperatorClass());
+		OperatorClassIndex.record(description.getProvider() == null ? RAPID_MINER_CORE_PREFIX
+				: description.getProvider().getName(), description.getOperatorClass().getName());
 
 		OperatorSignatureRegistry.INSTANCE.register(description);
 
@@ -27,6 +27,7 @@ import java.util.Map;
 import java.util.Random;
 import java.util.Set;
 import java.util.WeakHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 import com.rapidminer.Process;
 import com.rapidminer.operator.Operator;
@@ -98,6 +99,13 @@ public class RandomGenerator extends Random {
 	 */
 	private static final ThreadLocal<RandomGenerator> GLOBAL_RANDOM_GENERATOR = new ThreadLocal<>();
 
+	/**
+	 * The number of values drawn from global random number generators so far.
+	 *
+	 * @since 9.11
+	 */
+	private static final LongAdder GLOBAL_DRAWS = new LongAdder();
+
 	/**
 	 * Map of threads to their respective {@link Process Processes}. Used to determine the correct
 	 * random generator.
@@ -125,7 +133,9 @@ public class RandomGenerator extends Random {
 	static {
 		// default RNG in cases where the GUI needs one outside of running a process (e.g. process
 		// validation)
-		GLOBAL_RANDOM_GENERATOR_MAP.put(null, new RandomGenerator(DEFAULT_SEED));
+		RandomGenerator defaultGenerator = new RandomGenerator(DEFAULT_SEED);
+		defaultGenerator.global = true;
+		GLOBAL_RANDOM_GENERATOR_MAP.put(null, defaultGenerator);
 	}
 
 	private static final StackingMap<Process, RandomGenerator> GLOBAL_STASH_MAP = new StackingMap<Process, RandomGenerator>(WeakHashMap.class) {
@@ -147,6 +157,9 @@ public class RandomGenerator extends Random {
 
 	};
 
+	/** Whether this is the global random number generator of a process, see {@link #getGlobalDraws()}. */
+	private transient boolean global;
+
 	/** Initializes the random number generator without a seed. */
 	private RandomGenerator() {
 		super();
@@ -157,8 +170,34 @@ public class RandomGenerator extends Random {
 		super(seed);
 	}
 
+	/**
+	 * Counts the draws of global random number generators before generating the next value.
+	 *
+	 * @since 9.11
+	 */
+	@Override
+	protected int next(int bits) {
+		if (global) {
+			GLOBAL_DRAWS.increment();
+		}
+		return super.next(bits);
+	}
+
 	// ================================================================================
 
+	/**
+	 * Returns the number of values drawn from the global random number generators of all processes
+	 * so far. Comparing the numbers before and after an operator execution tells whether its result
+	 * depends on the global random number generator. Since the number is shared, draws of
+	 * concurrent executions are counted as well.
+	 *
+	 * @return the number of values drawn so far
+	 * @since 9.11
+	 */
+	public static long getGlobalDraws() {
+		return GLOBAL_DRAWS.sum();
+	}
+
 	/** Returns the global random number generator for the given context/thread. */
 	public static RandomGenerator getGlobalRandomGenerator() {
 		RandomGenerator rg = GLOBAL_RANDOM_GENERATOR.get();
@@ -313,6 +352,7 @@ public class RandomGenerator extends Random {
 		if (process == null) {
 			return;
 		}
+		rg.global = true;
 		GLOBAL_RANDOM_GENERATOR_MAP.put(process, rg);
 
 		// don't have access to the class here, so reference by qualified name
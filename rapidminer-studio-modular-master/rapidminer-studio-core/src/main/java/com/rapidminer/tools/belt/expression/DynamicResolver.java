@@ -77,6 +77,28 @@ public interface DynamicResolver {
 	 */
 	double getDoubleValue(String variableName, int index);
 
+	/**
+	 * Reads the double values of the variable variableName for consecutive indices. This is the bulk version of {@link
+	 * #getDoubleValue(String, int)} used by compiled expressions, resolvers backed by columns should override it.
+	 *
+	 * @param variableName
+	 * 		the name of the variable
+	 * @param from
+	 * 		the first index
+	 * @param target
+	 * 		the array to fill, starting at index 0
+	 * @param length
+	 * 		the number of values to read
+	 * @throws IllegalStateException
+	 * 		if the variable is not of type {@link ExpressionType#INTEGER} or {@link ExpressionType#DOUBLE}
+	 * @since 9.11
+	 */
+	default void getDoubleValues(String variableName, int from, double[] target, int length) {
+		for (int i = 0; i < length; i++) {
+			target[i] = getDoubleValue(variableName, from + i);
+		}
+	}
+
 	/**
 	 * Returns the Instant value of the variable variableName, if this variable has an instant value. Check the
 	 * expression type of the variable using {@link #getVariableType(String)} before calling this method.
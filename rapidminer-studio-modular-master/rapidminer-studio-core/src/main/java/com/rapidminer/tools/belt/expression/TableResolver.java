@@ -21,6 +21,7 @@ package com.rapidminer.tools.belt.expression;
 import java.time.Instant;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
@@ -159,6 +160,33 @@ public class TableResolver implements DynamicResolver {
 		return reader.read();
 	}
 
+	@Override
+	public void getDoubleValues(String variableName, int from, double[] target, int length) {
+		Column column = getColumnForName(variableName);
+		if (column == null) {
+			Arrays.fill(target, 0, length, Double.NaN);
+			return;
+		}
+		ExpressionType variableType = ExpressionParserUtils.expressionTypeForColumnId(column.type().id());
+		if (variableType != ExpressionType.DOUBLE && variableType != ExpressionType.INTEGER) {
+			wrongTypeException(variableName, "double");
+		}
+		// only rows inside the column are read, all others are missing like for single values
+		int start = Math.max(0, Math.min(-from, length));
+		int end = Math.max(start, Math.min(length, column.size() - from));
+		Arrays.fill(target, 0, start, Double.NaN);
+		if (start < end) {
+			NumericReader reader = numericReaders.computeIfAbsent(column, Readers::numericReader);
+			if (reader.position() != from + start - 1) {
+				reader.setPosition(from + start - 1);
+			}
+			for (int i = start; i < end; i++) {
+				target[i] = reader.read();
+			}
+		}
+		Arrays.fill(target, end, length, Double.NaN);
+	}
+
 	@Override
 	public Instant getInstantValue(String variableName, int index) {
 		Column column = getColumnForName(variableName);
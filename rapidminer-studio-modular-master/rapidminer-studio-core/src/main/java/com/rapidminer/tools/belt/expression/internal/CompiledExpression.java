@@ -0,0 +1,144 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.tools.belt.expression.internal;
+
+import com.rapidminer.tools.belt.expression.ExpressionType;
+import com.rapidminer.tools.belt.expression.internal.antlr.AntlrParser;
+
+
+/**
+ * A numerical or boolean expression compiled into a tree of {@link Kernel}s that evaluate blocks of consecutive rows
+ * with primitive loops. In contrast to the {@link com.rapidminer.tools.belt.expression.Expression} created by the
+ * parser, there is no virtual call and no boxing per row and node, and the values of columns are read in blocks.
+ * The results are the same as the ones of the parsed expression. Boolean values are encoded as doubles, see {@link
+ * #fromBoolean(Boolean)}.
+ * <p>
+ * Compiled expressions are created by {@link AntlrParser#compile(com.rapidminer.tools.belt.expression.Expression)}. Like the parser, they are not thread
+ * safe.
+ *
+ * @since 9.11
+ */
+public final class CompiledExpression {
+
+	/**
+	 * A node of a compiled expression.
+	 */
+	@FunctionalInterface
+	public interface Kernel {
+
+		/**
+		 * Evaluates the node for a block of consecutive rows.
+		 *
+		 * @param from
+		 * 		the index of the first row
+		 * @param length
+		 * 		the number of rows, at most {@link #BLOCK_SIZE}
+		 * @param target
+		 * 		the array for the results, starting at index 0
+		 */
+		void evaluate(int from, int length, double[] target);
+	}
+
+	/** the maximal number of rows evaluated by a kernel at once */
+	public static final int BLOCK_SIZE = 1024;
+
+	private final Kernel kernel;
+	private final ExpressionType type;
+	private final double[] block = new double[BLOCK_SIZE];
+
+	/**
+	 * Creates a new compiled expression.
+	 *
+	 * @param kernel
+	 * 		the root node
+	 * @param type
+	 * 		the type of the expression, {@link ExpressionType#DOUBLE}, {@link ExpressionType#INTEGER} or {@link
+	 *        ExpressionType#BOOLEAN}
+	 */
+	public CompiledExpression(Kernel kernel, ExpressionType type) {
+		this.kernel = kernel;
+		this.type = type;
+	}
+
+	/**
+	 * @return the type of the expression
+	 */
+	public ExpressionType getExpressionType() {
+		return type;
+	}
+
+	/**
+	 * Evaluates the expression for consecutive rows.
+	 *
+	 * @param from
+	 * 		the index of the first row
+	 * @param length
+	 * 		the number of rows
+	 * @param target
+	 * 		the array for the results, starting at index 0
+	 */
+	public void evaluate(int from, int length, double[] target) {
+		for (int start = 0; start < length; start += BLOCK_SIZE) {
+			int blockLength = Math.min(BLOCK_SIZE, length - start);
+			kernel.evaluate(from + start, blockLength, block);
+			System.arraycopy(block, 0, target, start, blockLength);
+		}
+	}
+
+	/**
+	 * Encodes a boolean value as double: {@code 1} for {@code true}, {@code 0} for {@code false} and {@link
+	 * Double#NaN} for {@code null}.
+	 *
+	 * @param value
+	 * 		the boolean value
+	 * @return the encoded value
+	 */
+	public static double fromBoolean(Boolean value) {
+		if (value == null) {
+			return Double.NaN;
+		}
+		return value ? 1 : 0;
+	}
+
+	/**
+	 * Decodes a boolean value encoded by {@link #fromBoolean(Boolean)}.
+	 *
+	 * @param value
+	 * 		the encoded value
+	 * @return the boolean value
+	 */
+	public static Boolean toBoolean(double value) {
+		if (Double.isNaN(value)) {
+			return null;
+		}
+		return value != 0;
+	}
+
+	/**
+	 * Converts an encoded boolean value into the nominal value of a boolean expression.
+	 *
+	 * @param value
+	 * 		the encoded value
+	 * @return {@code "true"}, {@code "false"} or {@code null}
+	 */
+	static String toNominal(double value) {
+		Boolean booleanValue = toBoolean(value);
+		return booleanValue == null ? null : booleanValue.toString();
+	}
+}
@@ -32,7 +32,10 @@ import java.time.DateTimeException;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
 
+import com.rapidminer.RapidMiner;
 import com.rapidminer.belt.buffer.Buffers;
 import com.rapidminer.belt.buffer.DateTimeBuffer;
 import com.rapidminer.belt.buffer.NominalBuffer;
@@ -43,8 +46,10 @@ import com.rapidminer.belt.column.Column;
 import com.rapidminer.belt.column.type.StringList;
 import com.rapidminer.belt.column.type.StringSet;
 import com.rapidminer.belt.table.Table;
+import com.rapidminer.core.concurrency.ConcurrencyContext;
 import com.rapidminer.operator.Operator;
 import com.rapidminer.operator.UserError;
+import com.rapidminer.tools.ParameterService;
 import com.rapidminer.tools.belt.expression.Expression;
 import com.rapidminer.tools.belt.expression.ExpressionContext;
 import com.rapidminer.tools.belt.expression.ExpressionEvaluator;
@@ -56,6 +61,7 @@ import com.rapidminer.tools.belt.expression.ExpressionType;
 import com.rapidminer.tools.belt.expression.FunctionInputExceptionWrapper;
 import com.rapidminer.tools.belt.expression.MacroResolver;
 import com.rapidminer.tools.belt.expression.TableResolver;
+import com.rapidminer.tools.belt.expression.internal.antlr.AntlrParser;
 
 
 /**
@@ -72,6 +78,19 @@ public enum ExpressionParserUtils {
 
 	private static final String I18N_INVALID_UNIT = "expression_parser.invalid_argument.date_unit";
 
+	/**
+	 * Matches calls of the rand function and of the eval function, whose subexpressions might call rand. The values of
+	 * rand are drawn from random generators shared by all parsers of a process, so they depend on the evaluation order.
+	 */
+	private static final Pattern ORDER_DEPENDENT_FUNCTIONS = Pattern.compile("\\b(rand|eval)\\s*\\(");
+
+	/**
+	 * Matches calls of functions whose values depend on more than the data: macros, parameters of other operators, the
+	 * current time, random numbers and evaluated subexpressions.
+	 */
+	private static final Pattern CONTEXT_DEPENDENT_FUNCTIONS = Pattern.compile(
+			"\\b(macro|param|date_now|rand|eval)\\s*\\(");
+
 
 	/**
 	 * Return the corresponding {@link ExpressionType} for the given {@link Column.TypeId}.
@@ -141,7 +160,36 @@ public enum ExpressionParserUtils {
 	 * 		if the expression parsing fails
 	 */
 	public static Column createColumn(int numberOfRows, String expression, ExpressionParser parser) throws ExpressionException {
+		return createColumn(numberOfRows, expression, parser, isCompilationEnabled());
+	}
+
+	/**
+	 * Creates a new column like {@link #createColumn(int, String, ExpressionParser)}, but compiles the expression
+	 * independently of the setting {@link RapidMiner#PROPERTY_RAPIDMINER_SYSTEM_EXPRESSION_COMPILATION} if the
+	 * compilation is switched on.
+	 *
+	 * @param numberOfRows
+	 * 		the number of rows of the resulting column. The expression will be evaluated for each row.
+	 * @param expression
+	 * 		the expression used to create the column
+	 * @param parser
+	 * 		the parser used to parse the given expression
+	 * @param compile
+	 * 		whether the expression should be compiled if the parser supports it
+	 * @return the resulting column
+	 * @throws ExpressionException
+	 * 		if the expression parsing fails
+	 * @since 9.11
+	 */
+	static Column createColumn(int numberOfRows, String expression, ExpressionParser parser, boolean compile)
+			throws ExpressionException {
 		Expression parsedExpression = parser.parse(expression);
+		if (compile && parser instanceof AntlrParser) {
+			CompiledExpression compiled = ((AntlrParser) parser).compile(parsedExpression);
+			if (compiled != null) {
+				return createCompiledColumn(numberOfRows, compiled);
+			}
+		}
 		ExpressionType expressionType = parsedExpression.getExpressionType();
 		switch (expressionType) {
 			case DOUBLE:
@@ -165,6 +213,92 @@ public enum ExpressionParserUtils {
 		}
 	}
 
+	/**
+	 * Creates a new column like {@link #createColumn(int, String, ExpressionParser)}, but evaluates chunks of rows in
+	 * parallel. Since a parser and its resolvers are not thread safe, the parser factory is called once per thread and
+	 * has to return a new parser with its own resolvers on every call. Expressions that are {@link
+	 * #isOrderDependent(String) order dependent} and small numbers of rows are evaluated by the calling thread.
+	 *
+	 * @param numberOfRows
+	 * 		the number of rows of the resulting column. The expression will be evaluated for each row.
+	 * @param expression
+	 * 		the expression used to create the column
+	 * @param parserFactory
+	 * 		creates a new parser with its own resolvers on every call
+	 * @param context
+	 * 		the concurrency context used for the evaluation
+	 * @return the resulting column
+	 * @throws ExpressionException
+	 * 		if the expression parsing or evaluation fails
+	 */
+	public static Column createColumn(int numberOfRows, String expression, Supplier<ExpressionParser> parserFactory,
+									  ConcurrencyContext context) throws ExpressionException {
+		ExpressionParser parser = parserFactory.get();
+		if (context == null || context.getParallelism() < 2 || numberOfRows < 2 * ParallelColumnEvaluator.CHUNK_SIZE
+				|| isOrderDependent(expression)) {
+			return createColumn(numberOfRows, expression, parser);
+		}
+		return new ParallelColumnEvaluator(numberOfRows, expression, parser, parserFactory, context).evaluate();
+	}
+
+	/**
+	 * Checks whether the result of the given expression might depend on the order in which rows and expressions are
+	 * evaluated. This is the case for expressions containing random numbers or evaluating subexpressions. The check is a conservative text search,
+	 * so that it can report expressions that are not order dependent, but never misses one.
+	 *
+	 * @param expression
+	 * 		the expression to check
+	 * @return {@code true} if the expression has to be evaluated row by row in the given order
+	 */
+	public static boolean isOrderDependent(String expression) {
+		return ORDER_DEPENDENT_FUNCTIONS.matcher(expression).find();
+	}
+
+	/**
+	 * Checks whether the result of the given expression might depend on more than the data it is evaluated on, i.e. on
+	 * macros, parameters of other operators, the current time or random numbers. Results of such expressions must not
+	 * be reused from a cache. Like {@link #isOrderDependent(String)}, the check is a conservative text search. It also
+	 * applies to expressions of the legacy expression parser, which uses the same function names.
+	 *
+	 * @param expression
+	 * 		the expression to check
+	 * @return {@code true} if the result of the expression might change for the same data
+	 * @since 9.11
+	 */
+	public static boolean isContextDependent(String expression) {
+		return CONTEXT_DEPENDENT_FUNCTIONS.matcher(expression).find();
+	}
+
+	/**
+	 * Compiles the parsed expression if the parser supports it and the compilation is {@link #isCompilationEnabled()
+	 * enabled}.
+	 *
+	 * @param parser
+	 * 		the parser of the expression
+	 * @param parsedExpression
+	 * 		the expression returned by the parser
+	 * @return the compiled expression or {@code null} if the expression has to be evaluated by the parsed expression
+	 * @since 9.11
+	 */
+	static CompiledExpression compile(ExpressionParser parser, Expression parsedExpression) {
+		if (!(parser instanceof AntlrParser) || !isCompilationEnabled()) {
+			return null;
+		}
+		return ((AntlrParser) parser).compile(parsedExpression);
+	}
+
+	/**
+	 * Checks the setting {@link RapidMiner#PROPERTY_RAPIDMINER_SYSTEM_EXPRESSION_COMPILATION}. The compilation is
+	 * enabled unless the setting is explicitly switched off, in particular also if the settings are not initialized.
+	 *
+	 * @return whether expressions should be compiled
+	 * @since 9.11
+	 */
+	static boolean isCompilationEnabled() {
+		String value = ParameterService.getParameterValue(RapidMiner.PROPERTY_RAPIDMINER_SYSTEM_EXPRESSION_COMPILATION);
+		return value == null || value.isEmpty() || Boolean.parseBoolean(value);
+	}
+
 	/**
 	 * Converts a {@link ExpressionException} into a {@link UserError}.
 	 *
@@ -297,6 +431,31 @@ public enum ExpressionParserUtils {
 		return buffer.toColumn();
 	}
 
+	private static Column createCompiledColumn(int numberOfRows, CompiledExpression compiled) {
+		double[] values = new double[Math.min(numberOfRows, CompiledExpression.BLOCK_SIZE)];
+		if (compiled.getExpressionType() == ExpressionType.BOOLEAN) {
+			NominalBuffer buffer = Buffers.nominalBuffer(numberOfRows);
+			for (int from = 0; from < numberOfRows; from += values.length) {
+				int length = Math.min(values.length, numberOfRows - from);
+				compiled.evaluate(from, length, values);
+				for (int i = 0; i < length; i++) {
+					buffer.set(from + i, CompiledExpression.toNominal(values[i]));
+				}
+			}
+			return buffer.toBooleanColumn("true");
+		}
+		NumericBuffer buffer = compiled.getExpressionType() == ExpressionType.INTEGER
+				? Buffers.integer53BitBuffer(numberOfRows, false) : Buffers.realBuffer(numberOfRows, false);
+		for (int from = 0; from < numberOfRows; from += values.length) {
+			int length = Math.min(values.length, numberOfRows - from);
+			compiled.evaluate(from, length, values);
+			for (int i = 0; i < length; i++) {
+				buffer.set(from + i, values[i]);
+			}
+		}
+		return buffer.toColumn();
+	}
+
 	private static Column createStringColumn(int numberOfRows, Expression parsedExpression,
 											 ExpressionContext context, boolean isBoolean) throws ExpressionException {
 		NominalBuffer buffer = Buffers.nominalBuffer(numberOfRows);
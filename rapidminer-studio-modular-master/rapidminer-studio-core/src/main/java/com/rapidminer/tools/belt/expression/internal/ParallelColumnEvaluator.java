@@ -0,0 +1,274 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.tools.belt.expression.internal;
+
+import java.time.Instant;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import com.rapidminer.belt.buffer.Buffers;
+import com.rapidminer.belt.buffer.DateTimeBuffer;
+import com.rapidminer.belt.buffer.NominalBuffer;
+import com.rapidminer.belt.buffer.NumericBuffer;
+import com.rapidminer.belt.buffer.ObjectBuffer;
+import com.rapidminer.belt.buffer.TimeBuffer;
+import com.rapidminer.belt.column.Column;
+import com.rapidminer.belt.column.type.StringList;
+import com.rapidminer.belt.column.type.StringSet;
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.tools.belt.expression.Expression;
+import com.rapidminer.tools.belt.expression.ExpressionContext;
+import com.rapidminer.tools.belt.expression.ExpressionException;
+import com.rapidminer.tools.belt.expression.ExpressionParser;
+import com.rapidminer.tools.belt.expression.ExpressionType;
+
+
+/**
+ * Evaluates an expression for chunks of rows in parallel. Since parsers and their resolvers are not thread safe, every
+ * thread evaluates its own copy of the expression that was parsed by its own parser. The values of a chunk are
+ * collected in a per-thread array and copied into the column buffer by the calling thread, so that the buffers do not
+ * need to support concurrent writes.
+ *
+ * @see ExpressionParserUtils#createColumn(int, String, Supplier, ConcurrencyContext)
+ * @since 9.11
+ */
+final class ParallelColumnEvaluator {
+
+	/** the number of rows evaluated by a single task */
+	static final int CHUNK_SIZE = 1 << 13;
+
+	/**
+	 * The evaluation state of a single thread.
+	 */
+	private static final class Slot {
+
+		private final ExpressionContext context;
+		private final Expression expression;
+		private final CompiledExpression compiled;
+		private double[] numbers;
+		private Object[] objects;
+		private int from;
+		private int to;
+
+		private Slot(ExpressionParser parser, String expression) throws ExpressionException {
+			this.context = parser.getExpressionContext();
+			this.expression = parser.parse(expression);
+			this.compiled = ExpressionParserUtils.compile(parser, this.expression);
+		}
+
+		/**
+		 * Evaluates the rows from {@link #from} to {@link #to} into the values array of this slot.
+		 */
+		private void evaluate(ExpressionType type) throws ExpressionException {
+			if (compiled != null) {
+				compiled.evaluate(from, to - from, numbers);
+				if (type == ExpressionType.BOOLEAN) {
+					for (int i = 0; i < to - from; i++) {
+						objects[i] = CompiledExpression.toNominal(numbers[i]);
+					}
+				}
+				return;
+			}
+			for (int i = from; i < to; i++) {
+				context.setIndex(i);
+				int position = i - from;
+				switch (type) {
+					case DOUBLE:
+					case INTEGER:
+						numbers[position] = expression.evaluateNumerical();
+						break;
+					case INSTANT:
+						objects[position] = expression.evaluateInstant();
+						break;
+					case LOCAL_TIME:
+						objects[position] = expression.evaluateLocalTime();
+						break;
+					case STRING_SET:
+						objects[position] = expression.evaluateStringSet();
+						break;
+					case STRING_LIST:
+						objects[position] = expression.evaluateStringList();
+						break;
+					default:
+						objects[position] = expression.evaluateNominal();
+				}
+			}
+		}
+	}
+
+	private final int numberOfRows;
+	private final String expression;
+	private final Supplier<ExpressionParser> parserFactory;
+	private final ConcurrencyContext context;
+	private final ExpressionType type;
+	private final List<Slot> slots = new ArrayList<>();
+
+	/**
+	 * Creates a new evaluator and parses the expression with the given parser.
+	 *
+	 * @param numberOfRows
+	 * 		the number of rows of the resulting column
+	 * @param expression
+	 * 		the expression to evaluate
+	 * @param parser
+	 * 		the parser used by the first thread
+	 * @param parserFactory
+	 * 		creates a new parser with its own resolvers for every further thread
+	 * @param context
+	 * 		the concurrency context used for the evaluation
+	 * @throws ExpressionException
+	 * 		if the expression parsing fails
+	 */
+	ParallelColumnEvaluator(int numberOfRows, String expression, ExpressionParser parser,
+							Supplier<ExpressionParser> parserFactory, ConcurrencyContext context) throws ExpressionException {
+		this.numberOfRows = numberOfRows;
+		this.expression = expression;
+		this.parserFactory = parserFactory;
+		this.context = context;
+		Slot first = new Slot(parser, expression);
+		this.type = first.expression.getExpressionType();
+		slots.add(first);
+	}
+
+	/**
+	 * Evaluates the expression for all rows.
+	 *
+	 * @return the resulting column
+	 * @throws ExpressionException
+	 * 		if the evaluation fails
+	 */
+	Column evaluate() throws ExpressionException {
+		switch (type) {
+			case DOUBLE:
+			case INTEGER:
+				NumericBuffer numericBuffer = type == ExpressionType.INTEGER ?
+						Buffers.integer53BitBuffer(numberOfRows, false) : Buffers.realBuffer(numberOfRows, false);
+				evaluate(slot -> {
+					for (int i = slot.from; i < slot.to; i++) {
+						numericBuffer.set(i, slot.numbers[i - slot.from]);
+					}
+				});
+				return numericBuffer.toColumn();
+			case INSTANT:
+				DateTimeBuffer dateTimeBuffer = Buffers.dateTimeBuffer(numberOfRows, true, false);
+				evaluate(slot -> {
+					for (int i = slot.from; i < slot.to; i++) {
+						dateTimeBuffer.set(i, (Instant) slot.objects[i - slot.from]);
+					}
+				});
+				return dateTimeBuffer.toColumn();
+			case LOCAL_TIME:
+				TimeBuffer timeBuffer = Buffers.timeBuffer(numberOfRows, false);
+				evaluate(slot -> {
+					for (int i = slot.from; i < slot.to; i++) {
+						timeBuffer.set(i, (LocalTime) slot.objects[i - slot.from]);
+					}
+				});
+				return timeBuffer.toColumn();
+			case STRING_SET:
+				ObjectBuffer<StringSet> textsetBuffer = Buffers.textsetBuffer(numberOfRows);
+				evaluate(slot -> {
+					for (int i = slot.from; i < slot.to; i++) {
+						textsetBuffer.set(i, (StringSet) slot.objects[i - slot.from]);
+					}
+				});
+				return textsetBuffer.toColumn();
+			case STRING_LIST:
+				ObjectBuffer<StringList> textlistBuffer = Buffers.textlistBuffer(numberOfRows);
+				evaluate(slot -> {
+					for (int i = slot.from; i < slot.to; i++) {
+						textlistBuffer.set(i, (StringList) slot.objects[i - slot.from]);
+					}
+				});
+				return textlistBuffer.toColumn();
+			case BOOLEAN:
+			case STRING:
+				NominalBuffer nominalBuffer = Buffers.nominalBuffer(numberOfRows);
+				evaluate(slot -> {
+					for (int i = slot.from; i < slot.to; i++) {
+						nominalBuffer.set(i, (String) slot.objects[i - slot.from]);
+					}
+				});
+				return type == ExpressionType.BOOLEAN ? nominalBuffer.toBooleanColumn("true") : nominalBuffer.toColumn();
+			default:
+				throw new IllegalStateException("Unknown expression type: " + type.name());
+		}
+	}
+
+	/**
+	 * Evaluates the rows in waves of one chunk per thread and hands every evaluated chunk to the writer.
+	 */
+	private void evaluate(Consumer<Slot> writer) throws ExpressionException {
+		int parallelism = context.getParallelism();
+		while (slots.size() < parallelism) {
+			slots.add(new Slot(parserFactory.get(), expression));
+		}
+		boolean numeric = type == ExpressionType.DOUBLE || type == ExpressionType.INTEGER;
+		for (Slot slot : slots) {
+			if (numeric || slot.compiled != null) {
+				slot.numbers = new double[CHUNK_SIZE];
+			}
+			if (!numeric) {
+				slot.objects = new Object[CHUNK_SIZE];
+			}
+		}
+		List<Callable<Void>> tasks = new ArrayList<>(parallelism);
+		for (int start = 0; start < numberOfRows; start += parallelism * CHUNK_SIZE) {
+			tasks.clear();
+			for (int t = 0; t < parallelism && start + t * CHUNK_SIZE < numberOfRows; t++) {
+				Slot slot = slots.get(t);
+				slot.from = start + t * CHUNK_SIZE;
+				slot.to = Math.min(slot.from + CHUNK_SIZE, numberOfRows);
+				tasks.add(() -> {
+					slot.evaluate(type);
+					return null;
+				});
+			}
+			call(tasks);
+			for (int t = 0; t < tasks.size(); t++) {
+				writer.accept(slots.get(t));
+			}
+		}
+	}
+
+	/**
+	 * Runs the tasks and unwraps the cause of a failure.
+	 */
+	private void call(List<Callable<Void>> tasks) throws ExpressionException {
+		try {
+			context.call(tasks);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof ExpressionException) {
+				throw (ExpressionException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			} else {
+				throw new IllegalStateException(cause.getMessage(), cause);
+			}
+		}
+	}
+}
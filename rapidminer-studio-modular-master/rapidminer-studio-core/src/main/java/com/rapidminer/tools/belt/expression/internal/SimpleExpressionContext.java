@@ -236,6 +236,19 @@ public class SimpleExpressionContext implements ExpressionContext {
 		}
 	}
 
+	/**
+	 * Returns the first dynamic resolver that knows the given variable. Used by compiled expressions to read the values
+	 * of the variable in blocks.
+	 *
+	 * @param variableName
+	 * 		the name of the dynamic variable
+	 * @return the resolver or {@code null} if no resolver knows the variable
+	 * @since 9.11
+	 */
+	public DynamicResolver getDynamicResolver(String variableName) {
+		return getDynamicResolverWithKnowledge(dynamicResolvers, variableName);
+	}
+
 	/**
 	 * Looks for the first dynamic resolver in the resolvers list that knows the variableName.
 	 *
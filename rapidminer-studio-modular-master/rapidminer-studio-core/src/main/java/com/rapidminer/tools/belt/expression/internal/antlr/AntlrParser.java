@@ -29,8 +29,10 @@ import com.rapidminer.tools.belt.expression.ExpressionEvaluator;
 import com.rapidminer.tools.belt.expression.ExpressionException;
 import com.rapidminer.tools.belt.expression.ExpressionExceptionWrapper;
 import com.rapidminer.tools.belt.expression.ExpressionParser;
+import com.rapidminer.tools.belt.expression.ExpressionType;
 import com.rapidminer.tools.belt.expression.FatalExpressionException;
 import com.rapidminer.tools.belt.expression.SyntaxException;
+import com.rapidminer.tools.belt.expression.internal.CompiledExpression;
 import com.rapidminer.tools.expression.internal.antlr.FunctionExpressionLexer;
 import com.rapidminer.tools.expression.internal.antlr.FunctionExpressionParser;
 
@@ -117,8 +119,9 @@ public class AntlrParser implements ExpressionParser {
 	@Override
 	public Expression parse(String expression) throws ExpressionException {
 		try {
-			ExpressionEvaluator evaluator = parseToEvaluator(expression);
-			return new SimpleExpression(evaluator);
+			ParseTree tree = parseExpression(expression);
+			ExpressionEvaluator evaluator = new EvaluatorCreationVisitor(lookup).visit(tree);
+			return new SimpleExpression(evaluator, tree);
 		} catch (ExpressionException e) {
 			throw e;
 		} catch (ExpressionExceptionWrapper e) {
@@ -144,6 +147,40 @@ public class AntlrParser implements ExpressionParser {
 		return new EvaluatorCreationVisitor(lookup).visit(tree);
 	}
 
+	/**
+	 * Compiles an expression parsed by this parser into a {@link CompiledExpression} that evaluates blocks of rows. The
+	 * parse tree of the parsed expression is reused. Only numerical and boolean expressions built from literals,
+	 * constants, numerical columns and the arithmetic, comparison, logical and numerical functions are supported.
+	 *
+	 * @param expression
+	 * 		the expression returned by {@link #parse(String)}
+	 * @return the compiled expression or {@code null} if the expression is constant, not parsed by this parser or not
+	 * supported
+	 * @since 9.11
+	 */
+	public CompiledExpression compile(Expression expression) {
+		if (!(expression instanceof SimpleExpression) || ((SimpleExpression) expression).getParseTree() == null) {
+			return null;
+		}
+		ParseTree tree = ((SimpleExpression) expression).getParseTree();
+		ExpressionEvaluator evaluator = ((SimpleExpression) expression).getEvaluator();
+		ExpressionType type = evaluator.getType();
+		if (evaluator.isConstant() || (type != ExpressionType.DOUBLE && type != ExpressionType.INTEGER
+				&& type != ExpressionType.BOOLEAN)) {
+			return null;
+		}
+		try {
+			KernelCreationVisitor.Node node = new KernelCreationVisitor(lookup).visit(tree);
+			if (node == null || node.isBoolean() != (type == ExpressionType.BOOLEAN)) {
+				return null;
+			}
+			return new CompiledExpression(node.getKernel(), type);
+		} catch (Exception e) {
+			// the caller falls back to the evaluator
+			return null;
+		}
+	}
+
 	@Override
 	public ExpressionContext getExpressionContext() {
 		return lookup;
@@ -0,0 +1,346 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.tools.belt.expression.internal.antlr;
+
+import java.util.Arrays;
+
+import com.rapidminer.tools.belt.expression.DynamicResolver;
+import com.rapidminer.tools.belt.expression.ExpressionContext;
+import com.rapidminer.tools.belt.expression.ExpressionEvaluator;
+import com.rapidminer.tools.belt.expression.ExpressionType;
+import com.rapidminer.tools.belt.expression.Function;
+import com.rapidminer.tools.belt.expression.internal.CompiledExpression;
+import com.rapidminer.tools.belt.expression.internal.CompiledExpression.Kernel;
+import com.rapidminer.tools.belt.expression.internal.SimpleExpressionContext;
+import com.rapidminer.tools.belt.expression.internal.function.Abstract1DoubleInputFunction;
+import com.rapidminer.tools.belt.expression.internal.function.Abstract2DoubleInputFunction;
+import com.rapidminer.tools.belt.expression.internal.function.AbstractArbitraryDoubleInputFunction;
+import com.rapidminer.tools.belt.expression.internal.function.basic.Minus;
+import com.rapidminer.tools.belt.expression.internal.function.basic.Plus;
+import com.rapidminer.tools.belt.expression.internal.function.comparison.AbstractComparisonFunctionWith2Inputs;
+import com.rapidminer.tools.belt.expression.internal.function.comparison.AbstractEqualityFunctionWith2Inputs;
+import com.rapidminer.tools.belt.expression.internal.function.logical.AbstractLogicalFunctionWith1Input;
+import com.rapidminer.tools.belt.expression.internal.function.logical.AbstractLogicalFunctionWith2Inputs;
+import com.rapidminer.tools.belt.expression.internal.function.logical.If;
+import com.rapidminer.tools.belt.expression.internal.function.rounding.Abstract1or2DoubleInputFunction;
+import com.rapidminer.tools.expression.internal.antlr.FunctionExpressionParser.AttributeContext;
+import com.rapidminer.tools.expression.internal.antlr.FunctionExpressionParser.FunctionContext;
+import com.rapidminer.tools.expression.internal.antlr.FunctionExpressionParser.IntegerContext;
+import com.rapidminer.tools.expression.internal.antlr.FunctionExpressionParser.LowerExpContext;
+import com.rapidminer.tools.expression.internal.antlr.FunctionExpressionParser.OperationExpContext;
+import com.rapidminer.tools.expression.internal.antlr.FunctionExpressionParser.RealContext;
+import com.rapidminer.tools.expression.internal.antlr.FunctionExpressionParser.VariableContext;
+import com.rapidminer.tools.expression.internal.antlr.FunctionExpressionParserBaseVisitor;
+
+
+/**
+ * Visitor that recursively builds the {@link Kernel}s of a {@link CompiledExpression}. Mirrors the {@link
+ * EvaluatorCreationVisitor} but only supports numerical and boolean literals, constants and columns together with the
+ * arithmetic, comparison, logical and numerical functions. Every other node results in {@code null} so that the
+ * caller can fall back to the {@link ExpressionEvaluator}. The functions are not reimplemented, the kernels call the
+ * block versions of their computations.
+ *
+ * @since 9.11
+ */
+class KernelCreationVisitor extends FunctionExpressionParserBaseVisitor<KernelCreationVisitor.Node> {
+
+	/**
+	 * A compiled node together with its kind, either numerical or boolean.
+	 */
+	static final class Node {
+
+		private final Kernel kernel;
+		private final boolean isBoolean;
+
+		private Node(Kernel kernel, boolean isBoolean) {
+			this.kernel = kernel;
+			this.isBoolean = isBoolean;
+		}
+
+		Kernel getKernel() {
+			return kernel;
+		}
+
+		boolean isBoolean() {
+			return isBoolean;
+		}
+	}
+
+	private final ExpressionContext lookUp;
+
+	/**
+	 * Creates a visitor that recursively builds {@link Kernel}s.
+	 *
+	 * @param lookUp
+	 *            the {@link ExpressionContext} for looking up functions, variables and constants
+	 */
+	KernelCreationVisitor(ExpressionContext lookUp) {
+		this.lookUp = lookUp;
+	}
+
+	@Override
+	public Node visitOperationExp(OperationExpContext ctx) {
+		if (ctx.op == null) {
+			return visit(ctx.atomExp());
+		}
+		Node[] inputs = new Node[ctx.operationExp().size() == 1 ? 1 : 2];
+		for (int i = 0; i < inputs.length; i++) {
+			inputs[i] = visit(ctx.operationExp(i));
+			if (inputs[i] == null) {
+				return null;
+			}
+		}
+		return compile(lookUp.getFunction(ctx.op.getText()), inputs);
+	}
+
+	@Override
+	public Node visitLowerExp(LowerExpContext ctx) {
+		return visit(ctx.operationExp());
+	}
+
+	@Override
+	public Node visitFunction(FunctionContext ctx) {
+		int numberOfInner = ctx.operationExp().size();
+		Node[] inputs = new Node[numberOfInner];
+		for (int i = 0; i < numberOfInner; i++) {
+			inputs[i] = visit(ctx.operationExp(i));
+			if (inputs[i] == null) {
+				return null;
+			}
+		}
+		return compile(lookUp.getFunction(ctx.NAME().getText()), inputs);
+	}
+
+	@Override
+	public Node visitAttribute(AttributeContext ctx) {
+		String text = ctx.getText();
+		String attributeName = text.substring(1, text.length() - 1).replace("\\[", "[").replace("\\]", "]")
+				.replace("\\\\", "\\");
+		return column(attributeName);
+	}
+
+	@Override
+	public Node visitVariable(VariableContext ctx) {
+		// constants first, like in the ExpressionContext
+		String name = ctx.getText();
+		ExpressionEvaluator constant = lookUp.getConstant(name);
+		if (constant == null) {
+			return column(name);
+		}
+		try {
+			switch (constant.getType()) {
+				case DOUBLE:
+				case INTEGER:
+					return fill(constant.getDoubleFunction().call(), false);
+				case BOOLEAN:
+					return fill(CompiledExpression.fromBoolean(constant.getBooleanFunction().call()), true);
+				default:
+					return null;
+			}
+		} catch (Exception e) {
+			return null;
+		}
+	}
+
+	@Override
+	public Node visitReal(RealContext ctx) {
+		return fill(Double.parseDouble(ctx.getText()), false);
+	}
+
+	@Override
+	public Node visitInteger(IntegerContext ctx) {
+		return fill(Double.parseDouble(ctx.getText()), false);
+	}
+
+	/**
+	 * Creates a node reading the numerical column of the given name in blocks.
+	 */
+	private Node column(String name) {
+		if (!(lookUp instanceof SimpleExpressionContext)) {
+			return null;
+		}
+		DynamicResolver resolver = ((SimpleExpressionContext) lookUp).getDynamicResolver(name);
+		if (resolver == null) {
+			return null;
+		}
+		ExpressionType type = resolver.getVariableType(name);
+		if (type != ExpressionType.DOUBLE && type != ExpressionType.INTEGER) {
+			return null;
+		}
+		return new Node((from, length, target) -> resolver.getDoubleValues(name, from, target, length), false);
+	}
+
+	/**
+	 * Creates a node with the same value for every row.
+	 */
+	private static Node fill(double value, boolean isBoolean) {
+		return new Node((from, length, target) -> Arrays.fill(target, 0, length, value), isBoolean);
+	}
+
+	/**
+	 * Creates the node applying the function to the inputs or returns {@code null} if the function or the kinds of
+	 * the inputs are not supported.
+	 */
+	private static Node compile(Function function, Node[] inputs) {
+		if (function == null) {
+			return null;
+		}
+		if (function instanceof AbstractComparisonFunctionWith2Inputs) {
+			return compileComparison((AbstractComparisonFunctionWith2Inputs) function, inputs);
+		} else if (function instanceof AbstractEqualityFunctionWith2Inputs) {
+			return compileEquality((AbstractEqualityFunctionWith2Inputs) function, inputs);
+		} else if (function instanceof AbstractLogicalFunctionWith1Input) {
+			return compileLogical((AbstractLogicalFunctionWith1Input) function, inputs);
+		} else if (function instanceof AbstractLogicalFunctionWith2Inputs) {
+			return compileLogical((AbstractLogicalFunctionWith2Inputs) function, inputs);
+		} else if (function instanceof If) {
+			return compileIf((If) function, inputs);
+		}
+		for (Node input : inputs) {
+			if (input.isBoolean) {
+				return null;
+			}
+		}
+		if (function instanceof Plus && inputs.length == 1) {
+			return inputs[0];
+		} else if (function instanceof Minus && inputs.length == 1) {
+			Kernel kernel = inputs[0].kernel;
+			Minus minus = (Minus) function;
+			return new Node((from, length, target) -> {
+				kernel.evaluate(from, length, target);
+				minus.compute(target, length);
+			}, false);
+		} else if (function instanceof Abstract1or2DoubleInputFunction && inputs.length == 1) {
+			Kernel kernel = inputs[0].kernel;
+			Abstract1or2DoubleInputFunction rounding = (Abstract1or2DoubleInputFunction) function;
+			return new Node((from, length, target) -> {
+				kernel.evaluate(from, length, target);
+				rounding.compute(target, length);
+			}, false);
+		} else if (function instanceof Abstract2DoubleInputFunction && inputs.length == 2) {
+			Kernel left = inputs[0].kernel;
+			Kernel right = inputs[1].kernel;
+			Abstract2DoubleInputFunction binary = (Abstract2DoubleInputFunction) function;
+			double[] rightValues = new double[CompiledExpression.BLOCK_SIZE];
+			return new Node((from, length, target) -> {
+				left.evaluate(from, length, target);
+				right.evaluate(from, length, rightValues);
+				binary.compute(target, rightValues, length);
+			}, false);
+		} else if (function instanceof Abstract1DoubleInputFunction && inputs.length == 1) {
+			Kernel kernel = inputs[0].kernel;
+			Abstract1DoubleInputFunction unary = (Abstract1DoubleInputFunction) function;
+			return new Node((from, length, target) -> {
+				kernel.evaluate(from, length, target);
+				unary.compute(target, length);
+			}, false);
+		} else if (function instanceof AbstractArbitraryDoubleInputFunction && inputs.length > 0) {
+			Kernel[] kernels = new Kernel[inputs.length];
+			double[][] values = new double[inputs.length][CompiledExpression.BLOCK_SIZE];
+			for (int i = 0; i < inputs.length; i++) {
+				kernels[i] = inputs[i].kernel;
+			}
+			AbstractArbitraryDoubleInputFunction arbitrary = (AbstractArbitraryDoubleInputFunction) function;
+			return new Node((from, length, target) -> {
+				for (int i = 0; i < kernels.length; i++) {
+					kernels[i].evaluate(from, length, values[i]);
+				}
+				arbitrary.compute(values, length, target);
+			}, false);
+		}
+		return null;
+	}
+
+	private static Node compileComparison(AbstractComparisonFunctionWith2Inputs function, Node[] inputs) {
+		if (inputs.length != 2 || inputs[0].isBoolean || inputs[1].isBoolean) {
+			return null;
+		}
+		Kernel left = inputs[0].kernel;
+		Kernel right = inputs[1].kernel;
+		double[] rightValues = new double[CompiledExpression.BLOCK_SIZE];
+		return new Node((from, length, target) -> {
+			left.evaluate(from, length, target);
+			right.evaluate(from, length, rightValues);
+			function.compute(target, rightValues, length);
+		}, true);
+	}
+
+	private static Node compileEquality(AbstractEqualityFunctionWith2Inputs function, Node[] inputs) {
+		if (inputs.length != 2) {
+			return null;
+		}
+		Kernel left = inputs[0].kernel;
+		Kernel right = inputs[1].kernel;
+		boolean leftBoolean = inputs[0].isBoolean;
+		boolean rightBoolean = inputs[1].isBoolean;
+		double[] rightValues = new double[CompiledExpression.BLOCK_SIZE];
+		return new Node((from, length, target) -> {
+			left.evaluate(from, length, target);
+			right.evaluate(from, length, rightValues);
+			function.compute(target, leftBoolean, rightValues, rightBoolean, length);
+		}, true);
+	}
+
+	private static Node compileLogical(AbstractLogicalFunctionWith1Input function, Node[] inputs) {
+		if (inputs.length != 1) {
+			return null;
+		}
+		Kernel kernel = inputs[0].kernel;
+		boolean isBoolean = inputs[0].isBoolean;
+		return new Node((from, length, target) -> {
+			kernel.evaluate(from, length, target);
+			function.compute(target, isBoolean, length);
+		}, true);
+	}
+
+	private static Node compileLogical(AbstractLogicalFunctionWith2Inputs function, Node[] inputs) {
+		if (inputs.length != 2) {
+			return null;
+		}
+		Kernel left = inputs[0].kernel;
+		Kernel right = inputs[1].kernel;
+		boolean leftBoolean = inputs[0].isBoolean;
+		boolean rightBoolean = inputs[1].isBoolean;
+		double[] rightValues = new double[CompiledExpression.BLOCK_SIZE];
+		return new Node((from, length, target) -> {
+			left.evaluate(from, length, target);
+			right.evaluate(from, length, rightValues);
+			function.compute(target, leftBoolean, rightValues, rightBoolean, length);
+		}, true);
+	}
+
+	private static Node compileIf(If function, Node[] inputs) {
+		// branches of different kinds change the type of the result depending on the condition
+		if (inputs.length != 3 || inputs[1].isBoolean != inputs[2].isBoolean) {
+			return null;
+		}
+		Kernel condition = inputs[0].kernel;
+		Kernel ifCase = inputs[1].kernel;
+		Kernel elseCase = inputs[2].kernel;
+		boolean booleanCondition = inputs[0].isBoolean;
+		double[] ifValues = new double[CompiledExpression.BLOCK_SIZE];
+		double[] elseValues = new double[CompiledExpression.BLOCK_SIZE];
+		return new Node((from, length, target) -> {
+			condition.evaluate(from, length, target);
+			ifCase.evaluate(from, length, ifValues);
+			elseCase.evaluate(from, length, elseValues);
+			function.compute(target, booleanCondition, ifValues, elseValues, length);
+		}, inputs[1].isBoolean);
+	}
+}
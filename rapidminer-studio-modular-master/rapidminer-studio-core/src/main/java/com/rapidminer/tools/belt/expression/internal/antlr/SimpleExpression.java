@@ -21,6 +21,8 @@ package com.rapidminer.tools.belt.expression.internal.antlr;
 import java.time.Instant;
 import java.time.LocalTime;
 
+import org.antlr.v4.runtime.tree.ParseTree;
+
 import com.rapidminer.belt.column.type.StringList;
 import com.rapidminer.belt.column.type.StringSet;
 import com.rapidminer.tools.belt.expression.Expression;
@@ -42,6 +44,8 @@ class SimpleExpression implements Expression {
 
 	private ExpressionEvaluator evaluator;
 
+	private ParseTree tree;
+
 	/**
 	 * Creates a basic expression based on the evaluator.
 	 *
@@ -52,6 +56,37 @@ class SimpleExpression implements Expression {
 		this.evaluator = evaluator;
 	}
 
+	/**
+	 * Creates a basic expression based on the evaluator that keeps the parse tree the evaluator was created from, so
+	 * that the expression can be compiled without parsing it again.
+	 *
+	 * @param evaluator
+	 *            the evaluator to use for evaluating the expression
+	 * @param tree
+	 *            the parse tree of the expression
+	 * @since 9.11
+	 */
+	SimpleExpression(ExpressionEvaluator evaluator, ParseTree tree) {
+		this.evaluator = evaluator;
+		this.tree = tree;
+	}
+
+	/**
+	 * @return the evaluator of the expression
+	 * @since 9.11
+	 */
+	ExpressionEvaluator getEvaluator() {
+		return evaluator;
+	}
+
+	/**
+	 * @return the parse tree of the expression or {@code null} if it is unknown
+	 * @since 9.11
+	 */
+	ParseTree getParseTree() {
+		return tree;
+	}
+
 	@Override
 	public ExpressionType getExpressionType() {
 		return evaluator.getType();
@@ -106,6 +106,23 @@ public abstract class Abstract1DoubleInputFunction extends AbstractFunction {
 	 */
 	protected abstract double compute(double value1);
 
+	/**
+	 * Computes the results for a block of input values in place. Used by compiled expressions, see {@link
+	 * com.rapidminer.tools.belt.expression.internal.CompiledExpression}. Subclasses that change the evaluation of
+	 * {@link #compute(Callable, ExpressionContext, ExpressionEvaluator...)} have to override this method accordingly.
+	 *
+	 * @param values
+	 * 		the input values, replaced by the results
+	 * @param length
+	 * 		the number of values to compute
+	 * @since 9.11
+	 */
+	public void compute(double[] values, int length) {
+		for (int i = 0; i < length; i++) {
+			values[i] = compute(values[i]);
+		}
+	}
+
 	@Override
 	protected ExpressionType computeType(ExpressionType... inputTypes) {
 		ExpressionType input = inputTypes[0];
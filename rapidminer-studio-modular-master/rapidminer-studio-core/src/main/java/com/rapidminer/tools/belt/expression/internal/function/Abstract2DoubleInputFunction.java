@@ -120,6 +120,26 @@ public abstract class Abstract2DoubleInputFunction extends AbstractFunction {
 	 */
 	protected abstract double compute(double value1, double value2);
 
+	/**
+	 * Computes the results for a block of input value pairs in place of the left values. Used by compiled expressions,
+	 * see {@link com.rapidminer.tools.belt.expression.internal.CompiledExpression}. Subclasses that change the
+	 * evaluation of {@link #compute(Callable, ExpressionContext, ExpressionEvaluator...)} have to override this method
+	 * accordingly.
+	 *
+	 * @param left
+	 * 		the first input values, replaced by the results
+	 * @param right
+	 * 		the second input values
+	 * @param length
+	 * 		the number of values to compute
+	 * @since 9.11
+	 */
+	public void compute(double[] left, double[] right, int length) {
+		for (int i = 0; i < length; i++) {
+			left[i] = compute(left[i], right[i]);
+		}
+	}
+
 	@Override
 	protected ExpressionType computeType(ExpressionType... inputTypes) {
 		ExpressionType left = inputTypes[0];
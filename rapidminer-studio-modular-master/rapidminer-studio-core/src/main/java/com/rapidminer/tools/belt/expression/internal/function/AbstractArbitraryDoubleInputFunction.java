@@ -125,4 +125,27 @@ public abstract class AbstractArbitraryDoubleInputFunction extends AbstractFunct
 	 */
 	protected abstract double compute(double... values);
 
+	/**
+	 * Computes the results for a block of rows. Used by compiled expressions, see {@link
+	 * com.rapidminer.tools.belt.expression.internal.CompiledExpression}. Subclasses that change the evaluation of
+	 * {@link #compute(Callable, ExpressionContext, ExpressionEvaluator...)} have to override this method accordingly.
+	 *
+	 * @param values
+	 * 		the input values, one array per argument
+	 * @param length
+	 * 		the number of rows to compute
+	 * @param target
+	 * 		the array for the results
+	 * @since 9.11
+	 */
+	public void compute(double[][] values, int length, double[] target) {
+		double[] row = new double[values.length];
+		for (int i = 0; i < length; i++) {
+			for (int j = 0; j < values.length; j++) {
+				row[j] = values[j][i];
+			}
+			target[i] = compute(row);
+		}
+	}
+
 }
@@ -109,4 +109,27 @@ public class Minus extends Abstract2DoubleInputFunction {
 		return value1 - value2;
 	}
 
+	@Override
+	public void compute(double[] left, double[] right, int length) {
+		for (int i = 0; i < length; i++) {
+			left[i] -= right[i];
+		}
+	}
+
+	/**
+	 * Negates a block of values in place, like the function with a single argument. Used by compiled expressions, see
+	 * {@link com.rapidminer.tools.belt.expression.internal.CompiledExpression}.
+	 *
+	 * @param values
+	 * 		the input values, replaced by the results
+	 * @param length
+	 * 		the number of values to compute
+	 * @since 9.11
+	 */
+	public void compute(double[] values, int length) {
+		for (int i = 0; i < length; i++) {
+			values[i] = -values[i];
+		}
+	}
+
 }
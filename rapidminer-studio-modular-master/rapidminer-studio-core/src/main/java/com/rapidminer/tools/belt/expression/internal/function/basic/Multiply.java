@@ -42,4 +42,11 @@ public class Multiply extends Abstract2DoubleInputFunction {
 		return value1 * value2;
 	}
 
+	@Override
+	public void compute(double[] left, double[] right, int length) {
+		for (int i = 0; i < length; i++) {
+			left[i] *= right[i];
+		}
+	}
+
 }
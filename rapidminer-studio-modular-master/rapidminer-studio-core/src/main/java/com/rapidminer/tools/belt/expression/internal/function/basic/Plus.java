@@ -272,6 +272,13 @@ public class Plus extends Abstract2DoubleInputFunction {
 		return value1 + value2;
 	}
 
+	@Override
+	public void compute(double[] left, double[] right, int length) {
+		for (int i = 0; i < length; i++) {
+			left[i] += right[i];
+		}
+	}
+
 	@Override
 	protected ExpressionType computeType(ExpressionType... inputTypes) {
 		ExpressionType firstType = inputTypes[0];
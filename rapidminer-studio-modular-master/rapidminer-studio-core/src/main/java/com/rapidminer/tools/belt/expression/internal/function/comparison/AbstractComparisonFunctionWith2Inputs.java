@@ -28,6 +28,7 @@ import com.rapidminer.tools.belt.expression.ExpressionType;
 import com.rapidminer.tools.belt.expression.FatalExpressionExceptionWrapper;
 import com.rapidminer.tools.belt.expression.FunctionDescription;
 import com.rapidminer.tools.belt.expression.FunctionInputExceptionWrapper;
+import com.rapidminer.tools.belt.expression.internal.CompiledExpression;
 import com.rapidminer.tools.belt.expression.internal.ExpressionEvaluatorFactory;
 import com.rapidminer.tools.belt.expression.internal.function.AbstractFunction;
 
@@ -157,6 +158,24 @@ public abstract class AbstractComparisonFunctionWith2Inputs extends AbstractFunc
 	 */
 	protected abstract Boolean compute(String left, String right);
 
+	/**
+	 * Compares a block of numerical value pairs. The results are stored in place of the left values, encoded as
+	 * described in {@link CompiledExpression#fromBoolean(Boolean)}. Used by compiled expressions.
+	 *
+	 * @param left
+	 * 		the left values, replaced by the results
+	 * @param right
+	 * 		the right values
+	 * @param length
+	 * 		the number of values to compare
+	 * @since 9.11
+	 */
+	public void compute(double[] left, double[] right, int length) {
+		for (int i = 0; i < length; i++) {
+			left[i] = CompiledExpression.fromBoolean(compute(left[i], right[i]));
+		}
+	}
+
 	@Override
 	protected ExpressionType computeType(ExpressionType... inputTypes) {
 
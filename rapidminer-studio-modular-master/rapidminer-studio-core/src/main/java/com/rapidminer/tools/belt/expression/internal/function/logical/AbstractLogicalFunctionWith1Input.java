@@ -28,6 +28,7 @@ import com.rapidminer.tools.belt.expression.ExpressionType;
 import com.rapidminer.tools.belt.expression.FatalExpressionExceptionWrapper;
 import com.rapidminer.tools.belt.expression.FunctionDescription;
 import com.rapidminer.tools.belt.expression.FunctionInputExceptionWrapper;
+import com.rapidminer.tools.belt.expression.internal.CompiledExpression;
 import com.rapidminer.tools.belt.expression.internal.ExpressionEvaluatorFactory;
 
 
@@ -128,4 +129,23 @@ public abstract class AbstractLogicalFunctionWith1Input extends AbstractLogicalF
 	 * @return the result of the computation.
 	 */
 	protected abstract Boolean compute(Boolean value);
+
+	/**
+	 * Computes the results for a block of numerical or boolean values in place. Boolean values and the results are
+	 * encoded as described in {@link CompiledExpression#fromBoolean(Boolean)}. Used by compiled expressions.
+	 *
+	 * @param values
+	 * 		the input values, replaced by the results
+	 * @param isBoolean
+	 * 		whether the input values are boolean
+	 * @param length
+	 * 		the number of values to compute
+	 * @since 9.11
+	 */
+	public void compute(double[] values, boolean isBoolean, int length) {
+		for (int i = 0; i < length; i++) {
+			values[i] = CompiledExpression.fromBoolean(isBoolean ? compute(CompiledExpression.toBoolean(values[i]))
+					: compute(values[i]));
+		}
+	}
 }
@@ -28,6 +28,7 @@ import com.rapidminer.tools.belt.expression.ExpressionType;
 import com.rapidminer.tools.belt.expression.FatalExpressionExceptionWrapper;
 import com.rapidminer.tools.belt.expression.FunctionDescription;
 import com.rapidminer.tools.belt.expression.FunctionInputExceptionWrapper;
+import com.rapidminer.tools.belt.expression.internal.CompiledExpression;
 import com.rapidminer.tools.belt.expression.internal.ExpressionEvaluatorFactory;
 
 
@@ -212,4 +213,37 @@ public abstract class AbstractLogicalFunctionWith2Inputs extends AbstractLogical
 	 * @return the result of the computation.
 	 */
 	protected abstract Boolean compute(Boolean left, Boolean right);
+
+	/**
+	 * Computes the results for a block of value pairs that are numerical or boolean. Boolean values and the results
+	 * are encoded as described in {@link CompiledExpression#fromBoolean(Boolean)}, the results are stored in place of
+	 * the left values. Used by compiled expressions.
+	 *
+	 * @param left
+	 * 		the left values, replaced by the results
+	 * @param leftBoolean
+	 * 		whether the left values are boolean
+	 * @param right
+	 * 		the right values
+	 * @param rightBoolean
+	 * 		whether the right values are boolean
+	 * @param length
+	 * 		the number of values to compute
+	 * @since 9.11
+	 */
+	public void compute(double[] left, boolean leftBoolean, double[] right, boolean rightBoolean, int length) {
+		for (int i = 0; i < length; i++) {
+			Boolean result;
+			if (leftBoolean && rightBoolean) {
+				result = compute(CompiledExpression.toBoolean(left[i]), CompiledExpression.toBoolean(right[i]));
+			} else if (leftBoolean) {
+				result = compute(CompiledExpression.toBoolean(left[i]), right[i]);
+			} else if (rightBoolean) {
+				result = compute(left[i], CompiledExpression.toBoolean(right[i]));
+			} else {
+				result = compute(left[i], right[i]);
+			}
+			left[i] = CompiledExpression.fromBoolean(result);
+		}
+	}
 }
@@ -30,6 +30,7 @@ import com.rapidminer.tools.belt.expression.ExpressionType;
 import com.rapidminer.tools.belt.expression.FatalExpressionExceptionWrapper;
 import com.rapidminer.tools.belt.expression.FunctionDescription;
 import com.rapidminer.tools.belt.expression.FunctionInputExceptionWrapper;
+import com.rapidminer.tools.belt.expression.internal.CompiledExpression;
 import com.rapidminer.tools.belt.expression.internal.ExpressionEvaluatorFactory;
 import com.rapidminer.tools.belt.expression.internal.function.AbstractFunction;
 
@@ -525,12 +526,7 @@ public class If extends AbstractFunction {
 
 			final DoubleCallable funcCond = condition.getDoubleFunction();
 			try {
-				final double condValue = funcCond.call();
-				if (Double.isNaN(condValue)) {
-					return null;
-				}
-				cond = Math.abs(condValue) >= Double.MIN_VALUE * 2;
-
+				cond = getCondition(funcCond.call());
 			} catch (ExpressionExceptionWrapper e) {
 				throw e;
 			} catch (Exception e) {
@@ -540,4 +536,47 @@ public class If extends AbstractFunction {
 		return cond;
 	}
 
+	/**
+	 * Returns the condition for a numerical condition value.
+	 *
+	 * @param conditionValue
+	 *            the numerical value
+	 * @return the condition or {@code null} if the value is missing
+	 */
+	private static Boolean getCondition(double conditionValue) {
+		if (Double.isNaN(conditionValue)) {
+			return null;
+		}
+		return Math.abs(conditionValue) >= Double.MIN_VALUE * 2;
+	}
+
+	/**
+	 * Selects the if or else values for a block of rows. The results are stored in place of the condition values.
+	 * Boolean values are encoded as described in {@link CompiledExpression#fromBoolean(Boolean)}, so the same method
+	 * works for numerical and boolean results. Used by compiled expressions.
+	 *
+	 * @param condition
+	 *            the condition values, replaced by the results
+	 * @param booleanCondition
+	 *            whether the condition values are boolean
+	 * @param ifValues
+	 *            the values of the if case
+	 * @param elseValues
+	 *            the values of the else case
+	 * @param length
+	 *            the number of rows
+	 * @since 9.11
+	 */
+	public void compute(double[] condition, boolean booleanCondition, double[] ifValues, double[] elseValues,
+			int length) {
+		for (int i = 0; i < length; i++) {
+			Boolean cond = booleanCondition ? CompiledExpression.toBoolean(condition[i]) : getCondition(condition[i]);
+			if (cond == null) {
+				condition[i] = Double.NaN;
+			} else {
+				condition[i] = cond ? ifValues[i] : elseValues[i];
+			}
+		}
+	}
+
 }
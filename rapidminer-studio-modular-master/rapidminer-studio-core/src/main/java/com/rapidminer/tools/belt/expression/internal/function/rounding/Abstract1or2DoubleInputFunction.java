@@ -113,4 +113,20 @@ public abstract class Abstract1or2DoubleInputFunction extends Abstract2DoubleInp
 	 */
 	protected abstract double compute(double value);
 
+	/**
+	 * Computes the results for a block of single input values in place. Used by compiled expressions, see {@link
+	 * com.rapidminer.tools.belt.expression.internal.CompiledExpression}.
+	 *
+	 * @param values
+	 * 		the input values, replaced by the results
+	 * @param length
+	 * 		the number of values to compute
+	 * @since 9.11
+	 */
+	public void compute(double[] values, int length) {
+		for (int i = 0; i < length; i++) {
+			values[i] = compute(values[i]);
+		}
+	}
+
 }
@@ -59,25 +59,33 @@ public class LinearRegression {
 	public static double[] performRegression(Matrix a, Matrix b, double ridge) {
 		RealMatrix x = MatrixUtils.createRealMatrix(a.getArray());
 		RealMatrix y = MatrixUtils.createRealMatrix(b.getArray());
-		int numberOfColumns = x.getColumnDimension();
-		double[] coefficients = new double[numberOfColumns];
 		RealMatrix xTransposed = x.transpose();
+		return performRegression(xTransposed.multiply(x).getData(), xTransposed.multiply(y).getColumn(0), ridge);
+	}
+
+	/**
+	 * Calculates the coefficients of linear ridge regression from the cross products of the
+	 * independent variables xTx and the cross products with the dependent variable xTy, e.g. as
+	 * calculated by {@link com.rapidminer.tools.math.matrix.GramMatrix GramMatrix}. The arguments
+	 * are not modified.
+	 *
+	 * @since 9.11
+	 */
+	public static double[] performRegression(double[][] xTx, double[] xTy, double ridge) {
+		int numberOfColumns = xTy.length;
+		double[] coefficients = new double[numberOfColumns];
 		Matrix result;
 		boolean finished = false;
 		while (!finished) {
-			RealMatrix xTx = xTransposed.multiply(x);
-
+			Matrix ridgeXTx = Matrix.constructWithCopy(xTx);
 			for (int i = 0; i < numberOfColumns; i++) {
-				xTx.addToEntry(i, i, ridge);
+				ridgeXTx.set(i, i, ridgeXTx.get(i, i) + ridge);
 			}
 
-			RealMatrix xTy = xTransposed.multiply(y);
-			coefficients = xTy.getColumn(0);
-
 			try {
 				// do not use Apache LUDecomposition for solve instead because it creates different
 				// results
-				result = new Matrix(xTx.getData()).solve(new Matrix(coefficients, coefficients.length));
+				result = ridgeXTx.solve(new Matrix(xTy.clone(), numberOfColumns));
 				for (int i = 0; i < numberOfColumns; i++) {
 					coefficients[i] = result.get(i, 0);
 				}
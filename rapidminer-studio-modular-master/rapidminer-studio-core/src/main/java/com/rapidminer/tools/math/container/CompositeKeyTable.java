@@ -0,0 +1,226 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.tools.math.container;
+
+import java.util.Arrays;
+
+
+/**
+ * Open addressing hash table assigning consecutive group indices to composite keys of a fixed
+ * number of {@code long} components. The keys are stored densely by group index, so looking up or
+ * adding a key does not allocate any objects apart from the occasional growth of the internal
+ * arrays.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @since 9.11
+ */
+public final class CompositeKeyTable {
+
+	/** marks an empty slot */
+	private static final int EMPTY = -1;
+
+	/** the maximal fill ratio of the slots before rehashing */
+	private static final double LOAD_FACTOR = 0.5;
+
+	private static final int DEFAULT_CAPACITY = 16;
+
+	private final int width;
+
+	/** the group index for every slot or {@link #EMPTY} */
+	private int[] slots;
+
+	/** the keys of all groups, {@link #width} entries per group */
+	private long[] keys;
+
+	/** the hash of every group to avoid recomputation on rehashing */
+	private int[] hashes;
+
+	private int size;
+
+	/**
+	 * Creates a new table for keys with the given number of components.
+	 *
+	 * @param width
+	 *            the number of {@code long} components of every key, must be positive
+	 */
+	public CompositeKeyTable(int width) {
+		if (width < 1) {
+			throw new IllegalArgumentException("width must be positive");
+		}
+		this.width = width;
+		this.slots = new int[DEFAULT_CAPACITY * 2];
+		Arrays.fill(slots, EMPTY);
+		this.keys = new long[DEFAULT_CAPACITY * width];
+		this.hashes = new int[DEFAULT_CAPACITY];
+	}
+
+	/**
+	 * Returns the group index of the given key. If the key is not yet known, it is added and gets the
+	 * next free group index.
+	 *
+	 * @param key
+	 *            the key, only the first {@link #getWidth()} components are used. The array is not
+	 *            stored and can be reused by the caller.
+	 * @return the group index
+	 */
+	public int getOrAdd(long[] key) {
+		return getOrAdd(key, 0);
+	}
+
+	/**
+	 * Same as {@link #getOrAdd(long[])} but reads the key starting at the given offset.
+	 *
+	 * @param key
+	 *            the array containing the key
+	 * @param offset
+	 *            the position of the first key component
+	 * @return the group index
+	 */
+	public int getOrAdd(long[] key, int offset) {
+		int hash = hash(key, offset, width);
+		int mask = slots.length - 1;
+		int slot = hash & mask;
+		int group;
+		while ((group = slots[slot]) != EMPTY) {
+			if (hashes[group] == hash && equalsKey(group, key, offset)) {
+				return group;
+			}
+			slot = (slot + 1) & mask;
+		}
+		group = size++;
+		if (group == hashes.length) {
+			hashes = Arrays.copyOf(hashes, hashes.length * 2);
+			keys = Arrays.copyOf(keys, hashes.length * width);
+		}
+		hashes[group] = hash;
+		System.arraycopy(key, offset, keys, group * width, width);
+		slots[slot] = group;
+		if (size > slots.length * LOAD_FACTOR) {
+			rehash();
+		}
+		return group;
+	}
+
+	/**
+	 * Returns the group index of the key starting at the given offset without adding it.
+	 *
+	 * @param key
+	 *            the array containing the key
+	 * @param offset
+	 *            the position of the first key component
+	 * @return the group index or {@code -1} if the key is not in the table
+	 */
+	public int get(long[] key, int offset) {
+		int hash = hash(key, offset, width);
+		int mask = slots.length - 1;
+		int slot = hash & mask;
+		int group;
+		while ((group = slots[slot]) != EMPTY) {
+			if (hashes[group] == hash && equalsKey(group, key, offset)) {
+				return group;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return EMPTY;
+	}
+
+	/**
+	 * @return the number of groups in this table
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return the number of components of every key
+	 */
+	public int getWidth() {
+		return width;
+	}
+
+	/**
+	 * Returns a component of the key of a group.
+	 *
+	 * @param group
+	 *            the group index
+	 * @param component
+	 *            the index of the key component
+	 * @return the key component
+	 */
+	public long getKeyComponent(int group, int component) {
+		return keys[group * width + component];
+	}
+
+	/**
+	 * Returns the internal key array where the key of group {@code i} starts at {@code i * width}.
+	 * The array must not be modified.
+	 *
+	 * @return the keys of all groups, might be longer than necessary
+	 */
+	public long[] getKeys() {
+		return keys;
+	}
+
+	private boolean equalsKey(int group, long[] key, int offset) {
+		int start = group * width;
+		for (int i = 0; i < width; i++) {
+			if (keys[start + i] != key[offset + i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void rehash() {
+		int[] newSlots = new int[slots.length * 2];
+		Arrays.fill(newSlots, EMPTY);
+		int mask = newSlots.length - 1;
+		for (int group = 0; group < size; group++) {
+			int slot = hashes[group] & mask;
+			while (newSlots[slot] != EMPTY) {
+				slot = (slot + 1) & mask;
+			}
+			newSlots[slot] = group;
+		}
+		slots = newSlots;
+	}
+
+	/**
+	 * Computes the hash of a key as used by this table. The lowest bits determine the slot of the
+	 * key, so callers partitioning keys by hash should use the highest bits.
+	 *
+	 * @param key
+	 *            the array containing the key
+	 * @param offset
+	 *            the position of the first key component
+	 * @param width
+	 *            the number of key components
+	 * @return the hash of the key
+	 */
+	public static int hash(long[] key, int offset, int width) {
+		long hash = 0;
+		for (int i = 0; i < width; i++) {
+			hash = (hash + key[offset + i]) * 0x9E3779B97F4A7C15L;
+		}
+		int folded = (int) (hash ^ (hash >>> 32));
+		return folded ^ (folded >>> 16);
+	}
+
+}
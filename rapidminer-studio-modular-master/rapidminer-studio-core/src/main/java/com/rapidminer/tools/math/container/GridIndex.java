@@ -0,0 +1,255 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.tools.math.container;
+
+import java.util.Arrays;
+
+import com.rapidminer.tools.math.similarity.DistanceMeasure;
+import com.rapidminer.tools.math.similarity.numerical.ChebychevNumericalDistance;
+import com.rapidminer.tools.math.similarity.numerical.EuclideanDistance;
+import com.rapidminer.tools.math.similarity.numerical.ManhattanDistance;
+
+
+/**
+ * Uniform grid over points stored in a flattened row-major array that answers fixed radius
+ * queries. The cells have the size of the radius in up to {@link #MAX_GRID_DIMENSIONS} dimensions,
+ * the ones with the largest extent compared to the radius. A query only checks the points in the
+ * cells around the query point and verifies them with the exact distance measure.
+ * <p>
+ * This only finds all neighbours for measures where the distance is never smaller than the
+ * absolute difference in a single dimension, see {@link #isSupported(DistanceMeasure)}. Once
+ * created, the index can be queried concurrently.
+ *
+ * @since 9.11
+ */
+public final class GridIndex {
+
+	/** the maximal number of dimensions used for the cells */
+	public static final int MAX_GRID_DIMENSIONS = 3;
+
+	/**
+	 * relative slack added to the radius when determining the cells to check, so that rounding
+	 * differences between the cell coordinates and the distance measure cannot lose neighbours
+	 */
+	private static final double RADIUS_SLACK = 1e-9;
+
+	private final double[] values;
+
+	private final int dimensions;
+
+	private final DistanceMeasure measure;
+
+	private final double radius;
+
+	/** the dimensions used for the cells */
+	private final int[] gridDimensions;
+
+	/** the cell coordinates of every cell, one group per cell */
+	private final CompositeKeyTable cells;
+
+	/** the start of the points of every cell in {@link #points}, one additional entry at the end */
+	private final int[] cellStarts;
+
+	/** the point indices ordered by cell, ascending within every cell */
+	private final int[] points;
+
+	private GridIndex(double[] values, int dimensions, DistanceMeasure measure, double radius, int[] gridDimensions) {
+		this.values = values;
+		this.dimensions = dimensions;
+		this.measure = measure;
+		this.radius = radius;
+		this.gridDimensions = gridDimensions;
+		int size = values.length / dimensions;
+
+		cells = new CompositeKeyTable(gridDimensions.length);
+		long[] key = new long[gridDimensions.length];
+		int[] cellOfPoint = new int[size];
+		for (int i = 0; i < size; i++) {
+			for (int g = 0; g < gridDimensions.length; g++) {
+				key[g] = getCell(values[i * dimensions + gridDimensions[g]]);
+			}
+			cellOfPoint[i] = cells.getOrAdd(key);
+		}
+
+		cellStarts = new int[cells.size() + 1];
+		for (int cell : cellOfPoint) {
+			cellStarts[cell + 1]++;
+		}
+		for (int cell = 0; cell < cells.size(); cell++) {
+			cellStarts[cell + 1] += cellStarts[cell];
+		}
+		int[] next = Arrays.copyOf(cellStarts, cells.size());
+		points = new int[size];
+		for (int i = 0; i < size; i++) {
+			points[next[cellOfPoint[i]]++] = i;
+		}
+	}
+
+	/**
+	 * Creates an index for the given points if it can answer radius queries for the measure.
+	 *
+	 * @param values
+	 *            the coordinates of all points, {@code dimensions} consecutive values per point. The
+	 *            array is not copied and must not be changed while the index is used.
+	 * @param dimensions
+	 *            the number of dimensions of every point
+	 * @param measure
+	 *            the initialized distance measure
+	 * @param radius
+	 *            the radius of the queries
+	 * @return the index or {@code null} if the measure is not supported, the radius is not a
+	 *         positive finite number or no dimension contains only finite values
+	 */
+	public static GridIndex create(double[] values, int dimensions, DistanceMeasure measure, double radius) {
+		if (!isSupported(measure) || !(radius > 0) || Double.isInfinite(radius) || dimensions < 1) {
+			return null;
+		}
+		int size = values.length / dimensions;
+		double[] extent = new double[dimensions];
+		for (int d = 0; d < dimensions; d++) {
+			double min = Double.POSITIVE_INFINITY;
+			double max = Double.NEGATIVE_INFINITY;
+			for (int i = d; i < values.length; i += dimensions) {
+				min = Math.min(min, values[i]);
+				max = Math.max(max, values[i]);
+			}
+			extent[d] = size > 0 && Double.isFinite(min) && Double.isFinite(max) ? max - min : Double.NaN;
+		}
+
+		// use the dimensions that split the points into the most cells
+		int[] gridDimensions = new int[Math.min(MAX_GRID_DIMENSIONS, dimensions)];
+		int used = 0;
+		while (used < gridDimensions.length) {
+			int best = -1;
+			for (int d = 0; d < dimensions; d++) {
+				if (!Double.isNaN(extent[d]) && (best < 0 || extent[d] > extent[best])) {
+					best = d;
+				}
+			}
+			if (best < 0) {
+				break;
+			}
+			gridDimensions[used++] = best;
+			extent[best] = Double.NaN;
+		}
+		if (used == 0) {
+			return null;
+		}
+		return new GridIndex(values, dimensions, measure, radius, Arrays.copyOf(gridDimensions, used));
+	}
+
+	/**
+	 * Checks whether the measure is never smaller than the absolute difference in any single
+	 * dimension. This holds for the {@link EuclideanDistance}, the {@link ManhattanDistance} and the
+	 * {@link ChebychevNumericalDistance}, but not for their subclasses.
+	 *
+	 * @param measure
+	 *            the measure to check
+	 * @return whether an index can be created for the measure
+	 */
+	public static boolean isSupported(DistanceMeasure measure) {
+		Class<?> type = measure.getClass();
+		return type == EuclideanDistance.class || type == ManhattanDistance.class
+				|| type == ChebychevNumericalDistance.class;
+	}
+
+	/**
+	 * Returns all points with a distance smaller than the radius to the query point. The distance is
+	 * calculated as {@code measure.calculateDistance(point, query)}.
+	 *
+	 * @param query
+	 *            the coordinates of the query point
+	 * @param buffer
+	 *            an array with the length of the number of dimensions used as temporary storage, it
+	 *            must not be shared between concurrent queries
+	 * @return the indices of the points in ascending order
+	 */
+	public int[] getNeighbours(double[] query, double[] buffer) {
+		int width = gridDimensions.length;
+		long[] lower = new long[width];
+		long[] upper = new long[width];
+		double reach = radius * (1 + RADIUS_SLACK);
+		for (int g = 0; g < width; g++) {
+			double value = query[gridDimensions[g]];
+			if (!Double.isFinite(value)) {
+				// the cells cannot restrict the search, the measure decides how to handle the value
+				int[] result = getNeighbours(0, points.length, query, buffer);
+				Arrays.sort(result);
+				return result;
+			}
+			lower[g] = getCell(value - reach);
+			upper[g] = getCell(value + reach);
+		}
+
+		int[] result = new int[0];
+		long[] key = Arrays.copyOf(lower, width);
+		while (true) {
+			int cell = cells.get(key, 0);
+			if (cell >= 0) {
+				int[] cellResult = getNeighbours(cellStarts[cell], cellStarts[cell + 1], query, buffer);
+				if (cellResult.length > 0) {
+					int count = result.length;
+					result = Arrays.copyOf(result, count + cellResult.length);
+					System.arraycopy(cellResult, 0, result, count, cellResult.length);
+				}
+			}
+			// step to the next cell of the neighbourhood
+			int g = 0;
+			while (g < width && key[g] == upper[g]) {
+				key[g] = lower[g];
+				g++;
+			}
+			if (g == width) {
+				break;
+			}
+			key[g]++;
+		}
+		Arrays.sort(result);
+		return result;
+	}
+
+	/**
+	 * @return the number of non-empty cells
+	 */
+	public int getNumberOfCells() {
+		return cells.size();
+	}
+
+	/**
+	 * Checks the points stored in {@link #points} between from (inclusive) and to (exclusive).
+	 */
+	private int[] getNeighbours(int from, int to, double[] query, double[] buffer) {
+		int[] result = new int[Math.min(16, to - from)];
+		int count = 0;
+		for (int p = from; p < to; p++) {
+			int point = points[p];
+			if (measure.calculateDistance(values, point * dimensions, query, buffer) < radius) {
+				if (count == result.length) {
+					result = Arrays.copyOf(result, count * 2);
+				}
+				result[count++] = point;
+			}
+		}
+		return count == result.length ? result : Arrays.copyOf(result, count);
+	}
+
+	private long getCell(double value) {
+		return (long) Math.floor(value / radius);
+	}
+}
@@ -25,6 +25,7 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 import java.util.RandomAccess;
 
 
@@ -43,10 +44,17 @@ public class LinearList<T extends Serializable> implements GeometricDataCollecti
 
 	private static final long serialVersionUID = -746048910140779285L;
 
+	/** the number of values of a sample block that is compared with all queries of a batch */
+	private static final int BLOCK_SIZE = 4096;
+
 	DistanceMeasure distance;
 	ArrayList<double[]> samples = new ArrayList<double[]>();
 	ArrayList<T> storedValues = new ArrayList<T>();
 
+	/** all samples stored consecutively, built on demand for batched queries */
+	private transient double[] flatSamples;
+	private transient int flatDimension;
+
 	public LinearList(DistanceMeasure distance) {
 		this.distance = distance;
 	}
@@ -55,6 +63,9 @@ public class LinearList<T extends Serializable> implements GeometricDataCollecti
 	public void add(double[] values, T storeValue) {
 		this.samples.add(values);
 		this.storedValues.add(storeValue);
+		synchronized (this) {
+			flatSamples = null;
+		}
 	}
 
 	@Override
@@ -89,6 +100,113 @@ public class LinearList<T extends Serializable> implements GeometricDataCollecti
 		return result;
 	}
 
+	/**
+	 * Searches the k nearest neighbours of all given query values at once. The result for each
+	 * query contains the same neighbours in the same order as
+	 * {@link #getNearestValueDistances(int, double[])}. The samples are compared block-wise with
+	 * all queries, so that each block is read from memory only once per batch. This method may be
+	 * called concurrently as long as no samples are added.
+	 *
+	 * @param k
+	 *            the number of neighbours
+	 * @param values
+	 *            the query values
+	 * @return the neighbours and their distances for each query
+	 * @since 9.11
+	 */
+	public List<Collection<Tupel<Double, T>>> getNearestValueDistances(int k, List<double[]> values) {
+		List<BoundedPriorityQueue<Tupel<Double, T>>> queues = new ArrayList<>(values.size());
+		for (int i = 0; i < values.size(); i++) {
+			queues.add(new BoundedPriorityQueue<Tupel<Double, T>>(k));
+		}
+		getNearestValueDistances(values, queues);
+		return new ArrayList<>(queues);
+	}
+
+	/**
+	 * Same as {@link #getNearestValueDistances(int, List)}, but fills the given queues instead of
+	 * creating new ones. The queues are cleared first, so that the same queues can be used for one
+	 * batch after the other. The bound of the queues is the number of neighbours.
+	 *
+	 * @param values
+	 *            the query values
+	 * @param queues
+	 *            one queue for each query that receives its neighbours and their distances
+	 * @since 9.11
+	 */
+	public void getNearestValueDistances(List<double[]> values, List<BoundedPriorityQueue<Tupel<Double, T>>> queues) {
+		for (BoundedPriorityQueue<Tupel<Double, T>> queue : queues) {
+			queue.clear();
+		}
+		double[] flat = getFlatSamples();
+		int dimension = flatDimension;
+		if (flat == null || !haveDimension(values, dimension)) {
+			for (int q = 0; q < values.size(); q++) {
+				double[] query = values.get(q);
+				BoundedPriorityQueue<Tupel<Double, T>> queue = queues.get(q);
+				int i = 0;
+				for (double[] sample : this.samples) {
+					queue.add(new Tupel<Double, T>(distance.calculateDistance(sample, query), storedValues.get(i)));
+					i++;
+				}
+			}
+			return;
+		}
+
+		double[] buffer = new double[dimension];
+		int numberOfSamples = dimension == 0 ? samples.size() : flat.length / dimension;
+		int blockSize = Math.max(1, BLOCK_SIZE / Math.max(1, dimension));
+		for (int blockStart = 0; blockStart < numberOfSamples; blockStart += blockSize) {
+			int blockEnd = Math.min(numberOfSamples, blockStart + blockSize);
+			for (int q = 0; q < values.size(); q++) {
+				double[] query = values.get(q);
+				BoundedPriorityQueue<Tupel<Double, T>> queue = queues.get(q);
+				for (int s = blockStart; s < blockEnd; s++) {
+					double currentDistance = distance.calculateDistance(flat, s * dimension, query, buffer);
+					// the queue would reject the tupel anyway, so avoid creating it
+					if (queue.isFilled() && Double.compare(currentDistance, queue.peek().getFirst()) >= 0) {
+						continue;
+					}
+					queue.add(new Tupel<Double, T>(currentDistance, storedValues.get(s)));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the samples as one consecutive array or {@code null} if the samples have different
+	 * lengths or are too many.
+	 */
+	private synchronized double[] getFlatSamples() {
+		if (flatSamples == null) {
+			int dimension = samples.isEmpty() ? 0 : samples.get(0).length;
+			if ((long) dimension * samples.size() > Integer.MAX_VALUE - 8) {
+				return null;
+			}
+			double[] flat = new double[dimension * samples.size()];
+			int offset = 0;
+			for (double[] sample : samples) {
+				if (sample.length != dimension) {
+					return null;
+				}
+				System.arraycopy(sample, 0, flat, offset, dimension);
+				offset += dimension;
+			}
+			flatDimension = dimension;
+			flatSamples = flat;
+		}
+		return flatSamples;
+	}
+
+	private static boolean haveDimension(List<double[]> values, int dimension) {
+		for (double[] query : values) {
+			if (query.length != dimension) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	@Override
 	public Collection<Tupel<Double, T>> getNearestValueDistances(double withinDistance, double[] values) {
 		ArrayList<Tupel<Double, T>> queue = new ArrayList<Tupel<Double, T>>();
@@ -19,7 +19,6 @@
 package com.rapidminer.tools.math.matrix;
 
 import com.rapidminer.example.Attribute;
-import com.rapidminer.example.Example;
 import com.rapidminer.example.ExampleSet;
 import com.rapidminer.operator.Operator;
 import com.rapidminer.operator.ProcessStoppedException;
@@ -36,8 +35,7 @@ import Jama.Matrix;
 public class CovarianceMatrix {
 
 	/**
-	 * Transforms the example set into a double matrix (doubling the amount of used memory) and
-	 * invokes {@link #getCovarianceMatrix(double[][])}.
+	 * Returns the covariance matrix of the regular attributes of the example set.
 	 *
 	 * @deprecated Please use {@link #getCovarianceMatrix(ExampleSet, Operator)} so that the
 	 *             calculation can be stopped if necessary.
@@ -54,34 +52,20 @@ public class CovarianceMatrix {
 	}
 
 	/**
-	 * Transforms the example set into a double matrix (doubling the amount of used memory) and
-	 * invokes {@link #getCovarianceMatrix(double[][])}.
+	 * Calculates the covariance matrix of the regular attributes with
+	 * {@link GramMatrix#getCovarianceMatrix(ExampleSet, Attribute[], Operator)}, which reads the
+	 * example set block-wise instead of copying it.
 	 *
 	 * @param exampleSet
 	 *            ExampleSet to construct the covariance matrix from
 	 * @param op
-	 *            executing Operator which will be used to check for stop (can be null).
+	 *            executing Operator which will be used to check for stop and to calculate in
+	 *            parallel (can be null).
 	 *
 	 * @throws ProcessStoppedException
 	 */
 	public static Matrix getCovarianceMatrix(ExampleSet exampleSet, Operator op) throws ProcessStoppedException {
-		boolean checkForStop = op != null;
-		double[][] data = new double[exampleSet.size()][exampleSet.getAttributes().size()];
-		int c = 0;
-		for (Attribute attribute : exampleSet.getAttributes()) {
-			int r = 0;
-			for (Example example : exampleSet) {
-				data[r][c] = example.getValue(attribute);
-				r++;
-			}
-			c++;
-
-			if (checkForStop) {
-				op.checkForStop();
-			}
-		}
-
-		return getCovarianceMatrix(data, op);
+		return GramMatrix.getCovarianceMatrix(exampleSet, exampleSet.getAttributes().createRegularAttributeArray(), op);
 	}
 
 	/**
@@ -107,7 +91,8 @@ public class CovarianceMatrix {
 	 * @param data
 	 *            data to construct the covariance matrix from
 	 * @param op
-	 *            executing Operator which will be used to check for stop (can be null).
+	 *            executing Operator which will be used to check for stop and to calculate in
+	 *            parallel (can be null).
 	 */
 	public static Matrix getCovarianceMatrix(double[][] data, Operator op) throws ProcessStoppedException {
 		// checks
@@ -132,50 +117,6 @@ public class CovarianceMatrix {
 			}
 		}
 
-		// check whether a operator is executing this
-		boolean checkForStop = op != null;
-
-		// subtract column-averages
-		for (int c = 0; c < numberOfColumns; c++) {
-			double average = getAverageForColumn(data, c);
-			for (int r = 0; r < data.length; r++) {
-				data[r][c] -= average;
-			}
-		}
-
-		// create covariance matrix
-		double[][] covarianceMatrixEntries = new double[numberOfColumns][numberOfColumns];
-
-		// fill the covariance matrix
-		for (int i = 0; i < covarianceMatrixEntries.length; i++) {
-			if (checkForStop) {
-				op.checkForStop();
-			}
-			for (int j = i; j < covarianceMatrixEntries.length; j++) {
-				double covariance = getCovariance(data, i, j);
-				covarianceMatrixEntries[i][j] = covariance;
-				covarianceMatrixEntries[j][i] = covariance;
-			}
-		}
-
-		return new Matrix(covarianceMatrixEntries);
-	}
-
-	/** Returns the average for the column with the given index. */
-	private static double getAverageForColumn(double[][] data, int column) {
-		double sum = 0.0d;
-		for (int r = 0; r < data.length; r++) {
-			sum += data[r][column];
-		}
-		return sum / data.length;
-	}
-
-	/** Returns the covariance between the given columns. */
-	private static double getCovariance(double[][] data, int x, int y) {
-		double cov = 0;
-		for (int i = 0; i < data.length; i++) {
-			cov += data[i][x] * data[i][y];
-		}
-		return cov / (data.length - 1);
+		return GramMatrix.getCovarianceMatrix(data, op);
 	}
 }
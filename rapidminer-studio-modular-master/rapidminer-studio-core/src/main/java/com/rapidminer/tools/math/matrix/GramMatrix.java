@@ -0,0 +1,472 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.tools.math.matrix;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.operator.Operator;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.ProcessStoppedException;
+import com.rapidminer.operator.WrapperOperatorRuntimeException;
+import com.rapidminer.studio.concurrency.internal.ExecutionExceptionHandling;
+import com.rapidminer.studio.internal.Resources;
+
+import Jama.Matrix;
+
+
+/**
+ * Calculates cross product (Gram), covariance and correlation matrices of the columns of an
+ * {@link ExampleSet} or a double matrix without creating a dense copy of the data. The rows are
+ * read in blocks of {@value #BLOCK_SIZE} with
+ * {@link ExampleSet#getValues(Attribute, int, int, double[], int)} and the products of a block are
+ * accumulated in tiles of columns that fit into the processor cache.
+ * <p>
+ * If the calculation is started by an {@link Operator}, the rows are split into one range per thread
+ * of its {@link ConcurrencyContext}. Every thread accumulates the products of its range in its own
+ * partial matrix and the partial matrices are added afterwards in the order of the ranges. The
+ * result is therefore reproducible for the same number of threads, different numbers of threads
+ * only change the rounding.
+ *
+ * @since 9.11
+ */
+public final class GramMatrix {
+
+	/** the number of rows read at once */
+	static final int BLOCK_SIZE = 512;
+
+	/** the number of columns whose products are accumulated together */
+	private static final int TILE_SIZE = 32;
+
+	/** the minimal number of rows summed up by one thread */
+	private static final int MIN_ROWS_PER_TASK = 16 * BLOCK_SIZE;
+
+	/**
+	 * Reads the values of one column for a range of rows.
+	 */
+	@FunctionalInterface
+	private interface ColumnReader {
+
+		/**
+		 * Copies the values of the column for the rows from (inclusive) to (exclusive) to the
+		 * start of the target array.
+		 */
+		void read(int column, int from, int to, double[] target);
+	}
+
+	private GramMatrix() {
+		throw new AssertionError("Utility class must not be instantiated");
+	}
+
+	/**
+	 * Returns the weighted cross products of the shifted attribute values, i.e. the matrix
+	 * {@code (X - s)^T W (X - s)} where {@code s} are the shifts and {@code W} is the diagonal
+	 * matrix of the example weights.
+	 *
+	 * @param exampleSet
+	 *            the example set to read
+	 * @param attributes
+	 *            the columns of the matrix
+	 * @param shifts
+	 *            the values subtracted from the attributes with the same index, can be {@code null}
+	 * @param weightAttribute
+	 *            the example weights, can be {@code null}
+	 * @param op
+	 *            executing Operator which will be used to check for stop and to calculate in
+	 *            parallel (can be null)
+	 * @return the symmetric cross product matrix
+	 * @throws ProcessStoppedException
+	 *             if the process was stopped
+	 */
+	public static double[][] getCrossProducts(ExampleSet exampleSet, Attribute[] attributes, double[] shifts,
+			Attribute weightAttribute, Operator op) throws ProcessStoppedException {
+		return crossProducts(exampleSet, attributes, shifts, weightAttribute, getContext(exampleSet, op), op);
+	}
+
+	/**
+	 * Returns the weighted cross products like
+	 * {@link #getCrossProducts(ExampleSet, Attribute[], double[], Attribute, Operator)}, calculated
+	 * with the given context.
+	 */
+	static double[][] getCrossProducts(ExampleSet exampleSet, Attribute[] attributes, double[] shifts,
+			Attribute weightAttribute, ConcurrencyContext context) throws ProcessStoppedException {
+		return crossProducts(exampleSet, attributes, shifts, weightAttribute,
+				ExampleSets.isThreadSafe(exampleSet) ? context : null, null);
+	}
+
+	/**
+	 * Returns the averages of the given attributes.
+	 *
+	 * @param exampleSet
+	 *            the example set to read
+	 * @param attributes
+	 *            the attributes to average
+	 * @param op
+	 *            executing Operator which will be used to check for stop and to calculate in
+	 *            parallel (can be null)
+	 * @return the averages with the same indices as the attributes
+	 * @throws ProcessStoppedException
+	 *             if the process was stopped
+	 */
+	public static double[] getMeans(ExampleSet exampleSet, Attribute[] attributes, Operator op)
+			throws ProcessStoppedException {
+		return means(exampleSet.size(), attributes.length, createReader(exampleSet, attributes),
+				getContext(exampleSet, op), op);
+	}
+
+	/**
+	 * Returns the covariance matrix of the given attributes.
+	 *
+	 * @param exampleSet
+	 *            the example set to read
+	 * @param attributes
+	 *            the columns of the covariance matrix
+	 * @param op
+	 *            executing Operator which will be used to check for stop and to calculate in
+	 *            parallel (can be null)
+	 * @return the covariance matrix
+	 * @throws ProcessStoppedException
+	 *             if the process was stopped
+	 */
+	public static Matrix getCovarianceMatrix(ExampleSet exampleSet, Attribute[] attributes, Operator op)
+			throws ProcessStoppedException {
+		return new Matrix(covariances(exampleSet.size(), attributes.length, createReader(exampleSet, attributes),
+				getContext(exampleSet, op), op));
+	}
+
+	/**
+	 * Returns the Pearson correlation matrix of the given attributes.
+	 *
+	 * @param exampleSet
+	 *            the example set to read
+	 * @param attributes
+	 *            the columns of the correlation matrix
+	 * @param op
+	 *            executing Operator which will be used to check for stop and to calculate in
+	 *            parallel (can be null)
+	 * @return the correlation matrix
+	 * @throws ProcessStoppedException
+	 *             if the process was stopped
+	 */
+	public static Matrix getCorrelationMatrix(ExampleSet exampleSet, Attribute[] attributes, Operator op)
+			throws ProcessStoppedException {
+		double[][] correlations = covariances(exampleSet.size(), attributes.length,
+				createReader(exampleSet, attributes), getContext(exampleSet, op), op);
+		double[] deviations = new double[correlations.length];
+		for (int i = 0; i < deviations.length; i++) {
+			deviations[i] = Math.sqrt(correlations[i][i]);
+		}
+		for (int i = 0; i < correlations.length; i++) {
+			for (int j = 0; j < correlations.length; j++) {
+				correlations[i][j] /= deviations[i] * deviations[j];
+			}
+		}
+		return new Matrix(correlations);
+	}
+
+	/**
+	 * Returns the covariance matrix of the columns of the given data without modifying it.
+	 */
+	static Matrix getCovarianceMatrix(double[][] data, Operator op) throws ProcessStoppedException {
+		return covarianceMatrix(data, getContext(op), op);
+	}
+
+	/**
+	 * Returns the covariance matrix of the columns of the given data, calculated with the given
+	 * context.
+	 */
+	static Matrix getCovarianceMatrix(double[][] data, ConcurrencyContext context) throws ProcessStoppedException {
+		return covarianceMatrix(data, context, null);
+	}
+
+	private static Matrix covarianceMatrix(double[][] data, ConcurrencyContext context, Operator op)
+			throws ProcessStoppedException {
+		ColumnReader reader = (column, from, to, target) -> {
+			for (int row = from; row < to; row++) {
+				target[row - from] = data[row][column];
+			}
+		};
+		return new Matrix(covariances(data.length, data[0].length, reader, context, op));
+	}
+
+	private static double[][] crossProducts(ExampleSet exampleSet, Attribute[] attributes, double[] shifts,
+			Attribute weightAttribute, ConcurrencyContext context, Operator op) throws ProcessStoppedException {
+		Attribute[] columns = attributes;
+		if (weightAttribute != null) {
+			columns = Arrays.copyOf(attributes, attributes.length + 1);
+			columns[attributes.length] = weightAttribute;
+		}
+		return crossProducts(exampleSet.size(), attributes.length, createReader(exampleSet, columns), shifts,
+				weightAttribute != null, context, op);
+	}
+
+	/**
+	 * Calculates the covariances in two passes, first the averages and then the cross products of
+	 * the centered values.
+	 */
+	private static double[][] covariances(int rows, int columns, ColumnReader reader, ConcurrencyContext context,
+			Operator op) throws ProcessStoppedException {
+		if (rows == 0) {
+			throw new IllegalArgumentException(
+					"Calculation of covariance matrices not possible for data sets with zero rows.");
+		}
+		if (columns == 0) {
+			throw new IllegalArgumentException(
+					"Calculation of covariance matrices not possible for data sets with zero columns.");
+		}
+		double[] means = means(rows, columns, reader, context, op);
+		double[][] covariances = crossProducts(rows, columns, reader, means, false, context, op);
+		for (double[] row : covariances) {
+			for (int j = 0; j < columns; j++) {
+				row[j] /= rows - 1;
+			}
+		}
+		return covariances;
+	}
+
+	private static double[] means(int rows, int columns, ColumnReader reader, ConcurrencyContext context, Operator op)
+			throws ProcessStoppedException {
+		int numberOfTasks = getNumberOfTasks(rows, context);
+		List<Callable<double[]>> tasks = new ArrayList<>(numberOfTasks);
+		for (int task = 0; task < numberOfTasks; task++) {
+			int from = (int) ((long) rows * task / numberOfTasks);
+			int to = (int) ((long) rows * (task + 1) / numberOfTasks);
+			tasks.add(() -> sums(reader, columns, from, to, op));
+		}
+		double[] means = new double[columns];
+		for (double[] sums : call(tasks, context, op)) {
+			for (int c = 0; c < columns; c++) {
+				means[c] += sums[c];
+			}
+		}
+		for (int c = 0; c < columns; c++) {
+			means[c] /= rows;
+		}
+		return means;
+	}
+
+	/**
+	 * Calculates the cross products of the given columns. If weighted, the weights are read as the
+	 * additional column with the index {@code columns}.
+	 */
+	private static double[][] crossProducts(int rows, int columns, ColumnReader reader, double[] shifts,
+			boolean weighted, ConcurrencyContext context, Operator op) throws ProcessStoppedException {
+		int numberOfTasks = getNumberOfTasks(rows, context);
+		List<Callable<double[][]>> tasks = new ArrayList<>(numberOfTasks);
+		for (int task = 0; task < numberOfTasks; task++) {
+			int from = (int) ((long) rows * task / numberOfTasks);
+			int to = (int) ((long) rows * (task + 1) / numberOfTasks);
+			tasks.add(() -> crossProducts(reader, columns, shifts, weighted, from, to, op));
+		}
+		double[][] products = null;
+		for (double[][] partial : call(tasks, context, op)) {
+			if (products == null) {
+				products = partial;
+			} else {
+				for (int i = 0; i < columns; i++) {
+					for (int j = i; j < columns; j++) {
+						products[i][j] += partial[i][j];
+					}
+				}
+			}
+		}
+		for (int i = 0; i < columns; i++) {
+			for (int j = i + 1; j < columns; j++) {
+				products[j][i] = products[i][j];
+			}
+		}
+		return products;
+	}
+
+	/**
+	 * Sums up the columns for the rows from (inclusive) to (exclusive) block by block.
+	 */
+	private static double[] sums(ColumnReader reader, int columns, int from, int to, Operator op)
+			throws ProcessStoppedException {
+		double[] sums = new double[columns];
+		double[] values = new double[Math.min(BLOCK_SIZE, to - from)];
+		for (int start = from; start < to; start += BLOCK_SIZE) {
+			int end = Math.min(to, start + BLOCK_SIZE);
+			for (int c = 0; c < columns; c++) {
+				reader.read(c, start, end, values);
+				double sum = 0;
+				for (int r = 0; r < end - start; r++) {
+					sum += values[r];
+				}
+				sums[c] += sum;
+			}
+			if (op != null) {
+				op.checkForStop();
+			}
+		}
+		return sums;
+	}
+
+	/**
+	 * Accumulates the upper triangle of the cross products for the rows from (inclusive) to
+	 * (exclusive) block by block.
+	 */
+	private static double[][] crossProducts(ColumnReader reader, int columns, double[] shifts, boolean weighted,
+			int from, int to, Operator op) throws ProcessStoppedException {
+		double[][] products = new double[columns][columns];
+		int blockLength = Math.min(BLOCK_SIZE, to - from);
+		double[][] block = new double[columns][blockLength];
+		double[][] weightedBlock = weighted ? new double[columns][blockLength] : block;
+		double[] weights = weighted ? new double[blockLength] : null;
+		for (int start = from; start < to; start += BLOCK_SIZE) {
+			int end = Math.min(to, start + BLOCK_SIZE);
+			int length = end - start;
+			if (weighted) {
+				reader.read(columns, start, end, weights);
+			}
+			for (int c = 0; c < columns; c++) {
+				double[] values = block[c];
+				reader.read(c, start, end, values);
+				if (shifts != null && shifts[c] != 0) {
+					double shift = shifts[c];
+					for (int r = 0; r < length; r++) {
+						values[r] -= shift;
+					}
+				}
+				if (weighted) {
+					double[] weightedValues = weightedBlock[c];
+					for (int r = 0; r < length; r++) {
+						weightedValues[r] = values[r] * weights[r];
+					}
+				}
+			}
+			for (int tileI = 0; tileI < columns; tileI += TILE_SIZE) {
+				int endI = Math.min(columns, tileI + TILE_SIZE);
+				for (int tileJ = tileI; tileJ < columns; tileJ += TILE_SIZE) {
+					int endJ = Math.min(columns, tileJ + TILE_SIZE);
+					for (int i = tileI; i < endI; i++) {
+						double[] left = weightedBlock[i];
+						double[] row = products[i];
+						for (int j = Math.max(i, tileJ); j < endJ; j++) {
+							row[j] += dot(left, block[j], length);
+						}
+					}
+				}
+			}
+			if (op != null) {
+				op.checkForStop();
+			}
+		}
+		return products;
+	}
+
+	/**
+	 * Returns the dot product of the first length entries, using independent partial sums so that
+	 * the additions can be pipelined.
+	 */
+	private static double dot(double[] left, double[] right, int length) {
+		double sum0 = 0;
+		double sum1 = 0;
+		double sum2 = 0;
+		double sum3 = 0;
+		int r = 0;
+		for (; r + 3 < length; r += 4) {
+			sum0 += left[r] * right[r];
+			sum1 += left[r + 1] * right[r + 1];
+			sum2 += left[r + 2] * right[r + 2];
+			sum3 += left[r + 3] * right[r + 3];
+		}
+		for (; r < length; r++) {
+			sum0 += left[r] * right[r];
+		}
+		return (sum0 + sum1) + (sum2 + sum3);
+	}
+
+	/**
+	 * Returns the number of row ranges, one for every thread of the context but at least
+	 * {@value #MIN_ROWS_PER_TASK} rows per range. Every range holds its own partial result, so at
+	 * most one partial result per thread exists.
+	 */
+	private static int getNumberOfTasks(int rows, ConcurrencyContext context) {
+		if (context == null) {
+			return 1;
+		}
+		long byRows = (rows + (long) MIN_ROWS_PER_TASK - 1) / MIN_ROWS_PER_TASK;
+		return (int) Math.max(1, Math.min(context.getParallelism(), byRows));
+	}
+
+	private static ColumnReader createReader(ExampleSet exampleSet, Attribute[] columns) {
+		return (column, from, to, target) -> exampleSet.getValues(columns[column], from, to, target, 0);
+	}
+
+	/**
+	 * Returns the context of the operator if the example set can be read concurrently, otherwise
+	 * {@code null}.
+	 */
+	private static ConcurrencyContext getContext(ExampleSet exampleSet, Operator op) {
+		return ExampleSets.isThreadSafe(exampleSet) ? getContext(op) : null;
+	}
+
+	private static ConcurrencyContext getContext(Operator op) {
+		if (op == null) {
+			return null;
+		}
+		ConcurrencyContext context = Resources.getConcurrencyContext(op);
+		return context.getParallelism() > 1 ? context : null;
+	}
+
+	/**
+	 * Calls the tasks in parallel if a context is given, otherwise one after another. The results
+	 * are returned in the order of the tasks.
+	 */
+	private static <T> List<T> call(List<Callable<T>> tasks, ConcurrencyContext context, Operator op)
+			throws ProcessStoppedException {
+		if (context == null || tasks.size() == 1) {
+			List<T> results = new ArrayList<>(tasks.size());
+			for (Callable<T> task : tasks) {
+				try {
+					results.add(task.call());
+				} catch (ProcessStoppedException | RuntimeException e) {
+					throw e;
+				} catch (Exception e) {
+					throw new IllegalStateException(e.getMessage(), e);
+				}
+			}
+			return results;
+		}
+		try {
+			return context.call(tasks);
+		} catch (ExecutionException e) {
+			OperatorException cause;
+			try {
+				cause = ExecutionExceptionHandling.INSTANCE.processExecutionException(e,
+						op != null ? op.getProcess() : null);
+			} catch (OperatorException unprocessed) {
+				cause = unprocessed;
+			}
+			if (cause instanceof ProcessStoppedException) {
+				throw (ProcessStoppedException) cause;
+			}
+			// the callers only expect the process to be stopped
+			throw new WrapperOperatorRuntimeException(cause);
+		}
+	}
+}
@@ -544,7 +544,33 @@ public abstract class ESOptimization implements Optimization {
 	}
 
 	protected void evaluate(Individual current, Population population) throws OperatorException {
-		PerformanceVector fitness = evaluateIndividual(current);
+		if (assignFitness(current, population, evaluateIndividual(current))
+				&& executingOperator instanceof ParameterOptimizationOperator) {
+			/*
+			 * pass results through each time the fitness improved (only the last call of
+			 * passResultsThrough() matters, so it will be the best run.)
+			 */
+			ParameterOptimizationOperator op = (ParameterOptimizationOperator) executingOperator;
+			op.passResultsThrough();
+		}
+	}
+
+	/**
+	 * Sets the fitness of an evaluated individual and updates the current best individual. The
+	 * individual is removed from the population if the fitness is {@code null}.
+	 *
+	 * @param current
+	 *            the evaluated individual
+	 * @param population
+	 *            the population of the individual
+	 * @param fitness
+	 *            the fitness of the individual, can be {@code null}
+	 * @return whether the individual is better than the best individual ever, i.e. whether its
+	 *         results should be passed through
+	 * @since 9.11
+	 */
+	protected boolean assignFitness(Individual current, Population population, PerformanceVector fitness) {
+		boolean bestEverImproved = false;
 		if (fitness != null) {
 			current.setFitness(fitness);
 			if (currentBest == null
@@ -554,21 +580,14 @@ public abstract class ESOptimization implements Optimization {
 				// check if current best is the pest individual ever. If so, the individual is the
 				// result of the ESOptimization.
 				Individual bestEver = population.getBestEver();
-				if (executingOperator != null && executingOperator instanceof ParameterOptimizationOperator
-						&& (bestEver == null || fitness.getMainCriterion().getFitness() > bestEver.getFitness()
-								.getMainCriterion().getFitness())) {
-					/*
-					 * pass results through each time the fitness improved (only the last call of
-					 * passResultsThrough() matters, so it will be the best run.)
-					 */
-					ParameterOptimizationOperator op = (ParameterOptimizationOperator) executingOperator;
-					op.passResultsThrough();
-				}
+				bestEverImproved = executingOperator != null && (bestEver == null || fitness.getMainCriterion()
+						.getFitness() > bestEver.getFitness().getMainCriterion().getFitness());
 			}
 		} else {
 			population.remove(current);
 		}
 		currentEvalCounter.incrementAndGet();
+		return bestEverImproved;
 	}
 
 	/** Returns the current generation. */
@@ -160,6 +160,74 @@ public abstract class DistanceMeasure implements Serializable {
 	 */
 	public abstract double calculateDistance(double[] value1, double[] value2);
 
+	/**
+	 * Calculates the distance between the values stored in a flattened array starting at the given
+	 * offset and the given values. The result must be the same as for
+	 * {@link #calculateDistance(double[], double[])} with the stored values as first argument.
+	 * Subclasses should override this method to avoid copying the stored values into the buffer.
+	 *
+	 * @param flatValues
+	 *            the array containing the first values
+	 * @param offset
+	 *            the position of the first values in the flattened array
+	 * @param value2
+	 *            the second values
+	 * @param buffer
+	 *            an array of the same length as value2 that can be used as temporary storage
+	 * @return the distance
+	 * @since 9.11
+	 */
+	public double calculateDistance(double[] flatValues, int offset, double[] value2, double[] buffer) {
+		System.arraycopy(flatValues, offset, buffer, 0, buffer.length);
+		return calculateDistance(buffer, value2);
+	}
+
+	/**
+	 * Sums up the {@link #squaredDifference squared differences} between the values stored in a
+	 * flattened array starting at the given offset and the given values. Pairs with a missing value
+	 * are skipped.
+	 *
+	 * @param flatValues
+	 *            the array containing the first values
+	 * @param offset
+	 *            the position of the first values in the flattened array
+	 * @param value2
+	 *            the second values
+	 * @return the sum or {@link Double#NaN} if no pair without missing values exists
+	 * @since 9.11
+	 */
+	protected final double sumOfSquaredDifferences(double[] flatValues, int offset, double[] value2) {
+		double sum = 0.0;
+		int counter = 0;
+		for (int i = 0; i < value2.length; i++) {
+			double value1 = flatValues[offset + i];
+			if (!Double.isNaN(value1) && !Double.isNaN(value2[i])) {
+				sum += squaredDifference(value1, value2[i], i);
+				counter++;
+			}
+		}
+		return counter > 0 ? sum : Double.NaN;
+	}
+
+	/**
+	 * Returns the squared difference of two non-missing values at the given position, used by
+	 * {@link #sumOfSquaredDifferences}. Subclasses can override this method to compare certain
+	 * positions differently.
+	 *
+	 * @param value1
+	 *            the first value
+	 * @param value2
+	 *            the second value
+	 * @param index
+	 *            the position of the values
+	 * @return the squared difference
+	 * @since 9.11
+	 */
+	protected double squaredDifference(double value1, double value2, int index) {
+		double diff = value1 - value2;
+		return diff * diff;
+	}
+
 	/**
 	 * This method does the similarity of the distance between two double arrays. The meanings of
 	 * the double values might be remembered from the init method.
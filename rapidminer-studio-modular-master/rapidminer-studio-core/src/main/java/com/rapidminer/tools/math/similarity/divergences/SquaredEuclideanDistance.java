@@ -51,6 +51,11 @@ public class SquaredEuclideanDistance extends BregmanDivergence {
 		}
 	}
 
+	@Override
+	public double calculateDistance(double[] flatValues, int offset, double[] value2, double[] buffer) {
+		return sumOfSquaredDifferences(flatValues, offset, value2);
+	}
+
 	@Override
 	public void init(ExampleSet exampleSet) throws OperatorException {
 		super.init(exampleSet);
@@ -87,6 +87,25 @@ public class MixedEuclideanDistance extends DistanceMeasure {
 		}
 	}
 
+	@Override
+	public double calculateDistance(double[] flatValues, int offset, double[] value2, double[] buffer) {
+		if (!initialized) {
+			throw new IllegalStateException("MixedEuclideanDistance is not initialized properly");
+		}
+		if (!isComparable) {
+			return Double.NaN;
+		}
+		return Math.sqrt(sumOfSquaredDifferences(flatValues, offset, value2));
+	}
+
+	@Override
+	protected double squaredDifference(double value1, double value2, int index) {
+		if (isNominal(index)) {
+			return nominalsAreEqual(value1, value2, index) ? 0 : 1;
+		}
+		return super.squaredDifference(value1, value2, index);
+	}
+
 	@Override
 	public double calculateSimilarity(double[] value1, double[] value2) {
 		return -calculateDistance(value1, value2);
@@ -51,6 +51,11 @@ public class EuclideanDistance extends DistanceMeasure {
 		}
 	}
 
+	@Override
+	public double calculateDistance(double[] flatValues, int offset, double[] value2, double[] buffer) {
+		return Math.sqrt(sumOfSquaredDifferences(flatValues, offset, value2));
+	}
+
 	@Override
 	public double calculateSimilarity(double[] value1, double[] value2) {
 		return -calculateDistance(value1, value2);
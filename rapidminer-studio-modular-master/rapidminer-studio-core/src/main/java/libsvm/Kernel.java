@@ -26,10 +26,21 @@
  */
 package libsvm;
 
+import com.rapidminer.operator.Operator;
+import com.rapidminer.operator.learner.functions.kernel.jmysvm.util.SharedKernelCache;
+
 public abstract class Kernel extends QMatrix {
 
 	private svm_node[][] x;
 	private final double[] x_square;
+	private final int count;
+
+	// kernel columns shared with other trainings of the process, null if disabled
+	private SharedKernelCache shared_cache;
+	private SharedKernelCache.DataKey shared_data;
+	private String shared_kernel;
+	private int[] original_index;	// original position of the example at each position
+	private double[] shared_column;
 
 	// svm_parameter
 	private final int kernel_type;
@@ -50,6 +61,13 @@ public abstract class Kernel extends QMatrix {
 			x[i] = x[j];
 			x[j] = _;
 		} while (false);
+		if (original_index != null) {
+			do {
+				int _ = original_index[i];
+				original_index[i] = original_index[j];
+				original_index[j] = _;
+			} while (false);
+		}
 		if (x_square != null) {
 			do {
 				double _ = x_square[i];
@@ -98,6 +116,7 @@ public abstract class Kernel extends QMatrix {
 		this.degree = param.degree;
 		this.gamma = param.gamma;
 		this.coef0 = param.coef0;
+		this.count = l;
 
 		x = x_.clone();
 
@@ -111,6 +130,51 @@ public abstract class Kernel extends QMatrix {
 		}
 	}
 
+	// connects to the shared kernel cache of the process of the operator if it is enabled,
+	// must be called before any swap
+	void init_shared_cache(Operator executingOperator) {
+		shared_cache = SharedKernelCache.getInstance(executingOperator);
+		if (shared_cache == null) {
+			return;
+		}
+		shared_data = shared_cache.getDataKey(x, count);
+		shared_kernel = "libsvm:" + kernel_type + ":" + degree + ":" + gamma + ":" + coef0;
+		original_index = new int[count];
+		for (int k = 0; k < count; k++) {
+			original_index[k] = k;
+		}
+		shared_column = new double[count];
+	}
+
+	// fills data[start,len) of column i from the shared kernel cache, multiplied by the signs y
+	// if not null; complete columns that are not cached are calculated and shared
+	// return false if the shared cache is disabled or the column cannot be shared
+	boolean get_shared(int i, float[] data, int start, int len, byte[] y) {
+		if (shared_cache == null) {
+			return false;
+		}
+		double[] column = shared_column;
+		if (!shared_cache.get(shared_data, shared_kernel, original_index[i], original_index, column, start, len)) {
+			if (start > 0 || len < count) {
+				return false;
+			}
+			for (int j = 0; j < count; j++) {
+				column[j] = kernel_function(i, j);
+			}
+			shared_cache.put(shared_data, shared_kernel, original_index[i], original_index, column, count);
+		}
+		if (y == null) {
+			for (int j = start; j < len; j++) {
+				data[j] = (float) column[j];
+			}
+		} else {
+			for (int j = start; j < len; j++) {
+				data[j] = (float) (y[i] * y[j] * column[j]);
+			}
+		}
+		return true;
+	}
+
 	static double dot(svm_node[] x, svm_node[] y) {
 		double sum = 0;
 		int xlen = x.length;
@@ -1081,7 +1081,7 @@ class SVC_Q extends Kernel {
 	private final Cache cache;
 	private final float[] QD;
 
-	SVC_Q(svm_problem prob, svm_parameter param, byte[] y_) {
+	SVC_Q(svm_problem prob, svm_parameter param, byte[] y_, Operator executingOperator) {
 		super(prob.l, prob.x, param);
 		y = y_.clone();
 		cache = new Cache(prob.l, (long) (param.cache_size * (1 << 20)));
@@ -1089,13 +1089,14 @@ class SVC_Q extends Kernel {
 		for (int i = 0; i < prob.l; i++) {
 			QD[i] = (float) kernel_function(i, i);
 		}
+		init_shared_cache(executingOperator);
 	}
 
 	@Override
 	float[] get_Q(int i, int len) {
 		float[][] data = new float[1][];
 		int start;
-		if ((start = cache.get_data(i, data, len)) < len) {
+		if ((start = cache.get_data(i, data, len)) < len && !get_shared(i, data[0], start, len, y)) {
 			for (int j = start; j < len; j++) {
 				data[0][j] = (float) (y[i] * y[j] * kernel_function(i, j));
 			}
@@ -1131,20 +1132,21 @@ class ONE_CLASS_Q extends Kernel {
 	private final Cache cache;
 	private final float[] QD;
 
-	ONE_CLASS_Q(svm_problem prob, svm_parameter param) {
+	ONE_CLASS_Q(svm_problem prob, svm_parameter param, Operator executingOperator) {
 		super(prob.l, prob.x, param);
 		cache = new Cache(prob.l, (long) (param.cache_size * (1 << 20)));
 		QD = new float[prob.l];
 		for (int i = 0; i < prob.l; i++) {
 			QD[i] = (float) kernel_function(i, i);
 		}
+		init_shared_cache(executingOperator);
 	}
 
 	@Override
 	float[] get_Q(int i, int len) {
 		float[][] data = new float[1][];
 		int start;
-		if ((start = cache.get_data(i, data, len)) < len) {
+		if ((start = cache.get_data(i, data, len)) < len && !get_shared(i, data[0], start, len, null)) {
 			for (int j = start; j < len; j++) {
 				data[0][j] = (float) kernel_function(i, j);
 			}
@@ -1180,7 +1182,7 @@ class SVR_Q extends Kernel {
 	private float[][] buffer;
 	private final float[] QD;
 
-	SVR_Q(svm_problem prob, svm_parameter param) {
+	SVR_Q(svm_problem prob, svm_parameter param, Operator executingOperator) {
 		super(prob.l, prob.x, param);
 		l = prob.l;
 		cache = new Cache(l, (long) (param.cache_size * (1 << 20)));
@@ -1197,6 +1199,7 @@ class SVR_Q extends Kernel {
 		}
 		buffer = new float[2][2 * l];
 		next_buffer = 0;
+		init_shared_cache(executingOperator);
 	}
 
 	@Override
@@ -1222,7 +1225,7 @@ class SVR_Q extends Kernel {
 	float[] get_Q(int i, int len) {
 		float[][] data = new float[1][];
 		int real_i = index[i];
-		if (cache.get_data(real_i, data, l) < l) {
+		if (cache.get_data(real_i, data, l) < l && !get_shared(real_i, data[0], 0, l, null)) {
 			for (int j = 0; j < l; j++) {
 				data[0][j] = (float) kernel_function(real_i, j);
 			}
@@ -1278,8 +1281,8 @@ public class Svm {
 		}
 
 		Solver s = new Solver();
-		s.Solve(l, new SVC_Q(prob, param, y), minus_ones, y, alpha, Cp, Cn, param.eps, si, param.shrinking,
-				executingOperator);
+		s.Solve(l, new SVC_Q(prob, param, y, executingOperator), minus_ones, y, alpha, Cp, Cn, param.eps, si,
+				param.shrinking, executingOperator);
 		double sum_alpha = 0;
 		for (i = 0; i < l; i++) {
 			sum_alpha += alpha[i];
@@ -1334,7 +1337,8 @@ public class Svm {
 		}
 
 		Solver_NU s = new Solver_NU();
-		s.Solve(l, new SVC_Q(prob, param, y), zeros, y, alpha, 1.0, 1.0, param.eps, si, param.shrinking, executingOperator);
+		s.Solve(l, new SVC_Q(prob, param, y, executingOperator), zeros, y, alpha, 1.0, 1.0, param.eps, si,
+				param.shrinking, executingOperator);
 		double r = si.r;
 
 		for (i = 0; i < l; i++) {
@@ -1380,8 +1384,8 @@ public class Svm {
 		}
 
 		Solver s = new Solver();
-		s.Solve(l, new ONE_CLASS_Q(prob, param), zeros, ones, alpha, 1.0, 1.0, param.eps, si, param.shrinking,
-				executingOperator);
+		s.Solve(l, new ONE_CLASS_Q(prob, param, executingOperator), zeros, ones, alpha, 1.0, 1.0, param.eps, si,
+				param.shrinking, executingOperator);
 	}
 
 	private static void solve_epsilon_svr(svm_problem prob, svm_parameter param, double[] alpha, Solver.SolutionInfo si) {
@@ -1411,8 +1415,8 @@ public class Svm {
 		}
 
 		Solver s = new Solver();
-		s.Solve(2 * l, new SVR_Q(prob, param), linear_term, y, alpha2, param.C, param.C, param.eps, si, param.shrinking,
-				executingOperator);
+		s.Solve(2 * l, new SVR_Q(prob, param, executingOperator), linear_term, y, alpha2, param.C, param.C, param.eps,
+				si, param.shrinking, executingOperator);
 
 		double sum_alpha = 0;
 		for (i = 0; i < l; i++) {
@@ -1451,8 +1455,8 @@ public class Svm {
 		}
 
 		Solver_NU s = new Solver_NU();
-		s.Solve(2 * l, new SVR_Q(prob, param), linear_term, y, alpha2, C, C, param.eps, si, param.shrinking,
-				executingOperator);
+		s.Solve(2 * l, new SVR_Q(prob, param, executingOperator), linear_term, y, alpha2, C, C, param.eps, si,
+				param.shrinking, executingOperator);
 
 		for (i = 0; i < l; i++) {
 			alpha[i] = alpha2[i] - alpha2[i + l];
@@ -2780,6 +2784,6 @@ public class Svm {
 	}
 
 	public static Kernel getGenericKernel(svm_problem prob, svm_parameter param) {
-		return new SVC_Q(prob, param, new byte[prob.l]);
+		return new SVC_Q(prob, param, new byte[prob.l], null);
 	}
 }
@@ -0,0 +1,137 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.example.set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.core.concurrency.ExecutionStoppedException;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Attributes;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.Statistics;
+import com.rapidminer.example.table.AttributeFactory;
+import com.rapidminer.example.utils.ExampleSetBuilder;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.studio.concurrency.internal.TestConcurrencyContext;
+import com.rapidminer.tools.Ontology;
+
+
+/**
+ * Tests that the {@link AttributeStatisticsCalculator} calculates the same statistics in parallel
+ * as sequentially and that stopped calculations leave no partial statistics behind.
+ *
+ * @since 9.11
+ */
+public class AttributeStatisticsCalculatorTest {
+
+	private static final int ROWS = 3 * AttributeStatisticsCalculator.BLOCK_SIZE + 17;
+
+	private static final String[] STATISTICS = { Statistics.UNKNOWN, Statistics.AVERAGE, Statistics.AVERAGE_WEIGHTED,
+			Statistics.VARIANCE, Statistics.VARIANCE_WEIGHTED, Statistics.MINIMUM, Statistics.MAXIMUM, Statistics.MODE,
+			Statistics.LEAST, Statistics.SUM, Statistics.SUM_WEIGHTED };
+
+	@Test
+	public void testParallelSameAsSequential() {
+		ExampleSet exampleSet = createExampleSet(new Random(3));
+		exampleSet.recalculateAllAttributeStatistics(null);
+		ExampleSet parallelSet = ExampleSets.createThreadSafeCopy(exampleSet);
+		parallelSet.recalculateAllAttributeStatistics(new TestConcurrencyContext(4));
+		for (Attribute attribute : allAttributes(exampleSet)) {
+			Attribute parallelAttribute = parallelSet.getAttributes().get(attribute.getName());
+			for (String statistics : STATISTICS) {
+				assertEquals(attribute.getName() + " " + statistics, exampleSet.getStatistics(attribute, statistics),
+						parallelSet.getStatistics(parallelAttribute, statistics), 0);
+			}
+		}
+	}
+
+	@Test
+	public void testStoppedCalculationIsReset() {
+		ExampleSet exampleSet = ExampleSets.createThreadSafeCopy(createExampleSet(new Random(5)));
+		ConcurrencyContext stopped = new TestConcurrencyContext(4) {
+
+			@Override
+			public void checkStatus() throws ExecutionStoppedException {
+				throw new ExecutionStoppedException();
+			}
+		};
+		try {
+			exampleSet.recalculateAllAttributeStatistics(stopped);
+			fail("stopped calculation finished");
+		} catch (ExecutionStoppedException e) {
+			// expected
+		}
+		for (Attribute attribute : allAttributes(exampleSet)) {
+			if (attribute.isNumerical()) {
+				// the first block was counted before the context was checked
+				assertEquals(attribute.getName(), 0, attribute.getStatistics(Statistics.SUM), 0);
+			}
+			assertEquals(attribute.getName(), 0, attribute.getStatistics(Statistics.UNKNOWN), 0);
+		}
+		// no statistics are stored for the example set
+		assertTrue(Double.isNaN(exampleSet.getStatistics(exampleSet.getAttributes().get("real0"), Statistics.MINIMUM)));
+	}
+
+	/**
+	 * Creates enough attributes for several groups, with missing values and ties of nominal
+	 * values.
+	 */
+	private static ExampleSet createExampleSet(Random random) {
+		List<Attribute> attributes = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			attributes.add(AttributeFactory.createAttribute("real" + i, Ontology.REAL));
+		}
+		for (int i = 0; i < 4; i++) {
+			Attribute nominal = AttributeFactory.createAttribute("nominal" + i, Ontology.NOMINAL);
+			for (int v = 0; v < 5; v++) {
+				nominal.getMapping().mapString("value" + v);
+			}
+			attributes.add(nominal);
+		}
+		Attribute weight = AttributeFactory.createAttribute("weight", Ontology.REAL);
+		attributes.add(weight);
+		ExampleSetBuilder builder = ExampleSets.from(attributes).withBlankSize(ROWS);
+		for (Attribute attribute : attributes) {
+			if (attribute == weight) {
+				builder.withColumnFiller(attribute, i -> random.nextDouble());
+			} else if (attribute.isNominal()) {
+				builder.withColumnFiller(attribute, i -> random.nextInt(20) == 0 ? Double.NaN : random.nextInt(5));
+			} else {
+				builder.withColumnFiller(attribute,
+						i -> random.nextInt(20) == 0 ? Double.NaN : random.nextGaussian() * 1e6 + 0.1);
+			}
+		}
+		return builder.withRole(weight, Attributes.WEIGHT_NAME).build();
+	}
+
+	private static List<Attribute> allAttributes(ExampleSet exampleSet) {
+		List<Attribute> attributes = new ArrayList<>();
+		exampleSet.getAttributes().allAttributes().forEachRemaining(attributes::add);
+		return attributes;
+	}
+}
@@ -0,0 +1,120 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.example.set;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import com.rapidminer.RapidMiner;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.test.ExampleTestTools;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.operator.UserError;
+import com.rapidminer.tools.ParameterService;
+
+
+/**
+ * Tests that {@link ExampleSet#getValues} returns the same values as reading the examples one by
+ * one.
+ *
+ * @since 9.11
+ */
+public class BulkValueAccessTest {
+
+	private static final Attribute NOMINAL = ExampleTestTools.attributeDogCatMouse();
+	private static final Attribute INTEGER = ExampleTestTools.attributeInt();
+	private static final Attribute REAL = ExampleTestTools.attributeReal();
+
+	private static final int ROWS = 3000;
+
+	@AfterClass
+	public static void resetDataManagement() {
+		ParameterService.setParameterValue(RapidMiner.PROPERTY_RAPIDMINER_SYSTEM_LEGACY_DATA_MGMT, String.valueOf(false));
+	}
+
+	@Test
+	public void columnarTest() throws UserError {
+		ParameterService.setParameterValue(RapidMiner.PROPERTY_RAPIDMINER_SYSTEM_LEGACY_DATA_MGMT, String.valueOf(false));
+		testViews(createExampleSet());
+	}
+
+	@Test
+	public void memoryTest() throws UserError {
+		ParameterService.setParameterValue(RapidMiner.PROPERTY_RAPIDMINER_SYSTEM_LEGACY_DATA_MGMT, String.valueOf(true));
+		testViews(createExampleSet());
+	}
+
+	private static ExampleSet createExampleSet() {
+		Random random = new Random(42);
+		return ExampleSets.from(NOMINAL, INTEGER, REAL).withBlankSize(ROWS)
+				.withColumnFiller(NOMINAL, i -> i % 17 == 0 ? Double.NaN : random.nextInt(3))
+				.withColumnFiller(INTEGER, i -> i % 13 == 0 ? Double.NaN : random.nextInt(1000) - 500)
+				.withColumnFiller(REAL, i -> i % 11 == 0 ? Double.NaN : random.nextGaussian()).build();
+	}
+
+	private static void testViews(ExampleSet exampleSet) throws UserError {
+		assertSameValues(exampleSet);
+
+		int[] mapping = new int[ROWS / 2];
+		Random random = new Random(7);
+		for (int i = 0; i < mapping.length; i++) {
+			mapping[i] = random.nextInt(ROWS);
+		}
+		assertSameValues(new MappedExampleSet(exampleSet, mapping, true, false));
+		assertSameValues(new SortedExampleSet(exampleSet, REAL, SortedExampleSet.DECREASING));
+
+		SplittedExampleSet splitted = new SplittedExampleSet(exampleSet, 3, SplittedExampleSet.SHUFFLED_SAMPLING, true,
+				11);
+		splitted.selectSingleSubset(1);
+		assertSameValues(splitted);
+		assertSameValues(new NonSpecialAttributesExampleSet(new MappedExampleSet(splitted, new int[] { 5, 1, 3 })));
+	}
+
+	private static void assertSameValues(ExampleSet exampleSet) {
+		int size = exampleSet.size();
+		for (Attribute attribute : exampleSet.getAttributes()) {
+			double[] expected = new double[size];
+			for (int i = 0; i < size; i++) {
+				expected[i] = exampleSet.getExample(i).getValue(attribute);
+			}
+			assertArrayEquals(expected, exampleSet.getValues(attribute), 0);
+
+			int from = size / 3;
+			int to = size - 1;
+			double[] range = new double[to - from + 2];
+			exampleSet.getValues(attribute, from, to, range, 2);
+			for (int i = from; i < to; i++) {
+				assertEquals(expected[i], range[i - from + 2], 0);
+			}
+
+			int[] indices = { size - 1, 0, size / 2, 0 };
+			double[] selected = new double[indices.length];
+			exampleSet.getValues(attribute, indices, selected, 0);
+			assertArrayEquals(new double[] { expected[size - 1], expected[0], expected[size / 2], expected[0] },
+					selected, 0);
+		}
+	}
+
+}
@@ -0,0 +1,190 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.example.set;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.table.AttributeFactory;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.studio.concurrency.internal.TestConcurrencyContext;
+import com.rapidminer.tools.Ontology;
+
+
+/**
+ * Tests that the {@link ExampleSetSorter} sorts like a stable comparison sort of the date,
+ * numerical and nominal values, sequentially and in parallel.
+ *
+ * @since 9.11
+ */
+public class ExampleSetSorterTest {
+
+	/** enough examples for several chunks of the parallel passes */
+	private static final int PARALLEL_SIZE = 150_000;
+
+	private static final int SIZE = 5_000;
+
+	private static final ConcurrencyContext CONTEXT = new TestConcurrencyContext(4);
+
+	private static final int[] BOTH_DIRECTIONS = { SortedExampleSet.INCREASING, SortedExampleSet.DECREASING };
+
+	@Test
+	public void testSingleAttribute() throws OperatorException {
+		ExampleSet exampleSet = createExampleSet(SIZE, new Random(3));
+		for (Attribute attribute : exampleSet.getAttributes()) {
+			for (int direction : BOTH_DIRECTIONS) {
+				testSorting(exampleSet, Collections.singletonList(attribute), new int[] { direction }, null);
+			}
+		}
+	}
+
+	@Test
+	public void testSeveralAttributes() throws OperatorException {
+		ExampleSet exampleSet = createExampleSet(SIZE, new Random(5));
+		TestAttributes attributes = new TestAttributes(exampleSet);
+		testSorting(exampleSet, Arrays.asList(attributes.nominal, attributes.integer, attributes.date),
+				new int[] { SortedExampleSet.INCREASING, SortedExampleSet.DECREASING, SortedExampleSet.INCREASING },
+				null);
+		testSorting(exampleSet, Arrays.asList(attributes.date, attributes.nominal, attributes.real),
+				new int[] { SortedExampleSet.DECREASING, SortedExampleSet.DECREASING, SortedExampleSet.INCREASING },
+				null);
+	}
+
+	@Test
+	public void testParallel() throws OperatorException {
+		ExampleSet exampleSet = createExampleSet(PARALLEL_SIZE, new Random(7));
+		TestAttributes attributes = new TestAttributes(exampleSet);
+		for (int direction : BOTH_DIRECTIONS) {
+			testSorting(exampleSet, Collections.singletonList(attributes.real), new int[] { direction }, CONTEXT);
+		}
+		testSorting(exampleSet, Arrays.asList(attributes.integer, attributes.nominal, attributes.date),
+				new int[] { SortedExampleSet.DECREASING, SortedExampleSet.INCREASING, SortedExampleSet.DECREASING },
+				CONTEXT);
+	}
+
+	@Test
+	public void testTinyExampleSets() throws OperatorException {
+		for (int size = 0; size < 3; size++) {
+			ExampleSet exampleSet = createExampleSet(size, new Random(size));
+			TestAttributes attributes = new TestAttributes(exampleSet);
+			testSorting(exampleSet, Collections.singletonList(attributes.real),
+					new int[] { SortedExampleSet.DECREASING }, CONTEXT);
+			testSorting(exampleSet, Collections.emptyList(), new int[0], null);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMissingDirection() throws OperatorException {
+		ExampleSet exampleSet = createExampleSet(10, new Random(11));
+		ExampleSetSorter.createSortedMapping(exampleSet, new TestAttributes(exampleSet).all, new int[1], null, null);
+	}
+
+	private static void testSorting(ExampleSet exampleSet, List<Attribute> attributes, int[] directions,
+			ConcurrencyContext context) throws OperatorException {
+		int[] expected = sortByComparison(exampleSet, attributes, directions);
+		int[] actual = ExampleSetSorter.createSortedMapping(exampleSet, attributes, directions, context, null);
+		assertArrayEquals(attributes + " " + Arrays.toString(directions), expected, actual);
+	}
+
+	/**
+	 * Sorts with a stable comparison sort like the sorted example set before, except that missing
+	 * dates are compared like the 1st of January 1970.
+	 */
+	private static int[] sortByComparison(ExampleSet exampleSet, List<Attribute> attributes, int[] directions) {
+		List<Integer> indices = new ArrayList<>(exampleSet.size());
+		for (int i = 0; i < exampleSet.size(); i++) {
+			indices.add(i);
+		}
+		Comparator<Integer> comparator = (a, b) -> 0;
+		for (int k = 0; k < attributes.size(); k++) {
+			Attribute attribute = attributes.get(k);
+			Comparator<Integer> attributeComparator;
+			if (Ontology.ATTRIBUTE_VALUE_TYPE.isA(attribute.getValueType(), Ontology.DATE_TIME)) {
+				attributeComparator = Comparator.comparingLong(i -> {
+					double value = exampleSet.getExample(i).getValue(attribute);
+					return Double.isNaN(value) ? 0 : (long) value;
+				});
+			} else if (attribute.isNumerical()) {
+				attributeComparator = Comparator.comparingDouble(i -> exampleSet.getExample(i).getValue(attribute));
+			} else {
+				attributeComparator = Comparator.comparing(i -> exampleSet.getExample(i).getNominalValue(attribute));
+			}
+			if (directions[k] == SortedExampleSet.DECREASING) {
+				attributeComparator = attributeComparator.reversed();
+			}
+			comparator = comparator.thenComparing(attributeComparator);
+		}
+		indices.sort(comparator);
+		return indices.stream().mapToInt(Integer::intValue).toArray();
+	}
+
+	/**
+	 * Creates attributes of all types with missing values and many equal values. The nominal
+	 * mapping is not sorted and contains the string used for missing values.
+	 */
+	private static ExampleSet createExampleSet(int size, Random random) {
+		Attribute real = AttributeFactory.createAttribute("real", Ontology.REAL);
+		Attribute integer = AttributeFactory.createAttribute("integer", Ontology.INTEGER);
+		Attribute nominal = AttributeFactory.createAttribute("nominal", Ontology.NOMINAL);
+		for (String value : new String[] { "pear", "apple", Attribute.MISSING_NOMINAL_VALUE, "Banana", "", "cherry" }) {
+			nominal.getMapping().mapString(value);
+		}
+		Attribute date = AttributeFactory.createAttribute("date", Ontology.DATE_TIME);
+		double[] specialValues = { 0.0, -0.0, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+				Double.MIN_VALUE, -Double.MAX_VALUE };
+		return ExampleSets.from(real, integer, nominal, date).withBlankSize(size)
+				.withColumnFiller(real, i -> random.nextInt(10) == 0 ? specialValues[random.nextInt(specialValues.length)]
+						: random.nextGaussian() * 1e3)
+				.withColumnFiller(integer, i -> random.nextInt(20) == 0 ? Double.NaN : random.nextInt(100) - 50)
+				.withColumnFiller(nominal, i -> random.nextInt(20) == 0 ? Double.NaN : random.nextInt(6))
+				.withColumnFiller(date,
+						i -> random.nextInt(20) == 0 ? Double.NaN : (random.nextInt(2_000) - 1_000) * 86_400_000d)
+				.build();
+	}
+
+	/** The attributes created by {@link #createExampleSet}. */
+	private static final class TestAttributes {
+
+		private final Attribute real;
+		private final Attribute integer;
+		private final Attribute nominal;
+		private final Attribute date;
+		private final List<Attribute> all;
+
+		private TestAttributes(ExampleSet exampleSet) {
+			real = exampleSet.getAttributes().get("real");
+			integer = exampleSet.getAttributes().get("integer");
+			nominal = exampleSet.getAttributes().get("nominal");
+			date = exampleSet.getAttributes().get("date");
+			all = Arrays.asList(real, integer, nominal, date);
+		}
+	}
+}
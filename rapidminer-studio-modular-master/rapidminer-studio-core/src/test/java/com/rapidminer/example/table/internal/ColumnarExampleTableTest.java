@@ -23,6 +23,7 @@ import static org.junit.Assert.assertEquals;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Test;
 
@@ -329,4 +330,45 @@ public class ColumnarExampleTableTest {
 		assertEquals(true, Double.isNaN(table.getDataRow(10).get(attribute)));
 	}
 
+	@Test
+	public void lazyColumnTest() {
+		Attribute attribute = ExampleTestTools.attributeReal();
+		Attribute lazy = ExampleTestTools.attributeReal();
+		ColumnarExampleTable table = new ColumnarExampleTable(Arrays.asList(attribute, lazy));
+		table.addBlankRows(100);
+		AtomicInteger loads = new AtomicInteger();
+		table.setLazyColumn(lazy, filler -> {
+			loads.incrementAndGet();
+			filler.accept(i -> i * 0.5);
+		});
+		table.fillColumn(attribute, i -> i);
+		assertEquals(0, loads.get());
+
+		for (int i = 0; i < 100; i++) {
+			assertEquals(i * 0.5, table.getDataRow(i).get(lazy), 0);
+		}
+		table.getDataRow(3).set(lazy, -1);
+		assertEquals(-1, table.getDataRow(3).get(lazy), 0);
+		assertEquals(1, loads.get());
+	}
+
+	@Test
+	public void lazyColumnRemovedTest() {
+		Attribute attribute = ExampleTestTools.attributeReal();
+		Attribute lazy = ExampleTestTools.attributeReal();
+		ColumnarExampleTable table = new ColumnarExampleTable(Arrays.asList(attribute, lazy));
+		table.addBlankRows(10);
+		AtomicInteger loads = new AtomicInteger();
+		table.setLazyColumn(lazy, filler -> {
+			loads.incrementAndGet();
+			filler.accept(i -> i);
+		});
+		table.removeAttribute(lazy);
+		table.addRow(new double[]{1, 2});
+
+		assertEquals(11, table.size());
+		assertEquals(1, table.getDataRow(10).get(attribute), 0);
+		assertEquals(0, loads.get());
+	}
+
 }
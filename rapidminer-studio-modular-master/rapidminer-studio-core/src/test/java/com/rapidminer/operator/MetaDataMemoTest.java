@@ -0,0 +1,233 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.operator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.rapidminer.Process;
+import com.rapidminer.TestUtils;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.operator.ports.InputPort;
+import com.rapidminer.operator.ports.OutputPort;
+import com.rapidminer.operator.ports.metadata.AttributeMetaData;
+import com.rapidminer.operator.ports.metadata.ExampleSetMetaData;
+import com.rapidminer.operator.ports.metadata.MetaData;
+import com.rapidminer.parameter.ParameterType;
+import com.rapidminer.parameter.ParameterTypeInt;
+import com.rapidminer.tools.Ontology;
+
+
+/**
+ * Tests that the {@link MetaDataMemo} of an operator is reused for unchanged inputs and dropped on
+ * parameter changes, macro changes and new connections.
+ *
+ * @since 9.11
+ */
+public class MetaDataMemoTest {
+
+	/** Delivers new example set meta data with the configured number of examples on every call. */
+	public static class SourceOperator extends Operator {
+
+		private static final String PARAMETER_EXAMPLES = "examples";
+
+		private final OutputPort output = getOutputPorts().createPort("output");
+
+		public SourceOperator(OperatorDescription description) {
+			super(description);
+			getTransformer().addRule(() -> output.deliverMD(createMetaData(getParameterAsInt(PARAMETER_EXAMPLES))));
+		}
+
+		@Override
+		public List<ParameterType> getParameterTypes() {
+			List<ParameterType> types = super.getParameterTypes();
+			types.add(new ParameterTypeInt(PARAMETER_EXAMPLES, "The number of examples.", 0, Integer.MAX_VALUE, 10));
+			return types;
+		}
+	}
+
+	/** Passes its input meta data through and counts its transformations. */
+	public static class CountingOperator extends Operator {
+
+		private static final String PARAMETER_FACTOR = "factor";
+
+		private final InputPort input = getInputPorts().createPort("input");
+		private final OutputPort output = getOutputPorts().createPort("output");
+
+		private int transformations;
+
+		public CountingOperator(OperatorDescription description) {
+			super(description);
+			getTransformer().addRule(() -> {
+				transformations++;
+				MetaData metaData = input.getMetaData();
+				output.deliverMD(metaData == null ? null : metaData.clone());
+			});
+		}
+
+		@Override
+		public List<ParameterType> getParameterTypes() {
+			List<ParameterType> types = super.getParameterTypes();
+			types.add(new ParameterTypeInt(PARAMETER_FACTOR, "An unused factor.", 0, Integer.MAX_VALUE, 1));
+			return types;
+		}
+
+		@Override
+		protected boolean isMetaDataMemoizable() {
+			return true;
+		}
+	}
+
+	private Process process;
+	private SourceOperator source;
+	private SourceOperator otherSource;
+	private CountingOperator counter;
+
+	@BeforeClass
+	public static void setup() throws Exception {
+		TestUtils.INSTANCE.minimalProcessUsageSetup();
+	}
+
+	@Before
+	public void createProcess() {
+		process = new Process();
+		ExecutionUnit unit = process.getRootOperator().getSubprocess(0);
+		source = new SourceOperator(new OperatorDescription("test", "source", SourceOperator.class, null, null, null));
+		otherSource = new SourceOperator(
+				new OperatorDescription("test", "source", SourceOperator.class, null, null, null));
+		counter = new CountingOperator(
+				new OperatorDescription("test", "counter", CountingOperator.class, null, null, null));
+		unit.addOperator(source);
+		unit.addOperator(otherSource);
+		unit.addOperator(counter);
+		source.output.connectTo(counter.input);
+		transform();
+		assertEquals(1, counter.transformations);
+	}
+
+	@Test
+	public void testUnchangedInput() {
+		// the source delivers new objects with the same content
+		transform();
+		transform();
+		assertEquals(1, counter.transformations);
+		assertEquals(10, ((ExampleSetMetaData) counter.output.getMetaData()).getNumberOfExamples().getNumber()
+				.intValue());
+	}
+
+	@Test
+	public void testChangedInput() {
+		source.setParameter(SourceOperator.PARAMETER_EXAMPLES, "20");
+		transform();
+		assertEquals(2, counter.transformations);
+		assertEquals(20, ((ExampleSetMetaData) counter.output.getMetaData()).getNumberOfExamples().getNumber()
+				.intValue());
+		transform();
+		assertEquals(2, counter.transformations);
+	}
+
+	@Test
+	public void testParameterChange() {
+		counter.setParameter(CountingOperator.PARAMETER_FACTOR, "2");
+		transform();
+		assertEquals(2, counter.transformations);
+		transform();
+		assertEquals(2, counter.transformations);
+	}
+
+	@Test
+	public void testMacroChange() {
+		process.getMacroHandler().addMacro("macro", "value");
+		transform();
+		assertEquals(2, counter.transformations);
+		transform();
+		assertEquals(2, counter.transformations);
+
+		process.getMacroHandler().removeMacro("macro");
+		transform();
+		assertEquals(3, counter.transformations);
+	}
+
+	@Test
+	public void testReconnect() {
+		counter.input.disconnect();
+		transform();
+		assertEquals(2, counter.transformations);
+		assertNull(counter.output.getMetaData());
+
+		otherSource.setParameter(SourceOperator.PARAMETER_EXAMPLES, "30");
+		otherSource.output.connectTo(counter.input);
+		transform();
+		assertEquals(3, counter.transformations);
+		assertEquals(30, ((ExampleSetMetaData) counter.output.getMetaData()).getNumberOfExamples().getNumber()
+				.intValue());
+		transform();
+		assertEquals(3, counter.transformations);
+	}
+
+	@Test
+	public void testSameContent() {
+		ExampleSetMetaData metaData = createMetaData(10);
+		assertTrue(metaData.hasSameContent(createMetaData(10)));
+		assertTrue(metaData.hasSameContent(metaData.clone()));
+		assertFalse(metaData.hasSameContent(createMetaData(11)));
+		assertFalse(metaData.hasSameContent(null));
+		assertFalse(metaData.hasSameContent(new MetaData(ExampleSet.class)));
+
+		ExampleSetMetaData otherRole = createMetaData(10);
+		otherRole.getAttributeByName("nominal").setRole("label");
+		assertFalse(metaData.hasSameContent(otherRole));
+
+		ExampleSetMetaData otherValues = createMetaData(10);
+		otherValues.getAttributeByName("nominal").getValueSet().add("c");
+		assertFalse(metaData.hasSameContent(otherValues));
+
+		ExampleSetMetaData otherOrder = new ExampleSetMetaData();
+		otherOrder.addAttribute(createMetaData(10).getAttributeByName("nominal"));
+		otherOrder.addAttribute(new AttributeMetaData("real", Ontology.REAL));
+		otherOrder.setNumberOfExamples(10);
+		assertFalse(metaData.hasSameContent(otherOrder));
+
+		assertTrue(new MetaData(ExampleSet.class).hasSameContent(new MetaData(ExampleSet.class)));
+		assertFalse(new MetaData(ExampleSet.class).hasSameContent(new MetaData(IOObject.class)));
+	}
+
+	private void transform() {
+		process.getRootOperator().transformMetaData();
+	}
+
+	private static ExampleSetMetaData createMetaData(int examples) {
+		ExampleSetMetaData metaData = new ExampleSetMetaData();
+		metaData.addAttribute(new AttributeMetaData("real", Ontology.REAL));
+		AttributeMetaData nominal = new AttributeMetaData("nominal", Ontology.NOMINAL);
+		nominal.getValueSet().add("a");
+		nominal.getValueSet().add("b");
+		metaData.addAttribute(nominal);
+		metaData.setNumberOfExamples(examples);
+		return metaData;
+	}
+}
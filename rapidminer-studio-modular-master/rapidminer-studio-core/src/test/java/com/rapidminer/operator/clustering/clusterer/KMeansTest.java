@@ -0,0 +1,250 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.operator.clustering.clusterer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.rapidminer.Process;
+import com.rapidminer.TestUtils;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Example;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.table.AttributeFactory;
+import com.rapidminer.example.utils.ExampleSetBuilder;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.operator.Operator;
+import com.rapidminer.operator.OperatorDescription;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.clustering.CentroidClusterModel;
+import com.rapidminer.studio.concurrency.internal.ConcurrencyExecutionService;
+import com.rapidminer.studio.concurrency.internal.TestConcurrencyContext;
+import com.rapidminer.studio.internal.Resources;
+import com.rapidminer.tools.Ontology;
+import com.rapidminer.tools.RandomGenerator;
+import com.rapidminer.tools.math.similarity.DistanceMeasure;
+import com.rapidminer.tools.math.similarity.divergences.SquaredEuclideanDistance;
+import com.rapidminer.tools.math.similarity.numerical.EuclideanDistance;
+import com.rapidminer.tools.math.similarity.numerical.ManhattanDistance;
+
+import de.dfki.madm.operator.KMeanspp;
+
+
+/**
+ * Tests that the accelerated mode of {@link KMeans} finds the same clusters as the standard
+ * implementation, that its result does not depend on the number of threads and that other measures
+ * fall back to the standard implementation.
+ *
+ * @since 9.11
+ */
+public class KMeansTest {
+
+	private static final int K = 4;
+
+	/** the centers of the generated clusters, far apart compared to the standard deviation of 1 */
+	private static final double[][] CENTERS = { { 0, 0, 0 }, { 10, 0, 0 }, { 0, 10, 0 }, { 10, 10, 10 } };
+
+	/** examples needed to get more than one block in the {@link AcceleratedKMeans} */
+	private static final int TWO_BLOCKS = 100_000;
+
+	/** The centroids and the cluster of every example. */
+	private static final class Result {
+
+		private final CentroidClusterModel model;
+		private final String[] clusters;
+
+		private Result(CentroidClusterModel model, String[] clusters) {
+			this.model = model;
+			this.clusters = clusters;
+		}
+	}
+
+	@BeforeClass
+	public static void setup() {
+		TestUtils.INSTANCE.minimalProcessUsageSetup();
+	}
+
+	@Test
+	public void testEuclidean() throws OperatorException {
+		Result standard = cluster(new EuclideanDistance(), false, 4, 2_000, 10);
+		Result accelerated = cluster(new EuclideanDistance(), true, 4, 2_000, 10);
+		assertSameClusters(standard, accelerated);
+	}
+
+	@Test
+	public void testSquaredEuclidean() throws OperatorException {
+		Result standard = cluster(new SquaredEuclideanDistance(), false, 4, 2_000, 10);
+		Result accelerated = cluster(new SquaredEuclideanDistance(), true, 4, 2_000, 10);
+		assertSameClusters(standard, accelerated);
+	}
+
+	@Test
+	public void testParallelRunsIndependentOfThreads() throws OperatorException {
+		Result sequential = cluster(new EuclideanDistance(), true, 1, 2_000, 10);
+		Result parallel = cluster(new EuclideanDistance(), true, 4, 2_000, 10);
+		assertIdentical(sequential, parallel);
+	}
+
+	@Test
+	public void testParallelBlocksIndependentOfThreads() throws OperatorException {
+		// with one thread the two runs are executed as tasks, with four threads the blocks are
+		Result sequential = cluster(new SquaredEuclideanDistance(), true, 1, TWO_BLOCKS, 2);
+		Result parallel = cluster(new SquaredEuclideanDistance(), true, 4, TWO_BLOCKS, 2);
+		assertIdentical(sequential, parallel);
+	}
+
+	@Test
+	public void testFallbackForOtherMeasures() throws OperatorException {
+		Logger logger = Logger.getLogger(Operator.class.getName());
+		List<String> messages = Collections.synchronizedList(new ArrayList<>());
+		Handler handler = new Handler() {
+
+			@Override
+			public void publish(LogRecord record) {
+				messages.add(record.getMessage());
+			}
+
+			@Override
+			public void flush() {
+				// nothing to flush
+			}
+
+			@Override
+			public void close() {
+				// nothing to close
+			}
+		};
+		Level level = logger.getLevel();
+		logger.setLevel(Level.ALL);
+		logger.addHandler(handler);
+		Result fallback;
+		try {
+			fallback = cluster(new ManhattanDistance(), true, 4, 2_000, 10);
+		} finally {
+			logger.removeHandler(handler);
+			logger.setLevel(level);
+		}
+		assertTrue(messages.toString(), messages.stream().anyMatch(message -> message
+				.endsWith("The accelerated mode requires the (squared) Euclidean distance, using the standard implementation.")));
+		assertIdentical(cluster(new ManhattanDistance(), false, 4, 2_000, 10), fallback);
+	}
+
+	/**
+	 * Clusters freshly generated data with k-means++ start values and a local random seed.
+	 */
+	private static Result cluster(DistanceMeasure measure, boolean accelerated, int parallelism, int size, int runs)
+			throws OperatorException {
+		Process process = new Process();
+		process.getRootOperator().setUserData(ConcurrencyExecutionService.OVERRIDING_CONTEXT,
+				new Resources.OverridingContextUserData(new TestConcurrencyContext(parallelism)));
+		KMeans kMeans = new KMeans(new OperatorDescription("test", "k_means", KMeans.class, null, null, null));
+		process.getRootOperator().getSubprocess(0).addOperator(kMeans);
+		kMeans.setParameter(KMeans.PARAMETER_K, String.valueOf(K));
+		kMeans.setParameter(KMeans.PARAMETER_MAX_RUNS, String.valueOf(runs));
+		kMeans.setParameter(KMeanspp.PARAMETER_USE_KPP, "true");
+		kMeans.setParameter(KMeans.PARAMETER_USE_ACCELERATED_MODE, String.valueOf(accelerated));
+		kMeans.setParameter(RandomGenerator.PARAMETER_USE_LOCAL_RANDOM_SEED, "true");
+		kMeans.setParameter(RandomGenerator.PARAMETER_LOCAL_RANDOM_SEED, "1992");
+		kMeans.setPresetMeasure(measure);
+
+		ExampleSet exampleSet = createData(size);
+		CentroidClusterModel model = (CentroidClusterModel) kMeans.generateClusterModel(exampleSet);
+		Attribute cluster = exampleSet.getAttributes().getCluster();
+		String[] clusters = new String[size];
+		int i = 0;
+		for (Example example : exampleSet) {
+			clusters[i++] = example.getValueAsString(cluster);
+		}
+		return new Result(model, clusters);
+	}
+
+	/**
+	 * Creates normally distributed examples around the {@link #CENTERS}.
+	 */
+	private static ExampleSet createData(int size) {
+		Random random = new Random(1992);
+		double[][] values = new double[CENTERS[0].length][size];
+		for (int row = 0; row < size; row++) {
+			double[] center = CENTERS[random.nextInt(CENTERS.length)];
+			for (int column = 0; column < center.length; column++) {
+				values[column][row] = center[column] + random.nextGaussian();
+			}
+		}
+		List<Attribute> attributes = new ArrayList<>();
+		for (int column = 0; column < values.length; column++) {
+			attributes.add(AttributeFactory.createAttribute("att" + column, Ontology.REAL));
+		}
+		ExampleSetBuilder builder = ExampleSets.from(attributes).withBlankSize(size);
+		for (int column = 0; column < values.length; column++) {
+			double[] columnValues = values[column];
+			builder.withColumnFiller(attributes.get(column), row -> columnValues[row]);
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Checks that both results contain the same clusters, possibly with other indices.
+	 */
+	private static void assertSameClusters(Result expected, Result actual) {
+		assertEquals(expected.clusters.length, actual.clusters.length);
+		Map<String, String> mapping = new HashMap<>();
+		for (int i = 0; i < expected.clusters.length; i++) {
+			String expectedCluster = expected.clusters[i];
+			String mapped = mapping.computeIfAbsent(actual.clusters[i], cluster -> expectedCluster);
+			assertEquals("Example " + i, expectedCluster, mapped);
+		}
+		assertEquals(K, new HashSet<>(mapping.values()).size());
+		for (Map.Entry<String, String> entry : mapping.entrySet()) {
+			assertArrayEquals(expected.model.getCentroidCoordinates(index(entry.getValue())),
+					actual.model.getCentroidCoordinates(index(entry.getKey())), 1e-9);
+		}
+	}
+
+	/**
+	 * Checks that both results are exactly the same.
+	 */
+	private static void assertIdentical(Result expected, Result actual) {
+		assertArrayEquals(expected.clusters, actual.clusters);
+		for (int cluster = 0; cluster < K; cluster++) {
+			assertArrayEquals(expected.model.getCentroidCoordinates(cluster),
+					actual.model.getCentroidCoordinates(cluster), 0);
+		}
+	}
+
+	private static int index(String cluster) {
+		return Integer.parseInt(cluster.substring("cluster_".length()));
+	}
+
+}
@@ -0,0 +1,222 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.operator.execution;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.rapidminer.Process;
+import com.rapidminer.RapidMiner;
+import com.rapidminer.TestUtils;
+import com.rapidminer.operator.ExecutionUnit;
+import com.rapidminer.operator.IOObject;
+import com.rapidminer.operator.Operator;
+import com.rapidminer.operator.OperatorDescription;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.SimpleResultObject;
+import com.rapidminer.operator.ports.InputPort;
+import com.rapidminer.operator.ports.OutputPort;
+import com.rapidminer.studio.concurrency.internal.ConcurrencyExecutionService;
+import com.rapidminer.studio.concurrency.internal.TestConcurrencyContext;
+import com.rapidminer.studio.internal.Resources;
+import com.rapidminer.tools.ParameterService;
+
+
+/**
+ * Tests the stages of the {@link DataflowUnitExecutor}, that operators with possible side effects
+ * act as barriers and that the {@link UnitExecutionFactory} only uses it if the parallel subprocess
+ * execution is enabled.
+ *
+ * @since 9.11
+ */
+public class DataflowUnitExecutorTest {
+
+	/** Records the start and end of its execution and optionally waits for a latch. */
+	public static class RecordingOperator extends Operator {
+
+		private final InputPort input = getInputPorts().createPort("input");
+		private final OutputPort output = getOutputPorts().createPort("output");
+
+		private boolean freeOfSideEffects;
+		private List<String> events;
+		private CountDownLatch latch;
+		private boolean latchReleased;
+
+		public RecordingOperator(OperatorDescription description) {
+			super(description);
+		}
+
+		@Override
+		public void doWork() throws OperatorException {
+			input.getDataOrNull(IOObject.class);
+			events.add("start " + getName());
+			if (latch != null) {
+				// only released if all operators waiting for the latch run concurrently
+				latch.countDown();
+				try {
+					latchReleased = latch.await(10, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			events.add("end " + getName());
+			output.deliver(new SimpleResultObject(getName(), getName()));
+		}
+
+		@Override
+		public boolean isFreeOfSideEffects() {
+			return freeOfSideEffects;
+		}
+	}
+
+	private String previousSetting;
+
+	private Process process;
+
+	private final List<String> events = Collections.synchronizedList(new ArrayList<>());
+
+	@BeforeClass
+	public static void setup() throws Exception {
+		TestUtils.INSTANCE.minimalProcessUsageSetup();
+	}
+
+	@Before
+	public void createProcess() {
+		previousSetting = ParameterService
+				.getParameterValue(RapidMiner.PROPERTY_RAPIDMINER_GENERAL_PARALLEL_SUBPROCESS_EXECUTION);
+		process = new Process();
+		process.getRootOperator().setUserData(ConcurrencyExecutionService.OVERRIDING_CONTEXT,
+				new Resources.OverridingContextUserData(new TestConcurrencyContext(4)));
+	}
+
+	@After
+	public void restoreSetting() {
+		ParameterService.setParameterValue(RapidMiner.PROPERTY_RAPIDMINER_GENERAL_PARALLEL_SUBPROCESS_EXECUTION,
+				previousSetting);
+	}
+
+	@Test
+	public void testFactory() {
+		ExecutionUnit unit = process.getRootOperator().getSubprocess(0);
+		ParameterService.setParameterValue(RapidMiner.PROPERTY_RAPIDMINER_GENERAL_PARALLEL_SUBPROCESS_EXECUTION, "true");
+		assertTrue(UnitExecutionFactory.getInstance().getExecutor(unit) instanceof DataflowUnitExecutor);
+		ParameterService.setParameterValue(RapidMiner.PROPERTY_RAPIDMINER_GENERAL_PARALLEL_SUBPROCESS_EXECUTION, "false");
+		assertTrue(UnitExecutionFactory.getInstance().getExecutor(unit) instanceof SimpleUnitExecutor);
+	}
+
+	@Test
+	public void testIndependentStage() {
+		RecordingOperator a = add("a", true);
+		RecordingOperator b = add("b", true);
+		RecordingOperator c = add("c", true);
+		a.output.connectTo(c.input);
+		assertStages(DataflowUnitExecutor.createStages(Arrays.asList(a, b, c)), Arrays.asList(a, b), Arrays.asList(c));
+	}
+
+	@Test
+	public void testBarriers() {
+		RecordingOperator a = add("a", true);
+		RecordingOperator b = add("b", true);
+		RecordingOperator barrier = add("barrier", false);
+		RecordingOperator c = add("c", true);
+		RecordingOperator d = add("d", true);
+		assertStages(DataflowUnitExecutor.createStages(Arrays.asList(a, b, barrier, c, d)), Arrays.asList(a, b),
+				Arrays.asList(barrier), Arrays.asList(c, d));
+	}
+
+	@Test
+	public void testBarrierWaitsForConnectedPredecessors() {
+		RecordingOperator a = add("a", true);
+		RecordingOperator b = add("b", true);
+		a.output.connectTo(b.input);
+		RecordingOperator barrier = add("barrier", false);
+		assertStages(DataflowUnitExecutor.createStages(Arrays.asList(a, b, barrier)), Arrays.asList(a), Arrays.asList(b),
+				Arrays.asList(barrier));
+	}
+
+	@Test
+	public void testUnsortedOperators() {
+		RecordingOperator a = add("a", true);
+		RecordingOperator b = add("b", true);
+		b.output.connectTo(a.input);
+		// a consumes the output of b, so it cannot be executed first
+		assertNull(DataflowUnitExecutor.createStages(Arrays.asList(a, b)));
+	}
+
+	@Test
+	public void testExecution() throws OperatorException {
+		ParameterService.setParameterValue(RapidMiner.PROPERTY_RAPIDMINER_GENERAL_PARALLEL_SUBPROCESS_EXECUTION, "true");
+		CountDownLatch first = new CountDownLatch(2);
+		CountDownLatch second = new CountDownLatch(2);
+		RecordingOperator a = add("a", true);
+		RecordingOperator b = add("b", true);
+		RecordingOperator barrier = add("barrier", false);
+		RecordingOperator c = add("c", true);
+		RecordingOperator d = add("d", true);
+		a.latch = first;
+		b.latch = first;
+		c.latch = second;
+		d.latch = second;
+		process.run();
+
+		assertTrue(a.latchReleased && b.latchReleased && c.latchReleased && d.latchReleased);
+		assertEquals(10, events.size());
+		int barrierStart = events.indexOf("start barrier");
+		assertTrue(events.indexOf("end a") < barrierStart);
+		assertTrue(events.indexOf("end b") < barrierStart);
+		assertEquals(barrierStart + 1, events.indexOf("end barrier"));
+		assertTrue(events.indexOf("start c") > barrierStart + 1);
+		assertTrue(events.indexOf("start d") > barrierStart + 1);
+	}
+
+	private RecordingOperator add(String name, boolean freeOfSideEffects) {
+		RecordingOperator operator = new RecordingOperator(
+				new OperatorDescription("test", "recording", RecordingOperator.class, null, null, null));
+		operator.freeOfSideEffects = freeOfSideEffects;
+		operator.events = events;
+		process.getRootOperator().getSubprocess(0).addOperator(operator);
+		operator.rename(name);
+		return operator;
+	}
+
+	@SafeVarargs
+	private static void assertStages(List<List<Operator>> stages, List<? extends Operator>... expected) {
+		assertEquals(expected.length, stages.size());
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals("stage " + i, expected[i].size(), stages.get(i).size());
+			for (int j = 0; j < expected[i].size(); j++) {
+				assertSame("stage " + i, expected[i].get(j), stages.get(i).get(j));
+			}
+		}
+	}
+}
@@ -0,0 +1,216 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.operator.features.construction;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.rapidminer.belt.column.Column;
+import com.rapidminer.belt.reader.NumericReader;
+import com.rapidminer.belt.reader.ObjectReader;
+import com.rapidminer.belt.reader.Readers;
+import com.rapidminer.belt.table.Builders;
+import com.rapidminer.belt.table.Table;
+import com.rapidminer.belt.util.Belt;
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.operator.OperatorDescription;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.studio.concurrency.internal.TestConcurrencyContext;
+import com.rapidminer.tools.belt.expression.ExpressionException;
+import com.rapidminer.tools.belt.expression.ExpressionParser;
+import com.rapidminer.tools.belt.expression.ExpressionParserBuilder;
+import com.rapidminer.tools.belt.expression.ExpressionRegistry;
+import com.rapidminer.tools.belt.expression.TableResolver;
+import com.rapidminer.tools.belt.expression.internal.ExpressionParserUtils;
+
+
+/**
+ * Tests that {@link GenerateAttributes} orders the expressions by their dependencies and that generating the columns
+ * concurrently gives the same results as generating them one by one.
+ *
+ * @since 9.11
+ */
+public class GenerateAttributesTest {
+
+	/** Large enough for the rows of a single expression to be evaluated in parallel as well. */
+	private static final int SIZE = 20_000;
+
+	private static final ConcurrencyContext SEQUENTIAL = new TestConcurrencyContext(1);
+
+	private static final ConcurrencyContext PARALLEL = new TestConcurrencyContext(4);
+
+	private static final GenerateAttributes OPERATOR = new GenerateAttributes(
+			new OperatorDescription("test", "generate_attributes", GenerateAttributes.class, null, null, null));
+
+	private static final Table TABLE = createTable(SIZE, new Random(42));
+
+	@Test
+	public void testReferences() throws OperatorException {
+		List<String[]> functions = functions(
+				"a", "x + 1",
+				"b", "a * 2",
+				"c", "x - 1",
+				"a", "c + b",
+				"d", "a",
+				"e", "n");
+		int[][] dependencies = OPERATOR.findDependencies(TABLE, functions);
+		assertArrayEquals(new int[][]{{}, {0}, {}, {1, 2}, {3}, {}}, dependencies);
+	}
+
+	@Test
+	public void testRedefinedInputColumn() throws OperatorException {
+		List<String[]> functions = functions(
+				"b", "x * 2",
+				"x", "x + 1",
+				"c", "x");
+		int[][] dependencies = OPERATOR.findDependencies(TABLE, functions);
+		assertArrayEquals(new int[][]{{}, {}, {1}}, dependencies);
+	}
+
+	@Test
+	public void testRuntimeReferences() throws OperatorException {
+		List<String[]> functions = functions(
+				"a", "x + 1",
+				"b", "x * 2",
+				"a", "x - 1",
+				"c", "attribute(\"a\") + 1",
+				"d", "x");
+		int[][] dependencies = OPERATOR.findDependencies(TABLE, functions);
+		assertArrayEquals(new int[][]{{}, {}, {}, {1, 2}, {}}, dependencies);
+	}
+
+	@Test
+	public void testOrderDependent() throws OperatorException {
+		List<String[]> functions = functions(
+				"a", "x + 1",
+				"b", "x * 2",
+				"c", "rand(5)",
+				"d", "x");
+		int[][] dependencies = OPERATOR.findDependencies(TABLE, functions);
+		assertArrayEquals(new int[][]{{}, {0}, {1}, {2}}, dependencies);
+	}
+
+	@Test
+	public void testChainedExpressions() throws OperatorException, ExpressionException {
+		List<String[]> functions = functions(
+				"a", "x + 1",
+				"b", "a * 2",
+				"c", "if(missing(x), -1, floor(x))",
+				"positive", "a > 0",
+				"a", "c + b",
+				"d", "a - c",
+				"e", "concat(n, \"_\", positive)",
+				"f", "attribute(\"b\") + d",
+				"x", "x * x",
+				"g", "x + b");
+		assertGeneratedOneByOne(functions);
+	}
+
+	@Test
+	public void testIndependentExpressions() throws OperatorException, ExpressionException {
+		List<String[]> functions = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			functions.add(new String[]{"a" + i, "x * " + i});
+		}
+		functions.add(new String[]{"sum", "a1 + a3 + a5 + a7 + a9"});
+		assertGeneratedOneByOne(functions);
+	}
+
+	@Test
+	public void testRandomExpressions() throws OperatorException, ExpressionException {
+		List<String[]> functions = functions(
+				"a", "x + 1",
+				"b", "rand(11) + a",
+				"c", "a * b",
+				"d", "rand(12)");
+		assertGeneratedOneByOne(functions);
+	}
+
+	/**
+	 * Asserts that the columns generated sequentially and in parallel equal the columns generated one by one with a
+	 * single parser, like the operator did before the expressions were ordered by their dependencies.
+	 */
+	private static void assertGeneratedOneByOne(List<String[]> functions) throws OperatorException,
+			ExpressionException {
+		TableResolver resolver = new TableResolver(TABLE);
+		ExpressionParser parser = new ExpressionParserBuilder().withModules(ExpressionRegistry.INSTANCE.getAll())
+				.withDynamics(resolver).build();
+		Column[] expected = new Column[functions.size()];
+		for (int i = 0; i < expected.length; i++) {
+			expected[i] = ExpressionParserUtils.createColumn(TABLE.height(), functions.get(i)[1], parser);
+			resolver.addColumn(functions.get(i)[0], expected[i]);
+		}
+
+		Column[] sequential = OPERATOR.generateColumns(TABLE, functions, SEQUENTIAL);
+		Column[] parallel = OPERATOR.generateColumns(TABLE, functions, PARALLEL);
+		for (int i = 0; i < expected.length; i++) {
+			String name = functions.get(i)[0] + " = " + functions.get(i)[1];
+			assertColumnEquals(name, expected[i], sequential[i]);
+			assertColumnEquals(name, expected[i], parallel[i]);
+		}
+	}
+
+	private static void assertColumnEquals(String name, Column expected, Column actual) {
+		assertEquals(name, expected.type(), actual.type());
+		assertEquals(name, expected.size(), actual.size());
+		if (expected.type().category() == Column.Category.NUMERIC) {
+			NumericReader expectedReader = Readers.numericReader(expected);
+			NumericReader actualReader = Readers.numericReader(actual);
+			for (int row = 0; row < expected.size(); row++) {
+				assertEquals(name + " in row " + row, expectedReader.read(), actualReader.read(), 0);
+			}
+		} else {
+			ObjectReader<Object> expectedReader = Readers.objectReader(expected, Object.class);
+			ObjectReader<Object> actualReader = Readers.objectReader(actual, Object.class);
+			for (int row = 0; row < expected.size(); row++) {
+				assertEquals(name + " in row " + row, expectedReader.read(), actualReader.read());
+			}
+		}
+	}
+
+	private static List<String[]> functions(String... namesAndExpressions) {
+		List<String[]> functions = new ArrayList<>();
+		for (int i = 0; i < namesAndExpressions.length; i += 2) {
+			functions.add(Arrays.copyOfRange(namesAndExpressions, i, i + 2));
+		}
+		return functions;
+	}
+
+	/**
+	 * Creates a table with a real column x and a nominal column n, both with missing values.
+	 */
+	private static Table createTable(int size, Random random) {
+		double[] values = new double[size];
+		String[] nominals = new String[size];
+		for (int i = 0; i < size; i++) {
+			values[i] = random.nextInt(10) == 0 ? Double.NaN : random.nextGaussian() * 10;
+			nominals[i] = random.nextInt(10) == 0 ? null : "value" + random.nextInt(20);
+		}
+		return Builders.newTableBuilder(size).addReal("x", i -> values[i]).addNominal("n", i -> nominals[i])
+				.build(Belt.defaultContext());
+	}
+
+}
@@ -0,0 +1,117 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.operator.learner.functions.kernel.jmysvm.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import libsvm.svm_node;
+
+
+/**
+ * Tests the {@link SharedKernelCache}.
+ *
+ * @since 9.11
+ */
+public class SharedKernelCacheTest {
+
+	private static final int[] IDENTITY = {0, 1, 2};
+
+	@Test
+	public void testEqualDataSharesRows() {
+		SharedKernelCache cache = new SharedKernelCache(1 << 20);
+		SharedKernelCache.DataKey key = cache.getDataKey(new int[][]{{0}, {0, 1}, {1}},
+				new double[][]{{1}, {2, 3}, {4}}, 3);
+		cache.put(key, "kernel", 1, IDENTITY, new double[]{5, 6, 7}, 3);
+
+		// equal values in new arrays
+		SharedKernelCache.DataKey equalKey = cache.getDataKey(new int[][]{{0}, {0, 1}, {1}},
+				new double[][]{{1}, {2, 3}, {4}}, 3);
+		assertSame(key, equalKey);
+		double[] row = new double[3];
+		assertTrue(cache.get(equalKey, "kernel", 1, new int[]{2, 0, 1}, row, 0, 3));
+		assertArrayEquals(new double[]{7, 5, 6}, row, 0);
+		assertFalse(cache.get(equalKey, "other kernel", 1, IDENTITY, row, 0, 3));
+		assertFalse(cache.get(equalKey, "kernel", 0, IDENTITY, row, 0, 3));
+	}
+
+	@Test
+	public void testDifferentDataDoesNotShareRows() {
+		SharedKernelCache cache = new SharedKernelCache(1 << 20);
+		SharedKernelCache.DataKey key = cache.getDataKey(new int[][]{{0}, {0, 1}, {1}},
+				new double[][]{{1}, {2, 3}, {4}}, 3);
+		cache.put(key, "kernel", 0, IDENTITY, new double[]{5, 6, 7}, 3);
+
+		SharedKernelCache.DataKey otherValue = cache.getDataKey(new int[][]{{0}, {0, 1}, {1}},
+				new double[][]{{1}, {2, 3.5}, {4}}, 3);
+		SharedKernelCache.DataKey otherIndex = cache.getDataKey(new int[][]{{0}, {0, 2}, {1}},
+				new double[][]{{1}, {2, 3}, {4}}, 3);
+		assertNotSame(key, otherValue);
+		assertNotSame(key, otherIndex);
+		assertFalse(cache.get(otherValue, "kernel", 0, IDENTITY, new double[3], 0, 3));
+		assertFalse(cache.get(otherIndex, "kernel", 0, IDENTITY, new double[3], 0, 3));
+	}
+
+	@Test
+	public void testLibsvmData() {
+		SharedKernelCache cache = new SharedKernelCache(1 << 20);
+		SharedKernelCache.DataKey key = cache.getDataKey(nodes(1, 2, 3), 3);
+		cache.put(key, "kernel", 2, IDENTITY, new double[]{1, 2, 3}, 3);
+		assertSame(key, cache.getDataKey(nodes(1, 2, 3), 3));
+		assertNotSame(key, cache.getDataKey(nodes(1, 2, 4), 3));
+	}
+
+	@Test
+	public void testEvictionIsBounded() {
+		// room for two rows of three values
+		SharedKernelCache cache = new SharedKernelCache(48);
+		SharedKernelCache.DataKey first = cache.getDataKey(nodes(1, 2, 3), 3);
+		cache.put(first, "kernel", 0, IDENTITY, new double[]{1, 2, 3}, 3);
+		SharedKernelCache.DataKey second = cache.getDataKey(nodes(4, 5, 6), 3);
+		cache.put(second, "kernel", 0, IDENTITY, new double[]{4, 5, 6}, 3);
+		cache.put(second, "kernel", 1, IDENTITY, new double[]{7, 8, 9}, 3);
+
+		assertEquals(48, cache.getUsedBytes());
+		assertFalse(cache.get(first, "kernel", 0, IDENTITY, new double[3], 0, 3));
+		// the data of evicted rows is dropped
+		assertNotSame(first, cache.getDataKey(nodes(1, 2, 3), 3));
+		assertTrue(cache.get(second, "kernel", 1, IDENTITY, new double[3], 0, 3));
+
+		// rows larger than the cache are not stored
+		cache.put(second, "kernel", 2, new int[7], new double[7], 7);
+		assertEquals(48, cache.getUsedBytes());
+		assertTrue(cache.get(second, "kernel", 0, IDENTITY, new double[3], 0, 3));
+	}
+
+	private static svm_node[][] nodes(double... values) {
+		svm_node[][] x = new svm_node[values.length][1];
+		for (int i = 0; i < values.length; i++) {
+			x[i][0] = new svm_node();
+			x[i][0].index = 1;
+			x[i][0].value = values[i];
+		}
+		return x;
+	}
+}
@@ -0,0 +1,97 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.operator.learner.tree;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Example;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.learner.PredictionModel;
+import com.rapidminer.operator.learner.tree.ConfigurableRandomForestModel.VotingStrategy;
+import com.rapidminer.studio.concurrency.internal.TestConcurrencyContext;
+import com.rapidminer.tools.RandomGenerator;
+
+
+/**
+ * Tests that the prediction of whole example sets from the compiled forest, sequential and in
+ * parallel, is the same as predicting every example with the wrapped vote model.
+ *
+ * @since 9.11
+ */
+public class ConfigurableRandomForestModelTest {
+
+	private static final int SIZE = 10_000;
+
+	private static final ConcurrencyContext CONTEXT = new TestConcurrencyContext(4);
+
+	@Test
+	public void testMajorityVote() throws OperatorException {
+		testPrediction(VotingStrategy.MAJORITY_VOTE, 11);
+	}
+
+	@Test
+	public void testConfidenceVote() throws OperatorException {
+		testPrediction(VotingStrategy.CONFIDENCE_VOTE, 13);
+	}
+
+	private static void testPrediction(VotingStrategy strategy, long seed) throws OperatorException {
+		ExampleSet trainingSet = FlatForestTest.createExampleSet(10, new Random(seed));
+		List<TreeModel> trees = FlatForestTest.createTrees(trainingSet, 30, new Random(seed));
+		ConfigurableRandomForestModel model = new ConfigurableRandomForestModel(trainingSet, trees, strategy);
+
+		ExampleSet expected = FlatForestTest.createExampleSet(SIZE, new Random(seed + 1));
+		Attribute expectedLabel = PredictionModel.createPredictedLabel(expected,
+				expected.getAttributes().getLabel());
+		// ties are broken with the global random generator in the same order by all predictions
+		RandomGenerator.getGlobalRandomGenerator().setSeed(seed);
+		for (Example example : expected) {
+			example.setValue(expectedLabel, model.predict(example));
+		}
+
+		for (ConcurrencyContext context : new ConcurrencyContext[] { null, CONTEXT }) {
+			ExampleSet actual = FlatForestTest.createExampleSet(SIZE, new Random(seed + 1));
+			Attribute actualLabel = PredictionModel.createPredictedLabel(actual, actual.getAttributes().getLabel());
+			RandomGenerator.getGlobalRandomGenerator().setSeed(seed);
+			model.performPrediction(actual, actualLabel, context);
+			assertSamePredictions(expected, actual, context == null ? "sequential" : "parallel");
+		}
+	}
+
+	private static void assertSamePredictions(ExampleSet expected, ExampleSet actual, String message) {
+		List<String> classNames = expected.getAttributes().getLabel().getMapping().getValues();
+		for (int row = 0; row < expected.size(); row++) {
+			Example expectedExample = expected.getExample(row);
+			Example actualExample = actual.getExample(row);
+			String rowMessage = message + ", row " + row;
+			assertEquals(rowMessage, expectedExample.getPredictedLabel(), actualExample.getPredictedLabel(), 0);
+			for (String className : classNames) {
+				assertEquals(rowMessage, expectedExample.getConfidence(className), actualExample.getConfidence(className),
+						0);
+			}
+		}
+	}
+}
@@ -0,0 +1,225 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.operator.learner.tree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Attributes;
+import com.rapidminer.example.Example;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.table.AttributeFactory;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.learner.PredictionModel;
+import com.rapidminer.tools.Ontology;
+
+
+/**
+ * Tests that the {@link FlatForest} finds the same predictions and confidences as the
+ * {@link TreeModel}s it is compiled from.
+ *
+ * @since 9.11
+ */
+public class FlatForestTest {
+
+	private static final String[] NOMINAL_VALUES = { "a", "b", "c", "d" };
+	private static final String[] CLASSES = { "x", "y", "z" };
+
+	@Test
+	public void testSamePredictionsAsTrees() throws OperatorException {
+		Random random = new Random(3);
+		ExampleSet exampleSet = createExampleSet(2_000, random);
+		List<TreeModel> trees = createTrees(exampleSet, 20, random);
+		FlatForest forest = FlatForest.compile(trees, exampleSet.getAttributes().getLabel().getMapping());
+		assertNotNull(forest);
+		assertEquals(trees.size(), forest.getNumberOfTrees());
+
+		Attribute label = exampleSet.getAttributes().getLabel();
+		PredictionModel.createPredictedLabel(exampleSet, label);
+		double[][] columns = getColumns(exampleSet, forest.getAttributeNames());
+		List<String> classNames = label.getMapping().getValues();
+		for (int tree = 0; tree < trees.size(); tree++) {
+			for (int row = 0; row < exampleSet.size(); row++) {
+				Example example = exampleSet.getExample(row);
+				double expected = trees.get(tree).predict(example);
+				int node = forest.findNode(tree, columns, row);
+				String message = "tree " + tree + ", row " + row;
+				assertEquals(message, expected, forest.getPrediction(node), 0);
+				int vote = forest.getVote(node);
+				assertEquals(message, expected, vote < 0 ? -1 : label.getMapping().getIndex(classNames.get(vote)), 0);
+				for (int c = 0; c < classNames.size(); c++) {
+					assertEquals(message, example.getConfidence(classNames.get(c)), forest.getConfidence(node, c), 0);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testUnsupportedCondition() {
+		Random random = new Random(5);
+		ExampleSet exampleSet = createExampleSet(10, random);
+		Tree root = new Tree(exampleSet);
+		root.addChild(createLeaf(exampleSet, random), new AbstractSplitCondition("numerical1") {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public boolean test(Example example) {
+				return true;
+			}
+
+			@Override
+			public String getRelation() {
+				return "~";
+			}
+
+			@Override
+			public String getValueString() {
+				return "";
+			}
+		});
+		List<TreeModel> trees = new ArrayList<>(createTrees(exampleSet, 2, random));
+		trees.add(new TreeModel(exampleSet, root));
+		assertNull(FlatForest.compile(trees, exampleSet.getAttributes().getLabel().getMapping()));
+	}
+
+	@Test
+	public void testDifferentClasses() {
+		Random random = new Random(7);
+		ExampleSet exampleSet = createExampleSet(10, random);
+		List<TreeModel> trees = createTrees(exampleSet, 2, random);
+		Attribute otherLabel = AttributeFactory.createAttribute("label", Ontology.NOMINAL);
+		otherLabel.getMapping().mapString("x");
+		otherLabel.getMapping().mapString("w");
+		assertNull(FlatForest.compile(trees, otherLabel.getMapping()));
+	}
+
+	/**
+	 * Creates an example set with two numerical attributes, a nominal attribute and a nominal
+	 * label. All regular attributes contain missing values.
+	 */
+	static ExampleSet createExampleSet(int size, Random random) {
+		Attribute numerical1 = AttributeFactory.createAttribute("numerical1", Ontology.REAL);
+		Attribute numerical2 = AttributeFactory.createAttribute("numerical2", Ontology.INTEGER);
+		Attribute nominal = AttributeFactory.createAttribute("nominal", Ontology.NOMINAL);
+		for (String value : NOMINAL_VALUES) {
+			nominal.getMapping().mapString(value);
+		}
+		Attribute label = AttributeFactory.createAttribute("label", Ontology.NOMINAL);
+		for (String value : CLASSES) {
+			label.getMapping().mapString(value);
+		}
+		return ExampleSets.from(numerical1, numerical2, nominal, label).withBlankSize(size)
+				.withColumnFiller(numerical1, i -> random.nextInt(20) == 0 ? Double.NaN : random.nextGaussian())
+				.withColumnFiller(numerical2, i -> random.nextInt(20) == 0 ? Double.NaN : random.nextInt(10))
+				.withColumnFiller(nominal,
+						i -> random.nextInt(20) == 0 ? Double.NaN : random.nextInt(NOMINAL_VALUES.length))
+				.withColumnFiller(label, i -> random.nextInt(CLASSES.length))
+				.withRole(label, Attributes.LABEL_NAME).build();
+	}
+
+	/**
+	 * Creates random trees that use all supported split conditions. Not every inner node has an
+	 * edge for every value, so some examples end in inner nodes.
+	 */
+	static List<TreeModel> createTrees(ExampleSet exampleSet, int numberOfTrees, Random random) {
+		List<TreeModel> trees = new ArrayList<>(numberOfTrees);
+		for (int i = 0; i < numberOfTrees; i++) {
+			trees.add(new TreeModel(exampleSet, createTree(exampleSet, 5, random)));
+		}
+		return trees;
+	}
+
+	private static Tree createTree(ExampleSet exampleSet, int depth, Random random) {
+		if (depth == 0 || random.nextInt(5) == 0) {
+			return createLeaf(exampleSet, random);
+		}
+		Tree node = new Tree(exampleSet);
+		Attributes attributes = exampleSet.getAttributes();
+		switch (random.nextInt(3)) {
+			case 0:
+				Attribute numerical = attributes.get(random.nextBoolean() ? "numerical1" : "numerical2");
+				double value = Math.round(random.nextGaussian() * 4) / 2d;
+				node.addChild(createTree(exampleSet, depth - 1, random), new LessEqualsSplitCondition(numerical, value));
+				node.addChild(createTree(exampleSet, depth - 1, random), new GreaterSplitCondition(numerical, value));
+				if (random.nextBoolean()) {
+					node.addChild(createTree(exampleSet, depth - 1, random),
+							new NumericalMissingSplitCondition(numerical));
+				}
+				break;
+			case 1:
+				// a single edge, all other examples end in this node
+				Attribute other = attributes.get("numerical1");
+				node.addChild(createTree(exampleSet, depth - 1, random), new GreaterSplitCondition(other, 0));
+				break;
+			default:
+				Attribute nominal = attributes.get("nominal");
+				List<String> values = new ArrayList<>(Arrays.asList(NOMINAL_VALUES));
+				Collections.shuffle(values, random);
+				for (String nominalValue : values.subList(0, 1 + random.nextInt(values.size()))) {
+					node.addChild(createTree(exampleSet, depth - 1, random), new NominalSplitCondition(nominal, nominalValue));
+				}
+		}
+		return node;
+	}
+
+	private static Tree createLeaf(ExampleSet exampleSet, Random random) {
+		Tree leaf = new Tree(exampleSet);
+		int bestCount = 0;
+		String bestClass = null;
+		for (String className : CLASSES) {
+			int count = random.nextInt(4);
+			if (count > 0) {
+				leaf.addCount(className, count);
+			}
+			if (count > bestCount) {
+				bestCount = count;
+				bestClass = className;
+			}
+		}
+		if (bestClass == null) {
+			bestClass = CLASSES[random.nextInt(CLASSES.length)];
+			leaf.addCount(bestClass, 1);
+		}
+		leaf.setLeaf(bestClass);
+		return leaf;
+	}
+
+	private static double[][] getColumns(ExampleSet exampleSet, String[] attributeNames) {
+		double[][] columns = new double[attributeNames.length][exampleSet.size()];
+		for (int i = 0; i < attributeNames.length; i++) {
+			Attribute attribute = exampleSet.getAttributes().get(attributeNames[i]);
+			for (int row = 0; row < exampleSet.size(); row++) {
+				columns[i][row] = exampleSet.getExample(row).getValue(attribute);
+			}
+		}
+		return columns;
+	}
+}
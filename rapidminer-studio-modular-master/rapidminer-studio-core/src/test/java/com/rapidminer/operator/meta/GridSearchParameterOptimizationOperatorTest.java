@@ -0,0 +1,226 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.operator.meta;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.rapidminer.Process;
+import com.rapidminer.TestUtils;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Example;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.table.AttributeFactory;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.operator.ExecutionUnit;
+import com.rapidminer.operator.IOContainer;
+import com.rapidminer.operator.Operator;
+import com.rapidminer.operator.OperatorDescription;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.performance.EstimatedPerformance;
+import com.rapidminer.operator.performance.PerformanceVector;
+import com.rapidminer.operator.ports.InputPort;
+import com.rapidminer.operator.ports.OutputPort;
+import com.rapidminer.parameter.ParameterType;
+import com.rapidminer.parameter.ParameterTypeInt;
+import com.rapidminer.parameter.ParameterTypeTupel;
+import com.rapidminer.studio.concurrency.internal.ConcurrencyExecutionService;
+import com.rapidminer.studio.concurrency.internal.TestConcurrencyContext;
+import com.rapidminer.studio.internal.Resources;
+import com.rapidminer.tools.Ontology;
+import com.rapidminer.tools.RandomGenerator;
+
+
+/**
+ * Tests that the parallel evaluation of the {@link GridSearchParameterOptimizationOperator} must be
+ * enabled explicitly and selects the same optimum as the sequential evaluation, also with
+ * successive halving, and that the examples of smaller budgets are contained in larger ones.
+ *
+ * @since 9.11
+ */
+public class GridSearchParameterOptimizationOperatorTest {
+
+	/** Scores the parameter x by its distance to 7, slightly disturbed by the mean of the examples. */
+	public static class ScoreOperator extends Operator {
+
+		private static final String PARAMETER_X = "x";
+
+		private final InputPort input = getInputPorts().createPort("example set", ExampleSet.class);
+		private final OutputPort output = getOutputPorts().createPort("performance");
+
+		public ScoreOperator(OperatorDescription description) {
+			super(description);
+		}
+
+		@Override
+		public void doWork() throws OperatorException {
+			ExampleSet exampleSet = input.getData(ExampleSet.class);
+			Attribute attribute = exampleSet.getAttributes().get("a");
+			double mean = 0;
+			for (Example example : exampleSet) {
+				mean += example.getValue(attribute) / exampleSet.size();
+			}
+			int x = getParameterAsInt(PARAMETER_X);
+			PerformanceVector performance = new PerformanceVector();
+			performance.addCriterion(
+					new EstimatedPerformance("score", -(x - 7) * (x - 7) + 0.01 * mean * x, exampleSet.size(), false));
+			output.deliver(performance);
+		}
+
+		@Override
+		public List<ParameterType> getParameterTypes() {
+			List<ParameterType> types = super.getParameterTypes();
+			types.add(new ParameterTypeInt(PARAMETER_X, "The scored value.", 0, 100, 0));
+			return types;
+		}
+	}
+
+	private static final String PARAMETER_ENABLE_PARALLEL_EXECUTION = "enable_parallel_execution";
+
+	private ExampleSet exampleSet;
+
+	@BeforeClass
+	public static void setup() throws Exception {
+		TestUtils.INSTANCE.minimalProcessUsageSetup();
+	}
+
+	@Before
+	public void createExampleSet() {
+		Random random = new Random(42);
+		Attribute a = AttributeFactory.createAttribute("a", Ontology.REAL);
+		exampleSet = ExampleSets.from(a).withBlankSize(1000).withColumnFiller(a, i -> random.nextGaussian()).build();
+	}
+
+	@Test
+	public void testSequentialByDefault() {
+		assertFalse(createOperator().getParameterAsBoolean(PARAMETER_ENABLE_PARALLEL_EXECUTION));
+	}
+
+	@Test
+	public void testParameterIterationIsSequential() {
+		ParameterIteration iteration = new ParameterIteration(
+				new OperatorDescription("test", "loop_parameters", ParameterIteration.class, null, null, null));
+		assertFalse(iteration.getParameters().getKeys().contains(PARAMETER_ENABLE_PARALLEL_EXECUTION));
+		assertFalse(Arrays.asList(iteration.getIncompatibleVersionChanges())
+				.contains(GridSearchParameterOptimizationOperator.DOES_NOT_ALWAYS_SYNCHRONIZE_REMEMBERED_DATA));
+	}
+
+	@Test
+	public void testParallelEqualsSequential() throws OperatorException {
+		ParameterSet sequential = optimize(false, false);
+		ParameterSet parallel = optimize(true, false);
+		assertEquals("7", sequential.iterator().next().getParameterValue());
+		assertSameOptimum(sequential, parallel);
+	}
+
+	@Test
+	public void testSuccessiveHalvingParallelEqualsSequential() throws OperatorException {
+		ParameterSet sequential = optimize(false, true);
+		ParameterSet parallel = optimize(true, true);
+		assertEquals("7", sequential.iterator().next().getParameterValue());
+		assertSameOptimum(sequential, parallel);
+	}
+
+	@Test
+	public void testNestedBudgets() {
+		GridSearchParameterOptimizationOperator operator = createOperator();
+		operator.resetBudgets(new RandomGenerator(1992));
+		int[] previous = new int[0];
+		for (double budget : new double[] { 0.1, 0.3, 0.9, 1 }) {
+			int[] mapping = operator.getBudgetMapping(1000, budget);
+			assertEquals(Math.round(1000 * budget), mapping.length);
+			for (int i = 1; i < mapping.length; i++) {
+				assertTrue(mapping[i - 1] < mapping[i]);
+			}
+			for (int index : previous) {
+				assertTrue(Arrays.binarySearch(mapping, index) >= 0);
+			}
+			previous = mapping;
+		}
+
+		// the same seed gives the same examples after a reset
+		int[] mapping = operator.getBudgetMapping(1000, 0.3);
+		operator.resetBudgets(new RandomGenerator(1992));
+		assertArrayEquals(mapping, operator.getBudgetMapping(1000, 0.3));
+	}
+
+	private static void assertSameOptimum(ParameterSet expected, ParameterSet actual) {
+		List<String> expectedValues = new ArrayList<>();
+		expected.forEach(value -> expectedValues.add(value.getParameterValue()));
+		List<String> actualValues = new ArrayList<>();
+		actual.forEach(value -> actualValues.add(value.getParameterValue()));
+		assertEquals(expectedValues, actualValues);
+		assertEquals(expected.getPerformance().getMainCriterion().getAverage(),
+				actual.getPerformance().getMainCriterion().getAverage(), 0);
+	}
+
+	/**
+	 * Runs a grid search over x from 0 to 20 with the score operator and returns the selected
+	 * parameter set.
+	 */
+	private ParameterSet optimize(boolean parallel, boolean successiveHalving) throws OperatorException {
+		Process process = new Process();
+		process.getRootOperator().setUserData(ConcurrencyExecutionService.OVERRIDING_CONTEXT,
+				new Resources.OverridingContextUserData(new TestConcurrencyContext(4)));
+		GridSearchParameterOptimizationOperator operator = createOperator();
+		operator.setParameter(PARAMETER_ENABLE_PARALLEL_EXECUTION, String.valueOf(parallel));
+		operator.setParameter(GridSearchParameterOptimizationOperator.PARAMETER_SUCCESSIVE_HALVING,
+				String.valueOf(successiveHalving));
+		operator.setParameter(GridSearchParameterOptimizationOperator.PARAMETER_MINIMAL_BUDGET, "0.1");
+		operator.setParameter(RandomGenerator.PARAMETER_USE_LOCAL_RANDOM_SEED, "true");
+		ExecutionUnit root = process.getRootOperator().getSubprocess(0);
+		root.addOperator(operator);
+		root.getInnerSources().getPortByName("input 1").connectTo(operator.getInputPorts().getPortByName("input 1"));
+		operator.getOutputPorts().getPortByName("parameter").connectTo(root.getInnerSinks().getPortByName("result 1"));
+
+		ExecutionUnit inner = operator.getSubprocess(0);
+		ScoreOperator score = new ScoreOperator(
+				new OperatorDescription("test", "score", ScoreOperator.class, null, null, null));
+		inner.addOperator(score);
+		score.rename("Score");
+		inner.getInnerSources().getPortByName("input 1").connectTo(score.input);
+		score.output.connectTo(inner.getInnerSinks().getPortByName("performance"));
+		List<String> values = new ArrayList<>();
+		for (int x = 0; x <= 20; x++) {
+			values.add(String.valueOf(x));
+		}
+		operator.setListParameter(ParameterConfigurator.PARAMETER_PARAMETERS,
+				Collections.singletonList(new String[] { ParameterTypeTupel.transformTupel2String("Score", "x"),
+						String.join(",", values) }));
+
+		return process.run(new IOContainer(exampleSet)).get(ParameterSet.class);
+	}
+
+	private static GridSearchParameterOptimizationOperator createOperator() {
+		return new GridSearchParameterOptimizationOperator(new OperatorDescription("test", "optimize_parameters_grid",
+				GridSearchParameterOptimizationOperator.class, null, null, null));
+	}
+}
@@ -0,0 +1,238 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.operator.nio.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.gui.tools.dialogs.wizards.dataimport.csv.LineReader;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.studio.concurrency.internal.TestConcurrencyContext;
+import com.rapidminer.tools.CSVParseException;
+import com.rapidminer.tools.LineParser;
+
+
+/**
+ * Tests that the {@link ParallelCSVReader} reads the same lines and values as the {@link LineReader} with the {@link
+ * LineParser}, for all kinds of line terminators and chunk boundaries.
+ *
+ * @since 9.11
+ */
+public class ParallelCSVReaderTest {
+
+	private static final ConcurrencyContext CONTEXT = new TestConcurrencyContext(4);
+
+	/** the chunk sizes to test, small enough to put chunk boundaries everywhere */
+	private static final int[] CHUNK_SIZES = {1, 2, 3, 5, 8, 13, 64, 1000};
+
+	private static final byte[] UTF8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testLineFeeds() throws IOException, OperatorException {
+		assertSameLines("a,b,c\n1,2,3\n4,5,6\n", StandardCharsets.UTF_8);
+		assertSameLines("a,b,c\n1,2,3\n4,5,6", StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void testCarriageReturns() throws IOException, OperatorException {
+		assertSameLines("a,b,c\r1,2,3\r4,5,6\r", StandardCharsets.UTF_8);
+		assertSameLines("a,b,c\r1,2,3\r4,5,6", StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void testCarriageReturnsEndChunks() throws IOException, OperatorException {
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < 1000; i++) {
+			text.append(i).append(",x").append(i).append('\r');
+		}
+		File file = write(text.toString().getBytes(StandardCharsets.UTF_8));
+		try (FileInputStream in = new FileInputStream(file);
+			 ParallelCSVReader reader = new ParallelCSVReader(in, StandardCharsets.UTF_8, createParser(), CONTEXT,
+					 64)) {
+			assertNotNull(reader.readLine());
+			// the chunks end at carriage returns instead of growing to the whole file
+			assertTrue(reader.getPosition() < 4 * 128);
+		}
+	}
+
+	@Test
+	public void testCarriageReturnLineFeeds() throws IOException, OperatorException {
+		assertSameLines("a,b,c\r\n1,2,3\r\n4,5,6\r\n", StandardCharsets.UTF_8);
+		assertSameLines("a,b,c\r\n1,2,3\r\n\r\n4,5,6", StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void testMixedLineTerminators() throws IOException, OperatorException {
+		assertSameLines("\n\r\na\r\r\nb\n\rc\n\n\r\r", StandardCharsets.UTF_8);
+		assertSameLines("\r", StandardCharsets.UTF_8);
+		assertSameLines("\n", StandardCharsets.UTF_8);
+		assertSameLines("", StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void testByteOrderMark() throws IOException, OperatorException {
+		byte[] text = "ä,ö,ü\r\n€,ß,é\r\n漢字,b,c".getBytes(StandardCharsets.UTF_8);
+		byte[] bytes = Arrays.copyOf(UTF8_BOM, UTF8_BOM.length + text.length);
+		System.arraycopy(text, 0, bytes, UTF8_BOM.length, text.length);
+		assertSameLines(bytes, StandardCharsets.UTF_8);
+		assertSameLines(text, StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void testSingleByteEncoding() throws IOException, OperatorException {
+		assertSameLines("ä,ö\r\nü,ß\ré,b\n".getBytes(StandardCharsets.ISO_8859_1), StandardCharsets.ISO_8859_1);
+	}
+
+	@Test
+	public void testComments() throws IOException, OperatorException {
+		assertSameLines("# header comment\na,b # comment\n\n   \n#\n1,2\n", StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void testParseFailures() throws IOException, OperatorException {
+		assertSameLines("a,\"b\nc,\"d\"\"\r\n\"e\"f,g\r1,2\n\"", StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void testLongLines() throws IOException, OperatorException {
+		StringBuilder text = new StringBuilder();
+		Random random = new Random(5);
+		for (int i = 0; i < 20; i++) {
+			int length = random.nextInt(300);
+			for (int j = 0; j < length; j++) {
+				text.append(random.nextInt(10) == 0 ? ',' : (char) ('a' + random.nextInt(26)));
+			}
+			text.append(random.nextBoolean() ? "\r\n" : random.nextBoolean() ? "\n" : "\r");
+		}
+		assertSameLines(text.toString(), StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void testRandomFiles() throws IOException, OperatorException {
+		String[] pieces = {"a", "1.5", ",", ";", " ", "\"", "\"q\"", "#", "ä", "\n", "\r", "\r\n"};
+		Random random = new Random(3);
+		for (int file = 0; file < 20; file++) {
+			StringBuilder text = new StringBuilder();
+			int length = random.nextInt(200);
+			for (int i = 0; i < length; i++) {
+				text.append(pieces[random.nextInt(pieces.length)]);
+			}
+			assertSameLines(text.toString(), StandardCharsets.UTF_8);
+		}
+	}
+
+	@Test
+	public void testSupportedEncodings() {
+		assertTrue(ParallelCSVReader.isSupported(StandardCharsets.UTF_8));
+		assertTrue(ParallelCSVReader.isSupported(StandardCharsets.ISO_8859_1));
+		assertTrue(ParallelCSVReader.isSupported(StandardCharsets.US_ASCII));
+		assertFalse(ParallelCSVReader.isSupported(StandardCharsets.UTF_16));
+		assertFalse(ParallelCSVReader.isSupported(StandardCharsets.UTF_16LE));
+	}
+
+	private void assertSameLines(String text, Charset encoding) throws IOException, OperatorException {
+		assertSameLines(text.getBytes(encoding), encoding);
+	}
+
+	/**
+	 * Asserts that the parallel reader returns the same lines and values as the line reader for all chunk sizes.
+	 */
+	private void assertSameLines(byte[] bytes, Charset encoding) throws IOException, OperatorException {
+		File file = write(bytes);
+		LineParser parser = createParser();
+		List<String> expected = new ArrayList<>();
+		try (LineReader reader = new LineReader(skipByteOrderMark(file, encoding), encoding)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				expected.add(describe(line, parser, null));
+			}
+		}
+		for (int chunkSize : CHUNK_SIZES) {
+			List<String> actual = new ArrayList<>();
+			try (ParallelCSVReader reader = new ParallelCSVReader(skipByteOrderMark(file, encoding), encoding, parser,
+					CONTEXT, chunkSize)) {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					actual.add(describe(line, parser, reader));
+				}
+				assertEquals(file.length(), reader.getPosition());
+			}
+			assertEquals("chunk size " + chunkSize, expected, actual);
+		}
+	}
+
+	/**
+	 * Describes the line and its values, parsed by the parser or taken from the parallel reader.
+	 */
+	private static String describe(String line, LineParser parser, ParallelCSVReader reader) {
+		try {
+			String[] values = reader == null ? parser.parse(line) : reader.getValues();
+			return line + " -> " + Arrays.toString(values);
+		} catch (CSVParseException e) {
+			return line + " -> " + e.getMessage();
+		}
+	}
+
+	/**
+	 * Opens the file and skips the byte order mark like the {@link CSVResultSet}.
+	 */
+	private static FileInputStream skipByteOrderMark(File file, Charset encoding) throws IOException {
+		FileInputStream in = new FileInputStream(file);
+		if (StandardCharsets.UTF_8.equals(encoding)
+				&& (in.read() != 239 || in.read() != 187 || in.read() != 191)) {
+			in.close();
+			in = new FileInputStream(file);
+		}
+		return in;
+	}
+
+	private static LineParser createParser() throws OperatorException {
+		LineParser parser = new LineParser();
+		parser.setSplitExpression(LineParser.SPLIT_BY_COMMA_EXPRESSION);
+		return parser;
+	}
+
+	private File write(byte[] bytes) throws IOException {
+		File file = folder.newFile();
+		Files.write(file.toPath(), bytes);
+		return file;
+	}
+
+}
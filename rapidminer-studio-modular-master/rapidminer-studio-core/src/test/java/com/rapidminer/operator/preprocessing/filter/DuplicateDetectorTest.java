@@ -0,0 +1,150 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.operator.preprocessing.filter;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.table.AttributeFactory;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.operator.OperatorDescription;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.studio.concurrency.internal.TestConcurrencyContext;
+import com.rapidminer.tools.Ontology;
+
+
+/**
+ * Tests the {@link DuplicateDetector} against a set of the values of all previous examples,
+ * sequentially, in parallel and with fingerprints written to disk.
+ *
+ * @since 9.11
+ */
+public class DuplicateDetectorTest {
+
+	private static final int SIZE = 30_000;
+
+	private static final ConcurrencyContext SEQUENTIAL = new TestConcurrencyContext(1);
+
+	private static final ConcurrencyContext PARALLEL = new TestConcurrencyContext(4);
+
+	private static final RemoveDuplicates OPERATOR = new RemoveDuplicates(
+			new OperatorDescription("test", "remove_duplicates", RemoveDuplicates.class, null, null, null));
+
+	@Test
+	public void testInMemory() throws OperatorException {
+		ExampleSet exampleSet = createExampleSet(new Random(3));
+		for (boolean missingsAsDuplicates : new boolean[] { false, true }) {
+			testDetection(exampleSet, allAttributes(exampleSet), missingsAsDuplicates, Integer.MAX_VALUE);
+		}
+	}
+
+	@Test
+	public void testSpilled() throws OperatorException {
+		ExampleSet exampleSet = createExampleSet(new Random(5));
+		for (boolean missingsAsDuplicates : new boolean[] { false, true }) {
+			// fewer entries than a single wave of blocks
+			testDetection(exampleSet, allAttributes(exampleSet), missingsAsDuplicates, 1_000);
+		}
+	}
+
+	@Test
+	public void testSomeAttributes() throws OperatorException {
+		ExampleSet exampleSet = createExampleSet(new Random(7));
+		List<Attribute> attributes = Arrays.asList(exampleSet.getAttributes().get("real"),
+				exampleSet.getAttributes().get("nominal"));
+		testDetection(exampleSet, attributes, false, Integer.MAX_VALUE);
+		testDetection(exampleSet, attributes, true, 5_000);
+	}
+
+	@Test
+	public void testEmpty() throws OperatorException {
+		ExampleSet exampleSet = ExampleSets.createThreadSafeCopy(
+				ExampleSets.from(AttributeFactory.createAttribute("real", Ontology.REAL)).build());
+		testDetection(exampleSet, allAttributes(exampleSet), false, 10);
+	}
+
+	private static void testDetection(ExampleSet exampleSet, List<Attribute> attributes, boolean missingsAsDuplicates,
+			int maxEntriesInMemory) throws OperatorException {
+		boolean[] expected = findDuplicates(exampleSet, attributes, missingsAsDuplicates);
+		for (ConcurrencyContext context : new ConcurrencyContext[] { SEQUENTIAL, PARALLEL }) {
+			DuplicateDetector detector = new DuplicateDetector(exampleSet, attributes, missingsAsDuplicates,
+					maxEntriesInMemory, OPERATOR, context);
+			assertArrayEquals("parallelism " + context.getParallelism() + ", missings as duplicates "
+					+ missingsAsDuplicates + ", entries in memory " + maxEntriesInMemory, expected,
+					detector.findDuplicates());
+		}
+	}
+
+	/**
+	 * Remembers the bits of the values of every example.
+	 */
+	private static boolean[] findDuplicates(ExampleSet exampleSet, List<Attribute> attributes,
+			boolean missingsAsDuplicates) {
+		boolean[] duplicates = new boolean[exampleSet.size()];
+		Set<List<Long>> seen = new HashSet<>();
+		for (int i = 0; i < exampleSet.size(); i++) {
+			List<Long> bits = new ArrayList<>();
+			boolean missing = false;
+			for (Attribute attribute : attributes) {
+				double value = exampleSet.getExample(i).getValue(attribute);
+				missing |= Double.isNaN(value);
+				bits.add(Double.doubleToLongBits(value));
+			}
+			if (!missing || missingsAsDuplicates) {
+				duplicates[i] = !seen.add(bits);
+			}
+		}
+		return duplicates;
+	}
+
+	/**
+	 * Creates few different values, including missing values and both zeros.
+	 */
+	private static ExampleSet createExampleSet(Random random) {
+		Attribute real = AttributeFactory.createAttribute("real", Ontology.REAL);
+		Attribute integer = AttributeFactory.createAttribute("integer", Ontology.INTEGER);
+		Attribute nominal = AttributeFactory.createAttribute("nominal", Ontology.NOMINAL);
+		for (String value : new String[] { "a", "b", "c" }) {
+			nominal.getMapping().mapString(value);
+		}
+		double[] realValues = { 0.0, -0.0, 1.5, 1e-300, Double.NaN };
+		ExampleSet exampleSet = ExampleSets.from(real, integer, nominal).withBlankSize(SIZE)
+				.withColumnFiller(real, i -> realValues[random.nextInt(realValues.length)])
+				.withColumnFiller(integer, i -> random.nextInt(40))
+				.withColumnFiller(nominal, i -> random.nextInt(30) == 0 ? Double.NaN : random.nextInt(3)).build();
+		return ExampleSets.createThreadSafeCopy(exampleSet);
+	}
+
+	private static List<Attribute> allAttributes(ExampleSet exampleSet) {
+		List<Attribute> attributes = new ArrayList<>();
+		exampleSet.getAttributes().forEach(attributes::add);
+		return attributes;
+	}
+}
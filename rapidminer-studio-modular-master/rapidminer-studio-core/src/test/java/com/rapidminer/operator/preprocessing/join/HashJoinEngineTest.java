@@ -0,0 +1,207 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.operator.preprocessing.join;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Example;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.table.AttributeFactory;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.operator.OperatorDescription;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.studio.concurrency.internal.TestConcurrencyContext;
+import com.rapidminer.tools.Ontology;
+
+
+/**
+ * Tests the {@link HashJoinEngine} by comparing the sequential and the parallel join with a join
+ * that looks up the keys in a map.
+ *
+ * @since 9.11
+ */
+public class HashJoinEngineTest {
+
+	private static final int PROBE_ROWS = 35_000;
+	private static final int BUILD_ROWS = 28_000;
+
+	private static final ConcurrencyContext CONTEXT = new TestConcurrencyContext(4);
+
+	@Test
+	public void testNominalAndIntegerKeys() throws OperatorException {
+		Random random = new Random(7);
+		ExampleSet probeSet = createNominalIntegerSet(PROBE_ROWS, random, "a", "b", "c", "d");
+		// different mapping order and a value that is unknown on the probe side
+		ExampleSet buildSet = createNominalIntegerSet(BUILD_ROWS, random, "e", "c", "b", "a");
+		testAllJoinTypes(probeSet, buildSet);
+	}
+
+	@Test
+	public void testSortedNumericalKeys() throws OperatorException {
+		Random random = new Random(11);
+		ExampleSet probeSet = createSortedSet(PROBE_ROWS, random);
+		ExampleSet buildSet = createSortedSet(BUILD_ROWS, random);
+		testAllJoinTypes(probeSet, buildSet);
+	}
+
+	@Test
+	public void testUnsortedRealKeys() throws OperatorException {
+		Random random = new Random(13);
+		ExampleSet probeSet = createRealSet(PROBE_ROWS, random);
+		ExampleSet buildSet = createRealSet(BUILD_ROWS, random);
+		testAllJoinTypes(probeSet, buildSet);
+	}
+
+	@Test
+	public void testEmptyBuildSide() throws OperatorException {
+		Random random = new Random(17);
+		ExampleSet probeSet = createRealSet(PROBE_ROWS, random);
+		ExampleSet buildSet = createRealSet(0, random);
+		testAllJoinTypes(probeSet, buildSet);
+	}
+
+	private static void testAllJoinTypes(ExampleSet probeSet, ExampleSet buildSet) throws OperatorException {
+		Attribute[] probeKeys = keyAttributes(probeSet);
+		Attribute[] buildKeys = keyAttributes(buildSet);
+		ExampleSetJoin operator = new ExampleSetJoin(
+				new OperatorDescription("test", "join", ExampleSetJoin.class, null, null, null));
+		for (boolean keepUnmatched : new boolean[] { false, true }) {
+			for (boolean appendUnmatched : new boolean[] { false, true }) {
+				String message = "keep unmatched: " + keepUnmatched + ", append unmatched: " + appendUnmatched;
+				int[][] expected = expectedJoin(probeSet, probeKeys, buildSet, buildKeys, keepUnmatched,
+						appendUnmatched);
+				HashJoinEngine engine = new HashJoinEngine(operator, probeSet, probeKeys, buildSet, buildKeys);
+				HashJoinEngine.JoinResult sequential = engine.join(keepUnmatched, appendUnmatched, null);
+				assertArrayEquals(message, expected[0], sequential.getProbeRows());
+				assertArrayEquals(message, expected[1], sequential.getBuildRows());
+				HashJoinEngine.JoinResult parallel = engine.join(keepUnmatched, appendUnmatched, CONTEXT);
+				assertArrayEquals(message, expected[0], parallel.getProbeRows());
+				assertArrayEquals(message, expected[1], parallel.getBuildRows());
+			}
+		}
+	}
+
+	/**
+	 * Joins by looking up the key values of every probe row in a map of the build rows.
+	 */
+	private static int[][] expectedJoin(ExampleSet probeSet, Attribute[] probeKeys, ExampleSet buildSet,
+			Attribute[] buildKeys, boolean keepUnmatched, boolean appendUnmatched) {
+		Map<List<Object>, List<Integer>> index = new HashMap<>();
+		for (int row = 0; row < buildSet.size(); row++) {
+			List<Object> key = key(buildSet.getExample(row), buildKeys);
+			if (key != null) {
+				index.computeIfAbsent(key, k -> new ArrayList<>()).add(row);
+			}
+		}
+		List<Integer> probeRows = new ArrayList<>();
+		List<Integer> buildRows = new ArrayList<>();
+		boolean[] matched = new boolean[buildSet.size()];
+		for (int row = 0; row < probeSet.size(); row++) {
+			List<Object> key = key(probeSet.getExample(row), probeKeys);
+			List<Integer> matches = key == null ? null : index.get(key);
+			if (matches == null) {
+				if (keepUnmatched) {
+					probeRows.add(row);
+					buildRows.add(HashJoinEngine.NO_MATCH);
+				}
+				continue;
+			}
+			for (int buildRow : matches) {
+				probeRows.add(row);
+				buildRows.add(buildRow);
+				matched[buildRow] = true;
+			}
+		}
+		if (appendUnmatched) {
+			for (int row = 0; row < matched.length; row++) {
+				if (!matched[row]) {
+					probeRows.add(HashJoinEngine.NO_MATCH);
+					buildRows.add(row);
+				}
+			}
+		}
+		return new int[][] { probeRows.stream().mapToInt(Integer::intValue).toArray(),
+				buildRows.stream().mapToInt(Integer::intValue).toArray() };
+	}
+
+	/**
+	 * @return the key values of the example or {@code null} if one of them is missing
+	 */
+	private static List<Object> key(Example example, Attribute[] keyAttributes) {
+		Object[] key = new Object[keyAttributes.length];
+		for (int i = 0; i < keyAttributes.length; i++) {
+			double value = example.getValue(keyAttributes[i]);
+			if (Double.isNaN(value)) {
+				return null;
+			}
+			key[i] = keyAttributes[i].isNominal() ? example.getValueAsString(keyAttributes[i]) : value;
+		}
+		return Arrays.asList(key);
+	}
+
+	private static Attribute[] keyAttributes(ExampleSet exampleSet) {
+		List<Attribute> keys = new ArrayList<>();
+		for (Attribute attribute : exampleSet.getAttributes()) {
+			if (attribute.getName().startsWith("key")) {
+				keys.add(attribute);
+			}
+		}
+		return keys.toArray(new Attribute[0]);
+	}
+
+	private static ExampleSet createNominalIntegerSet(int size, Random random, String... values) {
+		Attribute nominal = AttributeFactory.createAttribute("key_nominal", Ontology.NOMINAL);
+		for (String value : values) {
+			nominal.getMapping().mapString(value);
+		}
+		Attribute integer = AttributeFactory.createAttribute("key_integer", Ontology.INTEGER);
+		Attribute payload = AttributeFactory.createAttribute("payload", Ontology.REAL);
+		return ExampleSets.from(nominal, integer, payload).withBlankSize(size)
+				.withColumnFiller(nominal, i -> i % 97 == 0 ? Double.NaN : random.nextInt(values.length))
+				.withColumnFiller(integer, i -> i % 89 == 0 ? Double.NaN : random.nextInt(2_000))
+				.withColumnFiller(payload, i -> random.nextDouble()).build();
+	}
+
+	private static ExampleSet createSortedSet(int size, Random random) {
+		Attribute key = AttributeFactory.createAttribute("key", Ontology.INTEGER);
+		double[] values = new double[size];
+		for (int i = 1; i < size; i++) {
+			values[i] = values[i - 1] + random.nextInt(3);
+		}
+		return ExampleSets.from(key).withBlankSize(size).withColumnFiller(key, i -> values[i]).build();
+	}
+
+	private static ExampleSet createRealSet(int size, Random random) {
+		Attribute key = AttributeFactory.createAttribute("key", Ontology.REAL);
+		return ExampleSets.from(key).withBlankSize(size)
+				.withColumnFiller(key, i -> i % 53 == 0 ? Double.NaN : random.nextInt(5_000) / 4.0).build();
+	}
+
+}
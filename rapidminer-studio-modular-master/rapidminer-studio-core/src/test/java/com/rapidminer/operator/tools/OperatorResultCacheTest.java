@@ -0,0 +1,271 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.operator.tools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.rapidminer.RapidMiner;
+import com.rapidminer.example.set.ConditionedExampleSet;
+import com.rapidminer.operator.Operator;
+import com.rapidminer.operator.OperatorDescription;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.SimpleResultObject;
+import com.rapidminer.operator.features.construction.AttributeConstruction;
+import com.rapidminer.operator.learner.bayes.NaiveBayes;
+import com.rapidminer.operator.learner.functions.kernel.JMySVMLearner;
+import com.rapidminer.operator.learner.lazy.DefaultLearner;
+import com.rapidminer.operator.ports.InputPort;
+import com.rapidminer.operator.ports.OutputPort;
+import com.rapidminer.operator.ports.Port;
+import com.rapidminer.operator.preprocessing.filter.ExampleFilter;
+import com.rapidminer.parameter.ParameterType;
+import com.rapidminer.parameter.ParameterTypeInt;
+import com.rapidminer.tools.ParameterService;
+import com.rapidminer.tools.RandomGenerator;
+
+
+/**
+ * Tests the keys, the replay and the eviction of the {@link OperatorResultCache}, the detection of
+ * executions depending on the global random generator and which operators opt in to caching.
+ *
+ * @since 9.11
+ */
+public class OperatorResultCacheTest {
+
+	/** A cacheable operator appending its parameter to the text of its input. */
+	public static class AppendOperator extends Operator {
+
+		private static final String PARAMETER_SUFFIX = "suffix";
+
+		private final InputPort input = getInputPorts().createPort("input");
+		private final OutputPort output = getOutputPorts().createPort("output");
+
+		public AppendOperator(OperatorDescription description) {
+			super(description);
+		}
+
+		@Override
+		public void doWork() throws OperatorException {
+			SimpleResultObject text = input.getData(SimpleResultObject.class);
+			output.deliver(new SimpleResultObject("result", text.toString() + getParameterAsInt(PARAMETER_SUFFIX)));
+		}
+
+		@Override
+		public List<ParameterType> getParameterTypes() {
+			List<ParameterType> types = super.getParameterTypes();
+			types.add(new ParameterTypeInt(PARAMETER_SUFFIX, "The number to append.", 0, Integer.MAX_VALUE, 0));
+			return types;
+		}
+
+		@Override
+		public boolean isResultCacheable() {
+			return true;
+		}
+	}
+
+	/** large enough that exactly two results fit into a cache of one MB */
+	private static final int LARGE_TEXT = 450_000;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private String previousSize;
+
+	private OperatorResultCache cache;
+
+	@Before
+	public void setUp() throws IOException {
+		previousSize = ParameterService.getParameterValue(RapidMiner.PROPERTY_RAPIDMINER_SYSTEM_OPERATOR_RESULT_CACHE_SIZE);
+		ParameterService.setParameterValue(RapidMiner.PROPERTY_RAPIDMINER_SYSTEM_OPERATOR_RESULT_CACHE_SIZE, "1");
+		cache = new OperatorResultCache(folder.newFolder().toPath());
+	}
+
+	@After
+	public void tearDown() {
+		ParameterService.setParameterValue(RapidMiner.PROPERTY_RAPIDMINER_SYSTEM_OPERATOR_RESULT_CACHE_SIZE, previousSize);
+	}
+
+	@Test
+	public void testKeyStability() {
+		AppendOperator first = createOperator(1, "text");
+		AppendOperator second = createOperator(1, "text");
+		String key = cache.createKey(first);
+		assertNotNull(key);
+		assertEquals(key, cache.createKey(first));
+		assertEquals(key, cache.createKey(second));
+
+		first.setParameter(AppendOperator.PARAMETER_SUFFIX, "2");
+		assertNotEquals(key, cache.createKey(first));
+		assertNotEquals(key, cache.createKey(createOperator(1, "other text")));
+		assertNotEquals(key, cache.createKey(createOperator(1, null)));
+	}
+
+	@Test
+	public void testNotCacheable() {
+		JMySVMLearner learner = new JMySVMLearner(
+				new OperatorDescription("test", "support_vector_machine", JMySVMLearner.class, null, null, null));
+		assertNull(cache.createKey(learner));
+
+		ParameterService.setParameterValue(RapidMiner.PROPERTY_RAPIDMINER_SYSTEM_OPERATOR_RESULT_CACHE_SIZE, "0");
+		assertNull(cache.createKey(createOperator(1, "text")));
+	}
+
+	@Test
+	public void testOptIn() {
+		assertTrue(new NaiveBayes(new OperatorDescription("test", "naive_bayes", NaiveBayes.class, null, null, null))
+				.isResultCacheable());
+		assertFalse(new DefaultLearner(
+				new OperatorDescription("test", "default_model", DefaultLearner.class, null, null, null))
+				.isResultCacheable());
+	}
+
+	@Test
+	public void testExpressionFilter() {
+		ExampleFilter filter = new ExampleFilter(
+				new OperatorDescription("test", "filter_examples", ExampleFilter.class, null, null, null));
+		filter.setParameter(ExampleFilter.PARAMETER_CONDITION_CLASS,
+				ConditionedExampleSet.KNOWN_CONDITION_NAMES[ConditionedExampleSet.CONDITION_EXPRESSION]);
+		filter.setParameter(ExampleFilter.PARAMETER_PARAMETER_EXPRESSION, "a > 1 && contains(b, \"x\")");
+		assertTrue(filter.isResultCacheable());
+		for (String expression : new String[] { "a > eval(macro(\"threshold\"))", "a > param(\"op\", \"k\")",
+				"a < date_now()", "rand() > 0.5" }) {
+			filter.setParameter(ExampleFilter.PARAMETER_PARAMETER_EXPRESSION, expression);
+			assertFalse(expression, filter.isResultCacheable());
+		}
+
+		filter.setParameter(ExampleFilter.PARAMETER_CONDITION_CLASS,
+				ConditionedExampleSet.KNOWN_CONDITION_NAMES[ConditionedExampleSet.CONDITION_CUSTOM_FILTER]);
+		assertTrue(filter.isResultCacheable());
+		filter.setParameter(ExampleFilter.PARAMETER_CONDITION_CLASS, "org.example.CustomCondition");
+		assertFalse(filter.isResultCacheable());
+	}
+
+	@Test
+	public void testAttributeConstruction() {
+		AttributeConstruction construction = new AttributeConstruction(
+				new OperatorDescription("test", "generate_attributes", AttributeConstruction.class, null, null, null));
+		construction.setListParameter(AttributeConstruction.PARAMETER_FUNCTIONS,
+				Collections.singletonList(new String[] { "b", "a * 2" }));
+		assertTrue(construction.isResultCacheable());
+		construction.setListParameter(AttributeConstruction.PARAMETER_FUNCTIONS,
+				Collections.singletonList(new String[] { "b", "a * macro (\"factor\")" }));
+		assertFalse(construction.isResultCacheable());
+	}
+
+	@Test
+	public void testReplay() throws OperatorException {
+		AppendOperator operator = createOperator(7, "text");
+		String key = cache.createKey(operator);
+		assertFalse(cache.replay(operator, key));
+		assertEquals(1, cache.getMisses());
+
+		operator.doWork();
+		cache.store(operator, key);
+		assertTrue(cache.getUsedBytes() > 0);
+		operator.getOutputPorts().clear(Port.CLEAR_DATA);
+
+		AppendOperator other = createOperator(7, "text");
+		assertTrue(cache.replay(other, cache.createKey(other)));
+		assertEquals(1, cache.getHits());
+		SimpleResultObject result = other.getOutputPorts().getPortByName("output").getData(SimpleResultObject.class);
+		assertEquals("text7", result.toString());
+
+		cache.clear();
+		assertEquals(0, cache.getUsedBytes());
+		assertFalse(cache.replay(other, key));
+	}
+
+	@Test
+	public void testLeastRecentlyUsedEviction() throws OperatorException {
+		String text = randomText(new Random(11), LARGE_TEXT);
+		String first = run(createOperator(1, text));
+		String second = run(createOperator(2, text));
+		long usedBytes = cache.getUsedBytes();
+		assertTrue(usedBytes > LARGE_TEXT);
+
+		// the access makes the second entry the least recently used one
+		assertTrue(cache.replay(createOperator(1, text), first));
+		String third = run(createOperator(3, text));
+		assertTrue(cache.getUsedBytes() <= 1 << 20);
+
+		assertFalse(cache.replay(createOperator(2, text), second));
+		assertTrue(cache.replay(createOperator(1, text), first));
+		assertTrue(cache.replay(createOperator(3, text), third));
+
+		// results larger than the complete cache are not stored
+		AppendOperator huge = createOperator(4, randomText(new Random(13), 5 * LARGE_TEXT));
+		String hugeKey = run(huge);
+		assertFalse(cache.replay(huge, hugeKey));
+	}
+
+	@Test
+	public void testGlobalDraws() {
+		long draws = RandomGenerator.getGlobalDraws();
+		new RandomGenerator(5).nextInt();
+		assertEquals(draws, RandomGenerator.getGlobalDraws());
+		RandomGenerator.getGlobalRandomGenerator().nextDouble();
+		assertTrue(RandomGenerator.getGlobalDraws() > draws);
+	}
+
+	/**
+	 * Executes the operator and stores its result.
+	 *
+	 * @return the key of the execution
+	 */
+	private String run(AppendOperator operator) throws OperatorException {
+		String key = cache.createKey(operator);
+		operator.doWork();
+		cache.store(operator, key);
+		return key;
+	}
+
+	private static AppendOperator createOperator(int suffix, String text) {
+		AppendOperator operator = new AppendOperator(
+				new OperatorDescription("test", "append", AppendOperator.class, null, null, null));
+		operator.setParameter(AppendOperator.PARAMETER_SUFFIX, String.valueOf(suffix));
+		if (text != null) {
+			operator.input.receive(new SimpleResultObject("text", text));
+		}
+		return operator;
+	}
+
+	private static String randomText(Random random, int length) {
+		char[] chars = new char[length];
+		for (int i = 0; i < length; i++) {
+			chars[i] = (char) ('a' + random.nextInt(26));
+		}
+		return new String(chars);
+	}
+}
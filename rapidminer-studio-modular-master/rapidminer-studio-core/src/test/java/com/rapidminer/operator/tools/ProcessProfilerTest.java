@@ -0,0 +1,240 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.operator.tools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.rapidminer.Process;
+import com.rapidminer.RapidMiner;
+import com.rapidminer.TestUtils;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.table.AttributeFactory;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.operator.ExecutionUnit;
+import com.rapidminer.operator.IOContainer;
+import com.rapidminer.operator.Operator;
+import com.rapidminer.operator.OperatorDescription;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.ports.InputPort;
+import com.rapidminer.operator.ports.OutputPort;
+import com.rapidminer.tools.Ontology;
+import com.rapidminer.tools.ParameterService;
+
+
+/**
+ * Tests that the {@link ProcessProfiler} records every executed operator of a {@link Process} into
+ * the {@link ProcessProfile}, that the {@link ProvideProcessProfileOperator} enables profiling and
+ * that processes are not profiled otherwise.
+ *
+ * @since 9.11
+ */
+public class ProcessProfilerTest {
+
+	/** Passes its example set through. */
+	public static class PassThroughOperator extends Operator {
+
+		private final InputPort input = getInputPorts().createPort("input");
+		private final OutputPort output = getOutputPorts().createPort("output");
+
+		public PassThroughOperator(OperatorDescription description) {
+			super(description);
+		}
+
+		@Override
+		public void doWork() throws OperatorException {
+			output.deliver(input.getData(ExampleSet.class));
+		}
+	}
+
+	private String previousProfiling;
+
+	@BeforeClass
+	public static void setup() {
+		TestUtils.INSTANCE.minimalProcessUsageSetup();
+	}
+
+	@Before
+	public void setUp() {
+		previousProfiling = ParameterService.getParameterValue(RapidMiner.PROPERTY_RAPIDMINER_SYSTEM_OPERATOR_PROFILING);
+	}
+
+	@After
+	public void tearDown() {
+		ParameterService.setParameterValue(RapidMiner.PROPERTY_RAPIDMINER_SYSTEM_OPERATOR_PROFILING, previousProfiling);
+	}
+
+	@Test
+	public void testProfilingEnabledBySetting() throws OperatorException {
+		ParameterService.setParameterValue(RapidMiner.PROPERTY_RAPIDMINER_SYSTEM_OPERATOR_PROFILING, "true");
+		Process process = createProcess();
+		IOContainer results = process.run(new IOContainer(createData()));
+		assertEquals(10, results.get(ExampleSet.class).size());
+
+		ProcessProfile profile = process.getProfile();
+		assertNotNull(profile);
+		String root = process.getRootOperator().getName();
+		List<ProcessProfile.OperatorProfile> profiles = profile.getOperatorProfiles();
+		assertEquals(3, profiles.size());
+		for (ProcessProfile.OperatorProfile operatorProfile : profiles) {
+			assertEquals(operatorProfile.getName(), 1, operatorProfile.getApplications());
+			assertTrue(operatorProfile.getWallTime() >= 0);
+			assertEquals(operatorProfile.getWallTime(), operatorProfile.getMaxWallTime());
+			assertTrue(operatorProfile.getSelfTime() >= 0);
+			assertTrue(operatorProfile.getCpuTime() >= -1);
+			assertTrue(operatorProfile.getAllocatedBytes() >= -1);
+			assertTrue(operatorProfile.getMaxHeapDelta() >= 0);
+		}
+		assertEquals(new HashSet<>(Arrays.asList(root, "First", "Second")),
+				new HashSet<>(Arrays.asList(profiles.get(0).getName(), profiles.get(1).getName(),
+						profiles.get(2).getName())));
+
+		ProcessProfile.OperatorProfile first = profile.getOperatorProfile("First");
+		ProcessProfile.OperatorProfile second = profile.getOperatorProfile("Second");
+		assertEquals("test_pass_through", first.getOperatorKey());
+		assertEquals(10, first.getInputRows());
+		assertEquals(2, first.getInputColumns());
+		assertEquals(10, first.getOutputRows());
+		assertEquals(10, second.getInputRows());
+		assertEquals(0, first.getSubprocessTime());
+
+		// the root operator contains the time of both inner operators
+		ProcessProfile.OperatorProfile rootProfile = profile.getOperatorProfile(root);
+		assertEquals(first.getWallTime() + second.getWallTime(), rootProfile.getSubprocessTime());
+		assertTrue(rootProfile.getWallTime() >= rootProfile.getSubprocessTime());
+
+		// a new run starts a new profile
+		process.run(new IOContainer(createData()));
+		assertEquals(1, process.getProfile().getOperatorProfile("First").getApplications());
+	}
+
+	@Test
+	public void testProfilingEnabledByOperator() throws OperatorException {
+		ParameterService.setParameterValue(RapidMiner.PROPERTY_RAPIDMINER_SYSTEM_OPERATOR_PROFILING, "false");
+		Process process = new Process();
+		ExecutionUnit unit = process.getRootOperator().getSubprocess(0);
+		PassThroughOperator first = createPassThrough(unit, "First");
+		ProvideProcessProfileOperator provider = new ProvideProcessProfileOperator(new OperatorDescription("test",
+				"provide_process_profile", ProvideProcessProfileOperator.class, null, null, null));
+		unit.addOperator(provider);
+		provider.rename("Profile");
+		unit.getInnerSources().getPortByName("input 1").connectTo(first.getInputPorts().getPortByName("input"));
+		first.getOutputPorts().getPortByName("output").connectTo(provider.getInputPorts().getPortByName("through 1"));
+		provider.getOutputPorts().getPortByName("profile").connectTo(unit.getInnerSinks().getPortByName("result 1"));
+
+		ProcessProfile delivered = process.run(new IOContainer(createData())).get(ProcessProfile.class);
+		// only the operators finished before the provider are contained
+		assertEquals(1, delivered.getOperatorProfiles().size());
+		assertEquals(1, delivered.getOperatorProfile("First").getApplications());
+		assertNull(delivered.getOperatorProfile("Profile"));
+
+		ProcessProfile profile = process.getProfile();
+		assertNotNull(profile);
+		assertNotNull(profile.getOperatorProfile("Profile"));
+		assertNotNull(profile.getOperatorProfile(process.getRootOperator().getName()));
+	}
+
+	@Test
+	public void testNoProfilingByDefault() throws OperatorException {
+		ParameterService.setParameterValue(RapidMiner.PROPERTY_RAPIDMINER_SYSTEM_OPERATOR_PROFILING, "false");
+		Process process = createProcess();
+		assertEquals(10, process.run(new IOContainer(createData())).get(ExampleSet.class).size());
+		assertNull(process.getProfile());
+
+		// a disabled provider does not enable profiling
+		ProvideProcessProfileOperator provider = new ProvideProcessProfileOperator(new OperatorDescription("test",
+				"provide_process_profile", ProvideProcessProfileOperator.class, null, null, null));
+		process.getRootOperator().getSubprocess(0).addOperator(provider);
+		provider.setEnabled(false);
+		process.run(new IOContainer(createData()));
+		assertNull(process.getProfile());
+	}
+
+	@Test
+	public void testAggregation() {
+		ProcessProfile profile = new ProcessProfile();
+		profile.record("Loop", "loop", 100, 80, 1_000, 50, 90, new long[]{10, 2}, new long[]{0, 0});
+		profile.record("Inner", "inner", 40, 40, 500, 20, 0, new long[]{5, 2}, new long[]{5, 3});
+		profile.record("Inner", "inner", 50, 30, 700, 30, 0, new long[]{5, 2}, new long[]{5, 3});
+		ProcessProfile copy = profile.copy();
+		profile.record("Inner", "inner", 10, -1, -1, 0, 0, new long[]{0, 0}, new long[]{0, 0});
+
+		ProcessProfile.OperatorProfile inner = copy.getOperatorProfile("Inner");
+		assertEquals(2, inner.getApplications());
+		assertEquals(90, inner.getWallTime());
+		assertEquals(50, inner.getMaxWallTime());
+		assertEquals(70, inner.getCpuTime());
+		assertEquals(1_200, inner.getAllocatedBytes());
+		assertEquals(30, inner.getMaxHeapDelta());
+		assertEquals(10, inner.getInputRows());
+		assertEquals(6, inner.getOutputColumns());
+		assertEquals(10, copy.getOperatorProfile("Loop").getSelfTime());
+		// the largest CPU consumer first
+		assertEquals("Loop", copy.getOperatorProfiles().get(0).getName());
+
+		// unsupported measurements stay unknown
+		inner = profile.getOperatorProfile("Inner");
+		assertEquals(3, inner.getApplications());
+		assertEquals(-1, inner.getCpuTime());
+		assertEquals(-1, inner.getAllocatedBytes());
+		assertNull(profile.getOperatorProfile("Other"));
+	}
+
+	/**
+	 * Creates a process passing its input through the operators "First" and "Second".
+	 */
+	private static Process createProcess() {
+		Process process = new Process();
+		ExecutionUnit unit = process.getRootOperator().getSubprocess(0);
+		PassThroughOperator first = createPassThrough(unit, "First");
+		PassThroughOperator second = createPassThrough(unit, "Second");
+		unit.getInnerSources().getPortByName("input 1").connectTo(first.getInputPorts().getPortByName("input"));
+		first.getOutputPorts().getPortByName("output").connectTo(second.getInputPorts().getPortByName("input"));
+		second.getOutputPorts().getPortByName("output").connectTo(unit.getInnerSinks().getPortByName("result 1"));
+		return process;
+	}
+
+	private static PassThroughOperator createPassThrough(ExecutionUnit unit, String name) {
+		PassThroughOperator operator = new PassThroughOperator(
+				new OperatorDescription("test", "test_pass_through", PassThroughOperator.class, null, null, null));
+		unit.addOperator(operator);
+		operator.rename(name);
+		return operator;
+	}
+
+	private static ExampleSet createData() {
+		Attribute first = AttributeFactory.createAttribute("first", Ontology.REAL);
+		Attribute second = AttributeFactory.createAttribute("second", Ontology.REAL);
+		return ExampleSets.from(first, second).withBlankSize(10).withColumnFiller(first, i -> i)
+				.withColumnFiller(second, i -> 2 * i).build();
+	}
+
+}
@@ -145,6 +145,21 @@ public class SerializationToStreamTest {
 		RapidAssert.assertEquals("ExampleSets are not equal", set, backAndForth);
 	}
 
+	@Test
+	public void testColumnarExampleSet() throws IOException {
+		ExampleSet set = testSet;
+		ExampleSet backAndForth = (ExampleSet) readFromArray(writeToArray(set, SerializationType.COLUMNAR_EXAMPLE_SET));
+		RapidAssert.assertEquals("ExampleSets are not equal", set, backAndForth);
+	}
+
+	@Test
+	public void testCompressedColumnarExampleSet() throws IOException {
+		ExampleSet set = testSet;
+		ExampleSet backAndForth = (ExampleSet) readFromArray(writeToArray(set,
+				SerializationType.COLUMNAR_EXAMPLE_SET_COMPRESSED));
+		RapidAssert.assertEquals("ExampleSets are not equal", set, backAndForth);
+	}
+
 	@Test(expected = InvalidObjectException.class)
 	public void testTableWithAdvancedColumn() throws IOException {
 		Table table = Builders.newTableBuilder(11).addReal("real", i -> 3 * i / 5.0)
@@ -161,6 +176,12 @@ public class SerializationToStreamTest {
 		return stream.toByteArray();
 	}
 
+	private byte[] writeToArray(Object object, SerializationType type) throws IOException {
+		ByteArrayOutputStream stream = new ByteArrayOutputStream();
+		IOObjectSerializer.getInstance().serialize(stream, object, type);
+		return stream.toByteArray();
+	}
+
 	private Object readFromArray(byte[] array) throws IOException {
 		ByteArrayInputStream stream = new ByteArrayInputStream(array);
 		return IOObjectSerializer.getInstance().deserialize(stream);
@@ -0,0 +1,161 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.operator.validation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.Collections;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.rapidminer.Process;
+import com.rapidminer.TestUtils;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.Attributes;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.table.AttributeFactory;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.operator.ExecutionUnit;
+import com.rapidminer.operator.IOContainer;
+import com.rapidminer.operator.ModelApplier;
+import com.rapidminer.operator.OperatorDescription;
+import com.rapidminer.operator.OperatorException;
+import com.rapidminer.operator.learner.lazy.DefaultLearner;
+import com.rapidminer.operator.performance.PerformanceCriterion;
+import com.rapidminer.operator.performance.PerformanceVector;
+import com.rapidminer.operator.performance.RegressionPerformanceEvaluator;
+import com.rapidminer.operator.visualization.ProcessLogOperator;
+import com.rapidminer.studio.concurrency.internal.ConcurrencyExecutionService;
+import com.rapidminer.studio.concurrency.internal.TestConcurrencyContext;
+import com.rapidminer.studio.internal.Resources;
+import com.rapidminer.tools.Ontology;
+import com.rapidminer.tools.RandomGenerator;
+
+
+/**
+ * Tests that the parallel execution of the {@link XValidation} must be enabled explicitly and gives
+ * the same performance as the sequential execution for a fixed seed, also with a log inside the
+ * folds.
+ *
+ * @since 9.11
+ */
+public class ValidationChainTest {
+
+	private static final String PARAMETER_ENABLE_PARALLEL_EXECUTION = "enable_parallel_execution";
+
+	private static final int FOLDS = 20;
+
+	private ExampleSet exampleSet;
+
+	@BeforeClass
+	public static void setup() throws Exception {
+		TestUtils.INSTANCE.minimalProcessUsageSetup();
+	}
+
+	@Before
+	public void createExampleSet() {
+		Random random = new Random(42);
+		Attribute x = AttributeFactory.createAttribute("x", Ontology.REAL);
+		Attribute label = AttributeFactory.createAttribute("label", Ontology.REAL);
+		exampleSet = ExampleSets.from(x, label).withBlankSize(500)
+				.withColumnFiller(x, i -> random.nextGaussian())
+				.withColumnFiller(label, i -> random.nextDouble() * 10)
+				.withRole(label, Attributes.LABEL_NAME).build();
+	}
+
+	@Test
+	public void testSequentialByDefault() {
+		XValidation validation = new XValidation(
+				new OperatorDescription("test", "x_validation", XValidation.class, null, null, null));
+		assertFalse(validation.getParameterAsBoolean(PARAMETER_ENABLE_PARALLEL_EXECUTION));
+	}
+
+	@Test
+	public void testParallelEqualsSequential() throws OperatorException {
+		PerformanceVector sequential = validate(false);
+		PerformanceVector parallel = validate(true);
+		assertEquals(sequential.getSize(), parallel.getSize());
+		for (int i = 0; i < sequential.getSize(); i++) {
+			PerformanceCriterion expected = sequential.getCriterion(i);
+			PerformanceCriterion actual = parallel.getCriterion(i);
+			assertEquals(expected.getName(), actual.getName());
+			assertEquals(expected.getName(), expected.getAverage(), actual.getAverage(), 0);
+			assertEquals(expected.getName(), expected.getVariance(), actual.getVariance(), 0);
+		}
+	}
+
+	/**
+	 * Runs a cross validation with a default learner and a log in the testing subprocess and checks
+	 * that the log has one row per fold.
+	 */
+	private PerformanceVector validate(boolean parallel) throws OperatorException {
+		Process process = new Process();
+		process.getRootOperator().setUserData(ConcurrencyExecutionService.OVERRIDING_CONTEXT,
+				new Resources.OverridingContextUserData(new TestConcurrencyContext(4)));
+		XValidation validation = new XValidation(
+				new OperatorDescription("test", "x_validation", XValidation.class, null, null, null));
+		validation.setParameter(XValidation.PARAMETER_NUMBER_OF_VALIDATIONS, String.valueOf(FOLDS));
+		validation.setParameter(RandomGenerator.PARAMETER_USE_LOCAL_RANDOM_SEED, "true");
+		validation.setParameter(RandomGenerator.PARAMETER_LOCAL_RANDOM_SEED, "1992");
+		validation.setParameter(PARAMETER_ENABLE_PARALLEL_EXECUTION, String.valueOf(parallel));
+		ExecutionUnit root = process.getRootOperator().getSubprocess(0);
+		root.addOperator(validation);
+		root.getInnerSources().getPortByName("input 1").connectTo(validation.getInputPorts().getPortByName("training"));
+		validation.getOutputPorts().getPortByName("averagable 1")
+				.connectTo(root.getInnerSinks().getPortByName("result 1"));
+
+		ExecutionUnit training = validation.getSubprocess(0);
+		DefaultLearner learner = new DefaultLearner(
+				new OperatorDescription("test", "default_learner", DefaultLearner.class, null, null, null));
+		training.addOperator(learner);
+		training.getInnerSources().getPortByName("training").connectTo(learner.getInputPorts().getPortByName("training set"));
+		learner.getOutputPorts().getPortByName("model").connectTo(training.getInnerSinks().getPortByName("model"));
+
+		ExecutionUnit testing = validation.getSubprocess(1);
+		ModelApplier applier = new ModelApplier(
+				new OperatorDescription("test", "apply_model", ModelApplier.class, null, null, null));
+		RegressionPerformanceEvaluator evaluator = new RegressionPerformanceEvaluator(
+				new OperatorDescription("test", "performance_regression", RegressionPerformanceEvaluator.class, null,
+						null, null));
+		ProcessLogOperator log = new ProcessLogOperator(
+				new OperatorDescription("test", "log", ProcessLogOperator.class, null, null, null));
+		testing.addOperator(applier);
+		testing.addOperator(evaluator);
+		testing.addOperator(log);
+		log.rename("Log");
+		log.setListParameter(ProcessLogOperator.PARAMETER_LOG,
+				Collections.singletonList(new String[] { "count", "operator.Log.value.applycount" }));
+		testing.getInnerSources().getPortByName("model").connectTo(applier.getInputPorts().getPortByName("model"));
+		testing.getInnerSources().getPortByName("test set")
+				.connectTo(applier.getInputPorts().getPortByName("unlabelled data"));
+		applier.getOutputPorts().getPortByName("labelled data")
+				.connectTo(evaluator.getInputPorts().getPortByName("labelled data"));
+		evaluator.getOutputPorts().getPortByName("performance")
+				.connectTo(log.getInputPorts().getPortByName("through 1"));
+		log.getOutputPorts().getPortByName("through 1").connectTo(testing.getInnerSinks().getPortByName("averagable 1"));
+
+		IOContainer results = process.run(new IOContainer(exampleSet));
+		assertEquals(FOLDS, process.getDataTable(log.getName()).getNumberOfRows());
+		return results.get(PerformanceVector.class);
+	}
+}
@@ -0,0 +1,108 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.storage.hdf5;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.rapidminer.RapidMiner;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.test_utils.RapidAssert;
+
+
+/**
+ * Tests reading example sets with lazy columns via {@link Hdf5ExampleSetReader#read(Path, boolean)}, also if the
+ * file changes before the columns are loaded.
+ *
+ * @since 9.11
+ */
+public class LazyReadTest {
+
+	@BeforeClass
+	public static void setup() {
+		RapidMiner.initAsserters();
+	}
+
+	@Test
+	public void testLazyRead() throws IOException {
+		for (ExampleSet set : new ExampleSet[]{WriteReadTest.createExampleSetNum(20, 5000, true),
+				WriteReadTest.createExampleSetDatetime(20, 1000, true),
+				WriteReadTest.createExampleSetDatetime(20, 1000, false),
+				WriteReadTest.createExampleSetNom(5, 300, 300, true, true, false),
+				WriteReadTest.createAllTypes(), WriteReadTest.createDifferentRoles()}) {
+			Path path = write(set);
+			RapidAssert.assertEquals(set, Hdf5ExampleSetReader.read(path, true));
+		}
+	}
+
+	@Test
+	public void testFileReplaced() throws IOException {
+		ExampleSet set = WriteReadTest.createExampleSetNum(20, 5000, true);
+		ExampleSet other = WriteReadTest.createExampleSetNum(20, 5000, true);
+		Path path = write(set);
+		ExampleSet read = Hdf5ExampleSetReader.read(path, true);
+
+		Files.delete(path);
+		new ExampleSetHdf5Writer(other).write(path);
+
+		RapidAssert.assertEquals(set, read);
+		RapidAssert.assertEquals(other, Hdf5ExampleSetReader.read(path));
+	}
+
+	@Test
+	public void testFileOverwritten() throws IOException {
+		ExampleSet set = WriteReadTest.createExampleSetNum(20, 5000, true);
+		ExampleSet other = WriteReadTest.createExampleSetNum(20, 5000, true);
+		Path path = write(set);
+		ExampleSet read = Hdf5ExampleSetReader.read(path, true);
+		ExampleSet readAgain = Hdf5ExampleSetReader.read(path, true);
+
+		Hdf5ExampleSetReader.loadLazyColumns(path);
+		new ExampleSetHdf5Writer(other).write(path);
+
+		RapidAssert.assertEquals(set, read);
+		RapidAssert.assertEquals(set, readAgain);
+		RapidAssert.assertEquals(other, Hdf5ExampleSetReader.read(path, true));
+	}
+
+	@Test
+	public void testOverwrittenWithItself() throws IOException {
+		ExampleSet set = WriteReadTest.createExampleSetNum(20, 5000, true);
+		Path path = write(set);
+		ExampleSet read = Hdf5ExampleSetReader.read(path, true);
+
+		Hdf5ExampleSetReader.loadLazyColumns(path);
+		new ExampleSetHdf5Writer(read).write(path);
+
+		RapidAssert.assertEquals(set, read);
+		RapidAssert.assertEquals(set, Hdf5ExampleSetReader.read(path));
+	}
+
+	private static Path write(ExampleSet set) throws IOException {
+		File file = File.createTempFile("test", ".hdf5");
+		file.deleteOnExit();
+		new ExampleSetHdf5Writer(set).write(file.toPath());
+		return file.toPath();
+	}
+}
@@ -0,0 +1,183 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.tools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+
+/**
+ * Tests the round trip of the {@link OperatorClassIndex} through its file, that changed providers invalidate their
+ * entries and that classes which disappeared are skipped.
+ *
+ * @since 9.11
+ */
+public class OperatorClassIndexTest {
+
+	private static final String CORE = OperatorService.RAPID_MINER_CORE_PREFIX;
+
+	private static final String EXTENSION = "Test Extension";
+
+	private static final String MISSING_CLASS = "com.rapidminer.operator.DoesNotExist";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Path indexFile;
+
+	@Before
+	public void setup() {
+		indexFile = folder.getRoot().toPath().resolve("operator_classes.idx");
+	}
+
+	@Test
+	public void testRoundTrip() {
+		OperatorClassIndex written = new OperatorClassIndex();
+		written.startProvider(CORE, "9.11|core.jar");
+		written.add(CORE, "com.rapidminer.operator.Operator");
+		written.add(CORE, "com.rapidminer.operator.ExecutionUnit");
+		written.startProvider(EXTENSION, "1.0|extension.jar");
+		written.add(EXTENSION, "com.rapidminer.Process");
+		// providers that were not started are not recorded
+		written.add("Other Extension", "com.rapidminer.RapidMiner");
+		assertTrue(written.isChanged());
+		written.write(indexFile);
+
+		OperatorClassIndex read = new OperatorClassIndex();
+		read.read(indexFile);
+		assertEquals(new HashSet<>(Arrays.asList("com.rapidminer.operator.Operator", "com.rapidminer.operator.ExecutionUnit")),
+				new HashSet<>(read.startProvider(CORE, "9.11|core.jar")));
+		assertEquals(Arrays.asList("com.rapidminer.Process"), read.startProvider(EXTENSION, "1.0|extension.jar"));
+		assertTrue(read.startProvider("Other Extension", "1.0|other.jar").isEmpty());
+	}
+
+	@Test
+	public void testUnchanged() {
+		OperatorClassIndex written = new OperatorClassIndex();
+		written.startProvider(CORE, "9.11|core.jar");
+		written.add(CORE, "com.rapidminer.operator.Operator");
+		written.write(indexFile);
+
+		OperatorClassIndex read = new OperatorClassIndex();
+		read.read(indexFile);
+		read.startProvider(CORE, "9.11|core.jar");
+		read.add(CORE, "com.rapidminer.operator.Operator");
+		assertFalse(read.isChanged());
+		read.add(CORE, "com.rapidminer.Process");
+		assertTrue(read.isChanged());
+	}
+
+	@Test
+	public void testInvalidationOnVersionChange() {
+		OperatorClassIndex written = new OperatorClassIndex();
+		written.startProvider(CORE, "9.11|core.jar");
+		written.add(CORE, "com.rapidminer.operator.Operator");
+		written.startProvider(EXTENSION, "1.0|extension.jar");
+		written.add(EXTENSION, "com.rapidminer.Process");
+		written.write(indexFile);
+
+		OperatorClassIndex read = new OperatorClassIndex();
+		read.read(indexFile);
+		assertEquals(Arrays.asList("com.rapidminer.operator.Operator"), read.startProvider(CORE, "9.11|core.jar"));
+		assertTrue(read.startProvider(EXTENSION, "1.1|extension.jar").isEmpty());
+		read.add(CORE, "com.rapidminer.operator.Operator");
+		read.add(EXTENSION, "com.rapidminer.Process");
+		assertTrue(read.isChanged());
+		read.write(indexFile);
+
+		// the rewritten index is valid for the new version only
+		OperatorClassIndex reread = new OperatorClassIndex();
+		reread.read(indexFile);
+		assertEquals(Arrays.asList("com.rapidminer.Process"), reread.startProvider(EXTENSION, "1.1|extension.jar"));
+		reread = new OperatorClassIndex();
+		reread.read(indexFile);
+		assertTrue(reread.startProvider(EXTENSION, "1.0|extension.jar").isEmpty());
+	}
+
+	@Test
+	public void testRemovedPlugin() {
+		OperatorClassIndex written = new OperatorClassIndex();
+		written.startProvider(CORE, "9.11|core.jar");
+		written.add(CORE, "com.rapidminer.operator.Operator");
+		written.startProvider(EXTENSION, "1.0|extension.jar");
+		written.add(EXTENSION, "com.rapidminer.Process");
+		written.write(indexFile);
+
+		OperatorClassIndex read = new OperatorClassIndex();
+		read.read(indexFile);
+		read.startProvider(CORE, "9.11|core.jar");
+		read.add(CORE, "com.rapidminer.operator.Operator");
+		assertTrue(read.isChanged());
+	}
+
+	@Test
+	public void testFingerprintOfChangedJar() throws IOException {
+		File jar = folder.newFile();
+		String fingerprint = OperatorClassIndex.fingerprint("1.0", jar);
+		assertEquals(fingerprint, OperatorClassIndex.fingerprint("1.0", jar));
+		assertNotEquals(fingerprint, OperatorClassIndex.fingerprint("1.1", jar));
+
+		Files.write(jar.toPath(), new byte[]{1, 2, 3});
+		assertNotEquals(fingerprint, OperatorClassIndex.fingerprint("1.0", jar));
+		assertEquals("1.0|", OperatorClassIndex.fingerprint("1.0", null));
+	}
+
+	@Test
+	public void testMissingClasses() {
+		OperatorClassIndex written = new OperatorClassIndex();
+		written.startProvider(CORE, "9.11|core.jar");
+		written.add(CORE, "com.rapidminer.operator.Operator");
+		written.add(CORE, MISSING_CLASS);
+		written.write(indexFile);
+
+		OperatorClassIndex read = new OperatorClassIndex();
+		read.read(indexFile);
+		List<String> classNames = read.startProvider(CORE, "9.11|core.jar");
+		assertEquals(2, classNames.size());
+		assertEquals(1, OperatorClassIndex.load(classNames, getClass().getClassLoader()));
+	}
+
+	@Test
+	public void testMissingOrBrokenFile() throws IOException {
+		OperatorClassIndex read = new OperatorClassIndex();
+		read.read(indexFile);
+		assertTrue(read.startProvider(CORE, "9.11|core.jar").isEmpty());
+
+		Files.write(indexFile, new byte[]{0x52, 0x4d, 0x4f});
+		read = new OperatorClassIndex();
+		read.read(indexFile);
+		assertTrue(read.startProvider(CORE, "9.11|core.jar").isEmpty());
+	}
+
+}
@@ -0,0 +1,203 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.tools.belt.expression.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.rapidminer.RapidMiner;
+import com.rapidminer.belt.column.Column;
+import com.rapidminer.belt.reader.NumericReader;
+import com.rapidminer.belt.reader.ObjectReader;
+import com.rapidminer.belt.reader.Readers;
+import com.rapidminer.belt.table.Builders;
+import com.rapidminer.belt.table.Table;
+import com.rapidminer.belt.util.Belt;
+import com.rapidminer.tools.ParameterService;
+import com.rapidminer.tools.belt.expression.ExpressionException;
+import com.rapidminer.tools.belt.expression.ExpressionParser;
+import com.rapidminer.tools.belt.expression.ExpressionParserBuilder;
+import com.rapidminer.tools.belt.expression.ExpressionRegistry;
+import com.rapidminer.tools.belt.expression.TableResolver;
+import com.rapidminer.tools.belt.expression.internal.antlr.AntlrParser;
+
+
+/**
+ * Tests that the columns created by {@link CompiledExpression}s are the same as the columns created by evaluating the
+ * parsed expressions row by row. The compilation is switched on and off explicitly, independently of the settings.
+ *
+ * @since 9.11
+ */
+public class CompiledExpressionTest {
+
+	/** Not a multiple of the block size, so that the last block is incomplete. */
+	private static final int SIZE = 3 * CompiledExpression.BLOCK_SIZE + 123;
+
+	private static final Table TABLE = createTable(SIZE, new Random(7));
+
+	@Test
+	public void testArithmetic() throws ExpressionException {
+		assertCompiledEquals("x + y", "x - y * 2", "-x", "+x", "x / y", "x / 0", "x % y", "x ^ 2", "y ^ x",
+				"(x + 1) * (y - 1) / 3", "x + 0.5 - [y]");
+	}
+
+	@Test
+	public void testIntegers() throws ExpressionException {
+		assertCompiledEquals("i + j", "i - 1", "i * j", "-i", "i / j", "i / 0", "i % j", "i ^ 2", "i + x", "i * 2 + 1",
+				"round(x)", "floor(x) + ceil(y)", "sgn(i)");
+	}
+
+	@Test
+	public void testFunctions() throws ExpressionException {
+		assertCompiledEquals("sqrt(abs(x))", "ln(y)", "log(abs(x))", "ld(y)", "exp(x / 10)", "rint(x)",
+				"round(x, 2)", "pow(x, 2)", "mod(i, j)", "binom(abs(i), 3)", "min(x, y, i)", "max(x, 3)", "avg(x, y)",
+				"sum(i, j, x)", "e * x + pi");
+	}
+
+	@Test
+	public void testComparisons() throws ExpressionException {
+		assertCompiledEquals("x > y", "x >= 0", "x < y", "x <= i", "i == j", "x != y", "x == x", "i != 0",
+				"(x > 0) == (y > 0)", "(x > 0) != true");
+	}
+
+	@Test
+	public void testLogical() throws ExpressionException {
+		assertCompiledEquals("x > 0 && y > 0", "x > 0 || y > 0", "!(x > 0)", "x > 0 && true", "x > 0 || false",
+				"!(x > y) || (i == j && y < 1)");
+	}
+
+	@Test
+	public void testIf() throws ExpressionException {
+		assertCompiledEquals("if(x > 0, x, y)", "if(x > 0, i, j)", "if(x > 0, i, x)", "if(x > y, 1, 0)",
+				"if(i == j, x > 0, y > 0)", "if(x > 0, if(y > 0, 1, 2), 3)", "if(x > 0, 1, 0) + i");
+	}
+
+	@Test
+	public void testUnsupported() throws ExpressionException {
+		assertNotCompiledEquals("missing(x)", "finite(x)", "if(x > 0, \"positive\", \"negative\")", "x > 0 && missing(y)",
+				"1 + 2", "3 > 2", "pi");
+	}
+
+	@Test
+	public void testSetting() {
+		String value = ParameterService.getParameterValue(RapidMiner.PROPERTY_RAPIDMINER_SYSTEM_EXPRESSION_COMPILATION);
+		try {
+			ParameterService.setParameterValue(RapidMiner.PROPERTY_RAPIDMINER_SYSTEM_EXPRESSION_COMPILATION, "false");
+			assertFalse(ExpressionParserUtils.isCompilationEnabled());
+			ParameterService.setParameterValue(RapidMiner.PROPERTY_RAPIDMINER_SYSTEM_EXPRESSION_COMPILATION, "true");
+			assertTrue(ExpressionParserUtils.isCompilationEnabled());
+			ParameterService.setParameterValue(RapidMiner.PROPERTY_RAPIDMINER_SYSTEM_EXPRESSION_COMPILATION, null);
+			assertTrue(ExpressionParserUtils.isCompilationEnabled());
+		} finally {
+			ParameterService.setParameterValue(RapidMiner.PROPERTY_RAPIDMINER_SYSTEM_EXPRESSION_COMPILATION, value);
+		}
+	}
+
+	/**
+	 * Asserts that the expressions are compiled and that the compiled columns equal the interpreted ones.
+	 */
+	private static void assertCompiledEquals(String... expressions) throws ExpressionException {
+		for (String expression : expressions) {
+			AntlrParser parser = createParser();
+			assertNotNull(expression, parser.compile(parser.parse(expression)));
+			assertColumnEquals(expression, ExpressionParserUtils.createColumn(SIZE, expression, createParser(), false),
+					ExpressionParserUtils.createColumn(SIZE, expression, createParser(), true));
+		}
+	}
+
+	/**
+	 * Asserts that the expressions are not compiled and that switching on the compilation does not change the columns.
+	 */
+	private static void assertNotCompiledEquals(String... expressions) throws ExpressionException {
+		for (String expression : expressions) {
+			AntlrParser parser = createParser();
+			assertNull(expression, parser.compile(parser.parse(expression)));
+			assertColumnEquals(expression, ExpressionParserUtils.createColumn(SIZE, expression, createParser(), false),
+					ExpressionParserUtils.createColumn(SIZE, expression, createParser(), true));
+		}
+	}
+
+	private static void assertColumnEquals(String expression, Column expected, Column actual) {
+		assertEquals(expression, expected.type(), actual.type());
+		assertEquals(expression, expected.size(), actual.size());
+		if (expected.type().category() == Column.Category.NUMERIC) {
+			NumericReader expectedReader = Readers.numericReader(expected);
+			NumericReader actualReader = Readers.numericReader(actual);
+			for (int row = 0; row < expected.size(); row++) {
+				// also distinguishes the signs of zeros and infinities
+				assertEquals(expression + " in row " + row, Double.doubleToLongBits(expectedReader.read()),
+						Double.doubleToLongBits(actualReader.read()));
+			}
+		} else {
+			ObjectReader<Object> expectedReader = Readers.objectReader(expected, Object.class);
+			ObjectReader<Object> actualReader = Readers.objectReader(actual, Object.class);
+			for (int row = 0; row < expected.size(); row++) {
+				assertEquals(expression + " in row " + row, expectedReader.read(), actualReader.read());
+			}
+		}
+	}
+
+	private static AntlrParser createParser() {
+		ExpressionParser parser = new ExpressionParserBuilder().withModules(ExpressionRegistry.INSTANCE.getAll())
+				.withDynamics(new TableResolver(TABLE)).build();
+		return (AntlrParser) parser;
+	}
+
+	/**
+	 * Creates a table with the real columns x and y and the integer columns i and j. All of them contain missing
+	 * values and zeros, x also infinite values.
+	 */
+	private static Table createTable(int size, Random random) {
+		double[] x = new double[size];
+		double[] y = new double[size];
+		double[] i = new double[size];
+		double[] j = new double[size];
+		for (int row = 0; row < size; row++) {
+			x[row] = value(random, random.nextGaussian() * 10);
+			y[row] = value(random, random.nextDouble() * 5);
+			i[row] = value(random, random.nextInt(21) - 10);
+			j[row] = value(random, random.nextInt(5));
+		}
+		x[0] = Double.POSITIVE_INFINITY;
+		x[1] = Double.NEGATIVE_INFINITY;
+		return Builders.newTableBuilder(size).addReal("x", row -> x[row]).addReal("y", row -> y[row])
+				.addInt53Bit("i", row -> i[row]).addInt53Bit("j", row -> j[row]).build(Belt.defaultContext());
+	}
+
+	/**
+	 * Returns the value, but every tenth value is missing and every twentieth value is zero.
+	 */
+	private static double value(Random random, double value) {
+		int choice = random.nextInt(20);
+		if (choice < 2) {
+			return Double.NaN;
+		} else if (choice == 2) {
+			return 0;
+		}
+		return value;
+	}
+
+}
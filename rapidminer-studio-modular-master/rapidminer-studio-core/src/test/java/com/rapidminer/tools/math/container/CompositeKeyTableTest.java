@@ -0,0 +1,101 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.tools.math.container;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+
+/**
+ * Tests the {@link CompositeKeyTable} against a {@link HashMap} with boxed keys.
+ *
+ * @since 9.11
+ */
+public class CompositeKeyTableTest {
+
+	@Test
+	public void testSingleComponent() {
+		CompositeKeyTable table = new CompositeKeyTable(1);
+		assertEquals(0, table.getOrAdd(new long[]{42}));
+		assertEquals(1, table.getOrAdd(new long[]{-7}));
+		assertEquals(0, table.getOrAdd(new long[]{42}));
+		assertEquals(2, table.size());
+		assertEquals(-7, table.getKeyComponent(1, 0));
+	}
+
+	@Test
+	public void testDoubleBits() {
+		CompositeKeyTable table = new CompositeKeyTable(1);
+		double[] values = {1.0, 2.0, 4.0, 8.0, 0.0, -0.0, Double.NaN, Double.NaN, 1.0};
+		int[] expected = {0, 1, 2, 3, 4, 5, 6, 6, 0};
+		for (int i = 0; i < values.length; i++) {
+			assertEquals(expected[i], table.getOrAdd(new long[]{Double.doubleToLongBits(values[i])}));
+		}
+	}
+
+	@Test
+	public void testRandomCompositeKeys() {
+		Random random = new Random(1337);
+		int width = 3;
+		CompositeKeyTable table = new CompositeKeyTable(width);
+		Map<List<Long>, Integer> reference = new HashMap<>();
+		long[] key = new long[width];
+		for (int i = 0; i < 100_000; i++) {
+			for (int j = 0; j < width; j++) {
+				key[j] = random.nextInt(50);
+			}
+			Integer expected = reference.get(Arrays.asList(key[0], key[1], key[2]));
+			int group = table.getOrAdd(key);
+			if (expected == null) {
+				assertEquals(reference.size(), group);
+				reference.put(Arrays.asList(key[0], key[1], key[2]), group);
+			} else {
+				assertEquals(expected.intValue(), group);
+			}
+		}
+		assertEquals(reference.size(), table.size());
+		for (Map.Entry<List<Long>, Integer> entry : reference.entrySet()) {
+			for (int j = 0; j < width; j++) {
+				assertEquals(entry.getKey().get(j).longValue(), table.getKeyComponent(entry.getValue(), j));
+			}
+		}
+	}
+
+	@Test
+	public void testOffset() {
+		CompositeKeyTable table = new CompositeKeyTable(2);
+		long[] keys = {1, 2, 3, 4, 1, 2};
+		assertEquals(0, table.getOrAdd(keys, 0));
+		assertEquals(1, table.getOrAdd(keys, 2));
+		assertEquals(0, table.getOrAdd(keys, 4));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testIllegalWidth() {
+		new CompositeKeyTable(0);
+	}
+
+}
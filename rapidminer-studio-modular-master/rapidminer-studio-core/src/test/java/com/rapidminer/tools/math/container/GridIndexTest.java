@@ -0,0 +1,184 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.tools.math.container;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.rapidminer.tools.math.similarity.DistanceMeasure;
+import com.rapidminer.tools.math.similarity.numerical.ChebychevNumericalDistance;
+import com.rapidminer.tools.math.similarity.numerical.CosineSimilarity;
+import com.rapidminer.tools.math.similarity.numerical.EuclideanDistance;
+import com.rapidminer.tools.math.similarity.numerical.ManhattanDistance;
+
+
+/**
+ * Tests that the {@link GridIndex} finds the same neighbours as comparing the query with all
+ * points.
+ *
+ * @since 9.11
+ */
+public class GridIndexTest {
+
+	private static final int POINTS = 3_000;
+	private static final int QUERIES = 200;
+
+	@Test
+	public void testEuclidean() {
+		testNeighbours(new EuclideanDistance(), 5, 0.8, 1);
+	}
+
+	@Test
+	public void testManhattan() {
+		testNeighbours(new ManhattanDistance(), 2, 1.5, 2);
+	}
+
+	@Test
+	public void testChebychev() {
+		testNeighbours(new ChebychevNumericalDistance(), 3, 0.5, 3);
+	}
+
+	@Test
+	public void testSingleDimension() {
+		testNeighbours(new EuclideanDistance(), 1, 0.25, 4);
+	}
+
+	@Test
+	public void testBorder() {
+		// integer coordinates put many points at exactly the radius, which is not part of the
+		// neighbourhood
+		double[] values = new double[2 * 100];
+		for (int i = 0; i < 100; i++) {
+			values[2 * i] = i % 10;
+			values[2 * i + 1] = i / 10;
+		}
+		for (DistanceMeasure measure : new DistanceMeasure[] { new EuclideanDistance(), new ManhattanDistance(),
+				new ChebychevNumericalDistance() }) {
+			GridIndex index = GridIndex.create(values, 2, measure, 1);
+			assertNotNull(index);
+			double[] buffer = new double[2];
+			for (int i = 0; i < 100; i++) {
+				double[] query = Arrays.copyOfRange(values, 2 * i, 2 * i + 2);
+				int[] neighbours = index.getNeighbours(query, buffer);
+				assertArrayEquals(new int[] { i }, neighbours);
+				assertArrayEquals(scan(values, 2, measure, 1, query, buffer), neighbours);
+			}
+		}
+	}
+
+	@Test
+	public void testNonFiniteValues() {
+		Random random = new Random(5);
+		int dimensions = 3;
+		double[] values = randomValues(random, 500, dimensions);
+		// the first dimension cannot be used for the cells
+		values[0] = Double.POSITIVE_INFINITY;
+		values[3 * dimensions + 1] = Double.NaN;
+		DistanceMeasure measure = new EuclideanDistance();
+		GridIndex index = GridIndex.create(values, dimensions, measure, 0.7);
+		assertNotNull(index);
+		double[] buffer = new double[dimensions];
+		for (int i = 0; i < 500; i++) {
+			double[] query = Arrays.copyOfRange(values, i * dimensions, (i + 1) * dimensions);
+			assertArrayEquals("query " + i, scan(values, dimensions, measure, 0.7, query, buffer),
+					index.getNeighbours(query, buffer));
+		}
+		double[] query = { 0, Double.NaN, Double.NEGATIVE_INFINITY };
+		assertArrayEquals(scan(values, dimensions, measure, 0.7, query, buffer), index.getNeighbours(query, buffer));
+	}
+
+	@Test
+	public void testNotCreated() {
+		double[] values = randomValues(new Random(7), 10, 2);
+		assertNull(GridIndex.create(values, 2, new CosineSimilarity(), 1));
+		assertNull(GridIndex.create(values, 2, new EuclideanDistance(), 0));
+		assertNull(GridIndex.create(values, 2, new EuclideanDistance(), Double.NaN));
+		assertNull(GridIndex.create(values, 2, new EuclideanDistance(), Double.POSITIVE_INFINITY));
+		assertNull(GridIndex.create(new double[] { Double.NaN, 1, 2, Double.NaN }, 2, new EuclideanDistance(), 1));
+		assertNull(GridIndex.create(new double[0], 2, new EuclideanDistance(), 1));
+		assertTrue(GridIndex.isSupported(new ManhattanDistance()));
+		assertTrue(!GridIndex.isSupported(new CosineSimilarity()));
+	}
+
+	@Test
+	public void testGridDimensions() {
+		// only the dimensions with the largest extent are used, so the cells only depend on them
+		int dimensions = GridIndex.MAX_GRID_DIMENSIONS + 2;
+		double[] values = new double[dimensions * 4];
+		for (int i = 0; i < 4; i++) {
+			for (int d = 0; d < dimensions; d++) {
+				// the first two dimensions separate all points, but have a smaller extent
+				values[i * dimensions + d] = d < 2 ? i * 2 : i % 2 * 100;
+			}
+		}
+		GridIndex index = GridIndex.create(values, dimensions, new EuclideanDistance(), 1);
+		assertEquals(2, index.getNumberOfCells());
+	}
+
+	private static void testNeighbours(DistanceMeasure measure, int dimensions, double radius, long seed) {
+		Random random = new Random(seed);
+		double[] values = randomValues(random, POINTS, dimensions);
+		GridIndex index = GridIndex.create(values, dimensions, measure, radius);
+		assertNotNull(index);
+		double[] buffer = new double[dimensions];
+		for (int i = 0; i < QUERIES; i++) {
+			// queries at existing points and at new points, also outside of the cells
+			double[] query = i % 2 == 0 ? Arrays.copyOfRange(values, i * dimensions, (i + 1) * dimensions)
+					: randomValues(random, 1, dimensions);
+			if (i % 10 == 1) {
+				query[0] += 100;
+			}
+			assertArrayEquals("query " + i, scan(values, dimensions, measure, radius, query, buffer),
+					index.getNeighbours(query, buffer));
+		}
+	}
+
+	/**
+	 * Coarse values in some areas create equal distances and points on cell borders.
+	 */
+	private static double[] randomValues(Random random, int size, int dimensions) {
+		double[] values = new double[size * dimensions];
+		for (int i = 0; i < values.length; i++) {
+			double value = random.nextGaussian() * 3;
+			values[i] = random.nextBoolean() ? Math.round(value * 4) / 4d : value;
+		}
+		return values;
+	}
+
+	private static int[] scan(double[] values, int dimensions, DistanceMeasure measure, double radius, double[] query,
+			double[] buffer) {
+		int[] result = new int[values.length / dimensions];
+		int count = 0;
+		for (int i = 0; i < result.length; i++) {
+			System.arraycopy(values, i * dimensions, buffer, 0, dimensions);
+			if (measure.calculateDistance(buffer, query) < radius) {
+				result[count++] = i;
+			}
+		}
+		return Arrays.copyOf(result, count);
+	}
+}
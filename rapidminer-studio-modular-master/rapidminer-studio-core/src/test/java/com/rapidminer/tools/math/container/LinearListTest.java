@@ -0,0 +1,113 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.tools.math.container;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.rapidminer.tools.container.Tupel;
+import com.rapidminer.tools.math.similarity.DistanceMeasure;
+import com.rapidminer.tools.math.similarity.divergences.SquaredEuclideanDistance;
+import com.rapidminer.tools.math.similarity.numerical.EuclideanDistance;
+import com.rapidminer.tools.math.similarity.numerical.ManhattanDistance;
+
+
+/**
+ * Tests that the batched neighbour search of the {@link LinearList} finds the same neighbours in
+ * the same order as the search for single queries, also when the queues are reused.
+ *
+ * @since 9.11
+ */
+public class LinearListTest {
+
+	private static final int SAMPLES = 5_000;
+	private static final int DIMENSION = 7;
+	private static final int QUERIES = 150;
+
+	@Test
+	public void testEuclidean() {
+		testBatchSearch(new EuclideanDistance(), 5);
+	}
+
+	@Test
+	public void testSquaredEuclidean() {
+		testBatchSearch(new SquaredEuclideanDistance(), 1);
+	}
+
+	@Test
+	public void testFallbackDistance() {
+		// uses the copying default of the offset based distance
+		testBatchSearch(new ManhattanDistance(), 9);
+	}
+
+	private static void testBatchSearch(DistanceMeasure distance, int k) {
+		Random random = new Random(23);
+		LinearList<Integer> list = new LinearList<>(distance);
+		for (int i = 0; i < SAMPLES; i++) {
+			// coarse values create many equal distances
+			list.add(randomValues(random), i);
+		}
+		List<double[]> queries = new ArrayList<>();
+		for (int i = 0; i < QUERIES; i++) {
+			queries.add(randomValues(random));
+		}
+
+		List<Collection<Tupel<Double, Integer>>> batch = list.getNearestValueDistances(k, queries);
+		List<BoundedPriorityQueue<Tupel<Double, Integer>>> queues = new ArrayList<>();
+		for (int i = 0; i < QUERIES; i++) {
+			queues.add(new BoundedPriorityQueue<Tupel<Double, Integer>>(k));
+		}
+		// fill the queues twice to check that they are cleared
+		list.getNearestValueDistances(queries.subList(0, QUERIES / 2), queues.subList(0, QUERIES / 2));
+		list.getNearestValueDistances(queries, queues);
+
+		for (int i = 0; i < QUERIES; i++) {
+			Collection<Tupel<Double, Integer>> expected = list.getNearestValueDistances(k, queries.get(i));
+			assertSameNeighbours(expected, batch.get(i));
+			assertSameNeighbours(expected, queues.get(i));
+		}
+	}
+
+	private static double[] randomValues(Random random) {
+		double[] values = new double[DIMENSION];
+		for (int d = 0; d < DIMENSION; d++) {
+			values[d] = random.nextInt(10) % 7 == 0 ? Double.NaN : random.nextInt(5);
+		}
+		return values;
+	}
+
+	private static void assertSameNeighbours(Collection<Tupel<Double, Integer>> expected,
+			Collection<Tupel<Double, Integer>> actual) {
+		assertEquals(expected.size(), actual.size());
+		Iterator<Tupel<Double, Integer>> iterator = actual.iterator();
+		for (Tupel<Double, Integer> tupel : expected) {
+			Tupel<Double, Integer> other = iterator.next();
+			assertEquals(tupel.getFirst(), other.getFirst());
+			assertEquals(tupel.getSecond(), other.getSecond());
+		}
+	}
+
+}
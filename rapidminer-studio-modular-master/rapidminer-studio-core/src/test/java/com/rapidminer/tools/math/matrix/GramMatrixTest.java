@@ -0,0 +1,211 @@
+/**
+ * Copyright (C) 2001-2021 by RapidMiner and the contributors
+ *
+ * Complete list of developers available at our web site:
+ *
+ * http://rapidminer.com
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the
+ * GNU Affero General Public License as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without
+ * even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License along with this program.
+ * If not, see http://www.gnu.org/licenses/.
+ */
+package com.rapidminer.tools.math.matrix;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.rapidminer.core.concurrency.ConcurrencyContext;
+import com.rapidminer.example.Attribute;
+import com.rapidminer.example.ExampleSet;
+import com.rapidminer.example.table.AttributeFactory;
+import com.rapidminer.example.utils.ExampleSetBuilder;
+import com.rapidminer.example.utils.ExampleSets;
+import com.rapidminer.operator.ProcessStoppedException;
+import com.rapidminer.studio.concurrency.internal.TestConcurrencyContext;
+import com.rapidminer.tools.Ontology;
+
+
+/**
+ * Tests the {@link GramMatrix} against naive two-pass calculations, sequentially and with
+ * different numbers of threads.
+ *
+ * @since 9.11
+ */
+public class GramMatrixTest {
+
+	/** the maximal difference relative to the product of the standard deviations */
+	private static final double TOLERANCE = 2e-13;
+
+	private static final int[] PARALLELISMS = { 1, 3, 4, 16 };
+
+	@Test
+	public void testCovarianceMatrix() throws ProcessStoppedException {
+		double[][] data = createData(new Random(17), 100_000, 77);
+		double[][] copy = new double[data.length][];
+		for (int i = 0; i < data.length; i++) {
+			copy[i] = data[i].clone();
+		}
+		double[][] expected = naiveCovariances(data);
+		for (int parallelism : PARALLELISMS) {
+			double[][] covariances = GramMatrix.getCovarianceMatrix(data, new TestConcurrencyContext(parallelism))
+					.getArray();
+			assertClose("parallelism " + parallelism, expected, covariances, expected);
+		}
+		// the data must not be centered in place
+		for (int i = 0; i < data.length; i++) {
+			assertArrayEquals(copy[i], data[i], 0);
+		}
+	}
+
+	@Test
+	public void testFewRows() throws ProcessStoppedException {
+		double[][] data = createData(new Random(19), 3, 4);
+		double[][] expected = naiveCovariances(data);
+		for (int parallelism : PARALLELISMS) {
+			assertClose("parallelism " + parallelism, expected,
+					GramMatrix.getCovarianceMatrix(data, new TestConcurrencyContext(parallelism)).getArray(), expected);
+		}
+	}
+
+	@Test
+	public void testWeightedCrossProducts() throws ProcessStoppedException {
+		Random random = new Random(23);
+		int rows = 30_000;
+		int columns = 6;
+		double[][] data = createData(random, rows, columns + 1);
+		Attribute[] attributes = new Attribute[columns];
+		Attribute[] all = new Attribute[columns + 1];
+		for (int c = 0; c < all.length; c++) {
+			all[c] = AttributeFactory.createAttribute("att" + c, Ontology.REAL);
+		}
+		System.arraycopy(all, 0, attributes, 0, columns);
+		Attribute weight = all[columns];
+		ExampleSetBuilder builder = ExampleSets.from(all).withBlankSize(rows);
+		for (int c = 0; c < all.length; c++) {
+			int column = c;
+			builder.withColumnFiller(all[c], i -> column == columns ? Math.abs(data[i][column]) : data[i][column]);
+		}
+		ExampleSet exampleSet = ExampleSets.createThreadSafeCopy(builder.build());
+		double[] shifts = new double[columns];
+		for (int c = 0; c < columns; c++) {
+			shifts[c] = random.nextDouble() * 1000;
+		}
+
+		double[][] expected = new double[columns][columns];
+		for (int r = 0; r < rows; r++) {
+			double w = Math.abs(data[r][columns]);
+			for (int i = 0; i < columns; i++) {
+				for (int j = 0; j < columns; j++) {
+					expected[i][j] += w * (data[r][i] - shifts[i]) * (data[r][j] - shifts[j]);
+				}
+			}
+		}
+		for (int parallelism : PARALLELISMS) {
+			ConcurrencyContext context = new TestConcurrencyContext(parallelism);
+			assertClose("weighted, parallelism " + parallelism, expected,
+					GramMatrix.getCrossProducts(exampleSet, attributes, shifts, weight, context), expected);
+			double[][] unweighted = GramMatrix.getCrossProducts(exampleSet, attributes, null, null, context);
+			for (int i = 0; i < columns; i++) {
+				for (int j = 0; j < columns; j++) {
+					assertEquals(unweighted[i][j], unweighted[j][i], 0);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testCorrelationMatrix() throws ProcessStoppedException {
+		int rows = 5_000;
+		double[][] data = createData(new Random(29), rows, 5);
+		Attribute[] attributes = new Attribute[5];
+		for (int c = 0; c < attributes.length; c++) {
+			attributes[c] = AttributeFactory.createAttribute("att" + c, Ontology.REAL);
+		}
+		ExampleSetBuilder builder = ExampleSets.from(attributes).withBlankSize(rows);
+		for (int c = 0; c < attributes.length; c++) {
+			int column = c;
+			builder.withColumnFiller(attributes[c], i -> data[i][column]);
+		}
+		double[][] correlations = GramMatrix.getCorrelationMatrix(builder.build(), attributes, null).getArray();
+		double[][] covariances = naiveCovariances(data);
+		for (int i = 0; i < attributes.length; i++) {
+			assertEquals(1, correlations[i][i], TOLERANCE);
+			for (int j = 0; j < attributes.length; j++) {
+				double expected = covariances[i][j] / Math.sqrt(covariances[i][i] * covariances[j][j]);
+				assertEquals(expected, correlations[i][j], TOLERANCE);
+			}
+		}
+	}
+
+	/**
+	 * Creates columns with different offsets and scales, every column is correlated with the
+	 * previous one.
+	 */
+	private static double[][] createData(Random random, int rows, int columns) {
+		double[][] data = new double[rows][columns];
+		for (int r = 0; r < rows; r++) {
+			double previous = 0;
+			for (int c = 0; c < columns; c++) {
+				double value = 0.5 * previous + random.nextGaussian();
+				previous = value;
+				data[r][c] = 100 * c + Math.pow(10, c % 5 - 2) * value;
+			}
+		}
+		return data;
+	}
+
+	/**
+	 * Calculates the averages first and then sums up the products of the centered values.
+	 */
+	private static double[][] naiveCovariances(double[][] data) {
+		int columns = data[0].length;
+		double[] means = new double[columns];
+		for (double[] row : data) {
+			for (int c = 0; c < columns; c++) {
+				means[c] += row[c];
+			}
+		}
+		for (int c = 0; c < columns; c++) {
+			means[c] /= data.length;
+		}
+		double[][] covariances = new double[columns][columns];
+		for (double[] row : data) {
+			for (int i = 0; i < columns; i++) {
+				for (int j = 0; j < columns; j++) {
+					covariances[i][j] += (row[i] - means[i]) * (row[j] - means[j]);
+				}
+			}
+		}
+		for (double[] row : covariances) {
+			for (int j = 0; j < columns; j++) {
+				row[j] /= data.length - 1;
+			}
+		}
+		return covariances;
+	}
+
+	/**
+	 * Compares the entries relative to the product of the standard deviations taken from the
+	 * diagonal of the scale matrix.
+	 */
+	private static void assertClose(String message, double[][] expected, double[][] actual, double[][] scale) {
+		assertEquals(message, expected.length, actual.length);
+		for (int i = 0; i < expected.length; i++) {
+			for (int j = 0; j < expected.length; j++) {
+				double deviation = Math.sqrt(scale[i][i] * scale[j][j]);
+				assertEquals(message + " at " + i + "," + j, expected[i][j], actual[i][j], TOLERANCE * deviation);
+			}
+		}
+	}
+}